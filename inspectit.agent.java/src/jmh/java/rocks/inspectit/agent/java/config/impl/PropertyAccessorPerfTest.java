@@ -0,0 +1,145 @@
+package rocks.inspectit.agent.java.config.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentType;
+import rocks.inspectit.shared.all.instrumentation.config.impl.PropertyPath;
+import rocks.inspectit.shared.all.instrumentation.config.impl.PropertyPathStart;
+
+/**
+ * Performance test for the {@link PropertyAccessor} with the typical capture paths: parameter
+ * field, field chain on the class, size of a list and length of an array.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class PropertyAccessorPerfTest {
+
+	private PropertyAccessor propertyAccessor;
+
+	private Order order;
+
+	private Object[] parameters;
+
+	private List<PropertyPathStart> parameterField;
+
+	private List<PropertyPathStart> fieldChain;
+
+	private List<PropertyPathStart> listSize;
+
+	private List<PropertyPathStart> arrayLength;
+
+	private List<PropertyPathStart> allPaths;
+
+	@Setup
+	public void init() {
+		propertyAccessor = new PropertyAccessor();
+		propertyAccessor.log = LoggerFactory.getLogger(PropertyAccessor.class);
+
+		Customer customer = new Customer();
+		customer.name = "customer";
+		order = new Order();
+		order.customer = customer;
+		order.items.add("item1");
+		order.items.add("item2");
+		order.codes = new String[] { "a", "b", "c" };
+		parameters = new Object[] { customer, order };
+
+		parameterField = createPaths(createStart(ParameterContentType.PARAM, 0, "name"));
+		fieldChain = createPaths(createStart(ParameterContentType.FIELD, 0, "customer", "name"));
+		listSize = createPaths(createStart(ParameterContentType.PARAM, 1, "items", "size()"));
+		arrayLength = createPaths(createStart(ParameterContentType.PARAM, 1, "codes", "length()"));
+
+		// property accessor lists used by the sensor configurations are copy on write
+		allPaths = new CopyOnWriteArrayList<PropertyPathStart>();
+		allPaths.addAll(parameterField);
+		allPaths.addAll(fieldChain);
+		allPaths.addAll(listSize);
+		allPaths.addAll(arrayLength);
+	}
+
+	@Benchmark
+	public List<ParameterContentData> parameterField() {
+		return propertyAccessor.getParameterContentData(parameterField, order, parameters, null, false);
+	}
+
+	@Benchmark
+	public List<ParameterContentData> fieldChain() {
+		return propertyAccessor.getParameterContentData(fieldChain, order, parameters, null, false);
+	}
+
+	@Benchmark
+	public List<ParameterContentData> listSize() {
+		return propertyAccessor.getParameterContentData(listSize, order, parameters, null, false);
+	}
+
+	@Benchmark
+	public List<ParameterContentData> arrayLength() {
+		return propertyAccessor.getParameterContentData(arrayLength, order, parameters, null, false);
+	}
+
+	@Benchmark
+	public List<ParameterContentData> allPaths() {
+		return propertyAccessor.getParameterContentData(allPaths, order, parameters, null, false);
+	}
+
+	private List<PropertyPathStart> createPaths(PropertyPathStart start) {
+		List<PropertyPathStart> paths = new CopyOnWriteArrayList<PropertyPathStart>();
+		paths.add(start);
+		return paths;
+	}
+
+	private PropertyPathStart createStart(ParameterContentType contentType, int signaturePosition, String... pathNames) {
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("capture");
+		start.setContentType(contentType);
+		start.setSignaturePosition(signaturePosition);
+
+		PropertyPath previous = start;
+		for (String pathName : pathNames) {
+			PropertyPath path = new PropertyPath(pathName);
+			previous.setPathToContinue(path);
+			previous = path;
+		}
+		return start;
+	}
+
+	public static class Customer {
+
+		private String name;
+
+	}
+
+	public static class Order {
+
+		private Customer customer;
+
+		private List<String> items = new ArrayList<String>();
+
+		private String[] codes;
+
+	}
+
+}
@@ -0,0 +1,130 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link DecodingHtmlScriptInjector} and the {@link ByteLevelHtmlScriptInjector} when
+ * writing a html page in chunks the same way the servlet output stream is written. The baseline
+ * only passes the chunks to the stream.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class HtmlScriptInjectorPerfTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	private static final String TAG_TO_INJECT = "<script type=\"text/javascript\" src=\"/wps/cmr/scripts/inspectit_jsagent_1.0.js\"></script>";
+
+	/**
+	 * Size of the page in bytes.
+	 */
+	@Param({ "16384", "262144", "2097152" })
+	private int pageSize;
+
+	/**
+	 * Size of the chunks written to the stream.
+	 */
+	@Param({ "1024", "8192" })
+	private int chunkSize;
+
+	private byte[] page;
+
+	private OutputStream outputStream;
+
+	@Setup(Level.Trial)
+	public void init(final Blackhole blackhole) throws UnsupportedEncodingException {
+		StringBuilder html = new StringBuilder(pageSize);
+		html.append("<!DOCTYPE html>\n<!-- Generated page, copyright notice and build information. -->\n");
+		html.append("<html lang=\"de\">\n<head>\n\t<meta charset=\"utf-8\">\n\t<title>Übersicht der Bestellungen</title>\n");
+		html.append("\t<link rel=\"stylesheet\" href=\"/static/css/main.css\">\n</head>\n<body>\n");
+		int row = 0;
+		while (html.length() < pageSize) {
+			html.append("\t<div class=\"row\" id=\"row-").append(row).append("\"><span class=\"name\">Größe für Bestellung Nr. ").append(row)
+					.append("</span><a href=\"/orders/").append(row).append("\">Details anzeigen</a></div>\n");
+			row++;
+		}
+		html.append("</body>\n</html>\n");
+		page = html.toString().getBytes(ENCODING);
+
+		outputStream = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				blackhole.consume(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				blackhole.consume(b);
+				blackhole.consume(off);
+				blackhole.consume(len);
+			}
+		};
+	}
+
+	@Benchmark
+	public void baseline() throws IOException {
+		for (int pos = 0; pos < page.length; pos += chunkSize) {
+			outputStream.write(page, pos, Math.min(chunkSize, page.length - pos));
+		}
+	}
+
+	@Benchmark
+	public void decoding() throws IOException {
+		DecodingHtmlScriptInjector injector = new DecodingHtmlScriptInjector(TAG_TO_INJECT, ENCODING);
+		for (int pos = 0; pos < page.length; pos += chunkSize) {
+			int len = Math.min(chunkSize, page.length - pos);
+			byte[] newValue = injector.performInjection(page, pos, len);
+			if (null == newValue) {
+				outputStream.write(page, pos, len);
+			} else {
+				outputStream.write(newValue, 0, newValue.length);
+			}
+		}
+	}
+
+	@Benchmark
+	public void byteLevel() throws IOException {
+		ByteLevelHtmlScriptInjector injector = new ByteLevelHtmlScriptInjector(TAG_TO_INJECT, ENCODING);
+		for (int pos = 0; pos < page.length; pos += chunkSize) {
+			int len = Math.min(chunkSize, page.length - pos);
+			if (injector.hasTerminated()) {
+				outputStream.write(page, pos, len);
+				continue;
+			}
+			int injectionPoint = injector.findInjectionPoint(page, pos, len);
+			if (injectionPoint == ByteLevelHtmlScriptInjector.NO_INJECTION) {
+				outputStream.write(page, pos, len);
+			} else {
+				byte[] tag = injector.getEncodedTag();
+				outputStream.write(page, pos, injectionPoint - pos);
+				outputStream.write(tag, 0, tag.length);
+				outputStream.write(page, injectionPoint, (pos + len) - injectionPoint);
+			}
+		}
+	}
+
+}
@@ -58,6 +58,9 @@ public class ClassInstrumenterPerfTest {
 	@Param({ "true", "false" })
 	private boolean specialMethodInstrumentation;
 
+	@Param({ "true", "false" })
+	private boolean callContextAccess;
+
 	private Collection<MethodInstrumentationConfig> configs;
 
 	@Setup(Level.Iteration)
@@ -77,6 +80,9 @@ public class ClassInstrumenterPerfTest {
 			instrumentationConfig.setReturnType(method.getReturnType().getName());
 			if (!specialMethodInstrumentation) {
 				SensorInstrumentationPoint registeredSensorConfig = new SensorInstrumentationPoint();
+				if (callContextAccess) {
+					registeredSensorConfig.addFullAccess();
+				}
 				instrumentationConfig.setSensorInstrumentationPoint(registeredSensorConfig);
 			} else {
 				SpecialInstrumentationPoint specialInstrumentationPoint = new SpecialInstrumentationPoint();
@@ -0,0 +1,251 @@
+package rocks.inspectit.agent.java.instrumentation.asm;
+
+import info.novatec.inspectit.org.objectweb.asm.ClassReader;
+import info.novatec.inspectit.org.objectweb.asm.ClassWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.Agent;
+import rocks.inspectit.agent.java.IAgent;
+import rocks.inspectit.agent.java.hooking.IHookDispatcher;
+import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodInstrumentationConfig;
+import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
+
+/**
+ * Performance test for calling a tiny instrumented method with and without passing the call
+ * context (target object, parameters and return value) to the dispatcher. The dispatcher does
+ * nothing, thus the test measures only the cost of the instrumentation byte code. Run with the
+ * <code>-prof gc</code> option to see the allocation difference per call.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class InstrumentedMethodPerfTest {
+
+	@Param({ "true", "false" })
+	private boolean callContextAccess;
+
+	private IAdder adder;
+
+	private int a = 1;
+
+	private int b = 2;
+
+	private IAgent originalAgent;
+
+	@Setup(Level.Trial)
+	public void init() throws IOException, InstantiationException, IllegalAccessException {
+		originalAgent = Agent.agent;
+		Agent.agent = new NoopAgent();
+
+		SensorInstrumentationPoint sensorInstrumentationPoint = new SensorInstrumentationPoint();
+		sensorInstrumentationPoint.setId(1L);
+		if (callContextAccess) {
+			sensorInstrumentationPoint.addFullAccess();
+		}
+
+		MethodInstrumentationConfig instrumentationConfig = new MethodInstrumentationConfig();
+		instrumentationConfig.setTargetClassFqn(Adder.class.getName());
+		instrumentationConfig.setTargetMethodName("add");
+		instrumentationConfig.setReturnType("int");
+		instrumentationConfig.setParameterTypes(Arrays.asList("int", "int"));
+		instrumentationConfig.setSensorInstrumentationPoint(sensorInstrumentationPoint);
+
+		ClassLoader classLoader = InstrumentedMethodPerfTest.class.getClassLoader();
+		ClassReader classReader = new ClassReader(Adder.class.getName());
+		LoaderAwareClassWriter classWriter = new LoaderAwareClassWriter(classReader, ClassWriter.COMPUTE_FRAMES, classLoader);
+		ClassInstrumenter classInstrumenter = new ClassInstrumenter(new InstrumenterFactory(), classWriter, Collections.singleton(instrumentationConfig), false);
+		classReader.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+
+		Class<?> instrumentedClass = new InstrumentedClassLoader(classLoader).define(Adder.class.getName(), classWriter.toByteArray());
+		adder = (IAdder) instrumentedClass.newInstance();
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanUp() {
+		Agent.agent = originalAgent;
+	}
+
+	/**
+	 * Calls the instrumented method.
+	 */
+	@Benchmark
+	public int call() {
+		return adder.add(a, b);
+	}
+
+	/**
+	 * Interface of the instrumented class, loaded by the parent class loader.
+	 */
+	public interface IAdder {
+
+		/**
+		 * Adds two numbers.
+		 *
+		 * @param first
+		 *            First number.
+		 * @param second
+		 *            Second number.
+		 * @return Sum.
+		 */
+		int add(int first, int second);
+	}
+
+	/**
+	 * Class that will be instrumented.
+	 */
+	public static class Adder implements IAdder {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int add(int first, int second) {
+			return first + second;
+		}
+	}
+
+	/**
+	 * Class loader that defines the instrumented class.
+	 */
+	private static class InstrumentedClassLoader extends ClassLoader {
+
+		/**
+		 * @param parent
+		 *            Parent class loader.
+		 */
+		InstrumentedClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		/**
+		 * Defines the class.
+		 *
+		 * @param name
+		 *            Class name.
+		 * @param bytes
+		 *            Class bytes.
+		 * @return Defined class.
+		 */
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	/**
+	 * Agent that provides the {@link NoopHookDispatcher}.
+	 */
+	private static class NoopAgent implements IAgent {
+
+		/**
+		 * Dispatcher.
+		 */
+		private final IHookDispatcher hookDispatcher = new NoopHookDispatcher();
+
+		@Override
+		public byte[] inspectByteCode(byte[] byteCode, String className, ClassLoader classLoader) {
+			return null;
+		}
+
+		@Override
+		public IHookDispatcher getHookDispatcher() {
+			return hookDispatcher;
+		}
+
+		@Override
+		public boolean shouldClassBeIgnored(String className) {
+			return true;
+		}
+
+		@Override
+		public boolean shouldAnalyzeOnStartup(String className) {
+			return false;
+		}
+
+		@Override
+		public boolean isUsingRetransformation() {
+			return false;
+		}
+
+		@Override
+		public boolean isInstrumentationDisabled() {
+			return false;
+		}
+	}
+
+	/**
+	 * Dispatcher that does nothing.
+	 */
+	private static class NoopHookDispatcher implements IHookDispatcher {
+
+		@Override
+		public void dispatchMethodBeforeBody(long id, Object object, Object[] parameters) {
+		}
+
+		@Override
+		public void dispatchFirstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception) {
+		}
+
+		@Override
+		public void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception) {
+		}
+
+		@Override
+		public void dispatchOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchBeforeCatch(long id, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorBeforeCatch(long id, Object exceptionObject) {
+		}
+
+		@Override
+		public void dispatchConstructorBeforeBody(long id, Object[] parameters) {
+		}
+
+		@Override
+		public void dispatchConstructorAfterBody(long id, Object object, Object[] parameters) {
+		}
+
+		@Override
+		public Object dispatchSpecialMethodBeforeBody(long id, Object object, Object[] parameters) {
+			return null;
+		}
+
+		@Override
+		public Object dispatchSpecialMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+			return null;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.lang.reflect.Field;
 import java.util.concurrent.ThreadFactory;
 
 import org.openjdk.jmh.infra.ThreadParams;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.lmax.disruptor.BlockingWaitStrategy;
@@ -12,10 +13,15 @@ import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.impl.CoreService;
 import rocks.inspectit.agent.java.core.impl.DefaultDataFactory;
 import rocks.inspectit.agent.java.core.impl.DefaultDataWrapper;
 import rocks.inspectit.agent.java.core.impl.PlatformManager;
+import rocks.inspectit.agent.java.hooking.IHook;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
+import rocks.inspectit.agent.java.hooking.impl.HookDispatcher;
+import rocks.inspectit.shared.all.instrumentation.config.impl.MethodSensorTypeConfig;
 
 /**
  * Base class for hook perf tests, holds some repeating setup and cleanup actions.
@@ -71,6 +77,55 @@ public abstract class AbstractHookPerfTest {
 		ringBufferField.setAccessible(false);
 	}
 
+	/**
+	 * Creates the {@link HookDispatcher} that dispatches to the hooks with the {@link #coreService}.
+	 * Must be called after {@link #init(ThreadParams)}.
+	 */
+	protected HookDispatcher createHookDispatcher() throws NoSuchFieldException, IllegalArgumentException, IllegalAccessException {
+		HookDispatcher hookDispatcher = new HookDispatcher();
+		Field coreServiceField = hookDispatcher.getClass().getDeclaredField("coreService");
+		coreServiceField.setAccessible(true);
+		coreServiceField.set(hookDispatcher, coreService);
+		coreServiceField.setAccessible(false);
+		Field logField = hookDispatcher.getClass().getDeclaredField("log");
+		logField.setAccessible(true);
+		logField.set(hookDispatcher, LoggerFactory.getLogger(HookDispatcher.class));
+		logField.setAccessible(false);
+		Field methodOverheadMonitorField = hookDispatcher.getClass().getDeclaredField("methodOverheadMonitor");
+		methodOverheadMonitorField.setAccessible(true);
+		methodOverheadMonitorField.set(hookDispatcher, new IMethodOverheadMonitor() {
+			@Override
+			public void addSample(RegisteredSensorConfig rsc, long overheadNanos, long durationNanos) {
+			}
+
+			@Override
+			public boolean isDeinstrumented(long methodId) {
+				return false;
+			}
+		});
+		methodOverheadMonitorField.setAccessible(false);
+		return hookDispatcher;
+	}
+
+	/**
+	 * Creates the method sensor that provides the given hook.
+	 */
+	protected static IMethodSensor createMethodSensor(long sensorTypeId, final IHook hook) {
+		final MethodSensorTypeConfig sensorTypeConfig = new MethodSensorTypeConfig();
+		sensorTypeConfig.setId(sensorTypeId);
+		return new IMethodSensor() {
+			@Override
+			public IHook getHook() {
+				return hook;
+			}
+
+			@Override
+			public MethodSensorTypeConfig getSensorTypeConfig() {
+				return sensorTypeConfig;
+			}
+		};
+	}
+
 	protected void cleanUp() throws Exception {
 		disruptor.shutdown();
 
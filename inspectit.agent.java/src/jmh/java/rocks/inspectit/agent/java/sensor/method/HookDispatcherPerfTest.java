@@ -0,0 +1,86 @@
+package rocks.inspectit.agent.java.sensor.method;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import rocks.inspectit.agent.java.config.impl.PropertyAccessor;
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.agent.java.hooking.impl.HookDispatcher;
+import rocks.inspectit.agent.java.sensor.method.timer.TimerHook;
+import rocks.inspectit.agent.java.util.Timer;
+
+/**
+ * JMH Test for the end-to-end cost of the {@link HookDispatcher} dispatching one method call to
+ * the given number of sensors.
+ *
+ * @author agent
+ *
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, batchSize = 10000)
+@Measurement(iterations = 10, batchSize = 10000)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+public class HookDispatcherPerfTest extends AbstractHookPerfTest {
+
+	@Param({ "1", "2", "3" })
+	public int sensors;
+
+	private HookDispatcher hookDispatcher;
+
+	private int dispatchIndex;
+
+	@Override
+	@Setup(Level.Iteration)
+	public void init(ThreadParams threadParams) throws NoSuchFieldException, IllegalArgumentException, IllegalAccessException {
+		super.init(threadParams);
+
+		hookDispatcher = createHookDispatcher();
+
+		RegisteredSensorConfig registeredSensorConfig = new RegisteredSensorConfig();
+		registeredSensorConfig.setId(methodId);
+		registeredSensorConfig.setSettings(Collections.<String, Object> emptyMap());
+		for (int i = 0; i < sensors; i++) {
+			TimerHook timerHook = new TimerHook(new Timer(), platformManager, new PropertyAccessor(), new HashMap<String, Object>(), ManagementFactory.getThreadMXBean());
+			registeredSensorConfig.addMethodSensor(createMethodSensor(SENSOR_ID + i, timerHook));
+		}
+		hookDispatcher.addMapping(methodId, registeredSensorConfig);
+		dispatchIndex = hookDispatcher.getDispatchIndex(methodId);
+	}
+
+	/**
+	 * Benchmarks one method call going through all three dispatching methods to the sensors.
+	 */
+	@Benchmark
+	public void dispatchMethod() {
+		hookDispatcher.dispatchMethodBeforeBody(dispatchIndex, TARGET, PARAMS);
+		hookDispatcher.dispatchFirstMethodAfterBody(dispatchIndex, TARGET, PARAMS, RETURN_VALUE, false);
+		hookDispatcher.dispatchSecondMethodAfterBody(dispatchIndex, TARGET, PARAMS, RETURN_VALUE, false);
+	}
+
+	@Override
+	@TearDown(Level.Iteration)
+	public void cleanUp() throws Exception {
+		super.cleanUp();
+
+		hookDispatcher = null; // NOPMD
+	}
+}
@@ -2,6 +2,7 @@ package rocks.inspectit.agent.java.analyzer.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +37,7 @@ import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
 import rocks.inspectit.agent.java.instrumentation.asm.ClassAnalyzer;
 import rocks.inspectit.agent.java.instrumentation.asm.ClassInstrumenter;
@@ -103,6 +105,12 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 	@Autowired
 	private ClassHashHelper classHashHelper;
 
+	/**
+	 * {@link IMethodOverheadMonitor} to check for the de-instrumented methods.
+	 */
+	@Autowired
+	private IMethodOverheadMonitor methodOverheadMonitor;
+
 	/**
 	 * Core-service executor service.
 	 */
@@ -288,7 +296,7 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 			return null;
 		}
 
-		Collection<MethodInstrumentationConfig> instrumentationConfigs = instrumentationResult.getMethodInstrumentationConfigs();
+		Collection<MethodInstrumentationConfig> instrumentationConfigs = removeDeinstrumentedMethods(instrumentationResult.getMethodInstrumentationConfigs());
 
 		// here do the instrumentation
 		ClassReader classReader = new ClassReader(byteCode);
@@ -328,6 +336,35 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer, InitializingBean {
 		}
 	}
 
+	/**
+	 * Removes the {@link SensorInstrumentationPoint}s of the methods that were de-instrumented by
+	 * the {@link IMethodOverheadMonitor}. Given configurations are not changed as they are cached
+	 * in the {@link ClassHashHelper}, thus the configurations that still have the
+	 * {@link SpecialInstrumentationPoint} are copied.
+	 *
+	 * @param instrumentationConfigs
+	 *            Instrumentation configurations from the {@link InstrumentationDefinition}.
+	 * @return Instrumentation configurations to apply.
+	 */
+	private Collection<MethodInstrumentationConfig> removeDeinstrumentedMethods(Collection<MethodInstrumentationConfig> instrumentationConfigs) {
+		Collection<MethodInstrumentationConfig> result = new ArrayList<MethodInstrumentationConfig>(instrumentationConfigs.size());
+		for (MethodInstrumentationConfig config : instrumentationConfigs) {
+			SensorInstrumentationPoint sensorInstrumentationPoint = config.getSensorInstrumentationPoint();
+			if ((null == sensorInstrumentationPoint) || !methodOverheadMonitor.isDeinstrumented(sensorInstrumentationPoint.getId())) {
+				result.add(config);
+			} else if (null != config.getSpecialInstrumentationPoint()) {
+				MethodInstrumentationConfig specialOnlyConfig = new MethodInstrumentationConfig();
+				specialOnlyConfig.setTargetClassFqn(config.getTargetClassFqn());
+				specialOnlyConfig.setTargetMethodName(config.getTargetMethodName());
+				specialOnlyConfig.setReturnType(config.getReturnType());
+				specialOnlyConfig.setParameterTypes(config.getParameterTypes());
+				specialOnlyConfig.setSpecialInstrumentationPoint(config.getSpecialInstrumentationPoint());
+				result.add(specialOnlyConfig);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Creates the new {@link RegisteredSensorConfig} from the {@link MethodInstrumentationConfig}
 	 * if the {@link SensorInstrumentationPoint} is defined in the configuration.
@@ -182,6 +182,17 @@ public interface IConfigurationStorage {
 	 */
 	RetransformationStrategy getRetransformStrategy() throws StorageException;
 
+	/**
+	 * Returns the maximum allowed ratio between the agent overhead and the duration of an
+	 * instrumented method specified by the current environment.
+	 *
+	 * @return The method overhead budget. Zero or negative value means that the automatic
+	 *         de-instrumentation is not active.
+	 * @throws StorageException
+	 *             If agent configuration is not set.
+	 */
+	double getMethodOverheadBudget() throws StorageException;
+
 	/**
 	 * Returns the configuration for the end user monitoring.
 	 *
@@ -280,6 +280,16 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		return agentConfiguration.getRetransformationStrategy();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMethodOverheadBudget() throws StorageException {
+		ensureConfigurationExists();
+
+		return agentConfiguration.getMethodOverheadBudget();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
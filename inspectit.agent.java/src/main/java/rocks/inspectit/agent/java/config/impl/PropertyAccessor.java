@@ -1,15 +1,22 @@
 package rocks.inspectit.agent.java.config.impl;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import rocks.inspectit.agent.java.config.IPropertyAccessor;
 import rocks.inspectit.agent.java.config.PropertyAccessException;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
@@ -51,6 +58,17 @@ public class PropertyAccessor implements IPropertyAccessor {
 	 */
 	private static final String[] ALLOWED_METHODS = new String[] { "size", "length" };
 
+	/**
+	 * Cache of the resolved {@link Method}s and {@link Field}s, so that each step of a property
+	 * path is looked up only once per concrete receiver class. The inner map is keyed by the name
+	 * of the property path, method calls are distinguished by the brackets. Receiver classes are
+	 * weakly referenced. Resolved accessors strongly reference their declaring class (the receiver
+	 * class or one of its super classes), thus they are held by weak references only. Otherwise
+	 * the entry value would keep its own key and its class loader reachable. A cleared accessor
+	 * is simply resolved again.
+	 */
+	private final Cache<Class<?>, ConcurrentMap<String, WeakReference<AccessibleObject>>> accessorCache = CacheBuilder.newBuilder().weakKeys().build();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -175,74 +193,171 @@ public class PropertyAccessor implements IPropertyAccessor {
 				}
 			}
 
-			do {
-				// we are iterating using getDeclaredMethods as this call will
-				// also provide the default access and protected methods which
-				// the
-				// call to getMethods() will not
-				Method[] methods = c.getDeclaredMethods();
-				for (Method method : methods) {
-					if (methodName.equals(method.getName())) {
-
-						// We are only calling methods that do not take an
-						// argument
-						if (method.getParameterTypes().length != 0) {
-							if (log.isDebugEnabled()) {
-								log.debug("Skipping matching method " + method.getName() + " as it is not a no argument method");
-							}
-							continue;
-						}
-
-						try {
-							Object result = method.invoke(object, (Object[]) null);
-							return getPropertyContent(propertyPath.getPathToContinue(), result);
-						} catch (IllegalArgumentException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Argument Exception!", e);
-						} catch (IllegalAccessException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("IllegalAccessException!", e);
-						} catch (InvocationTargetException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("InvocationTargetException!", e);
-						}
-
-					}
+			Method method = (Method) getAccessor(c, propertyPath.getName());
+			if (null == method) {
+				method = resolveMethod(c, methodName);
+				if (null != method) {
+					cacheAccessor(c, propertyPath.getName(), method);
 				}
+			}
 
-				c = c.getSuperclass();
-			} while (c != Object.class);
+			if (null != method) {
+				try {
+					Object result = method.invoke(object, (Object[]) null);
+					return getPropertyContent(propertyPath.getPathToContinue(), result);
+				} catch (IllegalArgumentException e) {
+					log.error(e.getMessage());
+					throw new PropertyAccessException("Illegal Argument Exception!", e);
+				} catch (IllegalAccessException e) {
+					log.error(e.getMessage());
+					throw new PropertyAccessException("IllegalAccessException!", e);
+				} catch (InvocationTargetException e) {
+					log.error(e.getMessage());
+					throw new PropertyAccessException("InvocationTargetException!", e);
+				}
+			}
 
 		} else { // We are dealing with a property navigation and not an method
 			// call
-			do {
-				Field[] fields = c.getDeclaredFields();
-				for (Field field : fields) {
-					if (propertyPath.getName().equals(field.getName())) {
-						try {
-							field.setAccessible(true);
-							Object fieldObject = field.get(object);
-							return getPropertyContent(propertyPath.getPathToContinue(), fieldObject);
-						} catch (SecurityException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Security Exception was thrown while accessing a field!", e);
-						} catch (IllegalArgumentException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Argument Exception!", e);
-						} catch (IllegalAccessException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Access Exception!", e);
-						}
+			Field field = (Field) getAccessor(c, propertyPath.getName());
+			try {
+				if (null == field) {
+					field = resolveField(c, propertyPath.getName());
+					if (null != field) {
+						field.setAccessible(true);
+						cacheAccessor(c, propertyPath.getName(), field);
 					}
 				}
 
-				c = c.getSuperclass();
-			} while (c != Object.class);
+				if (null != field) {
+					Object fieldObject = field.get(object);
+					return getPropertyContent(propertyPath.getPathToContinue(), fieldObject);
+				}
+			} catch (SecurityException e) {
+				log.error(e.getMessage());
+				throw new PropertyAccessException("Security Exception was thrown while accessing a field!", e);
+			} catch (IllegalArgumentException e) {
+				log.error(e.getMessage());
+				throw new PropertyAccessException("Illegal Argument Exception!", e);
+			} catch (IllegalAccessException e) {
+				log.error(e.getMessage());
+				throw new PropertyAccessException("Illegal Access Exception!", e);
+			}
 		}
 
 		throw new PropertyAccessException("Property or method " + propertyPath.getName() + " cannot be found in class " + object.getClass() + "!");
 	}
 
+	/**
+	 * Returns the cached accessor for the path name in the given receiver class.
+	 *
+	 * @param receiverClass
+	 *            Class of the object the path is followed on.
+	 * @param pathName
+	 *            Name of the property path including the brackets for method calls.
+	 * @return Cached {@link Method} or {@link Field} or <code>null</code> if the accessor is not
+	 *         resolved yet or was already garbage collected.
+	 */
+	private AccessibleObject getAccessor(Class<?> receiverClass, String pathName) {
+		ConcurrentMap<String, WeakReference<AccessibleObject>> classAccessors = accessorCache.getIfPresent(receiverClass);
+		if (null == classAccessors) {
+			return null;
+		}
+		WeakReference<AccessibleObject> accessorReference = classAccessors.get(pathName);
+		if (null == accessorReference) {
+			return null;
+		}
+		return accessorReference.get();
+	}
+
+	/**
+	 * Caches the resolved accessor for the path name in the given receiver class.
+	 *
+	 * @param receiverClass
+	 *            Class of the object the path is followed on.
+	 * @param pathName
+	 *            Name of the property path including the brackets for method calls.
+	 * @param accessor
+	 *            Resolved {@link Method} or {@link Field}.
+	 */
+	private void cacheAccessor(Class<?> receiverClass, String pathName, AccessibleObject accessor) {
+		ConcurrentMap<String, WeakReference<AccessibleObject>> classAccessors = accessorCache.getIfPresent(receiverClass);
+		if (null == classAccessors) {
+			// there can be a race condition here, resulting in an accessor not being cached for
+			// one caller, it will just be resolved again with the next invocation
+			classAccessors = new ConcurrentHashMap<String, WeakReference<AccessibleObject>>(4, 0.75f, 1);
+			accessorCache.put(receiverClass, classAccessors);
+		}
+		classAccessors.put(pathName, new WeakReference<AccessibleObject>(accessor));
+	}
+
+	/**
+	 * Resolves the no argument method with the given name in the class hierarchy of the receiver
+	 * class.
+	 *
+	 * @param receiverClass
+	 *            Class of the object the method should be invoked on.
+	 * @param methodName
+	 *            Name of the method without the brackets.
+	 * @return {@link Method} or <code>null</code> if the class hierarchy does not declare such
+	 *         method.
+	 */
+	private Method resolveMethod(Class<?> receiverClass, String methodName) {
+		Class<?> c = receiverClass;
+		do {
+			// we are iterating using getDeclaredMethods as this call will
+			// also provide the default access and protected methods which
+			// the
+			// call to getMethods() will not
+			Method[] methods = c.getDeclaredMethods();
+			for (Method method : methods) {
+				if (methodName.equals(method.getName())) {
+
+					// We are only calling methods that do not take an
+					// argument
+					if (method.getParameterTypes().length != 0) {
+						if (log.isDebugEnabled()) {
+							log.debug("Skipping matching method " + method.getName() + " as it is not a no argument method");
+						}
+						continue;
+					}
+
+					return method;
+				}
+			}
+
+			c = c.getSuperclass();
+		} while ((null != c) && (c != Object.class));
+
+		return null;
+	}
+
+	/**
+	 * Resolves the field with the given name in the class hierarchy of the receiver class.
+	 *
+	 * @param receiverClass
+	 *            Class of the object the field should be read from.
+	 * @param fieldName
+	 *            Name of the field.
+	 * @return {@link Field} or <code>null</code> if the class hierarchy does not declare such
+	 *         field.
+	 */
+	private Field resolveField(Class<?> receiverClass, String fieldName) {
+		Class<?> c = receiverClass;
+		do {
+			Field[] fields = c.getDeclaredFields();
+			for (Field field : fields) {
+				if (fieldName.equals(field.getName())) {
+					return field;
+				}
+			}
+
+			c = c.getSuperclass();
+		} while ((null != c) && (c != Object.class));
+
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
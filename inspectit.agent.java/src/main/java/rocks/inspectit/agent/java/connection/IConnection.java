@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
@@ -138,6 +139,18 @@ public interface IConnection {
 	 */
 	void instrumentationApplied(long platformIdent, Map<Long, long[]> methodToSensorMap) throws ServerUnavailableException;
 
+	/**
+	 * Informs the CMR about the overhead the agent measured for the instrumented methods.
+	 *
+	 * @param platformIdent
+	 *            Id of the agent.
+	 * @param methodOverheadData
+	 *            Overhead statistics of the instrumented methods.
+	 * @throws ServerUnavailableException
+	 *             If server to send the request to is unavailable.
+	 */
+	void methodOverheadReported(long platformIdent, Collection<MethodOverheadData> methodOverheadData) throws ServerUnavailableException;
+
 	/**
 	 * Sends the given {@link JmxAttributeDescriptor} to the CMR, returning the ones that will be
 	 * monitored, based on the current configuration on the server.
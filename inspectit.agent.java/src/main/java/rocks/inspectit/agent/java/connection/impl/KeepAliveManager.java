@@ -10,11 +10,13 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
 import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.event.ConnectionReestablishedEvent;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.spring.logger.Log;
 
@@ -62,6 +64,12 @@ public class KeepAliveManager implements InitializingBean, DisposableBean {
 	@Autowired
 	private IPlatformManager platformManager;
 
+	/**
+	 * Spring {@link ApplicationEventPublisher} for publishing the events.
+	 */
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	/**
 	 * Core-service executor service.
 	 */
@@ -99,6 +107,7 @@ public class KeepAliveManager implements InitializingBean, DisposableBean {
 					try {
 						connection.reconnect();
 						nextReconnectAt = 2;
+						eventPublisher.publishEvent(new ConnectionReestablishedEvent(this));
 					} catch (ConnectException e) {
 						if (log.isDebugEnabled()) {
 							log.debug("Reconnection failed, next attempt in " + TimeUnit.MILLISECONDS.toSeconds(IKeepAliveService.KA_PERIOD * (nextReconnectAt - noConnectionCount)) + " seconds.");
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,11 +25,13 @@ import rocks.inspectit.agent.java.connection.FailFastRemoteMethodCall;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.RegistrationException;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
@@ -61,6 +64,12 @@ public class KryoNetConnection implements IConnection {
 	@Autowired
 	private Client client;
 
+	/**
+	 * Statistics logger to report the compression of sent data to.
+	 */
+	@Autowired
+	private AgentStatisticsLogger statsLogger;
+
 	/**
 	 * The agent storage remote object which will be used to send the measurements to.
 	 */
@@ -363,6 +372,7 @@ public class KryoNetConnection implements IConnection {
 			try {
 				AddDataObjects remote = new AddDataObjects(agentStorageService, measurements);
 				remote.makeCall();
+				statsLogger.dataSent(client.getCompressionStatistics());
 			} catch (ExecutionException executionException) {
 				// there should be no execution exception
 				log.error("Could not send data objects", executionException);
@@ -441,6 +451,31 @@ public class KryoNetConnection implements IConnection {
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void methodOverheadReported(long platformIdent, Collection<MethodOverheadData> methodOverheadData) throws ServerUnavailableException {
+		if (!isConnected()) {
+			throw new ServerUnavailableException();
+		}
+
+		if (CollectionUtils.isNotEmpty(methodOverheadData)) {
+			try {
+				MethodOverheadReportedCall call = new MethodOverheadReportedCall(agentService, platformIdent, methodOverheadData);
+				call.makeCall();
+			} catch (ExecutionException executionException) {
+				// there should be no execution exception
+				log.error("Could not sent method overhead data", executionException);
+			} catch (ServerUnavailableException e) {
+				if (!e.isServerTimeout()) {
+					disconnectClient();
+				}
+				throw e;
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
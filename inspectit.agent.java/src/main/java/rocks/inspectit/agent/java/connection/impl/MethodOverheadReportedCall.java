@@ -0,0 +1,53 @@
+package rocks.inspectit.agent.java.connection.impl;
+
+import java.util.Collection;
+
+import rocks.inspectit.agent.java.connection.AbstractRemoteMethodCall;
+import rocks.inspectit.shared.all.cmr.service.IAgentService;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
+
+/**
+ * {@link AbstractRemoteMethodCall} for the
+ * {@link IAgentService#methodOverheadReported(long, Collection)}.
+ *
+ * @author agent
+ *
+ */
+public class MethodOverheadReportedCall extends AbstractRemoteMethodCall<IAgentService, Void> {
+
+	/**
+	 * Platform id.
+	 */
+	private final long platformIdent;
+
+	/**
+	 * Overhead statistics of the instrumented methods.
+	 */
+	private final Collection<MethodOverheadData> methodOverheadData;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param remoteObject
+	 *            {@link IAgentService} object
+	 * @param platformIdent
+	 *            Platform id.
+	 * @param methodOverheadData
+	 *            overhead statistics of the instrumented methods
+	 */
+	public MethodOverheadReportedCall(IAgentService remoteObject, long platformIdent, Collection<MethodOverheadData> methodOverheadData) {
+		super(remoteObject);
+		this.platformIdent = platformIdent;
+		this.methodOverheadData = methodOverheadData;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Void performRemoteCall(IAgentService remoteObject) throws Exception {
+		remoteObject.methodOverheadReported(platformIdent, methodOverheadData);
+		return null;
+	}
+
+}
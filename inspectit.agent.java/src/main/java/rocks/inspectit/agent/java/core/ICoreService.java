@@ -1,5 +1,7 @@
 package rocks.inspectit.agent.java.core;
 
+import java.util.List;
+
 import rocks.inspectit.shared.all.communication.DefaultData;
 
 /**
@@ -22,4 +24,14 @@ public interface ICoreService {
 	 */
 	void addDefaultData(DefaultData defaultData);
 
+	/**
+	 * Adds all given default data to the core service at once. Either all or none of the elements
+	 * are added.
+	 *
+	 * @param defaultData
+	 *            List of default data to add. Must not be <code>null</code> nor contain
+	 *            <code>null</code> elements.
+	 */
+	void addAllDefaultData(List<? extends DefaultData> defaultData);
+
 }
@@ -144,6 +144,41 @@ public class CoreService implements ICoreService {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addAllDefaultData(List<? extends DefaultData> defaultData) {
+		// ignore any data adding if we are in the shutdown phase
+		if (shutdown || defaultData.isEmpty()) {
+			return;
+		}
+
+		int size = defaultData.size();
+		if (size > ringBuffer.getBufferSize()) {
+			// can never be claimed at once
+			statsLogger.dataDropped(size);
+			return;
+		}
+
+		try {
+			// grab the whole sequence range, never wait for it to be available so that that we don't
+			// block
+			long hi = ringBuffer.tryNext(size);
+			long lo = (hi - size) + 1;
+			try {
+				for (int i = 0; i < size; i++) {
+					ringBuffer.get(lo + i).setDefaultData(defaultData.get(i));
+				}
+			} finally {
+				ringBuffer.publish(lo, hi);
+			}
+		} catch (InsufficientCapacityException e) {
+			// pass the dropped count
+			statsLogger.dataDropped(size);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,11 +1,20 @@
 package rocks.inspectit.agent.java.eum.data;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IPlatformManager;
@@ -18,6 +27,10 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
  * Class for processing beacons which the javascript agent sends back to the agent.
+ * <p>
+ * The beacon is read directly from the request with the Jackson streaming API, only the single
+ * elements are bound to objects. The beacon header is parsed by hand and the response is written
+ * without building a JSON tree.
  *
  * @author David Monschein, Jonas kunz
  */
@@ -25,6 +38,22 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 @Component
 public class DataHandler implements IDataHandler {
 
+	/**
+	 * Maximum amount of characters a beacon can have. Bigger beacons are rejected as soon as the
+	 * limit is reached.
+	 */
+	static final int MAX_BEACON_LENGTH = 1024 * 1024;
+
+	/**
+	 * Maximum amount of elements a beacon can contain.
+	 */
+	static final int MAX_BEACON_ELEMENTS = 1000;
+
+	/**
+	 * Response sent when no new IDs are assigned or the beacon could not be processed.
+	 */
+	private static final String EMPTY_RESPONSE = "{}";
+
 	/**
 	 * Logger.
 	 */
@@ -44,61 +73,197 @@ public class DataHandler implements IDataHandler {
 	private IPlatformManager platformManager;
 
 	/**
-	 * The mapper used for decoding JSON beacons.
+	 * The factory creating the streaming parsers.
 	 */
-	private ObjectMapper jsonMapper;
+	private JsonFactory jsonFactory;
+
+	/**
+	 * The reader used for decoding the single beacon elements.
+	 */
+	private ObjectReader elementReader;
 
 	/**
 	 * Constructor.
 	 */
 	public DataHandler() {
-		jsonMapper = new ObjectMapper();
+		ObjectMapper jsonMapper = new ObjectMapper();
+		jsonFactory = jsonMapper.getFactory();
+		elementReader = jsonMapper.readerFor(EUMBeaconElement.class);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String insertBeacon(String data) {
+	public String insertBeacon(Reader data) {
 		if (data == null) {
-			return "{}";
+			return EMPTY_RESPONSE;
 		}
 
+		JsonParser parser = null;
 		try {
-			Beacon beacon = jsonMapper.readValue(data, Beacon.class);
-			ObjectNode response = jsonMapper.getNodeFactory().objectNode();
+			parser = jsonFactory.createParser(data);
+
+			long sessionID = Beacon.REQUEST_NEW_SESSION_ID_MARKER;
+			long tabID = Beacon.REQUEST_NEW_TAB_ID_MARKER;
+			String activeAgentModules = null;
+			List<EUMBeaconElement> elements = new ArrayList<EUMBeaconElement>();
 
-			long sessionID = beacon.getSessionID();
-			long tabID = beacon.getTabID();
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Beacon must be a JSON object.");
+			}
+			while (nextToken(parser) == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				JsonToken value = nextToken(parser);
+				if ("sessionID".equals(fieldName)) {
+					sessionID = parseHexLong(parser);
+				} else if ("tabID".equals(fieldName)) {
+					tabID = parseHexLong(parser);
+				} else if ("activeAgentModules".equals(fieldName)) {
+					activeAgentModules = parser.getValueAsString();
+				} else if ("data".equals(fieldName) && (value == JsonToken.START_ARRAY)) {
+					parseElements(parser, elements);
+				} else {
+					parser.skipChildren();
+				}
+			}
 
+			StringBuilder response = new StringBuilder(64);
 			// assign new IDs if requested
 			if (sessionID == Beacon.REQUEST_NEW_SESSION_ID_MARKER) {
 				sessionID = RandomUtils.randomLong();
-				response.put("sessionID", ConversionUtils.toHexString(sessionID));
+				appendId(response, "sessionID", sessionID);
 			}
-			if (beacon.getTabID() == Beacon.REQUEST_NEW_TAB_ID_MARKER) {
+			if (tabID == Beacon.REQUEST_NEW_TAB_ID_MARKER) {
 				tabID = RandomUtils.randomLong();
-				response.put("tabID", ConversionUtils.toHexString(tabID));
+				appendId(response, "tabID", tabID);
 			}
 
-			// even needed if the IDs were all known, as this also assigns the ids to all stored
-			// AbstractEUMElements.
-			beacon.deserializationComplete(sessionID, tabID);
+			if (!elements.isEmpty()) {
+				// also assigns the ids to all elements
+				new Beacon(sessionID, tabID, activeAgentModules, elements).deserializationComplete(sessionID, tabID);
 
-			// send the received elements to the CMR
-			for (EUMBeaconElement elem : beacon.getData()) {
-				DefaultData ddata = elem.asDefaultData();
-				ddata.setPlatformIdent(platformManager.getPlatformId());
-				coreService.addDefaultData(ddata);
+				// send the received elements to the CMR
+				List<DefaultData> defaultData = new ArrayList<DefaultData>(elements.size());
+				long platformId = platformManager.getPlatformId();
+				for (EUMBeaconElement elem : elements) {
+					DefaultData ddata = elem.asDefaultData();
+					ddata.setPlatformIdent(platformId);
+					defaultData.add(ddata);
+				}
+				coreService.addAllDefaultData(defaultData);
 			}
 
-			return jsonMapper.writeValueAsString(response);
-
+			if (response.length() == 0) {
+				return EMPTY_RESPONSE;
+			}
+			return response.append('}').toString();
 		} catch (Exception e) {
 			log.error("Error decoding beacon!", e);
-			return "{}";
+			return EMPTY_RESPONSE;
+		} finally {
+			if (null != parser) {
+				try {
+					parser.close();
+				} catch (IOException e) { // NOPMD //NOCHK
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Binds all elements of the data array of the beacon. The parser must be positioned at the
+	 * start of the array and will be positioned at the end of it afterwards.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @param elements
+	 *            list to add the elements to
+	 * @throws IOException
+	 *             If the elements can not be read or one of the limits is exceeded.
+	 */
+	private void parseElements(JsonParser parser, List<EUMBeaconElement> elements) throws IOException {
+		while (nextToken(parser) == JsonToken.START_OBJECT) {
+			if (elements.size() >= MAX_BEACON_ELEMENTS) {
+				throw new JsonParseException(parser, "Beacon contains more than " + MAX_BEACON_ELEMENTS + " elements.");
+			}
+			elements.add(elementReader.<EUMBeaconElement> readValue(parser));
+			checkLength(parser);
+		}
+		if (parser.getCurrentToken() != JsonToken.END_ARRAY) {
+			throw new JsonParseException(parser, "Beacon data must only contain objects.");
+		}
+	}
+
+	/**
+	 * Moves the parser to the next token, failing if the end of the input was reached or the
+	 * beacon exceeds the {@link #MAX_BEACON_LENGTH}.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @return the next token
+	 * @throws IOException
+	 *             If the token can not be read, the input ended or the limit is exceeded.
+	 */
+	private JsonToken nextToken(JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (null == token) {
+			throw new JsonParseException(parser, "Unexpected end of beacon.");
 		}
+		checkLength(parser);
+		return token;
 	}
 
+	/**
+	 * Fails if the beacon exceeds the {@link #MAX_BEACON_LENGTH}.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @throws JsonParseException
+	 *             If the limit is exceeded.
+	 */
+	private void checkLength(JsonParser parser) throws JsonParseException {
+		if (parser.getCurrentLocation().getCharOffset() > MAX_BEACON_LENGTH) {
+			throw new JsonParseException(parser, "Beacon exceeds the maximum length of " + MAX_BEACON_LENGTH + " characters.");
+		}
+	}
+
+	/**
+	 * Reads the current value as a long encoded as hex string. JS only supports double values,
+	 * which do not have enough precision for 64 bit integers.
+	 *
+	 * @param parser
+	 *            the parser positioned at the value
+	 * @return the long value
+	 * @throws IOException
+	 *             If the value is not a valid hex number.
+	 */
+	private long parseHexLong(JsonParser parser) throws IOException {
+		String content = parser.getValueAsString();
+		if (null == content) {
+			throw new JsonParseException(parser, "ID must be a hex string.");
+		}
+		try {
+			return Long.parseLong(content, 16);
+		} catch (NumberFormatException e) {
+			throw new JsonParseException(parser, e.getMessage(), e); // NOPMD
+		}
+	}
+
+	/**
+	 * Appends the ID field to the JSON response.
+	 *
+	 * @param response
+	 *            the response being built
+	 * @param fieldName
+	 *            name of the field
+	 * @param id
+	 *            the id
+	 */
+	private void appendId(StringBuilder response, String fieldName, long id) {
+		response.append((response.length() == 0) ? '{' : ',');
+		response.append('"').append(fieldName).append("\":\"").append(ConversionUtils.toHexString(id)).append('"');
+	}
 
 }
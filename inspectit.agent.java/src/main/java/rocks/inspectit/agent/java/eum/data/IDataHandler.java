@@ -1,5 +1,7 @@
 package rocks.inspectit.agent.java.eum.data;
 
+import java.io.Reader;
+
 /**
  * @author Jonas Kunz
  *
@@ -10,9 +12,10 @@ public interface IDataHandler {
 	 * are assigned and packed into the response.
 	 *
 	 * @param data
-	 *            the beacon which should get parsed and processed
+	 *            reader of the beacon which should get parsed and processed, the beacon is read
+	 *            in a streaming fashion and never buffered as a whole
 	 * @return the response string to send back to the client.
 	 *
 	 */
-	String insertBeacon(String data);
+	String insertBeacon(Reader data);
 }
@@ -0,0 +1,280 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Injector working directly on the encoded binary data, avoiding the decoding and re-encoding done
+ * by the {@link DecodingHtmlScriptInjector}. Usable only for ASCII compatible encodings (see
+ * {@link #isSupported(String)}): in such encodings all characters relevant for the html tokens are
+ * encoded as the single byte with their ASCII value and no other character produces such bytes.
+ * Thus the bytes can be parsed as if they were ISO-8859-1 characters.
+ * <p>
+ * The injector never copies the given data, it only reports the position at which the tag has to
+ * be inserted. The caller is responsible for writing the slices of the original data around the
+ * {@link #getEncodedTag()}. Simultaneously, this injector also accepts already decoded Character
+ * data just as the {@link StreamedHtmlScriptInjector}.
+ *
+ * @author agent
+ *
+ */
+public class ByteLevelHtmlScriptInjector extends StreamedHtmlScriptInjector {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(ByteLevelHtmlScriptInjector.class);
+
+	/**
+	 * Charset used for the byte to character mapping.
+	 */
+	private static final String ISO_8859_1 = "ISO-8859-1";
+
+	/**
+	 * Returned by {@link #findInjectionPoint(byte[], int, int)} if the tag must not be inserted.
+	 */
+	public static final int NO_INJECTION = NO_INJECTION_POINT;
+
+	/**
+	 * Cache of the results of {@link #isSupported(String)}, keyed by the charset name.
+	 */
+	private static final ConcurrentMap<String, Boolean> SUPPORTED_CHARSETS = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * The tag to inject in the encoding of the data.
+	 */
+	private final byte[] encodedTag;
+
+	/**
+	 * View on the data currently being parsed, reused to avoid allocations on each call.
+	 */
+	private final ByteCharSequence dataView = new ByteCharSequence();
+
+	/**
+	 * Creates and initializes a new injector.
+	 *
+	 * @param tagToInject
+	 *            the tag which this injector should try to inject.
+	 * @param charsetName
+	 *            the encoding of the binary data, must be supported as defined by
+	 *            {@link #isSupported(String)}.
+	 * @throws UnsupportedEncodingException
+	 *             If the given charset is not available.
+	 */
+	public ByteLevelHtmlScriptInjector(String tagToInject, String charsetName) throws UnsupportedEncodingException {
+		this(tagToInject.getBytes(charsetName));
+	}
+
+	/**
+	 * Creates and initializes a new injector for the already encoded tag.
+	 *
+	 * @param encodedTag
+	 *            the encoded tag which this injector should try to inject.
+	 * @throws UnsupportedEncodingException
+	 *             If ISO-8859-1 is not available.
+	 */
+	private ByteLevelHtmlScriptInjector(byte[] encodedTag) throws UnsupportedEncodingException {
+		// the parser sees the bytes as ISO-8859-1 chars, so must the double injection check
+		super(new String(encodedTag, ISO_8859_1));
+		this.encodedTag = encodedTag;
+	}
+
+	/**
+	 * Checks if the data in the given encoding can be processed by this injector. This is true for
+	 * UTF-8 and all single byte encodings which are a superset of ASCII (like ISO-8859-1 or
+	 * windows-1252).
+	 *
+	 * @param charsetName
+	 *            the name of the charset, accepted by {@link Charset#forName(String)}.
+	 * @return true if the encoding is supported
+	 */
+	public static boolean isSupported(String charsetName) {
+		if (null == charsetName) {
+			return false;
+		}
+		Boolean supported = SUPPORTED_CHARSETS.get(charsetName);
+		if (null == supported) {
+			supported = Boolean.valueOf(checkAsciiCompatible(charsetName));
+			SUPPORTED_CHARSETS.putIfAbsent(charsetName, supported);
+		}
+		return supported.booleanValue();
+	}
+
+	/**
+	 * Checks if the given charset is UTF-8 or a single-byte superset of ASCII.
+	 *
+	 * @param charsetName
+	 *            the name of the charset
+	 * @return true if the encoding is ASCII compatible
+	 */
+	private static boolean checkAsciiCompatible(String charsetName) {
+		try {
+			Charset charset = Charset.forName(charsetName);
+			if ("UTF-8".equals(charset.name())) {
+				return true;
+			}
+			if (!charset.canEncode() || (charset.newEncoder().maxBytesPerChar() > 1.0f)) {
+				return false;
+			}
+			byte[] ascii = new byte[128];
+			for (int i = 0; i < ascii.length; i++) {
+				ascii[i] = (byte) i;
+			}
+			return Arrays.equals(ascii, new String(ascii, ISO_8859_1).getBytes(charset.name()));
+		} catch (Exception e) {
+			LOG.debug("Charset " + charsetName + " can not be checked for the byte level injection.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Parses the given encoded data and returns the position at which the tag has to be inserted.
+	 * The data may be split arbitrarily by calling this method for each part in order. If the
+	 * injector has already finished, it returns immediately without additional overhead.
+	 *
+	 * @param encodedHtmlData
+	 *            the array holding the data
+	 * @param offset
+	 *            the offset of the data within encodedHtmlData in bytes
+	 * @param len
+	 *            the length of the data within encodedHtmlData in bytes
+	 * @return {@link #NO_INJECTION} if no injection should be performed in this part of the data.
+	 *         Otherwise the index in the encodedHtmlData at which the {@link #getEncodedTag()} has
+	 *         to be inserted.
+	 */
+	public int findInjectionPoint(byte[] encodedHtmlData, int offset, int len) {
+		if (hasTerminated()) {
+			return NO_INJECTION;
+		}
+		dataView.reset(encodedHtmlData, offset, len);
+		try {
+			int injectionPoint = findInjectionPoint(dataView);
+			if (injectionPoint == NO_INJECTION) {
+				return NO_INJECTION;
+			}
+			return offset + injectionPoint;
+		} finally {
+			// never keep a reference to the buffer of the application
+			dataView.reset(null, 0, 0);
+		}
+	}
+
+	/**
+	 * Gets {@link #encodedTag}. The returned array must not be modified.
+	 *
+	 * @return {@link #encodedTag}
+	 */
+	public byte[] getEncodedTag() {
+		return encodedTag; // NOPMD
+	}
+
+	/**
+	 * Read-only {@link CharSequence} view on the byte array, mapping each byte to the character
+	 * with the same (unsigned) value as defined by ISO-8859-1.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class ByteCharSequence implements CharSequence {
+
+		/**
+		 * The viewed array.
+		 */
+		private byte[] data;
+
+		/**
+		 * Offset of the view in the array.
+		 */
+		private int offset;
+
+		/**
+		 * Length of the view.
+		 */
+		private int length;
+
+		/**
+		 * Default constructor.
+		 */
+		ByteCharSequence() {
+		}
+
+		/**
+		 * Creates the view on the given array.
+		 *
+		 * @param data
+		 *            the viewed array
+		 * @param offset
+		 *            offset of the view in the array
+		 * @param length
+		 *            length of the view
+		 */
+		ByteCharSequence(byte[] data, int offset, int length) {
+			reset(data, offset, length);
+		}
+
+		/**
+		 * Changes the viewed data.
+		 *
+		 * @param data
+		 *            the viewed array
+		 * @param offset
+		 *            offset of the view in the array
+		 * @param length
+		 *            length of the view
+		 */
+		void reset(byte[] data, int offset, int length) {
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int length() {
+			return length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public char charAt(int index) {
+			if ((index < 0) || (index >= length)) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return (char) (data[offset + index] & 0xFF);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if ((start < 0) || (end > length) || (start > end)) {
+				throw new IndexOutOfBoundsException(start + "-" + end);
+			}
+			return new ByteCharSequence(data, offset + start, end - start);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				chars[i] = charAt(i);
+			}
+			return new String(chars);
+		}
+	}
+
+}
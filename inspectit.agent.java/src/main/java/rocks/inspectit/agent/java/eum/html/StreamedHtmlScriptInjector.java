@@ -21,6 +21,11 @@ import rocks.inspectit.agent.java.util.CharacterRingBuffer;
  */
 public class StreamedHtmlScriptInjector {
 
+	/**
+	 * Returned by {@link #findInjectionPoint(CharSequence)} if the tag must not be inserted.
+	 */
+	protected static final int NO_INJECTION_POINT = -1;
+
 	/**
 	 * The ringbuffer used for storing the html source. Data gets erased from the beginning as soon
 	 * as it has been identified as a valid HTML token to keep the memory footprint low.
@@ -117,9 +122,33 @@ public class StreamedHtmlScriptInjector {
 	 *         injected tag is returned.
 	 */
 	public String performInjection(CharSequence htmlData) {
-		if (hasTerminated()) {
+		int injectionPoint = findInjectionPoint(htmlData);
+		if (injectionPoint == NO_INJECTION_POINT) {
 			return null;
 		}
+		StringBuilder newHtmlData = new StringBuilder(htmlData.length() + tagToInject.length());
+		newHtmlData.append(htmlData, 0, injectionPoint);
+		newHtmlData.append(tagToInject);
+		newHtmlData.append(htmlData, injectionPoint, htmlData.length());
+		return newHtmlData.toString();
+	}
+
+	/**
+	 * Parses the given source code and returns the position within it where the tag has to be
+	 * inserted. <br>
+	 * The html file may be split arbitrarily by calling this method for each part of the code in
+	 * order. If the injector has already finished, it returns immediately without additional
+	 * overhead. The given data is not modified and no reference to it is kept after the call.
+	 *
+	 * @param htmlData
+	 *            the new data to append to the internal buffer of html source
+	 * @return the offset within htmlData at which the tag has to be inserted or
+	 *         {@link #NO_INJECTION_POINT} if the tag must not be inserted into this part.
+	 */
+	protected int findInjectionPoint(CharSequence htmlData) {
+		if (hasTerminated()) {
+			return NO_INJECTION_POINT;
+		}
 		Caret caret = tokenParser.getCaret();
 		int sourceAppendPos = htmlSource.length();
 		htmlSource.append(htmlData);
@@ -130,26 +159,21 @@ public class StreamedHtmlScriptInjector {
 			switch (tokenParsingResult) {
 			case FAILURE:
 				abortInjectionPointSearch();
-				return null;
+				return NO_INJECTION_POINT;
 			case INCOMPLETE:
-				return null;
+				return NO_INJECTION_POINT;
 			case SUCCESS:
 				processToken();
 				if (status == Status.INJECTION_POINT_FOUND) {
-					String returnValue;
+					int injectionPoint;
 					// attempt to prevent double injection
 					if (!caret.startsWithCheckCase(tagToInject)) {
-						StringBuilder newHtmlData = new StringBuilder();
-						int normalizedCaretPos = caret.getOffset() - sourceAppendPos;
-						newHtmlData.append(htmlData.subSequence(0, normalizedCaretPos));
-						newHtmlData.append(tagToInject);
-						newHtmlData.append(htmlData.subSequence(normalizedCaretPos, htmlData.length()));
-						returnValue = newHtmlData.toString();
+						injectionPoint = caret.getOffset() - sourceAppendPos;
 					} else {
-						returnValue = null; // NOPMD
+						injectionPoint = NO_INJECTION_POINT;
 					}
 					abortInjectionPointSearch();
-					return returnValue;
+					return injectionPoint;
 				} else if (status != Status.TERMINATED) {
 					// free processed token
 					htmlSource.erase(caret.getOffset());
@@ -163,7 +187,7 @@ public class StreamedHtmlScriptInjector {
 				throw new RuntimeException("Unhandled token parsing result: " + tokenParsingResult);
 			}
 		}
-		return null;
+		return NO_INJECTION_POINT;
 	}
 
 	/**
@@ -173,6 +197,7 @@ public class StreamedHtmlScriptInjector {
 		status = Status.TERMINATED;
 		// free unnecessary resource
 		tokenParser = null; // NOPMD
+		htmlSource = null; // NOPMD
 	}
 
 	/**
@@ -3,8 +3,11 @@ package rocks.inspectit.agent.java.eum.instrumentation;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 
+import rocks.inspectit.agent.java.eum.html.ByteLevelHtmlScriptInjector;
 import rocks.inspectit.agent.java.eum.html.DecodingHtmlScriptInjector;
+import rocks.inspectit.agent.java.eum.html.StreamedHtmlScriptInjector;
 import rocks.inspectit.agent.java.eum.reflection.WServletOutputStream;
 import rocks.inspectit.agent.java.proxy.IProxySubject;
 import rocks.inspectit.agent.java.proxy.IRuntimeLinker;
@@ -14,6 +17,10 @@ import rocks.inspectit.agent.java.proxy.ProxyMethod;
 /**
  * A ServletOutputStream which injects the given tag on the fly into the head (or another appropriate) section of the document.
  * Automatically detects non-html and then falls back to just piping the data through.
+ * <p>
+ * Binary data in ASCII compatible encodings is scanned directly by the
+ * {@link ByteLevelHtmlScriptInjector} and passed to the original stream in slices without copying,
+ * other encodings are decoded by the {@link DecodingHtmlScriptInjector}.
  *
  * @author Jonas Kunz
  */
@@ -31,9 +38,27 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	private WServletOutputStream originalStream;
 
 	/**
-	 * The parser used for inejcting the tag.
+	 * The tag to inject.
 	 */
-	private DecodingHtmlScriptInjector injector;
+	private String tagToInject;
+
+	/**
+	 * The parser used for inejcting the tag, either the {@link #byteLevelInjector} or the
+	 * {@link #decodingInjector}.
+	 */
+	private StreamedHtmlScriptInjector injector;
+
+	/**
+	 * The injector used for the binary data in the ASCII compatible encodings, <code>null</code>
+	 * if the {@link #decodingInjector} is used.
+	 */
+	private ByteLevelHtmlScriptInjector byteLevelInjector;
+
+	/**
+	 * The injector used for the binary data in all other encodings, <code>null</code> if the
+	 * {@link #byteLevelInjector} is used.
+	 */
+	private DecodingHtmlScriptInjector decodingInjector;
 
 	/**
 	 * The new-line character.
@@ -51,7 +76,8 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	 */
 	public TagInjectionOutputStream(Object originalStream, String tagToInject) {
 		this.originalStream = WServletOutputStream.wrap((OutputStream) originalStream);
-		injector = new DecodingHtmlScriptInjector(tagToInject, DEFAULT_ENCODING);
+		this.tagToInject = tagToInject;
+		createInjector(DEFAULT_ENCODING);
 	}
 
 	@Override
@@ -70,10 +96,33 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	/**
 	 * Sets the Character encoding used by the data.
 	 * Only this way the stream is able to decode / encode binary data.
+	 * May only be called before any data has been written.
 	 * @param charsetName the name of the encoding
 	 */
 	public void setEncoding(String charsetName) {
-		injector.setCharacterEncoding(charsetName);
+		createInjector(charsetName);
+	}
+
+	/**
+	 * Creates the injector suitable for the given encoding.
+	 *
+	 * @param charsetName
+	 *            the name of the encoding
+	 */
+	private void createInjector(String charsetName) {
+		if (ByteLevelHtmlScriptInjector.isSupported(charsetName)) {
+			try {
+				byteLevelInjector = new ByteLevelHtmlScriptInjector(tagToInject, charsetName);
+				decodingInjector = null; // NOPMD
+				injector = byteLevelInjector;
+				return;
+			} catch (UnsupportedEncodingException e) { // NOPMD //NOCHK
+				// fall back to the decoding injector
+			}
+		}
+		decodingInjector = new DecodingHtmlScriptInjector(tagToInject, charsetName);
+		byteLevelInjector = null; // NOPMD
+		injector = decodingInjector;
 	}
 
 	/**
@@ -348,33 +397,44 @@ public class TagInjectionOutputStream extends OutputStream implements IProxySubj
 	@Override
 	@ProxyMethod
 	public void write(int b) throws IOException {
-		byte[] newValue = injector.performInjection(new byte[] { (byte) b });
-		if (newValue == null) {
+		if (injector.hasTerminated()) {
 			originalStream.write(b);
 		} else {
-			originalStream.write(newValue);
+			write(new byte[] { (byte) b }, 0, 1);
 		}
 	}
 
 	@Override
 	@ProxyMethod
 	public void write(byte[] b) throws IOException {
-		byte[] newValue = injector.performInjection(b);
-		if (newValue == null) {
+		if (injector.hasTerminated()) {
 			originalStream.write(b);
 		} else {
-			originalStream.write(newValue);
+			write(b, 0, b.length);
 		}
 	}
 
 	@Override
 	@ProxyMethod
 	public void write(byte[] b, int off, int len) throws IOException {
-		byte[] newValue = injector.performInjection(b, off, len);
-		if (newValue == null) {
+		if (injector.hasTerminated()) {
 			originalStream.write(b, off, len);
+		} else if (null != byteLevelInjector) {
+			int injectionPoint = byteLevelInjector.findInjectionPoint(b, off, len);
+			if (injectionPoint == ByteLevelHtmlScriptInjector.NO_INJECTION) {
+				originalStream.write(b, off, len);
+			} else {
+				originalStream.write(b, off, injectionPoint - off);
+				originalStream.write(byteLevelInjector.getEncodedTag());
+				originalStream.write(b, injectionPoint, (off + len) - injectionPoint);
+			}
 		} else {
-			originalStream.write(newValue);
+			byte[] newValue = decodingInjector.performInjection(b, off, len);
+			if (newValue == null) {
+				originalStream.write(b, off, len);
+			} else {
+				originalStream.write(newValue);
+			}
 		}
 	}
 
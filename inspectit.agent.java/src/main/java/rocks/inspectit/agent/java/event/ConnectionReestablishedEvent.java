@@ -0,0 +1,30 @@
+package rocks.inspectit.agent.java.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event signaling that the connection to the CMR has been re-established after it was lost.
+ * Components that keep state which is valid only for one connection (like information what was
+ * already sent to the CMR) should reset it on this event.
+ *
+ * @author agent
+ *
+ */
+public class ConnectionReestablishedEvent extends ApplicationEvent {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = -3195424357046519473L;
+
+	/**
+	 * Default constructor for the event.
+	 *
+	 * @param source
+	 *            event source
+	 */
+	public ConnectionReestablishedEvent(Object source) {
+		super(source);
+	}
+
+}
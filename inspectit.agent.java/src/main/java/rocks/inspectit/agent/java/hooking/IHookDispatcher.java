@@ -3,6 +3,9 @@ package rocks.inspectit.agent.java.hooking;
 /**
  * The hook dispatcher interface defines methods to add method and constructor mappings and methods
  * to dispatch the calls from the instrumented methods in the target application.
+ * <p>
+ * The method and constructor calls pass the dispatch index the method id was mapped to when the
+ * byte code was instrumented, not the method id itself. Special method calls pass the method id.
  *
  * @author Patrice Bouillet
  * @author Eduard Tudenhoefner
@@ -13,20 +16,22 @@ public interface IHookDispatcher {
 	/**
 	 * Dispatches the 'before' method statement.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class or the class itself.
 	 * @param parameters
 	 *            The parameters of the method.
 	 */
-	void dispatchMethodBeforeBody(long id, Object object, Object[] parameters);
+	void dispatchMethodBeforeBody(long index, Object object, Object[] parameters);
 
 	/**
 	 * Dispatches the first 'after' method statement.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class or the class itself.
 	 * @param parameters
@@ -38,13 +43,14 @@ public interface IHookDispatcher {
 	 *            parameter will be the exception and not the return value of the method execution
 	 *            as such does not exist.
 	 */
-	void dispatchFirstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception);
+	void dispatchFirstMethodAfterBody(long index, Object object, Object[] parameters, Object returnValue, boolean exception);
 
 	/**
 	 * Dispatches the second 'after' method statement.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class or the class itself.
 	 * @param parameters
@@ -56,13 +62,14 @@ public interface IHookDispatcher {
 	 *            parameter will be the exception and not the return value of the method execution
 	 *            as such does not exist.
 	 */
-	void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception);
+	void dispatchSecondMethodAfterBody(long index, Object object, Object[] parameters, Object returnValue, boolean exception);
 
 	/**
 	 * Dispatches the 'addCatch' statement of a method.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class.
 	 * @param parameters
@@ -70,23 +77,25 @@ public interface IHookDispatcher {
 	 * @param exceptionObject
 	 *            The instance of the {@link Throwable} object.
 	 */
-	void dispatchOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject);
+	void dispatchOnThrowInBody(long index, Object object, Object[] parameters, Object exceptionObject);
 
 	/**
 	 * Dispatches the handler of a {@link Throwable}.
 	 *
-	 * @param id
-	 *            The id of the method where the {@link Throwable} is handled.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param exceptionObject
 	 *            The instance of the {@link Throwable} object.
 	 */
-	void dispatchBeforeCatch(long id, Object exceptionObject);
+	void dispatchBeforeCatch(long index, Object exceptionObject);
 
 	/**
 	 * Dispatches the 'addCatch' statement of a constructor.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class.
 	 * @param parameters
@@ -94,39 +103,42 @@ public interface IHookDispatcher {
 	 * @param exceptionObject
 	 *            The instance of the {@link Throwable} object.
 	 */
-	void dispatchConstructorOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject);
+	void dispatchConstructorOnThrowInBody(long index, Object object, Object[] parameters, Object exceptionObject);
 
 	/**
 	 * Dispatches the handler of a {@link Throwable}.
 	 *
-	 * @param id
-	 *            The id of the constructor where the {@link Throwable} is handled.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param exceptionObject
 	 *            The instance of the {@link Throwable} object.
 	 */
-	void dispatchConstructorBeforeCatch(long id, Object exceptionObject);
+	void dispatchConstructorBeforeCatch(long index, Object exceptionObject);
 
 	/**
 	 * Dispatches the 'before' constructor statement.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param parameters
 	 *            The parameters of the method.
 	 */
-	void dispatchConstructorBeforeBody(long id, Object[] parameters);
+	void dispatchConstructorBeforeBody(long index, Object[] parameters);
 
 	/**
 	 * Dispatches the 'after' constructor statement.
 	 *
-	 * @param id
-	 *            The id of the method.
+	 * @param index
+	 *            The dispatch index of the method, see
+	 *            {@link IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param object
 	 *            The instance of the class or the class itself.
 	 * @param parameters
 	 *            The parameters of the method.
 	 */
-	void dispatchConstructorAfterBody(long id, Object object, Object[] parameters);
+	void dispatchConstructorAfterBody(long index, Object object, Object[] parameters);
 
 	/**
 	 * Dispatches the 'before' on the special method.
@@ -22,6 +22,20 @@ public interface IHookDispatcherMapper {
 	 */
 	void addMapping(long id, RegisteredSensorConfig rsc);
 
+	/**
+	 * Returns the dispatch index of the method or constructor with the given id. The next free
+	 * index is assigned if the id is not known yet, the same id always gets the same index. The
+	 * index is emitted into the instrumented byte code and passed to the {@link IHookDispatcher}
+	 * instead of the id, so that the dispatching does not need to look-up the id. The mapping for
+	 * the id has to be added with {@link #addMapping(long, RegisteredSensorConfig)} before the
+	 * instrumented byte code is executed.
+	 *
+	 * @param id
+	 *            The id of the method or constructor.
+	 * @return Dense dispatch index, starting with <code>0</code>.
+	 */
+	int getDispatchIndex(long id);
+
 	/**
 	 * Adds a special method mapping to the dispatcher.
 	 *
@@ -0,0 +1,38 @@
+package rocks.inspectit.agent.java.hooking;
+
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+
+/**
+ * Collects the overhead the agent causes in the instrumented methods. The {@link IHookDispatcher}
+ * measures only a sample of the method executions and passes the measurements to the monitor,
+ * which decides if the instrumentation of a method should be removed because the overhead exceeds
+ * the configured budget.
+ *
+ * @author agent
+ *
+ */
+public interface IMethodOverheadMonitor {
+
+	/**
+	 * Adds one sampled execution of the instrumented method.
+	 *
+	 * @param rsc
+	 *            {@link RegisteredSensorConfig} of the method.
+	 * @param overheadNanos
+	 *            Time in nanoseconds spent in the dispatching and hooks before and after the
+	 *            method body.
+	 * @param durationNanos
+	 *            Duration of the method body in nanoseconds.
+	 */
+	void addSample(RegisteredSensorConfig rsc, long overheadNanos, long durationNanos);
+
+	/**
+	 * Returns if the instrumentation of the method was removed because the overhead exceeded the
+	 * budget. Such methods must not be instrumented again.
+	 *
+	 * @param methodId
+	 *            Id of the method (sensor instrumentation point).
+	 * @return <code>true</code> if the method was de-instrumented
+	 */
+	boolean isDeinstrumented(long methodId);
+}
@@ -1,5 +1,11 @@
 package rocks.inspectit.agent.java.hooking.impl;
 
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +19,7 @@ import rocks.inspectit.agent.java.hooking.IHook;
 import rocks.inspectit.agent.java.hooking.IHookDispatcher;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
 import rocks.inspectit.agent.java.hooking.ISpecialHook;
 import rocks.inspectit.agent.java.sensor.exception.ExceptionSensor;
 import rocks.inspectit.agent.java.sensor.exception.IExceptionSensorHook;
@@ -57,13 +64,37 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	private ExceptionSensor exceptionSensor;
 
 	/**
-	 * Contains all hooks. Using concurrent map as we need to enable thread-safety of
-	 * {@link #addMapping(long, RegisteredSensorConfig)}.
-	 * <p>
-	 * Not using the {@link java.util.Map} interface on purpose, in order to use put/get methods
-	 * with primitive longs.
+	 * {@link IMethodOverheadMonitor} to pass the sampled overhead measurements to.
+	 */
+	@Autowired
+	private IMethodOverheadMonitor methodOverheadMonitor;
+
+	/**
+	 * Every n-th method dispatch in a thread is measured for the overhead sampling.
+	 */
+	static final int OVERHEAD_SAMPLE_INTERVAL = 1024;
+
+	/**
+	 * Initial length of the {@link #dispatches} array.
+	 */
+	private static final int INITIAL_DISPATCHES_LENGTH = 1024;
+
+	/**
+	 * Dispatching information of all registered sensor configurations indexed by the dense
+	 * dispatch index assigned to the method id in {@link #getDispatchIndex(long)}. The index is
+	 * emitted into the instrumented byte code, so dispatching is a plain array load. The method
+	 * ids are assigned by the CMR from a sequence shared by all agents, thus they can not be used
+	 * as array indexes directly. The array is only grown and replaced under the lock of the
+	 * dispatcher, thus the volatile read is enough for the dispatching methods to see the complete
+	 * mapping.
 	 */
-	private final NonBlockingHashMapLong<RegisteredSensorConfig> mappings = new NonBlockingHashMapLong<RegisteredSensorConfig>();
+	private volatile MethodDispatch[] dispatches = new MethodDispatch[INITIAL_DISPATCHES_LENGTH];
+
+	/**
+	 * Maps the method ids to the dispatch indexes. Only used when instrumenting, guarded by the
+	 * lock of the dispatcher.
+	 */
+	private final Map<Long, Integer> dispatchIndexes = new HashMap<Long, Integer>();
 
 	/**
 	 * Contains all special hooks. Using concurrent map as we need to enable thread-safety of
@@ -75,27 +106,45 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	private final NonBlockingHashMapLong<SpecialSensorConfig> specialMappings = new NonBlockingHashMapLong<SpecialSensorConfig>();
 
 	/**
-	 * Stores the current Status of the invocation sequence tracer in a {@link ThreadLocal} object.
+	 * Stores the execution marker, the count of the started invocation sequences and the current
+	 * invocation sequence hook of the thread, so that only one thread local look-up is needed per
+	 * dispatch.
 	 */
-	private final InvocationSequenceCount invocationSequenceCount = new InvocationSequenceCount();
+	private final DispatchStateHolder dispatchStateHolder = new DispatchStateHolder();
 
 	/**
-	 * A thread local holder object to save the current started invocation sequence.
+	 * {@inheritDoc}
 	 */
-	private final ThreadLocal<IHook> invocationSequenceHolder = new ThreadLocal<IHook>();
+	@Override
+	public synchronized int getDispatchIndex(long id) {
+		Integer dispatchIndex = dispatchIndexes.get(id);
+		if (null != dispatchIndex) {
+			return dispatchIndex.intValue();
+		}
 
-	/**
-	 * If an execution of the dispatching is already in progress, we don't dispatch anything else
-	 * for this thread.
-	 */
-	private final ExecutionMarker executionMarker = new ExecutionMarker();
+		int index = dispatchIndexes.size();
+		MethodDispatch[] array = dispatches;
+		if (index >= array.length) {
+			// volatile write publishes the grown array before the index is emitted to the byte code
+			dispatches = Arrays.copyOf(array, array.length * 2);
+		}
+		dispatchIndexes.put(id, index);
+		return index;
+	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void addMapping(long id, RegisteredSensorConfig rsc) {
-		mappings.put(id, rsc);
+		MethodDispatch dispatch = new MethodDispatch(id, rsc);
+		synchronized (this) {
+			int index = getDispatchIndex(id);
+			MethodDispatch[] array = dispatches;
+			array[index] = dispatch;
+			// volatile write publishes the dispatch
+			dispatches = array;
+		}
 	}
 
 	/**
@@ -106,51 +155,75 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 		specialMappings.put(id, ssc);
 	}
 
+	/**
+	 * Returns the dispatching information for the given dispatch index.
+	 *
+	 * @param index
+	 *            Dispatch index emitted into the instrumented byte code.
+	 * @return {@link MethodDispatch} or <code>null</code> if the mapping does not exist.
+	 */
+	private MethodDispatch getDispatch(long index) {
+		return dispatches[(int) index];
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchMethodBeforeBody(long id, Object object, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+	public void dispatchMethodBeforeBody(long index, Object object, Object[] parameters) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
+			boolean sample = state.enterMethod();
+			long sampleStart = sample ? System.nanoTime() : 0L;
 			try {
-				executionMarker.active();
+				state.active = true;
 
 				try {
-					RegisteredSensorConfig rsc = mappings.get(id);
+					MethodDispatch dispatch = getDispatch(index);
+					RegisteredSensorConfig rsc = dispatch.rsc;
+					long id = dispatch.methodId;
 
-					if (rsc.isStartsInvocation()) {
+					if (dispatch.startsInvocation) {
 						// The sensor configuration contains an invocation sequence
-						// sensor. We have to set it on the thread local map for later
+						// sensor. We have to set it on the thread state for later
 						// access. Additionally, we need to save the count of the called
 						// invocation sensors, as another nested one could be started,
 						// too.
-						invocationSequenceCount.increment();
+						state.invocationCount++;
 
-						if (null == invocationSequenceHolder.get()) {
-							invocationSequenceHolder.set(invocationSequenceSensor.getHook());
+						if (null == state.invocationHook) {
+							state.invocationHook = invocationSequenceSensor.getHook();
 						}
-					} else if (null != invocationSequenceHolder.get()) {
+					} else if (null != state.invocationHook) {
 						// We are executing the following sensor types in an invocation
 						// sequence context, thus we have to execute the before body
 						// method of the invocation sequence hook manually.
-						IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
+						IMethodHook invocationHook = (IMethodHook) state.invocationHook;
 
 						// The sensor type ID is not important here, thus we are passing
 						// a -1. It is already stored in the data object
 						invocationHook.beforeBody(id, -1, object, parameters, rsc);
 					}
 
-					// Now iterate over all registered sensor types and execute them
+					// Now execute all registered sensor types
 					// reverse execution (sensor with lowest priority first)
-					for (IMethodSensor methodSensor : rsc.getMethodSensorsReverse()) {
-						IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
-						methodHook.beforeBody(id, methodSensor.getSensorTypeConfig().getId(), object, parameters, rsc);
+					IMethodHook[] methodHooks = dispatch.methodHooksReverse;
+					if (dispatch.singleSensor) {
+						methodHooks[0].beforeBody(id, dispatch.sensorTypeIds[0], object, parameters, rsc);
+					} else {
+						long[] sensorTypeIds = dispatch.sensorTypeIdsReverse;
+						for (int i = 0; i < methodHooks.length; i++) {
+							methodHooks[i].beforeBody(id, sensorTypeIds[i], object, parameters, rsc);
+						}
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
+			}
+			if (sample) {
+				state.beforeBodySampled(sampleStart, System.nanoTime());
 			}
 		}
 	}
@@ -159,25 +232,36 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchFirstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception) {
-		if (!executionMarker.isActive()) {
+	public void dispatchFirstMethodAfterBody(long index, Object object, Object[] parameters, Object returnValue, boolean exception) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
+			if (state.isSampled()) {
+				state.sampleBodyEnd = System.nanoTime();
+			}
 			try {
-				executionMarker.active();
+				state.active = true;
 
 				try {
-					RegisteredSensorConfig rsc = mappings.get(id);
+					MethodDispatch dispatch = getDispatch(index);
+					RegisteredSensorConfig rsc = dispatch.rsc;
+					long id = dispatch.methodId;
 
-					// Now iterate over all registered sensor types and execute them
+					// Now execute all registered sensor types
 					// normal execution (sensor with highest priority first)
-					for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
-						IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
-						methodHook.firstAfterBody(id, methodSensor.getSensorTypeConfig().getId(), object, parameters, returnValue, exception, rsc);
+					IMethodHook[] methodHooks = dispatch.methodHooks;
+					long[] sensorTypeIds = dispatch.sensorTypeIds;
+					if (dispatch.singleSensor) {
+						methodHooks[0].firstAfterBody(id, sensorTypeIds[0], object, parameters, returnValue, exception, rsc);
+					} else {
+						for (int i = 0; i < methodHooks.length; i++) {
+							methodHooks[i].firstAfterBody(id, sensorTypeIds[i], object, parameters, returnValue, exception, rsc);
+						}
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (after body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -186,59 +270,59 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue, boolean exception) {
-		if (!executionMarker.isActive()) {
+	public void dispatchSecondMethodAfterBody(long index, Object object, Object[] parameters, Object returnValue, boolean exception) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
 
 				try {
-					RegisteredSensorConfig rsc = mappings.get(id);
-
-					if (null != invocationSequenceHolder.get()) {
-						// Need to replace the core service with the one from the invocation
-						// sequence so that all data objects can be associated to that invocation
-						// record.
-						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
-
-						// Now iterate over all registered sensor types and execute them
-						// normal execution (sensor with highest priority first)
-						for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
-							IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
-							// the invocation sequence sensor needs the original core service!
-							long sensorId = methodSensor.getSensorTypeConfig().getId();
-							if (invocCoreService == methodHook) { // NOPMD
-								methodHook.secondAfterBody(coreService, id, sensorId, object, parameters, returnValue, exception, rsc);
-							} else {
-								methodHook.secondAfterBody(invocCoreService, id, sensorId, object, parameters, returnValue, exception, rsc);
-							}
-						}
+					MethodDispatch dispatch = getDispatch(index);
+					RegisteredSensorConfig rsc = dispatch.rsc;
+					long id = dispatch.methodId;
+					IHook invocationHook = state.invocationHook;
+
+					// Need to replace the core service with the one from the invocation sequence so
+					// that all data objects can be associated to that invocation record.
+					ICoreService invocCoreService = (ICoreService) invocationHook;
+					IMethodHook[] methodHooks = dispatch.methodHooks;
+					long[] sensorTypeIds = dispatch.sensorTypeIds;
+
+					// Now execute all registered sensor types
+					// normal execution (sensor with highest priority first)
+					if (dispatch.singleSensor) {
+						IMethodHook methodHook = methodHooks[0];
+						methodHook.secondAfterBody(getCoreService(invocCoreService, methodHook), id, sensorTypeIds[0], object, parameters, returnValue, exception, rsc);
 					} else {
-						for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
-							IMethodHook methodHook = (IMethodHook) methodSensor.getHook();
-							methodHook.secondAfterBody(coreService, id, methodSensor.getSensorTypeConfig().getId(), object, parameters, returnValue, exception, rsc);
+						for (int i = 0; i < methodHooks.length; i++) {
+							IMethodHook methodHook = methodHooks[i];
+							methodHook.secondAfterBody(getCoreService(invocCoreService, methodHook), id, sensorTypeIds[i], object, parameters, returnValue, exception, rsc);
 						}
 					}
 
-					if (rsc.isStartsInvocation()) {
-						invocationSequenceCount.decrement();
+					if (dispatch.startsInvocation) {
+						state.invocationCount--;
 
-						if (0 == invocationSequenceCount.getCount()) {
-							invocationSequenceHolder.set(null);
+						if (0 == state.invocationCount) {
+							state.invocationHook = null;
 						}
-					} else if (null != invocationSequenceHolder.get()) {
+					} else if (null != invocationHook) {
 						// We have to execute the after body method of the invocation sequence hook
 						// manually.
-						IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
-
 						// The sensor type ID is not important here, thus we are passing a -1. It is
 						// already stored in the data object
-						invocationHook.secondAfterBody(coreService, id, -1, object, parameters, returnValue, exception, rsc);
+						((IMethodHook) invocationHook).secondAfterBody(coreService, id, -1, object, parameters, returnValue, exception, rsc);
+					}
+
+					if (state.isSampled()) {
+						methodOverheadMonitor.addSample(rsc, state.getSampledOverhead(System.nanoTime()), state.getSampledDuration());
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (second after body)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.exitMethod();
+				state.active = false;
 			}
 		}
 	}
@@ -247,22 +331,26 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+	public void dispatchOnThrowInBody(long index, Object object, Object[] parameters, Object exceptionObject) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
+
+				MethodDispatch dispatch = getDispatch(index);
+				if (null == dispatch) {
+					return;
+				}
 
 				// rsc contains the settings for the actual method where the exception was thrown.
-				RegisteredSensorConfig rsc = mappings.get(id);
+				RegisteredSensorConfig rsc = dispatch.rsc;
+				long id = dispatch.methodId;
 				MethodSensorTypeConfig sensorTypeConfig = exceptionSensor.getSensorTypeConfig();
 				long sensorTypeId = sensorTypeConfig.getId();
 
-				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
-					// Need to replace the core service with the one from the invocation sequence so
-					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
-				}
+				// Need to replace the core service with the one from the invocation sequence so
+				// that all data objects can be associated to that invocation record.
+				ICoreService invocCoreService = (ICoreService) state.invocationHook;
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
 				if (null != invocCoreService) {
@@ -271,7 +359,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchOnThrowInBody(coreService, id, sensorTypeId, object, exceptionObject, parameters, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -280,21 +368,25 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchBeforeCatch(long id, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+	public void dispatchBeforeCatch(long index, Object exceptionObject) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
+
+				MethodDispatch dispatch = getDispatch(index);
+				if (null == dispatch) {
+					return;
+				}
 
 				// rsc contains the settings of the actual method where the exception is catched.
-				RegisteredSensorConfig rsc = mappings.get(id);
+				RegisteredSensorConfig rsc = dispatch.rsc;
+				long id = dispatch.methodId;
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
-				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
-					// Need to replace the core service with the one from the invocation sequence so
-					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
-				}
+				// Need to replace the core service with the one from the invocation sequence so
+				// that all data objects can be associated to that invocation record.
+				ICoreService invocCoreService = (ICoreService) state.invocationHook;
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
 				if (null != invocCoreService) {
@@ -303,7 +395,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchBeforeCatchBody(coreService, id, sensorTypeId, exceptionObject, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -312,22 +404,26 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchConstructorOnThrowInBody(long id, Object object, Object[] parameters, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+	public void dispatchConstructorOnThrowInBody(long index, Object object, Object[] parameters, Object exceptionObject) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
+
+				MethodDispatch dispatch = getDispatch(index);
+				if (null == dispatch) {
+					return;
+				}
 
 				// rsc contains the settings for the actual constructor where the exception was
 				// thrown.
-				RegisteredSensorConfig rsc = mappings.get(id);
+				RegisteredSensorConfig rsc = dispatch.rsc;
+				long id = dispatch.methodId;
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
-				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
-					// Need to replace the core service with the one from the invocation sequence so
-					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
-				}
+				// Need to replace the core service with the one from the invocation sequence so
+				// that all data objects can be associated to that invocation record.
+				ICoreService invocCoreService = (ICoreService) state.invocationHook;
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
 				if (null != invocCoreService) {
@@ -336,7 +432,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchOnThrowInBody(coreService, id, sensorTypeId, object, exceptionObject, parameters, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -345,22 +441,26 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchConstructorBeforeCatch(long id, Object exceptionObject) {
-		if (!executionMarker.isActive()) {
+	public void dispatchConstructorBeforeCatch(long index, Object exceptionObject) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
+
+				MethodDispatch dispatch = getDispatch(index);
+				if (null == dispatch) {
+					return;
+				}
 
 				// rsc contains the settings of the actual constructor where the exception is
 				// catched.
-				RegisteredSensorConfig rsc = mappings.get(id);
+				RegisteredSensorConfig rsc = dispatch.rsc;
+				long id = dispatch.methodId;
 				long sensorTypeId = exceptionSensor.getSensorTypeConfig().getId();
 
-				ICoreService invocCoreService = null;
-				if (null != invocationSequenceHolder.get()) {
-					// Need to replace the core service with the one from the invocation sequence so
-					// that all data objects can be associated to that invocation record.
-					invocCoreService = (ICoreService) invocationSequenceHolder.get();
-				}
+				// Need to replace the core service with the one from the invocation sequence so
+				// that all data objects can be associated to that invocation record.
+				ICoreService invocCoreService = (ICoreService) state.invocationHook;
 
 				IExceptionSensorHook exceptionHook = (IExceptionSensorHook) exceptionSensor.getHook();
 				if (null != invocCoreService) {
@@ -369,7 +469,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					exceptionHook.dispatchBeforeCatchBody(coreService, id, sensorTypeId, exceptionObject, rsc);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -378,45 +478,50 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchConstructorBeforeBody(long id, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+	public void dispatchConstructorBeforeBody(long index, Object[] parameters) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
 
 				try {
-					RegisteredSensorConfig rsc = mappings.get(id);
+					MethodDispatch dispatch = getDispatch(index);
+					RegisteredSensorConfig rsc = dispatch.rsc;
+					long id = dispatch.methodId;
 
-					if (rsc.isStartsInvocation()) {
+					if (dispatch.startsInvocation) {
 						// The sensor configuration contains an invocation sequence sensor. We have
-						// to set it on the thread local map for later access. Additionally, we need
+						// to set it on the thread state for later access. Additionally, we need
 						// to save the count of the called invocation sensors, as another nested one
 						// could be started, too.
-						invocationSequenceCount.increment();
-						if (null == invocationSequenceHolder.get()) {
-							invocationSequenceHolder.set(invocationSequenceSensor.getHook());
+						state.invocationCount++;
+
+						if (null == state.invocationHook) {
+							state.invocationHook = invocationSequenceSensor.getHook();
 						}
-					} else if (null != invocationSequenceHolder.get()) {
+					} else if (null != state.invocationHook) {
 						// We are executing the following sensor types in an invocation sequence
 						// context, thus we have to execute the before body method of the invocation
 						// sequence hook manually.
-						IConstructorHook invocationHook = (IConstructorHook) invocationSequenceHolder.get();
+						IConstructorHook invocationHook = (IConstructorHook) state.invocationHook;
 
 						// The sensor type ID is not important here, thus we are passing a -1. It is
 						// already stored in the data object
 						invocationHook.beforeConstructor(id, -1, parameters, rsc);
 					}
 
-					// Now iterate over all registered sensor types and execute them
+					// Now execute all registered sensor types
 					// reverse execution (sensor with lowest priority first)
-					for (IMethodSensor methodSensor : rsc.getMethodSensorsReverse()) {
-						IConstructorHook constructorHook = (IConstructorHook) methodSensor.getHook();
-						constructorHook.beforeConstructor(id, methodSensor.getSensorTypeConfig().getId(), parameters, rsc);
+					IConstructorHook[] constructorHooks = dispatch.constructorHooksReverse;
+					long[] sensorTypeIds = dispatch.sensorTypeIdsReverse;
+					for (int i = 0; i < constructorHooks.length; i++) {
+						constructorHooks[i].beforeConstructor(id, sensorTypeIds[i], parameters, rsc);
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before constructor)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
@@ -425,62 +530,69 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void dispatchConstructorAfterBody(long id, Object object, Object[] parameters) {
-		if (!executionMarker.isActive()) {
+	public void dispatchConstructorAfterBody(long index, Object object, Object[] parameters) {
+		DispatchState state = dispatchStateHolder.get();
+		if (!state.active) {
 			try {
-				executionMarker.active();
+				state.active = true;
 
 				try {
-					RegisteredSensorConfig rsc = mappings.get(id);
-
-					if (null != invocationSequenceHolder.get()) {
-						// Need to replace the core service with the one from the invocation
-						// sequence so that all data objects can be associated to that invocation
-						// record.
-						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
-
-						for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
-							IConstructorHook constructorHook = (IConstructorHook) methodSensor.getHook();
-							// the invocation sequence sensor and the exception sensor need the
-							// original core service!
-							long sensorId = methodSensor.getSensorTypeConfig().getId();
-							if (invocCoreService == constructorHook) { // NOPMD
-								constructorHook.afterConstructor(coreService, id, sensorId, object, parameters, rsc);
-							} else {
-								constructorHook.afterConstructor(invocCoreService, id, sensorId, object, parameters, rsc);
-							}
-						}
-					} else {
-						for (IMethodSensor methodSensor : rsc.getMethodSensors()) {
-							IConstructorHook constructorHook = (IConstructorHook) methodSensor.getHook();
-							constructorHook.afterConstructor(coreService, id, methodSensor.getSensorTypeConfig().getId(), object, parameters, rsc);
-						}
+					MethodDispatch dispatch = getDispatch(index);
+					RegisteredSensorConfig rsc = dispatch.rsc;
+					long id = dispatch.methodId;
+					IHook invocationHook = state.invocationHook;
+
+					// Need to replace the core service with the one from the invocation sequence so
+					// that all data objects can be associated to that invocation record.
+					ICoreService invocCoreService = (ICoreService) invocationHook;
+					IConstructorHook[] constructorHooks = dispatch.constructorHooks;
+					long[] sensorTypeIds = dispatch.sensorTypeIds;
+					for (int i = 0; i < constructorHooks.length; i++) {
+						IConstructorHook constructorHook = constructorHooks[i];
+						constructorHook.afterConstructor(getCoreService(invocCoreService, constructorHook), id, sensorTypeIds[i], object, parameters, rsc);
 					}
 
-					if (rsc.isStartsInvocation()) {
-						invocationSequenceCount.decrement();
+					if (dispatch.startsInvocation) {
+						state.invocationCount--;
 
-						if (0 == invocationSequenceCount.getCount()) {
-							invocationSequenceHolder.set(null);
+						if (0 == state.invocationCount) {
+							state.invocationHook = null;
 						}
-					} else if (null != invocationSequenceHolder.get()) {
+					} else if (null != invocationHook) {
 						// We have to execute the after body method of the invocation
 						// sequence hook manually.
-						IConstructorHook invocationHook = (IConstructorHook) invocationSequenceHolder.get();
-
 						// The sensor type ID is not important here, thus we are passing
 						// a -1. It is already stored in the data object
-						invocationHook.afterConstructor(coreService, id, -1, object, parameters, rsc);
+						((IConstructorHook) invocationHook).afterConstructor(coreService, id, -1, object, parameters, rsc);
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (after constructor)", throwable);
 				}
 			} finally {
-				executionMarker.deactive();
+				state.active = false;
 			}
 		}
 	}
 
+	/**
+	 * Returns the core service the given hook should pass the data to. If an invocation sequence
+	 * is active, all hooks except the invocation sequence hook itself use the invocation core
+	 * service, so that all data objects can be associated to that invocation record.
+	 *
+	 * @param invocCoreService
+	 *            Core service of the active invocation or <code>null</code> if there is none.
+	 * @param hook
+	 *            Hook being executed.
+	 * @return Core service to use.
+	 */
+	private ICoreService getCoreService(ICoreService invocCoreService, IHook hook) {
+		// the invocation sequence sensor needs the original core service!
+		if ((null == invocCoreService) || (invocCoreService == hook)) { // NOPMD
+			return coreService;
+		}
+		return invocCoreService;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -524,86 +636,267 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	}
 
 	/**
-	 * Private inner class used to track the count of the started invocation sequences in one
-	 * thread. Thus it extends {@link ThreadLocal} to provide a unique number for every Thread.
+	 * Dispatching information of one {@link RegisteredSensorConfig}. The hooks and sensor type ids
+	 * of the configuration are resolved once when the mapping is added, so that dispatching only
+	 * iterates over arrays. Hook arrays are typed, thus they are only available if all hooks of the
+	 * configuration are of the given hook type.
 	 *
-	 * @author Patrice Bouillet
+	 * @author agent
 	 *
 	 */
-	private static class InvocationSequenceCount extends ThreadLocal<Long> {
+	private static final class MethodDispatch {
 
 		/**
-		 * {@inheritDoc}
+		 * Id of the method or constructor.
 		 */
-		@Override
-		protected Long initialValue() {
-			return Long.valueOf(0);
-		}
+		private final long methodId;
 
 		/**
-		 * Increments the stored value.
+		 * The registered sensor config.
 		 */
-		public void increment() {
-			super.set(Long.valueOf(super.get().longValue() + 1));
-		}
+		private final RegisteredSensorConfig rsc;
 
 		/**
-		 * Decrements the stored value.
+		 * If the invocation should be started.
 		 */
-		public void decrement() {
-			super.set(Long.valueOf(super.get().longValue() - 1));
-		}
+		private final boolean startsInvocation;
 
 		/**
-		 * Returns the current count.
+		 * If there is exactly one sensor.
+		 */
+		private final boolean singleSensor;
+
+		/**
+		 * Sensor type ids, sensor with highest priority first.
+		 */
+		private final long[] sensorTypeIds;
+
+		/**
+		 * Sensor type ids, sensor with lowest priority first.
+		 */
+		private final long[] sensorTypeIdsReverse;
+
+		/**
+		 * Method hooks, sensor with highest priority first.
+		 */
+		private final IMethodHook[] methodHooks;
+
+		/**
+		 * Method hooks, sensor with lowest priority first.
+		 */
+		private final IMethodHook[] methodHooksReverse;
+
+		/**
+		 * Constructor hooks, sensor with highest priority first.
+		 */
+		private final IConstructorHook[] constructorHooks;
+
+		/**
+		 * Constructor hooks, sensor with lowest priority first.
+		 */
+		private final IConstructorHook[] constructorHooksReverse;
+
+		/**
+		 * Default constructor.
 		 *
-		 * @return The count.
+		 * @param methodId
+		 *            Id of the method or constructor.
+		 * @param rsc
+		 *            The registered sensor config.
 		 */
-		public long getCount() {
-			return super.get().longValue();
+		MethodDispatch(long methodId, RegisteredSensorConfig rsc) {
+			this.methodId = methodId;
+			this.rsc = rsc;
+			this.startsInvocation = rsc.isStartsInvocation();
+
+			List<IMethodSensor> sensors = rsc.getMethodSensors();
+			List<IMethodSensor> sensorsReverse = rsc.getMethodSensorsReverse();
+			this.singleSensor = 1 == sensors.size();
+
+			this.sensorTypeIds = new long[sensors.size()];
+			this.sensorTypeIdsReverse = new long[sensorsReverse.size()];
+			IHook[] hooks = new IHook[sensors.size()];
+			IHook[] hooksReverse = new IHook[sensorsReverse.size()];
+			for (int i = 0; i < hooks.length; i++) {
+				IMethodSensor methodSensor = sensors.get(i);
+				hooks[i] = methodSensor.getHook();
+				sensorTypeIds[i] = methodSensor.getSensorTypeConfig().getId();
+			}
+			for (int i = 0; i < hooksReverse.length; i++) {
+				IMethodSensor methodSensor = sensorsReverse.get(i);
+				hooksReverse[i] = methodSensor.getHook();
+				sensorTypeIdsReverse[i] = methodSensor.getSensorTypeConfig().getId();
+			}
+
+			this.methodHooks = toTypedArray(hooks, IMethodHook.class);
+			this.methodHooksReverse = toTypedArray(hooksReverse, IMethodHook.class);
+			this.constructorHooks = toTypedArray(hooks, IConstructorHook.class);
+			this.constructorHooksReverse = toTypedArray(hooksReverse, IConstructorHook.class);
 		}
 
+		/**
+		 * Copies the hooks to the array of the given type.
+		 *
+		 * @param <H>
+		 *            Type of hooks.
+		 * @param hooks
+		 *            Hooks.
+		 * @param hookClass
+		 *            Class of hooks.
+		 * @return Typed array or <code>null</code> if any hook is not of given type.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <H extends IHook> H[] toTypedArray(IHook[] hooks, Class<H> hookClass) {
+			H[] typedHooks = (H[]) Array.newInstance(hookClass, hooks.length);
+			for (int i = 0; i < hooks.length; i++) {
+				if (!hookClass.isInstance(hooks[i])) {
+					return null;
+				}
+				typedHooks[i] = (H) hooks[i];
+			}
+			return typedHooks;
+		}
 	}
 
 	/**
-	 * ThreadLocal execution marker which is used to mark executions as already in progress to not
-	 * dispatch over and over again.
+	 * State of the dispatching in one thread.
 	 *
-	 * @author Patrice Bouillet
+	 * @author agent
 	 *
 	 */
-	private static class ExecutionMarker extends ThreadLocal<Boolean> {
+	private static final class DispatchState {
 
 		/**
-		 * {@inheritDoc}
+		 * If an execution of the dispatching is already in progress, we don't dispatch anything
+		 * else for this thread (because it could happen, that we'll never end then).
 		 */
-		@Override
-		protected Boolean initialValue() {
-			return Boolean.FALSE;
+		private boolean active;
+
+		/**
+		 * Count of the started invocation sequences.
+		 */
+		private long invocationCount;
+
+		/**
+		 * The current started invocation sequence hook.
+		 */
+		private IHook invocationHook;
+
+		/**
+		 * Number of method dispatches left until the next sample.
+		 */
+		private int sampleCountdown = OVERHEAD_SAMPLE_INTERVAL;
+
+		/**
+		 * Depth of the currently executing instrumented methods.
+		 */
+		private int depth;
+
+		/**
+		 * Depth of the sampled method or <code>-1</code> if no method is sampled at the moment.
+		 */
+		private int sampleDepth = -1;
+
+		/**
+		 * Overhead of the before body dispatching of the sampled method.
+		 */
+		private long sampleBeforeOverhead;
+
+		/**
+		 * Time when the body of the sampled method started.
+		 */
+		private long sampleBodyStart;
+
+		/**
+		 * Time when the body of the sampled method ended.
+		 */
+		private long sampleBodyEnd;
+
+		/**
+		 * Marks the entry into an instrumented method and decides if the method execution should
+		 * be sampled. Only one method execution per thread is sampled at a time.
+		 *
+		 * @return <code>true</code> if the method execution should be sampled
+		 */
+		boolean enterMethod() {
+			depth++;
+			if ((sampleDepth < 0) && (--sampleCountdown <= 0)) {
+				sampleCountdown = OVERHEAD_SAMPLE_INTERVAL;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Marks the exit from an instrumented method. Ends the sample if the sampled method is
+		 * exited.
+		 */
+		void exitMethod() {
+			if (sampleDepth == depth) {
+				sampleDepth = -1;
+			}
+			depth--;
 		}
 
 		/**
-		 * Execution is active.
+		 * Starts the sample after the before body dispatching of the sampled method.
+		 *
+		 * @param start
+		 *            Time when the before body dispatching started.
+		 * @param end
+		 *            Time when the before body dispatching ended.
 		 */
-		public void active() {
-			super.set(Boolean.TRUE);
+		void beforeBodySampled(long start, long end) {
+			sampleDepth = depth;
+			sampleBeforeOverhead = end - start;
+			sampleBodyStart = end;
+			sampleBodyEnd = end;
 		}
 
 		/**
-		 * Execution is deactive.
+		 * Returns if the currently dispatched method is sampled.
+		 *
+		 * @return <code>true</code> if the currently dispatched method is sampled
 		 */
-		public void deactive() {
-			super.set(Boolean.FALSE);
+		boolean isSampled() {
+			return sampleDepth == depth;
 		}
 
 		/**
-		 * Defines if our own execution is active, and thus we have to skip the whole processing
-		 * (because it could happen, that we'll never end then).
+		 * Returns the overhead of the sampled method.
 		 *
-		 * @return if own execution is active.
+		 * @param now
+		 *            Current time.
+		 * @return Time spent in the before and after body dispatching.
 		 */
-		public boolean isActive() {
-			return super.get().booleanValue();
+		long getSampledOverhead(long now) {
+			return sampleBeforeOverhead + (now - sampleBodyEnd);
+		}
+
+		/**
+		 * Returns the duration of the sampled method body.
+		 *
+		 * @return Duration of the sampled method body.
+		 */
+		long getSampledDuration() {
+			return sampleBodyEnd - sampleBodyStart;
+		}
+	}
+
+	/**
+	 * Thread local holding the {@link DispatchState} of every thread.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class DispatchStateHolder extends ThreadLocal<DispatchState> {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected DispatchState initialValue() {
+			return new DispatchState();
 		}
 
 	}
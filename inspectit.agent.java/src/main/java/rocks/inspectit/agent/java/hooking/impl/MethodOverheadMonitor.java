@@ -0,0 +1,313 @@
+package rocks.inspectit.agent.java.hooking.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
+import rocks.inspectit.agent.java.instrumentation.RetransformManager;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Default {@link IMethodOverheadMonitor}. Periodically reports the collected overhead statistics
+ * to the CMR and, if the overhead budget is defined in the environment, de-instruments the methods
+ * whose overhead ratio exceeds the budget. A method is de-instrumented by retransforming its class,
+ * where the instrumentation of the de-instrumented methods is skipped. Methods starting an
+ * invocation sequence are never de-instrumented.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class MethodOverheadMonitor implements IMethodOverheadMonitor, Runnable {
+
+	/**
+	 * The interval in seconds of checking and reporting the overhead.
+	 */
+	private static final long CHECK_INTERVAL_SECONDS = 60L;
+
+	/**
+	 * Minimum amount of samples a method must have before it can be de-instrumented.
+	 */
+	private static final long MIN_SAMPLES = 100L;
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Platform manager.
+	 */
+	@Autowired
+	private IPlatformManager platformManager;
+
+	/**
+	 * Configuration storage to read the overhead budget from.
+	 */
+	@Autowired
+	private IConfigurationStorage configurationStorage;
+
+	/**
+	 * The used connection.
+	 */
+	@Autowired
+	private IConnection connection;
+
+	/**
+	 * Retransform manager for removing the instrumentation of loaded classes.
+	 */
+	@Autowired
+	private RetransformManager retransformManager;
+
+	/**
+	 * Core-service executor service.
+	 */
+	@Autowired
+	@Qualifier("coreServiceExecutorService")
+	private ScheduledExecutorService executorService;
+
+	/**
+	 * Overhead statistics mapped to the method id.
+	 */
+	private final NonBlockingHashMapLong<MethodOverhead> overheadMap = new NonBlockingHashMapLong<MethodOverhead>();
+
+	/**
+	 * Ids of the de-instrumented methods.
+	 */
+	private final NonBlockingHashMapLong<Boolean> deinstrumentedMethods = new NonBlockingHashMapLong<Boolean>();
+
+	/**
+	 * Schedules the periodic check.
+	 */
+	@PostConstruct
+	public void postConstruct() {
+		executorService.scheduleAtFixedRate(this, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addSample(RegisteredSensorConfig rsc, long overheadNanos, long durationNanos) {
+		long methodId = rsc.getId();
+		MethodOverhead methodOverhead = overheadMap.get(methodId);
+		if (null == methodOverhead) {
+			methodOverhead = new MethodOverhead(rsc.getTargetClassFqn(), rsc.isStartsInvocation());
+			MethodOverhead existing = overheadMap.putIfAbsent(methodId, methodOverhead);
+			if (null != existing) {
+				methodOverhead = existing;
+			}
+		}
+		methodOverhead.add(overheadNanos, durationNanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isDeinstrumented(long methodId) {
+		return deinstrumentedMethods.containsKey(methodId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run() {
+		try {
+			double budget = getOverheadBudget();
+
+			List<MethodOverheadData> report = new ArrayList<MethodOverheadData>();
+			Set<String> classesToRetransform = new HashSet<String>();
+			for (Map.Entry<Long, MethodOverhead> entry : overheadMap.entrySet()) {
+				long methodId = entry.getKey().longValue();
+				MethodOverhead methodOverhead = entry.getValue();
+				MethodOverheadData data = methodOverhead.toReport(methodId, isDeinstrumented(methodId));
+				if (null == data) {
+					continue;
+				}
+
+				if (isOverBudget(methodOverhead, data, budget)) {
+					deinstrumentedMethods.put(methodId, Boolean.TRUE);
+					data.setDeinstrumented(true);
+					classesToRetransform.add(methodOverhead.className);
+
+					if (log.isInfoEnabled()) {
+						log.info("Removing instrumentation of the method with id " + methodId + " in the class " + methodOverhead.className + ". Overhead ratio " + data.getOverheadRatio()
+								+ " exceeds the budget of " + budget + ".");
+					}
+				}
+				report.add(data);
+			}
+
+			if (!classesToRetransform.isEmpty()) {
+				retransformManager.retransformClasses(classesToRetransform);
+			}
+
+			if (!report.isEmpty()) {
+				sendReport(report);
+			}
+		} catch (Exception e) {
+			if (log.isWarnEnabled()) {
+				log.warn("An unexpected exception ocurred.", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns if the method should be de-instrumented.
+	 *
+	 * @param methodOverhead
+	 *            Statistics of the method.
+	 * @param data
+	 *            Current report of the method.
+	 * @param budget
+	 *            Overhead budget.
+	 * @return <code>true</code> if the method exceeds the budget and can be de-instrumented
+	 */
+	private boolean isOverBudget(MethodOverhead methodOverhead, MethodOverheadData data, double budget) {
+		return (budget > 0) && !data.isDeinstrumented() && !methodOverhead.startsInvocation && (data.getSampleCount() >= MIN_SAMPLES) && (data.getOverheadRatio() > budget);
+	}
+
+	/**
+	 * Returns the overhead budget from the configuration storage.
+	 *
+	 * @return Overhead budget or <code>0</code> if the configuration is not available.
+	 */
+	private double getOverheadBudget() {
+		try {
+			return configurationStorage.getMethodOverheadBudget();
+		} catch (StorageException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Overhead budget can not be read from the configuration storage.", e);
+			}
+			return 0d;
+		}
+	}
+
+	/**
+	 * Sends the overhead report to the CMR.
+	 *
+	 * @param report
+	 *            Overhead data to send.
+	 */
+	private void sendReport(List<MethodOverheadData> report) {
+		if (connection.isConnected()) {
+			try {
+				connection.methodOverheadReported(platformManager.getPlatformId(), report);
+			} catch (ServerUnavailableException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("CMR is not available. Method overhead could not been reported.", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Overhead statistics of one method. Samples are added from the application threads, thus
+	 * access is synchronized. As only a small part of the executions is sampled there is no
+	 * contention.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class MethodOverhead {
+
+		/**
+		 * FQN of the class declaring the method.
+		 */
+		private final String className;
+
+		/**
+		 * If the method starts an invocation sequence.
+		 */
+		private final boolean startsInvocation;
+
+		/**
+		 * Number of samples.
+		 */
+		private long sampleCount;
+
+		/**
+		 * Sum of the overhead in nanoseconds.
+		 */
+		private long overheadNanos;
+
+		/**
+		 * Sum of the method duration in nanoseconds.
+		 */
+		private long durationNanos;
+
+		/**
+		 * Number of samples when the statistics were reported the last time.
+		 */
+		private long reportedSampleCount;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param className
+		 *            FQN of the class declaring the method.
+		 * @param startsInvocation
+		 *            If the method starts an invocation sequence.
+		 */
+		MethodOverhead(String className, boolean startsInvocation) {
+			this.className = className;
+			this.startsInvocation = startsInvocation;
+		}
+
+		/**
+		 * Adds one sample.
+		 *
+		 * @param overhead
+		 *            Overhead in nanoseconds.
+		 * @param duration
+		 *            Method duration in nanoseconds.
+		 */
+		synchronized void add(long overhead, long duration) {
+			sampleCount++;
+			overheadNanos += overhead;
+			durationNanos += duration;
+		}
+
+		/**
+		 * Creates the report of the complete statistics if new samples were added since the last
+		 * report.
+		 *
+		 * @param methodId
+		 *            Id of the method.
+		 * @param deinstrumented
+		 *            If the method is de-instrumented.
+		 * @return {@link MethodOverheadData} or <code>null</code> if there are no new samples.
+		 */
+		synchronized MethodOverheadData toReport(long methodId, boolean deinstrumented) {
+			if (sampleCount == reportedSampleCount) {
+				return null;
+			}
+			reportedSampleCount = sampleCount;
+			return new MethodOverheadData(methodId, sampleCount, overheadNanos, durationNanos, deinstrumented);
+		}
+	}
+
+}
@@ -2,8 +2,10 @@ package rocks.inspectit.agent.java.instrumentation;
 
 import info.novatec.inspectit.org.objectweb.asm.MethodVisitor;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
 import rocks.inspectit.agent.java.instrumentation.asm.ConstructorInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.MethodInstrumenter;
 import rocks.inspectit.agent.java.instrumentation.asm.SpecialMethodInstrumenter;
@@ -23,6 +25,12 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.SpecialInstrumenta
 @Component
 public class InstrumenterFactory {
 
+	/**
+	 * Mapper assigning the dispatch indexes emitted into the instrumented byte code.
+	 */
+	@Autowired
+	private IHookDispatcherMapper hookDispatcherMapper;
+
 	/**
 	 * Returns correct {@link MethodVisitor} based on the given instrumentation point.
 	 *
@@ -51,10 +59,13 @@ public class InstrumenterFactory {
 
 		if (instrumentationPoint instanceof SensorInstrumentationPoint) {
 			SensorInstrumentationPoint sensorInstrumentationPoint = (SensorInstrumentationPoint) instrumentationPoint;
+			int dispatchIndex = hookDispatcherMapper.getDispatchIndex(sensorInstrumentationPoint.getId());
 			if (sensorInstrumentationPoint.isConstructor()) {
-				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, dispatchIndex, enhancedExceptionSensor, sensorInstrumentationPoint.isParametersAccess(),
+						sensorInstrumentationPoint.isTargetAccess());
 			} else {
-				return new MethodInstrumenter(superMethodVisitor, access, name, desc, sensorInstrumentationPoint.getId(), enhancedExceptionSensor);
+				return new MethodInstrumenter(superMethodVisitor, access, name, desc, dispatchIndex, enhancedExceptionSensor, sensorInstrumentationPoint.isParametersAccess(),
+						sensorInstrumentationPoint.isTargetAccess(), sensorInstrumentationPoint.isReturnValueAccess());
 			}
 		} else if (instrumentationPoint instanceof SpecialInstrumentationPoint) {
 			SpecialInstrumentationPoint specialInstrumentationPoint = (SpecialInstrumentationPoint) instrumentationPoint;
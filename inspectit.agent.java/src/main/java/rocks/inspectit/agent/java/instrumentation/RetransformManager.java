@@ -4,8 +4,10 @@ import java.lang.instrument.Instrumentation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
@@ -137,6 +139,33 @@ public class RetransformManager implements ApplicationListener<AgentMessagesRece
 		return definitionMap.values();
 	}
 
+	/**
+	 * Retransforms the loaded classes with the given names. The instrumentation of the classes is
+	 * again performed based on the currently registered {@link InstrumentationDefinition}s. Has no
+	 * effect if retransformation is not used by the agent.
+	 *
+	 * @param classNames
+	 *            FQNs of the classes to retransform.
+	 */
+	public void retransformClasses(Collection<String> classNames) {
+		if (CollectionUtils.isEmpty(classNames)) {
+			return;
+		}
+
+		if ((null == instrumentation) || !Agent.agent.isUsingRetransformation()) {
+			if (log.isInfoEnabled()) {
+				log.info("Retransformation is disabled by the used retransformation strategy.");
+			}
+			return;
+		}
+
+		if (log.isInfoEnabled()) {
+			log.info("Trying to retransform {} class(es)", classNames.size());
+		}
+
+		retransformLoadedClasses(new HashSet<String>(classNames));
+	}
+
 	/**
 	 * Process the given [@link {@link InstrumentationDefinition}s. In this case, they are getting
 	 * registered on the respective class, subsequently, the classes are getting retransformed.
@@ -149,17 +178,26 @@ public class RetransformManager implements ApplicationListener<AgentMessagesRece
 			log.info("Trying to retransform {} class(es)", instrumentationDefinitions.size());
 		}
 
-		Collection<Class<?>> classesToRetransform = new ArrayList<Class<?>>();
-
-		// create map of instrumentation definitions (for fast look-up)
-		Map<String, InstrumentationDefinition> instrumentationDefinitionMap = new HashMap<String, InstrumentationDefinition>();
+		Set<String> classNames = new HashSet<String>();
 		for (InstrumentationDefinition definition : instrumentationDefinitions) {
-			instrumentationDefinitionMap.put(definition.getClassName(), definition);
+			classNames.add(definition.getClassName());
 
 			// register new implementation
 			classHashHelper.registerInstrumentationDefinition(definition.getClassName(), definition);
 		}
 
+		retransformLoadedClasses(classNames);
+	}
+
+	/**
+	 * Retransforms all loaded and modifiable classes with the given names.
+	 *
+	 * @param classNames
+	 *            FQNs of the classes to retransform.
+	 */
+	private void retransformLoadedClasses(Set<String> classNames) {
+		Collection<Class<?>> classesToRetransform = new ArrayList<Class<?>>();
+
 		HashMultiset<String> classLoaderMultiset = HashMultiset.<String> create();
 
 		Class<?>[] loadedClasses = instrumentation.getAllLoadedClasses();
@@ -171,14 +209,14 @@ public class RetransformManager implements ApplicationListener<AgentMessagesRece
 
 				String className = clazz.getName();
 
-				if (instrumentationDefinitionMap.containsKey(className)) {
+				if (classNames.contains(className)) {
 					classesToRetransform.add(clazz);
 
 					String classLoaderName = ClassUtil.getClassLoaderName(clazz, "unknown classloader");
 					classLoaderMultiset.add(classLoaderName);
 
 					if (log.isDebugEnabled()) {
-						log.debug("|-{} : {} (is instrumented: {})", className, classLoaderName, !instrumentationDefinitionMap.get(className).getMethodInstrumentationConfigs().isEmpty());
+						log.debug("|-{} : {}", className, classLoaderName);
 					}
 				}
 			} catch (Exception e) {
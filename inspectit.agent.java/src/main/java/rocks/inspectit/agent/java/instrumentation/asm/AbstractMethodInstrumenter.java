@@ -24,7 +24,8 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	protected boolean isStatic;
 
 	/**
-	 * Id of the method. This id will be passed to the dispatcher.
+	 * Id of the method. This id will be passed to the dispatcher. For the method and constructor
+	 * sensors this is the dispatch index of the method.
 	 */
 	protected long methodId;
 
@@ -33,6 +34,24 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 */
 	protected boolean enhancedExceptionSensor;
 
+	/**
+	 * If parameters of the method are passed to the dispatcher. If not, <code>null</code> is passed
+	 * instead of the parameter array.
+	 */
+	protected boolean parametersAccess;
+
+	/**
+	 * If the object the method is executed on is passed to the dispatcher. If not,
+	 * <code>null</code> is passed instead.
+	 */
+	protected boolean targetAccess;
+
+	/**
+	 * If the return value of the method is passed to the dispatcher. If not, <code>null</code> is
+	 * passed instead and primitive return values are not boxed.
+	 */
+	protected boolean returnValueAccess;
+
 	/**
 	 * The label for the start of the try/finally or try/catch/finally block that we are adding.
 	 */
@@ -66,9 +85,40 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 	 *            Marker declaring if enhanced exception sensor is active.
 	 */
 	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor) {
+		this(mv, access, name, desc, methodId, enhancedExceptionSensor, true, true, true);
+	}
+
+	/**
+	 * Constructor that additionally defines which method data is passed to the dispatcher. Data
+	 * that is not accessed by any of the hooks is passed as <code>null</code>, thus no parameter
+	 * array is created and no primitives are boxed for it.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parametersAccess
+	 *            If parameters of the method are passed to the dispatcher.
+	 * @param targetAccess
+	 *            If the object the method is executed on is passed to the dispatcher.
+	 * @param returnValueAccess
+	 *            If the return value of the method is passed to the dispatcher.
+	 */
+	protected AbstractMethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parametersAccess, boolean targetAccess, boolean returnValueAccess) { // NOCHK:9-params
 		super(Opcodes.ASM5, mv, access, name, desc);
 		this.methodId = methodId;
 		this.enhancedExceptionSensor = enhancedExceptionSensor;
+		this.parametersAccess = parametersAccess;
+		this.targetAccess = targetAccess;
+		this.returnValueAccess = returnValueAccess;
 		this.isStatic = (access & Opcodes.ACC_STATIC) != 0;
 	}
 
@@ -129,6 +179,30 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		mv.visitInsn(Opcodes.ACONST_NULL);
 	}
 
+	/**
+	 * Pushes the object the method is executed on to stack. Pushes <code>null</code> if the method
+	 * is static or the target is not accessed.
+	 */
+	protected void loadTarget() {
+		if (isStatic || !targetAccess) {
+			pushNull();
+		} else {
+			loadThis();
+		}
+	}
+
+	/**
+	 * Pushes the parameter array to stack. Pushes <code>null</code> if the parameters are not
+	 * accessed, thus avoiding the creation of the array and boxing of the primitive parameters.
+	 */
+	protected void loadParameters() {
+		if (parametersAccess) {
+			loadArgArray();
+		} else {
+			pushNull();
+		}
+	}
+
 	/**
 	 * Gets {@link #methodId}.
 	 *
@@ -147,4 +221,31 @@ public abstract class AbstractMethodInstrumenter extends AdviceAdapter {
 		return this.enhancedExceptionSensor;
 	}
 
+	/**
+	 * Gets {@link #parametersAccess}.
+	 *
+	 * @return {@link #parametersAccess}
+	 */
+	public boolean isParametersAccess() {
+		return this.parametersAccess;
+	}
+
+	/**
+	 * Gets {@link #targetAccess}.
+	 *
+	 * @return {@link #targetAccess}
+	 */
+	public boolean isTargetAccess() {
+		return this.targetAccess;
+	}
+
+	/**
+	 * Gets {@link #returnValueAccess}.
+	 *
+	 * @return {@link #returnValueAccess}
+	 */
+	public boolean isReturnValueAccess() {
+		return this.returnValueAccess;
+	}
+
 }
@@ -27,7 +27,8 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 	 * @param desc
 	 *            Method description.
 	 * @param methodId
-	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 *            Dispatch index of the method that will be passed to {@link IHookDispatcher}, see
+	 *            {@link rocks.inspectit.agent.java.hooking.IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param enhancedExceptionSensor
 	 *            Marker declaring if enhanced exception sensor is active.
 	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
@@ -37,6 +38,34 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines which constructor data is passed to the dispatcher.
+	 * Constructors have no return value, thus only parameters and created object can be elided.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Dispatch index of the method that will be passed to {@link IHookDispatcher}, see
+	 *            {@link rocks.inspectit.agent.java.hooking.IHookDispatcherMapper#getDispatchIndex(long)}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parametersAccess
+	 *            If parameters of the constructor are passed to the dispatcher.
+	 * @param targetAccess
+	 *            If the created object is passed to the dispatcher.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean, boolean, boolean)
+	 */
+	public ConstructorInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parametersAccess, boolean targetAccess) {
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, parametersAccess, targetAccess, false);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -62,12 +91,8 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 
 		// after constructor we can load this object
 		// just load on stack and generate call
-		// this object or null if's static
-		if (isStatic) {
-			pushNull();
-		} else {
-			loadThis();
-		}
+		// this object or null if's static or not accessed
+		loadTarget();
 
 		// generate code for calling first and second
 		generateAfterBodyCall();
@@ -95,12 +120,8 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 
 		// generate code for calling after
 		// push created object and call
-		// this object or null if's static
-		if (isStatic) {
-			pushNull();
-		} else {
-			loadThis();
-		}
+		// this object or null if's static or not accessed
+		loadTarget();
 		generateAfterBodyCall();
 
 		mv.visitInsn(ATHROW);
@@ -120,8 +141,8 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		// first push method id
 		push(methodId);
 
-		// then parameters
-		loadArgArray();
+		// then parameters or null if not accessed
+		loadParameters();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorBeforeBody",
 				IInstrumenterConstant.DISPATCH_CONSTRUCTOR_BEFORE_BODY_DESCRIPTOR, true);
@@ -148,8 +169,8 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		pop2();
 		// l-l2-r :)
 
-		// then parameters, no need to swap
-		loadArgArray();
+		// then parameters or null if not accessed, no need to swap
+		loadParameters();
 
 		// execute after body
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchConstructorAfterBody",
@@ -201,16 +222,12 @@ public class ConstructorInstrumenter extends AbstractMethodInstrumenter {
 		pop2();
 		// l-l2-r :)
 
-		// then this object or null if's static
-		if (isStatic) {
-			pushNull();
-		} else {
-			loadThis();
-		}
+		// then this object or null if's static or not accessed
+		loadTarget();
 		swap();
 
-		// then parameters
-		loadArgArray();
+		// then parameters or null if not accessed
+		loadParameters();
 		swap();
 
 		// execute after body
@@ -28,7 +28,8 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 	 * @param desc
 	 *            Method description.
 	 * @param methodId
-	 *            Method id that will be passed to {@link IHookDispatcher}.
+	 *            Dispatch index of the method that will be passed to {@link IHookDispatcher}, see
+	 *            {@link rocks.inspectit.agent.java.hooking.IHookDispatcherMapper#getDispatchIndex(long)}.
 	 * @param enhancedExceptionSensor
 	 *            Marker declaring if enhanced exception sensor is active.
 	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
@@ -38,6 +39,35 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		super(mv, access, name, desc, methodId, enhancedExceptionSensor);
 	}
 
+	/**
+	 * Constructor that additionally defines which method data is passed to the dispatcher.
+	 *
+	 * @param mv
+	 *            Super method visitor.
+	 * @param access
+	 *            Method access code.
+	 * @param name
+	 *            Method name.
+	 * @param desc
+	 *            Method description.
+	 * @param methodId
+	 *            Dispatch index of the method that will be passed to {@link IHookDispatcher}, see
+	 *            {@link rocks.inspectit.agent.java.hooking.IHookDispatcherMapper#getDispatchIndex(long)}.
+	 * @param enhancedExceptionSensor
+	 *            Marker declaring if enhanced exception sensor is active.
+	 * @param parametersAccess
+	 *            If parameters of the method are passed to the dispatcher.
+	 * @param targetAccess
+	 *            If the object the method is executed on is passed to the dispatcher.
+	 * @param returnValueAccess
+	 *            If the return value of the method is passed to the dispatcher.
+	 * @see AbstractMethodInstrumenter#AbstractMethodInstrumenter(MethodVisitor, int, String,
+	 *      String, long, boolean, boolean, boolean, boolean)
+	 */
+	public MethodInstrumenter(MethodVisitor mv, int access, String name, String desc, long methodId, boolean enhancedExceptionSensor, boolean parametersAccess, boolean targetAccess, boolean returnValueAccess) { // NOCHK:9-params
+		super(mv, access, name, desc, methodId, enhancedExceptionSensor, parametersAccess, targetAccess, returnValueAccess);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -64,8 +94,9 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		// just ensure that result is duplicated on the stack
 		// since we are calling two methods, make 2 copies of result on stack
 		// in case of void return or push null since we don't have result
-		if (opcode == RETURN) {
-			// standard return with no object (void)
+		// same if the result is not accessed, so we don't box it
+		if ((opcode == RETURN) || !returnValueAccess) {
+			// standard return with no object (void) or not accessed result
 			pushNull();
 			pushNull();
 		} else if (opcode == ARETURN) {
@@ -135,15 +166,11 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		// first push method id
 		push(methodId);
 
-		// then this object or null if's static
-		if (isStatic) {
-			pushNull();
-		} else {
-			loadThis();
-		}
+		// then this object or null if's static or not accessed
+		loadTarget();
 
-		// then parameters
-		loadArgArray();
+		// then parameters or null if not accessed
+		loadParameters();
 
 		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, IInstrumenterConstant.IHOOK_DISPATCHER_INTERNAL_NAME, "dispatchMethodBeforeBody", IInstrumenterConstant.DISPATCH_METHOD_BEFORE_BODY_DESCRIPTOR,
 				true);
@@ -208,16 +235,12 @@ public class MethodInstrumenter extends AbstractMethodInstrumenter {
 		pop2();
 		// d-l-l-r :)
 
-		// then this object or null if's static
-		if (isStatic) {
-			pushNull();
-		} else {
-			loadThis();
-		}
+		// then this object or null if's static or not accessed
+		loadTarget();
 		swap();
 
-		// then parameters
-		loadArgArray();
+		// then parameters or null if not accessed
+		loadParameters();
 		swap();
 	}
 
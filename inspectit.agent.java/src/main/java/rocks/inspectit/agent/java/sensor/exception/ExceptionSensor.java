@@ -3,8 +3,10 @@ package rocks.inspectit.agent.java.sensor.exception;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
 
 import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.event.ConnectionReestablishedEvent;
 import rocks.inspectit.agent.java.hooking.IHook;
 import rocks.inspectit.agent.java.sensor.method.AbstractMethodSensor;
 
@@ -14,7 +16,7 @@ import rocks.inspectit.agent.java.sensor.method.AbstractMethodSensor;
  * @author Eduard Tudenhoefner
  *
  */
-public class ExceptionSensor extends AbstractMethodSensor implements IExceptionSensor {
+public class ExceptionSensor extends AbstractMethodSensor implements IExceptionSensor, ApplicationListener<ConnectionReestablishedEvent> {
 
 	/**
 	 * The Platform manager.
@@ -59,4 +61,16 @@ public class ExceptionSensor extends AbstractMethodSensor implements IExceptionS
 		exceptionSensorHook = new ExceptionSensorHook(platformManager, parameters);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Stack trace texts are sent once per connection, thus the hook must send them again.
+	 */
+	@Override
+	public void onApplicationEvent(ConnectionReestablishedEvent event) {
+		if (null != exceptionSensorHook) {
+			exceptionSensorHook.connectionReestablished();
+		}
+	}
+
 }
@@ -4,6 +4,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -19,6 +20,10 @@ import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
 /**
  * This class adds additional code to a constructor of type {@link Throwable}, to the
  * <code>throw</code> statement and to the <code>catch</code> block catching type {@link Throwable}.
+ * <p>
+ * Stack traces are fingerprinted with the {@link StackTraceDeduplicator}, so that the text of each
+ * distinct stack trace is sent only once per connection and the created events are rate limited
+ * per fingerprint.
  *
  * @author Eduard Tudenhoefner
  * @see IExceptionSensorHook
@@ -51,6 +56,11 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 	 */
 	private final StringConstraint strConstraint;
 
+	/**
+	 * Fingerprints and rate limits the stack traces.
+	 */
+	private final StackTraceDeduplicator stackTraceDeduplicator;
+
 	/**
 	 * The default constructor which needs one parameter for initialization.
 	 *
@@ -62,6 +72,15 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 	public ExceptionSensorHook(IPlatformManager platformManager, Map<String, Object> parameter) {
 		this.platformManager = platformManager;
 		this.strConstraint = new StringConstraint(parameter);
+		this.stackTraceDeduplicator = new StackTraceDeduplicator(parameter);
+	}
+
+	/**
+	 * Signals that the connection to the CMR was re-established, thus stack traces texts must be
+	 * sent again.
+	 */
+	public void connectionReestablished() {
+		stackTraceDeduplicator.connectionReestablished();
 	}
 
 	/**
@@ -82,9 +101,7 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 		String throwableClass = object.getClass().getName();
 		String rscTragetClassname = rsc.getTargetClassFqn();
 		if (throwableClass.equals(rscTragetClassname)) {
-			long platformId = platformManager.getPlatformId();
-			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
-			Long identityHash = Long.valueOf(System.identityHashCode(object));
+			long currentTime = System.currentTimeMillis();
 
 			// need to reset the exception handler id
 			exceptionHandlerId.set(null);
@@ -92,14 +109,28 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 			// getting the actual object with information
 			Throwable throwable = (Throwable) object;
 
+			// check the rate limit of the stack trace
+			long fingerprint = fingerprint(throwable);
+			int suppressedCount = stackTraceDeduplicator.recordOccurrence(fingerprint, currentTime);
+			if (suppressedCount < 0) {
+				// suppressed, so we also don't follow the passing and handling of this object
+				exceptionDataHolder.set(null);
+				return;
+			}
+
+			long platformId = platformManager.getPlatformId();
+			Timestamp timestamp = new Timestamp(currentTime);
+			Long identityHash = Long.valueOf(System.identityHashCode(object));
+
 			// creating the data object
 			ExceptionSensorData data = new ExceptionSensorData(timestamp, platformId, sensorTypeId, methodId);
 			data.setThrowableIdentityHashCode(identityHash.longValue());
 			data.setExceptionEvent(ExceptionEvent.CREATED);
 			data.setThrowableType(throwable.getClass().getName());
+			data.setSuppressedCount(suppressedCount);
 
 			// set the static information of the current object
-			setStaticInformation(data, throwable);
+			setStaticInformation(data, throwable, fingerprint);
 
 			// creating the mapping object and setting it on the thread local
 			exceptionDataHolder.set(new IdentityHashToDataObject(identityHash, data));
@@ -153,7 +184,7 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 			} else {
 				// it's a new Throwable object, that we didn't recognize earlier
 				data.setExceptionEvent(ExceptionEvent.UNREGISTERED_PASSED);
-				setStaticInformation(data, throwable);
+				setStaticInformation(data, throwable, fingerprint(throwable));
 
 				// we are creating a new mapping object and setting it on the thread local
 				exceptionDataHolder.set(new IdentityHashToDataObject(identityHash, data));
@@ -201,7 +232,7 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 			} else {
 				// it's a Throwable object, that we didn't recognize earlier
 				data.setExceptionEvent(ExceptionEvent.UNREGISTERED_PASSED);
-				setStaticInformation(data, throwable);
+				setStaticInformation(data, throwable, fingerprint(throwable));
 
 				// we are creating a new mapping object and setting it on the thread local
 				exceptionDataHolder.set(new IdentityHashToDataObject(identityHash, data));
@@ -220,8 +251,11 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 	 *            The {@link ExceptionSensorData} object where to set the information.
 	 * @param throwable
 	 *            The current {@link Throwable} object where to get the information.
+	 * @param fingerprint
+	 *            Fingerprint of the stack trace or {@link StackTraceDeduplicator#NO_FINGERPRINT}
+	 *            to send the complete stack trace.
 	 */
-	private void setStaticInformation(ExceptionSensorData exceptionSensorData, Throwable throwable) {
+	private void setStaticInformation(ExceptionSensorData exceptionSensorData, Throwable throwable, long fingerprint) {
 		// see INSPECTIT-387
 		// getting the static content could not be always possible due to the fact that this method
 		// can be executed before the creation of the concrete exception object. Getting some
@@ -249,7 +283,16 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 		}
 
 		try {
-			exceptionSensorData.setStackTrace(strConstraint.crop(stackTraceToString(throwable)));
+			if (StackTraceDeduplicator.NO_FINGERPRINT == fingerprint) {
+				exceptionSensorData.setStackTrace(strConstraint.crop(stackTraceToString(throwable)));
+			} else {
+				// the text is sent only once, the CMR resolves it by the fingerprint
+				exceptionSensorData.setStackTraceFingerprint(fingerprint);
+				exceptionSensorData.setCauseMessages(cropAll(StackTraceDeduplicator.getCauseMessages(throwable)));
+				if (stackTraceDeduplicator.markForSending(fingerprint, exceptionSensorData.getTimeStamp().getTime())) {
+					exceptionSensorData.setStackTrace(strConstraint.crop(StackTraceDeduplicator.renderStackTrace(throwable)));
+				}
+			}
 		} catch (Exception e) {
 			if (LOG.isDebugEnabled()) {
 				LOG.debug("It was not possible to retrieve the stack trace from " + throwable.getClass().getName(), e);
@@ -257,6 +300,43 @@ public class ExceptionSensorHook implements IExceptionSensorHook {
 		}
 	}
 
+	/**
+	 * Crops all strings of the list with the string constraint.
+	 *
+	 * @param strings
+	 *            List of strings, can be <code>null</code>.
+	 * @return Same list with the cropped strings.
+	 */
+	private List<String> cropAll(List<String> strings) {
+		if (null != strings) {
+			for (int i = 0; i < strings.size(); i++) {
+				strings.set(i, strConstraint.crop(strings.get(i)));
+			}
+		}
+		return strings;
+	}
+
+	/**
+	 * Returns the fingerprint of the stack trace of the given {@link Throwable}. See
+	 * {@link #setStaticInformation(ExceptionSensorData, Throwable, long)} for why the failures are
+	 * expected here.
+	 *
+	 * @param throwable
+	 *            The {@link Throwable} object to get the fingerprint for.
+	 * @return Fingerprint or {@link StackTraceDeduplicator#NO_FINGERPRINT} if it can not be
+	 *         created.
+	 */
+	private long fingerprint(Throwable throwable) {
+		try {
+			return stackTraceDeduplicator.fingerprint(throwable);
+		} catch (Exception e) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("It was not possible to create the stack trace fingerprint of " + throwable.getClass().getName(), e);
+			}
+			return StackTraceDeduplicator.NO_FINGERPRINT;
+		}
+	}
+
 	/**
 	 * Gets the stack trace from the {@link Throwable} object and returns it as a string.
 	 *
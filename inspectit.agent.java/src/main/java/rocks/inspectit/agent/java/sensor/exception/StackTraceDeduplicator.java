@@ -0,0 +1,374 @@
+package rocks.inspectit.agent.java.sensor.exception;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+
+/**
+ * Fingerprints the stack traces of the {@link Throwable}s from the raw stack frames and keeps
+ * track of the fingerprints that were already sent to the CMR. The text of a stack trace is
+ * rendered and sent only the first time a fingerprint is seen on the current connection, all other
+ * occurrences reference the text by the fingerprint. In addition the class limits the amount of
+ * occurrences per fingerprint that are captured each second and counts the suppressed ones.
+ * <p>
+ * Fingerprint includes the throwable types and frames of the complete cause chain, but not the
+ * messages, thus the rendered stack trace text does not include the messages either. The messages
+ * of the causes are sent with each occurrence instead, see {@link #getCauseMessages(Throwable)}.
+ *
+ * @author agent
+ *
+ */
+public class StackTraceDeduplicator {
+
+	/**
+	 * Name of the sensor parameter defining the maximum occurrences per second and fingerprint.
+	 */
+	public static final String MAX_OCCURRENCES_PER_SECOND = "maxOccurrencesPerSecond";
+
+	/**
+	 * Value of the fingerprint that denotes that the stack trace is not fingerprinted.
+	 */
+	public static final long NO_FINGERPRINT = 0L;
+
+	/**
+	 * Maximum amount of fingerprints to keep track of. When the limit is reached new stack traces
+	 * are sent in full without the fingerprint.
+	 */
+	static final int MAX_FINGERPRINTS = 10000;
+
+	/**
+	 * Interval after which the stack trace text is sent again, even if it was sent already on the
+	 * current connection. Protects against the data carrying the text being lost before reaching
+	 * the CMR.
+	 */
+	static final long RESEND_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * Maximum depth of the cause chain included in the fingerprint and text. Also protects
+	 * against circular cause references.
+	 */
+	private static final int MAX_CAUSE_DEPTH = 16;
+
+	/**
+	 * FNV-1a 64 bit offset basis.
+	 */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64 bit prime.
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Line separator.
+	 */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * Maximum amount of occurrences per fingerprint captured each second. Zero or negative value
+	 * means no limit.
+	 */
+	private final int maxOccurrencesPerSecond;
+
+	/**
+	 * State of the known fingerprints.
+	 */
+	private final NonBlockingHashMapLong<FingerprintState> fingerprints = new NonBlockingHashMapLong<FingerprintState>();
+
+	/**
+	 * Current connection generation, increased each time the connection is re-established.
+	 */
+	private volatile int connectionGeneration;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param parameters
+	 *            Parameters of the sensor, reads {@value #MAX_OCCURRENCES_PER_SECOND}.
+	 */
+	public StackTraceDeduplicator(Map<String, Object> parameters) {
+		int maxOccurrences = 0;
+		if (null != parameters) {
+			Object value = parameters.get(MAX_OCCURRENCES_PER_SECOND);
+			if (null != value) {
+				try {
+					maxOccurrences = Integer.parseInt(value.toString());
+				} catch (NumberFormatException e) { // NOPMD
+					// ignore and use no limit
+				}
+			}
+		}
+		this.maxOccurrencesPerSecond = maxOccurrences;
+	}
+
+	/**
+	 * Returns the fingerprint of the stack trace of the given throwable. If this fingerprint is
+	 * seen for the first time and the limit of known fingerprints is reached,
+	 * {@link #NO_FINGERPRINT} is returned and the stack trace should be sent in full.
+	 *
+	 * @param throwable
+	 *            {@link Throwable}
+	 * @return Fingerprint or {@link #NO_FINGERPRINT}.
+	 */
+	public long fingerprint(Throwable throwable) {
+		long fingerprint = computeFingerprint(throwable);
+		if (!fingerprints.containsKey(fingerprint)) {
+			if (fingerprints.size() >= MAX_FINGERPRINTS) {
+				return NO_FINGERPRINT;
+			}
+			fingerprints.putIfAbsent(fingerprint, new FingerprintState());
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Records one occurrence of the fingerprint and checks it against the rate limit.
+	 *
+	 * @param fingerprint
+	 *            Fingerprint as returned by {@link #fingerprint(Throwable)}.
+	 * @param currentTimeMillis
+	 *            Current time in milliseconds.
+	 * @return Amount of occurrences that were suppressed since the last captured one if this
+	 *         occurrence should be captured or <code>-1</code> if it should be suppressed.
+	 */
+	public int recordOccurrence(long fingerprint, long currentTimeMillis) {
+		FingerprintState state = fingerprints.get(fingerprint);
+		if (null == state) {
+			return 0;
+		}
+		return state.recordOccurrence(currentTimeMillis, maxOccurrencesPerSecond);
+	}
+
+	/**
+	 * Returns if the stack trace text of the fingerprint must be sent and marks it as sent if so.
+	 *
+	 * @param fingerprint
+	 *            Fingerprint as returned by {@link #fingerprint(Throwable)}.
+	 * @param currentTimeMillis
+	 *            Current time in milliseconds.
+	 * @return <code>true</code> if the stack trace text should be sent.
+	 */
+	public boolean markForSending(long fingerprint, long currentTimeMillis) {
+		FingerprintState state = fingerprints.get(fingerprint);
+		if (null == state) {
+			return true;
+		}
+		return state.markForSending(connectionGeneration, currentTimeMillis);
+	}
+
+	/**
+	 * Signals that the connection to the CMR was re-established, thus all stack trace texts must be
+	 * sent again.
+	 */
+	public void connectionReestablished() {
+		connectionGeneration++; // NOPMD only one thread publishes the event
+	}
+
+	/**
+	 * Renders the stack trace text that belongs to the fingerprint. The text starts with the line
+	 * separator and contains only the frames and the types of the causes, thus the line
+	 * describing the throwable itself must be prepended.
+	 *
+	 * @param throwable
+	 *            {@link Throwable}
+	 * @return Stack trace text.
+	 */
+	public static String renderStackTrace(Throwable throwable) {
+		StringBuilder stringBuilder = new StringBuilder();
+		StackTraceElement[] enclosingFrames = null;
+		Throwable current = throwable;
+		for (int depth = 0; (null != current) && (depth < MAX_CAUSE_DEPTH); depth++) {
+			StackTraceElement[] frames = current.getStackTrace();
+			if (depth > 0) {
+				stringBuilder.append(LINE_SEPARATOR).append("Caused by: ").append(current.getClass().getName());
+			}
+
+			// frames in common with the enclosing trace are not repeated
+			int last = frames.length - 1;
+			if (null != enclosingFrames) {
+				int enclosingLast = enclosingFrames.length - 1;
+				while ((last >= 0) && (enclosingLast >= 0) && frames[last].equals(enclosingFrames[enclosingLast])) {
+					last--;
+					enclosingLast--;
+				}
+			}
+			for (int i = 0; i <= last; i++) {
+				stringBuilder.append(LINE_SEPARATOR).append("\tat ").append(frames[i]);
+			}
+			int framesInCommon = frames.length - 1 - last;
+			if (framesInCommon > 0) {
+				stringBuilder.append(LINE_SEPARATOR).append("\t... ").append(framesInCommon).append(" more");
+			}
+
+			enclosingFrames = frames;
+			current = nextCause(current);
+		}
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Returns the messages of the causes of the throwable in the order they are rendered in the
+	 * stack trace text by {@link #renderStackTrace(Throwable)}.
+	 *
+	 * @param throwable
+	 *            {@link Throwable}
+	 * @return Messages of the causes with <code>null</code> elements for the causes without a
+	 *         message or <code>null</code> if no cause has a message.
+	 */
+	public static List<String> getCauseMessages(Throwable throwable) {
+		List<String> causeMessages = null;
+		Throwable current = nextCause(throwable);
+		for (int depth = 1; (null != current) && (depth < MAX_CAUSE_DEPTH); depth++) {
+			String message = current.getMessage();
+			if (null != message) {
+				if (null == causeMessages) {
+					causeMessages = new ArrayList<String>();
+				}
+				while (causeMessages.size() < (depth - 1)) {
+					causeMessages.add(null);
+				}
+				causeMessages.add(message);
+			}
+			current = nextCause(current);
+		}
+		return causeMessages;
+	}
+
+	/**
+	 * Computes the fingerprint from the throwable types and the frames of the cause chain.
+	 *
+	 * @param throwable
+	 *            {@link Throwable}
+	 * @return Fingerprint, never {@link #NO_FINGERPRINT}.
+	 */
+	static long computeFingerprint(Throwable throwable) {
+		long hash = FNV_OFFSET_BASIS;
+		Throwable current = throwable;
+		for (int depth = 0; (null != current) && (depth < MAX_CAUSE_DEPTH); depth++) {
+			hash = mix(hash, current.getClass().getName().hashCode());
+			for (StackTraceElement frame : current.getStackTrace()) {
+				hash = mix(hash, frame.getClassName().hashCode());
+				hash = mix(hash, frame.getMethodName().hashCode());
+				hash = mix(hash, frame.getLineNumber());
+			}
+			current = nextCause(current);
+		}
+
+		if (NO_FINGERPRINT == hash) {
+			return 1L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Mixes the value into the hash.
+	 *
+	 * @param hash
+	 *            Current hash.
+	 * @param value
+	 *            Value to mix in.
+	 * @return New hash.
+	 */
+	private static long mix(long hash, int value) {
+		return (hash ^ value) * FNV_PRIME;
+	}
+
+	/**
+	 * Returns the cause of the throwable or <code>null</code> if the throwable is its own cause.
+	 *
+	 * @param throwable
+	 *            {@link Throwable}
+	 * @return Cause or <code>null</code>.
+	 */
+	private static Throwable nextCause(Throwable throwable) {
+		Throwable cause = throwable.getCause();
+		if (cause == throwable) { // NOPMD identity check is intended
+			return null;
+		}
+		return cause;
+	}
+
+	/**
+	 * Sending and rate limiting state of one fingerprint.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class FingerprintState {
+
+		/**
+		 * Start of the current one second window.
+		 */
+		private long windowStart;
+
+		/**
+		 * Occurrences captured in the current window.
+		 */
+		private int capturedInWindow;
+
+		/**
+		 * Occurrences suppressed since the last captured one.
+		 */
+		private int suppressed;
+
+		/**
+		 * Connection generation the text was last sent in, <code>-1</code> for never.
+		 */
+		private int sentGeneration = -1;
+
+		/**
+		 * Time the text was last sent.
+		 */
+		private long sentTime;
+
+		/**
+		 * Records one occurrence.
+		 *
+		 * @param currentTimeMillis
+		 *            Current time in milliseconds.
+		 * @param maxOccurrencesPerSecond
+		 *            Limit of occurrences per second.
+		 * @return Suppressed occurrences since the last captured or <code>-1</code> if this one is
+		 *         suppressed.
+		 */
+		synchronized int recordOccurrence(long currentTimeMillis, int maxOccurrencesPerSecond) {
+			if ((currentTimeMillis - windowStart) >= 1000L) {
+				windowStart = currentTimeMillis;
+				capturedInWindow = 0;
+			}
+
+			if ((maxOccurrencesPerSecond > 0) && (capturedInWindow >= maxOccurrencesPerSecond)) {
+				suppressed++;
+				return -1;
+			}
+
+			capturedInWindow++;
+			int result = suppressed;
+			suppressed = 0;
+			return result;
+		}
+
+		/**
+		 * Marks the text for sending if it was not sent on the current connection or the resend
+		 * interval passed.
+		 *
+		 * @param connectionGeneration
+		 *            Current connection generation.
+		 * @param currentTimeMillis
+		 *            Current time in milliseconds.
+		 * @return If text should be sent.
+		 */
+		synchronized boolean markForSending(int connectionGeneration, long currentTimeMillis) {
+			if ((sentGeneration == connectionGeneration) && ((currentTimeMillis - sentTime) < RESEND_INTERVAL_MILLIS)) {
+				return false;
+			}
+			sentGeneration = connectionGeneration;
+			sentTime = currentTimeMillis;
+			return true;
+		}
+	}
+
+}
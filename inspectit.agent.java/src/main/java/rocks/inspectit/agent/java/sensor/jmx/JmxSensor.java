@@ -4,14 +4,18 @@ import java.lang.management.ManagementFactory;
 import java.lang.reflect.Array;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.MBeanAttributeInfo;
@@ -29,8 +33,6 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.google.common.base.Objects;
-
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
@@ -59,12 +61,6 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	private static final String MBEAN_SERVER_DELEGATE_NAME = "JMImplementation:type=MBeanServerDelegate";
 
-	/**
-	 * Defines the interval of the maximum call rate of the
-	 * {@link JmxSensor#collectData(ICoreService, long)} method.
-	 */
-	private static final int DATA_COLLECT_INTERVAL = 5000;
-
 	/**
 	 * Notification filter that listeners only to the MBeanServerNotification events.
 	 */
@@ -121,6 +117,29 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	long lastDataCollectionTimestamp = 0;
 
+	/**
+	 * Interval of the maximum call rate of the {@link JmxSensor#collectData(ICoreService, long)}
+	 * method.
+	 */
+	private long dataCollectInterval = JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL;
+
+	/**
+	 * If only values that changed since the last collection should be sent (together with the
+	 * periodic heartbeat).
+	 */
+	private boolean onlyChangedValues = true;
+
+	/**
+	 * Interval in milliseconds after which the value of an attribute is sent even if it did not
+	 * change.
+	 */
+	private long heartbeatInterval = JmxSensorTypeConfig.DEFAULT_HEARTBEAT_INTERVAL;
+
+	/**
+	 * Maximum amount of collection cycles an attribute with unchanged value can be skipped for.
+	 */
+	private int maxIntervalCycles = (int) (JmxSensorTypeConfig.DEFAULT_MAX_COLLECT_INTERVAL / JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL);
+
 	/**
 	 * Logs once, if the class cache is not available.
 	 */
@@ -136,12 +155,50 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 		// check for forcing server creation
 		Map<String, Object> parameters = sensorTypeConfig.getParameters();
 		if (MapUtils.isNotEmpty(parameters)) {
+			if (Boolean.FALSE.equals(parameters.get(JmxSensorTypeConfig.ONLY_CHANGED_VALUES_KEY))) {
+				onlyChangedValues = false;
+			}
+			dataCollectInterval = Math.max(1, getLongParameter(parameters, JmxSensorTypeConfig.COLLECT_INTERVAL_KEY, JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL));
+			heartbeatInterval = getLongParameter(parameters, JmxSensorTypeConfig.HEARTBEAT_INTERVAL_KEY, JmxSensorTypeConfig.DEFAULT_HEARTBEAT_INTERVAL);
+			long maxCollectInterval = getLongParameter(parameters, JmxSensorTypeConfig.MAX_COLLECT_INTERVAL_KEY, JmxSensorTypeConfig.DEFAULT_MAX_COLLECT_INTERVAL);
+			maxIntervalCycles = (int) Math.max(1, maxCollectInterval / dataCollectInterval);
+
 			if (Boolean.TRUE.equals(parameters.get("forceMBeanServer"))) {
 				// create only, get it via hook
 				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
 				mbeanServerAdded(server);
 			}
 		}
+
+		// adaptive intervals make only sense when unchanged values are not sent
+		if (!onlyChangedValues) {
+			maxIntervalCycles = 1;
+		}
+	}
+
+	/**
+	 * Returns the long value of the parameter with the given key.
+	 *
+	 * @param parameters
+	 *            Sensor parameters.
+	 * @param key
+	 *            Parameter key.
+	 * @param defaultValue
+	 *            Value to return if parameter is not set or is not a number.
+	 * @return Parameter value or given default value.
+	 */
+	private long getLongParameter(Map<String, Object> parameters, String key, long defaultValue) {
+		Object value = parameters.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		} else if (value instanceof String) {
+			try {
+				return Long.parseLong((String) value);
+			} catch (NumberFormatException e) {
+				log.warn("JMX::Parameter " + key + " has an invalid value " + value + ". Using default value " + defaultValue + ".");
+			}
+		}
+		return defaultValue;
 	}
 
 	/**
@@ -224,18 +281,20 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 		long currentTime = System.currentTimeMillis();
 
 		// Check if the collectData method should be invoked
-		if (MapUtils.isNotEmpty(activeServerMap) && ((currentTime - lastDataCollectionTimestamp) > DATA_COLLECT_INTERVAL)) {
+		if (MapUtils.isNotEmpty(activeServerMap) && ((currentTime - lastDataCollectionTimestamp) > dataCollectInterval)) {
 			// store the invocation timestamp
 			lastDataCollectionTimestamp = System.currentTimeMillis();
 
 			for (MBeanServerHolder holder : activeServerMap.values()) {
-				collectData(holder, coreService, sensorTypeIdent);
+				collectData(holder, coreService, sensorTypeIdent, lastDataCollectionTimestamp);
 			}
 		}
 	}
 
 	/**
-	 * Collects the data from the MBean server in the holder and sends it to the CMR.
+	 * Collects the data from the MBean server in the holder and sends it to the CMR. All due
+	 * attributes of one MBean are read with a single {@link MBeanServer#getAttributes} call. If
+	 * {@link #onlyChangedValues} is active, only changed values and heartbeats are sent.
 	 *
 	 * @param holder
 	 *            {@link MBeanServerHolder} to collect data from
@@ -243,44 +302,95 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 *            The core service which is needed to store the measurements to.
 	 * @param sensorTypeIdent
 	 *            The ID of the sensor type so that old data can be found. (for aggregating etc.)
+	 * @param currentTime
+	 *            Time of the collection.
 	 */
-	private void collectData(MBeanServerHolder holder, ICoreService coreService, long sensorTypeIdent) {
+	private void collectData(MBeanServerHolder holder, ICoreService coreService, long sensorTypeIdent, long currentTime) {
 		MBeanServer mBeanServer = holder.mBeanServer;
-		Map<JmxAttributeDescriptor, Boolean> activeAttributes = holder.activeAttributes;
-		Map<String, ObjectName> nameStringToObjectName = holder.nameStringToObjectName;
+		long platformId = platformManager.getPlatformId();
+		Timestamp timestamp = null;
+
+		for (Iterator<Entry<ObjectName, Map<String, MonitoredAttribute>>> iterator = holder.monitoredAttributes.entrySet().iterator(); iterator.hasNext();) {
+			Entry<ObjectName, Map<String, MonitoredAttribute>> entry = iterator.next();
+			ObjectName objectName = entry.getKey();
+			Map<String, MonitoredAttribute> attributes = entry.getValue();
+
+			List<String> dueAttributeNames = new ArrayList<String>(attributes.size());
+			for (MonitoredAttribute attribute : attributes.values()) {
+				if (attribute.isDue()) {
+					dueAttributeNames.add(attribute.descriptor.getAttributeName());
+				}
+			}
 
-		Timestamp timestamp = new Timestamp(Calendar.getInstance().getTime().getTime());
-		for (Iterator<JmxAttributeDescriptor> iterator = activeAttributes.keySet().iterator(); iterator.hasNext();) {
-			JmxAttributeDescriptor descriptor = iterator.next();
+			if (dueAttributeNames.isEmpty()) {
+				continue;
+			}
 
+			AttributeList attributeList;
 			try {
-				// Retrieving the value of the, in the JmxAttributeDescriptor specified,
-				// MBeanAttribute
-				ObjectName objectName = nameStringToObjectName.get(descriptor.getmBeanObjectName());
-				Object collectedValue = mBeanServer.getAttribute(objectName, descriptor.getAttributeName());
-
-				String value;
-				if (null == collectedValue) {
-					value = "null";
-				} else if (collectedValue.getClass().isArray()) {
-					value = getArrayValue(collectedValue);
-				} else {
-					value = collectedValue.toString();
+				attributeList = mBeanServer.getAttributes(objectName, dueAttributeNames.toArray(new String[dueAttributeNames.size()]));
+			} catch (Exception e) {
+				iterator.remove();
+				log.warn("JMX::Exception. An exception has been thrown during attempt to fetch the attributes " + dueAttributeNames + " from the MBean " + objectName
+						+ ". MBean removed from the actively read list.", e);
+				continue;
+			}
+
+			for (Object object : attributeList) {
+				Attribute attribute = (Attribute) object;
+				MonitoredAttribute monitoredAttribute = attributes.get(attribute.getName());
+				if (null == monitoredAttribute) {
+					continue;
 				}
 
-				// Create a new JmxSensorValueData to be saved into the database
-				long platformid = platformManager.getPlatformId();
-				JmxSensorValueData jsvd = new JmxSensorValueData(descriptor.getId(), value, timestamp, platformid, sensorTypeIdent);
+				String value = getStringValue(attribute.getValue());
+				if (monitoredAttribute.valueCollected(value, currentTime, onlyChangedValues, heartbeatInterval, maxIntervalCycles)) {
+					if (null == timestamp) {
+						timestamp = new Timestamp(currentTime);
+					}
 
-				coreService.addDefaultData(jsvd);
-			} catch (Exception e) {
-				iterator.remove();
-				log.warn("JMX::Exception. An exception has been thrown during attempt to fetch the attribute " + descriptor.getAttributeName() + " from the MBean " + descriptor.getmBeanObjectName()
-				+ ". Attribute removed from the actively read list.", e);
+					// Create a new JmxSensorValueData to be saved into the database
+					JmxSensorValueData jsvd = new JmxSensorValueData(monitoredAttribute.descriptor.getId(), value, timestamp, platformId, sensorTypeIdent);
+					coreService.addDefaultData(jsvd);
+				}
+			}
+
+			// the attributes that could not be read are not returned in the list
+			if (attributeList.size() < dueAttributeNames.size()) {
+				Set<String> readAttributeNames = new HashSet<String>();
+				for (Object object : attributeList) {
+					readAttributeNames.add(((Attribute) object).getName());
+				}
+				for (String attributeName : dueAttributeNames) {
+					if (!readAttributeNames.contains(attributeName)) {
+						attributes.remove(attributeName);
+						log.warn("JMX::Failed to fetch the attribute " + attributeName + " from the MBean " + objectName + ". Attribute removed from the actively read list.");
+					}
+				}
+				if (attributes.isEmpty()) {
+					iterator.remove();
+				}
 			}
 		}
 	}
 
+	/**
+	 * Returns the string representation of the collected attribute value.
+	 *
+	 * @param collectedValue
+	 *            Collected value, can be <code>null</code>.
+	 * @return String representation of the value.
+	 */
+	private String getStringValue(Object collectedValue) {
+		if (null == collectedValue) {
+			return "null";
+		} else if (collectedValue.getClass().isArray()) {
+			return getArrayValue(collectedValue);
+		} else {
+			return collectedValue.toString();
+		}
+	}
+
 	/**
 	 * Registers all attributes of all object names that are returned as the result of querying with
 	 * the given mBeanName on the server in the given holder.
@@ -292,8 +402,6 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 	 */
 	private void registerMBeans(MBeanServerHolder holder, ObjectName mBeanName) {
 		MBeanServer mBeanServer = holder.mBeanServer;
-		Map<JmxAttributeDescriptor, Boolean> activeAttributes = holder.activeAttributes;
-		Map<String, ObjectName> nameStringToObjectName = holder.nameStringToObjectName;
 
 		// do nothing if connection is not there
 		if (!connection.isConnected()) {
@@ -331,14 +439,24 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 		try {
 			Collection<JmxAttributeDescriptor> toMonitor = connection.analyzeJmxAttributes(platformManager.getPlatformId(), descriptors);
 
-			// add to active attributes
-			for (JmxAttributeDescriptor descriptor : toMonitor) {
-				activeAttributes.put(descriptor, Boolean.FALSE);
-			}
-			// if call is working add object names to the map
+			// add to monitored attributes grouped by the object name
+			Map<String, ObjectName> nameStringToObjectName = new HashMap<String, ObjectName>();
 			for (ObjectName name : allNames) {
 				nameStringToObjectName.put(name.toString(), name);
 			}
+			for (JmxAttributeDescriptor descriptor : toMonitor) {
+				ObjectName objectName = nameStringToObjectName.get(descriptor.getmBeanObjectName());
+				if (null == objectName) {
+					continue;
+				}
+
+				Map<String, MonitoredAttribute> attributes = holder.monitoredAttributes.get(objectName);
+				if (null == attributes) {
+					attributes = new ConcurrentHashMap<String, MonitoredAttribute>();
+					holder.monitoredAttributes.put(objectName, attributes);
+				}
+				attributes.put(descriptor.getAttributeName(), new MonitoredAttribute(descriptor));
+			}
 		} catch (ServerUnavailableException e) {
 			if (log.isWarnEnabled()) {
 				log.warn("Error registering JMX attributes on the server.", e);
@@ -416,15 +534,10 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 		final MBeanServer mBeanServer;
 
 		/**
-		 * Map used to connect the ObjectName of a MBean with the string-representation of the same
-		 * MBean. Recreation of the ObjectName is no longer necessary for the update-method.
+		 * Actively monitored attributes grouped by the object name of the MBean they belong to. The
+		 * inner map is keyed by the attribute name.
 		 */
-		final Map<String, ObjectName> nameStringToObjectName = new ConcurrentHashMap<String, ObjectName>();
-
-		/**
-		 * Set of active attributes (represented as Map).
-		 */
-		final Map<JmxAttributeDescriptor, Boolean> activeAttributes = new ConcurrentHashMap<JmxAttributeDescriptor, Boolean>();
+		final Map<ObjectName, Map<String, MonitoredAttribute>> monitoredAttributes = new ConcurrentHashMap<ObjectName, Map<String, MonitoredAttribute>>();
 
 		/**
 		 * Default constructor.
@@ -452,20 +565,105 @@ public class JmxSensor implements IJmxSensor, InitializingBean, DisposableBean {
 					// if we have registration pick up the attributes
 					registerMBeans(MBeanServerHolder.this, mBeanName);
 				} else if (MBeanServerNotification.UNREGISTRATION_NOTIFICATION.equals(serverNotification.getType())) {
-					// get maps from holder
-					// if we have un-registration remove from maps
-					String mBeanNameString = mBeanName.toString();
-					for (Iterator<JmxAttributeDescriptor> it = activeAttributes.keySet().iterator(); it.hasNext();) {
-						JmxAttributeDescriptor descriptor = it.next();
-						if (Objects.equal(descriptor.getmBeanObjectName(), mBeanNameString)) {
-							it.remove();
-						}
-					}
-					nameStringToObjectName.remove(mBeanNameString);
+					// if we have un-registration remove all attributes of the bean
+					monitoredAttributes.remove(mBeanName);
 				}
 			}
 		}
 
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Collection state of one actively monitored attribute.
+	 *
+	 * @author agent
+	 *
+	 */
+	static final class MonitoredAttribute {
+
+		/**
+		 * Descriptor of the attribute.
+		 */
+		final JmxAttributeDescriptor descriptor;
+
+		/**
+		 * Last collected value, <code>null</code> before the first collection.
+		 */
+		private String lastValue;
+
+		/**
+		 * Time when the value was last sent.
+		 */
+		private long lastSentTimestamp;
+
+		/**
+		 * Current collection interval expressed in collection cycles.
+		 */
+		private int intervalCycles = 1;
+
+		/**
+		 * Amount of collection cycles to skip before the attribute is read again.
+		 */
+		private int skipCycles;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param descriptor
+		 *            Descriptor of the attribute.
+		 */
+		MonitoredAttribute(JmxAttributeDescriptor descriptor) {
+			this.descriptor = descriptor;
+		}
+
+		/**
+		 * Returns if the attribute should be read in the current collection cycle. Note that each
+		 * call counts as one passed cycle.
+		 *
+		 * @return Returns if the attribute should be read in the current collection cycle.
+		 */
+		boolean isDue() {
+			if (skipCycles > 0) {
+				skipCycles--;
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Updates the state with the newly collected value. The collection interval is doubled
+		 * (up to the given maximum) each time the value did not change and reset to one cycle once
+		 * it changes.
+		 *
+		 * @param value
+		 *            Collected value.
+		 * @param currentTime
+		 *            Time of the collection.
+		 * @param onlyChangedValues
+		 *            If only changed values should be sent.
+		 * @param heartbeatInterval
+		 *            Interval after which an unchanged value is sent again.
+		 * @param maxIntervalCycles
+		 *            Maximum collection interval in cycles.
+		 * @return <code>true</code> if the value should be sent
+		 */
+		boolean valueCollected(String value, long currentTime, boolean onlyChangedValues, long heartbeatInterval, int maxIntervalCycles) {
+			boolean changed = !value.equals(lastValue);
+			if (changed) {
+				intervalCycles = 1;
+			} else {
+				intervalCycles = Math.min(intervalCycles * 2, maxIntervalCycles);
+			}
+			skipCycles = intervalCycles - 1;
+			lastValue = value;
+
+			if (!onlyChangedValues || changed || ((currentTime - lastSentTimestamp) >= heartbeatInterval)) {
+				lastSentTimestamp = currentTime;
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+}
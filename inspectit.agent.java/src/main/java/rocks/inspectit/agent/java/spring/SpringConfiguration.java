@@ -139,7 +139,10 @@ public class SpringConfiguration implements BeanDefinitionRegistryPostProcessor
 	@Autowired
 	public Client getClient(PrototypesProvider prototypesProvider, IThreadTransformHelper threadTransformHelper) {
 		IExtendedSerialization serialization = new ExtendedSerializationImpl(prototypesProvider);
-		return new AgentAwareClient(serialization, prototypesProvider, threadTransformHelper);
+		Client client = new AgentAwareClient(serialization, prototypesProvider, threadTransformHelper);
+		// support compression, the threshold is defined by the CMR
+		client.setCompressionThreshold(0);
+		return client;
 	}
 
 	/**
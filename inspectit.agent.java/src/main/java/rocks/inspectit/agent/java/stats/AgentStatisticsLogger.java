@@ -7,13 +7,15 @@ import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
+import rocks.inspectit.shared.all.kryonet.CompressionStatistics;
 import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
  * Very basic component for statistics logging. Other components can use methods provided to denote
  * different events, while the logger decides when will something be printed.
  * <P>
- * For now only can log the number of data dropped.
+ * For now only can log the number of data dropped and the compression of the data sent to the
+ * CMR.
  *
  * @author Ivan Senic
  *
@@ -31,6 +33,11 @@ public class AgentStatisticsLogger {
 	 */
 	private static final BoundariesLogStrategy THROWN_BUSINESS_EXCEPTION_LOG_STRATEGY = new BoundariesLogStrategy(1, Long.MAX_VALUE);
 
+	/**
+	 * Log strategy for the compressed frames sent to the CMR.
+	 */
+	private static final BoundariesLogStrategy COMPRESSED_FRAMES_LOG_STRATEGY = new BoundariesLogStrategy(1, 10000);
+
 	/**
 	 * The logger of the class.
 	 */
@@ -47,6 +54,11 @@ public class AgentStatisticsLogger {
 	 */
 	private AtomicLong thrownBusinessExceptionCount = new AtomicLong(0);
 
+	/**
+	 * Count of compressed frames already reported.
+	 */
+	private AtomicLong reportedCompressedFrames = new AtomicLong(0);
+
 	/**
 	 * Signals data drop.
 	 *
@@ -78,6 +90,30 @@ public class AgentStatisticsLogger {
 		}
 	}
 
+	/**
+	 * Signals that data was sent, so that the compression statistics can be reported.
+	 *
+	 * @param compressionStatistics
+	 *            Compression statistics of the connection to the CMR, can be <code>null</code>.
+	 */
+	public void dataSent(CompressionStatistics compressionStatistics) {
+		if (null == compressionStatistics) {
+			return;
+		}
+
+		long compressedFrames = compressionStatistics.getCompressedFrames();
+		long previous = reportedCompressedFrames.getAndSet(compressedFrames);
+
+		// log on first and then on every ten thousand compressed frames
+		if (log.isInfoEnabled() && (previous < compressedFrames) && COMPRESSED_FRAMES_LOG_STRATEGY.shouldLog(previous, compressedFrames)) {
+			long rawBytes = compressionStatistics.getCompressedFramesRawBytes();
+			long bytes = compressionStatistics.getCompressedFramesBytes();
+			long compressionMillis = compressionStatistics.getCompressionTime() / 1000000L;
+			log.info("Data sent to the CMR is compressed. Compressed " + compressedFrames + " frames from " + rawBytes + " to " + bytes + " bytes (ratio "
+					+ String.format("%.2f", compressionStatistics.getCompressionRatio()) + ") spending " + compressionMillis + " ms.");
+		}
+	}
+
 	/**
 	 * Small utility for log based on the boundaries.
 	 *
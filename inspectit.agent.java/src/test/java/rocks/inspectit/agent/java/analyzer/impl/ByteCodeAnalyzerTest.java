@@ -56,6 +56,7 @@ import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.core.IPlatformManager;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
 import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
@@ -128,6 +129,9 @@ public class ByteCodeAnalyzerTest extends TestBase {
 	@Mock
 	Future<Object> future;
 
+	@Mock
+	IMethodOverheadMonitor methodOverheadMonitor;
+
 	@Mock
 	AgentStatisticsLogger agentStatisticsLogger;
 
@@ -234,6 +238,38 @@ public class ByteCodeAnalyzerTest extends TestBase {
 			verifyNoMoreInteractions(hookDispatcherMapper, connection, classHashHelper);
 		}
 
+		@Test
+		public void noInstrumentationDeinstrumentedMethod() throws Exception {
+			String className = TestClass.class.getName();
+			ClassLoader classLoader = TestClass.class.getClassLoader();
+			byte[] byteCode = getByteCode(className);
+
+			when(methodInstrumentationConfig.getTargetClassFqn()).thenReturn(className);
+			when(methodInstrumentationConfig.getTargetMethodName()).thenReturn("<init>");
+			when(methodInstrumentationConfig.getReturnType()).thenReturn("void");
+			when(methodInstrumentationConfig.getParameterTypes()).thenReturn(Collections.<String> emptyList());
+			when(methodInstrumentationConfig.getSensorInstrumentationPoint()).thenReturn(sensorInstrumentationPoint);
+			when(methodInstrumentationConfig.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sensorInstrumentationPoint));
+			when(instrumenterFactory.getMethodVisitor(eq(sensorInstrumentationPoint), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean())).thenReturn(methodVisitor);
+
+			ArgumentCaptor<String> fqnCaptor = ArgumentCaptor.forClass(String.class);
+			ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+			when(classHashHelper.isSent(fqnCaptor.capture(), hashCaptor.capture())).thenReturn(true);
+			when(classHashHelper.getInstrumentationDefinition(fqnCaptor.capture())).thenReturn(instrumentationResult);
+			when(instrumentationResult.getMethodInstrumentationConfigs()).thenReturn(Collections.singleton(methodInstrumentationConfig));
+			long rscId = 13L;
+			when(sensorInstrumentationPoint.getId()).thenReturn(rscId);
+			when(methodOverheadMonitor.isDeinstrumented(rscId)).thenReturn(true);
+
+			byteCodeAnalyzer.afterPropertiesSet();
+			byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+			// method is de-instrumented, thus no byte code change
+			assertThat(instrumentedByteCode, is(nullValue()));
+			verify(methodOverheadMonitor, times(1)).isDeinstrumented(rscId);
+			verifyZeroInteractions(hookDispatcherMapper, instrumenterFactory);
+		}
+
 		@Test
 		public void nullByteCodeAndClassLoaderInstrumentation() throws Exception {
 			String className = String.class.getName();
@@ -318,6 +318,89 @@ public class PropertyAccessorTest extends AbstractLogSupport {
 		Mockito.verifyZeroInteractions(resultValueMock);
 	}
 
+	@Test
+	public void samePathDifferentReceiverClasses() throws PropertyAccessException {
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("param");
+		start.setSignaturePosition(0);
+		start.setContentType(ParameterContentType.PARAM);
+
+		PropertyPath path = new PropertyPath();
+		path.setName("name");
+		start.setPathToContinue(path);
+
+		String personResult = propertyAccessor.getPropertyContent(start, null, new Object[] { new Person("Peter") }, resultValueMock, false);
+		String employeeResult = propertyAccessor.getPropertyContent(start, null, new Object[] { new Employee("Hans") }, resultValueMock, false);
+		String companyResult = propertyAccessor.getPropertyContent(start, null, new Object[] { new Company("inspectIT") }, resultValueMock, false);
+
+		assertThat(personResult, is("Peter"));
+		assertThat(employeeResult, is("Hans"));
+		assertThat(companyResult, is("inspectIT"));
+		Mockito.verifyZeroInteractions(resultValueMock);
+	}
+
+	@Test
+	public void sizeMethodDifferentReceiverClasses() throws PropertyAccessException {
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("param");
+		start.setSignaturePosition(0);
+		start.setContentType(ParameterContentType.PARAM);
+
+		PropertyPath path = new PropertyPath();
+		path.setName("size()");
+		start.setPathToContinue(path);
+
+		List<String> arrayList = new ArrayList<String>();
+		arrayList.add("blub");
+		List<String> copyOnWriteList = new CopyOnWriteArrayList<String>();
+		copyOnWriteList.add("blub");
+		copyOnWriteList.add("blub2");
+
+		String arrayListResult = propertyAccessor.getPropertyContent(start, null, new Object[] { arrayList }, resultValueMock, false);
+		String copyOnWriteListResult = propertyAccessor.getPropertyContent(start, null, new Object[] { copyOnWriteList }, resultValueMock, false);
+
+		assertThat(Integer.parseInt(arrayListResult), is(1));
+		assertThat(Integer.parseInt(copyOnWriteListResult), is(2));
+		Mockito.verifyZeroInteractions(resultValueMock);
+	}
+
+	@Test
+	public void repeatedAccessReadsCurrentValue() throws PropertyAccessException {
+		Person person = new Person("Peter");
+
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("this");
+		start.setContentType(ParameterContentType.FIELD);
+
+		PropertyPath path = new PropertyPath();
+		path.setName("name");
+		start.setPathToContinue(path);
+
+		String first = propertyAccessor.getPropertyContent(start, person, null, resultValueMock, false);
+		person.setName("Hans");
+		String second = propertyAccessor.getPropertyContent(start, person, null, resultValueMock, false);
+
+		assertThat(first, is("Peter"));
+		assertThat(second, is("Hans"));
+		Mockito.verifyZeroInteractions(resultValueMock);
+	}
+
+	@Test(expectedExceptions = { PropertyAccessException.class })
+	public void missingFieldInOtherReceiverClass() throws PropertyAccessException {
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("param");
+		start.setSignaturePosition(0);
+		start.setContentType(ParameterContentType.PARAM);
+
+		PropertyPath path = new PropertyPath();
+		path.setName("child");
+		start.setPathToContinue(path);
+
+		propertyAccessor.getPropertyContent(start, null, new Object[] { new Person("Peter") }, resultValueMock, false);
+		// company has no child field
+		propertyAccessor.getPropertyContent(start, null, new Object[] { new Company("inspectIT") }, resultValueMock, false);
+	}
+
 	@Test
 	public void analyzeReturnValueString() throws PropertyAccessException {
 		// valid
@@ -523,4 +606,23 @@ public class PropertyAccessorTest extends AbstractLogSupport {
 
 	}
 
+	private static class Employee extends Person {
+
+		public Employee(String name) {
+			super(name);
+		}
+
+	}
+
+	@SuppressWarnings("unused")
+	private static class Company {
+
+		private String name;
+
+		public Company(String name) {
+			this.name = name;
+		}
+
+	}
+
 }
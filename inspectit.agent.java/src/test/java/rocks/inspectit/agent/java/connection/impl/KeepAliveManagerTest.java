@@ -1,21 +1,27 @@
 package rocks.inspectit.agent.java.connection.impl;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.ConnectException;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.event.ConnectionReestablishedEvent;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 /**
@@ -34,6 +40,9 @@ public class KeepAliveManagerTest extends TestBase {
 	@Mock
 	IPlatformManager platformManager;
 
+	@Mock
+	ApplicationEventPublisher eventPublisher;
+
 	@Mock
 	Logger log;
 
@@ -80,6 +89,33 @@ public class KeepAliveManagerTest extends TestBase {
 			verifyNoMoreInteractions(connection);
 		}
 
+		@Test
+		public void reconnectSuccessful() throws Exception {
+			when(connection.isConnected()).thenReturn(false);
+
+			manager.sendKeepAlive();
+			manager.sendKeepAlive();
+
+			verify(connection, times(2)).isConnected();
+			verify(connection).reconnect();
+			ArgumentCaptor<ConnectionReestablishedEvent> eventCaptor = ArgumentCaptor.forClass(ConnectionReestablishedEvent.class);
+			verify(eventPublisher).publishEvent(eventCaptor.capture());
+			assertThat(eventCaptor.getValue().getSource(), is((Object) manager));
+			verifyNoMoreInteractions(connection, eventPublisher);
+		}
+
+		@Test
+		public void reconnectFailedNoEvent() throws Exception {
+			when(connection.isConnected()).thenReturn(false);
+			doThrow(ConnectException.class).when(connection).reconnect();
+
+			manager.sendKeepAlive();
+			manager.sendKeepAlive();
+
+			verify(connection).reconnect();
+			verifyZeroInteractions(eventPublisher);
+		}
+
 		@Test
 		public void reconnectExponential() throws Exception {
 			when(connection.isConnected()).thenReturn(false);
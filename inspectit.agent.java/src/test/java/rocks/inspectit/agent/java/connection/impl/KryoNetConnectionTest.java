@@ -36,6 +36,7 @@ import com.esotericsoftware.kryonet.rmi.TimeoutException;
 
 import rocks.inspectit.agent.java.connection.RetryStrategy;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.stats.AgentStatisticsLogger;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.cmr.service.IKeepAliveService;
@@ -48,6 +49,7 @@ import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.InstrumentationDefinition;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
 import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.kryonet.CompressionStatistics;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 @SuppressWarnings({ "PMD", "unchecked" })
@@ -62,6 +64,9 @@ public class KryoNetConnectionTest extends TestBase {
 	@Mock
 	Client client;
 
+	@Mock
+	AgentStatisticsLogger statsLogger;
+
 	@Mock
 	IAgentStorageService agentStorageService;
 
@@ -220,6 +225,8 @@ public class KryoNetConnectionTest extends TestBase {
 		@Test
 		public void sendData() throws Exception {
 			when(client.isConnected()).thenReturn(true);
+			CompressionStatistics compressionStatistics = new CompressionStatistics();
+			when(client.getCompressionStatistics()).thenReturn(compressionStatistics);
 			List<DefaultData> measurements = new ArrayList<DefaultData>();
 			measurements.add(new TimerData());
 
@@ -227,6 +234,7 @@ public class KryoNetConnectionTest extends TestBase {
 
 			verify(agentStorageService, times(1)).addDataObjects(measurements);
 			verifyNoMoreInteractions(agentStorageService);
+			verify(statsLogger, times(1)).dataSent(compressionStatistics);
 		}
 
 		@Test(expectedExceptions = { ServerUnavailableException.class })
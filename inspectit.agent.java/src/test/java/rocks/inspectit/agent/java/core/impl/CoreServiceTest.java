@@ -17,6 +17,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
@@ -144,6 +145,63 @@ public class CoreServiceTest extends TestBase {
 
 	}
 
+	public static class AddAllDefaultData extends CoreServiceTest {
+
+		@Mock
+		DefaultData data1;
+
+		@Mock
+		DefaultData data2;
+
+		@Test
+		public void happyPath() throws InterruptedException, StorageException {
+			when(disruptorStrategy.getDataBufferSize()).thenReturn(8);
+			coreService.start();
+
+			coreService.addAllDefaultData(Arrays.asList(data1, data2));
+
+			// need to sleep a bit so handler is notified
+			Thread.sleep(100);
+
+			ArgumentCaptor<DefaultDataWrapper> captor = ArgumentCaptor.forClass(DefaultDataWrapper.class);
+			verify(defaultDataHandler, times(2)).onEvent(captor.capture(), anyLong(), anyBoolean());
+			assertThat(captor.getAllValues().get(0).getDefaultData(), is(data1));
+			assertThat(captor.getAllValues().get(1).getDefaultData(), is(data2));
+		}
+
+		@Test
+		public void noAddOnShutdown() throws InterruptedException, StorageException {
+			when(disruptorStrategy.getDataBufferSize()).thenReturn(8);
+			coreService.start();
+			coreService.stop();
+
+			coreService.addAllDefaultData(Arrays.asList(data1, data2));
+
+			// need to sleep a bit so handler is notified
+			Thread.sleep(100);
+			verifyNoMoreInteractions(defaultDataHandler);
+		}
+
+		@Test
+		public void moreThanCapacity() throws InterruptedException, StorageException {
+			when(disruptorStrategy.getDataBufferSize()).thenReturn(2);
+			coreService.start();
+
+			coreService.addAllDefaultData(Arrays.asList(data1, data2, data1));
+
+			// need to sleep a bit so handler is notified
+			Thread.sleep(100);
+			verify(statsLogger).dataDropped(3);
+			verifyNoMoreInteractions(defaultDataHandler);
+		}
+
+		@AfterMethod
+		public void stop() {
+			coreService.stop();
+		}
+
+	}
+
 	public static class Start extends CoreServiceTest {
 
 		@Test(expectedExceptions = BeanInitializationException.class)
@@ -4,11 +4,12 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
-import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.List;
 
 import org.codehaus.jackson.JsonNode;
@@ -51,7 +52,7 @@ public class DataHandlerTest extends TestBase {
 	@Mock
 	ICoreService coreService;
 
-	ArgumentCaptor<DefaultData> sentElements;
+	ArgumentCaptor<List> sentElements;
 
 	@InjectMocks
 	DataHandler dataHandler;
@@ -60,8 +61,17 @@ public class DataHandlerTest extends TestBase {
 	@BeforeMethod
 	public void initMocks() {
 		when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
-		sentElements = ArgumentCaptor.forClass(DefaultData.class);
-		doNothing().when(coreService).addDefaultData(sentElements.capture());
+		sentElements = ArgumentCaptor.forClass(List.class);
+		doNothing().when(coreService).addAllDefaultData(sentElements.capture());
+	}
+
+	ObjectNode createSessionInfo() {
+		ObjectNode sessInfo = new ObjectNode(JsonNodeFactory.instance);
+		sessInfo.put("type", "metaInfo");
+		sessInfo.put("browser", "Firefox");
+		sessInfo.put("device", "iOS");
+		sessInfo.put("language", "de");
+		return sessInfo;
 	}
 
 
@@ -84,9 +94,9 @@ public class DataHandlerTest extends TestBase {
 			data.add(sessInfo);
 
 			String beaconJson = beacon.toString();
-			dataHandler.insertBeacon(beaconJson);
-			Mockito.verify(coreService, Mockito.times(1)).addDefaultData(any(DefaultData.class));
-			List<DefaultData> sent = sentElements.getAllValues();
+			dataHandler.insertBeacon(new StringReader(beaconJson));
+			Mockito.verify(coreService, Mockito.times(1)).addAllDefaultData(anyListOf(DefaultData.class));
+			List<DefaultData> sent = sentElements.getValue();
 
 			assertThat(sent.size(), equalTo(1));
 			assertThat(sent.get(0), instanceOf(UserSessionInfo.class));
@@ -108,8 +118,8 @@ public class DataHandlerTest extends TestBase {
 			beacon.put("data", data);
 
 			String beaconJson = beacon.toString();
-			String responseJson = dataHandler.insertBeacon(beaconJson);
-			Mockito.verify(coreService, Mockito.times(0)).addDefaultData(any(DefaultData.class));
+			String responseJson = dataHandler.insertBeacon(new StringReader(beaconJson));
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
 
 			JsonNode response = (new ObjectMapper()).readTree(responseJson);
 			assertThat(response, instanceOf(ObjectNode.class));
@@ -119,8 +129,8 @@ public class DataHandlerTest extends TestBase {
 
 		@Test
 		public void testInvalidBeaconSyntax() {
-			dataHandler.insertBeacon("nope { }");
-			Mockito.verify(coreService, Mockito.times(0)).addDefaultData(any(DefaultData.class));
+			dataHandler.insertBeacon(new StringReader("nope { }"));
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
 
 		}
 
@@ -142,9 +152,67 @@ public class DataHandlerTest extends TestBase {
 
 			String beaconJson = beacon.toString();
 
-			dataHandler.insertBeacon(beaconJson);
-			Mockito.verify(coreService, Mockito.times(0)).addDefaultData(any(DefaultData.class));
+			dataHandler.insertBeacon(new StringReader(beaconJson));
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
+
+		}
+
+		@Test
+		public void testDataBeforeIDs() {
+			ObjectNode beacon = new ObjectNode(JsonNodeFactory.instance);
+			ArrayNode data = beacon.arrayNode();
+			beacon.put("data", data);
+			data.add(createSessionInfo());
+			beacon.put("unknownField", "ignored");
+			beacon.put("sessionID", "" + Long.toString(SESSID_DEMOVALUE, 16));
+			beacon.put("tabID", "" + Long.toString(TABID_DEMOVALUE, 16));
+
+			String response = dataHandler.insertBeacon(new StringReader(beacon.toString()));
+
+			assertThat(response, equalTo("{}"));
+			List<DefaultData> sent = sentElements.getValue();
+			assertThat(sent.size(), equalTo(1));
+			assertThat(((UserSessionInfo) sent.get(0)).getSessionId(), equalTo(SESSID_DEMOVALUE));
+			assertThat(sent.get(0).getPlatformIdent(), equalTo(PLATFORM_ID));
+		}
+
+		@Test
+		public void testTooManyElements() {
+			ObjectNode beacon = new ObjectNode(JsonNodeFactory.instance);
+			beacon.put("sessionID", "" + Long.toString(SESSID_DEMOVALUE, 16));
+			beacon.put("tabID", "" + Long.toString(TABID_DEMOVALUE, 16));
+			ArrayNode data = beacon.arrayNode();
+			beacon.put("data", data);
+			for (int i = 0; i <= DataHandler.MAX_BEACON_ELEMENTS; i++) {
+				data.add(createSessionInfo());
+			}
+
+			dataHandler.insertBeacon(new StringReader(beacon.toString()));
+
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
+		}
+
+		@Test
+		public void testTooLong() {
+			ObjectNode beacon = new ObjectNode(JsonNodeFactory.instance);
+			beacon.put("sessionID", "" + Long.toString(SESSID_DEMOVALUE, 16));
+			beacon.put("tabID", "" + Long.toString(TABID_DEMOVALUE, 16));
+			ArrayNode data = beacon.arrayNode();
+			beacon.put("data", data);
+			ObjectNode sessInfo = createSessionInfo();
+			sessInfo.put("browser", new String(new char[DataHandler.MAX_BEACON_LENGTH]).replace('\0', 'x'));
+			data.add(sessInfo);
+
+			dataHandler.insertBeacon(new StringReader(beacon.toString()));
+
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
+		}
+
+		@Test
+		public void testIncomplete() {
+			dataHandler.insertBeacon(new StringReader("{\"sessionID\":\"1\", \"data\": ["));
 
+			Mockito.verify(coreService, Mockito.times(0)).addAllDefaultData(anyListOf(DefaultData.class));
 		}
 	}
 
@@ -0,0 +1,209 @@
+package rocks.inspectit.agent.java.eum.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * @author agent
+ *
+ */
+public class ByteLevelHtmlScriptInjectorTest extends TestBase {
+
+	private static final String TAG_TO_INJECT = "<here usually goes the script tag>";
+	private static final String INJECTION_POS_MARKER = "<!--INJECTIONPOINT-->";
+	private static final String ENCODING = "UTF-8";
+
+	ByteLevelHtmlScriptInjector injector;
+
+	@BeforeMethod
+	public void init() throws UnsupportedEncodingException {
+		injector = new ByteLevelHtmlScriptInjector(TAG_TO_INJECT, ENCODING);
+	}
+
+	String loadHtmlSource(String path) {
+		InputStream is = ByteLevelHtmlScriptInjectorTest.class.getResourceAsStream(path);
+		try {
+			return new String(ByteStreams.toByteArray(is), ENCODING);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	String getExpectedResult(String originalHtml) {
+		int injectionPos = originalHtml.indexOf(INJECTION_POS_MARKER);
+		if (injectionPos != -1) {
+			return originalHtml.substring(0, injectionPos) + TAG_TO_INJECT + originalHtml.substring(injectionPos);
+		} else {
+			return originalHtml;
+		}
+	}
+
+	String runInjector(String source) throws UnsupportedEncodingException {
+		// add some leading bytes to make sure the offset is respected
+		byte[] sourceBytes = source.getBytes(ENCODING);
+		byte[] buffer = new byte[sourceBytes.length + 5];
+		System.arraycopy(sourceBytes, 0, buffer, 5, sourceBytes.length);
+
+		int pos = 5;
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		while (pos < buffer.length) {
+			// give it to the parser in portions of 3 bytes
+			int len = Math.min(3, buffer.length - pos);
+			int injectionPoint = injector.findInjectionPoint(buffer, pos, len);
+			if (injectionPoint == ByteLevelHtmlScriptInjector.NO_INJECTION) {
+				bout.write(buffer, pos, len);
+			} else {
+				bout.write(buffer, pos, injectionPoint - pos);
+				bout.write(injector.getEncodedTag(), 0, injector.getEncodedTag().length);
+				bout.write(buffer, injectionPoint, (pos + len) - injectionPoint);
+			}
+			pos += 3;
+		}
+		return new String(bout.toByteArray(), ENCODING);
+	}
+
+	public static class FindInjectionPoint extends ByteLevelHtmlScriptInjectorTest {
+
+		@Test
+		public void testCaseHeadInjection() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-HeadInjection.html");
+			String expectedResult = getExpectedResult(src);
+
+			String modified = runInjector(src);
+
+			assertThat(modified, equalTo(expectedResult));
+			assertThat(injector.hasTerminated(), is(true));
+		}
+
+		@Test
+		public void testCaseBodyInjection() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-BodyInjection.html");
+			String expectedResult = getExpectedResult(src);
+
+			String modified = runInjector(src);
+
+			assertThat(modified, equalTo(expectedResult));
+		}
+
+		@Test
+		public void testCaseInvalidToken() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-InvalidToken.html");
+			String expectedResult = getExpectedResult(src);
+
+			String modified = runInjector(src);
+
+			assertThat(modified, equalTo(expectedResult));
+			assertThat(injector.hasTerminated(), is(true));
+		}
+
+		@Test
+		public void testCaseXhtml() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-XHTML.html");
+			String expectedResult = getExpectedResult(src);
+
+			String modified = runInjector(src);
+
+			assertThat(modified, equalTo(expectedResult));
+		}
+
+		@Test
+		public void testCaseXML() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-XML.html");
+			String expectedResult = getExpectedResult(src);
+
+			String modified = runInjector(src);
+
+			assertThat(modified, equalTo(expectedResult));
+		}
+
+		@Test
+		public void testPreventDoubleInjection() throws UnsupportedEncodingException {
+			String src = loadHtmlSource("/html/testCase-HeadInjection.html");
+			String modifiedA = runInjector(src);
+
+			injector = new ByteLevelHtmlScriptInjector(TAG_TO_INJECT, ENCODING);
+			String modifiedB = runInjector(modifiedA);
+
+			assertThat(modifiedB, equalTo(modifiedA));
+		}
+
+		@Test
+		public void testNonAsciiTag() throws UnsupportedEncodingException {
+			String tag = "<script src=\"/äö.js\"></script>";
+			injector = new ByteLevelHtmlScriptInjector(tag, ENCODING);
+			byte[] html = "<html><head></head></html>".getBytes(ENCODING);
+
+			int injectionPoint = injector.findInjectionPoint(html, 0, html.length);
+
+			assertThat(injectionPoint, is("<html><head>".length()));
+			assertThat(injector.getEncodedTag(), equalTo(tag.getBytes(ENCODING)));
+		}
+
+		@Test
+		public void testMixedWithCharacterData() throws UnsupportedEncodingException {
+			byte[] html = "<head></head>".getBytes(ENCODING);
+
+			assertThat(injector.performInjection("<html>"), equalTo(null));
+			int injectionPoint = injector.findInjectionPoint(html, 0, html.length);
+
+			assertThat(injectionPoint, is("<head>".length()));
+		}
+
+		@Test
+		public void testNoInjectionAfterTermination() throws UnsupportedEncodingException {
+			byte[] html = "<head></head>".getBytes(ENCODING);
+			byte[] text = "Some plain text".getBytes(ENCODING);
+
+			assertThat(injector.findInjectionPoint(text, 0, text.length), is(ByteLevelHtmlScriptInjector.NO_INJECTION));
+			assertThat(injector.hasTerminated(), is(true));
+			assertThat(injector.findInjectionPoint(html, 0, html.length), is(ByteLevelHtmlScriptInjector.NO_INJECTION));
+		}
+	}
+
+	public static class IsSupported extends ByteLevelHtmlScriptInjectorTest {
+
+		@Test
+		public void utf8() {
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("UTF-8"), is(true));
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("utf8"), is(true));
+		}
+
+		@Test
+		public void singleByteAsciiSuperset() {
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("ISO-8859-1"), is(true));
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("US-ASCII"), is(true));
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("windows-1252"), is(true));
+		}
+
+		@Test
+		public void multiByte() {
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("UTF-16"), is(false));
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("UTF-16LE"), is(false));
+		}
+
+		@Test
+		public void notAsciiCompatible() {
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("Cp037"), is(false));
+		}
+
+		@Test
+		public void invalid() {
+			assertThat(ByteLevelHtmlScriptInjector.isSupported("invalid-haha"), is(false));
+			assertThat(ByteLevelHtmlScriptInjector.isSupported(null), is(false));
+		}
+	}
+
+}
@@ -31,6 +31,7 @@ import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
+import rocks.inspectit.agent.java.hooking.IMethodOverheadMonitor;
 import rocks.inspectit.agent.java.hooking.ISpecialHook;
 import rocks.inspectit.agent.java.sensor.exception.ExceptionSensor;
 import rocks.inspectit.agent.java.sensor.exception.ExceptionSensorHook;
@@ -61,6 +62,9 @@ public class HookDispatcherTest extends TestBase {
 	@Mock
 	ExceptionSensor exceptionSensor;
 
+	@Mock
+	IMethodOverheadMonitor methodOverheadMonitor;
+
 	public class MethodHook extends HookDispatcherTest {
 
 		@Test
@@ -76,16 +80,16 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 
 			verifyZeroInteractions(object, coreService, returnValue);
 			verifyNoMoreInteractions(registeredSensorConfig);
@@ -113,24 +117,67 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(methodHook, times(1)).beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, exception);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, exception);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).firstAfterBody(methodId, sensorTypeId, object, parameters, returnValue, exception, registeredSensorConfig);
 
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, exception);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, exception);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, returnValue, exception, registeredSensorConfig);
 
 			verifyZeroInteractions(object, coreService, returnValue);
 			verifyNoMoreInteractions(registeredSensorConfig, methodHook);
 		}
 
+		@Test
+		public void dispatchSparseMethodIds() {
+			long sensorTypeId = 7L;
+			IMethodSensor methodSensor = mock(IMethodSensor.class);
+			IMethodHook methodHook = mock(IMethodHook.class);
+			MethodSensorTypeConfig methodSensorConfig = mock(MethodSensorTypeConfig.class);
+			when(methodSensor.getHook()).thenReturn(methodHook);
+			when(methodSensor.getSensorTypeConfig()).thenReturn(methodSensorConfig);
+			when(methodSensorConfig.getId()).thenReturn(sensorTypeId);
+
+			// more mappings than the initial capacity with ids far apart
+			int mappings = 5000;
+			RegisteredSensorConfig[] configs = new RegisteredSensorConfig[mappings];
+			for (int i = 0; i < mappings; i++) {
+				configs[i] = mock(RegisteredSensorConfig.class);
+				when(configs[i].getMethodSensors()).thenReturn(Collections.singletonList(methodSensor));
+				when(configs[i].getMethodSensorsReverse()).thenReturn(Collections.singletonList(methodSensor));
+				hookDispatcher.addMapping(Integer.MAX_VALUE + (i * 1000003L), configs[i]);
+			}
+			Object object = mock(Object.class);
+			Object[] parameters = new Object[0];
+
+			for (int i = 0; i < mappings; i += 999) {
+				long methodId = Integer.MAX_VALUE + (i * 1000003L);
+				hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
+				verify(methodHook, times(1)).beforeBody(methodId, sensorTypeId, object, parameters, configs[i]);
+			}
+		}
+
+		@Test
+		public void denseDispatchIndexes() {
+			int first = hookDispatcher.getDispatchIndex(Integer.MAX_VALUE + 11L);
+			int second = hookDispatcher.getDispatchIndex(3L);
+
+			hookDispatcher.addMapping(Integer.MAX_VALUE + 11L, mock(RegisteredSensorConfig.class));
+
+			assertThat(first, is(0));
+			assertThat(second, is(1));
+			assertThat(hookDispatcher.getDispatchIndex(Integer.MAX_VALUE + 11L), is(0));
+			assertThat(hookDispatcher.getDispatchIndex(3L), is(1));
+			assertThat(hookDispatcher.getDispatchIndex(5L), is(2));
+		}
+
 		@Test
 		public void dispatchManyMethodHooksWithoutInvocationTrace() {
 			IMethodHook methodHookOne = mock(IMethodHook.class);
@@ -168,7 +215,7 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			InOrder inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
@@ -176,16 +223,16 @@ public class HookDispatcherTest extends TestBase {
 			inOrder.verify(methodHookTwo, times(1)).beforeBody(methodId, sensorTypeIdTwo, object, parameters, registeredSensorConfig);
 			inOrder.verify(methodHookOne, times(1)).beforeBody(methodId, sensorTypeIdOne, object, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 			inOrder.verify(methodHookOne, times(1)).firstAfterBody(methodId, sensorTypeIdOne, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookTwo, times(1)).firstAfterBody(methodId, sensorTypeIdTwo, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookThree, times(1)).firstAfterBody(methodId, sensorTypeIdThree, object, parameters, returnValue, false, registeredSensorConfig);
 
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 			inOrder.verify(methodHookOne, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdOne, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookTwo, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdTwo, object, parameters, returnValue, false, registeredSensorConfig);
@@ -240,14 +287,16 @@ public class HookDispatcherTest extends TestBase {
 			// map the second method
 			hookDispatcher.addMapping(methodIdTwo, registeredSensorConfigTwo);
 
+			// hooks are resolved once per sensor list when the mapping is added
+			verify(methodSensor, times(4)).getHook();
+
 			// ////////////////////////////////////////////////////////
 			// FIRST METHOD DISPATCHER
 
 			// dispatch the first method - before body
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
-			verify(methodSensor, times(1)).getHook();
 			verify(methodHook, times(1)).beforeBody(methodId, methodSensorTypeId, object, parameters, registeredSensorConfig);
 			verify(invocHook, times(1)).beforeBody(methodId, invocSensorTypeId, object, parameters, registeredSensorConfig);
 
@@ -255,24 +304,21 @@ public class HookDispatcherTest extends TestBase {
 			// SECOND METHOD DISPATCHER
 
 			// dispatch the second method - before body
-			hookDispatcher.dispatchMethodBeforeBody(methodIdTwo, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters);
 			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensorsReverse();
-			verify(methodSensor, times(2)).getHook();
 			verify(methodHook, times(1)).beforeBody(methodIdTwo, methodSensorTypeId, object, parameters, registeredSensorConfigTwo);
 			verify(invocHook, times(1)).beforeBody(eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(registeredSensorConfigTwo));
 
 			// dispatch the second method - first after body
-			hookDispatcher.dispatchFirstMethodAfterBody(methodIdTwo, object, parameters, returnValue, exception);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters, returnValue, exception);
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensors();
-			verify(methodSensor, times(3)).getHook();
 			verify(methodHook, times(1)).firstAfterBody(methodIdTwo, methodSensorTypeId, object, parameters, returnValue, exception, registeredSensorConfigTwo);
 
 			// dispatch the second method - second after body
-			hookDispatcher.dispatchSecondMethodAfterBody(methodIdTwo, object, parameters, returnValue, exception);
-			verify(registeredSensorConfigTwo, times(2)).isStartsInvocation();
-			verify(registeredSensorConfigTwo, times(2)).getMethodSensors();
-			verify(methodSensor, times(4)).getHook();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters, returnValue, exception);
+			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
+			verify(registeredSensorConfigTwo, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(invocHook, methodIdTwo, methodSensorTypeId, object, parameters, returnValue, exception, registeredSensorConfigTwo);
 			verify(invocHook, times(1)).secondAfterBody(eq(coreService), eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(returnValue), eq(exception), eq(registeredSensorConfigTwo));
 
@@ -280,17 +326,15 @@ public class HookDispatcherTest extends TestBase {
 			// ////////////////////////////////////////////////////////
 
 			// dispatch the first method - first after body
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
-			verify(methodSensor, times(5)).getHook();
 			verify(methodHook, times(1)).firstAfterBody(methodId, methodSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 			verify(invocHook, times(1)).firstAfterBody(methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// dispatch the first method - second after body
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
-			verify(methodSensor, times(6)).getHook();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(invocHook, methodId, methodSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 			verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
@@ -304,6 +348,79 @@ public class HookDispatcherTest extends TestBase {
 		}
 	}
 
+	public class OverheadSampling extends HookDispatcherTest {
+
+		RegisteredSensorConfig createRegisteredSensorConfig() {
+			RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+			when(registeredSensorConfig.getMethodSensors()).thenReturn(Collections.<IMethodSensor> emptyList());
+			when(registeredSensorConfig.getMethodSensorsReverse()).thenReturn(Collections.<IMethodSensor> emptyList());
+			return registeredSensorConfig;
+		}
+
+		void dispatch(long methodId, int times) {
+			int index = hookDispatcher.getDispatchIndex(methodId);
+			for (int i = 0; i < times; i++) {
+				hookDispatcher.dispatchMethodBeforeBody(index, null, null);
+				hookDispatcher.dispatchFirstMethodAfterBody(index, null, null, null, false);
+				hookDispatcher.dispatchSecondMethodAfterBody(index, null, null, null, false);
+			}
+		}
+
+		@Test
+		public void noSampleBeforeInterval() {
+			RegisteredSensorConfig registeredSensorConfig = createRegisteredSensorConfig();
+			hookDispatcher.addMapping(3L, registeredSensorConfig);
+
+			dispatch(3L, HookDispatcher.OVERHEAD_SAMPLE_INTERVAL - 1);
+
+			verifyZeroInteractions(methodOverheadMonitor);
+		}
+
+		@Test
+		public void sampleOnInterval() {
+			RegisteredSensorConfig registeredSensorConfig = createRegisteredSensorConfig();
+			hookDispatcher.addMapping(3L, registeredSensorConfig);
+
+			dispatch(3L, 2 * HookDispatcher.OVERHEAD_SAMPLE_INTERVAL);
+
+			verify(methodOverheadMonitor, times(2)).addSample(eq(registeredSensorConfig), anyLong(), anyLong());
+			verifyNoMoreInteractions(methodOverheadMonitor);
+		}
+
+		@Test
+		public void nestedMethodNotSampled() {
+			RegisteredSensorConfig outer = createRegisteredSensorConfig();
+			RegisteredSensorConfig inner = createRegisteredSensorConfig();
+			hookDispatcher.addMapping(3L, outer);
+			hookDispatcher.addMapping(4L, inner);
+			dispatch(3L, HookDispatcher.OVERHEAD_SAMPLE_INTERVAL - 1);
+
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(3L), null, null);
+			dispatch(4L, HookDispatcher.OVERHEAD_SAMPLE_INTERVAL);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(3L), null, null, null, false);
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(3L), null, null, null, false);
+
+			verify(methodOverheadMonitor).addSample(eq(outer), anyLong(), anyLong());
+			verifyNoMoreInteractions(methodOverheadMonitor);
+		}
+
+		@Test
+		public void recursiveMethodSampledOnce() {
+			RegisteredSensorConfig registeredSensorConfig = createRegisteredSensorConfig();
+			hookDispatcher.addMapping(3L, registeredSensorConfig);
+			dispatch(3L, HookDispatcher.OVERHEAD_SAMPLE_INTERVAL - 1);
+
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(3L), null, null);
+			dispatch(3L, 1);
+			verifyZeroInteractions(methodOverheadMonitor);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(3L), null, null, null, false);
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(3L), null, null, null, false);
+
+			verify(methodOverheadMonitor).addSample(eq(registeredSensorConfig), anyLong(), anyLong());
+			verifyNoMoreInteractions(methodOverheadMonitor);
+		}
+	}
+
 	public class ConstructorHook extends HookDispatcherTest {
 
 		@Test
@@ -317,11 +434,11 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorBeforeBody(methodId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(methodId), parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
-			hookDispatcher.dispatchConstructorAfterBody(methodId, object, parameters);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 
 			verifyZeroInteractions(object, coreService);
@@ -348,13 +465,13 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorBeforeBody(methodId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(methodId), parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(constructorHook, times(1)).beforeConstructor(methodId, sensorTypeId, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorAfterBody(methodId, object, parameters);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(constructorHook, times(1)).afterConstructor(coreService, methodId, sensorTypeId, object, parameters, registeredSensorConfig);
 
@@ -398,7 +515,7 @@ public class HookDispatcherTest extends TestBase {
 
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorBeforeBody(methodId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(methodId), parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			InOrder inOrder = inOrder(constructorHookOne, constructorHookTwo, constructorHookThree);
@@ -406,8 +523,8 @@ public class HookDispatcherTest extends TestBase {
 			inOrder.verify(constructorHookTwo, times(1)).beforeConstructor(methodId, sensorTypeIdTwo, parameters, registeredSensorConfig);
 			inOrder.verify(constructorHookOne, times(1)).beforeConstructor(methodId, sensorTypeIdOne, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorAfterBody(methodId, object, parameters);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			inOrder = inOrder(constructorHookOne, constructorHookTwo, constructorHookThree);
 			inOrder.verify(constructorHookOne, times(1)).afterConstructor(coreService, methodId, sensorTypeIdOne, object, parameters, registeredSensorConfig);
@@ -458,11 +575,14 @@ public class HookDispatcherTest extends TestBase {
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 			hookDispatcher.addMapping(methodIdTwo, registeredSensorConfigTwo);
 
+			// hooks are resolved once per sensor list when the mapping is added
+			verify(methodSensor, times(2)).getHook();
+
 			// ////////////////////////////////////////////////////////
 			// METHOD DISPATCHER
 
 			// dispatch the first method - before body
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(invocHook, times(1)).beforeBody(methodId, invocSensorTypeId, object, parameters, registeredSensorConfig);
@@ -471,18 +591,16 @@ public class HookDispatcherTest extends TestBase {
 			// CONSTRUCTOR DISPATCHER
 
 			// dispatch the constructor - before constructor
-			hookDispatcher.dispatchConstructorBeforeBody(methodIdTwo, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(methodIdTwo), parameters);
 			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensorsReverse();
-			verify(methodSensor, times(1)).getHook();
 			verify(constructorHook, times(1)).beforeConstructor(methodIdTwo, methodSensorTypeId, parameters, registeredSensorConfigTwo);
 			verify((IConstructorHook) invocHook, times(1)).beforeConstructor(eq(methodIdTwo), anyLong(), eq(parameters), eq(registeredSensorConfigTwo));
 
 			// dispatch the constructor - after constructor
-			hookDispatcher.dispatchConstructorAfterBody(methodIdTwo, object, parameters);
-			verify(registeredSensorConfigTwo, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters);
+			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensors();
-			verify(methodSensor, times(2)).getHook();
 			verify(constructorHook, times(1)).afterConstructor(invocHook, methodIdTwo, methodSensorTypeId, object, parameters, registeredSensorConfigTwo);
 			verify((IConstructorHook) invocHook, times(1)).afterConstructor(eq(coreService), eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(registeredSensorConfigTwo));
 
@@ -490,14 +608,14 @@ public class HookDispatcherTest extends TestBase {
 			// ////////////////////////////////////////////////////////
 
 			// dispatch the method - first after body
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(invocHook, times(1)).firstAfterBody(methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// dispatch the method - second after body
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// END METHOD DISPATCHER
@@ -552,37 +670,37 @@ public class HookDispatcherTest extends TestBase {
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 			hookDispatcher.addMapping(constructorId, registeredConstructorSensorConfig);
 
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(methodHook, times(1)).beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorBeforeBody(constructorId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(constructorId), parameters);
 			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(exceptionHook, times(1)).beforeConstructor(constructorId, exceptionSensorTypeId, parameters, registeredConstructorSensorConfig);
 
 			// first method of exception sensor
-			hookDispatcher.dispatchConstructorAfterBody(constructorId, exceptionObject, parameters);
-			verify(registeredConstructorSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(constructorId), exceptionObject, parameters);
+			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensors();
 			verify(exceptionHook, times(1)).afterConstructor(coreService, constructorId, exceptionSensorTypeId, exceptionObject, parameters, registeredConstructorSensorConfig);
 
 			// second method of exception sensor
-			hookDispatcher.dispatchOnThrowInBody(methodId, object, parameters, exceptionObject);
+			hookDispatcher.dispatchOnThrowInBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, exceptionObject);
 			verify(exceptionHook, times(1)).dispatchOnThrowInBody(coreService, methodId, exceptionSensorTypeId, object, exceptionObject, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).firstAfterBody(methodId, sensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// third method of exception sensor
-			hookDispatcher.dispatchBeforeCatch(methodId, exceptionObject);
+			hookDispatcher.dispatchBeforeCatch(hookDispatcher.getDispatchIndex(methodId), exceptionObject);
 			verify(exceptionHook, times(1)).dispatchBeforeCatchBody(coreService, methodId, exceptionSensorTypeId, exceptionObject, registeredSensorConfig);
 
 			verifyZeroInteractions(object, coreService, returnValue);
@@ -644,7 +762,7 @@ public class HookDispatcherTest extends TestBase {
 			hookDispatcher.addMapping(methodId, registeredSensorConfig);
 			hookDispatcher.addMapping(constructorId, registeredConstructorSensorConfig);
 
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			InOrder inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
@@ -652,38 +770,38 @@ public class HookDispatcherTest extends TestBase {
 			inOrder.verify(methodHookTwo, times(1)).beforeBody(methodId, sensorTypeIdTwo, object, parameters, registeredSensorConfig);
 			inOrder.verify(methodHookOne, times(1)).beforeBody(methodId, sensorTypeIdOne, object, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchConstructorBeforeBody(constructorId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(constructorId), parameters);
 			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(exceptionHook, times(1)).beforeConstructor(constructorId, exceptionSensorTypeId, parameters, registeredConstructorSensorConfig);
 
 			// first method of exception sensor
-			hookDispatcher.dispatchConstructorAfterBody(constructorId, exceptionObject, parameters);
-			verify(registeredConstructorSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(constructorId), exceptionObject, parameters);
+			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensors();
 			verify(exceptionHook, times(1)).afterConstructor(coreService, constructorId, exceptionSensorTypeId, exceptionObject, parameters, registeredConstructorSensorConfig);
 
 			// second method of exception sensor
-			hookDispatcher.dispatchOnThrowInBody(methodId, object, parameters, exceptionObject);
+			hookDispatcher.dispatchOnThrowInBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, exceptionObject);
 			verify(exceptionHook, times(1)).dispatchOnThrowInBody(coreService, methodId, exceptionSensorTypeId, object, exceptionObject, parameters, registeredSensorConfig);
 
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 			inOrder.verify(methodHookOne, times(1)).firstAfterBody(methodId, sensorTypeIdOne, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookTwo, times(1)).firstAfterBody(methodId, sensorTypeIdTwo, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookThree, times(1)).firstAfterBody(methodId, sensorTypeIdThree, object, parameters, returnValue, false, registeredSensorConfig);
 
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 			inOrder.verify(methodHookOne, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdOne, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookTwo, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdTwo, object, parameters, returnValue, false, registeredSensorConfig);
 			inOrder.verify(methodHookThree, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdThree, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// third method of exception sensor
-			hookDispatcher.dispatchBeforeCatch(methodId, exceptionObject);
+			hookDispatcher.dispatchBeforeCatch(hookDispatcher.getDispatchIndex(methodId), exceptionObject);
 			verify(exceptionHook, times(1)).dispatchBeforeCatchBody(coreService, methodId, exceptionSensorTypeId, exceptionObject, registeredSensorConfig);
 
 			verifyZeroInteractions(object, coreService, returnValue);
@@ -754,7 +872,7 @@ public class HookDispatcherTest extends TestBase {
 			// FIRST METHOD DISPATCHER
 
 			// dispatch the first method - before body
-			hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodId), object, parameters);
 			verify(registeredSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(methodHook, times(1)).beforeBody(methodId, methodSensorTypeId, object, parameters, registeredSensorConfig);
@@ -764,13 +882,13 @@ public class HookDispatcherTest extends TestBase {
 			// SECOND METHOD DISPATCHER
 
 			// dispatch the second method - before body
-			hookDispatcher.dispatchMethodBeforeBody(methodIdTwo, object, parameters);
+			hookDispatcher.dispatchMethodBeforeBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters);
 			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensorsReverse();
 			verify(methodHook, times(1)).beforeBody(methodIdTwo, methodSensorTypeId, object, parameters, registeredSensorConfigTwo);
 			verify(invocHook, times(1)).beforeBody(eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(registeredSensorConfigTwo));
 
-			hookDispatcher.dispatchConstructorBeforeBody(constructorId, parameters);
+			hookDispatcher.dispatchConstructorBeforeBody(hookDispatcher.getDispatchIndex(constructorId), parameters);
 			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensorsReverse();
 			verify(exceptionHook, times(1)).beforeConstructor(constructorId, exceptionSensorTypeId, parameters, registeredConstructorSensorConfig);
@@ -780,46 +898,46 @@ public class HookDispatcherTest extends TestBase {
 			// ///////////// EXCEPTION SENSOR STARTS HERE
 
 			// first method of exception sensor
-			hookDispatcher.dispatchConstructorAfterBody(constructorId, exceptionObject, parameters);
-			verify(registeredConstructorSensorConfig, times(2)).isStartsInvocation();
+			hookDispatcher.dispatchConstructorAfterBody(hookDispatcher.getDispatchIndex(constructorId), exceptionObject, parameters);
+			verify(registeredConstructorSensorConfig, times(1)).isStartsInvocation();
 			verify(registeredConstructorSensorConfig, times(1)).getMethodSensors();
 			verify(exceptionHook, times(1)).afterConstructor(invocHook, constructorId, exceptionSensorTypeId, exceptionObject, parameters, registeredConstructorSensorConfig);
 			verify(invocHook, times(1)).afterConstructor(eq(coreService), eq(constructorId), anyLong(), eq(exceptionObject), eq(parameters), eq(registeredConstructorSensorConfig));
 
 			// second method of exception sensor
-			hookDispatcher.dispatchOnThrowInBody(methodId, object, parameters, exceptionObject);
+			hookDispatcher.dispatchOnThrowInBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, exceptionObject);
 			verify(exceptionHook, times(1)).dispatchOnThrowInBody(invocHook, methodId, exceptionSensorTypeId, object, exceptionObject, parameters, registeredSensorConfig);
 			// ///////////// EXCEPTION SENSOR SECOND METHOD ENDS HERE
 			// /////////////////////////////////////////////////////////
 
 			// dispatch the second method - first after body
-			hookDispatcher.dispatchFirstMethodAfterBody(methodIdTwo, object, parameters, returnValue, exception);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters, returnValue, exception);
 			verify(registeredSensorConfigTwo, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).firstAfterBody(methodIdTwo, methodSensorTypeId, object, parameters, returnValue, exception, registeredSensorConfigTwo);
 
 			// dispatch the second method - second after body
-			hookDispatcher.dispatchSecondMethodAfterBody(methodIdTwo, object, parameters, returnValue, exception);
-			verify(registeredSensorConfigTwo, times(2)).isStartsInvocation();
-			verify(registeredSensorConfigTwo, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodIdTwo), object, parameters, returnValue, exception);
+			verify(registeredSensorConfigTwo, times(1)).isStartsInvocation();
+			verify(registeredSensorConfigTwo, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(invocHook, methodIdTwo, methodSensorTypeId, object, parameters, returnValue, exception, registeredSensorConfigTwo);
 			verify(invocHook, times(1)).secondAfterBody(eq(coreService), eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(returnValue), eq(exception), eq(registeredSensorConfigTwo));
 			// END SECOND METHOD DISPATCHER
 			// ////////////////////////////////////////////////////////
 
 			// third method of exception sensor
-			hookDispatcher.dispatchBeforeCatch(methodId, exceptionObject);
+			hookDispatcher.dispatchBeforeCatch(hookDispatcher.getDispatchIndex(methodId), exceptionObject);
 			verify(exceptionHook, times(1)).dispatchBeforeCatchBody(invocHook, methodId, exceptionSensorTypeId, exceptionObject, registeredSensorConfig);
 
 			// dispatch the first method - first after body
-			hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue, false);
+			hookDispatcher.dispatchFirstMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
 			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).firstAfterBody(methodId, methodSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 			verify(invocHook, times(1)).firstAfterBody(methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
 			// dispatch the first method - second after body
-			hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue, false);
-			verify(registeredSensorConfig, times(2)).isStartsInvocation();
-			verify(registeredSensorConfig, times(2)).getMethodSensors();
+			hookDispatcher.dispatchSecondMethodAfterBody(hookDispatcher.getDispatchIndex(methodId), object, parameters, returnValue, false);
+			verify(registeredSensorConfig, times(1)).isStartsInvocation();
+			verify(registeredSensorConfig, times(1)).getMethodSensors();
 			verify(methodHook, times(1)).secondAfterBody(invocHook, methodId, methodSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 			verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, false, registeredSensorConfig);
 
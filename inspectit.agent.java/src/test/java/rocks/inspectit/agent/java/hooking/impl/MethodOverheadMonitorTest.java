@@ -0,0 +1,263 @@
+package rocks.inspectit.agent.java.hooking.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.StorageException;
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.agent.java.connection.IConnection;
+import rocks.inspectit.agent.java.connection.ServerUnavailableException;
+import rocks.inspectit.agent.java.core.IPlatformManager;
+import rocks.inspectit.agent.java.instrumentation.RetransformManager;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link MethodOverheadMonitor} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class MethodOverheadMonitorTest extends TestBase {
+
+	@InjectMocks
+	MethodOverheadMonitor monitor;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	IPlatformManager platformManager;
+
+	@Mock
+	IConfigurationStorage configurationStorage;
+
+	@Mock
+	IConnection connection;
+
+	@Mock
+	RetransformManager retransformManager;
+
+	@Mock
+	ScheduledExecutorService executorService;
+
+	/**
+	 * Test the {@link MethodOverheadMonitor#postConstruct()} method.
+	 */
+	public static class PostConstruct extends MethodOverheadMonitorTest {
+
+		@Test
+		public void successful() {
+			monitor.postConstruct();
+
+			verify(executorService).scheduleAtFixedRate(monitor, 60L, 60L, TimeUnit.SECONDS);
+			verifyNoMoreInteractions(executorService);
+		}
+	}
+
+	/**
+	 * Test the {@link MethodOverheadMonitor#run()} method.
+	 */
+	public static class Run extends MethodOverheadMonitorTest {
+
+		static final long PLATFORM_ID = 10L;
+
+		static final long METHOD_ID = 7L;
+
+		static final String CLASS_NAME = "my.Class";
+
+		RegisteredSensorConfig rsc;
+
+		@BeforeMethod
+		public void init() throws Exception {
+			rsc = new RegisteredSensorConfig();
+			rsc.setId(METHOD_ID);
+			rsc.setTargetClassFqn(CLASS_NAME);
+			when(connection.isConnected()).thenReturn(true);
+			when(platformManager.getPlatformId()).thenReturn(PLATFORM_ID);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void report() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0d);
+			monitor.addSample(rsc, 10L, 100L);
+			monitor.addSample(rsc, 20L, 300L);
+
+			monitor.run();
+
+			ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+			verify(connection).methodOverheadReported(eq(PLATFORM_ID), captor.capture());
+			Collection<MethodOverheadData> report = captor.getValue();
+			assertThat(report, hasSize(1));
+			MethodOverheadData data = report.iterator().next();
+			assertThat(data.getMethodId(), is(METHOD_ID));
+			assertThat(data.getSampleCount(), is(2L));
+			assertThat(data.getOverheadNanos(), is(30L));
+			assertThat(data.getDurationNanos(), is(400L));
+			assertThat(data.isDeinstrumented(), is(false));
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+		}
+
+		@Test
+		public void nothingNewToReport() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0d);
+			monitor.addSample(rsc, 10L, 100L);
+			monitor.run();
+
+			monitor.run();
+
+			verify(connection).methodOverheadReported(anyLong(), anyCollectionOf(MethodOverheadData.class));
+		}
+
+		@Test
+		public void noSamples() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(1d);
+
+			monitor.run();
+
+			verifyZeroInteractions(connection, retransformManager);
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void deinstrument() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0.5d);
+			addSamples(rsc, 100, 10L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(true));
+			ArgumentCaptor<Collection> classesCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(retransformManager).retransformClasses(classesCaptor.capture());
+			assertThat((Collection<String>) classesCaptor.getValue(), contains(CLASS_NAME));
+			ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+			verify(connection).methodOverheadReported(eq(PLATFORM_ID), captor.capture());
+			assertThat(((List<MethodOverheadData>) captor.getValue()).get(0).isDeinstrumented(), is(true));
+		}
+
+		@Test
+		public void deinstrumentOnlyOnce() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0.5d);
+			addSamples(rsc, 100, 10L, 10L);
+			monitor.run();
+
+			addSamples(rsc, 100, 10L, 10L);
+			monitor.run();
+
+			verify(retransformManager).retransformClasses(anyCollectionOf(String.class));
+			verifyNoMoreInteractions(retransformManager);
+		}
+
+		@Test
+		public void budgetNotDefined() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0d);
+			addSamples(rsc, 100, 10L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+		}
+
+		@Test
+		public void budgetNotAvailable() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenThrow(new StorageException("test"));
+			addSamples(rsc, 100, 10L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+			verify(connection).methodOverheadReported(anyLong(), anyCollectionOf(MethodOverheadData.class));
+		}
+
+		@Test
+		public void withinBudget() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0.5d);
+			addSamples(rsc, 100, 1L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+		}
+
+		@Test
+		public void notEnoughSamples() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0.5d);
+			addSamples(rsc, 99, 10L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+		}
+
+		@Test
+		public void invocationStartNotDeinstrumented() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0.5d);
+			rsc.setStartsInvocation(true);
+			addSamples(rsc, 100, 10L, 10L);
+
+			monitor.run();
+
+			assertThat(monitor.isDeinstrumented(METHOD_ID), is(false));
+			verifyZeroInteractions(retransformManager);
+		}
+
+		@Test
+		public void notConnected() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0d);
+			when(connection.isConnected()).thenReturn(false);
+			monitor.addSample(rsc, 10L, 100L);
+
+			monitor.run();
+
+			verify(connection).isConnected();
+			verifyNoMoreInteractions(connection);
+		}
+
+		@Test
+		public void serverUnavailable() throws Exception {
+			when(configurationStorage.getMethodOverheadBudget()).thenReturn(0d);
+			doThrow(new ServerUnavailableException()).when(connection).methodOverheadReported(anyLong(), anyCollectionOf(MethodOverheadData.class));
+			monitor.addSample(rsc, 10L, 100L);
+
+			monitor.run();
+
+			verify(connection).methodOverheadReported(anyLong(), anyCollectionOf(MethodOverheadData.class));
+		}
+
+		private void addSamples(RegisteredSensorConfig rsc, int count, long overhead, long duration) {
+			for (int i = 0; i < count; i++) {
+				monitor.addSample(rsc, overhead, duration);
+			}
+		}
+	}
+}
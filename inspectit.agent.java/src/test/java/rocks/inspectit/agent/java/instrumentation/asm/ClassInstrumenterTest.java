@@ -76,6 +76,28 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		}
 	};
 
+	protected static final Answer<MethodVisitor> METHOD_INSTRUMENTER_DATA_ACCESS_ANSWER = new Answer<MethodVisitor>() {
+
+		@Override
+		public MethodVisitor answer(InvocationOnMock invocation) throws Throwable {
+			Object[] arguments = invocation.getArguments();
+			SensorInstrumentationPoint sip = (SensorInstrumentationPoint) arguments[0];
+			return getMethodInstrumenter((MethodVisitor) arguments[1], (Integer) arguments[2], (String) arguments[3], (String) arguments[4], sip.getId(), (Boolean) arguments[5],
+					sip.isParametersAccess(), sip.isTargetAccess(), sip.isReturnValueAccess());
+		}
+	};
+
+	protected static final Answer<MethodVisitor> CONSTRUCTOR_INSTRUMENTER_DATA_ACCESS_ANSWER = new Answer<MethodVisitor>() {
+
+		@Override
+		public MethodVisitor answer(InvocationOnMock invocation) throws Throwable {
+			Object[] arguments = invocation.getArguments();
+			SensorInstrumentationPoint sip = (SensorInstrumentationPoint) arguments[0];
+			return getConstructorInstrumenter((MethodVisitor) arguments[1], (Integer) arguments[2], (String) arguments[3], (String) arguments[4], sip.getId(), (Boolean) arguments[5],
+					sip.isParametersAccess(), sip.isTargetAccess());
+		}
+	};
+
 	public static IHookDispatcher dispatcher;
 
 	public static IAgent a;
@@ -568,6 +590,90 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 			verifyNoMoreInteractions(hookDispatcher);
 		}
 
+		@Test
+		public void mixedTwoParametersNoDataAccess() throws Exception {
+			String methodName = "returnBooleanParameter";
+			Object[] parameters = { "int", "boolean" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName, int.class, boolean.class);
+			doAnswer(METHOD_INSTRUMENTER_DATA_ACCESS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			Object result = this.callMethod(testClass, methodName, parameters);
+
+			assertThat(result, is((Object) Boolean.FALSE));
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, null, null);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, null, null, null, false);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, null, null, null, false);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
+		@Test
+		public void mixedTwoParametersOnlyReturnValueAccess() throws Exception {
+			String methodName = "returnBooleanParameter";
+			Object[] parameters = { "int", "boolean" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			when(sip.isReturnValueAccess()).thenReturn(true);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName, int.class, boolean.class);
+			doAnswer(METHOD_INSTRUMENTER_DATA_ACCESS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			this.callMethod(testClass, methodName, parameters);
+
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, null, null);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, null, null, Boolean.FALSE, false);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, null, null, Boolean.FALSE, false);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
+		@Test
+		public void mixedTwoParametersOnlyParametersAccess() throws Exception {
+			String methodName = "returnBooleanParameter";
+			Object[] parameters = { "int", "boolean" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			when(sip.isParametersAccess()).thenReturn(true);
+			prepareConfigurationMockMethod(config, InstrumentationTestClass.class, methodName, int.class, boolean.class);
+			doAnswer(METHOD_INSTRUMENTER_DATA_ACCESS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			// now call this method
+			Object testClass = this.createInstance(TEST_CLASS_FQN, b);
+			this.callMethod(testClass, methodName, parameters);
+
+			verify(hookDispatcher).dispatchMethodBeforeBody(methodId, null, parameters);
+			verify(hookDispatcher).dispatchFirstMethodAfterBody(methodId, null, parameters, null, false);
+			verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, null, parameters, null, false);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
 		@Test
 		public void intArrayNullParameter() throws Exception {
 			String methodName = "intArrayNullParameter";
@@ -780,6 +886,31 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 			verifyNoMoreInteractions(hookDispatcher);
 		}
 
+		@Test
+		public void constructorStringOneParameterNoDataAccess() throws Exception {
+			Object[] parameters = { "java.lang.String" };
+			long methodId = 9L;
+
+			when(sip.getId()).thenReturn(methodId);
+			prepareConfigurationMockConstructor(config, InstrumentationTestClass.class, false, String.class);
+			doAnswer(CONSTRUCTOR_INSTRUMENTER_DATA_ACCESS_ANSWER).when(instrumenterFactory).getMethodVisitor(eq(sip), Matchers.<MethodVisitor> any(), anyInt(), anyString(), anyString(), anyBoolean());
+			when(config.getAllInstrumentationPoints()).thenReturn(Collections.<IMethodInstrumentationPoint> singleton(sip));
+
+			ClassReader cr = new ClassReader(TEST_CLASS_FQN);
+			prepareWriter(cr, null, false, config);
+			cr.accept(classInstrumenter, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+			assertThat(classInstrumenter.isByteCodeAdded(), is(true));
+			byte b[] = classWriter.toByteArray();
+
+			Class<?> clazz = createClass(TEST_CLASS_FQN, b);
+			Constructor<?> constructor = clazz.getConstructor(new Class[] { String.class });
+			constructor.newInstance(parameters);
+
+			verify(hookDispatcher).dispatchConstructorBeforeBody(methodId, null);
+			verify(hookDispatcher).dispatchConstructorAfterBody(methodId, null, null);
+			verifyNoMoreInteractions(hookDispatcher);
+		}
+
 		@Test
 		public void nestedConstructorBooleanOneParameter() throws Exception {
 			Object[] parameters = { Boolean.TRUE };
@@ -1173,6 +1304,16 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		};
 	}
 
+	protected static MethodInstrumenter getMethodInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor, boolean parametersAccess,
+			boolean targetAccess, boolean returnValueAccess) {
+		return new MethodInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, parametersAccess, targetAccess, returnValueAccess) {
+			@Override
+			protected void loadHookDispatcher() {
+				mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(ClassInstrumenterTest.class), "dispatcher", Type.getDescriptor(IHookDispatcher.class));
+			}
+		};
+	}
+
 	protected static ConstructorInstrumenter getConstructorInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor) {
 		return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor) {
 			@Override
@@ -1182,4 +1323,14 @@ public class ClassInstrumenterTest extends AbstractInstrumentationTest {
 		};
 	}
 
+	protected static ConstructorInstrumenter getConstructorInstrumenter(MethodVisitor superMethodVisitor, int access, String name, String desc, long id, boolean enhancedExceptionSensor,
+			boolean parametersAccess, boolean targetAccess) {
+		return new ConstructorInstrumenter(superMethodVisitor, access, name, desc, id, enhancedExceptionSensor, parametersAccess, targetAccess) {
+			@Override
+			protected void loadHookDispatcher() {
+				mv.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(ClassInstrumenterTest.class), "dispatcher", Type.getDescriptor(IHookDispatcher.class));
+			}
+		};
+	}
+
 }
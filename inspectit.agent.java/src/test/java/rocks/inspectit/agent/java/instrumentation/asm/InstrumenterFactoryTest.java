@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
 import rocks.inspectit.agent.java.instrumentation.InstrumenterFactory;
 import rocks.inspectit.shared.all.instrumentation.config.IMethodInstrumentationPoint;
 import rocks.inspectit.shared.all.instrumentation.config.impl.SensorInstrumentationPoint;
@@ -29,6 +30,9 @@ public class InstrumenterFactoryTest extends TestBase {
 	@InjectMocks
 	InstrumenterFactory factory;
 
+	@Mock
+	IHookDispatcherMapper hookDispatcherMapper;
+
 	@Mock
 	SensorInstrumentationPoint sensorInstrumentationPoint;
 
@@ -48,12 +52,13 @@ public class InstrumenterFactoryTest extends TestBase {
 			boolean enhancedExceptionSensor = false;
 			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
 			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(hookDispatcherMapper.getDispatchIndex(id)).thenReturn(3);
 
 			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, enhancedExceptionSensor);
 
 			assertThat(methodVisitor, is(instanceOf(MethodInstrumenter.class)));
 			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) methodVisitor;
-			assertThat(methodInstrumenter.getMethodId(), is(id));
+			assertThat(methodInstrumenter.getMethodId(), is(3L));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
 		}
 
@@ -65,12 +70,13 @@ public class InstrumenterFactoryTest extends TestBase {
 			boolean enhancedExceptionSensor = true;
 			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
 			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(hookDispatcherMapper.getDispatchIndex(id)).thenReturn(3);
 
 			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, enhancedExceptionSensor);
 
 			assertThat(methodVisitor, is(instanceOf(MethodInstrumenter.class)));
 			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) methodVisitor;
-			assertThat(methodInstrumenter.getMethodId(), is(id));
+			assertThat(methodInstrumenter.getMethodId(), is(3L));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
 		}
 
@@ -82,12 +88,13 @@ public class InstrumenterFactoryTest extends TestBase {
 			boolean enhancedExceptionSensor = false;
 			when(sensorInstrumentationPoint.isConstructor()).thenReturn(true);
 			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(hookDispatcherMapper.getDispatchIndex(id)).thenReturn(3);
 
 			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, enhancedExceptionSensor);
 
 			assertThat(methodVisitor, is(instanceOf(ConstructorInstrumenter.class)));
 			ConstructorInstrumenter methodInstrumenter = (ConstructorInstrumenter) methodVisitor;
-			assertThat(methodInstrumenter.getMethodId(), is(id));
+			assertThat(methodInstrumenter.getMethodId(), is(3L));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
 		}
 
@@ -99,15 +106,54 @@ public class InstrumenterFactoryTest extends TestBase {
 			boolean enhancedExceptionSensor = true;
 			when(sensorInstrumentationPoint.isConstructor()).thenReturn(true);
 			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(hookDispatcherMapper.getDispatchIndex(id)).thenReturn(3);
 
 			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, enhancedExceptionSensor);
 
 			assertThat(methodVisitor, is(instanceOf(ConstructorInstrumenter.class)));
 			ConstructorInstrumenter methodInstrumenter = (ConstructorInstrumenter) methodVisitor;
-			assertThat(methodInstrumenter.getMethodId(), is(id));
+			assertThat(methodInstrumenter.getMethodId(), is(3L));
 			assertThat(methodInstrumenter.isEnhancedExceptionSensor(), is(enhancedExceptionSensor));
 		}
 
+		@Test
+		public void methodDataAccess() {
+			long id = 7L;
+			String name = "method";
+			String desc = "()V";
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(false);
+			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(sensorInstrumentationPoint.isParametersAccess()).thenReturn(true);
+			when(sensorInstrumentationPoint.isTargetAccess()).thenReturn(false);
+			when(sensorInstrumentationPoint.isReturnValueAccess()).thenReturn(true);
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, false);
+
+			assertThat(methodVisitor, is(instanceOf(MethodInstrumenter.class)));
+			MethodInstrumenter methodInstrumenter = (MethodInstrumenter) methodVisitor;
+			assertThat(methodInstrumenter.isParametersAccess(), is(true));
+			assertThat(methodInstrumenter.isTargetAccess(), is(false));
+			assertThat(methodInstrumenter.isReturnValueAccess(), is(true));
+		}
+
+		@Test
+		public void constructorDataAccess() {
+			long id = 7L;
+			String name = "method";
+			String desc = "()V";
+			when(sensorInstrumentationPoint.isConstructor()).thenReturn(true);
+			when(sensorInstrumentationPoint.getId()).thenReturn(id);
+			when(sensorInstrumentationPoint.isParametersAccess()).thenReturn(false);
+			when(sensorInstrumentationPoint.isTargetAccess()).thenReturn(true);
+
+			MethodVisitor methodVisitor = factory.getMethodVisitor(sensorInstrumentationPoint, superMethodVisitor, 0, name, desc, false);
+
+			assertThat(methodVisitor, is(instanceOf(ConstructorInstrumenter.class)));
+			ConstructorInstrumenter constructorInstrumenter = (ConstructorInstrumenter) methodVisitor;
+			assertThat(constructorInstrumenter.isParametersAccess(), is(false));
+			assertThat(constructorInstrumenter.isTargetAccess(), is(true));
+		}
+
 		@Test
 		public void specialMethod() {
 			long id = 7L;
@@ -3,6 +3,8 @@ package rocks.inspectit.agent.java.sensor.exception;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -15,8 +17,10 @@ import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -239,6 +243,67 @@ public class ExceptionSensorHookTest extends AbstractLogSupport {
 		verifyNoMoreInteractions(platformManager);
 	}
 
+	@Test
+	public void stackTraceSentOnce() throws Exception {
+		long constructorId = 5L;
+		long sensorTypeId = 3L;
+		long platformId = 1L;
+
+		Object[] parameters = new Object[0];
+		MyTestException[] exceptionObjects = new MyTestException[2];
+		for (int i = 0; i < exceptionObjects.length; i++) {
+			exceptionObjects[i] = new MyTestException("message");
+		}
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(registeredSensorConfig.getTargetClassFqn()).thenReturn(MyTestException.class.getName());
+
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[0], parameters, registeredSensorConfig);
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[1], parameters, registeredSensorConfig);
+
+		ArgumentCaptor<ExceptionSensorData> captor = ArgumentCaptor.forClass(ExceptionSensorData.class);
+		verify(coreService, times(2)).addDefaultData(captor.capture());
+		ExceptionSensorData first = captor.getAllValues().get(0);
+		ExceptionSensorData second = captor.getAllValues().get(1);
+		assertThat(first.getStackTraceFingerprint(), is(not(0L)));
+		assertThat(first.getStackTrace(), is(not(nullValue())));
+		assertThat(second.getStackTraceFingerprint(), is(first.getStackTraceFingerprint()));
+		assertThat(second.getStackTrace(), is(nullValue()));
+
+		// after re-connection sent again
+		exceptionHook.connectionReestablished();
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[1], parameters, registeredSensorConfig);
+
+		verify(coreService, times(3)).addDefaultData(captor.capture());
+		assertThat(captor.getValue().getStackTrace(), is(not(nullValue())));
+	}
+
+	@Test
+	public void rateLimited() throws Exception {
+		long constructorId = 5L;
+		long sensorTypeId = 3L;
+		long platformId = 1L;
+
+		parameter.put(StackTraceDeduplicator.MAX_OCCURRENCES_PER_SECOND, "1");
+		exceptionHook = new ExceptionSensorHook(platformManager, parameter);
+		Object[] parameters = new Object[0];
+		Object object = mock(Object.class);
+		MyTestException[] exceptionObjects = new MyTestException[2];
+		for (int i = 0; i < exceptionObjects.length; i++) {
+			exceptionObjects[i] = new MyTestException("message");
+		}
+		when(platformManager.getPlatformId()).thenReturn(platformId);
+		when(registeredSensorConfig.getTargetClassFqn()).thenReturn(MyTestException.class.getName());
+
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[0], parameters, registeredSensorConfig);
+		exceptionHook.afterConstructor(coreService, constructorId, sensorTypeId, exceptionObjects[1], parameters, registeredSensorConfig);
+		// suppressed exception is not followed
+		exceptionHook.dispatchOnThrowInBody(coreService, constructorId, sensorTypeId, object, exceptionObjects[1], parameters, registeredSensorConfig);
+
+		verify(coreService, times(1)).addDefaultData(Mockito.<ExceptionSensorData> any());
+		verify(platformManager, times(1)).getPlatformId();
+		verifyNoMoreInteractions(platformManager, coreService);
+	}
+
 	private static class ExceptionSensorDataVerifier extends ArgumentMatcher<ExceptionSensorData> {
 		private final ExceptionSensorData exceptionSensorData;
 
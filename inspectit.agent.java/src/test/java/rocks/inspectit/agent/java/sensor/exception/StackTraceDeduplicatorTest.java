@@ -0,0 +1,191 @@
+package rocks.inspectit.agent.java.sensor.exception;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link StackTraceDeduplicator} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class StackTraceDeduplicatorTest extends TestBase {
+
+	StackTraceDeduplicator deduplicator;
+
+	@BeforeMethod
+	public void init() {
+		Map<String, Object> parameters = Collections.<String, Object> singletonMap(StackTraceDeduplicator.MAX_OCCURRENCES_PER_SECOND, "2");
+		deduplicator = new StackTraceDeduplicator(parameters);
+	}
+
+	/**
+	 * Creates the exception in the same line, so that the stack traces are equal.
+	 */
+	static Exception[] createExceptions(int count) {
+		Exception[] exceptions = new Exception[count];
+		for (int i = 0; i < count; i++) {
+			exceptions[i] = new IllegalStateException("message " + i);
+		}
+		return exceptions;
+	}
+
+	/**
+	 * Tests the {@link StackTraceDeduplicator#fingerprint(Throwable)} method.
+	 */
+	public static class Fingerprint extends StackTraceDeduplicatorTest {
+
+		@Test
+		public void sameStackTraceDifferentMessage() {
+			Exception[] exceptions = createExceptions(2);
+
+			long first = deduplicator.fingerprint(exceptions[0]);
+			long second = deduplicator.fingerprint(exceptions[1]);
+
+			assertThat(first, is(second));
+			assertThat(first, is(not(StackTraceDeduplicator.NO_FINGERPRINT)));
+		}
+
+		@Test
+		public void differentStackTrace() {
+			Exception first = new IllegalStateException();
+			Exception second = new IllegalStateException();
+
+			assertThat(deduplicator.fingerprint(first), is(not(deduplicator.fingerprint(second))));
+		}
+
+		@Test
+		public void differentType() {
+			Exception[] exceptions = createExceptions(1);
+			Exception other = new IllegalArgumentException();
+			other.setStackTrace(exceptions[0].getStackTrace());
+
+			assertThat(deduplicator.fingerprint(exceptions[0]), is(not(deduplicator.fingerprint(other))));
+		}
+
+		@Test
+		public void differentCause() {
+			Exception[] exceptions = createExceptions(2);
+			exceptions[1].initCause(new RuntimeException());
+
+			assertThat(deduplicator.fingerprint(exceptions[0]), is(not(deduplicator.fingerprint(exceptions[1]))));
+		}
+
+		@Test
+		public void limitReached() {
+			for (int i = 0; i < StackTraceDeduplicator.MAX_FINGERPRINTS; i++) {
+				Exception exception = new IllegalStateException();
+				exception.setStackTrace(new StackTraceElement[] { new StackTraceElement("Class", "method", "Class.java", i) });
+				deduplicator.fingerprint(exception);
+			}
+			Exception exception = new IllegalStateException();
+
+			long fingerprint = deduplicator.fingerprint(exception);
+
+			assertThat(fingerprint, is(StackTraceDeduplicator.NO_FINGERPRINT));
+		}
+	}
+
+	/**
+	 * Tests the {@link StackTraceDeduplicator#recordOccurrence(long, long)} method.
+	 */
+	public static class RecordOccurrence extends StackTraceDeduplicatorTest {
+
+		@Test
+		public void rateLimit() {
+			long fingerprint = deduplicator.fingerprint(new IllegalStateException());
+
+			assertThat(deduplicator.recordOccurrence(fingerprint, 1000L), is(0));
+			assertThat(deduplicator.recordOccurrence(fingerprint, 1001L), is(0));
+			assertThat(deduplicator.recordOccurrence(fingerprint, 1002L), is(-1));
+			assertThat(deduplicator.recordOccurrence(fingerprint, 1003L), is(-1));
+			// next window reports suppressed
+			assertThat(deduplicator.recordOccurrence(fingerprint, 2000L), is(2));
+			assertThat(deduplicator.recordOccurrence(fingerprint, 2001L), is(0));
+		}
+
+		@Test
+		public void noLimit() {
+			deduplicator = new StackTraceDeduplicator(Collections.<String, Object> emptyMap());
+			long fingerprint = deduplicator.fingerprint(new IllegalStateException());
+
+			for (int i = 0; i < 1000; i++) {
+				assertThat(deduplicator.recordOccurrence(fingerprint, 1000L), is(0));
+			}
+		}
+
+		@Test
+		public void notFingerprinted() {
+			for (int i = 0; i < 10; i++) {
+				assertThat(deduplicator.recordOccurrence(StackTraceDeduplicator.NO_FINGERPRINT, 1000L), is(0));
+			}
+		}
+	}
+
+	/**
+	 * Tests the {@link StackTraceDeduplicator#markForSending(long, long)} method.
+	 */
+	public static class MarkForSending extends StackTraceDeduplicatorTest {
+
+		@Test
+		public void onlyOnce() {
+			long fingerprint = deduplicator.fingerprint(new IllegalStateException());
+
+			assertThat(deduplicator.markForSending(fingerprint, 1000L), is(true));
+			assertThat(deduplicator.markForSending(fingerprint, 1001L), is(false));
+		}
+
+		@Test
+		public void afterResendInterval() {
+			long fingerprint = deduplicator.fingerprint(new IllegalStateException());
+
+			assertThat(deduplicator.markForSending(fingerprint, 1000L), is(true));
+			assertThat(deduplicator.markForSending(fingerprint, 1000L + StackTraceDeduplicator.RESEND_INTERVAL_MILLIS), is(true));
+		}
+
+		@Test
+		public void afterReconnect() {
+			long fingerprint = deduplicator.fingerprint(new IllegalStateException());
+			assertThat(deduplicator.markForSending(fingerprint, 1000L), is(true));
+
+			deduplicator.connectionReestablished();
+
+			assertThat(deduplicator.markForSending(fingerprint, 1001L), is(true));
+			assertThat(deduplicator.markForSending(fingerprint, 1002L), is(false));
+		}
+	}
+
+	/**
+	 * Tests the {@link StackTraceDeduplicator#renderStackTrace(Throwable)} method.
+	 */
+	public static class RenderStackTrace extends StackTraceDeduplicatorTest {
+
+		@Test
+		public void framesAndCause() {
+			Exception exception = new IllegalStateException("message");
+			exception.setStackTrace(new StackTraceElement[] { new StackTraceElement("a.Class", "method", "Class.java", 10), new StackTraceElement("a.Main", "main", "Main.java", 5) });
+			Exception cause = new IllegalArgumentException("cause message");
+			cause.setStackTrace(new StackTraceElement[] { new StackTraceElement("b.Other", "call", "Other.java", 20), new StackTraceElement("a.Main", "main", "Main.java", 5) });
+			exception.initCause(cause);
+			String lineSeparator = System.getProperty("line.separator");
+
+			String stackTrace = StackTraceDeduplicator.renderStackTrace(exception);
+
+			assertThat(stackTrace, startsWith(lineSeparator + "\tat a.Class.method(Class.java:10)"));
+			assertThat(stackTrace, containsString("Caused by: " + IllegalArgumentException.class.getName() + lineSeparator + "\tat b.Other.call(Other.java:20)" + lineSeparator + "\t... 1 more"));
+			assertThat(stackTrace, not(containsString("message")));
+		}
+	}
+}
@@ -18,7 +18,12 @@ import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
 import javax.management.MBeanServer;
@@ -61,6 +66,8 @@ import rocks.inspectit.shared.all.testbase.TestBase;
 @SuppressWarnings({ "unchecked", "PMD", "all" })
 public class JmxSensorTest extends TestBase {
 
+	static final String TEST_ATTRIBUTE_NAME = "TestAttributename";
+
 	@InjectMocks
 	JmxSensor jmxSensor;
 
@@ -294,14 +301,14 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(value);
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, value))));
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			jmxSensor.update(coreService);
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verify(mBeanServer).addNotificationListener(Matchers.<ObjectName> any(), Matchers.<NotificationListener> any(), Matchers.<NotificationFilter> any(), eq(null));
 			verifyNoMoreInteractions(mBeanServer);
 
@@ -343,7 +350,7 @@ public class JmxSensorTest extends TestBase {
 			when(platformManager.getPlatformId()).thenReturn(platformIdent);
 			when(connection.isConnected()).thenReturn(true);
 			when(connection.analyzeJmxAttributes(eq(platformIdent), Matchers.<Collection<JmxAttributeDescriptor>> any())).thenReturn(Collections.<JmxAttributeDescriptor> emptyList());
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(value);
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, value))));
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			jmxSensor.update(coreService);
@@ -387,7 +394,7 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenThrow(Exception.class);
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList());
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			// update twice
@@ -397,7 +404,7 @@ public class JmxSensorTest extends TestBase {
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verify(mBeanServer).addNotificationListener(Matchers.<ObjectName> any(), Matchers.<NotificationListener> any(), Matchers.<NotificationFilter> any(), eq(null));
 			verifyNoMoreInteractions(mBeanServer);
 		}
@@ -434,14 +441,14 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(null);
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, null))));
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			jmxSensor.update(coreService);
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verify(mBeanServer).addNotificationListener(Matchers.<ObjectName> any(), Matchers.<NotificationListener> any(), Matchers.<NotificationFilter> any(), eq(null));
 			verifyNoMoreInteractions(mBeanServer);
 
@@ -486,14 +493,14 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(new int[] { 1, 2, 3 });
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, new int[] { 1, 2, 3 }))));
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			jmxSensor.update(coreService);
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verify(mBeanServer).addNotificationListener(Matchers.<ObjectName> any(), Matchers.<NotificationListener> any(), Matchers.<NotificationFilter> any(), eq(null));
 			verifyNoMoreInteractions(mBeanServer);
 
@@ -538,14 +545,14 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(new String[] { "1", "2", "3" });
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, new String[] { "1", "2", "3" }))));
 			jmxSensor.mbeanServerAdded(mBeanServer);
 
 			jmxSensor.update(coreService);
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verify(mBeanServer).addNotificationListener(Matchers.<ObjectName> any(), Matchers.<NotificationListener> any(), Matchers.<NotificationFilter> any(), eq(null));
 			verifyNoMoreInteractions(mBeanServer);
 
@@ -557,6 +564,139 @@ public class JmxSensorTest extends TestBase {
 			assertThat(valueCaptor.getValue().getJmxSensorDefinitionDataIdentId(), is(equalTo(definitionDataIdentId)));
 			assertThat(valueCaptor.getValue().getValue(), is("[1, 2, 3]"));
 		}
+
+		@Test
+		public void collectDataMBeanException() throws Exception {
+			ObjectName objectName = prepareCollection(Collections.<String, Object> emptyMap());
+			when(mBeanServer.getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME })).thenThrow(new InstanceNotFoundException());
+
+			// update twice
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer).getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME });
+			verifyZeroInteractions(coreService);
+		}
+
+		@Test
+		public void unchangedValueCollectionIntervalIncreased() throws Exception {
+			ObjectName objectName = prepareCollection(Collections.<String, Object> emptyMap());
+			when(mBeanServer.getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "value"))));
+
+			// update three times, second cycle must be skipped
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(2)).getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME });
+			verify(coreService, times(1)).addDefaultData(Matchers.<JmxSensorValueData> any());
+		}
+
+		@Test
+		public void onlyChangedValuesSent() throws Exception {
+			Map<String, Object> parameters = new HashMap<String, Object>();
+			parameters.put("maxCollectInterval", Long.valueOf(0L));
+			ObjectName objectName = prepareCollection(parameters);
+			when(mBeanServer.getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "1"))),
+					new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "1"))), new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "2"))));
+
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(3)).getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME });
+			ArgumentCaptor<JmxSensorValueData> valueCaptor = ArgumentCaptor.forClass(JmxSensorValueData.class);
+			verify(coreService, times(2)).addDefaultData(valueCaptor.capture());
+			assertThat(valueCaptor.getAllValues().get(0).getValue(), is("1"));
+			assertThat(valueCaptor.getAllValues().get(1).getValue(), is("2"));
+		}
+
+		@Test
+		public void unchangedValueHeartbeat() throws Exception {
+			Map<String, Object> parameters = new HashMap<String, Object>();
+			parameters.put("maxCollectInterval", Long.valueOf(0L));
+			parameters.put("heartbeatInterval", Long.valueOf(0L));
+			ObjectName objectName = prepareCollection(parameters);
+			when(mBeanServer.getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "value"))));
+
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(2)).getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME });
+			verify(coreService, times(2)).addDefaultData(Matchers.<JmxSensorValueData> any());
+		}
+
+		@Test
+		public void allValuesSent() throws Exception {
+			Map<String, Object> parameters = new HashMap<String, Object>();
+			parameters.put("onlyChangedValues", Boolean.FALSE);
+			ObjectName objectName = prepareCollection(parameters);
+			when(mBeanServer.getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(TEST_ATTRIBUTE_NAME, "value"))));
+
+			jmxSensor.update(coreService);
+			jmxSensor.lastDataCollectionTimestamp = 0;
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(2)).getAttributes(objectName, new String[] { TEST_ATTRIBUTE_NAME });
+			verify(coreService, times(2)).addDefaultData(Matchers.<JmxSensorValueData> any());
+		}
+
+		@Test
+		public void attributesOfOneBeanReadTogether() throws Exception {
+			String secondAttributeName = "SecondAttributename";
+			MBeanAttributeInfo first = new MBeanAttributeInfo(TEST_ATTRIBUTE_NAME, "test-type", "test-description", true, false, false);
+			MBeanAttributeInfo second = new MBeanAttributeInfo(secondAttributeName, "test-type", "test-description", true, false, false);
+			ObjectName objectName = prepareCollection(Collections.<String, Object> emptyMap(), first, second);
+			AttributeList attributeList = new AttributeList();
+			attributeList.add(new Attribute(TEST_ATTRIBUTE_NAME, "1"));
+			attributeList.add(new Attribute(secondAttributeName, "2"));
+			when(mBeanServer.getAttributes(Matchers.eq(objectName), Matchers.<String[]> any())).thenReturn(attributeList);
+
+			jmxSensor.update(coreService);
+
+			verify(mBeanServer, times(1)).getAttributes(Matchers.eq(objectName), Matchers.<String[]> any());
+			verify(coreService, times(2)).addDefaultData(Matchers.<JmxSensorValueData> any());
+		}
+
+		/**
+		 * Initializes the sensor with the given parameters and registers one MBean having the given
+		 * attributes (or the default test attribute if none is given).
+		 */
+		private ObjectName prepareCollection(Map<String, Object> parameters, MBeanAttributeInfo... attributeInfos) throws Exception {
+			long platformIdent = 11L;
+			ObjectName objectName = new ObjectName("Testdomain:Test=TestObjectName,name=test");
+			if (attributeInfos.length == 0) {
+				attributeInfos = new MBeanAttributeInfo[] { new MBeanAttributeInfo(TEST_ATTRIBUTE_NAME, "test-type", "test-description", true, false, false) };
+			}
+
+			when(sensorTypeConfig.getParameters()).thenReturn(parameters);
+			jmxSensor.init(sensorTypeConfig);
+			when(sensorTypeConfig.getId()).thenReturn(13L);
+			when(mBeanServer.queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null))).thenReturn(Collections.singleton(objectName));
+			when(mBeanServer.getMBeanInfo(Matchers.<ObjectName> any())).thenReturn(mBeanInfo);
+			when(mBeanInfo.getAttributes()).thenReturn(attributeInfos);
+			when(platformManager.getPlatformId()).thenReturn(platformIdent);
+			when(connection.isConnected()).thenReturn(true);
+			when(connection.analyzeJmxAttributes(eq(platformIdent), Matchers.<Collection<JmxAttributeDescriptor>> any())).thenAnswer(new Answer<Collection<JmxAttributeDescriptor>>() {
+				@Override
+				public Collection<JmxAttributeDescriptor> answer(InvocationOnMock invocation) throws Throwable {
+					Collection<JmxAttributeDescriptor> descriptors = (Collection<JmxAttributeDescriptor>) invocation.getArguments()[1];
+					long id = 17L;
+					for (JmxAttributeDescriptor d : descriptors) {
+						d.setId(id++);
+					}
+					return descriptors;
+				}
+			});
+			jmxSensor.mbeanServerAdded(mBeanServer);
+			return objectName;
+		}
 	}
 
 	public static class HandleNotification extends JmxSensorTest {
@@ -604,7 +744,7 @@ public class JmxSensorTest extends TestBase {
 					return descriptors;
 				}
 			});
-			when(mBeanServer.getAttribute(objectName, testAttributeName)).thenReturn(value);
+			when(mBeanServer.getAttributes(objectName, new String[] { testAttributeName })).thenReturn(new AttributeList(Collections.singletonList(new Attribute(testAttributeName, value))));
 			MBeanServerNotification notification = new MBeanServerNotification(MBeanServerNotification.REGISTRATION_NOTIFICATION, this, 1, objectName);
 
 			notificationListener.getValue().handleNotification(notification, null);
@@ -622,7 +762,7 @@ public class JmxSensorTest extends TestBase {
 
 			verify(mBeanServer).queryNames(Matchers.<ObjectName> any(), (QueryExp) eq(null));
 			verify(mBeanServer).getMBeanInfo(objectName);
-			verify(mBeanServer).getAttribute(objectName, testAttributeName);
+			verify(mBeanServer).getAttributes(objectName, new String[] { testAttributeName });
 			verifyNoMoreInteractions(mBeanServer);
 
 			ArgumentCaptor<JmxSensorValueData> valueCaptor = ArgumentCaptor.forClass(JmxSensorValueData.class);
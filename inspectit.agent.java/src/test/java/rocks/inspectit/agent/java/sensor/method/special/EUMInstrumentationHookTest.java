@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 
@@ -20,6 +21,7 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -28,6 +30,8 @@ import org.slf4j.Logger;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.common.io.CharStreams;
+
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.config.StorageException;
 import rocks.inspectit.agent.java.config.impl.SpecialSensorConfig;
@@ -142,7 +146,9 @@ public class EUMInstrumentationHookTest extends TestBase {
 			boolean intercepted = null != hook.beforeBody(METHOD_ID, dummyServlet, new Object[] { dummyRequest, dummyResponse }, ssc);
 
 			assertThat(intercepted, equalTo(true));
-			verify(this.dataHandler).insertBeacon(FAKE_BEACON);
+			ArgumentCaptor<Reader> readerCaptor = ArgumentCaptor.forClass(Reader.class);
+			verify(this.dataHandler).insertBeacon(readerCaptor.capture());
+			assertThat(CharStreams.toString(readerCaptor.getValue()), equalTo(FAKE_BEACON));
 		}
 
 		@Test
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.shared.all.kryonet.CompressionStatistics;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
 /**
@@ -29,6 +30,7 @@ public class AgentStatisticsLoggerTest extends TestBase {
 	@BeforeMethod
 	public void initLogger() {
 		when(log.isWarnEnabled()).thenReturn(true);
+		when(log.isInfoEnabled()).thenReturn(true);
 	}
 
 	public static class DataDropped extends AgentStatisticsLoggerTest {
@@ -119,4 +121,47 @@ public class AgentStatisticsLoggerTest extends TestBase {
 			verifyNoMoreInteractions(log);
 		}
 	}
+
+	public static class DataSent extends AgentStatisticsLoggerTest {
+
+		@Mock
+		CompressionStatistics compressionStatistics;
+
+		@Test
+		public void onFirst() {
+			when(compressionStatistics.getCompressedFrames()).thenReturn(1L);
+
+			statsLogger.dataSent(compressionStatistics);
+
+			verify(log, times(1)).info(anyString());
+		}
+
+		@Test
+		public void noCompressedFrames() {
+			when(compressionStatistics.getCompressedFrames()).thenReturn(0L);
+
+			statsLogger.dataSent(compressionStatistics);
+
+			verify(log, times(0)).info(anyString());
+		}
+
+		@Test
+		public void onFirstAndEveryTenThousand() {
+			when(compressionStatistics.getCompressedFrames()).thenReturn(1L, 2L, 10000L, 10001L);
+
+			statsLogger.dataSent(compressionStatistics);
+			statsLogger.dataSent(compressionStatistics);
+			statsLogger.dataSent(compressionStatistics);
+			statsLogger.dataSent(compressionStatistics);
+
+			verify(log, times(2)).info(anyString());
+		}
+
+		@Test
+		public void noStatistics() {
+			statsLogger.dataSent(null);
+
+			verifyNoMoreInteractions(log);
+		}
+	}
 }
@@ -0,0 +1,261 @@
+package rocks.inspectit.server.serializer;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.util.KryoNetNetwork;
+
+/**
+ * Compares the (de-)serialization of typical agent data with the pooled serializers against the
+ * creation of a new serializer per call. Besides the invocation sequences with different amount of
+ * children, standalone timer and SQL data are measured, as these are the bulk of the data sent by
+ * the agents. The pooled benchmarks report the serializers created and discarded by the pool as
+ * auxiliary counters, so that an undersized pool is visible in the results.
+ *
+ * @author agent
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Thread)
+public class SerializationPerfTest {
+
+	/**
+	 * Data to (de-)serialize, either standalone timer or SQL data or an invocation sequence with
+	 * the given number of children.
+	 */
+	@Param({ "TIMER", "SQL", "INVOCATION_10", "INVOCATION_100", "INVOCATION_1000" })
+	private String data;
+
+	/**
+	 * Schema manager shared by all serializers.
+	 */
+	private ClassSchemaManager schemaManager;
+
+	/**
+	 * Provider creating new serializers.
+	 */
+	private SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * Pool under test.
+	 */
+	private SerializationManagerPool serializationManagerPool;
+
+	/**
+	 * Object to serialize.
+	 */
+	private Object object;
+
+	/**
+	 * Output to serialize to.
+	 */
+	private Output output;
+
+	/**
+	 * Set up, prepare serializers and data.
+	 */
+	@Setup(Level.Trial)
+	public void init() throws Exception {
+		schemaManager = new ClassSchemaManager();
+		schemaManager.setLog(LoggerFactory.getLogger(ClassSchemaManager.class));
+		schemaManager.setSchemaListFile(new ClassPathResource(ClassSchemaManager.SCHEMA_DIR + "/" + ClassSchemaManager.SCHEMA_LIST_FILE, schemaManager.getClass().getClassLoader()));
+		schemaManager.loadSchemasFromLocations();
+
+		serializationManagerProvider = new SerializationManagerProvider() {
+			@Override
+			public SerializationManager createSerializer() {
+				SerializationManager serializationManager = new SerializationManager();
+				serializationManager.setSchemaManager(schemaManager);
+				serializationManager.setKryoNetNetwork(new KryoNetNetwork());
+				serializationManager.initKryo();
+				return serializationManager;
+			}
+		};
+		serializationManagerPool = new SerializationManagerPool(serializationManagerProvider);
+
+		object = getDataInstance(data);
+		output = new Output(4096, -1);
+	}
+
+	@Benchmark
+	public Object roundTripPooled(PoolCounters counters) throws Exception {
+		long created = serializationManagerPool.getCreatedCount();
+		long discarded = serializationManagerPool.getDiscardedCount();
+		output.clear();
+		serializationManagerPool.serialize(object, output);
+		Object result = serializationManagerPool.deserialize(new Input(output.getBuffer(), 0, output.position()));
+		counters.record(serializationManagerPool, created, discarded);
+		return result;
+	}
+
+	@Benchmark
+	public Object roundTripNewSerializer() throws Exception {
+		output.clear();
+		SerializationManager serializationManager = serializationManagerProvider.createSerializer();
+		serializationManager.serialize(object, output);
+		return serializationManager.deserialize(new Input(output.getBuffer(), 0, output.position()));
+	}
+
+	@Benchmark
+	public Object copyPooled(PoolCounters counters) {
+		long created = serializationManagerPool.getCreatedCount();
+		long discarded = serializationManagerPool.getDiscardedCount();
+		Object result = serializationManagerPool.copy(object);
+		counters.record(serializationManagerPool, created, discarded);
+		return result;
+	}
+
+	@Benchmark
+	public Object copyNewSerializer() {
+		return serializationManagerProvider.createSerializer().copy(object);
+	}
+
+	/**
+	 * Creates the data to (de-)serialize.
+	 *
+	 * @param type
+	 *            Type of the data, see {@link #data}.
+	 * @return Data instance.
+	 */
+	private Object getDataInstance(String type) {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		if ("TIMER".equals(type)) {
+			return getTimerDataInstance(timestamp, 1L);
+		} else if ("SQL".equals(type)) {
+			return getSqlStatementDataInstance(timestamp, 1L);
+		} else if (type.startsWith("INVOCATION_")) {
+			return getInvocationSequenceDataInstance(Integer.parseInt(type.substring("INVOCATION_".length())));
+		}
+		throw new IllegalArgumentException("Unknown data type " + type + ".");
+	}
+
+	/**
+	 * Creates timer data as measured for one method call.
+	 *
+	 * @param timestamp
+	 *            Timestamp.
+	 * @param methodIdent
+	 *            Method ident.
+	 * @return {@link TimerData}
+	 */
+	private TimerData getTimerDataInstance(Timestamp timestamp, long methodIdent) {
+		TimerData timerData = new TimerData(timestamp, 1L, 1L, methodIdent);
+		timerData.setDuration(10d);
+		timerData.setCpuDuration(5d);
+		timerData.calculateMin(10d);
+		timerData.calculateMax(10d);
+		timerData.setCount(1L);
+		return timerData;
+	}
+
+	/**
+	 * Creates SQL data as measured for one statement execution.
+	 *
+	 * @param timestamp
+	 *            Timestamp.
+	 * @param methodIdent
+	 *            Method ident.
+	 * @return {@link SqlStatementData}
+	 */
+	private SqlStatementData getSqlStatementDataInstance(Timestamp timestamp, long methodIdent) {
+		SqlStatementData sqlData = new SqlStatementData(timestamp, 1L, 1L, methodIdent, "SELECT * FROM table WHERE id = ?");
+		sqlData.setDuration(10d);
+		sqlData.setCount(1L);
+		return sqlData;
+	}
+
+	/**
+	 * Creates invocation with given amount of children, where each child holds either timer or SQL
+	 * data.
+	 *
+	 * @param childCount
+	 *            Amount of children.
+	 * @return {@link InvocationSequenceData}
+	 */
+	private InvocationSequenceData getInvocationSequenceDataInstance(int childCount) {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		InvocationSequenceData invocationSequenceData = new InvocationSequenceData(timestamp, 1L, 1L, 1L);
+		invocationSequenceData.setDuration(1000d);
+		invocationSequenceData.setChildCount(childCount);
+
+		List<InvocationSequenceData> nested = new ArrayList<>(childCount);
+		for (int i = 0; i < childCount; i++) {
+			InvocationSequenceData child = new InvocationSequenceData(timestamp, 1L, 1L, i);
+			child.setParentSequence(invocationSequenceData);
+			child.setDuration(10d);
+			if ((i % 2) == 0) {
+				child.setTimerData(getTimerDataInstance(timestamp, i));
+			} else {
+				child.setSqlStatementData(getSqlStatementDataInstance(timestamp, i));
+			}
+			nested.add(child);
+		}
+		invocationSequenceData.setNestedSequences(nested);
+		return invocationSequenceData;
+	}
+
+	/**
+	 * Auxiliary counters exposing the pool metrics in the benchmark results.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PoolCounters {
+
+		/**
+		 * Serializers created by the pool because none was idle.
+		 */
+		public long poolCreated;
+
+		/**
+		 * Serializers discarded by the pool because it was full on return.
+		 */
+		public long poolDiscarded;
+
+		/**
+		 * Records the pool activity of one operation.
+		 *
+		 * @param pool
+		 *            Pool used by the operation.
+		 * @param created
+		 *            Created count of the pool before the operation.
+		 * @param discarded
+		 *            Discarded count of the pool before the operation.
+		 */
+		void record(SerializationManagerPool pool, long created, long discarded) {
+			poolCreated += pool.getCreatedCount() - created;
+			poolDiscarded += pool.getDiscardedCount() - discarded;
+		}
+	}
+}
@@ -45,6 +45,16 @@ public interface IBuffer<E> {
 	 */
 	void indexNext() throws InterruptedException;
 
+	/**
+	 * Moves the parts of the next indexed {@link IBufferElement} that is old enough to the
+	 * off-heap tier. If the off-heap tier is not active or there is no element to process the
+	 * calling thread waits.
+	 *
+	 * @throws InterruptedException
+	 *             {@link InterruptedException}
+	 */
+	void offloadNext() throws InterruptedException;
+
 	/**
 	 * Empties buffer.
 	 */
@@ -107,4 +117,14 @@ public interface IBuffer<E> {
 	 * @return Returns the newest element in the buffer.
 	 */
 	E getNewestElement();
+
+	/**
+	 * Returns the lowest ID of the elements put to the buffer, but not indexed yet. Elements are
+	 * put to the buffer out of the ID order, thus the indexing tree holds all elements with lower
+	 * ID that were put to the buffer.
+	 *
+	 * @return Returns the lowest ID of the not indexed elements or {@link Long#MAX_VALUE} if all
+	 *         elements are indexed.
+	 */
+	long getLowestNotIndexedId();
 }
@@ -19,6 +19,14 @@ public interface IBufferElement<E> {
 	 */
 	E getObject();
 
+	/**
+	 * Replaces the object hold by the buffer element. The size of the element is not updated.
+	 *
+	 * @param object
+	 *            Object to hold.
+	 */
+	void setObject(E object);
+
 	/**
 	 * Returns the size of buffer element.
 	 *
@@ -116,6 +124,11 @@ public interface IBufferElement<E> {
 		 */
 		INDEXED,
 
+		/**
+		 * Element is indexed and parts of it are moved to the off-heap tier.
+		 */
+		OFFLOADED,
+
 		/**
 		 * Element is evicted.
 		 */
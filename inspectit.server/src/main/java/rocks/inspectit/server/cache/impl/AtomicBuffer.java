@@ -1,6 +1,9 @@
 package rocks.inspectit.server.cache.impl;
 
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -24,6 +27,7 @@ import rocks.inspectit.server.cache.IBufferElement.BufferElementState;
 import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.cmr.property.spring.PropertyUpdate;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 
@@ -40,6 +44,11 @@ import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 @Component
 public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 
+	/**
+	 * Time in milliseconds the offloading thread waits when there is nothing to offload.
+	 */
+	private static final long OFFLOAD_WAIT_TIME = 1000;
+
 	/** The logger of this class. */
 	@Log
 	Logger log;
@@ -62,6 +71,18 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 	@Autowired
 	IBufferTreeComponent<E> indexingTree;
 
+	/**
+	 * Off-heap tier for the invocation sequences.
+	 */
+	@Autowired
+	OffHeapBufferTier offHeapBufferTier;
+
+	/**
+	 * Overflow tier for the evicted elements.
+	 */
+	@Autowired
+	BufferOverflowStore bufferOverflowStore;
+
 	/**
 	 * Atomic reference to the first object.
 	 */
@@ -149,6 +170,22 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 	 */
 	private AtomicReference<IBufferElement<E>> lastIndexed;
 
+	/**
+	 * Atomic reference to the object that was checked for offloading last.
+	 */
+	private AtomicReference<IBufferElement<E>> lastOffloaded;
+
+	/**
+	 * Number of elements that where moved to the off-heap tier.
+	 */
+	private AtomicLong elementsOffloaded = new AtomicLong();
+
+	/**
+	 * Lock that assures that eviction and offloading do not process the same element at the same
+	 * time.
+	 */
+	private ReentrantLock offloadLock = new ReentrantLock();
+
 	/**
 	 * Size of the indexing tree.
 	 */
@@ -317,17 +354,49 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 				long evictionFragmentMaxSize = (long) (this.getMaxSize() * bufferProperties.getEvictionFragmentSizePercentage());
 				long fragmentSize = 0;
 				int elementsInFragment = 0;
+				List<DefaultData> evictedObjects = null;
+				if (bufferOverflowStore.isActive()) {
+					evictedObjects = new ArrayList<>();
+				}
+				List<InvocationSequenceData> offloadedInvocations = new ArrayList<>();
 
 				// iterate until size of the eviction fragment is reached
-				while (fragmentSize < evictionFragmentMaxSize) {
-					fragmentSize += newLastElement.getBufferElementSize();
-					newLastElement.setBufferElementState(BufferElementState.EVICTED);
-					elementsInFragment++;
-					newLastElement = newLastElement.getNextElement();
-
-					// break if we reach the end of queue
-					if (emptyBufferElement.equals(newLastElement)) {
-						break;
+				// only the states are changed under the lock, an evicted element is never offloaded,
+				// thus the off-heap parts are restored and removed after the lock is released
+				offloadLock.lock();
+				try {
+					while (fragmentSize < evictionFragmentMaxSize) {
+						fragmentSize += newLastElement.getBufferElementSize();
+						if (BufferElementState.OFFLOADED == newLastElement.getBufferElementState()) {
+							offloadedInvocations.add((InvocationSequenceData) newLastElement.getObject());
+						}
+						if (null != evictedObjects) {
+							evictedObjects.add(newLastElement.getObject());
+						}
+						newLastElement.setBufferElementState(BufferElementState.EVICTED);
+						elementsInFragment++;
+						newLastElement = newLastElement.getNextElement();
+
+						// break if we reach the end of queue
+						if (emptyBufferElement.equals(newLastElement)) {
+							break;
+						}
+					}
+				} finally {
+					offloadLock.unlock();
+				}
+
+				if (!offloadedInvocations.isEmpty()) {
+					if (null != evictedObjects) {
+						for (ListIterator<DefaultData> iterator = evictedObjects.listIterator(); iterator.hasNext();) {
+							DefaultData evicted = iterator.next();
+							if (evicted instanceof InvocationSequenceData) {
+								iterator.set(offHeapBufferTier.restore((InvocationSequenceData) evicted));
+							}
+						}
+					}
+					for (InvocationSequenceData invocation : offloadedInvocations) {
+						offHeapBufferTier.remove(invocation);
 					}
 				}
 
@@ -340,6 +409,11 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 					// add evicted elements to the total count
 					elementsEvicted.addAndGet(elementsInFragment);
 
+					// persist the evicted elements if overflow tier is active
+					if (null != evictedObjects) {
+						bufferOverflowStore.write(evictedObjects);
+					}
+
 					// if the last is now pointing to the empty buffer element, it means that we
 					// have
 					// evicted all elements, so first should also point to empty buffer element
@@ -380,6 +454,110 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		indexProcessor.process();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only the indexed {@link InvocationSequenceData} elements older than the
+	 * {@link BufferProperties#getOffHeapAge()} are offloaded. The freed heap size is subtracted
+	 * from the current buffer size.
+	 * <p>
+	 * This method is designed for single thread access.
+	 */
+	@Override
+	public void offloadNext() throws InterruptedException {
+		if (!bufferProperties.isOffHeapActive()) {
+			Thread.sleep(OFFLOAD_WAIT_TIME);
+			return;
+		}
+
+		boolean processed = false;
+		clearReadLock.lock();
+		try {
+			IBufferElement<E> lastOffloadedElement = lastOffloaded.get();
+			IBufferElement<E> elementToProcess;
+			// start from the oldest element if nothing was processed or last processed is gone
+			if ((emptyBufferElement == lastOffloadedElement) || lastOffloadedElement.isEvicted()) { // NOPMD
+				elementToProcess = last.get();
+			} else {
+				elementToProcess = lastOffloadedElement.getNextElement();
+			}
+
+			if ((null != elementToProcess) && (emptyBufferElement != elementToProcess) && elementToProcess.isIndexed() && isOldEnoughForOffloading(elementToProcess)) { // NOPMD
+				if (BufferElementState.INDEXED == elementToProcess.getBufferElementState()) {
+					offload(elementToProcess);
+				}
+				lastOffloaded.set(elementToProcess);
+				processed = true;
+			}
+		} finally {
+			clearReadLock.unlock();
+		}
+
+		if (!processed) {
+			Thread.sleep(OFFLOAD_WAIT_TIME);
+		}
+	}
+
+	/**
+	 * Checks if the element is old enough to be offloaded.
+	 *
+	 * @param element
+	 *            Element to check.
+	 * @return True if the element time stamp is older than the off-heap age.
+	 */
+	private boolean isOldEnoughForOffloading(IBufferElement<E> element) {
+		E object = element.getObject();
+		return (null != object.getTimeStamp()) && (object.getTimeStamp().getTime() < (System.currentTimeMillis() - bufferProperties.getOffHeapAge()));
+	}
+
+	/**
+	 * Moves the element object parts to the off-heap tier if possible and updates the element and
+	 * buffer size. The parts are serialized without holding the {@link #offloadLock}, thus the
+	 * element can be evicted in between. In that case the parts are removed from the off-heap tier
+	 * again and the element stays untouched.
+	 * <p>
+	 * The invocation itself is never changed, as it can still be referenced outside of the buffer,
+	 * for example by the processors or by a running query. Instead, the element and the indexing
+	 * tree get a copy of the invocation without the children, so that the invocation with its
+	 * children can be garbage collected once nobody else references it.
+	 *
+	 * @param element
+	 *            Element to offload.
+	 */
+	@SuppressWarnings("unchecked")
+	private void offload(IBufferElement<E> element) {
+		E object = element.getObject();
+		if (!(object instanceof InvocationSequenceData)) {
+			return;
+		}
+
+		InvocationSequenceData invocation = (InvocationSequenceData) object;
+		if (!offHeapBufferTier.offload(invocation)) {
+			return;
+		}
+
+		offloadLock.lock();
+		try {
+			if (BufferElementState.INDEXED != element.getBufferElementState()) {
+				offHeapBufferTier.remove(invocation);
+				return;
+			}
+
+			E offloaded = (E) invocation.getClonedInvocationSequence();
+			element.setObject(offloaded);
+			// replaces the weakly referenced invocation in the tree as the copy has the same id
+			indexingTree.put(offloaded);
+			long oldSize = element.getBufferElementSize();
+			element.calculateAndSetBufferElementSize(objectSizes);
+			element.setBufferElementState(BufferElementState.OFFLOADED);
+			long freedSize = oldSize - element.getBufferElementSize();
+			currentSize.addAndGet(-freedSize);
+			elementsOffloaded.incrementAndGet();
+		} finally {
+			offloadLock.unlock();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -502,12 +680,16 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 			last.set(emptyBufferElement);
 			lastAnalyzed.set(emptyBufferElement);
 			lastIndexed.set(emptyBufferElement);
+			lastOffloaded.set(emptyBufferElement);
 			setCurrentSize(0);
 			elementsAdded.set(0);
 			elementsAnalyzed.set(0);
 			elementsIndexed.set(0);
 			elementsEvicted.set(0);
+			elementsOffloaded.set(0);
 			indexingTree.clearAll();
+			offHeapBufferTier.clearAll();
+			bufferOverflowStore.clearAll();
 			indexingTreeSize.set(0);
 			dataAddedInBytes.set(0);
 			dataRemovedInBytes.set(0);
@@ -518,6 +700,34 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Walks the elements not indexed yet, thus the cost depends on the indexing backlog only.
+	 */
+	@Override
+	public long getLowestNotIndexedId() {
+		clearReadLock.lock();
+		try {
+			IBufferElement<E> lastIndexedElement = lastIndexed.get();
+			IBufferElement<E> element;
+			if (emptyBufferElement == lastIndexedElement) { // NOPMD
+				element = last.get();
+			} else {
+				element = lastIndexedElement.getNextElement();
+			}
+
+			long lowestId = Long.MAX_VALUE;
+			while ((null != element) && (emptyBufferElement != element)) { // NOPMD
+				lowestId = Math.min(lowestId, element.getObject().getId());
+				element = element.getNextElement();
+			}
+			return lowestId;
+		} finally {
+			clearReadLock.unlock();
+		}
+	}
+
 	/**
 	 * Returns the number of inserted elements since the buffer has been created.
 	 *
@@ -554,6 +764,15 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		return elementsAnalyzed.get();
 	}
 
+	/**
+	 * Returns the number of elements moved to the off-heap tier since the buffer has been created.
+	 *
+	 * @return Number of offloaded elements.
+	 */
+	public long getOffloadedElements() {
+		return elementsOffloaded.get();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -593,6 +812,7 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		this.last = new AtomicReference<IBufferElement<E>>(emptyBufferElement);
 		this.lastAnalyzed = new AtomicReference<IBufferElement<E>>(emptyBufferElement);
 		this.lastIndexed = new AtomicReference<IBufferElement<E>>(emptyBufferElement);
+		this.lastOffloaded = new AtomicReference<IBufferElement<E>>(emptyBufferElement);
 		this.indexingTreeCleaningExecutorService = Executors.newFixedThreadPool(bufferProperties.getIndexingTreeCleaningThreads());
 		this.flagsSetOnBytes = bufferProperties.getFlagsSetOnBytes(this.maxSize.get());
 
@@ -665,6 +885,9 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 
 		msg.append("\n-Elements evicted: ");
 		msg.append(NumberFormat.getInstance().format(elementsEvicted.get()));
+
+		msg.append("\n-Elements offloaded: ");
+		msg.append(NumberFormat.getInstance().format(elementsOffloaded.get()));
 		msg.append('\n');
 		return msg.toString();
 	}
@@ -696,6 +919,10 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 			return null;
 		}
 
+		@Override
+		public void setObject(E object) {
+		}
+
 		@Override
 		public long getBufferElementSize() {
 			return 0;
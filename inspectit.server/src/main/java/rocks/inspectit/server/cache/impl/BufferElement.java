@@ -53,6 +53,14 @@ public class BufferElement<E extends DefaultData> implements IBufferElement<E> {
 		return object;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setObject(E object) {
+		this.object = object;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,48 @@
+package rocks.inspectit.server.cache.impl;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.server.cache.IBuffer;
+
+/**
+ * Thread that invokes the {@link IBuffer#offloadNext()} method constantly.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class BufferOffloader extends BufferWorker {
+
+	/**
+	 * Default constructor. Just calls super class constructor.
+	 *
+	 * @param buffer
+	 *            Buffer to work on.
+	 */
+	@Autowired
+	public BufferOffloader(IBuffer<?> buffer) {
+		super(buffer, "buffer-offloading-thread");
+		setPriority(MIN_PRIORITY);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void work() throws InterruptedException {
+		getBuffer().offloadNext();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@PostConstruct
+	public synchronized void start() {
+		super.start();
+	}
+
+}
@@ -0,0 +1,1100 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.server.util.CacheIdGenerator;
+import rocks.inspectit.server.util.Converter;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Persistent overflow tier of the buffer. The fragments evicted from the buffer are appended to
+ * rolling memory-mapped segment files, so that the data is not lost after eviction. Every segment
+ * keeps a small index (time and ID range, platform idents and data types) that is used to read only
+ * the segments that can contain the data a query is asking for. Inside of a segment the records are
+ * grouped in blocks with their own time and ID range, so that only the matching blocks of a segment
+ * are de-serialized.
+ * <p>
+ * Each segment file is a sequence of records: length of the serialized element as integer followed
+ * by the serialized element. The index of a segment is written to a separate file when the segment
+ * is full. Indexes of segments without a valid index file are rebuilt on start. The IDs of the
+ * elements loaded from the segments are never given again by the {@link CacheIdGenerator}.
+ * <p>
+ * Writing is done asynchronously by a single thread so that the eviction is not slowed down. If
+ * the writer can not keep up, fragments are dropped. The oldest segments are deleted when the disk
+ * quota is exceeded or when they are older than the retention time.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class BufferOverflowStore {
+
+	/**
+	 * Folder in the default storage folder where segments are saved.
+	 */
+	static final String OVERFLOW_FOLDER = "bufferOverflow";
+
+	/**
+	 * Extension of the segment files.
+	 */
+	static final String SEGMENT_EXTENSION = ".seg";
+
+	/**
+	 * Extension of the segment index files.
+	 */
+	static final String INDEX_EXTENSION = ".idx";
+
+	/**
+	 * Max amount of fragments waiting to be written.
+	 */
+	private static final int MAX_PENDING_FRAGMENTS = 4;
+
+	/**
+	 * Size of the record header (length of the record).
+	 */
+	private static final int RECORD_HEADER_SIZE = 4;
+
+	/**
+	 * Initial size of the output used for serialization.
+	 */
+	private static final int INITIAL_OUTPUT_SIZE = 8192;
+
+	/**
+	 * Default size of the record blocks in bytes.
+	 */
+	private static final int INDEX_BLOCK_SIZE = 64 * 1024;
+
+	/**
+	 * Version of the index file format.
+	 */
+	private static final int INDEX_VERSION = 2;
+
+	/** The logger of this class. */
+	@Log
+	Logger log;
+
+	/**
+	 * Buffer properties.
+	 */
+	@Autowired
+	BufferProperties bufferProperties;
+
+	/**
+	 * Serializers to use.
+	 */
+	@Autowired
+	SerializationManagerPool serializationManagerPool;
+
+	/**
+	 * ID generator of the buffer elements.
+	 */
+	@Autowired
+	CacheIdGenerator cacheIdGenerator;
+
+	/**
+	 * Default storage folder.
+	 */
+	@Value("${storage.storageDefaultFolder}")
+	String storageDefaultFolder;
+
+	/**
+	 * Size of the record blocks in bytes. A new block is started when the current one reaches the
+	 * size.
+	 */
+	int indexBlockSize = INDEX_BLOCK_SIZE;
+
+	/**
+	 * Directory holding the segments.
+	 */
+	private Path directory;
+
+	/**
+	 * All segments, the oldest first.
+	 */
+	private final List<OverflowSegment> segments = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Segment currently written to. Only accessed by the writing thread.
+	 */
+	private OverflowSegment activeSegment;
+
+	/**
+	 * Id of the next segment to create.
+	 */
+	private long nextSegmentId;
+
+	/**
+	 * Executor for writing.
+	 */
+	private ThreadPoolExecutor writeExecutor;
+
+	/**
+	 * Lock held while writing to or clearing the segments.
+	 */
+	private final Object writeLock = new Object();
+
+	/**
+	 * Incremented on every clear, fragments scheduled before the clear are not written.
+	 */
+	private volatile long generation;
+
+	/**
+	 * Amount of elements written.
+	 */
+	private final AtomicLong writtenElements = new AtomicLong();
+
+	/**
+	 * Amount of fragments dropped because the writer was busy.
+	 */
+	private final AtomicLong droppedFragments = new AtomicLong();
+
+	/**
+	 * Amount of executed queries that read at least one segment.
+	 */
+	private final AtomicLong queryCount = new AtomicLong();
+
+	/**
+	 * Total duration of the queries in nanoseconds.
+	 */
+	private final AtomicLong queryDuration = new AtomicLong();
+
+	/**
+	 * Max duration of one query in nanoseconds.
+	 */
+	private final AtomicLong maxQueryDuration = new AtomicLong();
+
+	/**
+	 * Returns if the overflow tier is active.
+	 *
+	 * @return Returns if the overflow tier is active.
+	 */
+	public boolean isActive() {
+		return bufferProperties.isOverflowActive();
+	}
+
+	/**
+	 * Schedules the writing of the evicted fragment. If the writer is busy the fragment is dropped.
+	 *
+	 * @param fragment
+	 *            Evicted elements.
+	 */
+	public void write(final List<? extends DefaultData> fragment) {
+		if (CollectionUtils.isEmpty(fragment)) {
+			return;
+		}
+
+		final long fragmentGeneration = generation;
+		writeExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				synchronized (writeLock) {
+					// fragment evicted before the buffer was cleared
+					if (fragmentGeneration == generation) {
+						writeFragment(fragment);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the fragment to the segments. Only executed by the writing thread.
+	 *
+	 * @param fragment
+	 *            Evicted elements.
+	 */
+	void writeFragment(List<? extends DefaultData> fragment) {
+		synchronized (writeLock) {
+			Output output = new Output(INITIAL_OUTPUT_SIZE, -1);
+			for (DefaultData data : fragment) {
+				output.clear();
+				try {
+					serializationManagerPool.serialize(data, output);
+				} catch (SerializationException e) {
+					log.warn("Evicted element can not be serialized to the buffer overflow segment.", e);
+					continue;
+				}
+
+				int length = output.position();
+				OverflowSegment segment = getSegmentForWrite(length + RECORD_HEADER_SIZE);
+				if (null == segment) {
+					continue;
+				}
+				segment.append(output.getBuffer(), length, data);
+				writtenElements.incrementAndGet();
+			}
+
+			enforceLimits();
+		}
+	}
+
+	/**
+	 * Deletes all segments. The fragments scheduled for writing before are dropped. Must be called
+	 * when the buffer is cleared, so that the cleared data is not returned by the queries anymore.
+	 */
+	public void clearAll() {
+		synchronized (writeLock) {
+			generation++;
+			sealActiveSegment();
+			for (OverflowSegment segment : segments) {
+				deleteSegment(segment);
+			}
+		}
+	}
+
+	/**
+	 * Returns all elements from the segments complying with the query. Only the queries having the
+	 * from date set are executed against the segments. Only the blocks of records which time and ID
+	 * range match the query are mapped and de-serialized.
+	 *
+	 * @param <E>
+	 *            Type of elements.
+	 * @param query
+	 *            Query.
+	 * @return Complying elements, or empty list if no segment can contain the data.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends DefaultData> List<E> query(IIndexQuery query) {
+		if (segments.isEmpty() || (null == query.getFromDate()) || !isActive()) {
+			return Collections.emptyList();
+		}
+
+		long start = System.nanoTime();
+		List<E> result = new ArrayList<>();
+		boolean anyRead = false;
+		for (OverflowSegment segment : segments) {
+			if (!segment.matches(query)) {
+				continue;
+			}
+
+			int committedLimit = segment.committed;
+			List<IndexBlock> matchingBlocks = new ArrayList<>();
+			for (IndexBlock block : segment.blocks) {
+				// block started after the committed records were read
+				if (block.start >= committedLimit) {
+					break;
+				}
+				if (block.matches(query)) {
+					matchingBlocks.add(block);
+				}
+			}
+			if (matchingBlocks.isEmpty()) {
+				continue;
+			}
+
+			// only the range between the first and the last matching block is mapped
+			int readStart = matchingBlocks.get(0).start;
+			int readEnd = Math.min(matchingBlocks.get(matchingBlocks.size() - 1).end, committedLimit);
+			ByteBuffer buffer;
+			try {
+				buffer = segment.getReadBuffer(readStart, readEnd);
+			} catch (IOException e) {
+				log.warn("Buffer overflow segment " + segment.file + " can not be read.", e);
+				continue;
+			}
+			anyRead = true;
+
+			for (IndexBlock block : matchingBlocks) {
+				buffer.limit(Math.min(block.end, readEnd) - readStart);
+				buffer.position(block.start - readStart);
+				while (buffer.remaining() > RECORD_HEADER_SIZE) {
+					int length = buffer.getInt();
+					if ((length <= 0) || (length > buffer.remaining())) {
+						break;
+					}
+					byte[] bytes = new byte[length];
+					buffer.get(bytes);
+					try {
+						DefaultData data = (DefaultData) serializationManagerPool.deserialize(new Input(bytes));
+						if (data.isQueryComplied(query)) {
+							result.add((E) data);
+						}
+					} catch (SerializationException e) {
+						log.warn("Element from the buffer overflow segment " + segment.file + " can not be de-serialized.", e);
+					}
+				}
+			}
+		}
+
+		if (anyRead) {
+			long duration = System.nanoTime() - start;
+			queryCount.incrementAndGet();
+			queryDuration.addAndGet(duration);
+			while (true) {
+				long max = maxQueryDuration.get();
+				if ((duration <= max) || maxQueryDuration.compareAndSet(max, duration)) {
+					break;
+				}
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Buffer overflow query duration: " + Converter.nanoToMilliseconds(duration) + " ms, " + result.size() + " elements found.");
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the segment the record of the given length can be written to. Creates a new segment
+	 * if needed.
+	 *
+	 * @param recordLength
+	 *            Record length in bytes.
+	 * @return Segment or <code>null</code> if record can not be written.
+	 */
+	private OverflowSegment getSegmentForWrite(int recordLength) {
+		if ((null != activeSegment) && (activeSegment.remaining() >= recordLength)) {
+			return activeSegment;
+		}
+
+		int segmentSize = (int) bufferProperties.getOverflowSegmentSize();
+		if (recordLength > segmentSize) {
+			if (log.isDebugEnabled()) {
+				log.debug("Evicted element of size " + recordLength + " bytes is bigger than the buffer overflow segment and will not be written.");
+			}
+			return null;
+		}
+
+		sealActiveSegment();
+
+		Path file = directory.resolve(getSegmentFileName(nextSegmentId++));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer writeBuffer = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+			activeSegment = new OverflowSegment(file, segmentSize, writeBuffer, indexBlockSize);
+			segments.add(activeSegment);
+			return activeSegment;
+		} catch (IOException e) {
+			log.error("Buffer overflow segment " + file + " can not be created.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Seals the active segment and writes its index.
+	 */
+	private void sealActiveSegment() {
+		if (null != activeSegment) {
+			activeSegment.seal();
+			try {
+				activeSegment.writeIndex();
+			} catch (IOException e) {
+				log.warn("Index of the buffer overflow segment " + activeSegment.file + " can not be written.", e);
+			}
+			activeSegment = null;
+		}
+	}
+
+	/**
+	 * Deletes the oldest segments when the disk quota is exceeded and the segments that are older
+	 * than the retention time. The active segment is never deleted.
+	 */
+	private void enforceLimits() {
+		long retentionLimit = System.currentTimeMillis() - bufferProperties.getOverflowRetention();
+		for (OverflowSegment segment : segments) {
+			if (segment == activeSegment) {
+				break;
+			}
+			if ((getDiskSize() > bufferProperties.getOverflowMaxDiskSpace()) || (segment.range.maxTime < retentionLimit)) {
+				deleteSegment(segment);
+			} else {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Deletes the segment and its index.
+	 *
+	 * @param segment
+	 *            Segment to delete.
+	 */
+	private void deleteSegment(OverflowSegment segment) {
+		segments.remove(segment);
+		try {
+			Files.deleteIfExists(segment.file);
+			Files.deleteIfExists(getIndexFile(segment.file));
+		} catch (IOException e) {
+			log.warn("Buffer overflow segment " + segment.file + " can not be deleted.", e);
+		}
+	}
+
+	/**
+	 * Loads the segments existing in the overflow directory. The IDs of the loaded elements are
+	 * skipped by the {@link CacheIdGenerator}, so that the new elements never get the same ID.
+	 *
+	 * @throws IOException
+	 *             If directory can not be read.
+	 */
+	private void loadSegments() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + SEGMENT_EXTENSION)) {
+			for (Path file : directoryStream) {
+				files.add(file);
+			}
+		}
+		Collections.sort(files);
+
+		long maxId = 0;
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			long id;
+			try {
+				id = Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length()));
+			} catch (NumberFormatException e) {
+				// not a segment created by this store
+				log.warn("File " + file + " in the buffer overflow folder is not a valid segment and will be ignored.");
+				continue;
+			}
+			nextSegmentId = Math.max(nextSegmentId, id + 1);
+
+			OverflowSegment segment = loadSegment(file);
+			if (null != segment) {
+				segments.add(segment);
+				maxId = Math.max(maxId, segment.range.maxId);
+			}
+		}
+
+		if (maxId > 0) {
+			cacheIdGenerator.skipIdsUpTo(maxId);
+		}
+	}
+
+	/**
+	 * Loads the segment, reading its index or rebuilding it if the index file is missing or not
+	 * valid.
+	 *
+	 * @param file
+	 *            Segment file.
+	 * @return Loaded segment or <code>null</code> if the segment can not be read and was deleted.
+	 * @throws IOException
+	 *             If size of the file can not be read.
+	 */
+	private OverflowSegment loadSegment(Path file) throws IOException {
+		int capacity = (int) Files.size(file);
+		if (Files.exists(getIndexFile(file))) {
+			OverflowSegment segment = new OverflowSegment(file, capacity, null, indexBlockSize);
+			try {
+				segment.readIndex();
+				return segment;
+			} catch (IOException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("Index of the buffer overflow segment " + file + " can not be read and will be rebuilt.", e);
+				}
+			}
+		}
+
+		OverflowSegment segment = new OverflowSegment(file, capacity, null, indexBlockSize);
+		try {
+			rebuildIndex(segment);
+			segment.writeIndex();
+			return segment;
+		} catch (IOException e) {
+			log.warn("Buffer overflow segment " + file + " can not be loaded and will be deleted.", e);
+			deleteSegment(segment);
+			return null;
+		}
+	}
+
+	/**
+	 * Rebuilds the index of the segment by reading all its records.
+	 *
+	 * @param segment
+	 *            Segment.
+	 * @throws IOException
+	 *             If segment can not be read.
+	 */
+	private void rebuildIndex(OverflowSegment segment) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ)) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, segment.capacity);
+		}
+
+		while (buffer.remaining() > RECORD_HEADER_SIZE) {
+			int position = buffer.position();
+			int length = buffer.getInt();
+			if ((length <= 0) || (length > buffer.remaining())) {
+				buffer.position(position);
+				break;
+			}
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			try {
+				segment.addToIndex((DefaultData) serializationManagerPool.deserialize(new Input(bytes)), position, buffer.position());
+			} catch (SerializationException e) {
+				throw new IOException("Element can not be de-serialized.", e);
+			}
+		}
+		segment.committed = buffer.position();
+	}
+
+	/**
+	 * Returns the size of all segments on disk.
+	 *
+	 * @return Size in bytes.
+	 */
+	public long getDiskSize() {
+		long size = 0;
+		for (OverflowSegment segment : segments) {
+			size += segment.capacity;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the amount of segments.
+	 *
+	 * @return Returns the amount of segments.
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Returns the amount of elements written.
+	 *
+	 * @return Returns the amount of elements written.
+	 */
+	public long getWrittenElements() {
+		return writtenElements.get();
+	}
+
+	/**
+	 * Returns the amount of fragments dropped because the writer was busy.
+	 *
+	 * @return Returns the amount of dropped fragments.
+	 */
+	public long getDroppedFragments() {
+		return droppedFragments.get();
+	}
+
+	/**
+	 * Returns the amount of executed queries that read at least one segment.
+	 *
+	 * @return Returns the amount of executed queries.
+	 */
+	public long getQueryCount() {
+		return queryCount.get();
+	}
+
+	/**
+	 * Returns the average query duration in milliseconds.
+	 *
+	 * @return Returns the average query duration in milliseconds.
+	 */
+	public double getAverageQueryDuration() {
+		long count = queryCount.get();
+		if (0 == count) {
+			return 0;
+		}
+		return Converter.nanoToMilliseconds(queryDuration.get() / count);
+	}
+
+	/**
+	 * Returns the max query duration in milliseconds.
+	 *
+	 * @return Returns the max query duration in milliseconds.
+	 */
+	public double getMaxQueryDuration() {
+		return Converter.nanoToMilliseconds(maxQueryDuration.get());
+	}
+
+	/**
+	 * Returns the segment file name for the segment id.
+	 *
+	 * @param id
+	 *            Segment id.
+	 * @return File name.
+	 */
+	private static String getSegmentFileName(long id) {
+		return String.format("%019d", id) + SEGMENT_EXTENSION;
+	}
+
+	/**
+	 * Returns the index file for the segment file.
+	 *
+	 * @param segmentFile
+	 *            Segment file.
+	 * @return Index file.
+	 */
+	private static Path getIndexFile(Path segmentFile) {
+		String name = segmentFile.getFileName().toString();
+		return segmentFile.resolveSibling(name.substring(0, name.length() - SEGMENT_EXTENSION.length()) + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Creates the directory, loads existing segments and starts the writer.
+	 *
+	 * @throws IOException
+	 *             If directory can not be created.
+	 */
+	@PostConstruct
+	public void postConstruct() throws IOException {
+		directory = Paths.get(storageDefaultFolder, OVERFLOW_FOLDER).toAbsolutePath();
+		Files.createDirectories(directory);
+		loadSegments();
+
+		writeExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(MAX_PENDING_FRAGMENTS), new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "buffer-overflow-writing-thread");
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, new RejectedExecutionHandler() {
+			@Override
+			public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+				droppedFragments.incrementAndGet();
+			}
+		});
+
+		if (log.isInfoEnabled()) {
+			log.info("|-Buffer overflow tier using " + directory + " with " + segments.size() + " existing segments...");
+		}
+	}
+
+	/**
+	 * Stops the writer and seals the active segment.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the writer.
+	 */
+	@PreDestroy
+	public void preDestroy() throws InterruptedException {
+		ExecutorService executorService = writeExecutor;
+		executorService.shutdown();
+		executorService.awaitTermination(MAX_PENDING_FRAGMENTS, TimeUnit.SECONDS);
+		sealActiveSegment();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuffer msg = new StringBuffer(128);
+		msg.append("Buffer overflow tier: ");
+		msg.append(NumberFormat.getInstance().format(segments.size()));
+		msg.append(" segments occupying ");
+		msg.append(NumberFormat.getInstance().format(getDiskSize()));
+		msg.append(" bytes, ");
+		msg.append(NumberFormat.getInstance().format(writtenElements.get()));
+		msg.append(" elements written, ");
+		msg.append(NumberFormat.getInstance().format(droppedFragments.get()));
+		msg.append(" fragments dropped, ");
+		msg.append(NumberFormat.getInstance().format(queryCount.get()));
+		msg.append(" queries with average duration of ");
+		msg.append(NumberFormat.getInstance().format(getAverageQueryDuration()));
+		msg.append(" ms.");
+		return msg.toString();
+	}
+
+	/**
+	 * One segment file with its index.
+	 */
+	static final class OverflowSegment {
+
+		/**
+		 * Segment file.
+		 */
+		private final Path file;
+
+		/**
+		 * Size of the segment file.
+		 */
+		private final int capacity;
+
+		/**
+		 * Size of the record blocks in bytes.
+		 */
+		private final int blockSize;
+
+		/**
+		 * Mapped buffer for writing, <code>null</code> when segment is sealed.
+		 */
+		private MappedByteBuffer writeBuffer;
+
+		/**
+		 * Amount of bytes written.
+		 */
+		private volatile int committed;
+
+		/**
+		 * Time and ID range of all elements.
+		 */
+		private final IndexBlock range = new IndexBlock(0);
+
+		/**
+		 * Blocks of records in the order of writing.
+		 */
+		private final List<IndexBlock> blocks = new CopyOnWriteArrayList<>();
+
+		/**
+		 * Platform idents of the elements.
+		 */
+		private final Set<Long> platformIdents = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+		/**
+		 * Class names of the elements.
+		 */
+		private final Set<String> types = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param file
+		 *            Segment file.
+		 * @param capacity
+		 *            Size of the segment file.
+		 * @param writeBuffer
+		 *            Mapped buffer for writing, <code>null</code> for sealed segments.
+		 * @param blockSize
+		 *            Size of the record blocks in bytes.
+		 */
+		OverflowSegment(Path file, int capacity, MappedByteBuffer writeBuffer, int blockSize) {
+			this.file = file;
+			this.capacity = capacity;
+			this.writeBuffer = writeBuffer;
+			this.blockSize = blockSize;
+		}
+
+		/**
+		 * Remaining bytes for writing.
+		 *
+		 * @return Remaining bytes for writing.
+		 */
+		int remaining() {
+			return (null != writeBuffer) ? writeBuffer.remaining() : 0;
+		}
+
+		/**
+		 * Appends the record.
+		 *
+		 * @param bytes
+		 *            Serialized element.
+		 * @param length
+		 *            Length of serialized element.
+		 * @param data
+		 *            Element to update the index with.
+		 */
+		void append(byte[] bytes, int length, DefaultData data) {
+			int start = writeBuffer.position();
+			writeBuffer.putInt(length);
+			writeBuffer.put(bytes, 0, length);
+			addToIndex(data, start, writeBuffer.position());
+			committed = writeBuffer.position();
+		}
+
+		/**
+		 * Updates the index with the element. Starts a new block if the current one is full.
+		 *
+		 * @param data
+		 *            Element.
+		 * @param start
+		 *            Position of the record in the segment.
+		 * @param end
+		 *            Position after the record in the segment.
+		 */
+		void addToIndex(DefaultData data, int start, int end) {
+			IndexBlock block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+			if ((null == block) || ((block.end - block.start) >= blockSize)) {
+				block = new IndexBlock(start);
+				blocks.add(block);
+			}
+			block.add(data, end);
+			range.add(data, end);
+			platformIdents.add(data.getPlatformIdent());
+			types.add(data.getClass().getName());
+		}
+
+		/**
+		 * Seals the segment, no writing is possible afterwards.
+		 */
+		void seal() {
+			if (null != writeBuffer) {
+				writeBuffer.force();
+				writeBuffer = null;
+			}
+		}
+
+		/**
+		 * Checks if the segment can contain the elements complying with the query.
+		 *
+		 * @param query
+		 *            Query.
+		 * @return True if segment needs to be read.
+		 */
+		boolean matches(IIndexQuery query) {
+			if (0 == committed) {
+				return false;
+			}
+			if (!range.matches(query)) {
+				return false;
+			}
+			if ((0 != query.getPlatformIdent()) && !platformIdents.contains(query.getPlatformIdent())) {
+				return false;
+			}
+			if (null != query.getObjectClasses()) {
+				for (Class<?> objectClass : query.getObjectClasses()) {
+					if (types.contains(objectClass.getName())) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns buffer for reading the records between the given positions. The returned buffer
+		 * starts at the given start position, thus positions of the segment must be decreased by
+		 * the start when accessing the buffer.
+		 *
+		 * @param start
+		 *            Position of the first record to read.
+		 * @param end
+		 *            Position after the last record to read, must not be after the committed
+		 *            records.
+		 * @return Buffer holding only the requested range of the segment.
+		 * @throws IOException
+		 *             If segment file can not be mapped.
+		 */
+		ByteBuffer getReadBuffer(int start, int end) throws IOException {
+			MappedByteBuffer buffer = writeBuffer;
+			if (null != buffer) {
+				ByteBuffer readBuffer = buffer.duplicate();
+				readBuffer.limit(end);
+				readBuffer.position(start);
+				return readBuffer.slice();
+			}
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				return channel.map(MapMode.READ_ONLY, start, end - start);
+			}
+		}
+
+		/**
+		 * Writes the index file.
+		 *
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void writeIndex() throws IOException {
+			try (OutputStream outputStream = Files.newOutputStream(getIndexFile(file)); DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+				dataOutputStream.writeInt(INDEX_VERSION);
+				dataOutputStream.writeInt(committed);
+				range.write(dataOutputStream);
+				dataOutputStream.writeInt(blocks.size());
+				for (IndexBlock block : blocks) {
+					block.write(dataOutputStream);
+				}
+				dataOutputStream.writeInt(platformIdents.size());
+				for (Long platformIdent : platformIdents) {
+					dataOutputStream.writeLong(platformIdent.longValue());
+				}
+				dataOutputStream.writeInt(types.size());
+				for (String type : types) {
+					dataOutputStream.writeUTF(type);
+				}
+			}
+		}
+
+		/**
+		 * Reads the index file.
+		 *
+		 * @throws IOException
+		 *             If reading fails or the index file has a different version.
+		 */
+		void readIndex() throws IOException {
+			try (InputStream inputStream = Files.newInputStream(getIndexFile(file)); DataInputStream dataInputStream = new DataInputStream(inputStream)) {
+				int version = dataInputStream.readInt();
+				if (INDEX_VERSION != version) {
+					throw new IOException("Index version " + version + " is not supported.");
+				}
+				committed = dataInputStream.readInt();
+				range.read(dataInputStream);
+				int blockCount = dataInputStream.readInt();
+				for (int i = 0; i < blockCount; i++) {
+					IndexBlock block = new IndexBlock(0);
+					block.read(dataInputStream);
+					blocks.add(block);
+				}
+				int platformCount = dataInputStream.readInt();
+				for (int i = 0; i < platformCount; i++) {
+					platformIdents.add(dataInputStream.readLong());
+				}
+				int typeCount = dataInputStream.readInt();
+				for (int i = 0; i < typeCount; i++) {
+					types.add(dataInputStream.readUTF());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Time and ID range of the records between two positions of a segment.
+	 */
+	static final class IndexBlock {
+
+		/**
+		 * Position of the first record.
+		 */
+		private int start;
+
+		/**
+		 * Position after the last record.
+		 */
+		private volatile int end;
+
+		/**
+		 * Min time stamp of the elements.
+		 */
+		private volatile long minTime = Long.MAX_VALUE;
+
+		/**
+		 * Max time stamp of the elements.
+		 */
+		private volatile long maxTime = Long.MIN_VALUE;
+
+		/**
+		 * Min ID of the elements.
+		 */
+		private volatile long minId = Long.MAX_VALUE;
+
+		/**
+		 * Max ID of the elements.
+		 */
+		private volatile long maxId = Long.MIN_VALUE;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param start
+		 *            Position of the first record.
+		 */
+		IndexBlock(int start) {
+			this.start = start;
+			this.end = start;
+		}
+
+		/**
+		 * Updates the range with the element.
+		 *
+		 * @param data
+		 *            Element.
+		 * @param recordEnd
+		 *            Position after the record of the element.
+		 */
+		void add(DefaultData data, int recordEnd) {
+			if (null != data.getTimeStamp()) {
+				long time = data.getTimeStamp().getTime();
+				if (time < minTime) {
+					minTime = time;
+				}
+				if (time > maxTime) {
+					maxTime = time;
+				}
+			}
+			long id = data.getId();
+			if (id < minId) {
+				minId = id;
+			}
+			if (id > maxId) {
+				maxId = id;
+			}
+			end = recordEnd;
+		}
+
+		/**
+		 * Checks if the time and ID range match the query.
+		 *
+		 * @param query
+		 *            Query.
+		 * @return True if the records can comply with the query.
+		 */
+		boolean matches(IIndexQuery query) {
+			if ((null != query.getFromDate()) && (maxTime < query.getFromDate().getTime())) {
+				return false;
+			}
+			if ((null != query.getToDate()) && (minTime > query.getToDate().getTime())) {
+				return false;
+			}
+			return maxId >= query.getMinId();
+		}
+
+		/**
+		 * Writes the block.
+		 *
+		 * @param dataOutputStream
+		 *            Stream to write to.
+		 * @throws IOException
+		 *             If writing fails.
+		 */
+		void write(DataOutputStream dataOutputStream) throws IOException {
+			dataOutputStream.writeInt(start);
+			dataOutputStream.writeInt(end);
+			dataOutputStream.writeLong(minTime);
+			dataOutputStream.writeLong(maxTime);
+			dataOutputStream.writeLong(minId);
+			dataOutputStream.writeLong(maxId);
+		}
+
+		/**
+		 * Reads the block.
+		 *
+		 * @param dataInputStream
+		 *            Stream to read from.
+		 * @throws IOException
+		 *             If reading fails.
+		 */
+		void read(DataInputStream dataInputStream) throws IOException {
+			start = dataInputStream.readInt();
+			end = dataInputStream.readInt();
+			minTime = dataInputStream.readLong();
+			maxTime = dataInputStream.readLong();
+			minId = dataInputStream.readLong();
+			maxId = dataInputStream.readLong();
+		}
+	}
+
+}
@@ -131,6 +131,49 @@ public class BufferProperties {
 	@Value(value = "${buffer.maxOldSpaceOccupancy}")
 	float maxOldSpaceOccupancy;
 
+	/**
+	 * If the off-heap tier for the invocation sequences is active.
+	 */
+	@Value(value = "${buffer.offHeapActive}")
+	boolean offHeapActive;
+
+	/**
+	 * Age in milliseconds after which the indexed invocation sequences are moved to the off-heap
+	 * tier.
+	 */
+	@Value(value = "${buffer.offHeapAge}")
+	long offHeapAge;
+
+	/**
+	 * Maximum amount of direct memory in bytes the off-heap tier can occupy.
+	 */
+	@Value(value = "${buffer.offHeapMaxCapacity}")
+	long offHeapMaxCapacity;
+
+	/**
+	 * If the overflow tier for the evicted data is active.
+	 */
+	@Value(value = "${buffer.overflowActive}")
+	boolean overflowActive;
+
+	/**
+	 * Size in bytes of one overflow segment file.
+	 */
+	@Value(value = "${buffer.overflowSegmentSize}")
+	long overflowSegmentSize;
+
+	/**
+	 * Maximum disk space in bytes the overflow segments can occupy.
+	 */
+	@Value(value = "${buffer.overflowMaxDiskSpace}")
+	long overflowMaxDiskSpace;
+
+	/**
+	 * Time in milliseconds the overflow segments are kept.
+	 */
+	@Value(value = "${buffer.overflowRetention}")
+	long overflowRetention;
+
 	/**
 	 * Returns buffer eviction occupancy percentage.
 	 *
@@ -265,6 +308,70 @@ public class BufferProperties {
 		return maxOldSpaceOccupancy;
 	}
 
+	/**
+	 * Returns if the off-heap tier for the invocation sequences is active.
+	 *
+	 * @return True if the off-heap tier is active.
+	 */
+	public boolean isOffHeapActive() {
+		return offHeapActive;
+	}
+
+	/**
+	 * Returns age after which the indexed invocation sequences are moved to the off-heap tier.
+	 *
+	 * @return Age in milliseconds.
+	 */
+	public long getOffHeapAge() {
+		return offHeapAge;
+	}
+
+	/**
+	 * Returns maximum amount of direct memory the off-heap tier can occupy.
+	 *
+	 * @return Size in bytes.
+	 */
+	public long getOffHeapMaxCapacity() {
+		return offHeapMaxCapacity;
+	}
+
+	/**
+	 * Returns if the overflow tier for the evicted data is active.
+	 *
+	 * @return Returns if the overflow tier for the evicted data is active.
+	 */
+	public boolean isOverflowActive() {
+		return overflowActive;
+	}
+
+	/**
+	 * Returns size of one overflow segment file, limited to the max size that can be
+	 * memory-mapped.
+	 *
+	 * @return Size in bytes.
+	 */
+	public long getOverflowSegmentSize() {
+		return Math.min(overflowSegmentSize, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns maximum disk space the overflow segments can occupy.
+	 *
+	 * @return Size in bytes.
+	 */
+	public long getOverflowMaxDiskSpace() {
+		return overflowMaxDiskSpace;
+	}
+
+	/**
+	 * Returns time the overflow segments are kept.
+	 *
+	 * @return Time in milliseconds.
+	 */
+	public long getOverflowRetention() {
+		return overflowRetention;
+	}
+
 	/**
 	 * Returns the initial buffer size based on the property set.
 	 *
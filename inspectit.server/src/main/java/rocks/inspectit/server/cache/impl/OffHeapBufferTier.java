@@ -0,0 +1,538 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.text.NumberFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Off-heap tier of the buffer. The children of the invocation sequences, which represent the
+ * biggest part of the buffer heap occupancy, are serialized to the direct memory segments. A copy
+ * of the invocation without the children stays in the buffer and in the indexing tree, so that all
+ * the queries still work. Only when the invocation details are requested, the children are
+ * de-serialized and a restored copy of the invocation is returned.
+ * <p>
+ * The tier allocates its own direct memory segments and does not use the
+ * {@link rocks.inspectit.shared.all.storage.nio.ByteBufferProvider} pool of the storage. The pool
+ * is sized for the storage writing, its buffers are smaller than the default segment and acquiring
+ * a buffer blocks when the pool is exhausted. Sharing it would let the offloading slow down or stall
+ * the storage writing and the other way around. The tier never waits for the memory: if the max
+ * capacity is reached the invocation simply stays on heap. Entries are appended to the current segment until it's full. Entries bigger than
+ * the segment size get a segment of their own size. A segment is freed when all entries in it have
+ * been removed because of the buffer eviction, few of the freed segments are kept for the reuse.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class OffHeapBufferTier {
+
+	/**
+	 * Initial size of the output used for serialization.
+	 */
+	private static final int INITIAL_OUTPUT_SIZE = 8192;
+
+	/**
+	 * Default size of the segments.
+	 */
+	private static final int SEGMENT_SIZE = 1024 * 1024;
+
+	/**
+	 * Max amount of the freed segments kept for the reuse.
+	 */
+	private static final int MAX_FREE_SEGMENTS = 4;
+
+	/** The logger of this class. */
+	@Log
+	Logger log;
+
+	/**
+	 * Buffer properties.
+	 */
+	@Autowired
+	BufferProperties bufferProperties;
+
+	/**
+	 * Serializers to use.
+	 */
+	@Autowired
+	SerializationManagerPool serializationManagerPool;
+
+	/**
+	 * Size of the segments in bytes.
+	 */
+	int segmentSize = SEGMENT_SIZE;
+
+	/**
+	 * Entries in the tier, keyed by the invocation id.
+	 */
+	private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * All segments currently occupied.
+	 */
+	private final List<Segment> segments = new ArrayList<>();
+
+	/**
+	 * Segment entries are currently appended to.
+	 */
+	private Segment currentSegment;
+
+	/**
+	 * Freed segment buffers of the default size kept for the reuse. Guarded by the write lock.
+	 */
+	private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+
+	/**
+	 * Read lock for reading the entry from the segment.
+	 */
+	private final Lock readLock;
+
+	/**
+	 * Write lock for changing the segments.
+	 */
+	private final Lock writeLock;
+
+	/**
+	 * Amount of direct memory occupied by the segments.
+	 */
+	private final AtomicLong occupiedCapacity = new AtomicLong();
+
+	/**
+	 * Amount of direct memory held by the freed segments kept for the reuse.
+	 */
+	private final AtomicLong freeCapacity = new AtomicLong();
+
+	/**
+	 * Amount of serialized bytes of the live entries.
+	 */
+	private final AtomicLong liveBytes = new AtomicLong();
+
+	/**
+	 * Amount of offloaded invocations.
+	 */
+	private final AtomicLong offloadedCount = new AtomicLong();
+
+	/**
+	 * Amount of restored invocations.
+	 */
+	private final AtomicLong restoredCount = new AtomicLong();
+
+	/**
+	 * Default constructor.
+	 */
+	public OffHeapBufferTier() {
+		ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+		readLock = readWriteLock.readLock();
+		writeLock = readWriteLock.writeLock();
+	}
+
+	/**
+	 * Writes the children of the given invocation to the off-heap tier. The invocation is not
+	 * changed, so that the caller can decide if the invocation is still in the buffer and replace it
+	 * with a copy without children or {@link #remove(InvocationSequenceData) remove} the entry
+	 * otherwise.
+	 * The serialization is done without holding any lock and the method never waits for the memory.
+	 *
+	 * @param invocation
+	 *            Invocation to offload.
+	 * @return <code>true</code> if the children have been written off heap, <code>false</code> if
+	 *         there is nothing to write or if the tier has no space.
+	 */
+	public boolean offload(InvocationSequenceData invocation) {
+		List<InvocationSequenceData> nestedSequences = invocation.getNestedSequences();
+		if (CollectionUtils.isEmpty(nestedSequences) || entries.containsKey(invocation.getId())) {
+			return false;
+		}
+
+		Output output = new Output(INITIAL_OUTPUT_SIZE, -1);
+		try {
+			serializationManagerPool.serialize(nestedSequences, output);
+		} catch (SerializationException e) {
+			log.warn("Invocation sequence children can not be serialized to the off-heap tier.", e);
+			return false;
+		}
+		int length = output.position();
+
+		writeLock.lock();
+		try {
+			Segment segment = getSegmentForWrite(length);
+			if (null == segment) {
+				return false;
+			}
+
+			int position = segment.buffer.position();
+			segment.buffer.put(output.getBuffer(), 0, length);
+			segment.liveEntries++;
+			entries.put(invocation.getId(), new Entry(segment, position, length));
+		} finally {
+			writeLock.unlock();
+		}
+
+		liveBytes.addAndGet(length);
+		offloadedCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Returns the invocation with all children. If the children of the invocation have been
+	 * offloaded, a copy of the invocation with the de-serialized children is returned. Otherwise
+	 * the given invocation is returned.
+	 *
+	 * @param invocation
+	 *            Invocation from the buffer.
+	 * @return Invocation with children.
+	 */
+	@SuppressWarnings("unchecked")
+	public InvocationSequenceData restore(InvocationSequenceData invocation) {
+		if (null == invocation) {
+			return null;
+		}
+
+		Entry entry = entries.get(invocation.getId());
+		if (null == entry) {
+			return invocation;
+		}
+
+		byte[] bytes = new byte[entry.length];
+		readLock.lock();
+		try {
+			if (entry.segment.released) {
+				return invocation;
+			}
+			ByteBuffer buffer = entry.segment.buffer.duplicate();
+			buffer.position(entry.position);
+			buffer.get(bytes);
+		} finally {
+			readLock.unlock();
+		}
+
+		List<InvocationSequenceData> nestedSequences;
+		try {
+			nestedSequences = (List<InvocationSequenceData>) serializationManagerPool.deserialize(new Input(bytes));
+		} catch (SerializationException e) {
+			log.error("Invocation sequence children can not be de-serialized from the off-heap tier.", e);
+			return invocation;
+		}
+
+		InvocationSequenceData restored = invocation.getClonedInvocationSequence();
+		for (InvocationSequenceData child : nestedSequences) {
+			child.setParentSequence(restored);
+		}
+		restored.setNestedSequences(nestedSequences);
+		restoredCount.incrementAndGet();
+		return restored;
+	}
+
+	/**
+	 * Replaces all offloaded invocations in the given list with the restored ones. Other elements
+	 * are not touched.
+	 *
+	 * @param <E>
+	 *            Type of elements in the list.
+	 * @param data
+	 *            List of data from the buffer, must support set operation.
+	 * @return Same list with restored invocations.
+	 * @see #restore(InvocationSequenceData)
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> List<E> restoreAll(List<E> data) {
+		if (entries.isEmpty() || CollectionUtils.isEmpty(data)) {
+			return data;
+		}
+
+		for (ListIterator<E> it = data.listIterator(); it.hasNext();) {
+			E element = it.next();
+			if (element instanceof InvocationSequenceData) {
+				InvocationSequenceData restored = restore((InvocationSequenceData) element);
+				if (restored != element) { // NOPMD
+					it.set((E) restored);
+				}
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Removes the entry of the given invocation from the tier. Needs to be called when the
+	 * invocation is evicted from the buffer.
+	 *
+	 * @param invocation
+	 *            Evicted invocation.
+	 */
+	public void remove(InvocationSequenceData invocation) {
+		Entry entry = entries.remove(invocation.getId());
+		if (null == entry) {
+			return;
+		}
+
+		liveBytes.addAndGet(-entry.length);
+		writeLock.lock();
+		try {
+			Segment segment = entry.segment;
+			segment.liveEntries--;
+			if ((0 == segment.liveEntries) && (segment != currentSegment)) {
+				releaseSegment(segment);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all entries and frees all segments.
+	 */
+	public void clearAll() {
+		writeLock.lock();
+		try {
+			entries.clear();
+			for (Segment segment : new ArrayList<>(segments)) {
+				releaseSegment(segment);
+			}
+			currentSegment = null;
+			freeBuffers.clear();
+			freeCapacity.set(0);
+			liveBytes.set(0);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the segment the entry of the given length can be written to. Must be called under
+	 * write lock.
+	 *
+	 * @param length
+	 *            Length of the entry in bytes.
+	 * @return Segment or <code>null</code> if the entry can not be written to the tier.
+	 */
+	private Segment getSegmentForWrite(int length) {
+		if ((null != currentSegment) && (currentSegment.buffer.remaining() >= length)) {
+			return currentSegment;
+		}
+
+		ByteBuffer buffer = allocateBuffer(Math.max(length, segmentSize));
+		if (null == buffer) {
+			return null;
+		}
+
+		Segment segment = new Segment(buffer);
+		segments.add(segment);
+		occupiedCapacity.addAndGet(buffer.capacity());
+		if (buffer.capacity() > segmentSize) {
+			// entry bigger than the default size gets the segment of its own
+			return segment;
+		}
+
+		Segment old = currentSegment;
+		currentSegment = segment;
+		if ((null != old) && (0 == old.liveEntries)) {
+			releaseSegment(old);
+		}
+		return currentSegment;
+	}
+
+	/**
+	 * Returns the buffer of the given capacity. Buffers of the default size are reused if
+	 * available. Must be called under write lock.
+	 *
+	 * @param capacity
+	 *            Capacity in bytes.
+	 * @return Buffer or <code>null</code> if the max capacity of the tier would be exceeded or the
+	 *         direct memory can not be allocated.
+	 */
+	private ByteBuffer allocateBuffer(int capacity) {
+		if ((capacity == segmentSize) && !freeBuffers.isEmpty()) {
+			ByteBuffer buffer = freeBuffers.poll();
+			freeCapacity.addAndGet(-buffer.capacity());
+			buffer.clear();
+			return buffer;
+		}
+
+		// free buffers are dropped if they are in the way of the bigger allocation
+		while (((occupiedCapacity.get() + freeCapacity.get() + capacity) > bufferProperties.getOffHeapMaxCapacity()) && !freeBuffers.isEmpty()) {
+			freeCapacity.addAndGet(-freeBuffers.poll().capacity());
+		}
+		if ((occupiedCapacity.get() + freeCapacity.get() + capacity) > bufferProperties.getOffHeapMaxCapacity()) {
+			return null;
+		}
+
+		try {
+			return ByteBuffer.allocateDirect(capacity);
+		} catch (OutOfMemoryError e) { // NOPMD
+			if (log.isDebugEnabled()) {
+				log.debug("Off-heap tier can not allocate a new segment of " + capacity + " bytes.", e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Frees the segment. The buffer is kept for the reuse if it has the default size and not too
+	 * many buffers are kept already. Must be called under write lock.
+	 *
+	 * @param segment
+	 *            Segment to release.
+	 */
+	private void releaseSegment(Segment segment) {
+		segment.released = true;
+		segments.remove(segment);
+		occupiedCapacity.addAndGet(-segment.buffer.capacity());
+		if ((segment.buffer.capacity() == segmentSize) && (freeBuffers.size() < MAX_FREE_SEGMENTS)) {
+			freeBuffers.add(segment.buffer);
+			freeCapacity.addAndGet(segment.buffer.capacity());
+		}
+	}
+
+	/**
+	 * Returns amount of the invocations currently in the tier.
+	 *
+	 * @return Returns amount of the invocations currently in the tier.
+	 */
+	public int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns amount of direct memory occupied by the tier.
+	 *
+	 * @return Returns amount of direct memory occupied by the tier in bytes.
+	 */
+	public long getOccupiedCapacity() {
+		return occupiedCapacity.get();
+	}
+
+	/**
+	 * Returns amount of serialized bytes of entries currently in the tier.
+	 *
+	 * @return Returns amount of serialized bytes of entries currently in the tier.
+	 */
+	public long getLiveBytes() {
+		return liveBytes.get();
+	}
+
+	/**
+	 * Returns amount of invocations offloaded so far.
+	 *
+	 * @return Returns amount of invocations offloaded so far.
+	 */
+	public long getOffloadedCount() {
+		return offloadedCount.get();
+	}
+
+	/**
+	 * Returns amount of invocations restored so far.
+	 *
+	 * @return Returns amount of invocations restored so far.
+	 */
+	public long getRestoredCount() {
+		return restoredCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuffer msg = new StringBuffer(128);
+		msg.append("Off-heap tier: ");
+		msg.append(NumberFormat.getInstance().format(entries.size()));
+		msg.append(" invocations holding ");
+		msg.append(NumberFormat.getInstance().format(liveBytes.get()));
+		msg.append(" bytes in ");
+		msg.append(NumberFormat.getInstance().format(occupiedCapacity.get()));
+		msg.append(" bytes of direct memory.");
+		return msg.toString();
+	}
+
+	/**
+	 * One direct memory segment.
+	 */
+	private static final class Segment {
+
+		/**
+		 * Buffer holding the data.
+		 */
+		private final ByteBuffer buffer;
+
+		/**
+		 * Amount of live entries in the segment. Guarded by the write lock.
+		 */
+		private int liveEntries;
+
+		/**
+		 * If the segment has been given back to the pool.
+		 */
+		private volatile boolean released;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param buffer
+		 *            Buffer holding the data.
+		 */
+		Segment(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Location of the serialized children of one invocation.
+	 */
+	private static final class Entry {
+
+		/**
+		 * Segment.
+		 */
+		private final Segment segment;
+
+		/**
+		 * Position in the segment.
+		 */
+		private final int position;
+
+		/**
+		 * Length in bytes.
+		 */
+		private final int length;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param segment
+		 *            Segment.
+		 * @param position
+		 *            Position in the segment.
+		 * @param length
+		 *            Length in bytes.
+		 */
+		Entry(Segment segment, int position, int length) {
+			this.segment = segment;
+			this.position = position;
+			this.length = length;
+		}
+	}
+
+}
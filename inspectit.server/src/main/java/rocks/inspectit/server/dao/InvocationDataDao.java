@@ -6,6 +6,7 @@ import java.util.Date;
 import java.util.List;
 
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 
 /**
  * This layer is used to access the stored invocations.
@@ -155,6 +156,28 @@ public interface InvocationDataDao {
 	List<InvocationSequenceData> getInvocationSequenceOverview(long platformId, Date fromDate, Date toDate, long minId, int limit, int businessTrxId, int applicationId, // NOCHK
 			Collection<Long> invocationIdCollection, Comparator<? super InvocationSequenceData> comparator);
 
+	/**
+	 * Returns a list of {@link InvocationSequenceData} objects which contain no associations to
+	 * other objects and that were added to the buffer after the element with the given ID. The
+	 * list is sorted and limited in the same way as the complete overview, thus it can be merged
+	 * with the result of the previous query.
+	 *
+	 * @param platformId
+	 *            The ID of the platform.
+	 * @param methodId
+	 *            The ID of the method. If the zero value is passed, invocations of all methods are
+	 *            returned.
+	 * @param sinceId
+	 *            The last ID of the previous result or <code>0</code> to get the complete result.
+	 * @param limit
+	 *            The limit/size of the list.
+	 * @param comparator
+	 *            Comparator to compare results with. If <code>null</code> is passed default
+	 *            comparator will be used (in this case Timestamp comparator).
+	 * @return {@link IncrementalQueryResult} with the invocation sequences.
+	 */
+	IncrementalQueryResult<InvocationSequenceData> getInvocationSequenceOverviewSince(long platformId, long methodId, long sinceId, int limit, Comparator<? super InvocationSequenceData> comparator);
+
 	/**
 	 * Returns a list of {@link InvocationSequenceData} objects from the buffer. This method returns
 	 * the original {@link InvocationSequenceData} instances from the buffer. This method is
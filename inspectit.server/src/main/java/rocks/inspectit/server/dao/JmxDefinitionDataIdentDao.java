@@ -1,5 +1,6 @@
 package rocks.inspectit.server.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
@@ -47,4 +48,25 @@ public interface JmxDefinitionDataIdentDao {
 	 *         like the example object.
 	 */
 	List<Long> findIdForPlatformIdent(long platformId, JmxDefinitionDataIdent jmxDefinitionDataIdentExample, boolean updateTimestamp);
+
+	/**
+	 * Returns the {@link JmxDefinitionDataIdent}s that have an association to the given platform
+	 * with only the fields identifying the definition populated: id, MBean object name and
+	 * attribute name. The returned objects are not managed.
+	 *
+	 * @param platformId
+	 *            The id of the platform.
+	 * @return List of not managed {@link JmxDefinitionDataIdent}s with only the identifying fields
+	 *         populated.
+	 */
+	List<JmxDefinitionDataIdent> findRegistrationDataForPlatformIdent(long platformId);
+
+	/**
+	 * Updates the timestamp of the {@link JmxDefinitionDataIdent}s with the given IDs to current
+	 * time.
+	 *
+	 * @param ids
+	 *            IDs of the {@link JmxDefinitionDataIdent}s.
+	 */
+	void updateTimestamps(Collection<Long> ids);
 }
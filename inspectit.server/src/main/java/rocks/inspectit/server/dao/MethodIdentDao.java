@@ -1,5 +1,6 @@
 package rocks.inspectit.server.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
@@ -64,6 +65,17 @@ public interface MethodIdentDao {
 	 */
 	List<Long> findIdForPlatformIdAndExample(long platformId, MethodIdent methodIdentExample, boolean updateTimestamp);
 
+	/**
+	 * Returns the {@link MethodIdent}s that have an association to the given platform with only the
+	 * fields identifying the method populated: id, package, class and method name, parameters and
+	 * return type. The returned objects are not managed.
+	 *
+	 * @param platformId
+	 *            The id of the platform.
+	 * @return List of not managed {@link MethodIdent}s with only the identifying fields populated.
+	 */
+	List<MethodIdent> findRegistrationDataForPlatformId(long platformId);
+
 	/**
 	 * Returns all {@link MethodIdent} objects which are saved in the underlying storage.
 	 *
@@ -82,4 +94,12 @@ public interface MethodIdentDao {
 	 *            the class name
 	 */
 	void updateTimestamps(long platformId, String packageName, String className);
+
+	/**
+	 * Updates the timestamp of the {@link MethodIdent}s with the given IDs to current time.
+	 *
+	 * @param ids
+	 *            IDs of the {@link MethodIdent}s.
+	 */
+	void updateTimestamps(Collection<Long> ids);
 }
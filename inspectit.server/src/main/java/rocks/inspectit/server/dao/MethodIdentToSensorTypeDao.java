@@ -1,5 +1,8 @@
 package rocks.inspectit.server.dao;
 
+import java.util.Collection;
+import java.util.List;
+
 import rocks.inspectit.shared.all.cmr.model.MethodIdentToSensorType;
 
 /**
@@ -44,4 +47,24 @@ public interface MethodIdentToSensorTypeDao {
 	 */
 	Long findId(long methodId, long methodSensorTypeId, boolean updateTimestamp);
 
+	/**
+	 * Returns the {@link MethodIdentToSensorType}s of all methods of the given platform with only
+	 * the IDs populated, including the IDs of the referenced method ident and method sensor type
+	 * ident. The returned objects are not managed.
+	 *
+	 * @param platformId
+	 *            The id of the platform.
+	 * @return List of not managed {@link MethodIdentToSensorType}s with only the IDs populated.
+	 */
+	List<MethodIdentToSensorType> findIdsForPlatformId(long platformId);
+
+	/**
+	 * Updates the timestamp of the {@link MethodIdentToSensorType}s with the given IDs to current
+	 * time.
+	 *
+	 * @param ids
+	 *            IDs of the {@link MethodIdentToSensorType}s.
+	 */
+	void updateTimestamps(Collection<Long> ids);
+
 }
@@ -3,6 +3,7 @@ package rocks.inspectit.server.dao;
 import java.util.List;
 
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 
 /**
  * This DAO is used to handle all {@link PlatformIdent} objects.
@@ -65,6 +66,19 @@ public interface PlatformIdentDao {
 	 */
 	PlatformIdent findInitialized(long id);
 
+	/**
+	 * Returns the changes of the agent tree since the given version. If the changes since the
+	 * given version are not known, the complete tree is returned as with
+	 * {@link #findInitialized(long)}.
+	 *
+	 * @param id
+	 *            Id of wanted agent.
+	 * @param sinceVersion
+	 *            Version of the tree known to the caller.
+	 * @return {@link AgentTreeDelta} or <code>null</code> if the agent does not exist.
+	 */
+	AgentTreeDelta findInitializedChanges(long id, long sinceVersion);
+
 	/**
 	 * Finds agent(s) that are registered with given agent name. Same as calling
 	 * {@link #findByNameAndIps(String, null)}.
@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.List;
 
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 
 /**
  * @author Patrice Bouillet
@@ -37,6 +38,19 @@ public interface SqlDataDao {
 	 */
 	List<SqlStatementData> getAggregatedSqlStatements(SqlStatementData sqlStatementData, Date fromDate, Date toDate);
 
+	/**
+	 * Returns the aggregation of the SQL statements added to the buffer after the element with the
+	 * given ID. In the template, only the platform id is extracted. If the template holds the SQL
+	 * query string, only objects with this query string will be returned.
+	 *
+	 * @param sqlStatementData
+	 *            The template containing the platform id.
+	 * @param sinceId
+	 *            The last ID of the previous result or <code>0</code> to get the complete result.
+	 * @return {@link IncrementalQueryResult} with the aggregated SQL statements.
+	 */
+	IncrementalQueryResult<SqlStatementData> getAggregatedSqlStatementsSince(SqlStatementData sqlStatementData, long sinceId);
+
 	/**
 	 * Returns a list of the SQL statements for a given template aggregated by the parameters. In
 	 * the template, only the platform id is extracted. If the template holds the SQL query string,
@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.List;
 
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 
 /**
  * The DAO for timer data objects.
@@ -36,4 +37,16 @@ public interface TimerDataDao {
 	 * @return The list of the timer data object.
 	 */
 	List<TimerData> getAggregatedTimerData(TimerData timerData, Date fromDate, Date toDate);
+
+	/**
+	 * Returns the aggregation of the timer data added to the buffer after the element with the
+	 * given ID. In this template, only the platform id is extracted.
+	 *
+	 * @param timerData
+	 *            The template containing the platform id.
+	 * @param sinceId
+	 *            The last ID of the previous result or <code>0</code> to get the complete result.
+	 * @return {@link IncrementalQueryResult} with the aggregated timer data objects.
+	 */
+	IncrementalQueryResult<TimerData> getAggregatedTimerDataSince(TimerData timerData, long sinceId);
 }
@@ -3,13 +3,20 @@ package rocks.inspectit.server.dao.impl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.cache.impl.BufferOverflowStore;
+import rocks.inspectit.server.util.CacheIdGenerator;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
@@ -39,6 +46,24 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 	@Qualifier("indexingTreeForkJoinPool")
 	private ForkJoinPool forkJoinPool;
 
+	/**
+	 * Overflow tier holding the data evicted from the buffer.
+	 */
+	@Autowired
+	private BufferOverflowStore bufferOverflowStore;
+
+	/**
+	 * ID generator of the buffer elements, needed for the incremental queries.
+	 */
+	@Autowired
+	private CacheIdGenerator cacheIdGenerator;
+
+	/**
+	 * Buffer the elements are indexed from, needed for the incremental queries.
+	 */
+	@Autowired
+	private IBuffer<MethodSensorData> buffer;
+
 	/**
 	 * Executes the query on the indexing tree.
 	 *
@@ -157,7 +182,9 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 	/**
 	 * Executes the query on the indexing tree. If the {@link IAggregator} is not <code>null</code>
 	 * then the results will be aggregated based on the given {@link IAggregator}. Results can be
-	 * sorted by comparator. Furthermore the result list can be limited.
+	 * sorted by comparator. Furthermore the result list can be limited. Data evicted from the
+	 * buffer is included from the {@link BufferOverflowStore} when the query reaches past the
+	 * oldest buffered element.
 	 *
 	 * @param indexQuery
 	 *            Index query to execute.
@@ -172,6 +199,74 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 	 * @return Result list.
 	 */
 	protected List<E> executeQuery(IIndexQuery indexQuery, IAggregator<E> aggregator, Comparator<? super E> comparator, int limit, boolean useForkJoin) {
+		List<E> data = queryData(indexQuery, useForkJoin);
+		return processResult(data, aggregator, comparator, limit);
+	}
+
+	/**
+	 * Executes the query on the indexing tree returning only the elements added to the buffer
+	 * after the element with the given ID. The result is complete, holding all the elements
+	 * matching the query, if the given ID is not valid for the current buffer, meaning that the
+	 * buffer was cleared in between or that the ID was not given by this CMR.
+	 * <p>
+	 * Concurrently processed batches get to the indexing tree out of the ID order, thus the result
+	 * holds only the elements up to the highest ID all lower IDs of are processed and indexed. This
+	 * ID is returned as the {@link IncrementalQueryResult#getLastId()}, the elements with higher
+	 * IDs are returned by the next query.
+	 * <p>
+	 * The elements are optionally aggregated, sorted and limited in the same way as in the
+	 * {@link #executeQuery(IIndexQuery, IAggregator, Comparator, int, boolean)}, thus the client
+	 * can merge the result with the result of the previous query.
+	 *
+	 * @param indexQuery
+	 *            Index query to execute.
+	 * @param sinceId
+	 *            The {@link IncrementalQueryResult#getLastId()} of the previous result, or
+	 *            <code>0</code> for the first query.
+	 * @param aggregator
+	 *            {@link IAggregator}. Pass <code>null</code> if no aggregation is needed.
+	 * @param comparator
+	 *            If supplied the final result list will be sorted by this comparator.
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 * @param useForkJoin
+	 *            true, if forkJoinPool should be used
+	 * @return {@link IncrementalQueryResult}.
+	 */
+	protected IncrementalQueryResult<E> executeIncrementalQuery(IIndexQuery indexQuery, long sinceId, IAggregator<E> aggregator, Comparator<? super E> comparator, int limit, boolean useForkJoin) {
+		long clearedUpToId = cacheIdGenerator.getClearedUpToId();
+		boolean complete = (sinceId < clearedUpToId) || (sinceId > cacheIdGenerator.getLastAssignedId());
+		// IDs get to the indexing tree out of order, only the elements up to the watermark are
+		// returned, so that the next query starting after the watermark does not miss any
+		long visibleUpToId = Math.min(cacheIdGenerator.getProcessedUpToId(), buffer.getLowestNotIndexedId() - 1);
+		if (!complete) {
+			indexQuery.setMinId(sinceId + 1);
+		}
+
+		List<E> queried = queryData(indexQuery, useForkJoin);
+		List<E> data = new ArrayList<>(queried.size());
+		for (E element : queried) {
+			if (element.getId() <= visibleUpToId) {
+				data.add(element);
+			}
+		}
+
+		long lastId = complete ? visibleUpToId : Math.max(sinceId, visibleUpToId);
+		return new IncrementalQueryResult<>(processResult(data, aggregator, comparator, limit), lastId, complete);
+	}
+
+	/**
+	 * Queries the indexing tree and, if the query reaches past the buffer, the overflow tier. An
+	 * element is still in the indexing tree for a short time after it was evicted and written to
+	 * the overflow tier, thus elements already found in the indexing tree are not added twice.
+	 *
+	 * @param indexQuery
+	 *            Index query to execute.
+	 * @param useForkJoin
+	 *            true, if forkJoinPool should be used
+	 * @return Elements matching the query.
+	 */
+	private List<E> queryData(IIndexQuery indexQuery, boolean useForkJoin) {
 		List<E> data;
 
 		if (useForkJoin) {
@@ -179,21 +274,78 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 		} else {
 			data = indexingTree.query(indexQuery);
 		}
+
+		if (!isReachingPastBuffer(indexQuery)) {
+			return data;
+		}
+
+		List<E> overflowData = bufferOverflowStore.query(indexQuery);
+		if (!overflowData.isEmpty()) {
+			Set<Long> ids = new HashSet<>(data.size());
+			for (E element : data) {
+				ids.add(element.getId());
+			}
+			data = new ArrayList<>(data);
+			for (E element : overflowData) {
+				if (ids.add(element.getId())) {
+					data.add(element);
+				}
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Checks if the query can match elements older than the oldest element in the buffer. Only
+	 * then the overflow tier needs to be queried.
+	 *
+	 * @param indexQuery
+	 *            Index query to execute.
+	 * @return <code>true</code> if the from date of the query is before the time stamp of the
+	 *         oldest buffered element or if the buffer is empty.
+	 */
+	private boolean isReachingPastBuffer(IIndexQuery indexQuery) {
+		if (null == indexQuery.getFromDate()) {
+			return false;
+		}
+		MethodSensorData oldestElement = buffer.getOldestElement();
+		if ((null == oldestElement) || (null == oldestElement.getTimeStamp())) {
+			return true;
+		}
+		return indexQuery.getFromDate().getTime() < oldestElement.getTimeStamp().getTime();
+	}
+
+	/**
+	 * Aggregates, sorts and limits the queried elements.
+	 *
+	 * @param data
+	 *            Elements matching the query.
+	 * @param aggregator
+	 *            {@link IAggregator}. Pass <code>null</code> if no aggregation is needed.
+	 * @param comparator
+	 *            If supplied the final result list will be sorted by this comparator.
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 * @return Result list.
+	 */
+	private List<E> processResult(List<E> data, IAggregator<E> aggregator, Comparator<? super E> comparator, int limit) {
+		List<E> result = data;
+
 		if (null != aggregator) {
 			AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<>(aggregator);
-			aggregationPerformer.processCollection(data);
-			data = aggregationPerformer.getResultList();
+			aggregationPerformer.processCollection(result);
+			result = aggregationPerformer.getResultList();
 		}
 
 		if (null != comparator) {
-			Collections.sort(data, comparator);
+			Collections.sort(result, comparator);
 		}
 
-		if ((limit > -1) && (data.size() > limit)) {
-			data = new ArrayList<>(data.subList(0, limit));
+		if ((limit > -1) && (result.size() > limit)) {
+			result = new ArrayList<>(result.subList(0, limit));
 		}
 
-		return data;
+		return result;
 	}
 
 	/**
@@ -1,9 +1,15 @@
 package rocks.inspectit.server.dao.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import com.google.common.collect.Iterables;
 
 import rocks.inspectit.server.util.JpaUtil;
 
@@ -17,6 +23,11 @@ import rocks.inspectit.server.util.JpaUtil;
  */
 public abstract class AbstractJpaDao<T> {
 
+	/**
+	 * Maximum amount of IDs bound to one <code>IN</code> parameter of a query.
+	 */
+	private static final int MAX_IDS_PER_QUERY = 1000;
+
 	/**
 	 * Type of entity to load with this DAO.
 	 */
@@ -91,6 +102,49 @@ public abstract class AbstractJpaDao<T> {
 		}
 	}
 
+	/**
+	 * Executes the named update query that has the <code>ids</code> collection parameter for the
+	 * given IDs. The IDs are split in chunks so that the database limit on the size of the
+	 * <code>IN</code> list is not reached.
+	 *
+	 * @param namedQuery
+	 *            Name of the update query.
+	 * @param ids
+	 *            IDs to bind to the <code>ids</code> parameter.
+	 */
+	protected void executeUpdateForIds(String namedQuery, Collection<Long> ids) {
+		for (List<Long> chunk : Iterables.partition(ids, MAX_IDS_PER_QUERY)) {
+			Query updateQuery = getEntityManager().createNamedQuery(namedQuery);
+			updateQuery.setParameter("ids", chunk);
+			updateQuery.executeUpdate();
+		}
+	}
+
+	/**
+	 * Executes the named query that has the <code>ids</code> collection parameter for the given
+	 * IDs. The IDs are split in chunks so that the database limit on the size of the
+	 * <code>IN</code> list is not reached.
+	 *
+	 * @param <E>
+	 *            Type of the results.
+	 * @param namedQuery
+	 *            Name of the query.
+	 * @param resultClass
+	 *            Type of the results.
+	 * @param ids
+	 *            IDs to bind to the <code>ids</code> parameter.
+	 * @return Results of all chunks.
+	 */
+	protected <E> List<E> executeQueryForIds(String namedQuery, Class<E> resultClass, Collection<Long> ids) {
+		List<E> results = new ArrayList<>(ids.size());
+		for (List<Long> chunk : Iterables.partition(ids, MAX_IDS_PER_QUERY)) {
+			TypedQuery<E> query = getEntityManager().createNamedQuery(namedQuery, resultClass);
+			query.setParameter("ids", chunk);
+			results.addAll(query.getResultList());
+		}
+		return results;
+	}
+
 	/**
 	 * Gets {@link #entityManager}.
 	 *
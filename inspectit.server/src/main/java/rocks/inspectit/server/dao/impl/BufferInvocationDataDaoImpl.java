@@ -9,8 +9,10 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import rocks.inspectit.server.cache.impl.OffHeapBufferTier;
 import rocks.inspectit.server.dao.InvocationDataDao;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.communication.comparator.DefaultDataComparatorEnum;
 import rocks.inspectit.shared.cs.indexing.AbstractBranch;
@@ -34,6 +36,12 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 	@Autowired
 	private InvocationSequenceDataQueryFactory<IIndexQuery> invocationDataQueryFactory;
 
+	/**
+	 * Off-heap tier to restore the invocation children from.
+	 */
+	@Autowired
+	private OffHeapBufferTier offHeapBufferTier;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -117,12 +125,32 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 		return realResults;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<InvocationSequenceData> getInvocationSequenceOverviewSince(long platformId, long methodId, long sinceId, int limit,
+			Comparator<? super InvocationSequenceData> comparator) {
+		IIndexQuery query = invocationDataQueryFactory.getInvocationSequences(platformId, methodId, null, null);
+		IncrementalQueryResult<InvocationSequenceData> resultWithChildren;
+		if (null != comparator) {
+			resultWithChildren = super.executeIncrementalQuery(query, sinceId, null, comparator, limit, false);
+		} else {
+			resultWithChildren = super.executeIncrementalQuery(query, sinceId, null, DefaultDataComparatorEnum.TIMESTAMP, limit, false);
+		}
+		List<InvocationSequenceData> realResults = new ArrayList<>(resultWithChildren.getData().size());
+		for (InvocationSequenceData invocationSequenceData : resultWithChildren.getData()) {
+			realResults.add(invocationSequenceData.getClonedInvocationSequence());
+		}
+		return new IncrementalQueryResult<>(realResults, resultWithChildren.getLastId(), resultWithChildren.isComplete());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public InvocationSequenceData getInvocationSequenceDetail(InvocationSequenceData template) {
-		return super.getIndexingTree().get(template);
+		return offHeapBufferTier.restore(super.getIndexingTree().get(template));
 	}
 
 	/**
@@ -132,9 +160,9 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 	public List<InvocationSequenceData> getInvocationSequenceDetail(long platformId, long methodId, int limit, Date fromDate, Date toDate, Comparator<? super InvocationSequenceData> comparator) {
 		IIndexQuery query = invocationDataQueryFactory.getInvocationSequences(platformId, methodId, fromDate, toDate);
 		if (null != comparator) {
-			return super.executeQuery(query, comparator, limit, false);
+			return offHeapBufferTier.restoreAll(super.executeQuery(query, comparator, limit, false));
 		} else {
-			return super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, false);
+			return offHeapBufferTier.restoreAll(super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, false));
 		}
 	}
 
@@ -144,7 +172,7 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 	@Override
 	public Collection<InvocationSequenceData> getInvocationSequenceDetail(long traceId) {
 		IIndexQuery query = invocationDataQueryFactory.getInvocationSequences(traceId);
-		return super.executeQuery(query, true);
+		return offHeapBufferTier.restoreAll(super.executeQuery(query, true));
 	}
 
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import rocks.inspectit.server.dao.SqlDataDao;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.AbstractBranch;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
@@ -48,6 +49,15 @@ public class BufferSqlDataDaoImpl extends AbstractBufferDataDao<SqlStatementData
 		return super.executeQuery(query, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR, true);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<SqlStatementData> getAggregatedSqlStatementsSince(SqlStatementData sqlStatementData, long sinceId) {
+		IIndexQuery query = sqlDataQueryFactory.getAggregatedSqlStatementsQuery(sqlStatementData, null, null);
+		return super.executeIncrementalQuery(query, sinceId, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR, null, -1, true);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
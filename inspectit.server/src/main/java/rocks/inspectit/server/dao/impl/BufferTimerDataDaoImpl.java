@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import rocks.inspectit.server.dao.TimerDataDao;
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.AbstractBranch;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
@@ -46,4 +47,13 @@ public class BufferTimerDataDaoImpl extends AbstractBufferDataDao<TimerData> imp
 		IIndexQuery query = timerDataQueryFactory.getAggregatedTimerDataQuery(timerData, fromDate, toDate);
 		return super.executeQuery(query, Aggregators.TIMER_DATA_AGGREGATOR, true);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<TimerData> getAggregatedTimerDataSince(TimerData timerData, long sinceId) {
+		IIndexQuery query = timerDataQueryFactory.getAggregatedTimerDataQuery(timerData, null, null);
+		return super.executeIncrementalQuery(query, sinceId, Aggregators.TIMER_DATA_AGGREGATOR, null, -1, true);
+	}
 }
@@ -26,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import rocks.inspectit.server.dao.DefaultDataDao;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.server.util.CacheIdGenerator;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.communication.data.HttpInfo;
@@ -57,6 +58,12 @@ public class DefaultDataDaoImpl implements DefaultDataDao {
 	// resource must be specified, otherwise all processor all plugged here
 	private List<AbstractCmrDataProcessor> cmrDataProcessors;
 
+	/**
+	 * {@link CacheIdGenerator} to mark the processing of the batches for the incremental queries.
+	 */
+	@Autowired
+	private CacheIdGenerator cacheIdGenerator;
+
 	/**
 	 * Entity manager.
 	 */
@@ -71,12 +78,15 @@ public class DefaultDataDaoImpl implements DefaultDataDao {
 	@Override
 	@Transactional
 	public void saveAll(List<? extends DefaultData> defaultDataCollection) {
+		long processingToken = cacheIdGenerator.startProcessing();
 		try {
 			for (AbstractCmrDataProcessor processor : cmrDataProcessors) {
 				processor.process(defaultDataCollection, entityManager);
 			}
 		} catch (Exception e) {
 			log.error("Error occurred trying to process the CMR data processors on the incoming data.", e);
+		} finally {
+			cacheIdGenerator.endProcessing(processingToken);
 		}
 	}
 
@@ -1,5 +1,7 @@
 package rocks.inspectit.server.dao.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.Query;
@@ -69,4 +71,34 @@ public class JmxDefinitionDataIdentDaoImpl extends AbstractJpaDao<JmxDefinitionD
 
 		return resultList;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<JmxDefinitionDataIdent> findRegistrationDataForPlatformIdent(long platformId) {
+		TypedQuery<Object[]> query = getEntityManager().createNamedQuery(JmxDefinitionDataIdent.FIND_REGISTRATION_DATA_BY_PLATFORM, Object[].class);
+		query.setParameter("platformIdentId", platformId);
+
+		List<Object[]> queryResults = query.getResultList();
+		List<JmxDefinitionDataIdent> resultList = new ArrayList<>(queryResults.size());
+		for (Object[] objects : queryResults) {
+			JmxDefinitionDataIdent jmxDefinitionDataIdent = new JmxDefinitionDataIdent();
+			jmxDefinitionDataIdent.setId(((Long) objects[0]).longValue());
+			jmxDefinitionDataIdent.setmBeanObjectName((String) objects[1]);
+			jmxDefinitionDataIdent.setmBeanAttributeName((String) objects[2]);
+			resultList.add(jmxDefinitionDataIdent);
+		}
+		return resultList;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateTimestamps(Collection<Long> ids) {
+		if (CollectionUtils.isNotEmpty(ids)) {
+			executeUpdateForIds(JmxDefinitionDataIdent.UPDATE_TIMESTAMP, ids);
+		}
+	}
 }
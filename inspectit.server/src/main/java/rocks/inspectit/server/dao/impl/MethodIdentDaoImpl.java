@@ -89,6 +89,40 @@ public class MethodIdentDaoImpl extends AbstractJpaDao<MethodIdent> implements M
 		return resultList;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<MethodIdent> findRegistrationDataForPlatformId(long platformId) {
+		TypedQuery<Object[]> query = getEntityManager().createNamedQuery(MethodIdent.FIND_REGISTRATION_DATA_BY_PLATFORM, Object[].class);
+		query.setParameter("platformIdent", platformId);
+
+		List<Object[]> queryResults = query.getResultList();
+		List<MethodIdent> resultList = new ArrayList<>(queryResults.size());
+		for (Object[] objects : queryResults) {
+			MethodIdent methodIdent = new MethodIdent();
+			methodIdent.setId((Long) objects[0]);
+			methodIdent.setPackageName((String) objects[1]);
+			methodIdent.setClassName((String) objects[2]);
+			methodIdent.setMethodName((String) objects[3]);
+			methodIdent.setParameters((List<String>) objects[4]);
+			methodIdent.setReturnType((String) objects[5]);
+			resultList.add(methodIdent);
+		}
+		return resultList;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateTimestamps(Collection<Long> ids) {
+		if (CollectionUtils.isNotEmpty(ids)) {
+			executeUpdateForIds(MethodIdent.UPDATE_TIMESTAMP, ids);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,5 +1,7 @@
 package rocks.inspectit.server.dao.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.Query;
@@ -9,7 +11,9 @@ import org.apache.commons.collections.CollectionUtils;
 import org.springframework.stereotype.Repository;
 
 import rocks.inspectit.server.dao.MethodIdentToSensorTypeDao;
+import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.MethodIdentToSensorType;
+import rocks.inspectit.shared.all.cmr.model.MethodSensorTypeIdent;
 
 /**
  * The default implementation of the {@link MethodIdentToSensorTypeDao} interface by using Entity
@@ -64,4 +68,36 @@ public class MethodIdentToSensorTypeDaoImpl extends AbstractJpaDao<MethodIdentTo
 			return null;
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<MethodIdentToSensorType> findIdsForPlatformId(long platformId) {
+		TypedQuery<Object[]> query = getEntityManager().createNamedQuery(MethodIdentToSensorType.FIND_IDS_BY_PLATFORM, Object[].class);
+		query.setParameter("platformIdent", platformId);
+
+		List<Object[]> queryResults = query.getResultList();
+		List<MethodIdentToSensorType> resultList = new ArrayList<>(queryResults.size());
+		for (Object[] objects : queryResults) {
+			MethodIdent methodIdent = new MethodIdent();
+			methodIdent.setId((Long) objects[1]);
+			MethodSensorTypeIdent methodSensorTypeIdent = new MethodSensorTypeIdent();
+			methodSensorTypeIdent.setId((Long) objects[2]);
+			MethodIdentToSensorType methodIdentToSensorType = new MethodIdentToSensorType(methodIdent, methodSensorTypeIdent, null);
+			methodIdentToSensorType.setId((Long) objects[0]);
+			resultList.add(methodIdentToSensorType);
+		}
+		return resultList;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateTimestamps(Collection<Long> ids) {
+		if (CollectionUtils.isNotEmpty(ids)) {
+			executeUpdateForIds(MethodIdentToSensorType.UPDATE_TIMESTAMP, ids);
+		}
+	}
 }
@@ -4,8 +4,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -23,8 +25,12 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import rocks.inspectit.server.dao.PlatformIdentDao;
 import rocks.inspectit.server.util.PlatformIdentCache;
+import rocks.inspectit.server.util.PlatformIdentCache.Changes;
+import rocks.inspectit.server.util.PlatformIdentCache.Snapshot;
+import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 
 /**
  * The default implementation of the {@link PlatformIdentDao} interface by using the Entity manager.
@@ -160,8 +166,17 @@ public class PlatformIdentDaoImpl extends AbstractJpaDao<PlatformIdent> implemen
 	 */
 	@Override
 	public PlatformIdent findInitialized(long id) {
-		for (PlatformIdent platformIdent : platformIdentCache.getCleanPlatformIdents()) {
-			if (platformIdent.getId().longValue() == id) {
+		Snapshot snapshot = platformIdentCache.getSnapshot(id);
+		if (null != snapshot) {
+			Changes changes = platformIdentCache.getChangesSince(id, snapshot.getVersion());
+			if (null != changes) {
+				if (changes.isEmpty()) {
+					return snapshot.getPlatformIdent();
+				}
+
+				// update the cached tree with the changed idents only
+				PlatformIdent platformIdent = loadChanges(id, changes).applyTo(snapshot.getPlatformIdent());
+				platformIdentCache.markClean(platformIdent, changes.getVersion());
 				return platformIdent;
 			}
 		}
@@ -178,6 +193,25 @@ public class PlatformIdentDaoImpl extends AbstractJpaDao<PlatformIdent> implemen
 		return null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AgentTreeDelta findInitializedChanges(long id, long sinceVersion) {
+		Changes changes = platformIdentCache.getChangesSince(id, sinceVersion);
+		if (null != changes) {
+			return loadChanges(id, changes);
+		}
+
+		// version must be read before loading, the changes done in between are sent again
+		long version = platformIdentCache.getVersion(id);
+		PlatformIdent platformIdent = findInitialized(id);
+		if (null == platformIdent) {
+			return null;
+		}
+		return new AgentTreeDelta(id, version, platformIdent);
+	}
+
 	/**
 	 * Find all initialized agents that have a id in a given set.
 	 *
@@ -254,7 +288,9 @@ public class PlatformIdentDaoImpl extends AbstractJpaDao<PlatformIdent> implemen
 		}
 
 		List<PlatformIdent> platformIdents = new ArrayList<>();
+		Map<Long, Long> versions = new HashMap<>();
 		for (Long id : ids) {
+			versions.put(id, platformIdentCache.getVersion(id));
 			PlatformIdent platformIdent = load(id);
 			if (null != platformIdent) {
 				Hibernate.initialize(platformIdent.getSensorTypeIdents());
@@ -269,8 +305,23 @@ public class PlatformIdentDaoImpl extends AbstractJpaDao<PlatformIdent> implemen
 
 		// mark all as clean
 		for (PlatformIdent platformIdent : platformIdents) {
-			platformIdentCache.markClean(platformIdent);
+			platformIdentCache.markClean(platformIdent, versions.get(platformIdent.getId()).longValue());
 		}
 		return platformIdents;
 	}
+
+	/**
+	 * Loads the changed idents of the agent.
+	 *
+	 * @param id
+	 *            ID of the agent.
+	 * @param changes
+	 *            Changes to load.
+	 * @return {@link AgentTreeDelta} holding the changed idents.
+	 */
+	private AgentTreeDelta loadChanges(long id, Changes changes) {
+		List<MethodIdent> methodIdents = executeQueryForIds(MethodIdent.FIND_INITIALIZED_BY_IDS, MethodIdent.class, changes.getMethodIdentIds());
+		List<JmxDefinitionDataIdent> jmxDefinitionDataIdents = executeQueryForIds(JmxDefinitionDataIdent.FIND_BY_IDS, JmxDefinitionDataIdent.class, changes.getJmxDefinitionDataIdentIds());
+		return new AgentTreeDelta(id, changes.getVersion(), methodIdents, jmxDefinitionDataIdents);
+	}
 }
@@ -25,6 +25,7 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import rocks.inspectit.server.cache.impl.OffHeapBufferTier;
 import rocks.inspectit.server.dao.StorageDataDao;
 import rocks.inspectit.server.util.JpaUtil;
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -69,6 +70,12 @@ public class StorageDataDaoImpl implements StorageDataDao {
 	@Autowired
 	private IBufferTreeComponent<DefaultData> indexingTree;
 
+	/**
+	 * Off-heap tier to restore the invocation children from.
+	 */
+	@Autowired
+	private OffHeapBufferTier offHeapBufferTier;
+
 	/**
 	 * Entity manager.
 	 */
@@ -221,7 +228,7 @@ public class StorageDataDaoImpl implements StorageDataDao {
 		}
 		List<DefaultData> bufferData = indexingTree.query(query);
 		if (CollectionUtils.isNotEmpty(bufferData)) {
-			results.addAll(bufferData);
+			results.addAll(offHeapBufferTier.restoreAll(bufferData));
 		}
 
 		// then load all System sensor data from DB
@@ -266,7 +273,7 @@ public class StorageDataDaoImpl implements StorageDataDao {
 		IIndexQuery query = indexQueryProvider.createNewIndexQuery();
 		query.addIndexingRestriction(IndexQueryRestrictionFactory.isInCollection("id", elementIds));
 		query.setPlatformIdent(platformIdent);
-		return indexingTree.query(query);
+		return offHeapBufferTier.restoreAll(indexingTree.query(query));
 	}
 
 	/**
@@ -278,7 +285,7 @@ public class StorageDataDaoImpl implements StorageDataDao {
 		List<Class<?>> objectClasses = Arrays.asList(new Class<?>[] { InvocationSequenceData.class, ClientSpan.class, ServerSpan.class });
 		query.setObjectClasses(objectClasses);
 		query.addIndexingRestriction(IndexQueryRestrictionFactory.isInCollection("spanIdent.traceId", traceIds));
-		return indexingTree.query(query);
+		return offHeapBufferTier.restoreAll(indexingTree.query(query));
 	}
 
 	/**
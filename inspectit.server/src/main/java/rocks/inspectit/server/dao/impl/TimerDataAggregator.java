@@ -13,11 +13,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import rocks.inspectit.shared.all.communication.data.DatabaseAggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
@@ -80,7 +83,9 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	private TimerDataAggregatorCacheCleaner timerDataAggregatorCacheCleaner;
 
 	/**
-	 * Transaction template to use to do save work due to cache cleaner.
+	 * Transaction template to use to do save work due to cache cleaner. Always starts a new
+	 * transaction, as the aggregation can be triggered from the completion of the CMR processing
+	 * transaction, where joining the finished transaction would silently lose the persisted data.
 	 */
 	private TransactionTemplate tt;
 
@@ -100,6 +105,7 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 		persistAllLock = new ReentrantLock();
 
 		this.tt = new TransactionTemplate(transactionManager);
+		this.tt.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 	}
 
 	/**
@@ -110,16 +116,51 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 *            {@link TimerData} that holds values to be aggregated.
 	 */
 	public void processTimerData(TimerData timerData) {
+		aggregate(timerData, null);
+	}
+
+	/**
+	 * Aggregates the {@link HttpTimerData} object with all other HTTP timer data in the same period
+	 * that belong to the same {@link HttpInfo} and updates the cache. Note that the given object
+	 * will not be modified by this method.
+	 *
+	 * @param httpTimerData
+	 *            {@link HttpTimerData} that holds values to be aggregated.
+	 * @param httpInfo
+	 *            Already persisted {@link HttpInfo} the aggregated data should be bound to.
+	 */
+	public void processHttpTimerData(HttpTimerData httpTimerData, HttpInfo httpInfo) {
+		aggregate(httpTimerData, httpInfo);
+	}
+
+	/**
+	 * Aggregates the {@link TimerData} object and updates the cache.
+	 *
+	 * @param timerData
+	 *            {@link TimerData} that holds values to be aggregated.
+	 * @param httpInfo
+	 *            Persisted {@link HttpInfo} when aggregating HTTP timer data, otherwise
+	 *            <code>null</code>.
+	 */
+	private void aggregate(TimerData timerData, HttpInfo httpInfo) {
 		long aggregationTimestamp = getAlteredTimestamp(timerData);
-		int cacheHash = getCacheHash(timerData.getPlatformIdent(), timerData.getMethodIdent(), aggregationTimestamp);
+		long httpInfoId = (null != httpInfo) ? httpInfo.getId() : 0L;
+		int cacheHash = getCacheHash(timerData.getPlatformIdent(), timerData.getMethodIdent(), httpInfoId, aggregationTimestamp);
 
 		persistAllLock.lock();
 		try {
 			TimerData aggTimerData = map.get(cacheHash);
 			if (aggTimerData == null) {
-				// we create a DB aggregated timer data because we don't want to alter objects that
+				// we create a new aggregated timer data because we don't want to alter objects that
 				// are in the memory
-				aggTimerData = new DatabaseAggregatedTimerData(new Timestamp(aggregationTimestamp), timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent());
+				Timestamp timestamp = new Timestamp(aggregationTimestamp);
+				if (null != httpInfo) {
+					HttpTimerData aggHttpTimerData = new HttpTimerData(timestamp, timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent());
+					aggHttpTimerData.setHttpInfo(httpInfo);
+					aggTimerData = aggHttpTimerData;
+				} else {
+					aggTimerData = new DatabaseAggregatedTimerData(timestamp, timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent());
+				}
 				map.put(cacheHash, aggTimerData);
 				queue.add(aggTimerData);
 
@@ -133,7 +174,7 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 				while (maxElements < count) {
 					TimerData oldest = queue.poll();
 					if (null != oldest) {
-						map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
+						map.remove(getCacheHash(oldest));
 						persistList.add(oldest);
 						count = elementCount.decrementAndGet();
 					}
@@ -157,8 +198,8 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 					protected void doInTransactionWithoutResult(TransactionStatus status) {
 						TimerData oldest = queue.poll();
 						while (oldest != null) {
-							map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
-							TimerDataAggregator.super.create(oldest);
+							map.remove(getCacheHash(oldest));
+							persist(oldest);
 							elementCount.decrementAndGet();
 
 							oldest = queue.poll();
@@ -181,7 +222,7 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 				protected void doInTransactionWithoutResult(TransactionStatus status) {
 					TimerData last = persistList.poll();
 					while (last != null) {
-						TimerDataAggregator.super.create(last);
+						persist(last);
 						last = persistList.poll();
 					}
 				}
@@ -189,6 +230,34 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 		}
 	}
 
+	/**
+	 * Persists the aggregated {@link TimerData}. The {@link HttpInfo} of the aggregated HTTP timer
+	 * data is detached, thus it's replaced with the reference valid in the current persistence
+	 * context.
+	 *
+	 * @param aggTimerData
+	 *            Aggregated {@link TimerData}.
+	 */
+	private void persist(TimerData aggTimerData) {
+		if (aggTimerData instanceof HttpTimerData) {
+			HttpTimerData aggHttpTimerData = (HttpTimerData) aggTimerData;
+			aggHttpTimerData.setHttpInfo(getEntityManager().getReference(HttpInfo.class, aggHttpTimerData.getHttpInfo().getId()));
+		}
+		super.create(aggTimerData);
+	}
+
+	/**
+	 * Returns the cache hash code of the already aggregated {@link TimerData}.
+	 *
+	 * @param aggTimerData
+	 *            Aggregated {@link TimerData}.
+	 * @return Cache hash for the given aggregated object.
+	 */
+	private int getCacheHash(TimerData aggTimerData) {
+		long httpInfoId = (aggTimerData instanceof HttpTimerData) ? ((HttpTimerData) aggTimerData).getHttpInfo().getId() : 0L;
+		return getCacheHash(aggTimerData.getPlatformIdent(), aggTimerData.getMethodIdent(), httpInfoId, aggTimerData.getTimeStamp().getTime());
+	}
+
 	/**
 	 * Returns the cache hash code.
 	 *
@@ -196,15 +265,18 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 *            Platform ident.
 	 * @param methodIdent
 	 *            Method ident.
+	 * @param httpInfoId
+	 *            Id of the {@link HttpInfo} or <code>0</code> for non HTTP timer data.
 	 * @param timestampValue
 	 *            Time stamp value as long.
 	 * @return Cache hash for the given set of values.
 	 */
-	private int getCacheHash(long platformIdent, long methodIdent, long timestampValue) {
+	private int getCacheHash(long platformIdent, long methodIdent, long httpInfoId, long timestampValue) {
 		final int prime = 31;
 		int result = 0;
 		result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
 		result = (prime * result) + (int) (methodIdent ^ (methodIdent >>> 32));
+		result = (prime * result) + (int) (httpInfoId ^ (httpInfoId >>> 32));
 		result = (prime * result) + (int) (timestampValue ^ (timestampValue >>> 32));
 		return result;
 	}
@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -202,14 +201,7 @@ public class NextGenInstrumentationManager implements ApplicationListener<AgentD
 		executor.submit(new Runnable() {
 			@Override
 			public void run() {
-				for (Entry<Long, long[]> entry : methodToSensorMap.entrySet()) {
-					long methodId = entry.getKey().longValue();
-					long[] sensorIds = entry.getValue();
-
-					for (long sensorID : sensorIds) {
-						registrationService.addSensorTypeToMethod(platformId, sensorID, methodId);
-					}
-				}
+				registrationService.addSensorTypesToMethods(platformId, methodToSensorMap);
 			}
 		});
 	}
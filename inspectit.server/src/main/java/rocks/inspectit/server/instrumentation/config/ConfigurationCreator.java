@@ -130,6 +130,9 @@ public class ConfigurationCreator {
 		// retransformation strategy
 		agentConfiguration.setRetransformationStrategy(environment.getRetransformationStrategy());
 
+		// overhead budget
+		agentConfiguration.setMethodOverheadBudget(environment.getMethodOverheadBudget());
+
 		// exclude classes
 		Collection<ExcludeRule> excludeRules = configurationResolver.getAllExcludeRules(environment);
 		if (CollectionUtils.isNotEmpty(excludeRules)) {
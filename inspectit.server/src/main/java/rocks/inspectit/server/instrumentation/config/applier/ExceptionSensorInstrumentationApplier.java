@@ -84,6 +84,9 @@ public class ExceptionSensorInstrumentationApplier extends AbstractSensorInstrum
 		// set to rsc
 		sensorInstrumentationPoint.addSensorId(sensorId, exceptionSensorTypeConfig.getPriority());
 
+		// exception sensor hook needs the created throwable
+		sensorInstrumentationPoint.addFullAccess();
+
 		// add all settings
 		sensorInstrumentationPoint.addSettings(exceptionSensorAssignment.getSettings());
 	}
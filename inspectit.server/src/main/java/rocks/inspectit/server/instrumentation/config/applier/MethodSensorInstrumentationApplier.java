@@ -78,31 +78,20 @@ public class MethodSensorInstrumentationApplier extends AbstractSensorInstrument
 	 */
 	protected void applyAssignment(AgentConfig agentConfiguration, SensorInstrumentationPoint sensorInstrumentationPoint) {
 		// first deal with sensor id
-		MethodSensorTypeConfig methodSensorTypeConfig = getSensorTypeConfigFromConfiguration(agentConfiguration, environment, methodSensorAssignment);
+		IMethodSensorConfig methodSensorConfig = environment.getMethodSensorTypeConfig(methodSensorAssignment.getSensorConfigClass());
+		MethodSensorTypeConfig methodSensorTypeConfig = agentConfiguration.getMethodSensorTypeConfig(methodSensorConfig.getClassName());
 		long sensorId = methodSensorTypeConfig.getId();
 
 		// set to rsc
 		sensorInstrumentationPoint.addSensorId(sensorId, methodSensorTypeConfig.getPriority());
 
+		// mark the method data as needed if the sensor hook reads it
+		if (methodSensorConfig.isCallContextAccess()) {
+			sensorInstrumentationPoint.addFullAccess();
+		}
+
 		// add all settings
 		sensorInstrumentationPoint.addSettings(methodSensorAssignment.getSettings());
 	}
 
-	/**
-	 * Finds the proper sensor id from the agent configuration and the environment used for the
-	 * {@link MethodSensorAssignment}.
-	 *
-	 * @param agentConfiguration
-	 *            {@link AgentConfig}
-	 * @param environment
-	 *            {@link Environment}
-	 * @param assignment
-	 *            {@link MethodSensorAssignment}
-	 * @return {@link MethodSensorTypeConfig} for the given assignment.
-	 */
-	private MethodSensorTypeConfig getSensorTypeConfigFromConfiguration(AgentConfig agentConfiguration, Environment environment, MethodSensorAssignment assignment) {
-		IMethodSensorConfig methodSensorConfig = environment.getMethodSensorTypeConfig(assignment.getSensorConfigClass());
-		return agentConfiguration.getMethodSensorTypeConfig(methodSensorConfig.getClassName());
-	}
-
 }
@@ -1,24 +1,34 @@
 package rocks.inspectit.server.processor.impl;
 
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.google.common.cache.CacheBuilder;
 
-import rocks.inspectit.server.dao.impl.BufferSpanDaoImpl;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.eum.AbstractEUMSpanDetails;
 import rocks.inspectit.shared.all.communication.data.eum.EUMSpan;
 import rocks.inspectit.shared.all.communication.data.eum.PageLoadRequest;
 import rocks.inspectit.shared.all.tracing.data.AbstractSpan;
+import rocks.inspectit.shared.all.tracing.data.PropagationType;
 import rocks.inspectit.shared.all.tracing.data.SpanIdent;
 
 /**
- * Processor responsible for correlating existing back-end traces in the buffer.
+ * Processor responsible for correlating EUM page load spans with their back-end traces.
+ * <p>
+ * The page load span and the back-end root span can arrive in any order. Whichever arrives first
+ * registers itself in its correlation table keyed by the trace id, the other one completes the
+ * link when it passes the processor. Only the root spans of the HTTP requests served by the
+ * back-end can be the counterpart of a page load, thus no other spans are registered. Page load
+ * spans and back-end spans are kept in separate tables, so that the many back-end requests never
+ * displace the waiting page loads. Both tables are bounded in number and the entries expire after
+ * a while.
  *
  * @author Jonas Kunz
  *
@@ -26,42 +36,68 @@ import rocks.inspectit.shared.all.tracing.data.SpanIdent;
 public class EUMCorrelationCmrProcessor extends AbstractCmrDataProcessor {
 
 	/**
-	 * {@link BufferSpanDaoImpl}.
+	 * Maximum number of spans of one kind waiting for the counterpart.
+	 */
+	@Value("${cmr.eumCorrelationMaxPending}")
+	long maxPending;
+
+	/**
+	 * Time in milliseconds a span waits for the counterpart.
+	 */
+	@Value("${cmr.eumCorrelationExpiration}")
+	long expiration;
+
+	/**
+	 * Span ids of the page load spans waiting for the back-end span, keyed by the trace id.
 	 */
-	@Autowired
-	private BufferSpanDaoImpl spanDao;
+	private ConcurrentMap<Long, Long> pendingPageLoads;
 
 	/**
-	 * Scheduled executor used for scheduling the Span correlation due to asynchronous indexing and
-	 * adding data to the buffer.
+	 * Back-end root spans waiting for the page load span, keyed by the trace id.
 	 */
-	@Qualifier("scheduledExecutorService")
-	@Autowired
-	private ScheduledExecutorService scheduledExecutor;
+	private ConcurrentMap<Long, AbstractSpan> pendingBackEndSpans;
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Each side first registers itself and then looks for the counterpart, thus two spans
+	 * arriving concurrently can not miss each other.
 	 */
 	@Override
 	protected void processData(DefaultData data, EntityManager entityManager) {
 		if (data instanceof EUMSpan) {
-			EUMSpan frontEndSpan = (EUMSpan) data;
-			AbstractEUMSpanDetails details = frontEndSpan.getDetails();
-			if (details instanceof PageLoadRequest) {
-				long traceId = frontEndSpan.getSpanIdent().getTraceId();
-				long eumSpanId = frontEndSpan.getSpanIdent().getId();
-				// if the ids are equal no correlation takes place, e.g. because the html was
-				// cached.
-				if (traceId != eumSpanId) {
-					EumSpanCorrelationTask correlationTask = new EumSpanCorrelationTask(traceId, eumSpanId);
-					correlationTask.schedule(true);
+			SpanIdent spanIdent = ((EUMSpan) data).getSpanIdent();
+			long traceId = spanIdent.getTraceId();
+			long eumSpanId = spanIdent.getId();
+			// if the ids are equal no correlation takes place, e.g. because the html was
+			// cached.
+			if (traceId != eumSpanId) {
+				Long traceIdObject = Long.valueOf(traceId);
+				Long eumSpanIdObject = Long.valueOf(eumSpanId);
+				pendingPageLoads.put(traceIdObject, eumSpanIdObject);
+				AbstractSpan backEndSpan = pendingBackEndSpans.remove(traceIdObject);
+				if (null != backEndSpan) {
+					pendingPageLoads.remove(traceIdObject, eumSpanIdObject);
+					backEndSpan.setParentSpanId(eumSpanId);
 				}
 			}
+		} else {
+			AbstractSpan backEndSpan = (AbstractSpan) data;
+			Long traceIdObject = Long.valueOf(backEndSpan.getSpanIdent().getTraceId());
+			pendingBackEndSpans.put(traceIdObject, backEndSpan);
+			Long eumSpanId = pendingPageLoads.remove(traceIdObject);
+			if (null != eumSpanId) {
+				pendingBackEndSpans.remove(traceIdObject, backEndSpan);
+				backEndSpan.setParentSpanId(eumSpanId.longValue());
+			}
 		}
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Processes the page load {@link EUMSpan}s and the back-end root spans of the HTTP requests
+	 * that started the trace.
 	 */
 	@Override
 	public boolean canBeProcessed(DefaultData data) {
@@ -70,83 +106,21 @@ public class EUMCorrelationCmrProcessor extends AbstractCmrDataProcessor {
 			if (details instanceof PageLoadRequest) {
 				return true;
 			}
+		} else if (data instanceof AbstractSpan) {
+			AbstractSpan span = (AbstractSpan) data;
+			SpanIdent spanIdent = span.getSpanIdent();
+			return span.isRoot() && !span.isCaller() && (PropagationType.HTTP == span.getPropagationType()) && (null != spanIdent) && (spanIdent.getId() == spanIdent.getTraceId());
 		}
 		return false;
 	}
 
 	/**
-	 * Recurring task to correlate EUM Pageload requests with their back end span. Reoccuring
-	 * because the updating of the buffer happens async and we don't know hen which span arrives in
-	 * the CMR.
-	 *
-	 * @author Jonas Kunz
-	 *
+	 * Creates the correlation tables.
 	 */
-	private class EumSpanCorrelationTask implements Runnable {
-
-		/**
-		 * Number of seconds to wait between trials of correlation.
-		 */
-		private static final int NUMBER_OF_SECONDS_BETWEEN_TRIALS = 3;
-
-		/**
-		 * The number of retrials until the correlation is aborted for this trace.
-		 */
-		private int retrialsLeft = 20;
-
-		/**
-		 * The trace (and span)-id of the back end trace to correlate.
-		 */
-		private long traceId;
-
-		/**
-		 * The span ID of the EUM span to correlate.
-		 */
-		private long eumSpanId;
-
-		/**
-		 * Constructor. Does not schedule the task.
-		 *
-		 * @param traceId
-		 *            the traceId of the span to correlate
-		 * @param eumSpanId
-		 *            the spanId of the front-end span
-		 */
-		EumSpanCorrelationTask(long traceId, long eumSpanId) {
-			this.traceId = traceId;
-			this.eumSpanId = eumSpanId;
-		}
-
-		/**
-		 * Schedules another trial for correlation.
-		 *
-		 * @param immediate
-		 *            true if the attempt should be run immediately
-		 */
-		void schedule(boolean immediate) {
-			if (retrialsLeft > 0) {
-				retrialsLeft--;
-				scheduledExecutor.schedule(this, immediate ? 0 : NUMBER_OF_SECONDS_BETWEEN_TRIALS, TimeUnit.SECONDS);
-			}
-		}
-
-		@Override
-		public void run() {
-			boolean reschedule = true;
-			try {
-				SpanIdent backEndSpanIdent = new SpanIdent(traceId, traceId);
-				AbstractSpan backEndSpan = spanDao.get(backEndSpanIdent);
-				if (backEndSpan != null) {
-					backEndSpan.setParentSpanId(eumSpanId);
-					reschedule = false;
-				}
-			} finally {
-				if (reschedule) {
-					schedule(false); // retry later
-				}
-			}
-		}
-
+	@PostConstruct
+	public void postConstruct() {
+		pendingPageLoads = CacheBuilder.newBuilder().maximumSize(maxPending).expireAfterWrite(expiration, TimeUnit.MILLISECONDS).<Long, Long> build().asMap();
+		pendingBackEndSpans = CacheBuilder.newBuilder().maximumSize(maxPending).expireAfterWrite(expiration, TimeUnit.MILLISECONDS).<Long, AbstractSpan> build().asMap();
 	}
 
 }
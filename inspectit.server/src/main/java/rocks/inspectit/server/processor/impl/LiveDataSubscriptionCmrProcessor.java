@@ -0,0 +1,65 @@
+package rocks.inspectit.server.processor.impl;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.server.subscription.LiveDataSubscriptionManager;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationAwareData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * Processor that passes the new data to the live data subscriptions. Passes the same elements
+ * that are inserted to the buffer or directly indexed, thus the subscriptions receive the data the
+ * clients would otherwise query.
+ *
+ * @author agent
+ *
+ */
+public class LiveDataSubscriptionCmrProcessor extends AbstractCmrDataProcessor {
+
+	/**
+	 * {@link LiveDataSubscriptionManager}.
+	 */
+	@Autowired
+	LiveDataSubscriptionManager liveDataSubscriptionManager;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void processData(DefaultData defaultData, EntityManager entityManager) {
+		liveDataSubscriptionManager.publish(defaultData);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean canBeProcessed(DefaultData defaultData) {
+		if ((null == defaultData) || !liveDataSubscriptionManager.hasSubscriptions()) {
+			return false;
+		} else if (defaultData instanceof InvocationSequenceData) {
+			// only root invocations
+			return null == ((InvocationSequenceData) defaultData).getParentSequence();
+		} else if (defaultData instanceof InvocationAwareData) {
+			InvocationAwareData invocationAwareData = (InvocationAwareData) defaultData;
+			return invocationAwareData.isOnlyFoundOutsideInvocations() || invocationAwareData.isOnlyFoundInInvocations();
+		}
+		return defaultData instanceof MethodSensorData;
+	}
+
+	/**
+	 * Sets {@link #liveDataSubscriptionManager}.
+	 *
+	 * @param liveDataSubscriptionManager
+	 *            New value for {@link #liveDataSubscriptionManager}
+	 */
+	public void setLiveDataSubscriptionManager(LiveDataSubscriptionManager liveDataSubscriptionManager) {
+		this.liveDataSubscriptionManager = liveDataSubscriptionManager;
+	}
+
+}
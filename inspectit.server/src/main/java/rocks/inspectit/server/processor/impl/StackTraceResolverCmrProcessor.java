@@ -0,0 +1,329 @@
+package rocks.inspectit.server.processor.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.springframework.context.ApplicationListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * Processor that resolves the fingerprinted stack traces of the {@link ExceptionSensorData}. The
+ * agent sends the stack trace text of a fingerprint only with the first occurrence, thus the text
+ * is remembered per platform and set to all later occurrences. The text sent by the agent does not
+ * include the line describing the throwable and the messages of the causes, so these are added
+ * from the throwable type, error message and cause messages of each data object.
+ * <p>
+ * The texts are kept in a bounded cache and expire when not used. The agent sends the text again
+ * at least every five minutes, thus an evicted text is known again soon. Data received before
+ * the text of its fingerprint, because the text was evicted or because the batches were decoded
+ * out of order, is kept and resolved as soon as the text arrives.
+ * <p>
+ * Must be executed before any processor that stores or indexes the data, so that consumers of the
+ * {@link ExceptionSensorData} always get the complete stack trace.
+ *
+ * @author agent
+ *
+ */
+public class StackTraceResolverCmrProcessor extends AbstractCmrDataProcessor implements ApplicationListener<AgentDeletedEvent> {
+
+	/**
+	 * Maximum amount of stack trace texts kept for all platforms.
+	 */
+	private static final int MAX_STACK_TRACES = 50000;
+
+	/**
+	 * Time in minutes a stack trace text is kept after its last use.
+	 */
+	private static final int STACK_TRACE_EXPIRATION = 15;
+
+	/**
+	 * Maximum amount of fingerprints with data waiting for the text.
+	 */
+	private static final int MAX_UNRESOLVED_FINGERPRINTS = 10000;
+
+	/**
+	 * Maximum amount of data waiting for the text of one fingerprint. Later data is not resolved
+	 * if the text is not known.
+	 */
+	private static final int MAX_UNRESOLVED_PER_FINGERPRINT = 100;
+
+	/**
+	 * Time in minutes the data waits for the text. Slightly longer than the interval the agent
+	 * sends the text again with.
+	 */
+	private static final int UNRESOLVED_EXPIRATION = 6;
+
+	/**
+	 * Stack trace texts keyed by the platform and fingerprint.
+	 */
+	private final Cache<FingerprintKey, String> stackTraces = CacheBuilder.newBuilder().maximumSize(MAX_STACK_TRACES).expireAfterAccess(STACK_TRACE_EXPIRATION, TimeUnit.MINUTES).build();
+
+	/**
+	 * Data waiting for the stack trace text, keyed by the platform and fingerprint.
+	 */
+	private final Cache<FingerprintKey, List<ExceptionSensorData>> unresolved = CacheBuilder.newBuilder().maximumSize(MAX_UNRESOLVED_FINGERPRINTS)
+			.expireAfterWrite(UNRESOLVED_EXPIRATION, TimeUnit.MINUTES).build();
+
+	/**
+	 * Lock for registering the texts and the unresolved data, so that the data can not be added
+	 * after the text was registered and the waiting data resolved.
+	 */
+	private final Object unresolvedLock = new Object();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void processData(DefaultData defaultData, EntityManager entityManager) {
+		if (defaultData instanceof InvocationSequenceData) {
+			resolveInInvocation((InvocationSequenceData) defaultData);
+		} else {
+			resolve((ExceptionSensorData) defaultData);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean canBeProcessed(DefaultData defaultData) {
+		return (defaultData instanceof ExceptionSensorData) || (defaultData instanceof InvocationSequenceData);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onApplicationEvent(AgentDeletedEvent event) {
+		long platformId = event.getPlatformId();
+		removePlatform(stackTraces.asMap().keySet().iterator(), platformId);
+		removePlatform(unresolved.asMap().keySet().iterator(), platformId);
+	}
+
+	/**
+	 * Removes all keys of the platform.
+	 *
+	 * @param iterator
+	 *            Iterator over the keys.
+	 * @param platformId
+	 *            ID of the platform ident.
+	 */
+	private void removePlatform(Iterator<FingerprintKey> iterator, long platformId) {
+		while (iterator.hasNext()) {
+			if (iterator.next().platformIdent == platformId) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Resolves the stack traces of all exceptions in the invocation and its nested sequences.
+	 *
+	 * @param invocation
+	 *            Invocation to process.
+	 */
+	private void resolveInInvocation(InvocationSequenceData invocation) {
+		if (CollectionUtils.isNotEmpty(invocation.getExceptionSensorDataObjects())) {
+			for (ExceptionSensorData exceptionSensorData : invocation.getExceptionSensorDataObjects()) {
+				resolve(exceptionSensorData);
+			}
+		}
+		if (CollectionUtils.isNotEmpty(invocation.getNestedSequences())) {
+			for (InvocationSequenceData nested : invocation.getNestedSequences()) {
+				resolveInInvocation(nested);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the stack trace of the given exception data if it's fingerprinted. If the data
+	 * carries the stack trace text, the text is registered for the fingerprint and the data
+	 * waiting for it is resolved. If the text is not known, the data gets the stack trace without
+	 * the frames until the text arrives.
+	 *
+	 * @param exceptionSensorData
+	 *            Data to resolve.
+	 */
+	private void resolve(ExceptionSensorData exceptionSensorData) {
+		long fingerprint = exceptionSensorData.getStackTraceFingerprint();
+		if (0 == fingerprint) {
+			return;
+		}
+
+		FingerprintKey key = new FingerprintKey(exceptionSensorData.getPlatformIdent(), fingerprint);
+		String stackTrace = exceptionSensorData.getStackTrace();
+		if (null != stackTrace) {
+			List<ExceptionSensorData> waiting;
+			synchronized (unresolvedLock) {
+				stackTraces.put(key, stackTrace);
+				waiting = unresolved.asMap().remove(key);
+			}
+			exceptionSensorData.setStackTrace(buildStackTrace(exceptionSensorData, stackTrace));
+			if (null != waiting) {
+				synchronized (waiting) {
+					for (ExceptionSensorData waitingData : waiting) {
+						waitingData.setStackTrace(buildStackTrace(waitingData, stackTrace));
+					}
+				}
+			}
+			return;
+		}
+
+		stackTrace = stackTraces.getIfPresent(key);
+		if (null == stackTrace) {
+			synchronized (unresolvedLock) {
+				stackTrace = stackTraces.getIfPresent(key);
+				if (null == stackTrace) {
+					addUnresolved(key, exceptionSensorData);
+				}
+			}
+		}
+		exceptionSensorData.setStackTrace(buildStackTrace(exceptionSensorData, stackTrace));
+	}
+
+	/**
+	 * Adds the data to the list of data waiting for the text of the fingerprint. Must be called
+	 * holding the {@link #unresolvedLock}.
+	 *
+	 * @param key
+	 *            Platform and fingerprint.
+	 * @param exceptionSensorData
+	 *            Data to add.
+	 */
+	private void addUnresolved(FingerprintKey key, ExceptionSensorData exceptionSensorData) {
+		List<ExceptionSensorData> waiting = unresolved.getIfPresent(key);
+		if (null == waiting) {
+			waiting = new ArrayList<>();
+			unresolved.put(key, waiting);
+		}
+		synchronized (waiting) {
+			if (waiting.size() < MAX_UNRESOLVED_PER_FINGERPRINT) {
+				waiting.add(exceptionSensorData);
+			}
+		}
+	}
+
+	/**
+	 * Builds the stack trace of the data. The first line describes the throwable, the message of
+	 * each cause is added to the line describing the cause in the text.
+	 *
+	 * @param exceptionSensorData
+	 *            Data to build the stack trace for.
+	 * @param stackTrace
+	 *            Stack trace text of the fingerprint, can be <code>null</code> if not known.
+	 * @return Stack trace.
+	 */
+	private static String buildStackTrace(ExceptionSensorData exceptionSensorData, String stackTrace) {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(exceptionSensorData.getThrowableType());
+		if (null != exceptionSensorData.getErrorMessage()) {
+			stringBuilder.append(": ").append(exceptionSensorData.getErrorMessage());
+		}
+		if (null == stackTrace) {
+			return stringBuilder.toString();
+		}
+
+		List<String> causeMessages = exceptionSensorData.getCauseMessages();
+		if (CollectionUtils.isEmpty(causeMessages)) {
+			return stringBuilder.append(stackTrace).toString();
+		}
+
+		// cause lines are the only ones starting with the prefix, frames start with a tab
+		String causePrefix = "Caused by: ";
+		int position = 0;
+		int cause = 0;
+		int causeStart = stackTrace.indexOf(causePrefix);
+		while ((causeStart >= 0) && (cause < causeMessages.size())) {
+			int lineEnd = causeStart;
+			while ((lineEnd < stackTrace.length()) && (stackTrace.charAt(lineEnd) != '\n') && (stackTrace.charAt(lineEnd) != '\r')) {
+				lineEnd++;
+			}
+			stringBuilder.append(stackTrace, position, lineEnd);
+			String causeMessage = causeMessages.get(cause);
+			if (null != causeMessage) {
+				stringBuilder.append(": ").append(causeMessage);
+			}
+			position = lineEnd;
+			cause++;
+			causeStart = stackTrace.indexOf(causePrefix, lineEnd);
+		}
+		stringBuilder.append(stackTrace, position, stackTrace.length());
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Key of the stack trace text, the fingerprint of the platform.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class FingerprintKey {
+
+		/**
+		 * ID of the platform ident.
+		 */
+		private final long platformIdent;
+
+		/**
+		 * Fingerprint.
+		 */
+		private final long fingerprint;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param platformIdent
+		 *            ID of the platform ident.
+		 * @param fingerprint
+		 *            Fingerprint.
+		 */
+		FingerprintKey(long platformIdent, long fingerprint) {
+			this.platformIdent = platformIdent;
+			this.fingerprint = fingerprint;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + (int) (fingerprint ^ (fingerprint >>> 32));
+			result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			FingerprintKey other = (FingerprintKey) obj;
+			return (fingerprint == other.fingerprint) && (platformIdent == other.platformIdent);
+		}
+	}
+
+}
@@ -1,6 +1,9 @@
 package rocks.inspectit.server.processor.impl;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
@@ -10,9 +13,13 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import rocks.inspectit.server.dao.impl.TimerDataAggregator;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
@@ -20,26 +27,18 @@ import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.HttpInfo;
 import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
-import rocks.inspectit.shared.all.serializer.SerializationException;
-import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
-import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
-import rocks.inspectit.shared.all.spring.logger.Log;
 
 /**
  * Processor that saves {@link TimerData} or {@link HttpTimerData} to database correctly if the
- * charting is on.
+ * charting is on. Both are aggregated by the {@link TimerDataAggregator}, where the
+ * {@link HttpTimerData} is aggregated per persisted {@link HttpInfo}. The persisted infos are
+ * cached only once committed, so that the database is not queried for every HTTP timer data.
  *
  * @author Ivan Senic
  *
  */
 public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 
-	/**
-	 * Log for this class.
-	 */
-	@Log
-	Logger log;
-
 	/**
 	 * {@link TimerDataAggregator} for {@link TimerData} aggregation.
 	 */
@@ -47,10 +46,10 @@ public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 	TimerDataAggregator timerDataAggregator;
 
 	/**
-	 * Serialization manager provider for getting the {@link SerializationManager}.
+	 * Maximum amount of persisted {@link HttpInfo}s to cache.
 	 */
-	@Autowired
-	private SerializationManagerProvider serializationManagerProvider;
+	@Value("${cmr.httpInfoCacheSize}")
+	long httpInfoCacheSize;
 
 	/**
 	 * If writing to the influxDB is active. In that case we will not persist anything to the
@@ -60,9 +59,14 @@ public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 	boolean influxActive;
 
 	/**
-	 * {@link SerializationManager} for cloning.
+	 * Cache of the persisted {@link HttpInfo}s.
 	 */
-	SerializationManager serializationManager;
+	private Cache<HttpInfoKey, HttpInfo> httpInfoCache;
+
+	/**
+	 * Creations of the {@link HttpInfo}s that are not completed yet.
+	 */
+	private final ConcurrentHashMap<HttpInfoKey, PendingHttpInfo> pendingHttpInfos = new ConcurrentHashMap<>();
 
 	/**
 	 * {@inheritDoc}
@@ -70,15 +74,7 @@ public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 	@Override
 	protected void processData(DefaultData defaultData, EntityManager entityManager) {
 		if (defaultData instanceof HttpTimerData) {
-			try {
-				HttpTimerData original = (HttpTimerData) defaultData;
-				HttpInfo httpInfo = getHttpInfo(original, entityManager);
-				HttpTimerData clone = getClone(original);
-				clone.setHttpInfo(httpInfo);
-				entityManager.persist(clone);
-			} catch (SerializationException e) {
-				log.warn("TimerDataChartingCmrProcessor failed to clone the given HttpTimerData", e);
-			}
+			processHttpTimerData((HttpTimerData) defaultData, entityManager);
 		} else {
 			timerDataAggregator.processTimerData((TimerData) defaultData);
 		}
@@ -93,50 +89,129 @@ public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 	}
 
 	/**
-	 * Creates the cloned {@link HttpTimerData} by using the kryo and {@link #serializationManager}.
-	 * Sets id of the clone to zero.
+	 * Passes the {@link HttpTimerData} to the aggregator together with the persisted
+	 * {@link HttpInfo}. If the info is not cached, the processing thread claims the creation of the
+	 * info for the key, so that concurrent batches never persist the same info twice. The data of
+	 * other threads or of the same transaction needing the info in the meantime waits for the
+	 * creation to complete.
 	 *
-	 * @param original
-	 *            Data to be cloned.
-	 * @return Cloned {@link HttpTimerData} with id zero.
-	 * @throws SerializationException
-	 *             If serialization fails.
+	 * @param httpTimerData
+	 *            {@link HttpTimerData} to process.
+	 * @param entityManager
+	 *            EntityManager
 	 */
-	private synchronized HttpTimerData getClone(HttpTimerData original) throws SerializationException {
-		HttpTimerData httpTimerData = serializationManager.copy(original);
-		httpTimerData.setId(0L);
-		return httpTimerData;
+	private void processHttpTimerData(HttpTimerData httpTimerData, EntityManager entityManager) {
+		HttpInfoKey key = new HttpInfoKey(httpTimerData.getHttpInfo());
+		while (true) {
+			HttpInfo httpInfo = httpInfoCache.getIfPresent(key);
+			if (null != httpInfo) {
+				timerDataAggregator.processHttpTimerData(httpTimerData, httpInfo);
+				return;
+			}
+
+			PendingHttpInfo pending = new PendingHttpInfo(httpTimerData);
+			PendingHttpInfo existing = pendingHttpInfos.putIfAbsent(key, pending);
+			if (null == existing) {
+				createHttpInfo(key, pending, entityManager);
+				return;
+			}
+			if (existing.addWaiting(httpTimerData)) {
+				return;
+			}
+			// creation completed in the meantime, cache is checked again
+		}
 	}
 
 	/**
-	 * Find {@link HttpInfo} to attach to {@link HttpTimerData} when saving.
+	 * Loads or persists the {@link HttpInfo} for the claimed key. A loaded info is committed and
+	 * thus cached immediately. A persisted info is cached and used for the aggregation only once
+	 * the current transaction commits, so that the aggregated data never references the info
+	 * that does not exist in the database.
 	 *
-	 * @param httpTimerData
-	 *            {@link HttpTimerData} to find info for.
+	 * @param key
+	 *            Claimed key.
+	 * @param pending
+	 *            Pending creation registered for the key.
 	 * @param entityManager
 	 *            EntityManager
-	 * @return {@link HttpInfo}.
 	 */
-	private HttpInfo getHttpInfo(HttpTimerData httpTimerData, EntityManager entityManager) {
-		HttpInfo httpInfo = httpTimerData.getHttpInfo();
-		String uri = httpInfo.isUriDefined() ? httpInfo.getUri() : null; // NOPMD
-		String tag = httpInfo.hasInspectItTaggingHeader() ? httpInfo.getInspectItTaggingHeaderValue() : null; // NOPMD
-		String requestMethod = httpInfo.getRequestMethod();
+	private void createHttpInfo(final HttpInfoKey key, final PendingHttpInfo pending, EntityManager entityManager) {
+		final HttpInfo httpInfo;
+		try {
+			HttpInfo persistedHttpInfo = findHttpInfo(key, entityManager);
+			if (null != persistedHttpInfo) {
+				completeHttpInfo(key, pending, persistedHttpInfo);
+				return;
+			}
+
+			httpInfo = new HttpInfo(key.uri, key.requestMethod, key.tag);
+			entityManager.persist(httpInfo);
+		} catch (RuntimeException e) {
+			completeHttpInfo(key, pending, null);
+			throw e;
+		}
 
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					completeHttpInfo(key, pending, (STATUS_COMMITTED == status) ? httpInfo : null);
+				}
+			});
+		} else {
+			completeHttpInfo(key, pending, httpInfo);
+		}
+	}
+
+	/**
+	 * Completes the creation of the {@link HttpInfo}. If the info exists, it's cached and all data
+	 * that waited for it is aggregated. Otherwise the creation failed and the waiting data is
+	 * dropped.
+	 *
+	 * @param key
+	 *            Claimed key.
+	 * @param pending
+	 *            Pending creation registered for the key.
+	 * @param httpInfo
+	 *            Persisted {@link HttpInfo} or <code>null</code> if the creation failed.
+	 */
+	private void completeHttpInfo(HttpInfoKey key, PendingHttpInfo pending, HttpInfo httpInfo) {
+		if (null != httpInfo) {
+			httpInfoCache.put(key, httpInfo);
+		}
+		pendingHttpInfos.remove(key, pending);
+		List<HttpTimerData> waiting = pending.complete();
+		if (null != httpInfo) {
+			for (HttpTimerData httpTimerData : waiting) {
+				timerDataAggregator.processHttpTimerData(httpTimerData, httpInfo);
+			}
+		}
+	}
+
+	/**
+	 * Finds the persisted {@link HttpInfo} matching the given key.
+	 *
+	 * @param key
+	 *            Key holding the uri, tag and request method.
+	 * @param entityManager
+	 *            EntityManager
+	 * @return Persisted {@link HttpInfo} or <code>null</code> if one does not exist.
+	 */
+	private HttpInfo findHttpInfo(HttpInfoKey key, EntityManager entityManager) {
 		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
 		CriteriaQuery<HttpInfo> criteria = builder.createQuery(HttpInfo.class);
 		Root<? extends HttpInfo> root = criteria.from(HttpInfo.class);
 
 		Predicate uriPredicate;
 		Predicate tagPredicate;
-		Predicate requestMethodPredicate = builder.equal(root.get("requestMethod"), requestMethod);
-		if (null != uri) {
-			uriPredicate = builder.equal(root.get("uri"), uri);
+		Predicate requestMethodPredicate = builder.equal(root.get("requestMethod"), key.requestMethod);
+		if (null != key.uri) {
+			uriPredicate = builder.equal(root.get("uri"), key.uri);
 		} else {
 			uriPredicate = builder.isNull(root.get("uri"));
 		}
-		if (null != tag) {
-			tagPredicate = builder.equal(root.get("inspectItTaggingHeaderValue"), tag);
+		if (null != key.tag) {
+			tagPredicate = builder.equal(root.get("inspectItTaggingHeaderValue"), key.tag);
 		} else {
 			tagPredicate = builder.isNull(root.get("inspectItTaggingHeaderValue"));
 		}
@@ -148,16 +223,130 @@ public class TimerDataChartingCmrProcessor extends AbstractCmrDataProcessor {
 		if (CollectionUtils.isNotEmpty(httpInfoList)) {
 			return (HttpInfo) httpInfoList.get(0);
 		} else {
-			return new HttpInfo(uri, requestMethod, tag);
+			return null;
 		}
 	}
 
 	/**
-	 * Post construct.
+	 * Creates the {@link HttpInfo} cache.
 	 */
 	@PostConstruct
-	protected void init() {
-		serializationManager = serializationManagerProvider.createSerializer();
+	public void postConstruct() {
+		httpInfoCache = CacheBuilder.newBuilder().maximumSize(httpInfoCacheSize).build();
+	}
+
+	/**
+	 * Creation of the {@link HttpInfo} in progress, holding the data waiting for the info.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class PendingHttpInfo {
+
+		/**
+		 * Data waiting for the info.
+		 */
+		private final List<HttpTimerData> waiting = new ArrayList<>(1);
+
+		/**
+		 * If the creation is completed.
+		 */
+		private boolean completed;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param httpTimerData
+		 *            Data of the thread creating the info.
+		 */
+		PendingHttpInfo(HttpTimerData httpTimerData) {
+			waiting.add(httpTimerData);
+		}
+
+		/**
+		 * Adds the data waiting for the info.
+		 *
+		 * @param httpTimerData
+		 *            Data to add.
+		 * @return <code>false</code> if the creation is already completed and the data was not
+		 *         added.
+		 */
+		synchronized boolean addWaiting(HttpTimerData httpTimerData) {
+			if (completed) {
+				return false;
+			}
+			waiting.add(httpTimerData);
+			return true;
+		}
+
+		/**
+		 * Completes the creation.
+		 *
+		 * @return Data that waited for the info.
+		 */
+		synchronized List<HttpTimerData> complete() {
+			completed = true;
+			return waiting;
+		}
+	}
+
+	/**
+	 * Key of the {@link HttpInfo} cache, consisting of uri, tag and request method.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class HttpInfoKey {
+
+		/**
+		 * Uri or <code>null</code> if not defined.
+		 */
+		private final String uri;
+
+		/**
+		 * Tag or <code>null</code> if not defined.
+		 */
+		private final String tag;
+
+		/**
+		 * Request method.
+		 */
+		private final String requestMethod;
+
+		/**
+		 * Creates the key for the info sent by the agent.
+		 *
+		 * @param httpInfo
+		 *            {@link HttpInfo} sent by the agent.
+		 */
+		HttpInfoKey(HttpInfo httpInfo) {
+			this.uri = httpInfo.isUriDefined() ? httpInfo.getUri() : null; // NOPMD
+			this.tag = httpInfo.hasInspectItTaggingHeader() ? httpInfo.getInspectItTaggingHeaderValue() : null; // NOPMD
+			this.requestMethod = httpInfo.getRequestMethod();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(uri, tag, requestMethod);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			HttpInfoKey other = (HttpInfoKey) obj;
+			return Objects.equals(uri, other.uri) && Objects.equals(tag, other.tag) && Objects.equals(requestMethod, other.requestMethod);
+		}
 	}
 
 }
@@ -45,6 +45,18 @@ public class KryoNetServerCreator {
 	@Value("${cmr.port}")
 	private int port;
 
+	/**
+	 * Number of reactor threads handling the connections I/O.
+	 */
+	@Value("${cmr.kryonetReactorThreads}")
+	private int reactorThreads;
+
+	/**
+	 * Frames larger than the threshold are compressed if the agent supports it.
+	 */
+	@Value("${cmr.kryonetCompressionThreshold}")
+	private int compressionThreshold;
+
 	/**
 	 * Serialization manager to provide {@link Kryo} instance.
 	 */
@@ -65,6 +77,14 @@ public class KryoNetServerCreator {
 	@Qualifier("kryoNetObjectSpaceExecutorService")
 	private ExecutorService executorService;
 
+	/**
+	 * Executor service for de-serialization of the incoming data, so that decoding is not done on
+	 * the reactor threads.
+	 */
+	@Autowired
+	@Qualifier("kryoNetDecodeExecutorService")
+	private ExecutorService decodeExecutorService;
+
 	/**
 	 * Start the kryonet server and binds it to the specified port.
 	 *
@@ -75,11 +95,14 @@ public class KryoNetServerCreator {
 		IExtendedSerialization serialization = new ExtendedSerializationImpl(serializationManagerProvider);
 
 		Server server = new Server(serialization, streamProvider);
+		server.setReactorThreads(reactorThreads);
+		server.setDecodeExecutor(decodeExecutorService);
+		server.setCompressionThreshold(compressionThreshold);
 		server.start();
 
 		try {
 			server.bind(port);
-			log.info("|-Kryonet server successfully started and running on port " + port);
+			log.info("|-Kryonet server successfully started and running on port " + port + " with " + reactorThreads + " reactor threads");
 		} catch (IOException e) {
 			throw new BeanInitializationException("Could not bind the kryonet server to the specified port (" + port + ").", e);
 		}
@@ -13,7 +13,9 @@ import org.springframework.stereotype.Service;
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
 import rocks.inspectit.server.spring.aop.MethodLog;
+import rocks.inspectit.server.util.MethodOverheadDataProvider;
 import rocks.inspectit.shared.all.cmr.service.IAgentService;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
@@ -49,6 +51,12 @@ public class AgentService implements IAgentService {
 	@Autowired
 	AgentMessageProvider messageProvider;
 
+	/**
+	 * The {@link MethodOverheadDataProvider}.
+	 */
+	@Autowired
+	MethodOverheadDataProvider methodOverheadDataProvider;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -85,6 +93,15 @@ public class AgentService implements IAgentService {
 		nextGenInstrumentationManager.instrumentationApplied(platformId, methodToSensorMap);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public void methodOverheadReported(long platformId, Collection<MethodOverheadData> methodOverheadData) {
+		methodOverheadDataProvider.registerMethodOverhead(platformId, methodOverheadData);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -10,6 +10,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
@@ -22,9 +23,12 @@ import rocks.inspectit.server.cache.IBuffer;
 import rocks.inspectit.server.externalservice.IExternalService;
 import rocks.inspectit.server.property.PropertyManager;
 import rocks.inspectit.server.spring.aop.MethodLog;
+import rocks.inspectit.server.util.CacheIdGenerator;
 import rocks.inspectit.server.util.ShutdownService;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.cmr.CmrStatusData;
+import rocks.inspectit.shared.all.kryonet.CompressionStatistics;
+import rocks.inspectit.shared.all.kryonet.Server;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.cmr.property.configuration.PropertySection;
 import rocks.inspectit.shared.cs.cmr.property.update.configuration.ConfigurationUpdate;
@@ -55,6 +59,12 @@ public class CmrManagementService implements ICmrManagementService {
 	@Autowired
 	private IBuffer<DefaultData> buffer;
 
+	/**
+	 * {@link CacheIdGenerator} to mark the buffer clearing for the incremental queries.
+	 */
+	@Autowired
+	private CacheIdGenerator cacheIdGenerator;
+
 	/**
 	 * {@link StorageManager}.
 	 */
@@ -79,6 +89,12 @@ public class CmrManagementService implements ICmrManagementService {
 	@Autowired
 	private List<IExternalService> services;
 
+	/**
+	 * Kryonet server for the network compression statistics.
+	 */
+	@Autowired
+	private Server server;
+
 	/**
 	 * Time in milliseconds when the CMR has started.
 	 */
@@ -112,6 +128,7 @@ public class CmrManagementService implements ICmrManagementService {
 	@MethodLog
 	public void clearBuffer() {
 		buffer.clearAll();
+		cacheIdGenerator.markBufferCleared();
 	}
 
 	/**
@@ -140,6 +157,11 @@ public class CmrManagementService implements ICmrManagementService {
 		cmrStatusData.setDateStarted(dateStarted);
 		cmrStatusData.setDatabaseSize(getDatabaseSize());
 
+		CompressionStatistics compressionStatistics = server.getCompressionStatistics();
+		cmrStatusData.setNetworkCompressedFrames(compressionStatistics.getCompressedFrames() + compressionStatistics.getDecompressedFrames());
+		cmrStatusData.setNetworkCompressionRatio(compressionStatistics.getCompressionRatio());
+		cmrStatusData.setNetworkCompressionTime(TimeUnit.NANOSECONDS.toMillis(compressionStatistics.getCompressionTime() + compressionStatistics.getDecompressionTime()));
+
 		for (IExternalService service : services) {
 			cmrStatusData.getExternalServiceStatusMap().put(service.getServiceType(), service.getServiceStatus());
 		}
@@ -21,10 +21,13 @@ import rocks.inspectit.server.dao.PlatformIdentDao;
 import rocks.inspectit.server.event.AgentDeletedEvent;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
+import rocks.inspectit.server.util.MethodOverheadDataProvider;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData.AgentConnection;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCodeEnum;
 import rocks.inspectit.shared.all.spring.logger.Log;
@@ -60,6 +63,12 @@ public class GlobalDataAccessService implements IGlobalDataAccessService {
 	@Autowired
 	AgentStatusDataProvider agentStatusProvider;
 
+	/**
+	 * {@link MethodOverheadDataProvider}.
+	 */
+	@Autowired
+	MethodOverheadDataProvider methodOverheadDataProvider;
+
 	/**
 	 * Event publisher.
 	 */
@@ -100,6 +109,20 @@ public class GlobalDataAccessService implements IGlobalDataAccessService {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public AgentTreeDelta getAgentTreeChanges(long id, long sinceVersion) throws BusinessException {
+		AgentTreeDelta agentTreeDelta = platformIdentDao.findInitializedChanges(id, sinceVersion);
+		if (null != agentTreeDelta) {
+			return agentTreeDelta;
+		} else {
+			throw new BusinessException("Load the changes of the agent with ID=" + id + ".", AgentManagementErrorCodeEnum.AGENT_DOES_NOT_EXIST);
+		}
+	}
+
 	/**
 	 *
 	 * {@inheritDoc}
@@ -128,6 +151,15 @@ public class GlobalDataAccessService implements IGlobalDataAccessService {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public List<MethodOverheadData> getMethodOverhead(long platformId) {
+		return methodOverheadDataProvider.getMethodOverheadData(platformId);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
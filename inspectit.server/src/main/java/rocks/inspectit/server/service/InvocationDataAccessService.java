@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
@@ -13,6 +14,9 @@ import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import rocks.inspectit.server.alerting.AlertRegistry;
 import rocks.inspectit.server.alerting.util.AlertingUtils;
 import rocks.inspectit.server.dao.InvocationDataDao;
@@ -22,12 +26,15 @@ import rocks.inspectit.server.influx.util.QueryResultWrapper;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.exception.enumeration.AlertErrorCodeEnum;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.cmr.service.IInvocationDataAccessService;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
 import rocks.inspectit.shared.cs.communication.data.cmr.Alert;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequenceNode;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequencePager;
 
 /**
  * @author Patrice Bouillet
@@ -36,6 +43,18 @@ import rocks.inspectit.shared.cs.communication.data.cmr.Alert;
 @Service
 public class InvocationDataAccessService implements IInvocationDataAccessService {
 
+	/**
+	 * Maximum amount of invocation elements summarized by all cached pagers. Every pager holds the
+	 * complete invocation and the summary of each element, thus the cache is bounded by the size of
+	 * the invocations and not by the amount of pagers.
+	 */
+	private static final long MAX_CACHED_ELEMENTS = 500000;
+
+	/**
+	 * Expiration time of the cached pager in minutes.
+	 */
+	private static final long PAGER_EXPIRATION = 5;
+
 	/** The logger of this class. */
 	@Log
 	Logger log;
@@ -64,6 +83,13 @@ public class InvocationDataAccessService implements IInvocationDataAccessService
 	@Autowired
 	private InfluxDBDao influxDBDao;
 
+	/**
+	 * Pagers of the recently paged invocations, so that expanding the elements of the same
+	 * invocation does not load the invocation and compute the summaries again.
+	 */
+	private final Cache<Long, InvocationSequencePager> pagerCache = CacheBuilder.newBuilder().maximumWeight(MAX_CACHED_ELEMENTS)
+			.weigher((Long key, InvocationSequencePager pager) -> pager.getElementCount()).expireAfterAccess(PAGER_EXPIRATION, TimeUnit.MINUTES).softValues().build();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -151,6 +177,19 @@ public class InvocationDataAccessService implements IInvocationDataAccessService
 	}
 
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public IncrementalQueryResult<InvocationSequenceData> getInvocationSequenceOverviewSince(long platformId, long methodId, long sinceId, int limit,
+			ResultComparator<InvocationSequenceData> resultComparator) {
+		if (null != resultComparator) {
+			resultComparator.setCachedDataService(cachedDataService);
+		}
+		return invocationDataDao.getInvocationSequenceOverviewSince(platformId, methodId, sinceId, limit, resultComparator);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -214,6 +253,25 @@ public class InvocationDataAccessService implements IInvocationDataAccessService
 		return invocationDataDao.getInvocationSequenceDetail(traceId);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public InvocationSequenceNode getInvocationSequenceDetailPage(InvocationSequenceData template, int[] path, int offset, int limit, int levels, boolean expandHotPath) {
+		Long key = Long.valueOf(template.getId());
+		InvocationSequencePager pager = pagerCache.getIfPresent(key);
+		if (null == pager) {
+			InvocationSequenceData invocation = invocationDataDao.getInvocationSequenceDetail(template);
+			if (null == invocation) {
+				return null;
+			}
+			pager = new InvocationSequencePager(invocation);
+			pagerCache.put(key, pager);
+		}
+		return pager.getPage(path, offset, limit, levels, expandHotPath);
+	}
+
 	/**
 	 * Is executed after dependency injection is done to perform any initialization.
 	 *
@@ -1,5 +1,6 @@
 package rocks.inspectit.server.service;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -11,10 +12,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import rocks.inspectit.server.dao.DefaultDataDao;
+import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
+import rocks.inspectit.server.instrumentation.config.AgentCacheEntry;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
 import rocks.inspectit.shared.all.spring.logger.Log;
+import rocks.inspectit.shared.cs.ci.Environment;
+import rocks.inspectit.shared.cs.ci.sensor.jmx.JmxSensorConfig;
 import rocks.inspectit.shared.cs.cmr.service.IJmxDataAccessService;
+import rocks.inspectit.shared.cs.communication.data.JmxSensorValueDataHelper;
 
 /**
  * Service class for retrieving {@link JmxSensorValueData} objects from the CMR.
@@ -36,6 +42,12 @@ public class JmxDataAccessService implements IJmxDataAccessService {
 	@Autowired
 	private DefaultDataDao defaultDataDao;
 
+	/**
+	 * Instrumentation manager holding the environments of the agents.
+	 */
+	@Autowired
+	private NextGenInstrumentationManager nextGenInstrumentationManager;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -56,6 +68,47 @@ public class JmxDataAccessService implements IJmxDataAccessService {
 		return result;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	@MethodLog
+	public List<JmxSensorValueData> getJmxDataFromToDate(JmxSensorValueData jmxSensorValueData, Date fromDate, Date toDate) {
+		if (fromDate.after(toDate)) {
+			return Collections.emptyList();
+		}
+
+		JmxSensorConfig jmxSensorConfig = getJmxSensorConfig(jmxSensorValueData.getPlatformIdent());
+		long fillInterval = JmxSensorValueDataHelper.getFillInterval(jmxSensorConfig);
+		long maxFillGap = JmxSensorValueDataHelper.getMaxFillGap(jmxSensorConfig);
+
+		List<JmxSensorValueData> data = (List<JmxSensorValueData>) (List<?>) defaultDataDao.findByExampleFromToDate(jmxSensorValueData, fromDate, toDate);
+		// last values before the period, so that the beginning of the period can be filled
+		List<JmxSensorValueData> previous = defaultDataDao.getJmxDataOverview(jmxSensorValueData, new Date(fromDate.getTime() - maxFillGap), new Date(fromDate.getTime() - 1));
+		return JmxSensorValueDataHelper.fillGaps(data, previous, fromDate, toDate, fillInterval, maxFillGap);
+	}
+
+	/**
+	 * Returns the JMX sensor configuration of the environment the agent is currently using.
+	 *
+	 * @param platformIdent
+	 *            Agent ID.
+	 * @return {@link JmxSensorConfig} or <code>null</code> if the agent is not registered or has
+	 *         no JMX sensor configured.
+	 */
+	private JmxSensorConfig getJmxSensorConfig(long platformIdent) {
+		AgentCacheEntry agentCacheEntry = nextGenInstrumentationManager.getAgentCacheMap().get(platformIdent);
+		if (null == agentCacheEntry) {
+			return null;
+		}
+		Environment environment = agentCacheEntry.getConfigurationHolder().getEnvironment();
+		if (null == environment) {
+			return null;
+		}
+		return environment.getJmxSensorConfig();
+	}
+
 	/**
 	 * Is executed after dependency injection is done to perform any initialization.
 	 *
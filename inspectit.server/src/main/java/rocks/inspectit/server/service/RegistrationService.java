@@ -3,17 +3,25 @@ package rocks.inspectit.server.service;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 import javax.annotation.PostConstruct;
 
+import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import rocks.inspectit.server.dao.JmxDefinitionDataIdentDao;
 import rocks.inspectit.server.dao.JmxSensorTypeIdentDao;
@@ -25,6 +33,8 @@ import rocks.inspectit.server.dao.PlatformSensorTypeIdentDao;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.server.util.PlatformIdentCache;
+import rocks.inspectit.server.util.RegistrationIdentityMap;
+import rocks.inspectit.server.util.RegistrationIdentityMap.Identities;
 import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
 import rocks.inspectit.shared.all.cmr.model.JmxSensorTypeIdent;
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
@@ -108,11 +118,19 @@ public class RegistrationService implements IRegistrationService {
 	AgentStatusDataProvider agentStatusDataProvider;
 
 	/**
-	 * {@link PlatformIdentCache} called directly for marking dirty state.
+	 * {@link PlatformIdentCache} called directly for marking dirty state and recording the tree
+	 * changes.
 	 */
 	@Autowired
 	PlatformIdentCache platformIdentCache;
 
+	/**
+	 * Identity map of the registered idents, so that the database is not queried for each
+	 * registration of an already known ident.
+	 */
+	@Autowired
+	RegistrationIdentityMap registrationIdentityMap;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -208,21 +226,31 @@ public class RegistrationService implements IRegistrationService {
 		methodIdent.setReturnType(returnType);
 		methodIdent.setModifiers(modifiers);
 
-		try {
+		Identities methodIdents = getMethodIdents(platformId);
+		Object key = RegistrationIdentityMap.methodIdentKey(methodIdent);
+		Long knownId = methodIdents.get(key);
+		long methodIdentId;
+		if (null != knownId) {
+			methodIdentDao.updateTimestamps(Collections.singletonList(knownId));
+			methodIdentId = knownId.longValue();
+		} else {
 			List<Long> methodIdentIds = methodIdentDao.findIdForPlatformIdAndExample(platformId, methodIdent, true);
 			if (1 == methodIdentIds.size()) {
-				return methodIdentIds.get(0).longValue();
+				methodIdentId = methodIdentIds.get(0).longValue();
+				methodIdents.put(key, methodIdentId);
 			} else {
 				PlatformIdent platformIdent = new PlatformIdent();
 				platformIdent.setId(platformId);
 				methodIdent.setPlatformIdent(platformIdent);
 				methodIdent.setTimeStamp(new Timestamp(Calendar.getInstance().getTimeInMillis()));
 				methodIdentDao.saveOrUpdate(methodIdent);
-				return methodIdent.getId();
+				methodIdentId = methodIdent.getId();
+				registerCreatedIdentities(methodIdents, Collections.singletonMap(key, methodIdentId));
 			}
-		} finally {
-			platformIdentCache.markDirty(platformId);
 		}
+
+		recordTreeChanges(platformId, Collections.singletonList(methodIdentId), Collections.<Long> emptyList());
+		return methodIdentId;
 	}
 
 	/**
@@ -262,18 +290,71 @@ public class RegistrationService implements IRegistrationService {
 	@MethodLog
 	public void addSensorTypeToMethod(long platformId, long methodSensorTypeId, long methodId) {
 		try {
+			Identities methodSensorTypes = getMethodSensorTypes(platformId);
+			Object key = RegistrationIdentityMap.methodSensorTypeKey(methodId, methodSensorTypeId);
+			Long knownId = methodSensorTypes.get(key);
+			if (null != knownId) {
+				methodIdentToSensorTypeDao.updateTimestamps(Collections.singletonList(knownId));
+				return;
+			}
+
 			Long id = methodIdentToSensorTypeDao.findId(methodId, methodSensorTypeId, true);
 			if (null == id) {
-				MethodIdent methodIdent = new MethodIdent();
-				methodIdent.setId(methodId);
-				MethodSensorTypeIdent methodSensorTypeIdent = new MethodSensorTypeIdent();
-				methodSensorTypeIdent.setId(methodSensorTypeId);
-				MethodIdentToSensorType methodIdentToSensorType = new MethodIdentToSensorType(methodIdent, methodSensorTypeIdent, null);
-				methodIdentToSensorType.setTimestamp(new Timestamp(Calendar.getInstance().getTimeInMillis()));
+				MethodIdentToSensorType methodIdentToSensorType = createMethodIdentToSensorType(methodId, methodSensorTypeId, new Timestamp(Calendar.getInstance().getTimeInMillis()));
 				methodIdentToSensorTypeDao.saveOrUpdate(methodIdentToSensorType);
+				registerCreatedIdentities(methodSensorTypes, Collections.singletonMap(key, methodIdentToSensorType.getId()));
+			} else {
+				methodSensorTypes.put(key, id.longValue());
 			}
 		} finally {
-			platformIdentCache.markDirty(platformId);
+			recordTreeChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The existing assignments of the platform are loaded once and kept in the
+	 * {@link RegistrationIdentityMap}, thus the registration of the complete batch results in one
+	 * update of the timestamps of the known assignments and the batched inserts of the new ones.
+	 */
+	@Override
+	@MethodLog
+	public void addSensorTypesToMethods(long platformId, Map<Long, long[]> methodToSensorMap) {
+		if (MapUtils.isEmpty(methodToSensorMap)) {
+			return;
+		}
+
+		try {
+			Identities methodSensorTypes = getMethodSensorTypes(platformId);
+			Timestamp timestamp = new Timestamp(Calendar.getInstance().getTimeInMillis());
+			List<Long> knownIds = new ArrayList<>();
+			Map<Object, Long> createdIds = new HashMap<>();
+
+			// no concurrent batches of one platform, so that the same assignment is not created twice
+			synchronized (methodSensorTypes) {
+				for (Entry<Long, long[]> entry : methodToSensorMap.entrySet()) {
+					long methodId = entry.getKey().longValue();
+					for (long methodSensorTypeId : entry.getValue()) {
+						Object key = RegistrationIdentityMap.methodSensorTypeKey(methodId, methodSensorTypeId);
+						Long knownId = methodSensorTypes.get(key);
+						if (null != knownId) {
+							knownIds.add(knownId);
+						} else if (!createdIds.containsKey(key)) {
+							MethodIdentToSensorType methodIdentToSensorType = createMethodIdentToSensorType(methodId, methodSensorTypeId, timestamp);
+							methodIdentToSensorTypeDao.saveOrUpdate(methodIdentToSensorType);
+							createdIds.put(key, methodIdentToSensorType.getId());
+						}
+					}
+				}
+				registerCreatedIdentities(methodSensorTypes, createdIds);
+			}
+
+			if (!knownIds.isEmpty()) {
+				methodIdentToSensorTypeDao.updateTimestamps(knownIds);
+			}
+		} finally {
+			recordTreeChanges(platformId, new ArrayList<>(methodToSensorMap.keySet()), Collections.<Long> emptyList());
 		}
 	}
 
@@ -345,20 +426,188 @@ public class RegistrationService implements IRegistrationService {
 		jmxDefinitionDataIdent.setmBeanAttributeIsReadable(isReadable);
 		jmxDefinitionDataIdent.setmBeanAttributeIsWritable(isWritable);
 
-		try {
+		Identities jmxDefinitions = getJmxDefinitions(platformId);
+		Object key = RegistrationIdentityMap.jmxDefinitionKey(jmxDefinitionDataIdent);
+		Long knownId = jmxDefinitions.get(key);
+		long jmxDefinitionDataIdentId;
+		if (null != knownId) {
+			jmxDefinitionDataIdentDao.updateTimestamps(Collections.singletonList(knownId));
+			jmxDefinitionDataIdentId = knownId.longValue();
+		} else {
 			List<Long> ids = jmxDefinitionDataIdentDao.findIdForPlatformIdent(platformId, jmxDefinitionDataIdent, true);
 			if (1 == ids.size()) {
-				return ids.get(0).longValue();
+				jmxDefinitionDataIdentId = ids.get(0).longValue();
+				jmxDefinitions.put(key, jmxDefinitionDataIdentId);
 			} else {
 				PlatformIdent platformIdent = new PlatformIdent();
 				platformIdent.setId(platformId);
 				jmxDefinitionDataIdent.setPlatformIdent(platformIdent);
 				jmxDefinitionDataIdent.setTimeStamp(new Timestamp(Calendar.getInstance().getTimeInMillis()));
 				jmxDefinitionDataIdentDao.saveOrUpdate(jmxDefinitionDataIdent);
-				return jmxDefinitionDataIdent.getId();
+				jmxDefinitionDataIdentId = jmxDefinitionDataIdent.getId();
+				registerCreatedIdentities(jmxDefinitions, Collections.singletonMap(key, jmxDefinitionDataIdentId));
 			}
-		} finally {
-			platformIdentCache.markDirty(platformId);
+		}
+
+		recordTreeChanges(platformId, Collections.<Long> emptyList(), Collections.singletonList(jmxDefinitionDataIdentId));
+		return jmxDefinitionDataIdentId;
+	}
+
+	/**
+	 * Creates the not persisted {@link MethodIdentToSensorType} for the given IDs.
+	 *
+	 * @param methodId
+	 *            ID of the method ident.
+	 * @param methodSensorTypeId
+	 *            ID of the method sensor type ident.
+	 * @param timestamp
+	 *            Registration time-stamp.
+	 * @return {@link MethodIdentToSensorType}
+	 */
+	private MethodIdentToSensorType createMethodIdentToSensorType(long methodId, long methodSensorTypeId, Timestamp timestamp) {
+		MethodIdent methodIdent = new MethodIdent();
+		methodIdent.setId(methodId);
+		MethodSensorTypeIdent methodSensorTypeIdent = new MethodSensorTypeIdent();
+		methodSensorTypeIdent.setId(methodSensorTypeId);
+		return new MethodIdentToSensorType(methodIdent, methodSensorTypeIdent, timestamp);
+	}
+
+	/**
+	 * Returns the method ident identities of the platform, loading the existing ones from the
+	 * database on first access.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @return {@link Identities}
+	 */
+	private Identities getMethodIdents(final long platformId) {
+		Identities methodIdents = registrationIdentityMap.getPlatformIdentities(platformId).getMethodIdents();
+		return loadIfNeeded(methodIdents, () -> {
+			Map<Object, Long> ids = new HashMap<>();
+			for (MethodIdent methodIdent : methodIdentDao.findRegistrationDataForPlatformId(platformId)) {
+				ids.put(RegistrationIdentityMap.methodIdentKey(methodIdent), methodIdent.getId());
+			}
+			return ids;
+		});
+	}
+
+	/**
+	 * Returns the method ident to sensor type identities of the platform, loading the existing
+	 * ones from the database on first access.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @return {@link Identities}
+	 */
+	private Identities getMethodSensorTypes(final long platformId) {
+		Identities methodSensorTypes = registrationIdentityMap.getPlatformIdentities(platformId).getMethodSensorTypes();
+		return loadIfNeeded(methodSensorTypes, () -> {
+			Map<Object, Long> ids = new HashMap<>();
+			for (MethodIdentToSensorType methodIdentToSensorType : methodIdentToSensorTypeDao.findIdsForPlatformId(platformId)) {
+				Object key = RegistrationIdentityMap.methodSensorTypeKey(methodIdentToSensorType.getMethodIdent().getId(), methodIdentToSensorType.getMethodSensorTypeIdent().getId());
+				ids.put(key, methodIdentToSensorType.getId());
+			}
+			return ids;
+		});
+	}
+
+	/**
+	 * Returns the JMX definition identities of the platform, loading the existing ones from the
+	 * database on first access.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @return {@link Identities}
+	 */
+	private Identities getJmxDefinitions(final long platformId) {
+		Identities jmxDefinitions = registrationIdentityMap.getPlatformIdentities(platformId).getJmxDefinitions();
+		return loadIfNeeded(jmxDefinitions, () -> {
+			Map<Object, Long> ids = new HashMap<>();
+			for (JmxDefinitionDataIdent jmxDefinitionDataIdent : jmxDefinitionDataIdentDao.findRegistrationDataForPlatformIdent(platformId)) {
+				ids.put(RegistrationIdentityMap.jmxDefinitionKey(jmxDefinitionDataIdent), jmxDefinitionDataIdent.getId());
+			}
+			return ids;
+		});
+	}
+
+	/**
+	 * Loads the existing identities with the given loader if they were not loaded already.
+	 *
+	 * @param identities
+	 *            {@link Identities} to load.
+	 * @param loader
+	 *            Loader returning the IDs of the existing idents mapped to the identity key.
+	 * @return Given {@link Identities}.
+	 */
+	private Identities loadIfNeeded(Identities identities, Supplier<Map<Object, Long>> loader) {
+		if (!identities.isLoaded()) {
+			synchronized (identities) {
+				if (!identities.isLoaded()) {
+					for (Entry<Object, Long> entry : loader.get().entrySet()) {
+						identities.put(entry.getKey(), entry.getValue().longValue());
+					}
+					identities.markLoaded();
+				}
+			}
+		}
+		return identities;
+	}
+
+	/**
+	 * Registers the IDs of the idents created in the current transaction to the identities. The
+	 * IDs are registered immediately, so that concurrent registrations do not create the same
+	 * ident again, and removed if the transaction does not commit.
+	 *
+	 * @param identities
+	 *            {@link Identities} to register to.
+	 * @param createdIds
+	 *            IDs of the created idents mapped to the identity key.
+	 */
+	private void registerCreatedIdentities(final Identities identities, final Map<Object, Long> createdIds) {
+		if (createdIds.isEmpty()) {
+			return;
+		}
+
+		for (Entry<Object, Long> entry : createdIds.entrySet()) {
+			identities.put(entry.getKey(), entry.getValue().longValue());
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					if (TransactionSynchronization.STATUS_COMMITTED != status) {
+						for (Entry<Object, Long> entry : createdIds.entrySet()) {
+							identities.remove(entry.getKey(), entry.getValue().longValue());
+						}
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Records the changed idents of the agent tree in the {@link PlatformIdentCache}, so that the
+	 * cached tree is updated with the changed idents only. The changes are recorded after the
+	 * current transaction commits, thus they are visible to the loading of the changed idents.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @param methodIdentIds
+	 *            IDs of the added or changed method idents.
+	 * @param jmxDefinitionDataIdentIds
+	 *            IDs of the added or changed JMX definitions.
+	 */
+	private void recordTreeChanges(final long platformId, final Collection<Long> methodIdentIds, final Collection<Long> jmxDefinitionDataIdentIds) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					platformIdentCache.recordChanges(platformId, methodIdentIds, jmxDefinitionDataIdentIds);
+				}
+			});
+		} else {
+			platformIdentCache.recordChanges(platformId, methodIdentIds, jmxDefinitionDataIdentIds);
 		}
 	}
 
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import rocks.inspectit.server.dao.SqlDataDao;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.cmr.service.ISqlDataAccessService;
 
@@ -52,6 +53,16 @@ public class SqlDataAccessService implements ISqlDataAccessService {
 		return result;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public IncrementalQueryResult<SqlStatementData> getAggregatedSqlStatementsSince(SqlStatementData sqlStatementData, long sinceId) {
+		IncrementalQueryResult<SqlStatementData> result = sqlDataDao.getAggregatedSqlStatementsSince(sqlStatementData, sinceId);
+		return result;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -3,6 +3,7 @@ package rocks.inspectit.server.service;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -18,14 +19,17 @@ import org.springframework.transaction.annotation.Transactional;
 import rocks.inspectit.server.dao.StorageDataDao;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.storage.CmrStorageManager;
+import rocks.inspectit.server.storage.StorageQueryExecutor;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.exception.TechnicalException;
 import rocks.inspectit.shared.all.exception.enumeration.StorageErrorCodeEnum;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.cmr.service.IStorageService;
 import rocks.inspectit.shared.cs.communication.data.cmr.RecordingData;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.storage.IStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageFileType;
@@ -62,6 +66,12 @@ public class StorageService implements IStorageService {
 	@Autowired
 	private StorageDataDao storageLabelDataDao;
 
+	/**
+	 * Executor of the queries on the storage files.
+	 */
+	@Autowired
+	private StorageQueryExecutor storageQueryExecutor;
+
 	/**
 	 * Creates the new storage on the CMR with information given in {@link StorageData} object.
 	 *
@@ -139,6 +149,8 @@ public class StorageService implements IStorageService {
 	@MethodLog
 	public void deleteStorage(StorageData storageData) throws BusinessException {
 		try {
+			// release the mapped index files first, so that they can be deleted
+			storageQueryExecutor.invalidateIndexingTree(storageData);
 			storageManager.deleteStorage(storageData);
 		} catch (IOException e) {
 			throw new TechnicalException("Delete the storage " + storageData + ".", StorageErrorCodeEnum.INPUT_OUTPUT_OPERATION_FAILED, e);
@@ -307,7 +319,9 @@ public class StorageService implements IStorageService {
 			throw new BusinessException("Load index files locations for the storage " + storageData + ".", StorageErrorCodeEnum.STORAGE_DOES_NOT_EXIST);
 		}
 		try {
-			return storageManager.getFilesHttpLocation(storageData, StorageFileType.INDEX_FILE.getExtension());
+			Map<String, Long> result = new HashMap<>(storageManager.getFilesHttpLocation(storageData, StorageFileType.INDEX_FILE.getExtension()));
+			result.putAll(storageManager.getFilesHttpLocation(storageData, StorageFileType.INDEX_LEAF_FILE.getExtension()));
+			return result;
 		} catch (IOException e) {
 			throw new TechnicalException("Load index files locations for the storage " + storageData + ".", StorageErrorCodeEnum.INPUT_OUTPUT_OPERATION_FAILED, e);
 		}
@@ -673,6 +687,27 @@ public class StorageService implements IStorageService {
 		return storageManager.getCachedStorageDataFileLocation(storageData, hash);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public <E extends DefaultData> List<E> executeQuery(StorageData storageData, IIndexQuery query, IAggregator<E> aggregator, int limit) throws BusinessException {
+		if (!storageManager.isStorageExisting(storageData)) {
+			throw new BusinessException("Execute query on the storage " + storageData + ".", StorageErrorCodeEnum.STORAGE_DOES_NOT_EXIST);
+		}
+		if (!storageManager.isStorageClosed(storageData)) {
+			throw new BusinessException("Execute query on the storage " + storageData + ".", StorageErrorCodeEnum.STORAGE_IS_NOT_CLOSED);
+		}
+		try {
+			return storageQueryExecutor.executeQuery(storageData, query, aggregator, limit);
+		} catch (SerializationException e) {
+			throw new TechnicalException("Execute query on the storage " + storageData + ".", StorageErrorCodeEnum.SERIALIZATION_FAILED, e);
+		} catch (IOException e) {
+			throw new TechnicalException("Execute query on the storage " + storageData + ".", StorageErrorCodeEnum.INPUT_OUTPUT_OPERATION_FAILED, e);
+		}
+	}
+
 	/**
 	 * Is executed after dependency injection is done to perform any initialization.
 	 *
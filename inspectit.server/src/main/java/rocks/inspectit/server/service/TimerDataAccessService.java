@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import rocks.inspectit.server.dao.TimerDataDao;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.ITimerDataAccessService;
 
 /**
@@ -46,4 +47,14 @@ public class TimerDataAccessService implements ITimerDataAccessService {
 		return result;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@MethodLog
+	public IncrementalQueryResult<TimerData> getAggregatedTimerDataSince(TimerData timerData, long sinceId) {
+		IncrementalQueryResult<TimerData> result = timerDataDao.getAggregatedTimerDataSince(timerData, sinceId);
+		return result;
+	}
+
 }
@@ -2,12 +2,17 @@ package rocks.inspectit.server.service.rest;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang.ArrayUtils;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
@@ -21,11 +26,13 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
 import rocks.inspectit.server.service.rest.error.JsonError;
+import rocks.inspectit.server.service.rest.stream.JsonStreamWriter;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.cs.cmr.service.IInvocationDataAccessService;
 import rocks.inspectit.shared.cs.communication.comparator.DefaultDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequenceNode;
 
 /**
  * Restful service provider for detail {@link InvocationSequenceData} information.
@@ -44,12 +51,22 @@ public class InvocationSequenceRestfulService {
 	 */
 	private static final ResultComparator<InvocationSequenceData> OVERVIEW_COMPARATOR = new ResultComparator<>(DefaultDataComparatorEnum.ID, true);
 
+	/**
+	 * Maximum amount of invocations written between the flushes of the response when streaming.
+	 */
+	private static final int MAX_PAGE_SIZE = 5000;
+
 	/**
 	 * Reference to the existing {@link IInvocationDataAccessService}.
 	 */
 	@Autowired
 	private IInvocationDataAccessService invocationDataAccessService;
 
+	/**
+	 * Mapper for writing the streamed invocations.
+	 */
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
 	/**
 	 * Handling of all the exceptions happening in this controller.
 	 *
@@ -115,6 +132,95 @@ public class InvocationSequenceRestfulService {
 		return result;
 	}
 
+	/**
+	 * Streams the overview of the invocation data ordered by ID. The overview is loaded with one
+	 * query and every page is serialized and flushed to the response before the next one, so the
+	 * serialized result is never held in memory.
+	 * <p>
+	 * The ID of the last streamed invocation is the cursor for the next request, passed as the
+	 * <i>latestReadId</i>. The ID is always included in the selected fields.
+	 * </p>
+	 * <p>
+	 * <i> Example URL: /data/invocations/stream?agentId=1&limit=10000&fields=id,timeStamp,duration&format=ndjson</i>
+	 * </p>
+	 *
+	 * @param agentId
+	 *            Agent ID.
+	 * @param fromDate
+	 *            Begin of time period.
+	 * @param toDate
+	 *            End of time period.
+	 * @param latestReadId
+	 *            Latest read ID of the invocations, only invocations with higher id are submitted.
+	 * @param businessTrxId
+	 *            Business transaction ID.
+	 * @param applicationId
+	 *            Application ID.
+	 * @param alertId
+	 *            alert ID.
+	 * @param limit
+	 *            Maximum amount of invocations to stream, <code>-1</code> for all.
+	 * @param minDuration
+	 *            Minimum duration in milliseconds of the invocation to be returned.
+	 * @param pageSize
+	 *            Amount of invocations written between the flushes of the response.
+	 * @param fields
+	 *            Properties of the invocations to include, all properties if not set.
+	 * @param format
+	 *            <i>json</i> for a JSON array or <i>ndjson</i> for one invocation per line.
+	 * @param response
+	 *            Response to stream the invocations to.
+	 * @throws BusinessException
+	 *             If data cannot be retrieved.
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 */
+	@RequestMapping(method = GET, value = "stream")
+	public void streamInvocationSequenceOverview(@RequestParam(value = "agentId", required = false, defaultValue = "0") Long agentId, // NOCHK
+			@RequestParam(value = "fromDate", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date fromDate,
+			@RequestParam(value = "toDate", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date toDate,
+			@RequestParam(value = "latestReadId", required = false, defaultValue = "0") Long latestReadId,
+			@RequestParam(value = "businessTrxId", required = false, defaultValue = "0") int businessTrxId, @RequestParam(value = "appId", required = false, defaultValue = "0") int applicationId,
+			@RequestParam(value = "alertId", required = false) String alertId, @RequestParam(value = "limit", defaultValue = "-1") int limit,
+			@RequestParam(value = "minDuration", defaultValue = "0") long minDuration, @RequestParam(value = "pageSize", defaultValue = "500") int pageSize,
+			@RequestParam(value = "fields", required = false) String[] fields, @RequestParam(value = "format", required = false) String format, HttpServletResponse response)
+					throws BusinessException, IOException {
+		int page = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+		List<String> selectedFields = null;
+		if (ArrayUtils.isNotEmpty(fields)) {
+			selectedFields = new ArrayList<>(fields.length + 1);
+			selectedFields.add("id");
+			selectedFields.addAll(Arrays.asList(fields));
+		}
+
+		JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, JsonStreamWriter.Format.fromParameter(format), selectedFields);
+		try {
+			// the overview holds shallow clones only, so the tree is queried once instead of per page
+			int queryLimit = (minDuration > 0) ? -1 : limit;
+			List<InvocationSequenceData> result = invocationDataAccessService.getInvocationSequenceOverview(agentId, queryLimit, fromDate, toDate, latestReadId + 1, businessTrxId, applicationId,
+					alertId, OVERVIEW_COMPARATOR);
+
+			for (InvocationSequenceData invocationSequenceData : result) {
+				if ((limit >= 0) && (writer.getCount() >= limit)) {
+					break;
+				}
+				if (invocationSequenceData.getDuration() >= minDuration) {
+					writer.write(invocationSequenceData);
+					if ((writer.getCount() % page) == 0) {
+						writer.flush();
+					}
+				}
+			}
+			writer.complete();
+		} catch (BusinessException | IOException | RuntimeException e) {
+			if (!writer.abort(e)) {
+				throw e;
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
 	/**
 	 * Provides all informations of an invocation sequence data.
 	 *
@@ -136,6 +242,40 @@ public class InvocationSequenceRestfulService {
 		return result;
 	}
 
+	/**
+	 * Provides one page of the invocation sequence details. Every element contains the summary of
+	 * its subtree, thus the not included subtrees can be requested on demand with the path of the
+	 * element.
+	 *
+	 * <p>
+	 * <i> Example URL: /data/invocations/{id}/page?path=0,3&offset=0&limit=100&levels=2&hotPath=true</i>
+	 * </p>
+	 *
+	 * @param id
+	 *            Invocation sequence ID.
+	 * @param path
+	 *            Comma separated positions of the page element in the parent elements starting
+	 *            from the root. Not set for the root of the invocation.
+	 * @param offset
+	 *            Position of the first child of the page element to include.
+	 * @param limit
+	 *            Maximum amount of children to include per element.
+	 * @param levels
+	 *            Number of levels to expand below the page element.
+	 * @param expandHotPath
+	 *            If the path of the children with highest duration should be expanded.
+	 * @return page of the {@link InvocationSequenceData} details.
+	 */
+	@RequestMapping(method = GET, value = "{id}/page")
+	@ResponseBody
+	public InvocationSequenceNode getInvocationSequenceDetailPage(@PathVariable long id, @RequestParam(value = "path", required = false) int[] path,
+			@RequestParam(value = "offset", defaultValue = "0") int offset, @RequestParam(value = "limit", defaultValue = "100") int limit,
+			@RequestParam(value = "levels", defaultValue = "1") int levels, @RequestParam(value = "hotPath", defaultValue = "false") boolean expandHotPath) {
+		InvocationSequenceData template = new InvocationSequenceData();
+		template.setId(id);
+		return invocationDataAccessService.getInvocationSequenceDetailPage(template, path, offset, limit, levels, expandHotPath);
+	}
+
 	/**
 	 * Header information for swagger requests.
 	 *
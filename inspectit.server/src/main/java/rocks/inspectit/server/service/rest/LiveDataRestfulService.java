@@ -0,0 +1,236 @@
+package rocks.inspectit.server.service.rest;
+
+import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.ArrayUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.ModelAndView;
+
+import rocks.inspectit.server.service.rest.error.JsonError;
+import rocks.inspectit.server.service.rest.stream.JsonStreamWriter;
+import rocks.inspectit.server.subscription.LiveDataSubscription;
+import rocks.inspectit.server.subscription.LiveDataSubscriptionManager;
+import rocks.inspectit.server.subscription.LiveDataType;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.restriction.IIndexQueryRestriction;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.IndexQueryRestrictionFactory;
+
+/**
+ * Restful service provider for the live data subscriptions. A client registers a subscription
+ * once and then streams the new data matching the subscription, instead of polling the data
+ * services periodically.
+ * <p>
+ * Every open stream occupies one thread of the web server for its whole duration (at most
+ * {@link #MAX_STREAM_TIMEOUT} seconds), thus the amount of concurrent streams is limited to
+ * {@link #MAX_STREAMS} so that the streams can not starve the other RESTful services.
+ *
+ * @author agent
+ *
+ */
+@Controller
+@RequestMapping(value = "/data/live")
+public class LiveDataRestfulService {
+
+	/**
+	 * Maximum duration of one stream in seconds.
+	 */
+	private static final int MAX_STREAM_TIMEOUT = 300;
+
+	/**
+	 * Maximum amount of concurrently open streams.
+	 */
+	private static final int MAX_STREAMS = 10;
+
+	/**
+	 * Maximum time in milliseconds to wait for the new data before checking if the stream should
+	 * end.
+	 */
+	private static final long POLL_TIMEOUT = 1000;
+
+	/**
+	 * Reference to the existing {@link LiveDataSubscriptionManager}.
+	 */
+	@Autowired
+	private LiveDataSubscriptionManager liveDataSubscriptionManager;
+
+	/**
+	 * Mapper for writing the streamed data.
+	 */
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Amount of currently open streams.
+	 */
+	private final AtomicInteger openStreams = new AtomicInteger();
+
+	/**
+	 * Handling of all the exceptions happening in this controller.
+	 *
+	 * @param exception
+	 *            Exception being thrown
+	 * @return {@link ModelAndView}
+	 */
+	@ExceptionHandler(Exception.class)
+	public ModelAndView handleAllException(Exception exception) {
+		return new JsonError(exception).asModelAndView();
+	}
+
+	/**
+	 * Registers a new subscription and returns its ID. Subscriptions not streamed for five minutes
+	 * are removed automatically.
+	 * <p>
+	 * <i> Example URL: /data/live/subscriptions?type=timer&agentId=1&methodId=5&interval=5000</i>
+	 * </p>
+	 *
+	 * @param type
+	 *            Type of the data: timer, http_timer, sql or invocation.
+	 * @param agentId
+	 *            Agent ID, all agents if not set.
+	 * @param sensorTypeId
+	 *            Sensor type ID, all sensor types if not set.
+	 * @param methodId
+	 *            Method ID, all methods if not set.
+	 * @param minDuration
+	 *            Minimum duration in milliseconds of the elements to be streamed.
+	 * @param interval
+	 *            Aggregation interval in milliseconds. If set the aggregates of the elements are
+	 *            streamed every interval, otherwise every element is streamed. Only timer and sql
+	 *            data can be aggregated.
+	 * @return ID of the subscription.
+	 */
+	@RequestMapping(method = POST, value = "subscriptions")
+	@ResponseBody
+	public long subscribe(@RequestParam(value = "type") String type, @RequestParam(value = "agentId", required = false, defaultValue = "0") long agentId,
+			@RequestParam(value = "sensorTypeId", required = false, defaultValue = "0") long sensorTypeId, @RequestParam(value = "methodId", required = false, defaultValue = "0") long methodId,
+			@RequestParam(value = "minDuration", required = false, defaultValue = "0") double minDuration, @RequestParam(value = "interval", required = false, defaultValue = "0") long interval) {
+		LiveDataType liveDataType = LiveDataType.valueOf(type.toUpperCase(Locale.ENGLISH));
+
+		List<IIndexQueryRestriction> restrictions = new ArrayList<>(1);
+		if (minDuration > 0) {
+			restrictions.add(IndexQueryRestrictionFactory.greaterEqual("duration", minDuration));
+		}
+
+		return liveDataSubscriptionManager.subscribe(liveDataType, agentId, sensorTypeId, methodId, restrictions, interval).getId();
+	}
+
+	/**
+	 * Streams the data of the subscription as newline delimited JSON until the given timeout
+	 * passes. The client is expected to open the next stream when one ends. The stream blocks one
+	 * web server thread until it ends, at most {@link #MAX_STREAMS} streams can be open at the same
+	 * time.
+	 * <p>
+	 * <i> Example URL: /data/live/subscriptions/{id}?timeout=60</i>
+	 * </p>
+	 *
+	 * @param id
+	 *            Subscription ID.
+	 * @param timeout
+	 *            Duration of the stream in seconds, at most five minutes.
+	 * @param fields
+	 *            Properties of the elements to include, all properties if not set.
+	 * @param response
+	 *            Response to stream the data to.
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 * @throws InterruptedException
+	 *             If the streaming thread is interrupted.
+	 * @throws IllegalStateException
+	 *             If the maximum amount of streams is already open.
+	 */
+	@RequestMapping(method = GET, value = "subscriptions/{id}")
+	public void stream(@PathVariable long id, @RequestParam(value = "timeout", defaultValue = "30") int timeout, @RequestParam(value = "fields", required = false) String[] fields,
+			HttpServletResponse response) throws IOException, InterruptedException {
+		LiveDataSubscription subscription = liveDataSubscriptionManager.getSubscription(id);
+		if (null == subscription) {
+			throw new IllegalArgumentException("Live data subscription with id " + id + " does not exist.");
+		}
+
+		List<String> selectedFields = null;
+		if (ArrayUtils.isNotEmpty(fields)) {
+			selectedFields = Arrays.asList(fields);
+		}
+
+		if (openStreams.incrementAndGet() > MAX_STREAMS) {
+			openStreams.decrementAndGet();
+			throw new IllegalStateException("Live data can not be streamed, the maximum of " + MAX_STREAMS + " streams is already open.");
+		}
+
+		JsonStreamWriter writer = null;
+		try {
+			writer = new JsonStreamWriter(response, objectMapper, JsonStreamWriter.Format.NDJSON, selectedFields);
+			writer.flush();
+
+			long streamEnd = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.min(timeout, MAX_STREAM_TIMEOUT));
+			long remaining = streamEnd - System.currentTimeMillis();
+			while ((remaining > 0) && (null != liveDataSubscriptionManager.getSubscription(id))) {
+				List<DefaultData> dataList = subscription.poll(Math.min(remaining, POLL_TIMEOUT));
+				if (!dataList.isEmpty()) {
+					for (DefaultData defaultData : dataList) {
+						writer.write(defaultData);
+					}
+					writer.flush();
+				}
+				remaining = streamEnd - System.currentTimeMillis();
+			}
+			writer.complete();
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			if ((null == writer) || !writer.abort(e)) {
+				throw e;
+			}
+		} finally {
+			openStreams.decrementAndGet();
+			if (null != writer) {
+				writer.close();
+			}
+		}
+	}
+
+	/**
+	 * Removes the subscription.
+	 * <p>
+	 * <i> Example URL: /data/live/subscriptions/{id}</i>
+	 * </p>
+	 *
+	 * @param id
+	 *            Subscription ID.
+	 * @return Returns <code>true</code> if the subscription was removed, <code>false</code> if it
+	 *         did not exist.
+	 */
+	@RequestMapping(method = DELETE, value = "subscriptions/{id}")
+	@ResponseBody
+	public boolean unsubscribe(@PathVariable long id) {
+		return liveDataSubscriptionManager.unsubscribe(id);
+	}
+
+	/**
+	 * Header information for swagger requests.
+	 *
+	 * @param response
+	 *            Response information
+	 */
+	@ModelAttribute
+	public void setVaryResponseHeader(HttpServletResponse response) {
+		response.setHeader("Access-Control-Allow-Origin", "*");
+		response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept");
+	}
+}
@@ -2,6 +2,7 @@ package rocks.inspectit.server.service.rest;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -22,6 +23,7 @@ import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.cmr.model.SensorTypeIdent;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCodeEnum;
 import rocks.inspectit.shared.cs.cmr.service.IGlobalDataAccessService;
@@ -134,6 +136,24 @@ public class PlatformRestfulService {
 		return globalDataAccessService.getCompleteAgent(agentId).getSensorTypeIdents();
 	}
 
+	/**
+	 * Returns the overhead statistics of the instrumented methods reported by an agent. Methods
+	 * that the agent de-instrumented because of the exceeded overhead budget are marked as such.
+	 * <p>
+	 * <i> Example URL: /data/agents/{agentId}/overhead</i>
+	 * </p>
+	 *
+	 * @param agentId
+	 *            AGENT ID bounded from path.
+	 * @return a List of {@link MethodOverheadData} of the given agentId, highest overhead ratio
+	 *         first.
+	 */
+	@RequestMapping(method = GET, value = "{agentId}/overhead")
+	@ResponseBody
+	public List<MethodOverheadData> getMethodOverhead(@PathVariable long agentId) {
+		return globalDataAccessService.getMethodOverhead(agentId);
+	}
+
 	/**
 	 * Header information for swagger requests.
 	 *
@@ -118,23 +118,28 @@ public class StorageRestfulService {
 	/**
 	 * Creates a new storage with given name.
 	 * <p>
-	 * <i> Example URL: /storage/{name}/create</i>
+	 * <i> Example URL: /storage/{name}/create?columnarFormat=true</i>
 	 *
 	 * @param name
 	 *            Name of the storage.
+	 * @param columnarFormat
+	 *            If the timer, SQL and HTTP timer data should be written in the compressed columnar
+	 *            format.
 	 * @return Map containing message and created storage.
 	 * @throws BusinessException
 	 *             If {@link BusinessException} occurs.
 	 */
 	@RequestMapping(method = GET, value = "{name}/create")
 	@ResponseBody
-	public Object createStorage(@PathVariable String name) throws BusinessException {
+	public Object createStorage(@PathVariable String name, @RequestParam(value = "columnarFormat", required = false, defaultValue = "false") Boolean columnarFormat)
+			throws BusinessException {
 		if (StringUtils.isEmpty(name)) {
 			throw new BusinessException("Create a new storage via storage REST service.", StorageErrorCodeEnum.STORAGE_NAME_IS_NOT_PROVIDED);
 		}
 
 		StorageData storageData = new StorageData();
 		storageData.setName(name);
+		storageData.setColumnarFormat(columnarFormat.booleanValue());
 		storageData = storageService.createAndOpenStorage(storageData);
 
 		Map<String, Object> resultMap = new HashMap<>();
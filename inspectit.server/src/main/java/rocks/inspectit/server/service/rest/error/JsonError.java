@@ -1,6 +1,6 @@
 package rocks.inspectit.server.service.rest.error;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.springframework.web.servlet.ModelAndView;
@@ -35,9 +35,16 @@ public class JsonError {
 	 */
 	public ModelAndView asModelAndView() {
 		MappingJacksonJsonView jsonView = new MappingJacksonJsonView();
-		Map<String, String> map = new HashMap<>();
+		return new ModelAndView(jsonView, asMap());
+	}
+
+	/**
+	 * @return Returns the map holding the information about the exception.
+	 */
+	public Map<String, String> asMap() {
+		Map<String, String> map = new LinkedHashMap<>();
 		map.put("error", exception.getMessage());
 		map.put("exceptionType", exception.getClass().getName());
-		return new ModelAndView(jsonView, map);
+		return map;
 	}
 }
@@ -0,0 +1,334 @@
+package rocks.inspectit.server.service.rest.stream;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import rocks.inspectit.server.service.rest.error.JsonError;
+
+/**
+ * Writes the results of the RESTful services to the response element by element, so that the
+ * complete result never has to be serialized in memory. As no content length is set, the
+ * response is sent with the chunked transfer encoding and the client can process the elements
+ * while they are produced.
+ * <p>
+ * Elements are written either as one JSON array or as newline delimited JSON (one object per
+ * line). If fields are selected, only the selected bean properties of the elements are
+ * serialized, thus the deep nested structures not selected are never touched.
+ * <p>
+ * The JSON array is closed only if the stream was {@link #complete() completed}. If producing the
+ * elements fails after the response was committed, the stream is {@link #abort(Exception)
+ * aborted}: an error record is written as the last element and the JSON array stays open, thus
+ * the client can always tell a truncated stream from a complete one.
+ *
+ * @author agent
+ *
+ */
+public class JsonStreamWriter implements Closeable {
+
+	/**
+	 * Format of the stream.
+	 *
+	 * @author agent
+	 *
+	 */
+	public enum Format {
+
+		/**
+		 * One JSON array holding all elements.
+		 */
+		JSON("application/json"),
+
+		/**
+		 * Newline delimited JSON, one element per line.
+		 */
+		NDJSON("application/x-ndjson");
+
+		/**
+		 * Content type of the format.
+		 */
+		private final String contentType;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param contentType
+		 *            Content type of the format.
+		 */
+		Format(String contentType) {
+			this.contentType = contentType;
+		}
+
+		/**
+		 * Returns the format for the given request parameter value.
+		 *
+		 * @param value
+		 *            Request parameter value, can be <code>null</code>.
+		 * @return {@link #NDJSON} if the value is <i>ndjson</i> (ignoring case), {@link #JSON}
+		 *         otherwise.
+		 */
+		public static Format fromParameter(String value) {
+			return NDJSON.name().equalsIgnoreCase(value) ? NDJSON : JSON;
+		}
+	}
+
+	/**
+	 * Read methods of the bean properties cached per class.
+	 */
+	private static final ConcurrentHashMap<Class<?>, Map<String, Method>> READ_METHODS_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Response being written.
+	 */
+	private final HttpServletResponse response;
+
+	/**
+	 * Mapper for writing the elements.
+	 */
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Writer of the response.
+	 */
+	private final Writer writer;
+
+	/**
+	 * Format of the stream.
+	 */
+	private final Format format;
+
+	/**
+	 * Selected fields or <code>null</code> if all fields should be written.
+	 */
+	private final Set<String> fields;
+
+	/**
+	 * Amount of written elements.
+	 */
+	private int count;
+
+	/**
+	 * If all elements were written.
+	 */
+	private boolean completed;
+
+	/**
+	 * If the stream was aborted.
+	 */
+	private boolean aborted;
+
+	/**
+	 * Default constructor. Sets the content type of the response and starts the stream.
+	 *
+	 * @param response
+	 *            Response to write to.
+	 * @param objectMapper
+	 *            Mapper for writing the elements.
+	 * @param format
+	 *            Format of the stream.
+	 * @param fields
+	 *            Names of the bean properties to write, <code>null</code> or empty to write the
+	 *            complete elements.
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 */
+	public JsonStreamWriter(HttpServletResponse response, ObjectMapper objectMapper, Format format, Collection<String> fields) throws IOException {
+		this.response = response;
+		this.objectMapper = objectMapper;
+		this.format = format;
+		if ((null == fields) || fields.isEmpty()) {
+			this.fields = null;
+		} else {
+			this.fields = new LinkedHashSet<>(fields);
+		}
+
+		response.setContentType(format.contentType);
+		response.setCharacterEncoding("UTF-8");
+		this.writer = response.getWriter();
+		if (Format.JSON == format) {
+			writer.write('[');
+		}
+	}
+
+	/**
+	 * Writes one element.
+	 *
+	 * @param element
+	 *            Element to write.
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 */
+	public void write(Object element) throws IOException {
+		writeValue(select(element));
+		count++;
+	}
+
+	/**
+	 * Writes the value as the next element of the stream.
+	 *
+	 * @param value
+	 *            Value to serialize.
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 */
+	private void writeValue(Object value) throws IOException {
+		if (Format.JSON == format) {
+			if (count > 0) {
+				writer.write(',');
+			}
+			writer.write(objectMapper.writeValueAsString(value));
+		} else {
+			writer.write(objectMapper.writeValueAsString(value));
+			writer.write('\n');
+		}
+	}
+
+	/**
+	 * Flushes the written elements to the client.
+	 *
+	 * @throws IOException
+	 *             If writing to the response fails.
+	 */
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	/**
+	 * Marks that all elements were written, so that the stream is ended properly on
+	 * {@link #close()}.
+	 */
+	public void complete() {
+		this.completed = true;
+	}
+
+	/**
+	 * Aborts the stream because producing the elements failed. If the response is already
+	 * committed, the error record is written as the last element, otherwise the written content is
+	 * discarded, so that the caller can report the error as the response.
+	 *
+	 * @param exception
+	 *            Cause of the failure.
+	 * @return <code>true</code> if the error was written to the stream, <code>false</code> if the
+	 *         response was not committed and the caller should report the error.
+	 */
+	public boolean abort(Exception exception) {
+		aborted = true;
+		if (!response.isCommitted()) {
+			response.resetBuffer();
+			return false;
+		}
+
+		try {
+			writeValue(new JsonError(exception).asMap());
+			writer.flush();
+		} catch (IOException e) { // NOPMD
+			// client is gone, nothing more can be reported
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Ends the stream if it was completed. Otherwise the JSON array is left open, so that the
+	 * truncated stream is not valid JSON.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (aborted) {
+			return;
+		}
+		if (completed && (Format.JSON == format)) {
+			writer.write(']');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Gets {@link #count}.
+	 *
+	 * @return {@link #count}
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the object to serialize for the element. If no fields are selected, this is the
+	 * element itself, otherwise a map holding the values of the selected properties. Selected
+	 * fields the element does not have are ignored.
+	 *
+	 * @param element
+	 *            Element to write.
+	 * @return Object to serialize.
+	 * @throws IOException
+	 *             If properties can not be read.
+	 */
+	Object select(Object element) throws IOException {
+		if ((null == fields) || (null == element)) {
+			return element;
+		}
+
+		Map<String, Method> readMethods = getReadMethods(element.getClass());
+		Map<String, Object> selected = new LinkedHashMap<>();
+		for (String field : fields) {
+			Method readMethod = readMethods.get(field);
+			if (null != readMethod) {
+				try {
+					selected.put(field, readMethod.invoke(element));
+				} catch (IllegalAccessException | InvocationTargetException e) {
+					throw new IOException("Field " + field + " of the " + element.getClass().getName() + " can not be read.", e);
+				}
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns the read methods of the bean properties of the given class.
+	 *
+	 * @param clazz
+	 *            Class.
+	 * @return Read methods mapped by the property name.
+	 * @throws IOException
+	 *             If the class can not be introspected.
+	 */
+	private static Map<String, Method> getReadMethods(Class<?> clazz) throws IOException {
+		Map<String, Method> readMethods = READ_METHODS_CACHE.get(clazz);
+		if (null != readMethods) {
+			return readMethods;
+		}
+
+		try {
+			readMethods = new HashMap<>();
+			for (PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(clazz, Object.class).getPropertyDescriptors()) {
+				if (null != propertyDescriptor.getReadMethod()) {
+					readMethods.put(propertyDescriptor.getName(), propertyDescriptor.getReadMethod());
+				}
+			}
+		} catch (IntrospectionException e) {
+			throw new IOException("Class " + clazz.getName() + " can not be introspected.", e);
+		}
+		readMethods = Collections.unmodifiableMap(readMethods);
+		READ_METHODS_CACHE.putIfAbsent(clazz, readMethods);
+		return readMethods;
+	}
+
+}
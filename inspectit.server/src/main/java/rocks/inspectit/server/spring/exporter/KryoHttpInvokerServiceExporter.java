@@ -15,9 +15,8 @@ import org.springframework.remoting.support.RemoteInvocationResult;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
-import rocks.inspectit.shared.all.serializer.ISerializer;
 import rocks.inspectit.shared.all.serializer.SerializationException;
-import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
 
 /**
  * This service exporter using kryo for (de-)serialization is nearly the same as the one with plain
@@ -29,10 +28,10 @@ import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvid
 public class KryoHttpInvokerServiceExporter extends HttpInvokerServiceExporter {
 
 	/**
-	 * The serialization manager.
+	 * The shared pool of the serialization managers.
 	 */
 	@Autowired
-	private SerializationManagerProvider serializationManagerProvider;
+	private SerializationManagerPool serializationManagerPool;
 
 	/**
 	 * {@inheritDoc}
@@ -40,8 +39,7 @@ public class KryoHttpInvokerServiceExporter extends HttpInvokerServiceExporter {
 	@Override
 	protected RemoteInvocation readRemoteInvocation(HttpServletRequest request, InputStream is) throws IOException, ClassNotFoundException {
 		try (Input input = new Input(is)) {
-			ISerializer serializer = serializationManagerProvider.createSerializer();
-			return (RemoteInvocation) serializer.deserialize(input);
+			return (RemoteInvocation) serializationManagerPool.deserialize(input);
 		} catch (SerializationException e) {
 			throw new IOException(e);
 		}
@@ -58,8 +56,7 @@ public class KryoHttpInvokerServiceExporter extends HttpInvokerServiceExporter {
 				result = new RemoteInvocationResult(value);
 			}
 
-			ISerializer serializer = serializationManagerProvider.createSerializer();
-			serializer.serialize(result, output);
+			serializationManagerPool.serialize(result, output);
 		} catch (SerializationException e) {
 			throw new IOException(e);
 		}
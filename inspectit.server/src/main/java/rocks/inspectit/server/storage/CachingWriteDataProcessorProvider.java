@@ -10,21 +10,25 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 
 import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.HttpTimerDataAggregator;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.ExceptionSensorDataQueryFactory;
+import rocks.inspectit.shared.cs.indexing.query.factory.impl.HttpTimerDataQueryFactory;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.SqlStatementDataQueryFactory;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.TimerDataQueryFactory;
 import rocks.inspectit.shared.cs.indexing.query.provider.impl.StorageIndexQueryProvider;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
 import rocks.inspectit.shared.cs.storage.processor.write.AbstractWriteDataProcessor;
 import rocks.inspectit.shared.cs.storage.processor.write.impl.QueryCachingDataProcessor;
+import rocks.inspectit.shared.cs.storage.processor.write.impl.RollupDataProcessor;
 
 /**
- * Configuration class for specifying the caching processors for the storage writer.
+ * Configuration class for specifying the caching and rollup processors for the storage writer.
  * <p>
  * These will be autowired to each storage writer.
  *
@@ -55,6 +59,11 @@ public class CachingWriteDataProcessorProvider {
 	 */
 	private ExceptionSensorDataQueryFactory<StorageIndexQuery> exceptionSensorDataQueryFactory;
 
+	/**
+	 * {@link HttpTimerDataQueryFactory}.
+	 */
+	private HttpTimerDataQueryFactory<StorageIndexQuery> httpTimerDataQueryFactory;
+
 	/**
 	 * @return Returns {@link AbstractWriteDataProcessor} for caching the {@link TimerData} view.
 	 */
@@ -93,6 +102,52 @@ public class CachingWriteDataProcessorProvider {
 		return new QueryCachingDataProcessor<>(query, aggregator);
 	}
 
+	/**
+	 * @return Returns {@link AbstractWriteDataProcessor} for the {@link TimerData} rollups.
+	 */
+	@Bean
+	@Lazy
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public AbstractWriteDataProcessor getTimerDataRollupDataProcessor() {
+		IIndexQuery query = timerDataQueryFactory.getAggregatedTimerDataQuery(new TimerData(), null, null);
+		return new RollupDataProcessor<>(TimerData.class, query, Aggregators.TIMER_DATA_AGGREGATOR);
+	}
+
+	/**
+	 * @return Returns {@link AbstractWriteDataProcessor} for the {@link SqlStatementData} rollups.
+	 */
+	@Bean
+	@Lazy
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public AbstractWriteDataProcessor getSqlDataRollupDataProcessor() {
+		IIndexQuery query = sqlStatementDataQueryFactory.getAggregatedSqlStatementsQuery(new SqlStatementData(), null, null);
+		return new RollupDataProcessor<>(SqlStatementData.class, query, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR);
+	}
+
+	/**
+	 * @return Returns {@link AbstractWriteDataProcessor} for the {@link HttpTimerData} rollups.
+	 *         Data is aggregated by URI and request method.
+	 */
+	@Bean
+	@Lazy
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public AbstractWriteDataProcessor getHttpDataRollupDataProcessor() {
+		IIndexQuery query = httpTimerDataQueryFactory.getFindAllHttpTimersQuery(new HttpTimerData(), null, null);
+		return new RollupDataProcessor<>(HttpTimerData.class, query, new HttpTimerDataAggregator(true, true));
+	}
+
+	/**
+	 * @return Returns {@link AbstractWriteDataProcessor} for the {@link ExceptionSensorData}
+	 *         rollups.
+	 */
+	@Bean
+	@Lazy
+	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public AbstractWriteDataProcessor getExceptionDataRollupDataProcessor() {
+		IIndexQuery query = exceptionSensorDataQueryFactory.getDataForGroupedExceptionOverviewQuery(new ExceptionSensorData(), null, null);
+		return new RollupDataProcessor<>(ExceptionSensorData.class, query, Aggregators.GROUP_EXCEPTION_OVERVIEW_AGGREGATOR);
+	}
+
 	/**
 	 * Init.
 	 */
@@ -106,6 +161,9 @@ public class CachingWriteDataProcessorProvider {
 
 		exceptionSensorDataQueryFactory = new ExceptionSensorDataQueryFactory<>();
 		exceptionSensorDataQueryFactory.setIndexQueryProvider(storageIndexQueryProvider);
+
+		httpTimerDataQueryFactory = new HttpTimerDataQueryFactory<>();
+		httpTimerDataQueryFactory.setIndexQueryProvider(storageIndexQueryProvider);
 	}
 
 }
@@ -0,0 +1,335 @@
+package rocks.inspectit.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.ISerializer;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.util.KryoSerializationPreferences;
+import rocks.inspectit.shared.all.serializer.util.KryoUtil;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.CombinedStorageBranch;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexMapper;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.StorageFileType;
+import rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock;
+import rocks.inspectit.shared.cs.storage.nio.stream.InputStreamProvider;
+
+/**
+ * Executes queries directly against the files of the closed storages on the CMR. Only the data
+ * passing the query (optionally aggregated and limited) is returned, thus the clients do not have
+ * to download and deserialize the complete storage descriptors in order to filter them.
+ * <p>
+ * The storage files are read with the {@link InputStreamProvider}, so the reading is done
+ * asynchronously by the {@link rocks.inspectit.shared.cs.storage.nio.read.ReadingChannelManager}
+ * while the already read data is deserialized.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class StorageQueryExecutor {
+
+	/**
+	 * Maximum amount of bytes read with one input stream. 10MB.
+	 */
+	private static final int MAX_READ_SIZE = 1024 * 1024 * 10;
+
+	/**
+	 * Maximum amount of storage indexing trees kept in memory.
+	 */
+	private static final int MAX_CACHED_INDEXING_TREES = 5;
+
+	/**
+	 * Time in minutes after which an indexing tree that has not been used is removed from the
+	 * cache.
+	 */
+	private static final int INDEXING_TREE_EXPIRATION = 10;
+
+	/**
+	 * {@link CmrStorageManager}.
+	 */
+	@Autowired
+	CmrStorageManager storageManager;
+
+	/**
+	 * {@link InputStreamProvider}.
+	 */
+	@Autowired
+	InputStreamProvider inputStreamProvider;
+
+	/**
+	 * {@link SerializationManagerProvider}.
+	 */
+	@Autowired
+	SerializationManagerProvider serializationManagerProvider;
+
+	/**
+	 * Cache of the loaded indexing trees, keyed by the storage id. Loading the indexing tree of
+	 * big storages is expensive, so we keep the last used ones. The index leaf files of removed
+	 * trees are unmapped.
+	 */
+	private final Cache<String, IStorageTreeComponent<DefaultData>> indexingTreeCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_INDEXING_TREES)
+			.expireAfterAccess(INDEXING_TREE_EXPIRATION, TimeUnit.MINUTES).softValues().removalListener(new RemovalListener<String, IStorageTreeComponent<DefaultData>>() {
+				@Override
+				public void onRemoval(RemovalNotification<String, IStorageTreeComponent<DefaultData>> notification) {
+					// value is null if it was already garbage collected
+					if (null != notification.getValue()) {
+						StorageIndexMapper.releaseLeaves(notification.getValue());
+					}
+				}
+			}).build();
+
+	/**
+	 * Executes the query against the given storage. The storage must exist and be closed.
+	 *
+	 * @param <E>
+	 *            Type of the data returned.
+	 * @param storageData
+	 *            Storage to query.
+	 * @param query
+	 *            Query to execute.
+	 * @param aggregator
+	 *            {@link IAggregator} to aggregate the results with. Pass <code>null</code> if no
+	 *            aggregation is needed.
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 *            The limit is only applied when no aggregator is given.
+	 * @return Data that complies the query.
+	 * @throws IOException
+	 *             If the storage files can not be read.
+	 * @throws SerializationException
+	 *             If the storage data can not be deserialized.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends DefaultData> List<E> executeQuery(StorageData storageData, IIndexQuery query, IAggregator<E> aggregator, int limit) throws IOException, SerializationException {
+		IStorageTreeComponent<DefaultData> indexingTree = getIndexingTree(storageData);
+		if (null == indexingTree) {
+			return Collections.emptyList();
+		}
+
+		List<IStorageDescriptor> descriptors = indexingTree.query(query);
+		if (descriptors.isEmpty()) {
+			return Collections.emptyList();
+		}
+		// sort the descriptors so that we read the files sequentially
+		Collections.sort(descriptors, new Comparator<IStorageDescriptor>() {
+			@Override
+			public int compare(IStorageDescriptor o1, IStorageDescriptor o2) {
+				int channelCompare = Integer.compare(o1.getChannelId(), o2.getChannelId());
+				if (channelCompare != 0) {
+					return channelCompare;
+				} else {
+					return Long.compare(o1.getPosition(), o2.getPosition());
+				}
+			}
+		});
+
+		AggregationPerformer<E> aggregationPerformer = null;
+		if (null != aggregator) {
+			aggregationPerformer = new AggregationPerformer<>(aggregator);
+		}
+		boolean limited = (null == aggregator) && (limit > -1);
+		List<E> returnList = new ArrayList<>();
+
+		ISerializer serializer = serializationManagerProvider.createSerializer();
+		// column blocks not complying the query are skipped already on reading the block header
+		Map<String, IIndexQuery> kryoPreferences = Collections.singletonMap(KryoSerializationPreferences.FILTER_QUERY, query);
+		long size = 0;
+		List<StorageDescriptor> readDescriptors = new ArrayList<>();
+		for (int i = 0; i < descriptors.size(); i++) {
+			IStorageDescriptor descriptor = descriptors.get(i);
+			size += descriptor.getSize();
+			join(readDescriptors, descriptor);
+
+			if ((size <= MAX_READ_SIZE) && (i < (descriptors.size() - 1))) {
+				continue;
+			}
+
+			InputStream inputStream = null;
+			Input input = null;
+			try {
+				inputStream = inputStreamProvider.getExtendedByteBufferInputStream(storageData, new ArrayList<IStorageDescriptor>(readDescriptors));
+				input = new Input(inputStream);
+				while (KryoUtil.hasMoreBytes(input)) {
+					Object deserialized = serializer.deserialize(input, kryoPreferences);
+					List<E> elements;
+					if (deserialized instanceof AbstractColumnBlock) {
+						// columns of the block are not read if no element can comply the query
+						AbstractColumnBlock<?> columnBlock = (AbstractColumnBlock<?>) deserialized;
+						if (!columnBlock.isQueryComplied(query)) {
+							continue;
+						}
+						elements = (List<E>) columnBlock.getElements();
+					} else {
+						elements = Collections.singletonList((E) deserialized);
+					}
+
+					for (E element : elements) {
+						if ((null == element) || !element.isQueryComplied(query)) {
+							continue;
+						}
+						if (null != aggregationPerformer) {
+							aggregationPerformer.processElement(element);
+						} else {
+							returnList.add(element);
+							if (limited && (returnList.size() >= limit)) {
+								return returnList;
+							}
+						}
+					}
+				}
+			} finally {
+				if (null != input) {
+					input.close();
+				} else if (null != inputStream) {
+					inputStream.close();
+				}
+			}
+
+			size = 0;
+			readDescriptors = new ArrayList<>();
+		}
+
+		if (null != aggregationPerformer) {
+			return aggregationPerformer.getResultList();
+		}
+		return returnList;
+	}
+
+	/**
+	 * Removes the cached indexing tree of the storage and unmaps its index leaf files. Should be
+	 * called before the storage is deleted.
+	 *
+	 * @param storageData
+	 *            Storage.
+	 */
+	public void invalidateIndexingTree(StorageData storageData) {
+		indexingTreeCache.invalidate(storageData.getId());
+	}
+
+	/**
+	 * Adds the descriptor to the list of descriptors to read. If the descriptor directly follows
+	 * the last descriptor in the list, the two are joined so that they are read with one
+	 * operation.
+	 *
+	 * @param readDescriptors
+	 *            Descriptors to read, sorted by channel and position.
+	 * @param descriptor
+	 *            Descriptor to add.
+	 */
+	private void join(List<StorageDescriptor> readDescriptors, IStorageDescriptor descriptor) {
+		if (!readDescriptors.isEmpty() && readDescriptors.get(readDescriptors.size() - 1).join(descriptor)) {
+			return;
+		}
+		// copy, so that the descriptors of the cached indexing tree are never changed by joining
+		readDescriptors.add(new StorageDescriptor(descriptor.getChannelId(), descriptor.getPosition(), descriptor.getSize()));
+	}
+
+	/**
+	 * Returns the indexing tree of the storage, loading it from the disk if it is not cached.
+	 *
+	 * @param storageData
+	 *            Storage.
+	 * @return Indexing tree or <code>null</code> if the storage has no index files.
+	 * @throws IOException
+	 *             If the index files can not be read.
+	 * @throws SerializationException
+	 *             If the index files can not be deserialized.
+	 */
+	private IStorageTreeComponent<DefaultData> getIndexingTree(StorageData storageData) throws IOException, SerializationException {
+		IStorageTreeComponent<DefaultData> indexingTree = indexingTreeCache.getIfPresent(storageData.getId());
+		if (null == indexingTree) {
+			indexingTree = loadIndexingTree(storageData);
+			if (null != indexingTree) {
+				indexingTreeCache.put(storageData.getId(), indexingTree);
+			}
+		}
+		return indexingTree;
+	}
+
+	/**
+	 * Loads the indexing tree of the storage from the index files.
+	 *
+	 * @param storageData
+	 *            Storage.
+	 * @return Indexing tree or <code>null</code> if the storage has no index files.
+	 * @throws IOException
+	 *             If the index files can not be read.
+	 * @throws SerializationException
+	 *             If the index files can not be deserialized.
+	 */
+	@SuppressWarnings("unchecked")
+	private IStorageTreeComponent<DefaultData> loadIndexingTree(StorageData storageData) throws IOException, SerializationException {
+		final List<Path> indexFiles = new ArrayList<>();
+		Path storagePath = storageManager.getStoragePath(storageData);
+		if (!Files.isDirectory(storagePath)) {
+			return null;
+		}
+		Files.walkFileTree(storagePath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (file.toString().endsWith(StorageFileType.INDEX_FILE.getExtension())) {
+					indexFiles.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		ISerializer serializer = serializationManagerProvider.createSerializer();
+		List<IStorageTreeComponent<DefaultData>> indexingTrees = new ArrayList<>();
+		for (Path file : indexFiles) {
+			Input input = null;
+			try {
+				input = new Input(Files.newInputStream(file, StandardOpenOption.READ));
+				Object deserialized = serializer.deserialize(input);
+				if (deserialized instanceof IStorageTreeComponent) {
+					IStorageTreeComponent<DefaultData> indexingTree = (IStorageTreeComponent<DefaultData>) deserialized;
+					StorageIndexMapper.bindLeaves(indexingTree, file.getParent());
+					indexingTrees.add(indexingTree);
+				}
+			} finally {
+				if (null != input) {
+					input.close();
+				}
+			}
+		}
+
+		if (indexingTrees.isEmpty()) {
+			return null;
+		} else if (indexingTrees.size() == 1) {
+			return indexingTrees.get(0);
+		} else {
+			return new CombinedStorageBranch<>(indexingTrees);
+		}
+	}
+
+}
@@ -0,0 +1,298 @@
+package rocks.inspectit.server.subscription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+
+/**
+ * Subscription of a client to the new data passing the CMR processors. Depending on the mode the
+ * subscription either queues the matching elements or aggregates them per interval. The client
+ * polls the subscription for the queued elements or the aggregates of the passed interval.
+ * <p>
+ * The queue of the subscription is bounded, elements arriving while the queue is full are dropped
+ * and counted, so that a slow client can not exhaust the CMR memory. Invocation sequences are
+ * queued as the overview clones without the nested sequences, so a queued invocation does not
+ * hold its complete tree in memory; the details can be loaded with the ID of the invocation.
+ *
+ * @author agent
+ *
+ */
+public class LiveDataSubscription {
+
+	/**
+	 * Maximum amount of elements queued for one subscription.
+	 */
+	static final int QUEUE_CAPACITY = 10000;
+
+	/**
+	 * ID of the subscription.
+	 */
+	private final long id;
+
+	/**
+	 * Type of the subscribed data.
+	 */
+	private final LiveDataType type;
+
+	/**
+	 * Query the elements must comply to.
+	 */
+	private final IIndexQuery query;
+
+	/**
+	 * Queue of the matching elements, <code>null</code> if the subscription aggregates.
+	 */
+	private final BlockingQueue<DefaultData> queue;
+
+	/**
+	 * Performer aggregating the matching elements of the current interval, <code>null</code> if
+	 * the subscription queues the elements.
+	 */
+	private final AggregationPerformer<DefaultData> aggregationPerformer;
+
+	/**
+	 * Aggregation interval in milliseconds.
+	 */
+	private final long interval;
+
+	/**
+	 * Start time of the current aggregation interval.
+	 */
+	private long intervalStart;
+
+	/**
+	 * Amount of dropped elements because the queue was full.
+	 */
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	/**
+	 * Time the subscription was last accessed by the client.
+	 */
+	private volatile long lastAccessTime;
+
+	/**
+	 * Creates the subscription queuing the matching elements.
+	 *
+	 * @param id
+	 *            ID of the subscription.
+	 * @param type
+	 *            Type of the subscribed data.
+	 * @param query
+	 *            Query the elements must comply to.
+	 */
+	public LiveDataSubscription(long id, LiveDataType type, IIndexQuery query) {
+		this.id = id;
+		this.type = type;
+		this.query = query;
+		this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		this.aggregationPerformer = null;
+		this.interval = 0;
+		this.lastAccessTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Creates the subscription aggregating the matching elements per interval.
+	 *
+	 * @param id
+	 *            ID of the subscription.
+	 * @param type
+	 *            Type of the subscribed data, must be aggregatable.
+	 * @param query
+	 *            Query the elements must comply to.
+	 * @param interval
+	 *            Aggregation interval in milliseconds.
+	 */
+	@SuppressWarnings("unchecked")
+	public LiveDataSubscription(long id, LiveDataType type, IIndexQuery query, long interval) {
+		if (!type.isAggregatable()) {
+			throw new IllegalArgumentException("Data of type " + type + " can not be aggregated.");
+		}
+		if (interval <= 0) {
+			throw new IllegalArgumentException("Aggregation interval must be positive.");
+		}
+		this.id = id;
+		this.type = type;
+		this.query = query;
+		this.queue = null;
+		this.aggregationPerformer = new AggregationPerformer<>((IAggregator<DefaultData>) type.getAggregator());
+		this.interval = interval;
+		this.lastAccessTime = System.currentTimeMillis();
+		this.intervalStart = lastAccessTime;
+	}
+
+	/**
+	 * Passes the element matching the subscription.
+	 *
+	 * @param defaultData
+	 *            Element matching the index key of the subscription.
+	 */
+	void publish(DefaultData defaultData) {
+		if (null != aggregationPerformer) {
+			synchronized (aggregationPerformer) {
+				aggregationPerformer.processElement(defaultData);
+			}
+		} else if (!queue.offer(toQueued(defaultData))) {
+			droppedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the element to queue for the given matching element.
+	 *
+	 * @param defaultData
+	 *            Matching element.
+	 * @return The overview clone for the invocation sequences, the element itself otherwise.
+	 */
+	private DefaultData toQueued(DefaultData defaultData) {
+		if (defaultData instanceof InvocationSequenceData) {
+			return ((InvocationSequenceData) defaultData).getClonedInvocationSequence();
+		}
+		return defaultData;
+	}
+
+	/**
+	 * Returns the queued elements, waiting at most the given time for the first element to arrive.
+	 * If the subscription aggregates, waits for the end of the current interval and returns the
+	 * aggregates of the interval, or an empty list if the interval does not end within the given
+	 * time.
+	 *
+	 * @param timeout
+	 *            Maximum time to wait in milliseconds.
+	 * @return Queued elements or aggregates of the passed interval.
+	 * @throws InterruptedException
+	 *             If the waiting thread is interrupted.
+	 */
+	public List<DefaultData> poll(long timeout) throws InterruptedException {
+		lastAccessTime = System.currentTimeMillis();
+		if (null != aggregationPerformer) {
+			return pollAggregates(timeout);
+		}
+
+		DefaultData first = queue.poll(timeout, TimeUnit.MILLISECONDS);
+		if (null == first) {
+			return Collections.emptyList();
+		}
+		List<DefaultData> result = new ArrayList<>();
+		result.add(first);
+		queue.drainTo(result);
+		return result;
+	}
+
+	/**
+	 * Waits for the end of the current aggregation interval and returns the aggregates of the
+	 * interval.
+	 *
+	 * @param timeout
+	 *            Maximum time to wait in milliseconds.
+	 * @return Aggregates of the interval or an empty list if the interval does not end within the
+	 *         given time.
+	 * @throws InterruptedException
+	 *             If the waiting thread is interrupted.
+	 */
+	private List<DefaultData> pollAggregates(long timeout) throws InterruptedException {
+		long wait;
+		synchronized (aggregationPerformer) {
+			wait = (intervalStart + interval) - System.currentTimeMillis();
+		}
+		if (wait > timeout) {
+			TimeUnit.MILLISECONDS.sleep(timeout);
+			return Collections.emptyList();
+		} else if (wait > 0) {
+			TimeUnit.MILLISECONDS.sleep(wait);
+		}
+
+		synchronized (aggregationPerformer) {
+			List<DefaultData> result = aggregationPerformer.getResultList();
+			aggregationPerformer.reset();
+			intervalStart = System.currentTimeMillis();
+			return result;
+		}
+	}
+
+	/**
+	 * Returns if the subscription was not accessed by the client longer than the given time.
+	 *
+	 * @param currentTime
+	 *            Current time in milliseconds.
+	 * @param expireTime
+	 *            Time in milliseconds after which the subscription expires.
+	 * @return Returns if the subscription is expired.
+	 */
+	boolean isExpired(long currentTime, long expireTime) {
+		return (currentTime - lastAccessTime) > expireTime;
+	}
+
+	/**
+	 * Returns if the subscription aggregates the elements per interval.
+	 *
+	 * @return Returns if the subscription aggregates the elements per interval.
+	 */
+	public boolean isAggregating() {
+		return null != aggregationPerformer;
+	}
+
+	/**
+	 * Gets {@link #id}.
+	 *
+	 * @return {@link #id}
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Gets {@link #type}.
+	 *
+	 * @return {@link #type}
+	 */
+	public LiveDataType getType() {
+		return this.type;
+	}
+
+	/**
+	 * Gets {@link #query}.
+	 *
+	 * @return {@link #query}
+	 */
+	public IIndexQuery getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * Gets {@link #interval}.
+	 *
+	 * @return {@link #interval}
+	 */
+	public long getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Returns the amount of dropped elements because the queue was full.
+	 *
+	 * @return Returns the amount of dropped elements because the queue was full.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "LiveDataSubscription [id=" + id + ", type=" + type + ", platformIdent=" + query.getPlatformIdent() + ", sensorTypeIdent=" + query.getSensorTypeIdent() + ", methodIdent="
+				+ query.getMethodIdent() + ", aggregating=" + isAggregating() + ", droppedCount=" + droppedCount.get() + "]";
+	}
+
+}
@@ -0,0 +1,410 @@
+package rocks.inspectit.server.subscription;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.indexing.restriction.IIndexQueryRestriction;
+import rocks.inspectit.shared.all.spring.logger.Log;
+import rocks.inspectit.shared.cs.indexing.query.provider.impl.IndexQueryProvider;
+
+/**
+ * Manages the live data subscriptions of the clients and passes the new data to the matching
+ * subscriptions.
+ * <p>
+ * Subscriptions are indexed by the data class, platform ident, sensor type ident and method ident,
+ * where the idents not defined by the subscription are indexed as <code>0</code>. For every new
+ * element only the index keys of the wildcard combinations some subscription is registered with
+ * are probed, thus the cost of the matching does not grow with the amount of subscriptions. Only
+ * the subscriptions found by the index evaluate the rest of the query (the restrictions) against
+ * the element.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class LiveDataSubscriptionManager {
+
+	/**
+	 * Time in milliseconds after which a subscription not accessed by the client is removed.
+	 */
+	static final long SUBSCRIPTION_EXPIRE_TIME = TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * Maximum amount of registered subscriptions. Every subscription can queue up to
+	 * {@link LiveDataSubscription#QUEUE_CAPACITY} elements, thus the amount must be limited.
+	 */
+	static final int MAX_SUBSCRIPTIONS = 100;
+
+	/**
+	 * Rate in milliseconds of the check for the expired subscriptions.
+	 */
+	private static final long EXPIRE_CHECK_RATE = 60000;
+
+	/**
+	 * The logger of this class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * {@link IndexQueryProvider} for creating the subscription queries.
+	 */
+	@Autowired
+	IndexQueryProvider indexQueryProvider;
+
+	/**
+	 * Generator of the subscription IDs.
+	 */
+	private final AtomicLong idGenerator = new AtomicLong();
+
+	/**
+	 * Registered subscriptions mapped by ID.
+	 */
+	private final ConcurrentHashMap<Long, LiveDataSubscription> subscriptions = new ConcurrentHashMap<>();
+
+	/**
+	 * Index of the registered subscriptions. Replaced on every change, so that the publishing does
+	 * not need any locking.
+	 */
+	private volatile SubscriptionIndex subscriptionIndex = SubscriptionIndex.EMPTY;
+
+	/**
+	 * Registers a new subscription.
+	 *
+	 * @param type
+	 *            Type of the subscribed data.
+	 * @param platformId
+	 *            ID of the platform ident or <code>0</code> for all platforms.
+	 * @param sensorTypeId
+	 *            ID of the sensor type ident or <code>0</code> for all sensor types.
+	 * @param methodId
+	 *            ID of the method ident or <code>0</code> for all methods.
+	 * @param restrictions
+	 *            Additional restrictions the elements must fulfill, can be empty.
+	 * @param interval
+	 *            Aggregation interval in milliseconds or <code>0</code> if the elements should not
+	 *            be aggregated.
+	 * @return Registered subscription.
+	 * @throws IllegalStateException
+	 *             If the {@link #MAX_SUBSCRIPTIONS} are already registered.
+	 */
+	public LiveDataSubscription subscribe(LiveDataType type, long platformId, long sensorTypeId, long methodId, Collection<IIndexQueryRestriction> restrictions, long interval) {
+		IIndexQuery query = indexQueryProvider.createNewIndexQuery();
+		query.setObjectClasses(Collections.<Class<?>> singletonList(type.getDataClass()));
+		query.setPlatformIdent(platformId);
+		query.setSensorTypeIdent(sensorTypeId);
+		query.setMethodIdent(methodId);
+		for (IIndexQueryRestriction restriction : restrictions) {
+			query.addIndexingRestriction(restriction);
+		}
+
+		long id = idGenerator.incrementAndGet();
+		LiveDataSubscription subscription;
+		if (interval > 0) {
+			subscription = new LiveDataSubscription(id, type, query, interval);
+		} else {
+			subscription = new LiveDataSubscription(id, type, query);
+		}
+
+		synchronized (this) {
+			if (subscriptions.size() >= MAX_SUBSCRIPTIONS) {
+				throw new IllegalStateException("Live data subscription can not be registered, the maximum of " + MAX_SUBSCRIPTIONS + " subscriptions is reached.");
+			}
+			subscriptions.put(id, subscription);
+			subscriptionIndex = new SubscriptionIndex(subscriptions.values());
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Live data subscription registered: " + subscription);
+		}
+		return subscription;
+	}
+
+	/**
+	 * Returns the subscription with the given ID.
+	 *
+	 * @param id
+	 *            ID of the subscription.
+	 * @return Subscription or <code>null</code> if the subscription does not exist or has expired.
+	 */
+	public LiveDataSubscription getSubscription(long id) {
+		return subscriptions.get(id);
+	}
+
+	/**
+	 * Removes the subscription with the given ID.
+	 *
+	 * @param id
+	 *            ID of the subscription.
+	 * @return Returns <code>true</code> if the subscription was removed, <code>false</code> if it
+	 *         did not exist.
+	 */
+	public boolean unsubscribe(long id) {
+		LiveDataSubscription removed;
+		synchronized (this) {
+			removed = subscriptions.remove(id);
+			if (null != removed) {
+				subscriptionIndex = new SubscriptionIndex(subscriptions.values());
+			}
+		}
+
+		if ((null != removed) && log.isDebugEnabled()) {
+			log.debug("Live data subscription removed: " + removed);
+		}
+		return null != removed;
+	}
+
+	/**
+	 * Returns if there is at least one registered subscription.
+	 *
+	 * @return Returns if there is at least one registered subscription.
+	 */
+	public boolean hasSubscriptions() {
+		return !subscriptionIndex.isEmpty();
+	}
+
+	/**
+	 * Passes the new element to all matching subscriptions.
+	 *
+	 * @param defaultData
+	 *            New element.
+	 */
+	public void publish(DefaultData defaultData) {
+		SubscriptionIndex index = subscriptionIndex;
+		if (index.isEmpty()) {
+			return;
+		}
+
+		for (LiveDataSubscription subscription : index.getCandidates(defaultData)) {
+			if (defaultData.isQueryComplied(subscription.getQuery())) {
+				subscription.publish(defaultData);
+			}
+		}
+	}
+
+	/**
+	 * Removes the subscriptions that were not accessed by the clients in the
+	 * {@link #SUBSCRIPTION_EXPIRE_TIME}.
+	 */
+	@Scheduled(fixedRate = EXPIRE_CHECK_RATE)
+	public void removeExpiredSubscriptions() {
+		long currentTime = System.currentTimeMillis();
+		for (LiveDataSubscription subscription : subscriptions.values()) {
+			if (subscription.isExpired(currentTime, SUBSCRIPTION_EXPIRE_TIME) && unsubscribe(subscription.getId()) && log.isInfoEnabled()) {
+				log.info("Live data subscription " + subscription.getId() + " expired as it was not accessed in the last " + TimeUnit.MILLISECONDS.toMinutes(SUBSCRIPTION_EXPIRE_TIME)
+						+ " minutes.");
+			}
+		}
+	}
+
+	/**
+	 * Immutable index of the subscriptions.
+	 *
+	 * @author agent
+	 *
+	 */
+	static final class SubscriptionIndex {
+
+		/**
+		 * Empty index.
+		 */
+		static final SubscriptionIndex EMPTY = new SubscriptionIndex(Collections.<LiveDataSubscription> emptyList());
+
+		/**
+		 * Bit of the pattern marking the defined platform ident.
+		 */
+		private static final int PLATFORM = 1;
+
+		/**
+		 * Bit of the pattern marking the defined sensor type ident.
+		 */
+		private static final int SENSOR_TYPE = 2;
+
+		/**
+		 * Bit of the pattern marking the defined method ident.
+		 */
+		private static final int METHOD = 4;
+
+		/**
+		 * Subscriptions mapped by the index key.
+		 */
+		private final Map<IndexKey, List<LiveDataSubscription>> subscriptionMap = new HashMap<>();
+
+		/**
+		 * Patterns of the defined idents the subscriptions are registered with.
+		 */
+		private final boolean[] patterns = new boolean[8];
+
+		/**
+		 * Builds the index of the given subscriptions.
+		 *
+		 * @param subscriptions
+		 *            Subscriptions to index.
+		 */
+		SubscriptionIndex(Collection<LiveDataSubscription> subscriptions) {
+			for (LiveDataSubscription subscription : subscriptions) {
+				IIndexQuery query = subscription.getQuery();
+				IndexKey key = new IndexKey(subscription.getType().getDataClass(), query.getPlatformIdent(), query.getSensorTypeIdent(), query.getMethodIdent());
+				List<LiveDataSubscription> list = subscriptionMap.get(key);
+				if (null == list) {
+					list = new ArrayList<>(1);
+					subscriptionMap.put(key, list);
+				}
+				list.add(subscription);
+
+				int pattern = 0;
+				if (0 != query.getPlatformIdent()) {
+					pattern |= PLATFORM;
+				}
+				if (0 != query.getSensorTypeIdent()) {
+					pattern |= SENSOR_TYPE;
+				}
+				if (0 != query.getMethodIdent()) {
+					pattern |= METHOD;
+				}
+				patterns[pattern] = true;
+			}
+		}
+
+		/**
+		 * Returns if the index holds no subscriptions.
+		 *
+		 * @return Returns if the index holds no subscriptions.
+		 */
+		boolean isEmpty() {
+			return subscriptionMap.isEmpty();
+		}
+
+		/**
+		 * Returns the subscriptions whose index key matches the element.
+		 *
+		 * @param defaultData
+		 *            Element.
+		 * @return Candidate subscriptions, the restrictions of the subscriptions are not checked.
+		 */
+		List<LiveDataSubscription> getCandidates(DefaultData defaultData) {
+			long methodIdent = 0;
+			if (defaultData instanceof MethodSensorData) {
+				methodIdent = ((MethodSensorData) defaultData).getMethodIdent();
+			}
+
+			List<LiveDataSubscription> result = null;
+			for (int pattern = 0; pattern < patterns.length; pattern++) {
+				if (!patterns[pattern]) {
+					continue;
+				}
+				IndexKey key = new IndexKey(defaultData.getClass(), ((pattern & PLATFORM) != 0) ? defaultData.getPlatformIdent() : 0, // NOCHK
+						((pattern & SENSOR_TYPE) != 0) ? defaultData.getSensorTypeIdent() : 0, ((pattern & METHOD) != 0) ? methodIdent : 0);
+				List<LiveDataSubscription> list = subscriptionMap.get(key);
+				if (null != list) {
+					if (null == result) {
+						result = list;
+					} else {
+						result = new ArrayList<>(result);
+						result.addAll(list);
+					}
+				}
+			}
+			if (null == result) {
+				return Collections.emptyList();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Key of the subscription index.
+	 *
+	 * @author agent
+	 *
+	 */
+	static final class IndexKey {
+
+		/**
+		 * Data class.
+		 */
+		private final Class<?> dataClass;
+
+		/**
+		 * Platform ident or <code>0</code>.
+		 */
+		private final long platformIdent;
+
+		/**
+		 * Sensor type ident or <code>0</code>.
+		 */
+		private final long sensorTypeIdent;
+
+		/**
+		 * Method ident or <code>0</code>.
+		 */
+		private final long methodIdent;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param dataClass
+		 *            Data class.
+		 * @param platformIdent
+		 *            Platform ident or <code>0</code>.
+		 * @param sensorTypeIdent
+		 *            Sensor type ident or <code>0</code>.
+		 * @param methodIdent
+		 *            Method ident or <code>0</code>.
+		 */
+		IndexKey(Class<?> dataClass, long platformIdent, long sensorTypeIdent, long methodIdent) {
+			this.dataClass = dataClass;
+			this.platformIdent = platformIdent;
+			this.sensorTypeIdent = sensorTypeIdent;
+			this.methodIdent = methodIdent;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + dataClass.hashCode();
+			result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
+			result = (prime * result) + (int) (sensorTypeIdent ^ (sensorTypeIdent >>> 32));
+			result = (prime * result) + (int) (methodIdent ^ (methodIdent >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			IndexKey other = (IndexKey) obj;
+			return (dataClass == other.dataClass) && (platformIdent == other.platformIdent) && (sensorTypeIdent == other.sensorTypeIdent) && (methodIdent == other.methodIdent);
+		}
+	}
+
+}
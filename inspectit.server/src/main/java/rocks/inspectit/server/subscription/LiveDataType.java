@@ -0,0 +1,91 @@
+package rocks.inspectit.server.subscription;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+
+/**
+ * Types of data a live data subscription can be registered for.
+ *
+ * @author agent
+ *
+ */
+public enum LiveDataType {
+
+	/**
+	 * Timer data.
+	 */
+	TIMER(TimerData.class, Aggregators.TIMER_DATA_AGGREGATOR),
+
+	/**
+	 * HTTP timer data. Can not be aggregated, as the HTTP aggregation depends on the view settings.
+	 */
+	HTTP_TIMER(HttpTimerData.class, null),
+
+	/**
+	 * SQL statements.
+	 */
+	SQL(SqlStatementData.class, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR),
+
+	/**
+	 * Invocation sequences.
+	 */
+	INVOCATION(InvocationSequenceData.class, null);
+
+	/**
+	 * Class of the data.
+	 */
+	private final Class<? extends DefaultData> dataClass;
+
+	/**
+	 * Aggregator for the per-interval aggregation or <code>null</code> if data can not be
+	 * aggregated.
+	 */
+	private final IAggregator<? extends DefaultData> aggregator;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param dataClass
+	 *            Class of the data.
+	 * @param aggregator
+	 *            Aggregator for the per-interval aggregation or <code>null</code> if data can not
+	 *            be aggregated.
+	 */
+	LiveDataType(Class<? extends DefaultData> dataClass, IAggregator<? extends DefaultData> aggregator) {
+		this.dataClass = dataClass;
+		this.aggregator = aggregator;
+	}
+
+	/**
+	 * Returns if the data of this type can be aggregated.
+	 *
+	 * @return Returns if the data of this type can be aggregated.
+	 */
+	public boolean isAggregatable() {
+		return null != aggregator;
+	}
+
+	/**
+	 * Gets {@link #dataClass}.
+	 *
+	 * @return {@link #dataClass}
+	 */
+	public Class<? extends DefaultData> getDataClass() {
+		return this.dataClass;
+	}
+
+	/**
+	 * Gets {@link #aggregator}.
+	 *
+	 * @return {@link #aggregator}
+	 */
+	public IAggregator<? extends DefaultData> getAggregator() {
+		return this.aggregator;
+	}
+
+}
@@ -1,5 +1,7 @@
 package rocks.inspectit.server.util;
 
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.stereotype.Component;
@@ -22,6 +24,17 @@ public class CacheIdGenerator {
 	 */
 	private AtomicLong nextId = new AtomicLong(Long.MAX_VALUE / (long) Math.pow(2, 32));
 
+	/**
+	 * Highest ID assigned before the buffer was cleared the last time. No element with equal or
+	 * lower ID is in the buffer anymore.
+	 */
+	private volatile long clearedUpToId = nextId.get();
+
+	/**
+	 * Lowest IDs the batches being processed can get, with the amount of the batches per ID.
+	 */
+	private final TreeMap<Long, Integer> processingBatches = new TreeMap<>();
+
 	/**
 	 * Assigns the {@link DefaultData} object a unique ID.
 	 *
@@ -32,4 +45,98 @@ public class CacheIdGenerator {
 		long id = nextId.incrementAndGet();
 		defaultData.setId(id);
 	}
+
+	/**
+	 * Returns the highest ID assigned so far.
+	 *
+	 * @return Returns the highest ID assigned so far.
+	 */
+	public long getLastAssignedId() {
+		return nextId.get();
+	}
+
+	/**
+	 * Marks the start of the processing of a batch. Must be called before the IDs are assigned to
+	 * the elements of the batch and followed by the {@link #endProcessing(long)} once the elements
+	 * are put to the buffer.
+	 *
+	 * @return Token to pass to the {@link #endProcessing(long)}.
+	 */
+	public synchronized long startProcessing() {
+		long lowestId = nextId.get() + 1;
+		Integer count = processingBatches.get(lowestId);
+		processingBatches.put(lowestId, (null == count) ? 1 : count + 1);
+		return lowestId;
+	}
+
+	/**
+	 * Marks the end of the processing of a batch.
+	 *
+	 * @param token
+	 *            Token returned by the {@link #startProcessing()}.
+	 */
+	public synchronized void endProcessing(long token) {
+		Integer count = processingBatches.get(token);
+		if ((null == count) || (count <= 1)) {
+			processingBatches.remove(token);
+		} else {
+			processingBatches.put(token, count - 1);
+		}
+	}
+
+	/**
+	 * Returns the highest ID up to which all assigned IDs belong to the batches that completed the
+	 * processing. IDs are assigned to the concurrently processed batches out of the order the
+	 * elements get to the buffer, thus elements with higher ID can already be in the buffer while
+	 * the lower ones are still processed.
+	 *
+	 * @return Returns the highest ID up to which the processing is completed.
+	 */
+	public long getProcessedUpToId() {
+		// assigned ID must be read before the processing batches, see startProcessing()
+		long lastAssignedId = nextId.get();
+		Map.Entry<Long, Integer> lowest;
+		synchronized (this) {
+			lowest = processingBatches.firstEntry();
+		}
+		if (null == lowest) {
+			return lastAssignedId;
+		}
+		return Math.min(lastAssignedId, lowest.getKey() - 1);
+	}
+
+	/**
+	 * Marks that the buffer was cleared, thus no element with the ID assigned so far is in the
+	 * buffer anymore.
+	 */
+	public void markBufferCleared() {
+		clearedUpToId = nextId.get();
+	}
+
+	/**
+	 * Makes sure that no ID up to the given one is assigned anymore. Used when the elements with
+	 * the IDs assigned before the restart are loaded, these elements are handled as if the buffer
+	 * was cleared after them.
+	 *
+	 * @param id
+	 *            Highest ID that must not be assigned.
+	 */
+	public void skipIdsUpTo(long id) {
+		while (true) {
+			long current = nextId.get();
+			if ((current >= id) || nextId.compareAndSet(current, id)) {
+				break;
+			}
+		}
+		markBufferCleared();
+	}
+
+	/**
+	 * Gets {@link #clearedUpToId}.
+	 *
+	 * @return {@link #clearedUpToId}
+	 */
+	public long getClearedUpToId() {
+		return clearedUpToId;
+	}
 }
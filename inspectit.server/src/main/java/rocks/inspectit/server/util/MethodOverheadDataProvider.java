@@ -0,0 +1,99 @@
+package rocks.inspectit.server.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Bean that keeps the latest method overhead statistics reported by the agents.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class MethodOverheadDataProvider implements ApplicationListener<AgentDeletedEvent> {
+
+	/**
+	 * Logger for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Map that holds IDs of the platform idents and the overhead data mapped to the method id.
+	 */
+	private final ConcurrentHashMap<Long, Map<Long, MethodOverheadData>> methodOverheadDataMap = new ConcurrentHashMap<>(8, 0.75f, 1);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onApplicationEvent(AgentDeletedEvent event) {
+		methodOverheadDataMap.remove(event.getPlatformId());
+	}
+
+	/**
+	 * Registers the overhead data reported by the agent. The agent reports the complete statistics
+	 * of a method each time, thus reported data replaces the existing data of the same method.
+	 *
+	 * @param platformIdent
+	 *            ID of the platform ident.
+	 * @param methodOverheadData
+	 *            Reported overhead data.
+	 */
+	public void registerMethodOverhead(long platformIdent, Collection<MethodOverheadData> methodOverheadData) {
+		if (CollectionUtils.isEmpty(methodOverheadData)) {
+			return;
+		}
+
+		Map<Long, MethodOverheadData> agentMap = methodOverheadDataMap.get(platformIdent);
+		if (null == agentMap) {
+			agentMap = new ConcurrentHashMap<>();
+			Map<Long, MethodOverheadData> existing = methodOverheadDataMap.putIfAbsent(platformIdent, agentMap);
+			if (null != existing) {
+				agentMap = existing;
+			}
+		}
+
+		for (MethodOverheadData data : methodOverheadData) {
+			MethodOverheadData previous = agentMap.put(data.getMethodId(), data);
+
+			boolean newlyDeinstrumented = data.isDeinstrumented() && ((null == previous) || !previous.isDeinstrumented());
+			if (newlyDeinstrumented && log.isInfoEnabled()) {
+				log.info("Platform " + platformIdent + " removed instrumentation of the method with id " + data.getMethodId() + " due to the overhead ratio of " + data.getOverheadRatio() + ".");
+			}
+		}
+	}
+
+	/**
+	 * Returns the overhead data of all methods of the given platform ident.
+	 *
+	 * @param platformIdent
+	 *            ID of the platform ident.
+	 * @return Returns the overhead data of all methods of the given platform ident sorted by the
+	 *         overhead ratio, highest first.
+	 */
+	public List<MethodOverheadData> getMethodOverheadData(long platformIdent) {
+		Map<Long, MethodOverheadData> agentMap = methodOverheadDataMap.get(platformIdent);
+		if (null == agentMap) {
+			return Collections.emptyList();
+		}
+
+		List<MethodOverheadData> result = new ArrayList<>(agentMap.values());
+		Collections.sort(result, (o1, o2) -> Double.compare(o2.getOverheadRatio(), o1.getOverheadRatio()));
+		return result;
+	}
+
+}
@@ -1,8 +1,14 @@
 package rocks.inspectit.server.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.stereotype.Component;
 
@@ -11,6 +17,12 @@ import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 /**
  * Bean for caching the {@link PlatformIdent} objects, so that they don't have to be loaded from the
  * database all the time.
+ * <p>
+ * Each agent tree has a version that is increased with every change. Marking the platform dirty
+ * invalidates the cached tree completely, while the changes of the method idents and JMX
+ * definitions that are recorded with {@link #recordChanges(long, Collection, Collection)} are
+ * kept in a journal, so that the cached tree can be updated with only the changed idents and
+ * clients can ask for the changes since the version they know.
  *
  * @author Ivan Senic
  *
@@ -19,19 +31,34 @@ import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 public class PlatformIdentCache {
 
 	/**
-	 * Clean set.
+	 * Maximum amount of changed ident IDs kept in the journal of one platform. When exceeded the
+	 * journal is cleared and clients knowing an older version get the complete tree.
 	 */
-	private Map<Long, PlatformIdent> cleanPlatformIdents = new ConcurrentHashMap<>();
+	static final int MAX_JOURNAL_SIZE = 100000;
 
+	/**
+	 * Source of the versions, shared by all platforms. Initialized with the current time, so that
+	 * the versions are not repeated after the CMR restart.
+	 */
+	private final AtomicLong versionSequence = new AtomicLong(System.currentTimeMillis());
+
+	/**
+	 * Cache state per platform ident ID.
+	 */
+	private final ConcurrentHashMap<Long, PlatformState> platformStates = new ConcurrentHashMap<>();
 
 	/**
-	 * Marks platform ident dirty if the one with given ID is known to the cache.
+	 * Marks platform ident dirty. The cached tree is removed and the clients knowing any older
+	 * version will get the complete tree.
 	 *
 	 * @param platformIdentId
 	 *            {@link PlatformIdent} id.
 	 */
 	public void markDirty(long platformIdentId) {
-		cleanPlatformIdents.remove(platformIdentId);
+		PlatformState state = getPlatformState(platformIdentId);
+		synchronized (state) {
+			state.reset(versionSequence.incrementAndGet());
+		}
 	}
 
 	/**
@@ -45,14 +72,67 @@ public class PlatformIdentCache {
 	}
 
 	/**
-	 * Marks platform ident clean. If the marker with this {@link PlatformIdent} already exists, its
-	 * {@link PlatformIdent} object will be changed with the supplied clean one.
+	 * Marks platform ident clean with the current version. If the marker with this
+	 * {@link PlatformIdent} already exists, its {@link PlatformIdent} object will be changed with
+	 * the supplied clean one.
 	 *
 	 * @param platformIdent
 	 *            {@link PlatformIdent}.
 	 */
 	public void markClean(PlatformIdent platformIdent) {
-		cleanPlatformIdents.put(platformIdent.getId(), platformIdent);
+		markClean(platformIdent, getVersion(platformIdent.getId()));
+	}
+
+	/**
+	 * Marks platform ident clean with the given version. The version must be read before the
+	 * {@link PlatformIdent} was loaded, so that the changes recorded during the loading are not
+	 * lost. If the platform was marked dirty in the meantime the given {@link PlatformIdent} is not
+	 * cached.
+	 *
+	 * @param platformIdent
+	 *            {@link PlatformIdent}.
+	 * @param version
+	 *            Version of the tree the {@link PlatformIdent} holds.
+	 */
+	public void markClean(PlatformIdent platformIdent, long version) {
+		PlatformState state = getPlatformState(platformIdent.getId());
+		synchronized (state) {
+			if ((version >= state.journalStart) && (version >= state.snapshotVersion)) {
+				state.snapshot = platformIdent;
+				state.snapshotVersion = version;
+			}
+		}
+	}
+
+	/**
+	 * Records the added or changed method idents and JMX definitions of the platform. The cached
+	 * tree is kept and can be updated by loading only the changed idents.
+	 *
+	 * @param platformIdentId
+	 *            {@link PlatformIdent} id.
+	 * @param methodIdentIds
+	 *            IDs of the added or changed method idents.
+	 * @param jmxDefinitionDataIdentIds
+	 *            IDs of the added or changed JMX definitions.
+	 */
+	public void recordChanges(long platformIdentId, Collection<Long> methodIdentIds, Collection<Long> jmxDefinitionDataIdentIds) {
+		PlatformState state = getPlatformState(platformIdentId);
+		synchronized (state) {
+			long version = versionSequence.incrementAndGet();
+			if ((state.methodIdentVersions.size() + state.jmxDefinitionDataIdentVersions.size() + methodIdentIds.size() + jmxDefinitionDataIdentIds.size()) > MAX_JOURNAL_SIZE) {
+				state.reset(version);
+				return;
+			}
+
+			Long versionObject = Long.valueOf(version);
+			for (Long id : methodIdentIds) {
+				state.methodIdentVersions.put(id, versionObject);
+			}
+			for (Long id : jmxDefinitionDataIdentIds) {
+				state.jmxDefinitionDataIdentVersions.put(id, versionObject);
+			}
+			state.version = version;
+		}
 	}
 
 	/**
@@ -62,16 +142,313 @@ public class PlatformIdentCache {
 	 *            {@link PlatformIdent}.
 	 */
 	public void remove(PlatformIdent platformIdent) {
-		cleanPlatformIdents.remove(platformIdent.getId());
+		platformStates.remove(platformIdent.getId());
 	}
 
 	/**
-	 * Returns clean {@link PlatformIdent}s. This one can be transfered to the UI directly.
+	 * Returns clean {@link PlatformIdent}s, meaning the ones cached with the current version. This
+	 * one can be transfered to the UI directly.
 	 *
 	 * @return Returns clean {@link PlatformIdent}s.
 	 */
 	public Collection<PlatformIdent> getCleanPlatformIdents() {
-		return cleanPlatformIdents.values();
+		List<PlatformIdent> result = new ArrayList<>();
+		for (PlatformState state : platformStates.values()) {
+			synchronized (state) {
+				if ((null != state.snapshot) && (state.snapshotVersion == state.version)) {
+					result.add(state.snapshot);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the current version of the platform tree.
+	 *
+	 * @param platformIdentId
+	 *            {@link PlatformIdent} id.
+	 * @return Current version.
+	 */
+	public long getVersion(long platformIdentId) {
+		PlatformState state = getPlatformState(platformIdentId);
+		synchronized (state) {
+			return state.version;
+		}
+	}
+
+	/**
+	 * Returns the cached tree of the platform, even if it's not up to date with the current
+	 * version.
+	 *
+	 * @param platformIdentId
+	 *            {@link PlatformIdent} id.
+	 * @return Cached tree with its version or <code>null</code> if the tree is not cached.
+	 */
+	public Snapshot getSnapshot(long platformIdentId) {
+		PlatformState state = platformStates.get(platformIdentId);
+		if (null == state) {
+			return null;
+		}
+		synchronized (state) {
+			if (null == state.snapshot) {
+				return null;
+			}
+			return new Snapshot(state.snapshot, state.snapshotVersion);
+		}
+	}
+
+	/**
+	 * Returns the changes of the platform tree since the given version.
+	 *
+	 * @param platformIdentId
+	 *            {@link PlatformIdent} id.
+	 * @param version
+	 *            Known version.
+	 * @return Changes since the given version or <code>null</code> if the changes are not
+	 *         available and the complete tree must be loaded.
+	 */
+	public Changes getChangesSince(long platformIdentId, long version) {
+		PlatformState state = platformStates.get(platformIdentId);
+		if (null == state) {
+			return null;
+		}
+		synchronized (state) {
+			if ((version < state.journalStart) || (version > state.version)) {
+				return null;
+			}
+			return new Changes(state.version, changedSince(state.methodIdentVersions, version), changedSince(state.jmxDefinitionDataIdentVersions, version));
+		}
+	}
+
+	/**
+	 * Returns the IDs that were changed after the given version.
+	 *
+	 * @param idVersions
+	 *            Versions of the last change per ID.
+	 * @param version
+	 *            Known version.
+	 * @return Changed IDs.
+	 */
+	private static List<Long> changedSince(Map<Long, Long> idVersions, long version) {
+		List<Long> result = new ArrayList<>();
+		for (Entry<Long, Long> entry : idVersions.entrySet()) {
+			if (entry.getValue().longValue() > version) {
+				result.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the state of the platform, creating it if needed.
+	 *
+	 * @param platformIdentId
+	 *            {@link PlatformIdent} id.
+	 * @return {@link PlatformState}
+	 */
+	private PlatformState getPlatformState(long platformIdentId) {
+		PlatformState state = platformStates.get(platformIdentId);
+		if (null == state) {
+			state = new PlatformState(versionSequence.incrementAndGet());
+			PlatformState existing = platformStates.putIfAbsent(platformIdentId, state);
+			if (null != existing) {
+				state = existing;
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Cached tree and the change journal of one platform. Access must be synchronized on the
+	 * object.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static class PlatformState {
+
+		/**
+		 * Current version.
+		 */
+		private long version;
+
+		/**
+		 * Oldest version the changes can be provided for.
+		 */
+		private long journalStart;
+
+		/**
+		 * Cached tree.
+		 */
+		private PlatformIdent snapshot;
+
+		/**
+		 * Version of the cached tree.
+		 */
+		private long snapshotVersion;
+
+		/**
+		 * Version of the last change per method ident ID.
+		 */
+		private final Map<Long, Long> methodIdentVersions = new HashMap<>();
+
+		/**
+		 * Version of the last change per JMX definition ID.
+		 */
+		private final Map<Long, Long> jmxDefinitionDataIdentVersions = new HashMap<>();
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param version
+		 *            Initial version.
+		 */
+		PlatformState(long version) {
+			this.version = version;
+			this.journalStart = version;
+		}
+
+		/**
+		 * Removes the cached tree and clears the journal.
+		 *
+		 * @param newVersion
+		 *            New version.
+		 */
+		void reset(long newVersion) {
+			version = newVersion;
+			journalStart = newVersion;
+			snapshot = null; // NOPMD
+			snapshotVersion = 0;
+			methodIdentVersions.clear();
+			jmxDefinitionDataIdentVersions.clear();
+		}
+	}
+
+	/**
+	 * Cached tree of a platform with its version.
+	 *
+	 * @author agent
+	 *
+	 */
+	public static class Snapshot {
+
+		/**
+		 * Cached tree.
+		 */
+		private final PlatformIdent platformIdent;
+
+		/**
+		 * Version of the tree.
+		 */
+		private final long version;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param platformIdent
+		 *            Cached tree.
+		 * @param version
+		 *            Version of the tree.
+		 */
+		public Snapshot(PlatformIdent platformIdent, long version) {
+			this.platformIdent = platformIdent;
+			this.version = version;
+		}
+
+		/**
+		 * Gets {@link #platformIdent}.
+		 *
+		 * @return {@link #platformIdent}
+		 */
+		public PlatformIdent getPlatformIdent() {
+			return this.platformIdent;
+		}
+
+		/**
+		 * Gets {@link #version}.
+		 *
+		 * @return {@link #version}
+		 */
+		public long getVersion() {
+			return this.version;
+		}
+	}
+
+	/**
+	 * Changes of a platform tree since a version.
+	 *
+	 * @author agent
+	 *
+	 */
+	public static class Changes {
+
+		/**
+		 * Version of the tree after applying the changes.
+		 */
+		private final long version;
+
+		/**
+		 * IDs of the added or changed method idents.
+		 */
+		private final List<Long> methodIdentIds;
+
+		/**
+		 * IDs of the added or changed JMX definitions.
+		 */
+		private final List<Long> jmxDefinitionDataIdentIds;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param version
+		 *            Version of the tree after applying the changes.
+		 * @param methodIdentIds
+		 *            IDs of the added or changed method idents.
+		 * @param jmxDefinitionDataIdentIds
+		 *            IDs of the added or changed JMX definitions.
+		 */
+		public Changes(long version, List<Long> methodIdentIds, List<Long> jmxDefinitionDataIdentIds) {
+			this.version = version;
+			this.methodIdentIds = Collections.unmodifiableList(methodIdentIds);
+			this.jmxDefinitionDataIdentIds = Collections.unmodifiableList(jmxDefinitionDataIdentIds);
+		}
+
+		/**
+		 * Returns if there are no changes.
+		 *
+		 * @return Returns if there are no changes.
+		 */
+		public boolean isEmpty() {
+			return methodIdentIds.isEmpty() && jmxDefinitionDataIdentIds.isEmpty();
+		}
+
+		/**
+		 * Gets {@link #version}.
+		 *
+		 * @return {@link #version}
+		 */
+		public long getVersion() {
+			return this.version;
+		}
+
+		/**
+		 * Gets {@link #methodIdentIds}.
+		 *
+		 * @return {@link #methodIdentIds}
+		 */
+		public List<Long> getMethodIdentIds() {
+			return this.methodIdentIds;
+		}
+
+		/**
+		 * Gets {@link #jmxDefinitionDataIdentIds}.
+		 *
+		 * @return {@link #jmxDefinitionDataIdentIds}
+		 */
+		public List<Long> getJmxDefinitionDataIdentIds() {
+			return this.jmxDefinitionDataIdentIds;
+		}
 	}
 
 }
@@ -0,0 +1,223 @@
+package rocks.inspectit.server.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
+import rocks.inspectit.shared.all.cmr.model.MethodIdent;
+import rocks.inspectit.shared.all.cmr.model.MethodIdentToSensorType;
+
+/**
+ * In-memory identity map of the idents registered by the agents. Holds the IDs of the registered
+ * {@link MethodIdent}s, {@link MethodIdentToSensorType}s and {@link JmxDefinitionDataIdent}s per
+ * platform, so that the registration service does not have to query the database for each
+ * registration of an already known ident.
+ * <p>
+ * The map holds the IDs only, the registration service is responsible for loading the existing
+ * idents of the platform once and for keeping the map consistent with the database.
+ *
+ * @author agent
+ *
+ */
+@Component
+public class RegistrationIdentityMap implements ApplicationListener<AgentDeletedEvent> {
+
+	/**
+	 * Identities per platform ident ID.
+	 */
+	private final ConcurrentHashMap<Long, PlatformIdentities> platformIdentitiesMap = new ConcurrentHashMap<>(8, 0.75f, 1);
+
+	/**
+	 * Returns the identities of the given platform, creating an empty one if needed.
+	 *
+	 * @param platformId
+	 *            ID of the platform ident.
+	 * @return {@link PlatformIdentities}, never <code>null</code>.
+	 */
+	public PlatformIdentities getPlatformIdentities(long platformId) {
+		PlatformIdentities platformIdentities = platformIdentitiesMap.get(platformId);
+		if (null == platformIdentities) {
+			platformIdentities = new PlatformIdentities();
+			PlatformIdentities existing = platformIdentitiesMap.putIfAbsent(platformId, platformIdentities);
+			if (null != existing) {
+				platformIdentities = existing;
+			}
+		}
+		return platformIdentities;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onApplicationEvent(AgentDeletedEvent event) {
+		platformIdentitiesMap.remove(event.getPlatformId());
+	}
+
+	/**
+	 * Returns the key identifying the {@link MethodIdent} in the {@link Identities} of a platform.
+	 * Matches the fields used by the registration service to find the existing method ident.
+	 *
+	 * @param methodIdent
+	 *            {@link MethodIdent}
+	 * @return Identity key.
+	 */
+	public static Object methodIdentKey(MethodIdent methodIdent) {
+		return Arrays.asList(methodIdent.getPackageName(), methodIdent.getClassName(), methodIdent.getMethodName(), methodIdent.getReturnType(), methodIdent.getParameters());
+	}
+
+	/**
+	 * Returns the key identifying the {@link MethodIdentToSensorType} in the {@link Identities} of
+	 * a platform.
+	 *
+	 * @param methodId
+	 *            ID of the method ident.
+	 * @param methodSensorTypeId
+	 *            ID of the method sensor type ident.
+	 * @return Identity key.
+	 */
+	public static Object methodSensorTypeKey(long methodId, long methodSensorTypeId) {
+		return Arrays.asList(methodId, methodSensorTypeId);
+	}
+
+	/**
+	 * Returns the key identifying the {@link JmxDefinitionDataIdent} in the {@link Identities} of a
+	 * platform. Matches the fields used by the registration service to find the existing JMX
+	 * definition.
+	 *
+	 * @param jmxDefinitionDataIdent
+	 *            {@link JmxDefinitionDataIdent}
+	 * @return Identity key.
+	 */
+	public static Object jmxDefinitionKey(JmxDefinitionDataIdent jmxDefinitionDataIdent) {
+		return Arrays.asList(jmxDefinitionDataIdent.getmBeanObjectName(), jmxDefinitionDataIdent.getmBeanAttributeName());
+	}
+
+	/**
+	 * Identities of the one platform.
+	 *
+	 * @author agent
+	 *
+	 */
+	public static class PlatformIdentities {
+
+		/**
+		 * Method ident IDs.
+		 */
+		private final Identities methodIdents = new Identities();
+
+		/**
+		 * Method ident to sensor type IDs.
+		 */
+		private final Identities methodSensorTypes = new Identities();
+
+		/**
+		 * JMX definition data ident IDs.
+		 */
+		private final Identities jmxDefinitions = new Identities();
+
+		/**
+		 * Gets {@link #methodIdents}.
+		 *
+		 * @return {@link #methodIdents}
+		 */
+		public Identities getMethodIdents() {
+			return this.methodIdents;
+		}
+
+		/**
+		 * Gets {@link #methodSensorTypes}.
+		 *
+		 * @return {@link #methodSensorTypes}
+		 */
+		public Identities getMethodSensorTypes() {
+			return this.methodSensorTypes;
+		}
+
+		/**
+		 * Gets {@link #jmxDefinitions}.
+		 *
+		 * @return {@link #jmxDefinitions}
+		 */
+		public Identities getJmxDefinitions() {
+			return this.jmxDefinitions;
+		}
+
+	}
+
+	/**
+	 * IDs of one kind of idents mapped to the identity key.
+	 *
+	 * @author agent
+	 *
+	 */
+	public static class Identities {
+
+		/**
+		 * IDs mapped to the identity key.
+		 */
+		private final ConcurrentHashMap<Object, Long> ids = new ConcurrentHashMap<>();
+
+		/**
+		 * If the existing idents were loaded from the database.
+		 */
+		private volatile boolean loaded;
+
+		/**
+		 * Returns the ID for the identity key.
+		 *
+		 * @param key
+		 *            Identity key.
+		 * @return ID or <code>null</code> if the ident with the key is not known.
+		 */
+		public Long get(Object key) {
+			return ids.get(key);
+		}
+
+		/**
+		 * Registers the ID for the identity key.
+		 *
+		 * @param key
+		 *            Identity key.
+		 * @param id
+		 *            ID of the ident.
+		 */
+		public void put(Object key, long id) {
+			ids.put(key, Long.valueOf(id));
+		}
+
+		/**
+		 * Removes the identity key only if it's currently mapped to the given ID.
+		 *
+		 * @param key
+		 *            Identity key.
+		 * @param id
+		 *            ID of the ident.
+		 */
+		public void remove(Object key, long id) {
+			ids.remove(key, Long.valueOf(id));
+		}
+
+		/**
+		 * Gets {@link #loaded}.
+		 *
+		 * @return {@link #loaded}
+		 */
+		public boolean isLoaded() {
+			return this.loaded;
+		}
+
+		/**
+		 * Marks that the existing idents were loaded from the database.
+		 */
+		public void markLoaded() {
+			this.loaded = true;
+		}
+
+	}
+
+}
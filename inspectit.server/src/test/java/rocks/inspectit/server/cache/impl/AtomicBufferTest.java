@@ -1,29 +1,39 @@
 package rocks.inspectit.server.cache.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.server.cache.IBufferElement;
+import rocks.inspectit.server.cache.IBufferElement.BufferElementState;
 import rocks.inspectit.server.test.AbstractTestNGLogSupport;
 import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 
 /**
@@ -49,6 +59,12 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 	@Mock
 	private IBufferTreeComponent<DefaultData> indexingTree;
 
+	@Mock
+	private OffHeapBufferTier offHeapBufferTier;
+
+	@Mock
+	private BufferOverflowStore bufferOverflowStore;
+
 	/**
 	 * Init.
 	 *
@@ -61,6 +77,8 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 		buffer.bufferProperties = bufferProperties;
 		buffer.objectSizes = objectSizes;
 		buffer.indexingTree = indexingTree;
+		buffer.offHeapBufferTier = offHeapBufferTier;
+		buffer.bufferOverflowStore = bufferOverflowStore;
 		buffer.log = LoggerFactory.getLogger(AtomicBuffer.class);
 		when(bufferProperties.getIndexingTreeCleaningThreads()).thenReturn(1);
 		buffer.postConstruct();
@@ -435,4 +453,191 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 		assertThat(buffer.getIndexedElements(), is(elements));
 		assertThat(buffer.getEvictedElemenets(), is(0L));
 	}
+
+	/**
+	 * Tests that old indexed invocation is moved to the off-heap tier and that the freed size is
+	 * subtracted from the buffer. The invocation itself must not be changed, the buffer and the
+	 * indexing tree hold a copy without children instead.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void offloading() throws Exception {
+		when(bufferProperties.isOffHeapActive()).thenReturn(true);
+		when(bufferProperties.getOffHeapAge()).thenReturn(1000L);
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+		when(invocation.getTimeStamp()).thenReturn(new Timestamp(0));
+		when(invocation.getObjectSize(objectSizes)).thenReturn(100L);
+		InvocationSequenceData offloaded = mock(InvocationSequenceData.class);
+		when(offloaded.getObjectSize(objectSizes)).thenReturn(1L);
+		when(invocation.getClonedInvocationSequence()).thenReturn(offloaded);
+		when(offHeapBufferTier.offload(invocation)).thenReturn(true);
+
+		IBufferElement<DefaultData> element = new BufferElement<DefaultData>(invocation);
+		element.setBufferElementSize(10L);
+		element.setBufferElementState(BufferElementState.INDEXED);
+		buffer.put(element);
+		buffer.setCurrentSize(10L);
+
+		buffer.offloadNext();
+
+		verify(offHeapBufferTier, times(1)).offload(invocation);
+		verify(invocation, never()).setNestedSequences(Matchers.<List<InvocationSequenceData>> any());
+		verify(indexingTree, times(1)).put(offloaded);
+		assertThat(element.getObject(), is((DefaultData) offloaded));
+		assertThat(element.getBufferElementState(), is(BufferElementState.OFFLOADED));
+		assertThat(buffer.getCurrentSize(), is(1L));
+		assertThat(buffer.getOffloadedElements(), is(1L));
+	}
+
+	/**
+	 * Tests that the invocation evicted while its children were serialized is removed from the
+	 * off-heap tier again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void offloadingEvictedMeanwhile() throws Exception {
+		when(bufferProperties.isOffHeapActive()).thenReturn(true);
+		when(bufferProperties.getOffHeapAge()).thenReturn(1000L);
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+		when(invocation.getTimeStamp()).thenReturn(new Timestamp(0));
+		final IBufferElement<DefaultData> element = new BufferElement<DefaultData>(invocation);
+		element.setBufferElementSize(10L);
+		element.setBufferElementState(BufferElementState.INDEXED);
+		when(offHeapBufferTier.offload(invocation)).thenAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocationOnMock) throws Throwable {
+				element.setBufferElementState(BufferElementState.EVICTED);
+				return true;
+			}
+		});
+		buffer.put(element);
+		buffer.setCurrentSize(10L);
+
+		buffer.offloadNext();
+
+		verify(offHeapBufferTier, times(1)).remove(invocation);
+		verify(invocation, never()).setNestedSequences(Matchers.<List<InvocationSequenceData>> any());
+		verify(indexingTree, never()).put(Matchers.<DefaultData> any());
+		assertThat(element.getObject(), is((DefaultData) invocation));
+		assertThat(buffer.getCurrentSize(), is(10L));
+		assertThat(buffer.getOffloadedElements(), is(0L));
+	}
+
+	/**
+	 * Tests that nothing is offloaded if the off-heap tier is not active.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void offloadingNotActive() throws Exception {
+		when(bufferProperties.isOffHeapActive()).thenReturn(false);
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+		when(invocation.getTimeStamp()).thenReturn(new Timestamp(0));
+
+		IBufferElement<DefaultData> element = new BufferElement<DefaultData>(invocation);
+		element.setBufferElementState(BufferElementState.INDEXED);
+		buffer.put(element);
+
+		buffer.offloadNext();
+
+		verifyZeroInteractions(offHeapBufferTier);
+		assertThat(element.getBufferElementState(), is(BufferElementState.INDEXED));
+	}
+
+	/**
+	 * Tests that too young elements are not offloaded.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void offloadingTooYoung() throws Exception {
+		when(bufferProperties.isOffHeapActive()).thenReturn(true);
+		when(bufferProperties.getOffHeapAge()).thenReturn(60000L);
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+		when(invocation.getTimeStamp()).thenReturn(new Timestamp(System.currentTimeMillis()));
+
+		IBufferElement<DefaultData> element = new BufferElement<DefaultData>(invocation);
+		element.setBufferElementState(BufferElementState.INDEXED);
+		buffer.put(element);
+
+		buffer.offloadNext();
+
+		verifyZeroInteractions(offHeapBufferTier);
+		assertThat(element.getBufferElementState(), is(BufferElementState.INDEXED));
+	}
+
+	/**
+	 * Tests that eviction of the offloaded element removes it from the off-heap tier.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void evictionOfOffloaded() throws Exception {
+		when(bufferProperties.getInitialBufferSize()).thenReturn(10L);
+		when(bufferProperties.getEvictionOccupancyPercentage()).thenReturn(0.1f);
+		when(bufferProperties.getEvictionFragmentSizePercentage()).thenReturn(1f);
+		buffer.postConstruct();
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+
+		IBufferElement<DefaultData> element = new BufferElement<DefaultData>(invocation);
+		element.setBufferElementSize(10L);
+		element.setBufferElementState(BufferElementState.OFFLOADED);
+		buffer.put(element);
+		buffer.setCurrentSize(10L);
+
+		buffer.evict();
+
+		verify(offHeapBufferTier, times(1)).remove(invocation);
+		assertThat(element.isEvicted(), is(true));
+		assertThat(buffer.getCurrentSize(), is(0L));
+	}
+
+	/**
+	 * Tests that evicted elements are passed to the overflow tier when active, with offloaded
+	 * invocations restored.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void evictionToOverflow() throws Exception {
+		when(bufferProperties.getInitialBufferSize()).thenReturn(20L);
+		when(bufferProperties.getEvictionOccupancyPercentage()).thenReturn(0.1f);
+		when(bufferProperties.getEvictionFragmentSizePercentage()).thenReturn(1f);
+		when(bufferOverflowStore.isActive()).thenReturn(true);
+		buffer.postConstruct();
+		InvocationSequenceData invocation = mock(InvocationSequenceData.class);
+		InvocationSequenceData restored = mock(InvocationSequenceData.class);
+		when(offHeapBufferTier.restore(invocation)).thenReturn(restored);
+		DefaultData defaultData = mock(DefaultData.class);
+
+		IBufferElement<DefaultData> offloadedElement = new BufferElement<DefaultData>(invocation);
+		offloadedElement.setBufferElementSize(10L);
+		offloadedElement.setBufferElementState(BufferElementState.OFFLOADED);
+		buffer.put(offloadedElement);
+		IBufferElement<DefaultData> element = new BufferElement<DefaultData>(defaultData);
+		element.setBufferElementSize(10L);
+		buffer.put(element);
+		buffer.setCurrentSize(20L);
+
+		buffer.evict();
+
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(bufferOverflowStore, times(1)).write(captor.capture());
+		assertThat((List<DefaultData>) captor.getValue(), contains(restored, defaultData));
+		verify(offHeapBufferTier, times(1)).remove(invocation);
+	}
+
+	/**
+	 * Tests that the overflow tier is cleared with the buffer.
+	 */
+	@Test
+	public void clearAllClearsOverflow() {
+		buffer.clearAll();
+
+		verify(bufferOverflowStore, times(1)).clearAll();
+		verify(offHeapBufferTier, times(1)).clearAll();
+	}
 }
@@ -0,0 +1,363 @@
+package rocks.inspectit.server.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.server.util.CacheIdGenerator;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.CachingIndexQueryRestrictionProcessor;
+
+/**
+ * Tests the {@link BufferOverflowStore}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class BufferOverflowStoreTest extends TestBase {
+
+	private static final long SEGMENT_SIZE = 1024L;
+
+	@InjectMocks
+	BufferOverflowStore store;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	BufferProperties bufferProperties;
+
+	@Mock
+	SerializationManagerPool serializationManagerPool;
+
+	@Mock
+	CacheIdGenerator cacheIdGenerator;
+
+	Path directory;
+
+	/**
+	 * Elements by id, serialization only writes the id.
+	 */
+	Map<Long, DefaultData> elements;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		directory = Files.createTempDirectory("bufferOverflowTest");
+		store.storageDefaultFolder = directory.toString();
+		elements = new HashMap<>();
+		when(bufferProperties.isOverflowActive()).thenReturn(true);
+		when(bufferProperties.getOverflowSegmentSize()).thenReturn(SEGMENT_SIZE);
+		when(bufferProperties.getOverflowMaxDiskSpace()).thenReturn(Long.MAX_VALUE);
+		when(bufferProperties.getOverflowRetention()).thenReturn(Long.MAX_VALUE);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				DefaultData data = (DefaultData) invocation.getArguments()[0];
+				elements.put(data.getId(), data);
+				((Output) invocation.getArguments()[1]).writeLong(data.getId());
+				return null;
+			}
+		}).when(serializationManagerPool).serialize(any(), any(Output.class));
+		when(serializationManagerPool.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return elements.get(((Input) invocation.getArguments()[0]).readLong());
+			}
+		});
+		store.postConstruct();
+	}
+
+	@AfterMethod
+	public void deleteDirectory() throws Exception {
+		store.preDestroy();
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void restart() throws Exception {
+		int blockSize = store.indexBlockSize;
+		store.preDestroy();
+
+		store = new BufferOverflowStore();
+		store.log = log;
+		store.bufferProperties = bufferProperties;
+		store.serializationManagerPool = serializationManagerPool;
+		store.cacheIdGenerator = cacheIdGenerator;
+		store.storageDefaultFolder = directory.toString();
+		store.indexBlockSize = blockSize;
+		store.postConstruct();
+	}
+
+	private TimerData getTimerData(long id, long platformIdent, long time) {
+		TimerData timerData = new TimerData(new Timestamp(time), platformIdent, 1L, 1L);
+		timerData.setId(id);
+		return timerData;
+	}
+
+	private IndexQuery getQuery(long platformIdent, long from) {
+		IndexQuery query = new IndexQuery();
+		query.setRestrictionProcessor(new CachingIndexQueryRestrictionProcessor());
+		query.setPlatformIdent(platformIdent);
+		query.setFromDate(new Timestamp(from));
+		return query;
+	}
+
+	public static class Query extends BufferOverflowStoreTest {
+
+		@Test
+		public void found() throws Exception {
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			TimerData second = getTimerData(2L, 1L, 2000L);
+			TimerData otherPlatform = getTimerData(3L, 2L, 2000L);
+			store.writeFragment(Arrays.asList(first, second, otherPlatform));
+
+			List<DefaultData> result = store.query(getQuery(1L, 1500L));
+
+			assertThat(result, contains((DefaultData) second));
+			assertThat(store.getWrittenElements(), is(3L));
+			assertThat(store.getQueryCount(), is(1L));
+		}
+
+		@Test
+		public void notActive() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+			when(bufferProperties.isOverflowActive()).thenReturn(false);
+
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(result, is(empty()));
+		}
+
+		@Test
+		public void noFromDate() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+			IndexQuery query = new IndexQuery();
+
+			List<DefaultData> result = store.query(query);
+
+			assertThat(result, is(empty()));
+			verify(serializationManagerPool, never()).deserialize(any(Input.class));
+		}
+
+		@Test
+		public void segmentSkippedByTime() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+
+			List<DefaultData> result = store.query(getQuery(1L, 5000L));
+
+			assertThat(result, is(empty()));
+			verify(serializationManagerPool, never()).deserialize(any(Input.class));
+			assertThat(store.getQueryCount(), is(0L));
+		}
+
+		@Test
+		public void segmentSkippedByType() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+			IndexQuery query = getQuery(1L, 0L);
+			List<Class<?>> objectClasses = new ArrayList<>();
+			objectClasses.add(SqlStatementData.class);
+			query.setObjectClasses(objectClasses);
+
+			List<DefaultData> result = store.query(query);
+
+			assertThat(result, is(empty()));
+			verify(serializationManagerPool, never()).deserialize(any(Input.class));
+		}
+
+		@Test
+		public void loadedAfterRestart() throws Exception {
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			TimerData second = getTimerData(2L, 1L, 2000L);
+			store.writeFragment(Arrays.asList(first, second));
+
+			restart();
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(store.getSegmentCount(), is(1));
+			assertThat(result, containsInAnyOrder((DefaultData) first, second));
+			verify(cacheIdGenerator).skipIdsUpTo(2L);
+		}
+
+		@Test
+		public void foreignFileIgnoredAfterRestart() throws Exception {
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			store.writeFragment(Arrays.asList(first));
+			Files.createFile(directory.resolve(BufferOverflowStore.OVERFLOW_FOLDER).resolve("copy" + BufferOverflowStore.SEGMENT_EXTENSION));
+
+			restart();
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(store.getSegmentCount(), is(1));
+			assertThat(result, contains((DefaultData) first));
+		}
+
+		@Test
+		public void blockSkippedByTimeAfterRestart() throws Exception {
+			store.indexBlockSize = 12;
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			TimerData second = getTimerData(2L, 1L, 2000L);
+			TimerData third = getTimerData(3L, 1L, 3000L);
+			store.writeFragment(Arrays.asList(first, second, third));
+
+			restart();
+			List<DefaultData> result = store.query(getQuery(1L, 1500L));
+
+			assertThat(result, contains((DefaultData) second, third));
+			verify(serializationManagerPool, times(2)).deserialize(any(Input.class));
+		}
+
+		@Test
+		public void blockSkippedByTime() throws Exception {
+			store.indexBlockSize = 12;
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			TimerData second = getTimerData(2L, 1L, 2000L);
+			store.writeFragment(Arrays.asList(first, second));
+
+			List<DefaultData> result = store.query(getQuery(1L, 1500L));
+
+			assertThat(result, contains((DefaultData) second));
+			verify(serializationManagerPool, times(1)).deserialize(any(Input.class));
+		}
+
+		@Test
+		public void blockSkippedById() throws Exception {
+			store.indexBlockSize = 12;
+			TimerData first = getTimerData(1L, 1L, 1000L);
+			TimerData second = getTimerData(2L, 1L, 1000L);
+			store.writeFragment(Arrays.asList(first, second));
+			IndexQuery query = getQuery(1L, 0L);
+			query.setMinId(2L);
+
+			List<DefaultData> result = store.query(query);
+
+			assertThat(result, contains((DefaultData) second));
+			verify(serializationManagerPool, times(1)).deserialize(any(Input.class));
+		}
+	}
+
+	public static class ClearAll extends BufferOverflowStoreTest {
+
+		@Test
+		public void segmentsDeleted() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+
+			store.clearAll();
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(store.getSegmentCount(), is(0));
+			assertThat(result, is(empty()));
+			try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory.resolve(BufferOverflowStore.OVERFLOW_FOLDER))) {
+				assertThat(directoryStream.iterator().hasNext(), is(false));
+			}
+		}
+
+		@Test
+		public void writingAfterClear() throws Exception {
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+			store.clearAll();
+			TimerData timerData = getTimerData(2L, 1L, 2000L);
+
+			store.writeFragment(Arrays.asList(timerData));
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(result, contains((DefaultData) timerData));
+		}
+	}
+
+	public static class Limits extends BufferOverflowStoreTest {
+
+		@Test
+		public void rollingSegments() throws Exception {
+			when(bufferProperties.getOverflowSegmentSize()).thenReturn(16L);
+
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L), getTimerData(2L, 1L, 2000L), getTimerData(3L, 1L, 3000L)));
+
+			assertThat(store.getSegmentCount(), is(3));
+			assertThat(store.getDiskSize(), is(48L));
+		}
+
+		@Test
+		public void diskQuota() throws Exception {
+			when(bufferProperties.getOverflowSegmentSize()).thenReturn(16L);
+			when(bufferProperties.getOverflowMaxDiskSpace()).thenReturn(32L);
+
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L), getTimerData(2L, 1L, 2000L), getTimerData(3L, 1L, 3000L)));
+			List<DefaultData> result = store.query(getQuery(1L, 0L));
+
+			assertThat(store.getSegmentCount(), is(2));
+			assertThat(result, containsInAnyOrder((DefaultData) elements.get(2L), elements.get(3L)));
+		}
+
+		@Test
+		public void retention() throws Exception {
+			when(bufferProperties.getOverflowSegmentSize()).thenReturn(16L);
+			when(bufferProperties.getOverflowRetention()).thenReturn(1000L);
+			long now = System.currentTimeMillis();
+
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L), getTimerData(2L, 1L, now)));
+
+			assertThat(store.getSegmentCount(), is(1));
+		}
+
+		@Test
+		public void tooBigElementIgnored() throws Exception {
+			when(bufferProperties.getOverflowSegmentSize()).thenReturn(8L);
+
+			store.writeFragment(Arrays.asList(getTimerData(1L, 1L, 1000L)));
+
+			assertThat(store.getSegmentCount(), is(0));
+			assertThat(store.getWrittenElements(), is(0L));
+		}
+	}
+}
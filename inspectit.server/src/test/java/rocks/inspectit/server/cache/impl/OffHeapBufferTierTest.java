@@ -0,0 +1,221 @@
+package rocks.inspectit.server.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link OffHeapBufferTier}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class OffHeapBufferTierTest extends TestBase {
+
+	private static final int SERIALIZED_LENGTH = 10;
+
+	@InjectMocks
+	OffHeapBufferTier tier;
+
+	@Mock
+	Logger log;
+
+	@Mock
+	BufferProperties bufferProperties;
+
+	@Mock
+	SerializationManagerPool serializationManagerPool;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		tier.segmentSize = SERIALIZED_LENGTH;
+		when(bufferProperties.getOffHeapMaxCapacity()).thenReturn(Long.MAX_VALUE);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				Output output = (Output) invocation.getArguments()[1];
+				output.writeBytes(new byte[SERIALIZED_LENGTH]);
+				return null;
+			}
+		}).when(serializationManagerPool).serialize(any(), any(Output.class));
+		when(serializationManagerPool.deserialize(any(Input.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				List<InvocationSequenceData> children = new ArrayList<>();
+				children.add(new InvocationSequenceData(new Timestamp(0), 1L, 1L, 2L));
+				return children;
+			}
+		});
+	}
+
+	private InvocationSequenceData getInvocation(long id) {
+		InvocationSequenceData invocation = new InvocationSequenceData(new Timestamp(0), 1L, 1L, 1L);
+		invocation.setId(id);
+		List<InvocationSequenceData> children = new ArrayList<>();
+		children.add(new InvocationSequenceData(new Timestamp(0), 1L, 1L, 2L));
+		invocation.setNestedSequences(children);
+		return invocation;
+	}
+
+	public static class Offload extends OffHeapBufferTierTest {
+
+		@Test
+		public void offloaded() throws Exception {
+			InvocationSequenceData invocation = getInvocation(1L);
+
+			boolean result = tier.offload(invocation);
+
+			assertThat(result, is(true));
+			assertThat(invocation.getNestedSequences(), hasSize(1));
+			assertThat(tier.getEntryCount(), is(1));
+			assertThat(tier.getLiveBytes(), is((long) SERIALIZED_LENGTH));
+			assertThat(tier.getOccupiedCapacity(), is((long) SERIALIZED_LENGTH));
+		}
+
+		@Test
+		public void noChildren() throws Exception {
+			InvocationSequenceData invocation = getInvocation(1L);
+			invocation.setNestedSequences(Collections.<InvocationSequenceData> emptyList());
+
+			boolean result = tier.offload(invocation);
+
+			assertThat(result, is(false));
+			verifyZeroInteractions(serializationManagerPool);
+		}
+
+		@Test
+		public void bigEntryOwnSegment() throws Exception {
+			tier.segmentSize = SERIALIZED_LENGTH / 2;
+			tier.offload(getInvocation(1L));
+
+			boolean result = tier.offload(getInvocation(2L));
+
+			assertThat(result, is(true));
+			assertThat(tier.getEntryCount(), is(2));
+			assertThat(tier.getOccupiedCapacity(), is(2L * SERIALIZED_LENGTH));
+		}
+
+		@Test
+		public void maxCapacityReached() throws Exception {
+			when(bufferProperties.getOffHeapMaxCapacity()).thenReturn((long) SERIALIZED_LENGTH);
+			tier.offload(getInvocation(1L));
+			InvocationSequenceData invocation = getInvocation(2L);
+
+			boolean result = tier.offload(invocation);
+
+			assertThat(result, is(false));
+			assertThat(tier.getEntryCount(), is(1));
+			assertThat(tier.getOccupiedCapacity(), is((long) SERIALIZED_LENGTH));
+		}
+	}
+
+	public static class Restore extends OffHeapBufferTierTest {
+
+		@Test
+		public void restored() throws Exception {
+			InvocationSequenceData invocation = getInvocation(1L);
+			tier.offload(invocation);
+
+			InvocationSequenceData restored = tier.restore(invocation);
+
+			assertThat(restored, is(not(sameInstance(invocation))));
+			assertThat(restored.getId(), is(1L));
+			assertThat(restored.getNestedSequences(), hasSize(1));
+			assertThat(restored.getNestedSequences().get(0).getParentSequence(), is(sameInstance(restored)));
+			assertThat(tier.getRestoredCount(), is(1L));
+		}
+
+		@Test
+		public void notOffloaded() throws Exception {
+			InvocationSequenceData invocation = getInvocation(1L);
+
+			InvocationSequenceData restored = tier.restore(invocation);
+
+			assertThat(restored, is(sameInstance(invocation)));
+		}
+
+		@Test
+		public void restoreAll() throws Exception {
+			InvocationSequenceData offloaded = getInvocation(1L);
+			InvocationSequenceData notOffloaded = getInvocation(2L);
+			tier.offload(offloaded);
+			List<InvocationSequenceData> list = new ArrayList<>();
+			list.add(offloaded);
+			list.add(notOffloaded);
+
+			List<InvocationSequenceData> result = tier.restoreAll(list);
+
+			assertThat(result, hasSize(2));
+			assertThat(result.get(0), is(not(sameInstance(offloaded))));
+			assertThat(result.get(0).getNestedSequences(), hasSize(1));
+			assertThat(result.get(1), is(sameInstance(notOffloaded)));
+		}
+	}
+
+	public static class Remove extends OffHeapBufferTierTest {
+
+		@Test
+		public void segmentReleasedWhenEmpty() throws Exception {
+			InvocationSequenceData first = getInvocation(1L);
+			InvocationSequenceData second = getInvocation(2L);
+			tier.offload(first);
+			tier.offload(second);
+
+			tier.remove(first);
+
+			assertThat(tier.getEntryCount(), is(1));
+			assertThat(tier.getOccupiedCapacity(), is((long) SERIALIZED_LENGTH));
+			assertThat(tier.restore(first), is(sameInstance(first)));
+		}
+
+		@Test
+		public void currentSegmentNotReleased() throws Exception {
+			InvocationSequenceData invocation = getInvocation(1L);
+			tier.offload(invocation);
+
+			tier.remove(invocation);
+
+			assertThat(tier.getOccupiedCapacity(), is((long) SERIALIZED_LENGTH));
+			assertThat(tier.getEntryCount(), is(0));
+			assertThat(tier.getLiveBytes(), is(0L));
+		}
+
+		@Test
+		public void clearAll() throws Exception {
+			tier.offload(getInvocation(1L));
+			tier.offload(getInvocation(2L));
+
+			tier.clearAll();
+
+			assertThat(tier.getEntryCount(), is(0));
+			assertThat(tier.getOccupiedCapacity(), is(0L));
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package rocks.inspectit.server.dao.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.cache.impl.BufferOverflowStore;
+import rocks.inspectit.server.util.CacheIdGenerator;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+
+/**
+ * Tests the {@link AbstractBufferDataDao}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class AbstractBufferDataDaoTest extends TestBase {
+
+	@InjectMocks
+	TimerDao dao;
+
+	@Mock
+	IBufferTreeComponent<TimerData> indexingTree;
+
+	@Mock
+	BufferOverflowStore bufferOverflowStore;
+
+	@Mock
+	CacheIdGenerator cacheIdGenerator;
+
+	@Mock
+	IBuffer<MethodSensorData> buffer;
+
+	@Mock
+	IIndexQuery indexQuery;
+
+	TimerData first;
+
+	TimerData second;
+
+	@BeforeMethod
+	public void init() {
+		first = timerData(51L);
+		second = timerData(60L);
+		when(indexingTree.query(indexQuery)).thenReturn(Arrays.asList(first, second));
+		when(cacheIdGenerator.getClearedUpToId()).thenReturn(10L);
+		when(cacheIdGenerator.getLastAssignedId()).thenReturn(100L);
+		when(cacheIdGenerator.getProcessedUpToId()).thenReturn(100L);
+		when(buffer.getLowestNotIndexedId()).thenReturn(Long.MAX_VALUE);
+	}
+
+	private static TimerData timerData(long id) {
+		TimerData timerData = new TimerData();
+		timerData.setId(id);
+		return timerData;
+	}
+
+	/**
+	 * Tests the
+	 * {@link AbstractBufferDataDao#executeIncrementalQuery(IIndexQuery, long, rocks.inspectit.shared.cs.indexing.aggregation.IAggregator, java.util.Comparator, int, boolean)}
+	 * method.
+	 */
+	public static class ExecuteIncrementalQuery extends AbstractBufferDataDaoTest {
+
+		@Test
+		public void since() {
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 50L, null, null, -1, false);
+
+			verify(indexQuery).setMinId(51L);
+			assertThat(result.isComplete(), is(false));
+			assertThat(result.getLastId(), is(100L));
+			assertThat(result.getData(), contains(first, second));
+		}
+
+		@Test
+		public void sinceNothingNew() {
+			when(cacheIdGenerator.getProcessedUpToId()).thenReturn(50L);
+
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 50L, null, null, -1, false);
+
+			assertThat(result.isComplete(), is(false));
+			assertThat(result.getLastId(), is(50L));
+			assertThat(result.getData().isEmpty(), is(true));
+		}
+
+		@Test
+		public void notProcessed() {
+			when(cacheIdGenerator.getProcessedUpToId()).thenReturn(55L);
+
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 50L, null, null, -1, false);
+
+			assertThat(result.getLastId(), is(55L));
+			assertThat(result.getData(), contains(first));
+		}
+
+		@Test
+		public void notIndexed() {
+			when(buffer.getLowestNotIndexedId()).thenReturn(58L);
+
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 50L, null, null, -1, false);
+
+			assertThat(result.getLastId(), is(57L));
+			assertThat(result.getData(), contains(first));
+		}
+
+		@Test
+		public void complete() {
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 0L, null, null, -1, false);
+
+			verify(indexQuery, never()).setMinId(anyLong());
+			assertThat(result.isComplete(), is(true));
+			assertThat(result.getLastId(), is(100L));
+			assertThat(result.getData(), contains(first, second));
+		}
+
+		@Test
+		public void cleared() {
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 5L, null, null, -1, false);
+
+			verify(indexQuery, never()).setMinId(anyLong());
+			assertThat(result.isComplete(), is(true));
+			assertThat(result.getData(), contains(first, second));
+		}
+
+		@Test
+		public void unknownId() {
+			IncrementalQueryResult<TimerData> result = dao.executeIncrementalQuery(indexQuery, 200L, null, null, -1, false);
+
+			verify(indexQuery, never()).setMinId(anyLong());
+			assertThat(result.isComplete(), is(true));
+			assertThat(result.getLastId(), is(100L));
+		}
+	}
+
+	/**
+	 * Tests the {@link AbstractBufferDataDao#executeQuery(IIndexQuery, boolean)} method.
+	 */
+	public static class ExecuteQuery extends AbstractBufferDataDaoTest {
+
+		@Test
+		public void noFromDate() {
+			List<TimerData> result = dao.executeQuery(indexQuery, false);
+
+			verify(bufferOverflowStore, never()).query(any(IIndexQuery.class));
+			assertThat(result, contains(first, second));
+		}
+
+		@Test
+		public void bufferCoversFromDate() {
+			TimerData oldest = timerData(1L);
+			oldest.setTimeStamp(new Timestamp(1000L));
+			when(buffer.getOldestElement()).thenReturn(oldest);
+			when(indexQuery.getFromDate()).thenReturn(new Timestamp(1000L));
+
+			List<TimerData> result = dao.executeQuery(indexQuery, false);
+
+			verify(bufferOverflowStore, never()).query(any(IIndexQuery.class));
+			assertThat(result, contains(first, second));
+		}
+
+		@Test
+		public void overflowWithoutDuplicates() {
+			TimerData oldest = timerData(1L);
+			oldest.setTimeStamp(new Timestamp(1000L));
+			TimerData evicted = timerData(40L);
+			TimerData evictedStillIndexed = timerData(51L);
+			when(buffer.getOldestElement()).thenReturn(oldest);
+			when(indexQuery.getFromDate()).thenReturn(new Timestamp(500L));
+			when(bufferOverflowStore.<TimerData> query(indexQuery)).thenReturn(Arrays.asList(evicted, evictedStillIndexed));
+
+			List<TimerData> result = dao.executeQuery(indexQuery, false);
+
+			assertThat(result, containsInAnyOrder(first, second, evicted));
+		}
+	}
+
+	/**
+	 * DAO for testing the abstract class.
+	 */
+	static class TimerDao extends AbstractBufferDataDao<TimerData> {
+	}
+
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
@@ -17,6 +18,7 @@ import static org.mockito.Mockito.when;
 
 import java.sql.Timestamp;
 import java.util.Date;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -32,6 +34,8 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.test.AbstractTestNGLogSupport;
 import rocks.inspectit.shared.all.communication.data.DatabaseAggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
@@ -129,6 +133,47 @@ public class TimerDataAggregatorTest extends AbstractTestNGLogSupport {
 		assertThat(argument.getValue().getMethodIdent(), is(timerData1.getMethodIdent()));
 	}
 
+	/**
+	 * Tests that HTTP timer data is aggregated per persisted {@link HttpInfo} and persisted with
+	 * the info reference.
+	 */
+	@Test
+	public void httpAggregation() {
+		long timestampValue = 10L;
+		HttpInfo httpInfo1 = new HttpInfo("/uri1", "GET", null);
+		httpInfo1.setId(1L);
+		HttpInfo httpInfo2 = new HttpInfo("/uri2", "GET", null);
+		httpInfo2.setId(2L);
+		HttpInfo reference = new HttpInfo();
+		when(entityManager.getReference(HttpInfo.class, 1L)).thenReturn(reference);
+		when(entityManager.getReference(HttpInfo.class, 2L)).thenReturn(reference);
+
+		HttpTimerData httpTimerData = new HttpTimerData(new Timestamp(timestampValue), 10L, 20L, 30L);
+		httpTimerData.setCount(1L);
+		httpTimerData.setDuration(1d);
+
+		aggregator.processHttpTimerData(httpTimerData, httpInfo1);
+		aggregator.processHttpTimerData(httpTimerData, httpInfo1);
+		aggregator.processHttpTimerData(httpTimerData, httpInfo2);
+		aggregator.processTimerData(httpTimerData);
+
+		assertThat(aggregator.getElementCount(), is(3));
+
+		aggregator.removeAndPersistAll();
+
+		ArgumentCaptor<TimerData> argument = ArgumentCaptor.forClass(TimerData.class);
+		verify(entityManager, times(3)).persist(argument.capture());
+		List<TimerData> persisted = argument.getAllValues();
+		assertThat(persisted.get(0), is(instanceOf(HttpTimerData.class)));
+		assertThat(persisted.get(0).getCount(), is(2L));
+		assertThat(((HttpTimerData) persisted.get(0)).getHttpInfo(), is(sameInstance(reference)));
+		assertThat(persisted.get(1), is(instanceOf(HttpTimerData.class)));
+		assertThat(persisted.get(1).getCount(), is(1L));
+		assertThat(persisted.get(2), is(instanceOf(DatabaseAggregatedTimerData.class)));
+		assertThat(persisted.get(2).getCount(), is(1L));
+		assertThat(httpTimerData.getHttpInfo().getId(), is(0L));
+	}
+
 	/**
 	 * Test for the validity of aggregation.
 	 */
@@ -280,6 +280,21 @@ public class NextGenInstrumentationManagerTest extends TestBase {
 		}
 	}
 
+	public class InstrumentationApplied extends NextGenInstrumentationManagerTest {
+
+		@Test
+		public void bulkRegistration() {
+			long platformId = 10L;
+			Map<Long, long[]> methodToSensorMap = Collections.singletonMap(1L, new long[] { 2L, 3L });
+
+			manager.instrumentationApplied(platformId, methodToSensorMap);
+
+			verify(executor).submit(any(Runnable.class));
+			verify(registrationService).addSensorTypesToMethods(platformId, methodToSensorMap);
+			verifyNoMoreInteractions(registrationService);
+		}
+	}
+
 	public class Analyze extends NextGenInstrumentationManagerTest {
 
 		@Mock
@@ -270,6 +270,15 @@ public class ConfigurationCreatorTest extends TestBase {
 			assertThat(agentConfiguration.getRetransformationStrategy(), is(retransformationStrategy));
 		}
 
+		@Test
+		public void methodOverheadBudget() throws Exception {
+			when(environment.getMethodOverheadBudget()).thenReturn(0.5d);
+
+			AgentConfig agentConfiguration = creator.environmentToConfiguration(environment, 0);
+
+			assertThat(agentConfiguration.getMethodOverheadBudget(), is(0.5d));
+		}
+
 		// special method sensor
 
 		@Test
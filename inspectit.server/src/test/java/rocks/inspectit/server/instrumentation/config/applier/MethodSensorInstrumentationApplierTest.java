@@ -154,9 +154,52 @@ public class MethodSensorInstrumentationApplierTest extends TestBase {
 			assertThat(rsc.getSensorIds().length, is(1));
 			assertThat(rsc.getSensorIds()[0], is(sensorId));
 			assertThat(rsc.getSettings(), is(settings));
+			assertThat(rsc.isParametersAccess(), is(false));
+			assertThat(rsc.isTargetAccess(), is(false));
+			assertThat(rsc.isReturnValueAccess(), is(false));
 			assertThat(instrumentationConfig.getSpecialInstrumentationPoint(), is(nullValue()));
 		}
 
+		@Test
+		public void callContextAccess() throws Exception {
+			long agentId = 13L;
+			long sensorId = 15L;
+			long methodId = 17L;
+			String sensorClassName = "sensorClassName";
+			when(registrationService.registerMethodIdent(eq(agentId), anyString(), anyString(), anyString(), Matchers.<List<String>> any(), anyString(), anyInt())).thenReturn(methodId);
+
+			MethodSensorTypeConfig methodSensorTypeConfig = mock(MethodSensorTypeConfig.class);
+			when(methodSensorTypeConfig.getId()).thenReturn(sensorId);
+			when(methodSensorTypeConfig.getPriority()).thenReturn(PriorityEnum.NORMAL);
+
+			AgentConfig agentConfiguration = mock(AgentConfig.class);
+			when(agentConfiguration.getPlatformId()).thenReturn(agentId);
+			when(agentConfiguration.getMethodSensorTypeConfig(sensorClassName)).thenReturn(methodSensorTypeConfig);
+
+			IMethodSensorConfig methodSensorConfig = mock(IMethodSensorConfig.class);
+			when(methodSensorConfig.getClassName()).thenReturn(sensorClassName);
+			when(methodSensorConfig.isCallContextAccess()).thenReturn(true);
+			when(environment.getMethodSensorTypeConfig(Matchers.<Class<? extends IMethodSensorConfig>> any())).thenReturn(methodSensorConfig);
+
+			when(classType.getFQN()).thenReturn("my.favorite.package.ClassName");
+			when(methodType.getClassOrInterfaceType()).thenReturn(classType);
+			when(methodType.getName()).thenReturn("methodName");
+			when(methodType.getReturnType()).thenReturn("returnType");
+			when(methodType.getMethodCharacter()).thenReturn(Character.METHOD);
+
+			boolean changed = applier.addInstrumentationPoints(agentConfiguration, classType);
+
+			// verify results
+			assertThat(changed, is(true));
+			ArgumentCaptor<MethodInstrumentationConfig> captor = ArgumentCaptor.forClass(MethodInstrumentationConfig.class);
+			verify(methodType, times(1)).setMethodInstrumentationConfig(captor.capture());
+
+			SensorInstrumentationPoint rsc = captor.getValue().getSensorInstrumentationPoint();
+			assertThat(rsc.isParametersAccess(), is(true));
+			assertThat(rsc.isTargetAccess(), is(true));
+			assertThat(rsc.isReturnValueAccess(), is(true));
+		}
+
 		@Test
 		public void instrumentationExist() throws Exception {
 			long agentId = 13L;
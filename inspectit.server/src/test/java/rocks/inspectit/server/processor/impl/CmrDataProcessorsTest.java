@@ -15,6 +15,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import javax.persistence.EntityManager;
@@ -29,6 +30,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.testng.annotations.BeforeMethod;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.server.cache.IBuffer;
@@ -49,8 +52,6 @@ import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.data.SystemInformationData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
-import rocks.inspectit.shared.all.serializer.SerializationException;
-import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
 import rocks.inspectit.shared.cs.storage.recording.RecordingState;
@@ -82,9 +83,6 @@ public class CmrDataProcessorsTest {
 	@Mock
 	private TimerDataAggregator timerDataAggregator;
 
-	@Mock
-	private SerializationManager serializationManager;
-
 	@Mock
 	private AbstractCmrDataProcessor chainedProcessor;
 
@@ -181,6 +179,80 @@ public class CmrDataProcessorsTest {
 		assertThat(child.getErrorMessage(), is("parentMsg"));
 	}
 
+	/**
+	 * Tests the {@link StackTraceResolverCmrProcessor}.
+	 */
+	@Test
+	public void stackTraceResolverProcessor() {
+		StackTraceResolverCmrProcessor processor = new StackTraceResolverCmrProcessor();
+
+		// only exceptions and invocations
+		assertThat(processor.canBeProcessed(new TimerData()), is(false));
+		assertThat(processor.canBeProcessed(new ExceptionSensorData()), is(true));
+		assertThat(processor.canBeProcessed(new InvocationSequenceData()), is(true));
+
+		// don't fail on null
+		processor.process((DefaultData) null, entityManager);
+
+		// not fingerprinted is not changed
+		ExceptionSensorData notFingerprinted = new ExceptionSensorData();
+		notFingerprinted.setStackTrace("stackTrace");
+		processor.process(notFingerprinted, entityManager);
+		assertThat(notFingerprinted.getStackTrace(), is("stackTrace"));
+
+		// first occurrence registers the text
+		ExceptionSensorData first = new ExceptionSensorData();
+		first.setPlatformIdent(1L);
+		first.setThrowableType("my.Exception");
+		first.setErrorMessage("first");
+		first.setStackTraceFingerprint(10L);
+		first.setStackTrace("\n\tat Class.method()");
+		processor.process(first, entityManager);
+		assertThat(first.getStackTrace(), is("my.Exception: first\n\tat Class.method()"));
+
+		// later occurrence in invocation is resolved
+		ExceptionSensorData second = new ExceptionSensorData();
+		second.setPlatformIdent(1L);
+		second.setThrowableType("my.Exception");
+		second.setStackTraceFingerprint(10L);
+		InvocationSequenceData invocation = new InvocationSequenceData();
+		InvocationSequenceData nested = new InvocationSequenceData();
+		nested.setExceptionSensorDataObjects(Collections.singletonList(second));
+		invocation.setNestedSequences(Collections.singletonList(nested));
+		processor.process(invocation, entityManager);
+		assertThat(second.getStackTrace(), is("my.Exception\n\tat Class.method()"));
+
+		// other platform does not know the text
+		ExceptionSensorData otherPlatform = new ExceptionSensorData();
+		otherPlatform.setPlatformIdent(2L);
+		otherPlatform.setThrowableType("my.Exception");
+		otherPlatform.setStackTraceFingerprint(10L);
+		processor.process(otherPlatform, entityManager);
+		assertThat(otherPlatform.getStackTrace(), is("my.Exception"));
+
+		// resolved when the text arrives later
+		ExceptionSensorData otherPlatformFirst = new ExceptionSensorData();
+		otherPlatformFirst.setPlatformIdent(2L);
+		otherPlatformFirst.setThrowableType("my.Exception");
+		otherPlatformFirst.setStackTraceFingerprint(10L);
+		otherPlatformFirst.setStackTrace("\n\tat Other.method()");
+		processor.process(otherPlatformFirst, entityManager);
+		assertThat(otherPlatform.getStackTrace(), is("my.Exception\n\tat Other.method()"));
+
+		// cause messages are added to the cause lines
+		ExceptionSensorData withCauses = new ExceptionSensorData();
+		withCauses.setPlatformIdent(1L);
+		withCauses.setThrowableType("my.Exception");
+		withCauses.setErrorMessage("msg");
+		withCauses.setStackTraceFingerprint(20L);
+		withCauses.setStackTrace("\n\tat A.b()\nCaused by: my.Cause\n\tat C.d()\nCaused by: my.RootCause\n\tat E.f()");
+		withCauses.setCauseMessages(Arrays.asList("cause msg", null));
+		processor.process(withCauses, entityManager);
+		assertThat(withCauses.getStackTrace(), is("my.Exception: msg\n\tat A.b()\nCaused by: my.Cause: cause msg\n\tat C.d()\nCaused by: my.RootCause\n\tat E.f()"));
+
+		verifyZeroInteractions(entityManager);
+	}
+
 	/**
 	 * Tests the {@link IndexerCmrProcessor}.
 	 */
@@ -338,10 +410,11 @@ public class CmrDataProcessorsTest {
 	 * Tests the {@link TimerDataChartingCmrProcessor}.
 	 */
 	@Test
-	public void chartingProcessor() throws CloneNotSupportedException, SerializationException {
+	public void chartingProcessor() {
 		TimerDataChartingCmrProcessor processor = new TimerDataChartingCmrProcessor();
 		processor.timerDataAggregator = timerDataAggregator;
-		processor.serializationManager = serializationManager;
+		processor.httpInfoCacheSize = 10;
+		processor.postConstruct();
 
 		// set up entity manager for quering
 		CriteriaBuilder build = mock(CriteriaBuilder.class, RETURNS_SMART_NULLS);
@@ -359,11 +432,9 @@ public class CmrDataProcessorsTest {
 		verifyZeroInteractions(timerDataAggregator, entityManager);
 
 		TimerData timerData = mock(TimerData.class);
-		HttpInfo originalInfo = mock(HttpInfo.class, RETURNS_SMART_NULLS);
+		HttpInfo originalInfo = new HttpInfo("/uri", "GET", null);
 		HttpTimerData httpTimerData = mock(HttpTimerData.class);
 		when(httpTimerData.getHttpInfo()).thenReturn(originalInfo);
-		HttpTimerData clone = mock(HttpTimerData.class);
-		when(serializationManager.copy(Matchers.<HttpTimerData> any())).thenReturn(clone);
 		HttpInfo httpInfo = mock(HttpInfo.class);
 		when(query.getResultList()).thenReturn(Collections.singletonList(httpInfo));
 
@@ -379,26 +450,122 @@ public class CmrDataProcessorsTest {
 		when(httpTimerData.isCharting()).thenReturn(true);
 		processor.process(timerData, entityManager);
 		processor.process(httpTimerData, entityManager);
+		processor.process(httpTimerData, entityManager);
 		// timer to aggregator
 		verify(timerDataAggregator, times(1)).processTimerData(timerData);
-		// http to entityManager
-		verify(clone, times(1)).setHttpInfo(httpInfo);
-		verify(entityManager, times(1)).persist(clone);
+		// http to aggregator with persisted info, second time from cache
+		verify(timerDataAggregator, times(2)).processHttpTimerData(httpTimerData, httpInfo);
+		verify(query, times(1)).getResultList();
+		verify(entityManager, times(0)).persist(Matchers.any());
 		verifyNoMoreInteractions(timerDataAggregator);
 
-		// correct ID set on the clone
-		verify(clone, times(1)).setId(0);
-		verify(httpTimerData, times(0)).setId(0);
+		// no modification of the original
+		verify(httpTimerData, times(0)).setId(Matchers.anyLong());
+		verify(httpTimerData, times(0)).setHttpInfo(Matchers.<HttpInfo> any());
+	}
+
+	/**
+	 * Tests the {@link TimerDataChartingCmrProcessor} when the {@link HttpInfo} is not persisted.
+	 */
+	@Test
+	public void chartingProcessorNewHttpInfo() {
+		TimerDataChartingCmrProcessor processor = new TimerDataChartingCmrProcessor();
+		processor.timerDataAggregator = timerDataAggregator;
+		processor.httpInfoCacheSize = 10;
+		processor.postConstruct();
+
+		CriteriaBuilder build = mock(CriteriaBuilder.class, RETURNS_SMART_NULLS);
+		CriteriaQuery<HttpInfo> criteria = mock(CriteriaQuery.class, RETURNS_SMART_NULLS);
+		Root<? extends HttpInfo> root = mock(Root.class, RETURNS_SMART_NULLS);
+		TypedQuery<HttpInfo> query = mock(TypedQuery.class, RETURNS_SMART_NULLS);
+
+		when(entityManager.getCriteriaBuilder()).thenReturn(build);
+		when(build.createQuery(HttpInfo.class)).thenReturn(criteria);
+		when(criteria.from(HttpInfo.class)).thenReturn((Root<HttpInfo>) root);
+		when(entityManager.createQuery(criteria)).thenReturn(query);
+		when(query.getResultList()).thenReturn(Collections.<HttpInfo> emptyList());
+
+		HttpTimerData httpTimerData = new HttpTimerData();
+		httpTimerData.setHttpInfo(new HttpInfo("/uri", "GET", "tag"));
+		httpTimerData.setCharting(true);
+
+		processor.process(httpTimerData, entityManager);
+		processor.process(httpTimerData, entityManager);
+
+		ArgumentCaptor<HttpInfo> captor = ArgumentCaptor.forClass(HttpInfo.class);
+		verify(entityManager, times(1)).persist(captor.capture());
+		assertThat(captor.getValue().getUri(), is("/uri"));
+		assertThat(captor.getValue().getRequestMethod(), is("GET"));
+		assertThat(captor.getValue().getInspectItTaggingHeaderValue(), is("tag"));
+		verify(timerDataAggregator, times(2)).processHttpTimerData(httpTimerData, captor.getValue());
+		verify(query, times(1)).getResultList();
+	}
+
+	/**
+	 * Tests the {@link TimerDataChartingCmrProcessor} when the {@link HttpInfo} is persisted in a
+	 * transaction.
+	 */
+	@Test
+	public void chartingProcessorNewHttpInfoInTransaction() {
+		TimerDataChartingCmrProcessor processor = new TimerDataChartingCmrProcessor();
+		processor.timerDataAggregator = timerDataAggregator;
+		processor.httpInfoCacheSize = 10;
+		processor.postConstruct();
+
+		CriteriaBuilder build = mock(CriteriaBuilder.class, RETURNS_SMART_NULLS);
+		CriteriaQuery<HttpInfo> criteria = mock(CriteriaQuery.class, RETURNS_SMART_NULLS);
+		Root<? extends HttpInfo> root = mock(Root.class, RETURNS_SMART_NULLS);
+		TypedQuery<HttpInfo> query = mock(TypedQuery.class, RETURNS_SMART_NULLS);
+
+		when(entityManager.getCriteriaBuilder()).thenReturn(build);
+		when(build.createQuery(HttpInfo.class)).thenReturn(criteria);
+		when(criteria.from(HttpInfo.class)).thenReturn((Root<HttpInfo>) root);
+		when(entityManager.createQuery(criteria)).thenReturn(query);
+		when(query.getResultList()).thenReturn(Collections.<HttpInfo> emptyList());
+
+		HttpTimerData httpTimerData = new HttpTimerData();
+		httpTimerData.setHttpInfo(new HttpInfo("/uri", "GET", "tag"));
+		httpTimerData.setCharting(true);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			// rolled back creation drops the data and is repeated
+			processor.process(httpTimerData, entityManager);
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+			TransactionSynchronizationManager.clearSynchronization();
+			TransactionSynchronizationManager.initSynchronization();
+			verifyZeroInteractions(timerDataAggregator);
+
+			// data waits for the commit and the info is persisted only once
+			processor.process(httpTimerData, entityManager);
+			processor.process(httpTimerData, entityManager);
+			verifyZeroInteractions(timerDataAggregator);
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		ArgumentCaptor<HttpInfo> captor = ArgumentCaptor.forClass(HttpInfo.class);
+		verify(entityManager, times(2)).persist(captor.capture());
+		verify(timerDataAggregator, times(2)).processHttpTimerData(httpTimerData, captor.getValue());
+
+		// committed info is cached
+		processor.process(httpTimerData, entityManager);
+		verify(timerDataAggregator, times(3)).processHttpTimerData(httpTimerData, captor.getValue());
+		verify(query, times(2)).getResultList();
 	}
 
 	/**
 	 * Tests the {@link TimerDataChartingCmrProcessor} when influx is active.
 	 */
 	@Test
-	public void chartingProcessorInfluxActive() throws CloneNotSupportedException, SerializationException {
+	public void chartingProcessorInfluxActive() {
 		TimerDataChartingCmrProcessor processor = new TimerDataChartingCmrProcessor();
 		processor.timerDataAggregator = timerDataAggregator;
-		processor.serializationManager = serializationManager;
 		processor.influxActive = true;
 
 		// don't write
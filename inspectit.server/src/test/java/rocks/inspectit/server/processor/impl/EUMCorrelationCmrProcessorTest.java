@@ -1,9 +1,9 @@
 package rocks.inspectit.server.processor.impl;
 
-import static org.mockito.Matchers.any;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -11,22 +11,14 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import javax.persistence.EntityManager;
 
-import org.apache.commons.lang.mutable.MutableInt;
 import org.mockito.InjectMocks;
-import org.mockito.Matchers;
 import org.mockito.Mock;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import rocks.inspectit.server.dao.impl.BufferSpanDaoImpl;
 import rocks.inspectit.shared.all.communication.data.eum.AjaxRequest;
 import rocks.inspectit.shared.all.communication.data.eum.EUMSpan;
 import rocks.inspectit.shared.all.communication.data.eum.PageLoadRequest;
@@ -45,9 +37,6 @@ public class EUMCorrelationCmrProcessorTest extends TestBase {
 	SpanIdent frontEndIdent = new SpanIdent(10, 11);
 	SpanIdent backEndIdent = new SpanIdent(11, 11);
 
-	@Mock
-	BufferSpanDaoImpl spanDao;
-
 	@Mock
 	EUMSpan frontEndSpan;
 
@@ -57,42 +46,30 @@ public class EUMCorrelationCmrProcessorTest extends TestBase {
 	@Mock
 	AbstractSpan backEndSpan;
 
-	@Mock
-	ScheduledExecutorService scheduledExecutor = new ScheduledThreadPoolExecutor(1);
-
 	@InjectMocks
 	EUMCorrelationCmrProcessor processor;
 
 	@BeforeMethod
 	public void initMocks() {
-		doAnswer(new Answer<ScheduledFuture<Void>>() {
-			@Override
-			public ScheduledFuture<Void> answer(InvocationOnMock invocation) throws Throwable {
-				((Runnable) invocation.getArguments()[0]).run();
-				return null;
-			}
-		}).when(scheduledExecutor).schedule(any(Runnable.class), anyLong(), any());
 		when(backEndSpan.getPropagationType()).thenReturn(PropagationType.HTTP);
 		when(backEndSpan.isRoot()).thenReturn(true);
 		when(backEndSpan.getSpanIdent()).thenReturn(backEndIdent);
 
 		when(frontEndSpan.getPropagationType()).thenReturn(PropagationType.HTTP);
 		when(frontEndSpan.isRoot()).thenReturn(true);
-		PageLoadRequest details = mock(PageLoadRequest.class);
-		when(frontEndSpan.getDetails()).thenReturn(details);
-
 		when(frontEndSpan.getDetails()).thenReturn(spanDetails);
 		when(frontEndSpan.getSpanIdent()).thenReturn(frontEndIdent);
 
-
+		processor.maxPending = 100;
+		processor.expiration = 60000;
+		processor.postConstruct();
 	}
 
 	public static class Process extends EUMCorrelationCmrProcessorTest {
 
 		@Test
 		public void testBackEndSpanFirst() throws InterruptedException {
-			when(spanDao.get(Matchers.eq(backEndIdent))).thenReturn(backEndSpan);
-
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
 			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
 
 			verify(backEndSpan, times(1)).setParentSpanId(eq(frontEndIdent.getId()));
@@ -100,23 +77,25 @@ public class EUMCorrelationCmrProcessorTest extends TestBase {
 
 		@Test
 		public void testEUMSpanFirst() throws InterruptedException {
-			// span initially not available
-			MutableInt counter = new MutableInt(0);
-			doAnswer(new Answer<AbstractSpan>() {
-				@Override
-				public AbstractSpan answer(InvocationOnMock invocation) throws Throwable {
-					counter.increment();
-					if (counter.longValue() >= 5) { // make it available on the fifth attempt
-						return backEndSpan;
-					} else {
-						return null;
-					}
-				}
-			}).when(spanDao).get(Matchers.eq(backEndIdent));
+			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, times(1)).setParentSpanId(eq(frontEndIdent.getId()));
+		}
+
+		@Test
+		public void testCorrelatedOnlyOnce() throws InterruptedException {
+			AbstractSpan otherBackEndSpan = mock(AbstractSpan.class);
+			when(otherBackEndSpan.isRoot()).thenReturn(true);
+			when(otherBackEndSpan.getPropagationType()).thenReturn(PropagationType.HTTP);
+			when(otherBackEndSpan.getSpanIdent()).thenReturn(backEndIdent);
 
 			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(otherBackEndSpan), mock(EntityManager.class));
 
 			verify(backEndSpan, times(1)).setParentSpanId(eq(frontEndIdent.getId()));
+			verify(otherBackEndSpan, never()).setParentSpanId(anyLong());
 		}
 
 		@Test
@@ -124,8 +103,103 @@ public class EUMCorrelationCmrProcessorTest extends TestBase {
 			when(frontEndSpan.getDetails()).thenReturn(mock(AjaxRequest.class));
 
 			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, never()).setParentSpanId(anyLong());
+		}
+
+		@Test
+		public void testNoCorrelationForCachedPage() throws InterruptedException {
+			when(frontEndSpan.getSpanIdent()).thenReturn(new SpanIdent(11, 11));
+
+			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, never()).setParentSpanId(anyLong());
+		}
+
+		@Test
+		public void testExpired() throws InterruptedException {
+			processor.expiration = 1;
+			processor.postConstruct();
+
+			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			Thread.sleep(10);
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, never()).setParentSpanId(anyLong());
+		}
+
+		@Test
+		public void testMaxPendingExceeded() throws InterruptedException {
+			processor.maxPending = 1;
+			processor.postConstruct();
+			EUMSpan otherFrontEndSpan = mock(EUMSpan.class);
+			when(otherFrontEndSpan.getDetails()).thenReturn(spanDetails);
+			when(otherFrontEndSpan.getSpanIdent()).thenReturn(new SpanIdent(20, 21));
+
+			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(otherFrontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, never()).setParentSpanId(anyLong());
+		}
+
+		@Test
+		public void testBackEndSpansDoNotDisplacePageLoads() throws InterruptedException {
+			processor.maxPending = 1;
+			processor.postConstruct();
+			AbstractSpan otherBackEndSpan = mock(AbstractSpan.class);
+			when(otherBackEndSpan.isRoot()).thenReturn(true);
+			when(otherBackEndSpan.getPropagationType()).thenReturn(PropagationType.HTTP);
+			when(otherBackEndSpan.getSpanIdent()).thenReturn(new SpanIdent(30, 30));
+
+			processor.process(Collections.singleton(frontEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(otherBackEndSpan), mock(EntityManager.class));
+			processor.process(Collections.singleton(backEndSpan), mock(EntityManager.class));
+
+			verify(backEndSpan, times(1)).setParentSpanId(eq(frontEndIdent.getId()));
+		}
+	}
+
+	public static class CanBeProcessed extends EUMCorrelationCmrProcessorTest {
+
+		@Test
+		public void pageLoadSpan() {
+			assertThat(processor.canBeProcessed(frontEndSpan), is(true));
+		}
+
+		@Test
+		public void backEndRootSpan() {
+			assertThat(processor.canBeProcessed(backEndSpan), is(true));
+		}
+
+		@Test
+		public void backEndChildSpan() {
+			when(backEndSpan.isRoot()).thenReturn(false);
+
+			assertThat(processor.canBeProcessed(backEndSpan), is(false));
+		}
+
+		@Test
+		public void backEndClientSpan() {
+			when(backEndSpan.isCaller()).thenReturn(true);
+
+			assertThat(processor.canBeProcessed(backEndSpan), is(false));
+		}
+
+		@Test
+		public void backEndNonHttpSpan() {
+			when(backEndSpan.getPropagationType()).thenReturn(PropagationType.JMS);
+
+			assertThat(processor.canBeProcessed(backEndSpan), is(false));
+		}
+
+		@Test
+		public void backEndSpanNotStartingTrace() {
+			when(backEndSpan.getSpanIdent()).thenReturn(new SpanIdent(12, 11));
 
-			verify(spanDao, never()).get(any());
+			assertThat(processor.canBeProcessed(backEndSpan), is(false));
 		}
 	}
 }
@@ -0,0 +1,205 @@
+package rocks.inspectit.server.rmi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryonet.rmi.RemoteObject;
+
+import rocks.inspectit.server.rmi.KryoNetIntegrationTest.Service;
+import rocks.inspectit.server.test.AbstractTransactionalTestNGLogSupport;
+import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.kryonet.Connection;
+import rocks.inspectit.shared.all.kryonet.ExtendedSerializationImpl;
+import rocks.inspectit.shared.all.kryonet.IExtendedSerialization;
+import rocks.inspectit.shared.all.kryonet.Listener;
+import rocks.inspectit.shared.all.kryonet.Server;
+import rocks.inspectit.shared.all.kryonet.rmi.ObjectSpace;
+import rocks.inspectit.shared.all.serializer.IKryoProvider;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.storage.nio.stream.StreamProvider;
+
+/**
+ * Tests the frame compression negotiation and the compressed communication of the kryonet server
+ * and client.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+@ContextConfiguration(locations = { "classpath:spring/spring-context-global.xml", "classpath:spring/spring-context-database.xml", "classpath:spring/spring-context-beans.xml",
+		"classpath:spring/spring-context-processors.xml", "classpath:spring/spring-context-storage-test.xml" })
+public class KryoNetCompressionTest extends AbstractTransactionalTestNGLogSupport {
+
+	private static final int PORT = 8767;
+
+	private static final int THRESHOLD = 1024;
+
+	@Autowired
+	protected SerializationManagerProvider serializationManagerProvider;
+
+	@Autowired
+	protected StreamProvider streamProvider;
+
+	protected Server server;
+
+	protected Client client;
+
+	@AfterMethod
+	public void closeConnections() {
+		if (null != client) {
+			client.stop();
+		}
+		if (null != server) {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void compressed() throws Exception {
+		connect(THRESHOLD, 0);
+		Service service = getServiceForClient();
+		List<String> toSend = getCompressibleList(1000);
+
+		assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+
+		// request and the response are compressed
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(1L));
+		assertThat(client.getCompressionStatistics().getDecompressedFrames(), is(1L));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(1L));
+		assertThat(server.getCompressionStatistics().getDecompressedFrames(), is(1L));
+		assertThat(client.getCompressionStatistics().getCompressedFramesBytes(), is(lessThan(client.getCompressionStatistics().getCompressedFramesRawBytes())));
+		assertThat(client.getCompressionStatistics().getCompressedFramesRawBytes(), is(server.getCompressionStatistics().getDecompressedFramesRawBytes()));
+		assertThat(client.getCompressionStatistics().getCompressionRatio(), is(lessThan(1d)));
+	}
+
+	@Test
+	public void belowThreshold() throws Exception {
+		connect(THRESHOLD, 0);
+		Service service = getServiceForClient();
+		List<String> toSend = getCompressibleList(1);
+
+		assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(0L));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(0L));
+	}
+
+	@Test
+	public void higherClientThreshold() throws Exception {
+		connect(THRESHOLD, Integer.MAX_VALUE);
+		Service service = getServiceForClient();
+		List<String> toSend = getCompressibleList(1000);
+
+		assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(0L));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(0L));
+	}
+
+	@Test
+	public void notSupportedByClient() throws Exception {
+		connect(THRESHOLD, -1);
+		Service service = getServiceForClient();
+		List<String> toSend = getCompressibleList(1000);
+
+		assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(0L));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(0L));
+	}
+
+	@Test
+	public void notSupportedByServer() throws Exception {
+		connect(-1, 0);
+		Service service = getServiceForClient();
+		List<String> toSend = getCompressibleList(1000);
+
+		assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(0L));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(0L));
+	}
+
+	@Test
+	public void manyFrames() throws Exception {
+		connect(THRESHOLD, 0);
+		Service service = getServiceForClient();
+
+		for (int i = 1; i <= 100; i++) {
+			List<String> toSend = getCompressibleList(i * 10);
+			assertThat(service.returnSame(toSend), is(equalTo(toSend)));
+		}
+
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(greaterThan(0L)));
+		assertThat(client.getCompressionStatistics().getCompressedFrames(), is(server.getCompressionStatistics().getDecompressedFrames()));
+		assertThat(server.getCompressionStatistics().getCompressedFrames(), is(client.getCompressionStatistics().getDecompressedFrames()));
+	}
+
+	/**
+	 * Starts the server and connects the client with the given compression thresholds.
+	 */
+	private void connect(int serverThreshold, int clientThreshold) throws Exception {
+		IExtendedSerialization serialization = new ExtendedSerializationImpl(serializationManagerProvider) {
+			@Override
+			protected IKryoProvider createKryoProvider() {
+				// hook in to register the test service
+				IKryoProvider kryoProvider = super.createKryoProvider();
+				kryoProvider.getKryo().register(Service.class);
+				return kryoProvider;
+			}
+		};
+
+		server = new Server(serialization, streamProvider);
+		server.setCompressionThreshold(serverThreshold);
+		server.start();
+		server.bind(PORT);
+
+		final ObjectSpace objectSpace = new ObjectSpace();
+		objectSpace.register(1, new Service() {
+			@Override
+			public <E> E returnSame(E o) {
+				return o;
+			}
+		});
+		server.addListener(new Listener() {
+			@Override
+			public void connected(Connection connection) {
+				objectSpace.addConnection(connection);
+			}
+		});
+
+		client = new Client(serialization, streamProvider);
+		client.setCompressionThreshold(clientThreshold);
+		client.start();
+		client.connect(5000, "localhost", PORT);
+	}
+
+	private Service getServiceForClient() {
+		Service service = ObjectSpace.getRemoteObject(client, 1, Service.class);
+		((RemoteObject) service).setNonBlocking(false);
+		((RemoteObject) service).setTransmitReturnValue(true);
+		((RemoteObject) service).setResponseTimeout(60000);
+		// response to the first call ensures that client has processed the announcement
+		service.returnSame("warm-up");
+		return service;
+	}
+
+	private List<String> getCompressibleList(int size) {
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add("SELECT * FROM TABLE WHERE ID = " + i);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,216 @@
+package rocks.inspectit.server.rmi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryonet.rmi.RemoteObject;
+
+import rocks.inspectit.server.test.AbstractTransactionalTestNGLogSupport;
+import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
+import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.kryonet.Connection;
+import rocks.inspectit.shared.all.kryonet.ExtendedSerializationImpl;
+import rocks.inspectit.shared.all.kryonet.IExtendedSerialization;
+import rocks.inspectit.shared.all.kryonet.Listener;
+import rocks.inspectit.shared.all.kryonet.Server;
+import rocks.inspectit.shared.all.kryonet.rmi.ObjectSpace;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.storage.nio.stream.StreamProvider;
+
+/**
+ * Load test harness that simulates many agents sending data batches to the kryonet server. By
+ * default the server is started locally with the reactor threads and decoding executor. The
+ * harness can be pointed to the running CMR with the <code>loadtest.host</code> and
+ * <code>loadtest.port</code> system properties, in that case only the sending is measured. The load
+ * can be changed with the <code>loadtest.agents</code>, <code>loadtest.batches</code> and
+ * <code>loadtest.batchSize</code> system properties.
+ * <p>
+ * The harness is in the <code>load</code> test group, which is excluded from the default test
+ * task. Run it with the <code>loadTest</code> task of the server project.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+@ContextConfiguration(locations = { "classpath:spring/spring-context-global.xml", "classpath:spring/spring-context-database.xml", "classpath:spring/spring-context-beans.xml",
+		"classpath:spring/spring-context-processors.xml", "classpath:spring/spring-context-storage-test.xml" })
+@Test(groups = "load")
+public class KryoNetLoadTest extends AbstractTransactionalTestNGLogSupport {
+
+	private static final Logger LOG = LoggerFactory.getLogger(KryoNetLoadTest.class);
+
+	private static final int AGENTS = Integer.getInteger("loadtest.agents", 20);
+
+	private static final int BATCHES = Integer.getInteger("loadtest.batches", 50);
+
+	private static final int BATCH_SIZE = Integer.getInteger("loadtest.batchSize", 100);
+
+	private static final String HOST = System.getProperty("loadtest.host");
+
+	private static final int PORT = Integer.getInteger("loadtest.port", 8766);
+
+	@Autowired
+	protected SerializationManagerProvider serializationManagerProvider;
+
+	@Autowired
+	protected StreamProvider streamProvider;
+
+	protected IExtendedSerialization serialization;
+
+	protected Server server;
+
+	protected ExecutorService decodeExecutor;
+
+	protected ExecutorService objectSpaceExecutor;
+
+	protected AtomicLong receivedObjects = new AtomicLong();
+
+	protected CountDownLatch receivedBatches;
+
+	protected List<Client> clients = new ArrayList<>();
+
+	@BeforeClass(groups = "load")
+	public void init() throws Exception {
+		serialization = new ExtendedSerializationImpl(serializationManagerProvider);
+		receivedBatches = new CountDownLatch(AGENTS * BATCHES);
+
+		if (null == HOST) {
+			decodeExecutor = Executors.newFixedThreadPool(4);
+			objectSpaceExecutor = Executors.newFixedThreadPool(3);
+
+			server = new Server(serialization, streamProvider);
+			server.setReactorThreads(2);
+			server.setDecodeExecutor(decodeExecutor);
+			server.start();
+			server.bind(PORT);
+
+			final ObjectSpace objectSpace = new ObjectSpace();
+			objectSpace.setExecutor(objectSpaceExecutor);
+			objectSpace.register(IAgentStorageService.class.getAnnotation(ServiceInterface.class).serviceId(), new IAgentStorageService() {
+				@Override
+				public void addDataObjects(List<? extends DefaultData> dataObjects) {
+					receivedObjects.addAndGet(dataObjects.size());
+					receivedBatches.countDown();
+				}
+			});
+			server.addListener(new Listener() {
+				@Override
+				public void connected(Connection connection) {
+					objectSpace.addConnection(connection);
+				}
+			});
+		}
+
+		for (int i = 0; i < AGENTS; i++) {
+			Client client = new Client(serialization, streamProvider);
+			client.start();
+			client.connect(5000, (null != HOST) ? HOST : "localhost", PORT);
+			clients.add(client);
+		}
+	}
+
+	@AfterClass(groups = "load")
+	public void closeConnections() {
+		for (Client client : clients) {
+			client.stop();
+		}
+		if (null != server) {
+			server.stop();
+			decodeExecutor.shutdownNow();
+			objectSpaceExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void agentsSendingData() throws Exception {
+		CyclicBarrier cyclicBarrier = new CyclicBarrier(AGENTS + 1);
+		List<Thread> agents = new ArrayList<>();
+		for (int i = 0; i < AGENTS; i++) {
+			Agent agent = new Agent(cyclicBarrier, clients.get(i), i + 1);
+			agents.add(agent);
+			agent.start();
+		}
+
+		cyclicBarrier.await();
+		long start = System.nanoTime();
+		for (Thread agent : agents) {
+			agent.join();
+		}
+		long sent = System.nanoTime();
+
+		long totalObjects = (long) AGENTS * BATCHES * BATCH_SIZE;
+		if (null == HOST) {
+			assertThat(receivedBatches.await(2, TimeUnit.MINUTES), is(true));
+			assertThat(receivedObjects.get(), is(totalObjects));
+		}
+		long end = System.nanoTime();
+
+		double seconds = (end - start) / 1000000000d;
+		LOG.info("Load test: " + AGENTS + " agents sent " + totalObjects + " objects in " + (AGENTS * BATCHES) + " batches. Sending took " + TimeUnit.NANOSECONDS.toMillis(sent - start)
+				+ " ms, processing took " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms (" + (long) (totalObjects / seconds) + " objects/s).");
+	}
+
+	/**
+	 * Simulated agent sending the data batches in the same way as the agent does.
+	 */
+	protected class Agent extends Thread {
+
+		private final CyclicBarrier cyclicBarrier;
+
+		private final IAgentStorageService agentStorageService;
+
+		private final long platformIdent;
+
+		public Agent(CyclicBarrier cyclicBarrier, Client client, long platformIdent) {
+			this.cyclicBarrier = cyclicBarrier;
+			this.platformIdent = platformIdent;
+			agentStorageService = ObjectSpace.getRemoteObject(client, IAgentStorageService.class.getAnnotation(ServiceInterface.class).serviceId(), IAgentStorageService.class);
+			((RemoteObject) agentStorageService).setNonBlocking(true);
+			((RemoteObject) agentStorageService).setTransmitReturnValue(false);
+		}
+
+		@Override
+		public void run() {
+			try {
+				cyclicBarrier.await();
+			} catch (Exception e) {
+				// ignore
+			}
+
+			for (int i = 0; i < BATCHES; i++) {
+				List<DefaultData> batch = new ArrayList<>(BATCH_SIZE);
+				Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+				for (int j = 0; j < BATCH_SIZE; j++) {
+					TimerData timerData = new TimerData(timestamp, platformIdent, 1L, j);
+					timerData.setCount(1L);
+					timerData.setDuration(j);
+					timerData.calculateMin(j);
+					timerData.calculateMax(j);
+					batch.add(timerData);
+				}
+				agentStorageService.addDataObjects(batch);
+			}
+		}
+	}
+}
@@ -17,6 +17,8 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.instrumentation.NextGenInstrumentationManager;
 import rocks.inspectit.server.messaging.AgentMessageProvider;
+import rocks.inspectit.server.util.MethodOverheadDataProvider;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
 import rocks.inspectit.shared.all.instrumentation.config.impl.AgentConfig;
 import rocks.inspectit.shared.all.instrumentation.config.impl.JmxAttributeDescriptor;
@@ -39,6 +41,9 @@ public class AgentServiceTest extends TestBase {
 	@Mock
 	AgentMessageProvider messageProvider;
 
+	@Mock
+	MethodOverheadDataProvider methodOverheadDataProvider;
+
 	/**
 	 * Tests the {@link AgentService#analyze(long, String, Type)} method.
 	 */
@@ -107,6 +112,24 @@ public class AgentServiceTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link AgentService#methodOverheadReported(long, Collection)} method.
+	 */
+	public static class MethodOverheadReported extends AgentServiceTest {
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void successful() throws Exception {
+			Collection<MethodOverheadData> methodOverheadData = mock(Collection.class);
+
+			agentService.methodOverheadReported(10L, methodOverheadData);
+
+			verify(methodOverheadDataProvider).registerMethodOverhead(10L, methodOverheadData);
+			verifyNoMoreInteractions(methodOverheadDataProvider);
+			verifyZeroInteractions(instrumentationManager, messageProvider, methodOverheadData);
+		}
+	}
+
 	/**
 	 * Tests the {@link AgentService#register(List, String, String)} method.
 	 */
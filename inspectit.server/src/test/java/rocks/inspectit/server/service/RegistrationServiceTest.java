@@ -1,13 +1,16 @@
 package rocks.inspectit.server.service;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -15,6 +18,8 @@ import static org.mockito.Mockito.when;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +33,7 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import rocks.inspectit.server.dao.JmxDefinitionDataIdentDao;
@@ -43,6 +49,7 @@ import rocks.inspectit.server.dao.impl.PlatformIdentDaoImpl;
 import rocks.inspectit.server.dao.impl.PlatformSensorTypeIdentDaoImpl;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
 import rocks.inspectit.server.util.PlatformIdentCache;
+import rocks.inspectit.server.util.RegistrationIdentityMap;
 import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
 import rocks.inspectit.shared.all.cmr.model.JmxSensorTypeIdent;
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
@@ -110,6 +117,14 @@ public class RegistrationServiceTest extends TestBase {
 	@Mock
 	Logger log;
 
+	/**
+	 * Fresh identity map for each test.
+	 */
+	@BeforeMethod
+	public void initIdentityMap() {
+		registrationService.registrationIdentityMap = new RegistrationIdentityMap();
+	}
+
 	public class RegisterPlatformIdent extends RegistrationServiceTest {
 		/**
 		 * Tests that an exception will be thrown if the database returns two or more platform
@@ -355,11 +370,11 @@ public class RegistrationServiceTest extends TestBase {
 
 			assertThat(registeredId, equalTo(methodId));
 
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 			ArgumentCaptor<MethodIdent> argument = ArgumentCaptor.forClass(MethodIdent.class);
 			verify(methodIdentDao, times(1)).saveOrUpdate(argument.capture());
 			verify(methodIdentDao, times(1)).findIdForPlatformIdAndExample(eq(platformId), (MethodIdent) anyObject(), eq(true));
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 
 			assertThat(argument.getValue().getPlatformIdent().getId(), is(equalTo(platformId)));
 			assertThat(argument.getValue().getPackageName(), is(equalTo(packageName)));
@@ -391,10 +406,10 @@ public class RegistrationServiceTest extends TestBase {
 			long registeredId = registrationService.registerMethodIdent(platformId, packageName, className, methodName, parameterTypes, returnType, modifiers);
 			assertThat(registeredId, equalTo(methodId));
 
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 			ArgumentCaptor<MethodIdent> argument = ArgumentCaptor.forClass(MethodIdent.class);
 			verify(methodIdentDao, times(1)).findIdForPlatformIdAndExample(eq(platformId), argument.capture(), eq(true));
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 
 			assertThat(argument.getValue().getPackageName(), is(equalTo(packageName)));
 			assertThat(argument.getValue().getClassName(), is(equalTo(className)));
@@ -405,6 +420,77 @@ public class RegistrationServiceTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link RegistrationService#registerMethodIdent(long, String, String, String, List, String, int)}
+	 * method with the identity map.
+	 */
+	public static class RegisterMethodIdentIdentityMap extends RegistrationServiceTest {
+
+		static final long PLATFORM_ID = 1L;
+
+		static final long METHOD_ID = 20L;
+
+		@Test
+		public void registerSecondTime() {
+			Mockito.doAnswer(new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					MethodIdent methodIdent = (MethodIdent) invocation.getArguments()[0];
+					methodIdent.setId(Long.valueOf(METHOD_ID));
+					return null;
+				}
+			}).when(methodIdentDao).saveOrUpdate((MethodIdent) anyObject());
+			registrationService.registerMethodIdent(PLATFORM_ID, "package", "class", "method", Collections.singletonList("parameter"), "returnType", 2);
+
+			long registeredId = registrationService.registerMethodIdent(PLATFORM_ID, "package", "class", "method", Collections.singletonList("parameter"), "returnType", 2);
+
+			assertThat(registeredId, is(METHOD_ID));
+			verify(methodIdentDao, times(1)).findRegistrationDataForPlatformId(PLATFORM_ID);
+			verify(methodIdentDao, times(1)).findIdForPlatformIdAndExample(eq(PLATFORM_ID), (MethodIdent) anyObject(), eq(true));
+			verify(methodIdentDao, times(1)).saveOrUpdate((MethodIdent) anyObject());
+			verify(methodIdentDao).updateTimestamps(Collections.singletonList(METHOD_ID));
+		}
+
+		@Test
+		public void registerExistingLoaded() {
+			MethodIdent existing = new MethodIdent();
+			existing.setId(METHOD_ID);
+			existing.setPackageName("package");
+			existing.setClassName("class");
+			existing.setMethodName("method");
+			existing.setParameters(Collections.singletonList("parameter"));
+			existing.setReturnType("returnType");
+			when(methodIdentDao.findRegistrationDataForPlatformId(PLATFORM_ID)).thenReturn(Collections.singletonList(existing));
+
+			long registeredId = registrationService.registerMethodIdent(PLATFORM_ID, "package", "class", "method", Collections.singletonList("parameter"), "returnType", 2);
+
+			assertThat(registeredId, is(METHOD_ID));
+			verify(methodIdentDao).findRegistrationDataForPlatformId(PLATFORM_ID);
+			verify(methodIdentDao).updateTimestamps(Collections.singletonList(METHOD_ID));
+			verify(methodIdentDao, never()).findIdForPlatformIdAndExample(anyLong(), (MethodIdent) anyObject(), anyBoolean());
+			verify(methodIdentDao, never()).saveOrUpdate((MethodIdent) anyObject());
+			verify(platformIdentCache).recordChanges(PLATFORM_ID, Collections.singletonList(METHOD_ID), Collections.<Long> emptyList());
+		}
+
+		@Test
+		public void differentParameters() {
+			MethodIdent existing = new MethodIdent();
+			existing.setId(METHOD_ID);
+			existing.setPackageName("package");
+			existing.setClassName("class");
+			existing.setMethodName("method");
+			existing.setParameters(Collections.singletonList("parameter"));
+			existing.setReturnType("returnType");
+			when(methodIdentDao.findRegistrationDataForPlatformId(PLATFORM_ID)).thenReturn(Collections.singletonList(existing));
+			when(methodIdentDao.findIdForPlatformIdAndExample(eq(PLATFORM_ID), (MethodIdent) anyObject(), anyBoolean())).thenReturn(Collections.singletonList(30L));
+
+			long registeredId = registrationService.registerMethodIdent(PLATFORM_ID, "package", "class", "method", Collections.<String> emptyList(), "returnType", 2);
+
+			assertThat(registeredId, is(30L));
+			verify(methodIdentDao).findIdForPlatformIdAndExample(eq(PLATFORM_ID), (MethodIdent) anyObject(), eq(true));
+		}
+	}
+
 	public class RegisterMethodSensorTypeIdent extends RegistrationServiceTest {
 		/**
 		 * Test the registration of the method sensor type.
@@ -601,7 +687,7 @@ public class RegistrationServiceTest extends TestBase {
 			ArgumentCaptor<JmxDefinitionDataIdent> jmxSensorArgument = ArgumentCaptor.forClass(JmxDefinitionDataIdent.class);
 			verify(jmxDefinitionDataIdentDao, times(1)).saveOrUpdate(jmxSensorArgument.capture());
 			verify(jmxDefinitionDataIdentDao, times(1)).findIdForPlatformIdent(eq(platformId), (JmxDefinitionDataIdent) anyObject(), eq(true));
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.<Long> emptyList(), Collections.singletonList(jmxSensorId));
 
 			JmxDefinitionDataIdent dataIdent = jmxSensorArgument.getValue();
 			assertThat(dataIdent.getmBeanObjectName(), is(equalTo(mBeanObjectName)));
@@ -614,6 +700,31 @@ public class RegistrationServiceTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests the {@link RegistrationService#registerJmxSensorDefinitionDataIdent} method with the
+	 * identity map.
+	 */
+	public static class RegisterJmxSensorDefinitionDataIdentIdentityMap extends RegistrationServiceTest {
+
+		@Test
+		public void registerExistingLoaded() {
+			JmxDefinitionDataIdent existing = new JmxDefinitionDataIdent();
+			existing.setId(50L);
+			existing.setmBeanObjectName("mBeanObjectName");
+			existing.setmBeanAttributeName("mBeanAttributeName");
+			when(jmxDefinitionDataIdentDao.findRegistrationDataForPlatformIdent(1L)).thenReturn(Collections.singletonList(existing));
+
+			long registeredId = registrationService.registerJmxSensorDefinitionDataIdent(1L, "mBeanObjectName", "mBeanAttributeName", "description", "type", false, true, false);
+
+			assertThat(registeredId, is(50L));
+			verify(jmxDefinitionDataIdentDao).findRegistrationDataForPlatformIdent(1L);
+			verify(jmxDefinitionDataIdentDao).updateTimestamps(Collections.singletonList(50L));
+			verify(jmxDefinitionDataIdentDao, never()).findIdForPlatformIdent(anyLong(), (JmxDefinitionDataIdent) anyObject(), anyBoolean());
+			verify(jmxDefinitionDataIdentDao, never()).saveOrUpdate((JmxDefinitionDataIdent) anyObject());
+			verify(platformIdentCache).recordChanges(1L, Collections.<Long> emptyList(), Collections.singletonList(50L));
+		}
+	}
+
 	public class AddSensorTypeToMethod extends RegistrationServiceTest {
 
 		/**
@@ -625,13 +736,21 @@ public class RegistrationServiceTest extends TestBase {
 			long methodId = 20;
 			long methodSensorId = 50;
 			when(methodIdentToSensorTypeDao.findId(eq(methodId), eq(methodSensorId), anyBoolean())).thenReturn(null);
+			Mockito.doAnswer(new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					MethodIdentToSensorType methodIdentToSensorType = (MethodIdentToSensorType) invocation.getArguments()[0];
+					methodIdentToSensorType.setId(100L);
+					return null;
+				}
+			}).when(methodIdentToSensorTypeDao).saveOrUpdate((MethodIdentToSensorType) anyObject());
 
 			registrationService.addSensorTypeToMethod(platformId, methodSensorId, methodId);
 
 			ArgumentCaptor<MethodIdentToSensorType> argument = ArgumentCaptor.forClass(MethodIdentToSensorType.class);
 			verify(methodIdentToSensorTypeDao, times(1)).saveOrUpdate(argument.capture());
 			verify(methodIdentToSensorTypeDao, times(1)).findId(methodId, methodSensorId, true);
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 			verifyZeroInteractions(methodIdentDao);
 			verifyZeroInteractions(methodSensorTypeIdentDao);
 
@@ -654,12 +773,101 @@ public class RegistrationServiceTest extends TestBase {
 			registrationService.addSensorTypeToMethod(platformId, methodSensorId, methodId);
 
 			verify(methodIdentToSensorTypeDao, times(1)).findId(methodId, methodSensorId, true);
-			verify(platformIdentCache, times(1)).markDirty(platformId);
+			verify(platformIdentCache, times(1)).recordChanges(platformId, Collections.singletonList(methodId), Collections.<Long> emptyList());
 			verifyZeroInteractions(methodIdentDao);
 			verifyZeroInteractions(methodSensorTypeIdentDao);
 		}
 	}
 
+	/**
+	 * Tests the {@link RegistrationService#addSensorTypesToMethods(long, Map)} method.
+	 */
+	public static class AddSensorTypesToMethods extends RegistrationServiceTest {
+
+		static final long PLATFORM_ID = 1L;
+
+		@BeforeMethod
+		public void init() {
+			Mockito.doAnswer(new Answer<Object>() {
+				private long id = 1000L;
+
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					MethodIdentToSensorType methodIdentToSensorType = (MethodIdentToSensorType) invocation.getArguments()[0];
+					methodIdentToSensorType.setId(id++);
+					return null;
+				}
+			}).when(methodIdentToSensorTypeDao).saveOrUpdate((MethodIdentToSensorType) anyObject());
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void newAndExisting() {
+			MethodIdent methodIdent = new MethodIdent();
+			methodIdent.setId(20L);
+			MethodSensorTypeIdent methodSensorTypeIdent = new MethodSensorTypeIdent();
+			methodSensorTypeIdent.setId(50L);
+			MethodIdentToSensorType existing = new MethodIdentToSensorType(methodIdent, methodSensorTypeIdent, null);
+			existing.setId(100L);
+			when(methodIdentToSensorTypeDao.findIdsForPlatformId(PLATFORM_ID)).thenReturn(Collections.singletonList(existing));
+			Map<Long, long[]> methodToSensorMap = new HashMap<>();
+			methodToSensorMap.put(20L, new long[] { 50L, 51L });
+			methodToSensorMap.put(21L, new long[] { 50L });
+
+			registrationService.addSensorTypesToMethods(PLATFORM_ID, methodToSensorMap);
+
+			ArgumentCaptor<MethodIdentToSensorType> argument = ArgumentCaptor.forClass(MethodIdentToSensorType.class);
+			verify(methodIdentToSensorTypeDao, times(2)).saveOrUpdate(argument.capture());
+			List<List<Long>> created = new ArrayList<>();
+			for (MethodIdentToSensorType methodIdentToSensorType : argument.getAllValues()) {
+				created.add(Arrays.asList(methodIdentToSensorType.getMethodIdent().getId(), methodIdentToSensorType.getMethodSensorTypeIdent().getId()));
+				assertThat(methodIdentToSensorType.getTimestamp(), is(notNullValue()));
+			}
+			assertThat(created, containsInAnyOrder(Arrays.asList(20L, 51L), Arrays.asList(21L, 50L)));
+			ArgumentCaptor<Collection> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(methodIdentToSensorTypeDao).updateTimestamps(idsCaptor.capture());
+			assertThat((Collection<Long>) idsCaptor.getValue(), containsInAnyOrder(100L));
+			verify(methodIdentToSensorTypeDao, never()).findId(anyLong(), anyLong(), anyBoolean());
+			ArgumentCaptor<Collection> methodIdsCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(platformIdentCache).recordChanges(eq(PLATFORM_ID), methodIdsCaptor.capture(), eq(Collections.<Long> emptyList()));
+			assertThat((Collection<Long>) methodIdsCaptor.getValue(), containsInAnyOrder(20L, 21L));
+			verify(platformIdentCache, never()).markDirty(anyLong());
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		public void secondBatch() {
+			Map<Long, long[]> methodToSensorMap = Collections.singletonMap(20L, new long[] { 50L });
+			registrationService.addSensorTypesToMethods(PLATFORM_ID, methodToSensorMap);
+
+			registrationService.addSensorTypesToMethods(PLATFORM_ID, methodToSensorMap);
+
+			verify(methodIdentToSensorTypeDao, times(1)).findIdsForPlatformId(PLATFORM_ID);
+			verify(methodIdentToSensorTypeDao, times(1)).saveOrUpdate((MethodIdentToSensorType) anyObject());
+			ArgumentCaptor<Collection> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+			verify(methodIdentToSensorTypeDao, times(1)).updateTimestamps(idsCaptor.capture());
+			assertThat((Collection<Long>) idsCaptor.getValue(), containsInAnyOrder(1000L));
+		}
+
+		@Test
+		public void singleAfterBatch() {
+			registrationService.addSensorTypesToMethods(PLATFORM_ID, Collections.singletonMap(20L, new long[] { 50L }));
+
+			registrationService.addSensorTypeToMethod(PLATFORM_ID, 50L, 20L);
+
+			verify(methodIdentToSensorTypeDao, times(1)).saveOrUpdate((MethodIdentToSensorType) anyObject());
+			verify(methodIdentToSensorTypeDao).updateTimestamps(Collections.singletonList(1000L));
+			verify(methodIdentToSensorTypeDao, never()).findId(anyLong(), anyLong(), anyBoolean());
+		}
+
+		@Test
+		public void emptyMap() {
+			registrationService.addSensorTypesToMethods(PLATFORM_ID, Collections.<Long, long[]> emptyMap());
+
+			verifyZeroInteractions(methodIdentToSensorTypeDao, platformIdentCache);
+		}
+	}
+
 	/**
 	 * Tests the {@link RegistrationService#updateMethodIdentTimestamp(long, String, String)}
 	 * method.
@@ -84,16 +84,26 @@ public class StorageRestfulServiceTest {
 	@Test
 	public void createStorage() throws BusinessException {
 		String name = "name";
-		restfulService.createStorage(name);
+		restfulService.createStorage(name, Boolean.FALSE);
 
 		ArgumentCaptor<StorageData> captor = ArgumentCaptor.forClass(StorageData.class);
 		verify(storageService, times(1)).createAndOpenStorage(captor.capture());
 		assertThat(captor.getValue().getName(), is(name));
+		assertThat(captor.getValue().isColumnarFormat(), is(false));
+	}
+
+	@Test
+	public void createStorageColumnarFormat() throws BusinessException {
+		restfulService.createStorage("name", Boolean.TRUE);
+
+		ArgumentCaptor<StorageData> captor = ArgumentCaptor.forClass(StorageData.class);
+		verify(storageService, times(1)).createAndOpenStorage(captor.capture());
+		assertThat(captor.getValue().isColumnarFormat(), is(true));
 	}
 
 	@Test(expectedExceptions = { BusinessException.class })
 	public void createStorageEmptyName() throws BusinessException {
-		restfulService.createStorage("");
+		restfulService.createStorage("", Boolean.FALSE);
 	}
 
 	@Test
@@ -0,0 +1,168 @@
+package rocks.inspectit.server.service.rest.stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.service.rest.stream.JsonStreamWriter.Format;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link JsonStreamWriter}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class JsonStreamWriterTest extends TestBase {
+
+	@Mock
+	HttpServletResponse response;
+
+	StringWriter output;
+
+	ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeMethod
+	public void init() throws Exception {
+		output = new StringWriter();
+		when(response.getWriter()).thenReturn(new PrintWriter(output));
+	}
+
+	private static InvocationSequenceData invocation(long id, double duration) {
+		InvocationSequenceData invocationSequenceData = new InvocationSequenceData();
+		invocationSequenceData.setId(id);
+		invocationSequenceData.setDuration(duration);
+		return invocationSequenceData;
+	}
+
+	/**
+	 * Tests the {@link JsonStreamWriter#write(Object)} method.
+	 */
+	public static class Write extends JsonStreamWriterTest {
+
+		@Test
+		public void jsonArray() throws Exception {
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.JSON, Arrays.asList("id", "duration"))) {
+				writer.write(invocation(1L, 10d));
+				writer.write(invocation(2L, 20d));
+				writer.complete();
+			}
+
+			assertThat(output.toString(), is("[{\"id\":1,\"duration\":10.0},{\"id\":2,\"duration\":20.0}]"));
+			verify(response).setContentType("application/json");
+		}
+
+		@Test
+		public void emptyJsonArray() throws Exception {
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.JSON, null)) {
+				assertThat(writer.getCount(), is(0));
+				writer.complete();
+			}
+
+			assertThat(output.toString(), is("[]"));
+		}
+
+		@Test
+		public void ndjson() throws Exception {
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.NDJSON, Arrays.asList("id"))) {
+				writer.write(invocation(1L, 10d));
+				writer.write(invocation(2L, 20d));
+				assertThat(writer.getCount(), is(2));
+			}
+
+			assertThat(output.toString(), is("{\"id\":1}\n{\"id\":2}\n"));
+			verify(response).setContentType("application/x-ndjson");
+		}
+
+		@Test
+		public void unknownFieldIgnored() throws Exception {
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.NDJSON, Arrays.asList("id", "unknown"))) {
+				writer.write(invocation(1L, 10d));
+			}
+
+			assertThat(output.toString(), is("{\"id\":1}\n"));
+		}
+
+		@Test
+		public void allFields() throws Exception {
+			InvocationSequenceData invocation = invocation(1L, 10d);
+
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.NDJSON, null)) {
+				writer.write(invocation);
+			}
+
+			assertThat(output.toString(), is(objectMapper.writeValueAsString(invocation) + "\n"));
+		}
+	}
+
+	/**
+	 * Tests the {@link JsonStreamWriter#abort(Exception)} method.
+	 */
+	public static class Abort extends JsonStreamWriterTest {
+
+		@Test
+		public void notCompleted() throws Exception {
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.JSON, Arrays.asList("id"))) {
+				writer.write(invocation(1L, 10d));
+			}
+
+			assertThat(output.toString(), is("[{\"id\":1}"));
+		}
+
+		@Test
+		public void committed() throws Exception {
+			when(response.isCommitted()).thenReturn(true);
+			boolean reported;
+
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.NDJSON, Arrays.asList("id"))) {
+				writer.write(invocation(1L, 10d));
+				reported = writer.abort(new IllegalStateException("failed"));
+			}
+
+			assertThat(reported, is(true));
+			assertThat(output.toString(), is("{\"id\":1}\n{\"error\":\"failed\",\"exceptionType\":\"java.lang.IllegalStateException\"}\n"));
+		}
+
+		@Test
+		public void notCommitted() throws Exception {
+			boolean reported;
+
+			try (JsonStreamWriter writer = new JsonStreamWriter(response, objectMapper, Format.JSON, Arrays.asList("id"))) {
+				writer.write(invocation(1L, 10d));
+				reported = writer.abort(new IllegalStateException("failed"));
+			}
+
+			assertThat(reported, is(false));
+			verify(response).resetBuffer();
+		}
+	}
+
+	/**
+	 * Tests the {@link Format#fromParameter(String)} method.
+	 */
+	public static class FromParameter extends JsonStreamWriterTest {
+
+		@Test
+		public void format() {
+			assertThat(Format.fromParameter("ndjson"), is(Format.NDJSON));
+			assertThat(Format.fromParameter("NDJSON"), is(Format.NDJSON));
+			assertThat(Format.fromParameter("json"), is(Format.JSON));
+			assertThat(Format.fromParameter(null), is(Format.JSON));
+		}
+	}
+
+}
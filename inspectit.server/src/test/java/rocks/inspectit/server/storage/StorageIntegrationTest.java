@@ -6,6 +6,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -46,6 +47,7 @@ import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.serializer.util.KryoUtil;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexMapper;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageFileType;
@@ -85,6 +87,12 @@ public class StorageIntegrationTest extends AbstractTransactionalTestNGLogSuppor
 	@Autowired
 	private ISerializer serializer;
 
+	/**
+	 * {@link StorageQueryExecutor}.
+	 */
+	@Autowired
+	private StorageQueryExecutor storageQueryExecutor;
+
 	/**
 	 * Storage data to be used in testing.
 	 */
@@ -249,6 +257,15 @@ public class StorageIntegrationTest extends AbstractTransactionalTestNGLogSuppor
 		assertThat(indexingTree, is(instanceOf(IStorageTreeComponent.class)));
 
 		storageIndexingTree = (IStorageTreeComponent<?>) indexingTree;
+		StorageIndexMapper.bindLeaves(storageIndexingTree, storageFolder.toPath());
+
+		File[] indexLeafFiles = storageFolder.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(StorageFileType.INDEX_LEAF_FILE.getExtension());
+			}
+		});
+		assertThat(indexLeafFiles.length, is(equalTo(1)));
 
 		assertThat(storageManager.getReadableStorages(), hasItem(storageData));
 	}
@@ -371,6 +388,70 @@ public class StorageIntegrationTest extends AbstractTransactionalTestNGLogSuppor
 		assertThat("Amount of de-serialize objects is less than the amount of invocations saved.", count, is(equalTo(createdInvocations.size())));
 	}
 
+	/**
+	 * Tests executing the query directly against the storage files.
+	 *
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 */
+	@Test(dependsOnMethods = { "finalizeWriteTest" })
+	public void executeQuery() throws SerializationException, IOException {
+		StorageIndexQuery query = new StorageIndexQuery();
+		List<Class<?>> searchedClasses = new ArrayList<>();
+		searchedClasses.add(InvocationSequenceData.class);
+		query.setObjectClasses(searchedClasses);
+
+		List<InvocationSequenceData> result = storageQueryExecutor.executeQuery(storageData, query, null, -1);
+
+		assertThat(result, hasSize(createdInvocations.size()));
+		for (InvocationSequenceData invocation : result) {
+			assertThat(createdInvocations, hasItem(invocation));
+		}
+	}
+
+	/**
+	 * Tests that the limit is respected when executing the query directly against the storage
+	 * files.
+	 *
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 */
+	@Test(dependsOnMethods = { "finalizeWriteTest" })
+	public void executeQueryWithLimit() throws SerializationException, IOException {
+		StorageIndexQuery query = new StorageIndexQuery();
+		List<Class<?>> searchedClasses = new ArrayList<>();
+		searchedClasses.add(InvocationSequenceData.class);
+		query.setObjectClasses(searchedClasses);
+
+		List<InvocationSequenceData> result = storageQueryExecutor.executeQuery(storageData, query, null, 1);
+
+		assertThat(result, hasSize(Math.min(1, createdInvocations.size())));
+	}
+
+	/**
+	 * Tests that nothing is returned when no data complies the query.
+	 *
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 */
+	@Test(dependsOnMethods = { "finalizeWriteTest" })
+	public void executeQueryNoResults() throws SerializationException, IOException {
+		StorageIndexQuery query = new StorageIndexQuery();
+		List<Class<?>> searchedClasses = new ArrayList<>();
+		searchedClasses.add(SqlStatementData.class);
+		query.setObjectClasses(searchedClasses);
+
+		List<SqlStatementData> result = storageQueryExecutor.executeQuery(storageData, query, null, -1);
+
+		assertThat(result, is(empty()));
+	}
+
 	/**
 	 * Test adding/removing of labels to a {@link StorageData} and successful saving to the disk.
 	 *
@@ -0,0 +1,238 @@
+package rocks.inspectit.server.subscription;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.indexing.restriction.IIndexQueryRestriction;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
+import rocks.inspectit.shared.cs.indexing.query.provider.impl.IndexQueryProvider;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.IndexQueryRestrictionFactory;
+
+/**
+ * Tests the {@link LiveDataSubscriptionManager}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class LiveDataSubscriptionManagerTest extends TestBase {
+
+	private static final long PLATFORM_ID = 1L;
+
+	private static final long SENSOR_TYPE_ID = 2L;
+
+	private static final long METHOD_ID = 3L;
+
+	@InjectMocks
+	LiveDataSubscriptionManager manager;
+
+	@Mock
+	IndexQueryProvider indexQueryProvider;
+
+	@Mock
+	Logger log;
+
+	@BeforeMethod
+	public void init() {
+		when(indexQueryProvider.createNewIndexQuery()).thenAnswer(new Answer<IndexQuery>() {
+			@Override
+			public IndexQuery answer(InvocationOnMock invocation) throws Throwable {
+				return new IndexQuery();
+			}
+		});
+	}
+
+	private static TimerData timerData(long platformId, long methodId, double duration) {
+		TimerData timerData = new TimerData();
+		timerData.setPlatformIdent(platformId);
+		timerData.setSensorTypeIdent(SENSOR_TYPE_ID);
+		timerData.setMethodIdent(methodId);
+		timerData.setDuration(duration);
+		timerData.setCount(1L);
+		return timerData;
+	}
+
+	/**
+	 * Tests the {@link LiveDataSubscriptionManager#publish(DefaultData)} method.
+	 */
+	public static class Publish extends LiveDataSubscriptionManagerTest {
+
+		@Test
+		public void noSubscriptions() {
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 1d));
+
+			assertThat(manager.hasSubscriptions(), is(false));
+		}
+
+		@Test
+		public void matchingIdents() throws InterruptedException {
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, METHOD_ID, Collections.<IIndexQueryRestriction> emptyList(), 0);
+			TimerData matching = timerData(PLATFORM_ID, METHOD_ID, 1d);
+
+			manager.publish(matching);
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID + 1, 1d));
+			manager.publish(timerData(PLATFORM_ID + 1, METHOD_ID, 1d));
+
+			List<DefaultData> result = subscription.poll(0);
+			assertThat(result, contains((DefaultData) matching));
+		}
+
+		@Test
+		public void wildcardSubscriptions() throws InterruptedException {
+			LiveDataSubscription all = manager.subscribe(LiveDataType.TIMER, 0, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+			LiveDataSubscription platform = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 1d));
+			manager.publish(timerData(PLATFORM_ID + 1, METHOD_ID, 1d));
+
+			assertThat(all.poll(0), hasSize(2));
+			assertThat(platform.poll(0), hasSize(1));
+		}
+
+		@Test
+		public void otherDataClass() throws InterruptedException {
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, 0, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+			SqlStatementData sqlStatementData = new SqlStatementData();
+			sqlStatementData.setPlatformIdent(PLATFORM_ID);
+			sqlStatementData.setMethodIdent(METHOD_ID);
+
+			manager.publish(sqlStatementData);
+
+			assertThat(subscription.poll(0), is(empty()));
+		}
+
+		@Test
+		public void restrictions() throws InterruptedException {
+			List<IIndexQueryRestriction> restrictions = Collections.singletonList(IndexQueryRestrictionFactory.greaterEqual("duration", 10d));
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, restrictions, 0);
+			TimerData slow = timerData(PLATFORM_ID, METHOD_ID, 20d);
+
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 5d));
+			manager.publish(slow);
+
+			assertThat(subscription.poll(0), contains((DefaultData) slow));
+		}
+
+		@Test
+		public void aggregated() throws InterruptedException {
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 1);
+
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 5d));
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 15d));
+
+			List<DefaultData> result = subscription.poll(100);
+			assertThat(result, hasSize(1));
+			assertThat(((TimerData) result.get(0)).getCount(), is(2L));
+			assertThat(((TimerData) result.get(0)).getDuration(), is(20d));
+		}
+
+		@Test
+		public void invocationQueuedWithoutNestedSequences() throws InterruptedException {
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.INVOCATION, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+			InvocationSequenceData invocation = new InvocationSequenceData();
+			invocation.setId(10L);
+			invocation.setPlatformIdent(PLATFORM_ID);
+			invocation.setNestedSequences(Collections.singletonList(new InvocationSequenceData()));
+
+			manager.publish(invocation);
+
+			List<DefaultData> result = subscription.poll(0);
+			assertThat(result, hasSize(1));
+			assertThat(result.get(0), is(not(sameInstance((DefaultData) invocation))));
+			assertThat(((InvocationSequenceData) result.get(0)).getId(), is(10L));
+			assertThat(((InvocationSequenceData) result.get(0)).getNestedSequences(), is(empty()));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void notAggregatable() {
+			manager.subscribe(LiveDataType.INVOCATION, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 1000);
+		}
+	}
+
+	/**
+	 * Tests the
+	 * {@link LiveDataSubscriptionManager#subscribe(LiveDataType, long, long, long, java.util.Collection, long)}
+	 * method.
+	 */
+	public static class Subscribe extends LiveDataSubscriptionManagerTest {
+
+		@Test
+		public void maximumReached() {
+			for (int i = 0; i < LiveDataSubscriptionManager.MAX_SUBSCRIPTIONS; i++) {
+				manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+			}
+
+			try {
+				manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+				fail("Subscription over the maximum must not be registered.");
+			} catch (IllegalStateException e) {
+				// expected
+			}
+		}
+
+		@Test
+		public void registeredAgainAfterUnsubscribe() {
+			LiveDataSubscription first = null;
+			for (int i = 0; i < LiveDataSubscriptionManager.MAX_SUBSCRIPTIONS; i++) {
+				LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+				if (null == first) {
+					first = subscription;
+				}
+			}
+
+			manager.unsubscribe(first.getId());
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+
+			assertThat(manager.getSubscription(subscription.getId()), is(subscription));
+		}
+	}
+
+	/**
+	 * Tests the {@link LiveDataSubscriptionManager#unsubscribe(long)} method.
+	 */
+	public static class Unsubscribe extends LiveDataSubscriptionManagerTest {
+
+		@Test
+		public void unsubscribe() throws InterruptedException {
+			LiveDataSubscription subscription = manager.subscribe(LiveDataType.TIMER, PLATFORM_ID, 0, 0, Collections.<IIndexQueryRestriction> emptyList(), 0);
+
+			boolean removed = manager.unsubscribe(subscription.getId());
+			manager.publish(timerData(PLATFORM_ID, METHOD_ID, 1d));
+
+			assertThat(removed, is(true));
+			assertThat(manager.getSubscription(subscription.getId()), is(nullValue()));
+			assertThat(manager.hasSubscriptions(), is(false));
+			assertThat(subscription.poll(0), is(empty()));
+		}
+
+		@Test
+		public void unknown() {
+			assertThat(manager.unsubscribe(100L), is(false));
+		}
+	}
+
+}
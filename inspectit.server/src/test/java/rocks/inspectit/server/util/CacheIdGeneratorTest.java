@@ -0,0 +1,118 @@
+package rocks.inspectit.server.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link CacheIdGenerator}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class CacheIdGeneratorTest extends TestBase {
+
+	CacheIdGenerator generator;
+
+	@BeforeMethod
+	public void init() {
+		generator = new CacheIdGenerator();
+	}
+
+	private long assignId() {
+		TimerData timerData = new TimerData();
+		generator.assignObjectAnId(timerData);
+		return timerData.getId();
+	}
+
+	/**
+	 * Tests the {@link CacheIdGenerator#getProcessedUpToId()} method.
+	 */
+	public static class GetProcessedUpToId extends CacheIdGeneratorTest {
+
+		@Test
+		public void nothingProcessed() {
+			long id = assignId();
+
+			assertThat(generator.getProcessedUpToId(), is(id));
+		}
+
+		@Test
+		public void batchInProcessing() {
+			long before = assignId();
+			long token = generator.startProcessing();
+			assignId();
+
+			assertThat(generator.getProcessedUpToId(), is(before));
+
+			generator.endProcessing(token);
+
+			assertThat(generator.getProcessedUpToId(), is(generator.getLastAssignedId()));
+		}
+
+		@Test
+		public void laterBatchCompletedFirst() {
+			long firstToken = generator.startProcessing();
+			long firstId = assignId();
+			long secondToken = generator.startProcessing();
+			assignId();
+
+			generator.endProcessing(secondToken);
+
+			assertThat(generator.getProcessedUpToId(), is(firstId - 1));
+
+			generator.endProcessing(firstToken);
+
+			assertThat(generator.getProcessedUpToId(), is(generator.getLastAssignedId()));
+		}
+
+		@Test
+		public void batchesStartedTogether() {
+			long before = generator.getLastAssignedId();
+			long firstToken = generator.startProcessing();
+			long secondToken = generator.startProcessing();
+			assignId();
+			assignId();
+
+			generator.endProcessing(firstToken);
+
+			assertThat(generator.getProcessedUpToId(), is(before));
+
+			generator.endProcessing(secondToken);
+
+			assertThat(generator.getProcessedUpToId(), is(generator.getLastAssignedId()));
+		}
+	}
+
+	/**
+	 * Tests the {@link CacheIdGenerator#skipIdsUpTo(long)} method.
+	 */
+	public static class SkipIdsUpTo extends CacheIdGeneratorTest {
+
+		@Test
+		public void higherId() {
+			long skipped = generator.getLastAssignedId() + 10;
+
+			generator.skipIdsUpTo(skipped);
+
+			assertThat(assignId(), is(skipped + 1));
+			assertThat(generator.getClearedUpToId(), is(skipped));
+		}
+
+		@Test
+		public void lowerId() {
+			long id = assignId();
+
+			generator.skipIdsUpTo(id - 10);
+
+			assertThat(assignId(), is(id + 1));
+		}
+	}
+
+}
@@ -4,15 +4,22 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.server.util.PlatformIdentCache.Changes;
+import rocks.inspectit.server.util.PlatformIdentCache.Snapshot;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
@@ -163,4 +170,93 @@ public class PlatformIdentCacheTest extends TestBase {
 		}
 	}
 
+	public class RecordChanges extends PlatformIdentCacheTest {
+
+		@Test
+		public void snapshotKeptButNotClean() {
+			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
+			platformIdentCache.markClean(platformIdent);
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+
+			platformIdentCache.recordChanges(PLATFORM_ID, Collections.singletonList(10L), Collections.<Long> emptyList());
+
+			assertThat(platformIdentCache.getCleanPlatformIdents(), is(empty()));
+			Snapshot snapshot = platformIdentCache.getSnapshot(PLATFORM_ID);
+			assertThat(snapshot, is(notNullValue()));
+			assertThat(snapshot.getPlatformIdent(), is(platformIdent));
+			assertThat(snapshot.getVersion(), is(version));
+			assertThat(platformIdentCache.getVersion(PLATFORM_ID), is(greaterThan(version)));
+		}
+
+		@Test
+		public void staleSnapshotIgnored() {
+			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+			platformIdentCache.markDirty(PLATFORM_ID);
+
+			platformIdentCache.markClean(platformIdent, version);
+
+			assertThat(platformIdentCache.getSnapshot(PLATFORM_ID), is(nullValue()));
+			assertThat(platformIdentCache.getCleanPlatformIdents(), is(empty()));
+		}
+	}
+
+	public class GetChangesSince extends PlatformIdentCacheTest {
+
+		@Test
+		public void unknownPlatform() {
+			assertThat(platformIdentCache.getChangesSince(PLATFORM_ID, 0L), is(nullValue()));
+		}
+
+		@Test
+		public void noChanges() {
+			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
+			platformIdentCache.markClean(platformIdent);
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+
+			Changes changes = platformIdentCache.getChangesSince(PLATFORM_ID, version);
+
+			assertThat(changes.isEmpty(), is(true));
+			assertThat(changes.getVersion(), is(version));
+		}
+
+		@Test
+		public void changedIds() {
+			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
+			platformIdentCache.markClean(platformIdent);
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+			platformIdentCache.recordChanges(PLATFORM_ID, Collections.singletonList(10L), Collections.<Long> emptyList());
+			long middleVersion = platformIdentCache.getVersion(PLATFORM_ID);
+			platformIdentCache.recordChanges(PLATFORM_ID, Collections.<Long> emptyList(), Collections.singletonList(20L));
+
+			Changes all = platformIdentCache.getChangesSince(PLATFORM_ID, version);
+			Changes last = platformIdentCache.getChangesSince(PLATFORM_ID, middleVersion);
+
+			assertThat(all.getVersion(), is(platformIdentCache.getVersion(PLATFORM_ID)));
+			assertThat(all.getMethodIdentIds(), contains(10L));
+			assertThat(all.getJmxDefinitionDataIdentIds(), contains(20L));
+			assertThat(last.getMethodIdentIds(), is(empty()));
+			assertThat(last.getJmxDefinitionDataIdentIds(), contains(20L));
+		}
+
+		@Test
+		public void notAvailableAfterDirty() {
+			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
+			platformIdentCache.markClean(platformIdent);
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+			platformIdentCache.recordChanges(PLATFORM_ID, Collections.singletonList(10L), Collections.<Long> emptyList());
+
+			platformIdentCache.markDirty(PLATFORM_ID);
+
+			assertThat(platformIdentCache.getChangesSince(PLATFORM_ID, version), is(nullValue()));
+		}
+
+		@Test
+		public void futureVersion() {
+			long version = platformIdentCache.getVersion(PLATFORM_ID);
+
+			assertThat(platformIdentCache.getChangesSince(PLATFORM_ID, version + 1), is(nullValue()));
+		}
+	}
+
 }
@@ -0,0 +1,104 @@
+package rocks.inspectit.server.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collections;
+
+import org.mockito.InjectMocks;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.event.AgentDeletedEvent;
+import rocks.inspectit.server.util.RegistrationIdentityMap.Identities;
+import rocks.inspectit.server.util.RegistrationIdentityMap.PlatformIdentities;
+import rocks.inspectit.shared.all.cmr.model.MethodIdent;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link RegistrationIdentityMap}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class RegistrationIdentityMapTest extends TestBase {
+
+	private static final long PLATFORM_ID = 1L;
+
+	@InjectMocks
+	RegistrationIdentityMap registrationIdentityMap;
+
+	/**
+	 * Tests the {@link RegistrationIdentityMap#getPlatformIdentities(long)} method.
+	 */
+	public static class GetPlatformIdentities extends RegistrationIdentityMapTest {
+
+		@Test
+		public void sameInstance() {
+			PlatformIdentities first = registrationIdentityMap.getPlatformIdentities(PLATFORM_ID);
+			PlatformIdentities second = registrationIdentityMap.getPlatformIdentities(PLATFORM_ID);
+
+			assertThat(first, is(sameInstance(second)));
+			assertThat(first.getMethodIdents().isLoaded(), is(false));
+		}
+
+		@Test
+		public void agentDeleted() {
+			PlatformIdentities first = registrationIdentityMap.getPlatformIdentities(PLATFORM_ID);
+			first.getMethodIdents().put("key", 10L);
+
+			registrationIdentityMap.onApplicationEvent(new AgentDeletedEvent(this, PLATFORM_ID));
+			PlatformIdentities second = registrationIdentityMap.getPlatformIdentities(PLATFORM_ID);
+
+			assertThat(second, is(not(sameInstance(first))));
+			assertThat(second.getMethodIdents().get("key"), is(nullValue()));
+		}
+	}
+
+	/**
+	 * Tests the {@link Identities} class.
+	 */
+	public static class IdentitiesTest extends RegistrationIdentityMapTest {
+
+		@Test
+		public void removeOnlyMatchingId() {
+			Identities identities = new Identities();
+			identities.put("key", 10L);
+
+			identities.remove("key", 11L);
+
+			assertThat(identities.get("key"), is(10L));
+
+			identities.remove("key", 10L);
+
+			assertThat(identities.get("key"), is(nullValue()));
+		}
+
+		@Test
+		public void methodIdentKey() {
+			MethodIdent methodIdent = new MethodIdent();
+			methodIdent.setPackageName("package");
+			methodIdent.setClassName("class");
+			methodIdent.setMethodName("method");
+			methodIdent.setParameters(Collections.singletonList("parameter"));
+			methodIdent.setReturnType("void");
+			methodIdent.setModifiers(1);
+			MethodIdent other = new MethodIdent();
+			other.setPackageName("package");
+			other.setClassName("class");
+			other.setMethodName("method");
+			other.setParameters(Collections.singletonList("parameter"));
+			other.setReturnType("void");
+			other.setModifiers(2);
+
+			assertThat(RegistrationIdentityMap.methodIdentKey(methodIdent), is(RegistrationIdentityMap.methodIdentKey(other)));
+
+			other.setParameters(Collections.<String> emptyList());
+
+			assertThat(RegistrationIdentityMap.methodIdentKey(methodIdent), is(not(RegistrationIdentityMap.methodIdentKey(other))));
+		}
+	}
+}
@@ -26,6 +26,8 @@ import javax.validation.constraints.NotNull;
 @Entity
 @NamedQueries({
 		@NamedQuery(name = JmxDefinitionDataIdent.FIND_ID_BY_PLATFORM_AND_EXAMPLE, query = "SELECT j.id FROM JmxDefinitionDataIdent j JOIN j.platformIdent p WHERE p.id=:platformIdentId AND j.mBeanObjectName=:mBeanObjectName AND j.mBeanAttributeName=:mBeanAttributeName"),
+		@NamedQuery(name = JmxDefinitionDataIdent.FIND_BY_IDS, query = "SELECT j FROM JmxDefinitionDataIdent j WHERE j.id IN :ids"),
+		@NamedQuery(name = JmxDefinitionDataIdent.FIND_REGISTRATION_DATA_BY_PLATFORM, query = "SELECT j.id, j.mBeanObjectName, j.mBeanAttributeName FROM JmxDefinitionDataIdent j JOIN j.platformIdent p WHERE p.id=:platformIdentId"),
 		@NamedQuery(name = JmxDefinitionDataIdent.UPDATE_TIMESTAMP, query = "UPDATE JmxDefinitionDataIdent SET timestamp=CURRENT_TIMESTAMP WHERE id IN :ids") })
 public class JmxDefinitionDataIdent implements Serializable {
 
@@ -46,6 +48,26 @@ public class JmxDefinitionDataIdent implements Serializable {
 	 */
 	public static final String FIND_ID_BY_PLATFORM_AND_EXAMPLE = "JmxDefinitionDataIdent.findIdByPlatformAndExample";
 
+	/**
+	 * Constant for findByIds query.
+	 * <p>
+	 * Parameters in the query:
+	 * <ul>
+	 * <li>ids
+	 * </ul>
+	 */
+	public static final String FIND_BY_IDS = "JmxDefinitionDataIdent.findByIds";
+
+	/**
+	 * Constant for findRegistrationDataByPlatform query.
+	 * <p>
+	 * Parameters in the query:
+	 * <ul>
+	 * <li>platformIdentId
+	 * </ul>
+	 */
+	public static final String FIND_REGISTRATION_DATA_BY_PLATFORM = "JmxDefinitionDataIdent.findRegistrationDataByPlatform";
+
 	/**
 	 * Constant for updateTimestamp query.
 	 * <p>
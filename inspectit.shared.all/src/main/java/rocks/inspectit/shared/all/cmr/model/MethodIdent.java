@@ -37,6 +37,8 @@ import rocks.inspectit.shared.all.jpa.ListStringConverter;
  */
 @Entity
 @NamedQueries({ @NamedQuery(name = MethodIdent.FIND_ALL, query = "SELECT m FROM MethodIdent m"),
+	@NamedQuery(name = MethodIdent.FIND_INITIALIZED_BY_IDS, query = "SELECT DISTINCT m FROM MethodIdent m LEFT JOIN FETCH m.methodIdentToSensorTypes WHERE m.id IN :ids"),
+	@NamedQuery(name = MethodIdent.FIND_REGISTRATION_DATA_BY_PLATFORM, query = "SELECT m.id, m.packageName, m.className, m.methodName, m.parameters, m.returnType FROM MethodIdent m WHERE m.platformIdent.id=:platformIdent"),
 	@NamedQuery(name = MethodIdent.FIND_ID_BY_PLATFORM_AND_EXAMPLE, query = "SELECT m.id, m.parameters FROM MethodIdent m WHERE m.platformIdent.id=:platformIdent AND NULLIF(m.packageName,'null')=:packageName AND m.className=:className AND m.methodName=:methodName AND m.returnType=:returnType "),
 	@NamedQuery(name = MethodIdent.UPDATE_TIMESTAMP, query = "UPDATE MethodIdent SET timestamp=CURRENT_TIMESTAMP WHERE id IN :ids"),
 	@NamedQuery(name = MethodIdent.UPDATE_TIMESTAMP_BY_CLASS, query = "UPDATE MethodIdent SET timestamp=CURRENT_TIMESTAMP WHERE platformIdent.id=:platformIdent AND NULLIF(packageName,'null')=:packageName AND className=:className") })
@@ -65,6 +67,27 @@ public class MethodIdent implements Serializable {
 	 */
 	public static final String FIND_ID_BY_PLATFORM_AND_EXAMPLE = "MethodIdent.findIdByPlatformAndExample";
 
+	/**
+	 * Constant for findInitializedByIds query. Fetches the sensor type assignments of the method
+	 * idents.
+	 * <p>
+	 * Parameters in the query:
+	 * <ul>
+	 * <li>ids
+	 * </ul>
+	 */
+	public static final String FIND_INITIALIZED_BY_IDS = "MethodIdent.findInitializedByIds";
+
+	/**
+	 * Constant for findRegistrationDataByPlatform query.
+	 * <p>
+	 * Parameters in the query:
+	 * <ul>
+	 * <li>platformIdent
+	 * </ul>
+	 */
+	public static final String FIND_REGISTRATION_DATA_BY_PLATFORM = "MethodIdent.findRegistrationDataByPlatform";
+
 	/**
 	 * Constant for updateTimestamp query.
 	 * <p>
@@ -28,6 +28,7 @@ import org.codehaus.jackson.annotate.JsonBackReference;
 @Table(indexes = { @Index(name = "method_ident_to_sensor_type_idx", columnList = "methodIdent"), @Index(name = "method_ident_to_sensor_type_idx", columnList = "methodSensorTypeIdent") })
 @NamedQueries({
 	@NamedQuery(name = MethodIdentToSensorType.FIND_ID_FOR_METHOD_ID_AND_METOHD_SENSOR_TYPE_ID, query = "SELECT m.id from MethodIdentToSensorType m JOIN m.methodIdent mi JOIN m.methodSensorTypeIdent ms WHERE mi.id=:methodIdentId AND ms.id=:methodSensorTypeIdentId"),
+	@NamedQuery(name = MethodIdentToSensorType.FIND_IDS_BY_PLATFORM, query = "SELECT m.id, mi.id, ms.id from MethodIdentToSensorType m JOIN m.methodIdent mi JOIN m.methodSensorTypeIdent ms WHERE mi.platformIdent.id=:platformIdent"),
 	@NamedQuery(name = MethodIdentToSensorType.UPDATE_TIMESTAMP, query = "UPDATE MethodIdentToSensorType SET timestamp=CURRENT_TIMESTAMP WHERE id IN :ids") })
 @Entity
 public class MethodIdentToSensorType implements Serializable {
@@ -48,6 +49,16 @@ public class MethodIdentToSensorType implements Serializable {
 	 */
 	public static final String FIND_ID_FOR_METHOD_ID_AND_METOHD_SENSOR_TYPE_ID = "MethodIdentToSensorType.findIdForMethodIdAndMethodSensorTypeId";
 
+	/**
+	 * Constant for findIdsByPlatform query.
+	 * <p>
+	 * Parameters in the query:
+	 * <ul>
+	 * <li>platformIdent
+	 * </ul>
+	 */
+	public static final String FIND_IDS_BY_PLATFORM = "MethodIdentToSensorType.findIdsByPlatform";
+
 	/**
 	 * Constant for updateTimestamp query.
 	 * <p>
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.communication.message.IAgentMessage;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.instrumentation.classcache.Type;
@@ -74,6 +75,18 @@ public interface IAgentService {
 	 */
 	void instrumentationApplied(long platformId, Map<Long, long[]> methodToSensorMap);
 
+	/**
+	 * Informs the CMR about the overhead the agent measured for the instrumented methods. The
+	 * reported data also states if the agent removed the instrumentation of a method because the
+	 * overhead exceeded the configured budget.
+	 *
+	 * @param platformId
+	 *            Id of the agent.
+	 * @param methodOverheadData
+	 *            Overhead statistics of the instrumented methods.
+	 */
+	void methodOverheadReported(long platformId, Collection<MethodOverheadData> methodOverheadData);
+
 	/**
 	 * Analyzes the given {@link JmxAttributeDescriptor} and decides which ones will be monitored,
 	 * based on the current configuration.
@@ -117,7 +117,8 @@ public class AggregatedExceptionSensorData extends ExceptionSensorData implement
 	 */
 	public void aggregateExceptionData(ExceptionSensorData exceptionData) {
 		if (exceptionData.getExceptionEvent() == ExceptionEvent.CREATED) {
-			created++;
+			// include the occurrences suppressed by the agent rate limiting
+			created += 1 + exceptionData.getSuppressedCount();
 		} else if (exceptionData.getExceptionEvent() == ExceptionEvent.PASSED) {
 			passed++;
 		} else if (exceptionData.getExceptionEvent() == ExceptionEvent.HANDLED) {
@@ -1,6 +1,7 @@
 package rocks.inspectit.shared.all.communication.data;
 
 import java.sql.Timestamp;
+import java.util.List;
 
 import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.ExceptionEvent;
@@ -55,6 +56,26 @@ public class ExceptionSensorData extends InvocationAwareData {
 	 */
 	private long throwableIdentityHashCode;
 
+	/**
+	 * Fingerprint of the stack trace. If set, the agent sends the {@link #stackTrace} only with the
+	 * first occurrence of the fingerprint and the stack trace is resolved on the CMR. Zero means
+	 * that the stack trace is not fingerprinted.
+	 */
+	private long stackTraceFingerprint;
+
+	/**
+	 * Amount of occurrences of the same stack trace suppressed by the agent rate limiting before
+	 * this one was captured.
+	 */
+	private int suppressedCount;
+
+	/**
+	 * Messages of the causes in the order of the cause chain, <code>null</code> elements for the
+	 * causes without a message. Only set if the stack trace is fingerprinted, as the shared stack
+	 * trace text describes the causes by the type only.
+	 */
+	private List<String> causeMessages;
+
 	/**
 	 * Default no-args constructor.
 	 */
@@ -210,6 +231,63 @@ public class ExceptionSensorData extends InvocationAwareData {
 		this.throwableIdentityHashCode = throwableIdentityHashCode;
 	}
 
+	/**
+	 * Gets {@link #stackTraceFingerprint}.
+	 *
+	 * @return {@link #stackTraceFingerprint}
+	 */
+	public long getStackTraceFingerprint() {
+		return stackTraceFingerprint;
+	}
+
+	/**
+	 * Sets {@link #stackTraceFingerprint}.
+	 *
+	 * @param stackTraceFingerprint
+	 *            New value for {@link #stackTraceFingerprint}
+	 */
+	public void setStackTraceFingerprint(long stackTraceFingerprint) {
+		this.stackTraceFingerprint = stackTraceFingerprint;
+	}
+
+	/**
+	 * Gets {@link #suppressedCount}.
+	 *
+	 * @return {@link #suppressedCount}
+	 */
+	public int getSuppressedCount() {
+		return suppressedCount;
+	}
+
+	/**
+	 * Sets {@link #suppressedCount}.
+	 *
+	 * @param suppressedCount
+	 *            New value for {@link #suppressedCount}
+	 */
+	public void setSuppressedCount(int suppressedCount) {
+		this.suppressedCount = suppressedCount;
+	}
+
+	/**
+	 * Gets {@link #causeMessages}.
+	 *
+	 * @return {@link #causeMessages}
+	 */
+	public List<String> getCauseMessages() {
+		return causeMessages;
+	}
+
+	/**
+	 * Sets {@link #causeMessages}.
+	 *
+	 * @param causeMessages
+	 *            New value for {@link #causeMessages}
+	 */
+	public void setCauseMessages(List<String> causeMessages) {
+		this.causeMessages = causeMessages;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -224,13 +302,19 @@ public class ExceptionSensorData extends InvocationAwareData {
 	@Override
 	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
 		long size = super.getObjectSize(objectSizes, doAlign);
-		size += objectSizes.getPrimitiveTypesSize(6, 0, 0, 0, 1, 0);
+		size += objectSizes.getPrimitiveTypesSize(7, 0, 1, 0, 2, 0);
 		size += objectSizes.getSizeOf(errorMessage);
 		size += objectSizes.getSizeOf(cause);
 		size += objectSizes.getSizeOf(stackTrace);
 		size += objectSizes.getSizeOf(throwableType);
 		size += objectSizes.getSizeOf(exceptionEvent);
 		size += objectSizes.getSizeOf(child);
+		if (null != causeMessages) {
+			size += objectSizes.getSizeOf(causeMessages);
+			for (String causeMessage : causeMessages) {
+				size += objectSizes.getSizeOf(causeMessage);
+			}
+		}
 		if (doAlign) {
 			return objectSizes.alignTo8Bytes(size);
 		} else {
@@ -246,9 +330,12 @@ public class ExceptionSensorData extends InvocationAwareData {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = (prime * result) + ((cause == null) ? 0 : cause.hashCode());
+		result = (prime * result) + ((causeMessages == null) ? 0 : causeMessages.hashCode());
 		result = (prime * result) + ((child == null) ? 0 : child.hashCode());
 		result = (prime * result) + ((exceptionEvent == null) ? 0 : exceptionEvent.hashCode());
 		result = (prime * result) + ((stackTrace == null) ? 0 : stackTrace.hashCode());
+		result = (prime * result) + (int) (stackTraceFingerprint ^ (stackTraceFingerprint >>> 32));
+		result = (prime * result) + suppressedCount;
 		result = (prime * result) + (int) (throwableIdentityHashCode ^ (throwableIdentityHashCode >>> 32));
 		result = (prime * result) + ((throwableType == null) ? 0 : throwableType.hashCode());
 		return result;
@@ -276,6 +363,13 @@ public class ExceptionSensorData extends InvocationAwareData {
 		} else if (!cause.equals(other.cause)) {
 			return false;
 		}
+		if (causeMessages == null) {
+			if (other.causeMessages != null) {
+				return false;
+			}
+		} else if (!causeMessages.equals(other.causeMessages)) {
+			return false;
+		}
 		if (child == null) {
 			if (other.child != null) {
 				return false;
@@ -297,6 +391,12 @@ public class ExceptionSensorData extends InvocationAwareData {
 		} else if (!stackTrace.equals(other.stackTrace)) {
 			return false;
 		}
+		if (stackTraceFingerprint != other.stackTraceFingerprint) {
+			return false;
+		}
+		if (suppressedCount != other.suppressedCount) {
+			return false;
+		}
 		if (throwableIdentityHashCode != other.throwableIdentityHashCode) {
 			return false;
 		}
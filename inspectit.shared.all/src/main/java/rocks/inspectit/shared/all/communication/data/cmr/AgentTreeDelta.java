@@ -0,0 +1,261 @@
+package rocks.inspectit.shared.all.communication.data.cmr;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
+import rocks.inspectit.shared.all.cmr.model.MethodIdent;
+import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
+
+/**
+ * Changes of the agent tree (the {@link PlatformIdent} with its sensor types, method idents and
+ * JMX definitions) since a given version of the tree. The delta is either complete, holding the
+ * complete tree, or holds only the method idents and JMX definitions that were added or changed
+ * since the given version. Idents are never removed from a tree, the complete agent is deleted
+ * instead.
+ * <p>
+ * Versions are only comparable for the same agent on the same CMR run, a client should pass the
+ * {@link #getVersion()} of the last delta it applied when asking for the next one.
+ *
+ * @author agent
+ *
+ */
+public class AgentTreeDelta implements Serializable {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = 2976253174561837512L;
+
+	/**
+	 * Id of the agent.
+	 */
+	private long platformId;
+
+	/**
+	 * Version of the tree after applying this delta.
+	 */
+	private long version;
+
+	/**
+	 * Complete tree, only set if the delta is complete.
+	 */
+	private PlatformIdent platformIdent;
+
+	/**
+	 * Added or changed method idents, with the initialized sensor type assignments.
+	 */
+	private List<MethodIdent> methodIdents = Collections.emptyList();
+
+	/**
+	 * Added or changed JMX definitions.
+	 */
+	private List<JmxDefinitionDataIdent> jmxDefinitionDataIdents = Collections.emptyList();
+
+	/**
+	 * No-arg constructor.
+	 */
+	public AgentTreeDelta() {
+	}
+
+	/**
+	 * Creates the complete delta.
+	 *
+	 * @param platformId
+	 *            Id of the agent.
+	 * @param version
+	 *            Version of the tree.
+	 * @param platformIdent
+	 *            Complete tree.
+	 */
+	public AgentTreeDelta(long platformId, long version, PlatformIdent platformIdent) {
+		this.platformId = platformId;
+		this.version = version;
+		this.platformIdent = platformIdent;
+	}
+
+	/**
+	 * Creates the delta holding only the changes.
+	 *
+	 * @param platformId
+	 *            Id of the agent.
+	 * @param version
+	 *            Version of the tree after applying the changes.
+	 * @param methodIdents
+	 *            Added or changed method idents.
+	 * @param jmxDefinitionDataIdents
+	 *            Added or changed JMX definitions.
+	 */
+	public AgentTreeDelta(long platformId, long version, List<MethodIdent> methodIdents, List<JmxDefinitionDataIdent> jmxDefinitionDataIdents) {
+		this.platformId = platformId;
+		this.version = version;
+		this.methodIdents = methodIdents;
+		this.jmxDefinitionDataIdents = jmxDefinitionDataIdents;
+	}
+
+	/**
+	 * Returns if this delta holds the complete tree.
+	 *
+	 * @return Returns if this delta holds the complete tree.
+	 */
+	public boolean isComplete() {
+		return null != platformIdent;
+	}
+
+	/**
+	 * Returns if this delta holds no changes at all.
+	 *
+	 * @return Returns if this delta holds no changes at all.
+	 */
+	public boolean isEmpty() {
+		return !isComplete() && methodIdents.isEmpty() && jmxDefinitionDataIdents.isEmpty();
+	}
+
+	/**
+	 * Applies the delta to the given tree. The given tree is not changed, if there are any changes
+	 * a new {@link PlatformIdent} holding the merged idents is returned. If the delta is complete,
+	 * the complete tree of the delta is returned.
+	 *
+	 * @param tree
+	 *            Tree of the version the delta was created for. Can be <code>null</code> only if
+	 *            the delta is complete.
+	 * @return Tree of the {@link #version}.
+	 */
+	public PlatformIdent applyTo(PlatformIdent tree) {
+		if (isComplete()) {
+			return platformIdent;
+		}
+		if (null == tree) {
+			throw new IllegalArgumentException("Delta containing only the changes can not be applied to an unknown agent tree.");
+		}
+		if (isEmpty()) {
+			return tree;
+		}
+
+		PlatformIdent merged = new PlatformIdent();
+		merged.setId(tree.getId());
+		merged.setTimeStamp(tree.getTimeStamp());
+		merged.setDefinedIPs(tree.getDefinedIPs());
+		merged.setAgentName(tree.getAgentName());
+		merged.setVersion(tree.getVersion());
+		merged.setSensorTypeIdents(tree.getSensorTypeIdents());
+		merged.setMethodIdents(mergeMethodIdents(tree.getMethodIdents()));
+		merged.setJmxDefinitionDataIdents(mergeJmxDefinitionDataIdents(tree.getJmxDefinitionDataIdents()));
+		return merged;
+	}
+
+	/**
+	 * Merges the changed method idents with the existing ones. The existing idents are replaced by
+	 * id, as the timestamps are part of the equality.
+	 *
+	 * @param existing
+	 *            Existing method idents.
+	 * @return New set of method idents.
+	 */
+	private Set<MethodIdent> mergeMethodIdents(Collection<MethodIdent> existing) {
+		if (methodIdents.isEmpty()) {
+			return new HashSet<MethodIdent>(existing);
+		}
+
+		Set<Long> changedIds = new HashSet<Long>(methodIdents.size());
+		for (MethodIdent methodIdent : methodIdents) {
+			changedIds.add(methodIdent.getId());
+		}
+
+		Set<MethodIdent> result = new HashSet<MethodIdent>(existing.size() + methodIdents.size());
+		for (MethodIdent methodIdent : existing) {
+			if (!changedIds.contains(methodIdent.getId())) {
+				result.add(methodIdent);
+			}
+		}
+		result.addAll(methodIdents);
+		return result;
+	}
+
+	/**
+	 * Merges the changed JMX definitions with the existing ones. The existing ones are replaced by
+	 * id.
+	 *
+	 * @param existing
+	 *            Existing JMX definitions.
+	 * @return New set of JMX definitions.
+	 */
+	private Set<JmxDefinitionDataIdent> mergeJmxDefinitionDataIdents(Collection<JmxDefinitionDataIdent> existing) {
+		if (jmxDefinitionDataIdents.isEmpty()) {
+			return new HashSet<JmxDefinitionDataIdent>(existing);
+		}
+
+		Set<Long> changedIds = new HashSet<Long>(jmxDefinitionDataIdents.size());
+		for (JmxDefinitionDataIdent jmxDefinitionDataIdent : jmxDefinitionDataIdents) {
+			changedIds.add(jmxDefinitionDataIdent.getId());
+		}
+
+		Set<JmxDefinitionDataIdent> result = new HashSet<JmxDefinitionDataIdent>(existing.size() + jmxDefinitionDataIdents.size());
+		for (JmxDefinitionDataIdent jmxDefinitionDataIdent : existing) {
+			if (!changedIds.contains(jmxDefinitionDataIdent.getId())) {
+				result.add(jmxDefinitionDataIdent);
+			}
+		}
+		result.addAll(jmxDefinitionDataIdents);
+		return result;
+	}
+
+	/**
+	 * Gets {@link #platformId}.
+	 *
+	 * @return {@link #platformId}
+	 */
+	public long getPlatformId() {
+		return this.platformId;
+	}
+
+	/**
+	 * Gets {@link #version}.
+	 *
+	 * @return {@link #version}
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Gets {@link #platformIdent}.
+	 *
+	 * @return {@link #platformIdent}
+	 */
+	public PlatformIdent getPlatformIdent() {
+		return this.platformIdent;
+	}
+
+	/**
+	 * Gets {@link #methodIdents}.
+	 *
+	 * @return {@link #methodIdents}
+	 */
+	public List<MethodIdent> getMethodIdents() {
+		return this.methodIdents;
+	}
+
+	/**
+	 * Gets {@link #jmxDefinitionDataIdents}.
+	 *
+	 * @return {@link #jmxDefinitionDataIdents}
+	 */
+	public List<JmxDefinitionDataIdent> getJmxDefinitionDataIdents() {
+		return this.jmxDefinitionDataIdents;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "AgentTreeDelta [platformId=" + platformId + ", version=" + version + ", complete=" + isComplete() + ", methodIdents=" + methodIdents.size() + ", jmxDefinitionDataIdents="
+				+ jmxDefinitionDataIdents.size() + "]";
+	}
+
+}
@@ -76,6 +76,22 @@ public class CmrStatusData implements Serializable {
 	 */
 	private Long databaseSize;
 
+	/**
+	 * Amount of compressed frames exchanged with the agents.
+	 */
+	private long networkCompressedFrames;
+
+	/**
+	 * Ratio between the compressed and uncompressed size of the frames exchanged with the agents.
+	 */
+	private double networkCompressionRatio;
+
+	/**
+	 * Time in milliseconds spent in compressing and decompressing the frames exchanged with the
+	 * agents.
+	 */
+	private long networkCompressionTime;
+
 	/**
 	 * The connection status of external services.
 	 */
@@ -299,6 +315,63 @@ public class CmrStatusData implements Serializable {
 		this.databaseSize = databaseSize;
 	}
 
+	/**
+	 * Gets {@link #networkCompressedFrames}.
+	 *
+	 * @return {@link #networkCompressedFrames}
+	 */
+	public long getNetworkCompressedFrames() {
+		return this.networkCompressedFrames;
+	}
+
+	/**
+	 * Sets {@link #networkCompressedFrames}.
+	 *
+	 * @param networkCompressedFrames
+	 *            New value for {@link #networkCompressedFrames}
+	 */
+	public void setNetworkCompressedFrames(long networkCompressedFrames) {
+		this.networkCompressedFrames = networkCompressedFrames;
+	}
+
+	/**
+	 * Gets {@link #networkCompressionRatio}.
+	 *
+	 * @return {@link #networkCompressionRatio}
+	 */
+	public double getNetworkCompressionRatio() {
+		return this.networkCompressionRatio;
+	}
+
+	/**
+	 * Sets {@link #networkCompressionRatio}.
+	 *
+	 * @param networkCompressionRatio
+	 *            New value for {@link #networkCompressionRatio}
+	 */
+	public void setNetworkCompressionRatio(double networkCompressionRatio) {
+		this.networkCompressionRatio = networkCompressionRatio;
+	}
+
+	/**
+	 * Gets {@link #networkCompressionTime}.
+	 *
+	 * @return {@link #networkCompressionTime}
+	 */
+	public long getNetworkCompressionTime() {
+		return this.networkCompressionTime;
+	}
+
+	/**
+	 * Sets {@link #networkCompressionTime}.
+	 *
+	 * @param networkCompressionTime
+	 *            New value for {@link #networkCompressionTime}
+	 */
+	public void setNetworkCompressionTime(long networkCompressionTime) {
+		this.networkCompressionTime = networkCompressionTime;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -313,6 +386,11 @@ public class CmrStatusData implements Serializable {
 		result = (prime * result) + ((databaseSize == null) ? 0 : databaseSize.hashCode());
 		result = (prime * result) + ((dateStarted == null) ? 0 : dateStarted.hashCode());
 		result = (prime * result) + (int) (maxBufferSize ^ (maxBufferSize >>> 32));
+		result = (prime * result) + (int) (networkCompressedFrames ^ (networkCompressedFrames >>> 32));
+		long temp;
+		temp = Double.doubleToLongBits(networkCompressionRatio);
+		result = (prime * result) + (int) (temp ^ (temp >>> 32));
+		result = (prime * result) + (int) (networkCompressionTime ^ (networkCompressionTime >>> 32));
 		result = (prime * result) + (int) (storageDataSpaceLeft ^ (storageDataSpaceLeft >>> 32));
 		result = (prime * result) + (int) (storageMaxDataSpace ^ (storageMaxDataSpace >>> 32));
 		result = (prime * result) + (int) (upTime ^ (upTime >>> 32));
@@ -372,6 +450,15 @@ public class CmrStatusData implements Serializable {
 		if (maxBufferSize != other.maxBufferSize) {
 			return false;
 		}
+		if (networkCompressedFrames != other.networkCompressedFrames) {
+			return false;
+		}
+		if (Double.doubleToLongBits(networkCompressionRatio) != Double.doubleToLongBits(other.networkCompressionRatio)) {
+			return false;
+		}
+		if (networkCompressionTime != other.networkCompressionTime) {
+			return false;
+		}
 		if (storageDataSpaceLeft != other.storageDataSpaceLeft) {
 			return false;
 		}
@@ -0,0 +1,105 @@
+package rocks.inspectit.shared.all.communication.data.cmr;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Result of a query that returns only the data added to the buffer since the last query of the
+ * client. The client remembers the {@link #getLastId()} of the result and passes it with the next
+ * query, so that only the newer elements (or the aggregation of the newer elements) are
+ * transferred.
+ * <p>
+ * If the result is complete, the data is the complete result of the query and must replace the
+ * data the client holds. This is the case for the first query, but also when the data the client
+ * holds can not be updated anymore, for example because the buffer was cleared in between.
+ *
+ * @param <E>
+ *            Type of the data.
+ *
+ * @author agent
+ *
+ */
+public class IncrementalQueryResult<E extends DefaultData> implements Serializable {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = -3310829120394581027L;
+
+	/**
+	 * Result data.
+	 */
+	private List<E> data = Collections.emptyList();
+
+	/**
+	 * Highest buffer ID of the elements included in the result, or the ID passed by the client if
+	 * there are no new elements.
+	 */
+	private long lastId;
+
+	/**
+	 * If the data is the complete result and not only the newer data.
+	 */
+	private boolean complete;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public IncrementalQueryResult() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param data
+	 *            Result data.
+	 * @param lastId
+	 *            Highest buffer ID of the elements included in the result.
+	 * @param complete
+	 *            If the data is the complete result and not only the newer data.
+	 */
+	public IncrementalQueryResult(List<E> data, long lastId, boolean complete) {
+		this.data = data;
+		this.lastId = lastId;
+		this.complete = complete;
+	}
+
+	/**
+	 * Gets {@link #data}.
+	 *
+	 * @return {@link #data}
+	 */
+	public List<E> getData() {
+		return this.data;
+	}
+
+	/**
+	 * Gets {@link #lastId}.
+	 *
+	 * @return {@link #lastId}
+	 */
+	public long getLastId() {
+		return this.lastId;
+	}
+
+	/**
+	 * Gets {@link #complete}.
+	 *
+	 * @return {@link #complete}
+	 */
+	public boolean isComplete() {
+		return this.complete;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "IncrementalQueryResult [size=" + data.size() + ", lastId=" + lastId + ", complete=" + complete + "]";
+	}
+
+}
@@ -0,0 +1,215 @@
+package rocks.inspectit.shared.all.communication.data.cmr;
+
+import java.io.Serializable;
+
+/**
+ * Overhead statistics of one instrumented method measured by the agent. The agent measures only a
+ * sample of the method executions, thus the values are sums over the sampled executions only.
+ *
+ * @author agent
+ *
+ */
+public class MethodOverheadData implements Serializable {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = -4460863813004917823L;
+
+	/**
+	 * Id of the method (sensor instrumentation point).
+	 */
+	private long methodId;
+
+	/**
+	 * Number of sampled executions.
+	 */
+	private long sampleCount;
+
+	/**
+	 * Sum of the time in nanoseconds spent in the agent dispatching and hooks for the sampled
+	 * executions.
+	 */
+	private long overheadNanos;
+
+	/**
+	 * Sum of the duration in nanoseconds of the method body for the sampled executions.
+	 */
+	private long durationNanos;
+
+	/**
+	 * If the agent removed the instrumentation of the method because the overhead exceeded the
+	 * budget.
+	 */
+	private boolean deinstrumented;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public MethodOverheadData() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param methodId
+	 *            Id of the method (sensor instrumentation point).
+	 * @param sampleCount
+	 *            Number of sampled executions.
+	 * @param overheadNanos
+	 *            Sum of the agent overhead in nanoseconds.
+	 * @param durationNanos
+	 *            Sum of the method duration in nanoseconds.
+	 * @param deinstrumented
+	 *            If the agent removed the instrumentation of the method.
+	 */
+	public MethodOverheadData(long methodId, long sampleCount, long overheadNanos, long durationNanos, boolean deinstrumented) {
+		this.methodId = methodId;
+		this.sampleCount = sampleCount;
+		this.overheadNanos = overheadNanos;
+		this.durationNanos = durationNanos;
+		this.deinstrumented = deinstrumented;
+	}
+
+	/**
+	 * Returns the ratio between the agent overhead and the method duration.
+	 *
+	 * @return Returns the ratio between the agent overhead and the method duration or
+	 *         {@link Double#POSITIVE_INFINITY} if the measured duration is zero.
+	 */
+	public double getOverheadRatio() {
+		if (durationNanos <= 0) {
+			return (overheadNanos > 0) ? Double.POSITIVE_INFINITY : 0d;
+		}
+		return (double) overheadNanos / durationNanos;
+	}
+
+	/**
+	 * Returns the average agent overhead per sampled execution in nanoseconds.
+	 *
+	 * @return Returns the average agent overhead per sampled execution in nanoseconds.
+	 */
+	public double getAverageOverheadNanos() {
+		if (0 == sampleCount) {
+			return 0d;
+		}
+		return (double) overheadNanos / sampleCount;
+	}
+
+	/**
+	 * Returns the average method duration per sampled execution in nanoseconds.
+	 *
+	 * @return Returns the average method duration per sampled execution in nanoseconds.
+	 */
+	public double getAverageDurationNanos() {
+		if (0 == sampleCount) {
+			return 0d;
+		}
+		return (double) durationNanos / sampleCount;
+	}
+
+	/**
+	 * Gets {@link #methodId}.
+	 *
+	 * @return {@link #methodId}
+	 */
+	public long getMethodId() {
+		return this.methodId;
+	}
+
+	/**
+	 * Sets {@link #methodId}.
+	 *
+	 * @param methodId
+	 *            New value for {@link #methodId}
+	 */
+	public void setMethodId(long methodId) {
+		this.methodId = methodId;
+	}
+
+	/**
+	 * Gets {@link #sampleCount}.
+	 *
+	 * @return {@link #sampleCount}
+	 */
+	public long getSampleCount() {
+		return this.sampleCount;
+	}
+
+	/**
+	 * Sets {@link #sampleCount}.
+	 *
+	 * @param sampleCount
+	 *            New value for {@link #sampleCount}
+	 */
+	public void setSampleCount(long sampleCount) {
+		this.sampleCount = sampleCount;
+	}
+
+	/**
+	 * Gets {@link #overheadNanos}.
+	 *
+	 * @return {@link #overheadNanos}
+	 */
+	public long getOverheadNanos() {
+		return this.overheadNanos;
+	}
+
+	/**
+	 * Sets {@link #overheadNanos}.
+	 *
+	 * @param overheadNanos
+	 *            New value for {@link #overheadNanos}
+	 */
+	public void setOverheadNanos(long overheadNanos) {
+		this.overheadNanos = overheadNanos;
+	}
+
+	/**
+	 * Gets {@link #durationNanos}.
+	 *
+	 * @return {@link #durationNanos}
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
+	}
+
+	/**
+	 * Sets {@link #durationNanos}.
+	 *
+	 * @param durationNanos
+	 *            New value for {@link #durationNanos}
+	 */
+	public void setDurationNanos(long durationNanos) {
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Gets {@link #deinstrumented}.
+	 *
+	 * @return {@link #deinstrumented}
+	 */
+	public boolean isDeinstrumented() {
+		return this.deinstrumented;
+	}
+
+	/**
+	 * Sets {@link #deinstrumented}.
+	 *
+	 * @param deinstrumented
+	 *            New value for {@link #deinstrumented}
+	 */
+	public void setDeinstrumented(boolean deinstrumented) {
+		this.deinstrumented = deinstrumented;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "MethodOverheadData [methodId=" + methodId + ", sampleCount=" + sampleCount + ", overheadNanos=" + overheadNanos + ", durationNanos=" + durationNanos + ", deinstrumented="
+				+ deinstrumented + "]";
+	}
+
+}
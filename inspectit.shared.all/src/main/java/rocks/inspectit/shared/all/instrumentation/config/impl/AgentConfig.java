@@ -73,6 +73,12 @@ public class AgentConfig {
 	 */
 	private RetransformationStrategy retransformationStrategy;
 
+	/**
+	 * Maximum allowed ratio between the agent overhead and the duration of an instrumented method.
+	 * Zero or negative value means that the automatic de-instrumentation is not active.
+	 */
+	private double methodOverheadBudget;
+
 	/**
 	 * Set of known {@link InstrumentationDefinition} for the agent that can be used by the Agent
 	 * right away. Each {@link InstrumentationDefinition} is mapped to the collection of the class
@@ -373,6 +379,25 @@ public class AgentConfig {
 		this.retransformationStrategy = retransformationStrategy;
 	}
 
+	/**
+	 * Gets {@link #methodOverheadBudget}.
+	 *
+	 * @return {@link #methodOverheadBudget}
+	 */
+	public double getMethodOverheadBudget() {
+		return this.methodOverheadBudget;
+	}
+
+	/**
+	 * Sets {@link #methodOverheadBudget}.
+	 *
+	 * @param methodOverheadBudget
+	 *            New value for {@link #methodOverheadBudget}
+	 */
+	public void setMethodOverheadBudget(double methodOverheadBudget) {
+		this.methodOverheadBudget = methodOverheadBudget;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -388,6 +413,8 @@ public class AgentConfig {
 		result = (prime * result) + ((this.excludeClassesPatterns == null) ? 0 : this.excludeClassesPatterns.hashCode());
 		result = (prime * result) + ((this.initialInstrumentationResults == null) ? 0 : this.initialInstrumentationResults.hashCode());
 		result = (prime * result) + ((this.jmxSensorTypeConfig == null) ? 0 : this.jmxSensorTypeConfig.hashCode());
+		long temp = Double.doubleToLongBits(this.methodOverheadBudget);
+		result = (prime * result) + (int) (temp ^ (temp >>> 32));
 		result = (prime * result) + ((this.methodSensorTypeConfigs == null) ? 0 : this.methodSensorTypeConfigs.hashCode());
 		result = (prime * result) + (int) (this.platformId ^ (this.platformId >>> 32));
 		result = (prime * result) + ((this.platformSensorTypeConfigs == null) ? 0 : this.platformSensorTypeConfigs.hashCode());
@@ -463,6 +490,9 @@ public class AgentConfig {
 		} else if (!this.jmxSensorTypeConfig.equals(other.jmxSensorTypeConfig)) {
 			return false;
 		}
+		if (Double.doubleToLongBits(this.methodOverheadBudget) != Double.doubleToLongBits(other.methodOverheadBudget)) {
+			return false;
+		}
 		if (this.methodSensorTypeConfigs == null) {
 			if (other.methodSensorTypeConfigs != null) {
 				return false;
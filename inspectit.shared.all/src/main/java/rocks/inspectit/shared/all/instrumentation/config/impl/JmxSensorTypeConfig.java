@@ -8,6 +8,46 @@ package rocks.inspectit.shared.all.instrumentation.config.impl;
  */
 public class JmxSensorTypeConfig extends AbstractSensorTypeConfig {
 
+	/**
+	 * Parameter key for the only changed values option.
+	 */
+	public static final String ONLY_CHANGED_VALUES_KEY = "onlyChangedValues";
+
+	/**
+	 * Parameter key for the collection interval option.
+	 */
+	public static final String COLLECT_INTERVAL_KEY = "collectInterval";
+
+	/**
+	 * Parameter key for the heartbeat interval option.
+	 */
+	public static final String HEARTBEAT_INTERVAL_KEY = "heartbeatInterval";
+
+	/**
+	 * Parameter key for the maximum collection interval option.
+	 */
+	public static final String MAX_COLLECT_INTERVAL_KEY = "maxCollectInterval";
+
+	/**
+	 * Default value of the only changed values option.
+	 */
+	public static final boolean DEFAULT_ONLY_CHANGED_VALUES = true;
+
+	/**
+	 * Default interval in milliseconds the attributes are collected with.
+	 */
+	public static final long DEFAULT_COLLECT_INTERVAL = 5000;
+
+	/**
+	 * Default interval in milliseconds after which an unchanged attribute value is sent again.
+	 */
+	public static final long DEFAULT_HEARTBEAT_INTERVAL = 60000;
+
+	/**
+	 * Default maximum interval in milliseconds an attribute with unchanged value is read with.
+	 */
+	public static final long DEFAULT_MAX_COLLECT_INTERVAL = 30000;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -59,6 +59,24 @@ public class SensorInstrumentationPoint implements IMethodInstrumentationPoint {
 	 */
 	private List<PropertyPathStart> propertyAccessorList;
 
+	/**
+	 * If any of the sensors accesses the parameters of the method. If not, the instrumentation
+	 * passes <code>null</code> instead of the parameter array.
+	 */
+	private boolean parametersAccess;
+
+	/**
+	 * If any of the sensors accesses the object the method is executed on. If not, the
+	 * instrumentation passes <code>null</code> instead.
+	 */
+	private boolean targetAccess;
+
+	/**
+	 * If any of the sensors accesses the return value of the method. If not, the instrumentation
+	 * passes <code>null</code> instead and does not box the primitive return values.
+	 */
+	private boolean returnValueAccess;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -217,6 +235,11 @@ public class SensorInstrumentationPoint implements IMethodInstrumentationPoint {
 	 */
 	public void setPropertyAccessorList(List<PropertyPathStart> propertyAccessorList) {
 		this.propertyAccessorList = propertyAccessorList;
+		if (null != propertyAccessorList) {
+			for (PropertyPathStart propertyPathStart : propertyAccessorList) {
+				addAccess(propertyPathStart);
+			}
+		}
 	}
 
 	/**
@@ -230,6 +253,45 @@ public class SensorInstrumentationPoint implements IMethodInstrumentationPoint {
 			this.propertyAccessorList = new ArrayList<PropertyPathStart>(1);
 		}
 		this.propertyAccessorList.add(propertyPathStart);
+		addAccess(propertyPathStart);
+	}
+
+	/**
+	 * Marks the method data needed by the property accessor as accessed.
+	 *
+	 * @param propertyPathStart
+	 *            {@link PropertyPathStart} that will be used to access the data.
+	 */
+	private void addAccess(PropertyPathStart propertyPathStart) {
+		if (null == propertyPathStart.getContentType()) {
+			addFullAccess();
+			return;
+		}
+
+		switch (propertyPathStart.getContentType()) {
+		case FIELD:
+			targetAccess = true;
+			break;
+		case PARAM:
+			parametersAccess = true;
+			break;
+		case RETURN:
+			returnValueAccess = true;
+			break;
+		default:
+			addFullAccess();
+			break;
+		}
+	}
+
+	/**
+	 * Marks parameters, target object and return value of the method as accessed. Should be called
+	 * for every sensor which hook uses any of these.
+	 */
+	public void addFullAccess() {
+		parametersAccess = true;
+		targetAccess = true;
+		returnValueAccess = true;
 	}
 
 	/**
@@ -239,4 +301,61 @@ public class SensorInstrumentationPoint implements IMethodInstrumentationPoint {
 		return CollectionUtils.isNotEmpty(propertyAccessorList);
 	}
 
+	/**
+	 * Gets {@link #parametersAccess}.
+	 *
+	 * @return {@link #parametersAccess}
+	 */
+	public boolean isParametersAccess() {
+		return parametersAccess;
+	}
+
+	/**
+	 * Sets {@link #parametersAccess}.
+	 *
+	 * @param parametersAccess
+	 *            New value for {@link #parametersAccess}
+	 */
+	public void setParametersAccess(boolean parametersAccess) {
+		this.parametersAccess = parametersAccess;
+	}
+
+	/**
+	 * Gets {@link #targetAccess}.
+	 *
+	 * @return {@link #targetAccess}
+	 */
+	public boolean isTargetAccess() {
+		return targetAccess;
+	}
+
+	/**
+	 * Sets {@link #targetAccess}.
+	 *
+	 * @param targetAccess
+	 *            New value for {@link #targetAccess}
+	 */
+	public void setTargetAccess(boolean targetAccess) {
+		this.targetAccess = targetAccess;
+	}
+
+	/**
+	 * Gets {@link #returnValueAccess}.
+	 *
+	 * @return {@link #returnValueAccess}
+	 */
+	public boolean isReturnValueAccess() {
+		return returnValueAccess;
+	}
+
+	/**
+	 * Sets {@link #returnValueAccess}.
+	 *
+	 * @param returnValueAccess
+	 *            New value for {@link #returnValueAccess}
+	 */
+	public void setReturnValueAccess(boolean returnValueAccess) {
+		this.returnValueAccess = returnValueAccess;
+	}
+
 }
@@ -74,6 +74,12 @@ public class Client extends Connection implements EndPoint {
 	private int connectUdpPort;
 	private boolean isClosed;
 
+	/**
+	 * Compression statistics of the connection.
+	 */
+	// Added by ISE
+	private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+
 	// ISE: Removed no-arg and 2-args constructors (not needed)
 
 	// Added by ISE
@@ -89,6 +95,7 @@ public class Client extends Connection implements EndPoint {
 		this.serialization = serialization;
 
 		initialize(serialization, writeBufferSize, objectBufferSize);
+		tcp.setCompression(-1, compressionStatistics); // Added by ISE
 
 		try {
 			selector = Selector.open();
@@ -102,6 +109,29 @@ public class Client extends Connection implements EndPoint {
 		return serialization;
 	}
 
+	/**
+	 * Sets the compression threshold. The compression is only used if the server announces it.
+	 * Effective threshold is the higher one of the server and the client. Must be called before
+	 * connecting.
+	 *
+	 * @param compressionThreshold
+	 *            Threshold in bytes or negative value to disable the compression.
+	 */
+	// Added by ISE
+	public void setCompressionThreshold(int compressionThreshold) {
+		tcp.setCompression(compressionThreshold, compressionStatistics);
+	}
+
+	/**
+	 * Returns the compression statistics of the connection.
+	 *
+	 * @return Returns the compression statistics of the connection.
+	 */
+	// Added by ISE
+	public CompressionStatistics getCompressionStatistics() {
+		return compressionStatistics;
+	}
+
 	@Override
 	public Kryo getKryo() {
 		throw new UnsupportedOperationException("Can not provide Kryo instance.");
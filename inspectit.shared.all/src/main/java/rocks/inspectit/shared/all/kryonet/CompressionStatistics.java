@@ -0,0 +1,175 @@
+package rocks.inspectit.shared.all.kryonet;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics about the frame compression on the TCP connections of one end point. Instance is
+ * shared between all connections of the end point, thus all methods are thread-safe.
+ *
+ * @author agent
+ *
+ */
+public class CompressionStatistics {
+
+	/**
+	 * Amount of frames compressed before sending.
+	 */
+	private final AtomicLong compressedFrames = new AtomicLong();
+
+	/**
+	 * Amount of bytes of the sent frames before the compression.
+	 */
+	private final AtomicLong compressedFramesRawBytes = new AtomicLong();
+
+	/**
+	 * Amount of bytes of the sent frames after the compression.
+	 */
+	private final AtomicLong compressedFramesBytes = new AtomicLong();
+
+	/**
+	 * Time in nanoseconds spent in compressing.
+	 */
+	private final AtomicLong compressionTime = new AtomicLong();
+
+	/**
+	 * Amount of received frames that were decompressed.
+	 */
+	private final AtomicLong decompressedFrames = new AtomicLong();
+
+	/**
+	 * Amount of bytes of the received frames before the decompression.
+	 */
+	private final AtomicLong decompressedFramesBytes = new AtomicLong();
+
+	/**
+	 * Amount of bytes of the received frames after the decompression.
+	 */
+	private final AtomicLong decompressedFramesRawBytes = new AtomicLong();
+
+	/**
+	 * Time in nanoseconds spent in decompressing, including the de-serialization of the frame.
+	 */
+	private final AtomicLong decompressionTime = new AtomicLong();
+
+	/**
+	 * Registers one compressed frame.
+	 *
+	 * @param rawBytes
+	 *            Size of the frame before compression.
+	 * @param bytes
+	 *            Size of the frame after compression.
+	 * @param nanos
+	 *            Time spent in compressing.
+	 */
+	void frameCompressed(long rawBytes, long bytes, long nanos) {
+		compressedFrames.incrementAndGet();
+		compressedFramesRawBytes.addAndGet(rawBytes);
+		compressedFramesBytes.addAndGet(bytes);
+		compressionTime.addAndGet(nanos);
+	}
+
+	/**
+	 * Registers one decompressed frame.
+	 *
+	 * @param bytes
+	 *            Size of the received compressed frame.
+	 * @param rawBytes
+	 *            Size of the frame after decompression.
+	 * @param nanos
+	 *            Time spent in decompressing.
+	 */
+	void frameDecompressed(long bytes, long rawBytes, long nanos) {
+		decompressedFrames.incrementAndGet();
+		decompressedFramesBytes.addAndGet(bytes);
+		decompressedFramesRawBytes.addAndGet(rawBytes);
+		decompressionTime.addAndGet(nanos);
+	}
+
+	/**
+	 * Returns the ratio between the compressed and raw size of all frames compressed or
+	 * decompressed by the end point. Smaller ratio means better compression.
+	 *
+	 * @return Returns the ratio between the compressed and raw size of all frames or
+	 *         <code>1</code> if no frame was compressed.
+	 */
+	public double getCompressionRatio() {
+		long raw = compressedFramesRawBytes.get() + decompressedFramesRawBytes.get();
+		if (0 == raw) {
+			return 1d;
+		}
+		return (double) (compressedFramesBytes.get() + decompressedFramesBytes.get()) / raw;
+	}
+
+	/**
+	 * Gets {@link #compressedFrames}.
+	 *
+	 * @return {@link #compressedFrames}
+	 */
+	public long getCompressedFrames() {
+		return compressedFrames.get();
+	}
+
+	/**
+	 * Gets {@link #compressedFramesRawBytes}.
+	 *
+	 * @return {@link #compressedFramesRawBytes}
+	 */
+	public long getCompressedFramesRawBytes() {
+		return compressedFramesRawBytes.get();
+	}
+
+	/**
+	 * Gets {@link #compressedFramesBytes}.
+	 *
+	 * @return {@link #compressedFramesBytes}
+	 */
+	public long getCompressedFramesBytes() {
+		return compressedFramesBytes.get();
+	}
+
+	/**
+	 * Gets {@link #compressionTime}.
+	 *
+	 * @return {@link #compressionTime}
+	 */
+	public long getCompressionTime() {
+		return compressionTime.get();
+	}
+
+	/**
+	 * Gets {@link #decompressedFrames}.
+	 *
+	 * @return {@link #decompressedFrames}
+	 */
+	public long getDecompressedFrames() {
+		return decompressedFrames.get();
+	}
+
+	/**
+	 * Gets {@link #decompressedFramesBytes}.
+	 *
+	 * @return {@link #decompressedFramesBytes}
+	 */
+	public long getDecompressedFramesBytes() {
+		return decompressedFramesBytes.get();
+	}
+
+	/**
+	 * Gets {@link #decompressedFramesRawBytes}.
+	 *
+	 * @return {@link #decompressedFramesRawBytes}
+	 */
+	public long getDecompressedFramesRawBytes() {
+		return decompressedFramesRawBytes.get();
+	}
+
+	/**
+	 * Gets {@link #decompressionTime}.
+	 *
+	 * @return {@link #decompressionTime}
+	 */
+	public long getDecompressionTime() {
+		return decompressionTime.get();
+	}
+
+}
@@ -23,8 +23,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.util.IntMap;
@@ -71,6 +71,45 @@ public class Server implements EndPoint {
 	private Thread updateThread;
 	private ByteBuffer emptyBuffer = ByteBuffer.allocate(0);
 
+	/**
+	 * Reactors handling the I/O of the accepted connections. If empty, all connections are
+	 * handled by the server thread.
+	 */
+	// Added by ISE
+	private Reactor[] reactors = new Reactor[0];
+
+	/**
+	 * Index of the reactor to assign the next accepted connection to.
+	 */
+	// Added by ISE
+	private int nextReactor;
+
+	/**
+	 * Executor to decode the received objects with. If <code>null</code> decoding is done on the
+	 * thread handling the connection I/O.
+	 */
+	// Added by ISE
+	private Executor decodeExecutor;
+
+	/**
+	 * Lock for changing the connections.
+	 */
+	// Added by ISE
+	private final Object connectionsLock = new Object();
+
+	/**
+	 * Frames larger than the threshold are compressed if the client supports compression.
+	 * Negative value disables the compression.
+	 */
+	// Added by ISE
+	private int compressionThreshold = -1;
+
+	/**
+	 * Compression statistics of all connections.
+	 */
+	// Added by ISE
+	private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+
 	private Listener dispatchListener = new Listener() {
 		@Override
 		public void connected(Connection connection) {
@@ -208,13 +247,11 @@ public class Server implements EndPoint {
 		long startTime = System.currentTimeMillis();
 
 		/* Changed by ISE start */
-		// select without timeout
-		int select = selector.selectNow();
-		long waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
-		while ((select == 0) && (System.nanoTime() < waitUntil)) {
-			// if no operation is there sleep 1/10 of a millisecond
-			// until we reach the timeout
-			LockSupport.parkNanos(100000);
+		// blocking select, woken up on bind, close and write interest changes
+		int select;
+		if (timeout > 0) {
+			select = selector.select(timeout);
+		} else {
 			select = selector.selectNow();
 		}
 		/* Changed by ISE end */
@@ -246,53 +283,7 @@ public class Server implements EndPoint {
 						int ops = selectionKey.readyOps();
 
 						if (fromConnection != null) { // Must be a TCP read or write operation.
-							if ((udp != null) && (fromConnection.udpRemoteAddress == null)) {
-								fromConnection.close();
-								continue;
-							}
-							if ((ops & SelectionKey.OP_READ) == SelectionKey.OP_READ) {
-								try {
-									while (true) {
-										Object object = fromConnection.tcp.readObject(fromConnection);
-										if (object == null) {
-											break;
-										}
-										if (DEBUG) {
-											String objectString = object == null ? "null" : object.getClass().getSimpleName();
-											if (!(object instanceof FrameworkMessage)) {
-												debug("kryonet", fromConnection + " received TCP: " + objectString);
-											} else if (TRACE) {
-												trace("kryonet", fromConnection + " received TCP: " + objectString);
-											}
-										}
-										fromConnection.notifyReceived(object);
-									}
-								} catch (IOException ex) {
-									if (TRACE) {
-										trace("kryonet", "Unable to read TCP from: " + fromConnection, ex);
-									} else if (DEBUG) {
-										debug("kryonet", fromConnection + " update: " + ex.getMessage());
-									}
-									fromConnection.close();
-								} catch (KryoNetException ex) {
-									if (ERROR) {
-										error("kryonet", "Error reading TCP from connection: " + fromConnection, ex);
-									}
-									fromConnection.close();
-								}
-							}
-							if ((ops & SelectionKey.OP_WRITE) == SelectionKey.OP_WRITE) {
-								try {
-									fromConnection.tcp.writeOperation();
-								} catch (IOException ex) {
-									if (TRACE) {
-										trace("kryonet", "Unable to write TCP to connection: " + fromConnection, ex);
-									} else if (DEBUG) {
-										debug("kryonet", fromConnection + " update: " + ex.getMessage());
-									}
-									fromConnection.close();
-								}
-							}
+							processTcpOperation(fromConnection, ops, udp); // Changed by ISE
 							continue;
 						}
 
@@ -304,7 +295,15 @@ public class Server implements EndPoint {
 							try {
 								SocketChannel socketChannel = serverChannel.accept();
 								if (socketChannel != null) {
-									acceptOperation(socketChannel);
+									// Changed by ISE: hand over to the reactors if available
+									Reactor[] reactors = this.reactors;
+									if (reactors.length > 0) {
+										Reactor reactor = reactors[nextReactor];
+										nextReactor = (nextReactor + 1) % reactors.length;
+										reactor.register(socketChannel);
+									} else {
+										acceptOperation(selector, socketChannel);
+									}
 								}
 							} catch (IOException ex) {
 								if (DEBUG) {
@@ -441,6 +440,95 @@ public class Server implements EndPoint {
 		}
 	}
 
+	/**
+	 * Processes the ready TCP operations of the connection.
+	 *
+	 * @param fromConnection
+	 *            Connection.
+	 * @param ops
+	 *            Ready operations.
+	 * @param udp
+	 *            UDP connection of the server or <code>null</code>.
+	 */
+	// Added by ISE, code moved from update(int)
+	private void processTcpOperation(Connection fromConnection, int ops, UdpConnection udp) {
+		if ((udp != null) && (fromConnection.udpRemoteAddress == null)) {
+			fromConnection.close();
+			return;
+		}
+		if ((ops & SelectionKey.OP_READ) == SelectionKey.OP_READ) {
+			Executor decodeExecutor = this.decodeExecutor;
+			if (decodeExecutor != null) {
+				// hand over the frame to the decoding thread, no reads until it's done
+				final Connection connection = fromConnection;
+				connection.tcp.suspendRead();
+				decodeExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							readObjects(connection);
+						} finally {
+							connection.tcp.resumeRead();
+						}
+					}
+				});
+			} else {
+				readObjects(fromConnection);
+			}
+		}
+		if ((ops & SelectionKey.OP_WRITE) == SelectionKey.OP_WRITE) {
+			try {
+				fromConnection.tcp.writeOperation();
+			} catch (IOException ex) {
+				if (TRACE) {
+					trace("kryonet", "Unable to write TCP to connection: " + fromConnection, ex);
+				} else if (DEBUG) {
+					debug("kryonet", fromConnection + " update: " + ex.getMessage());
+				}
+				fromConnection.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads and dispatches all objects available for the connection.
+	 *
+	 * @param fromConnection
+	 *            Connection.
+	 */
+	// Added by ISE, code moved from update(int)
+	private void readObjects(Connection fromConnection) {
+		try {
+			while (true) {
+				Object object = fromConnection.tcp.readObject(fromConnection);
+				if (object == null) {
+					break;
+				}
+				if (DEBUG) {
+					String objectString = object == null ? "null" : object.getClass().getSimpleName();
+					if (!(object instanceof FrameworkMessage)) {
+						debug("kryonet", fromConnection + " received TCP: " + objectString);
+					} else if (TRACE) {
+						trace("kryonet", fromConnection + " received TCP: " + objectString);
+					}
+				}
+				fromConnection.notifyReceived(object);
+			}
+		} catch (IOException ex) {
+			if (TRACE) {
+				trace("kryonet", "Unable to read TCP from: " + fromConnection, ex);
+			} else if (DEBUG) {
+				debug("kryonet", fromConnection + " update: " + ex.getMessage());
+			}
+			fromConnection.close();
+		} catch (KryoNetException ex) {
+			if (ERROR) {
+				error("kryonet", "Error reading TCP from connection: " + fromConnection, ex);
+			}
+			fromConnection.close();
+		}
+	}
+
 	@Override
 	public void run() {
 		if (TRACE) {
@@ -465,6 +553,10 @@ public class Server implements EndPoint {
 	@Override
 	public void start() {
 		new Thread(this, "Server").start();
+		// Added by ISE
+		for (Reactor reactor : reactors) {
+			reactor.start();
+		}
 	}
 
 	@Override
@@ -477,11 +569,72 @@ public class Server implements EndPoint {
 			trace("kryonet", "Server thread stopping.");
 		}
 		shutdown = true;
+		// Added by ISE
+		for (Reactor reactor : reactors) {
+			reactor.wakeup();
+		}
+	}
+
+	/**
+	 * Sets the amount of reactor threads handling the I/O of the accepted connections. The
+	 * connections are assigned to the reactors in round-robin fashion. With zero reactors, all
+	 * connections are handled by the server thread. Must be called before {@link #start()}.
+	 *
+	 * @param reactorThreads
+	 *            Amount of reactor threads.
+	 */
+	// Added by ISE
+	public void setReactorThreads(int reactorThreads) {
+		Reactor[] reactors = new Reactor[reactorThreads];
+		for (int i = 0; i < reactorThreads; i++) {
+			reactors[i] = new Reactor(i);
+		}
+		this.reactors = reactors;
 	}
 
-	private void acceptOperation(SocketChannel socketChannel) {
+	/**
+	 * Sets the executor that decodes the received objects. When set, the selector threads only
+	 * detect the incoming frames and the de-serialization is done by the executor threads. The
+	 * reading of a connection is suspended until the executor finishes the decoding, thus objects
+	 * of one connection are still received in order.
+	 *
+	 * @param decodeExecutor
+	 *            Executor or <code>null</code> to decode on the selector threads.
+	 */
+	// Added by ISE
+	public void setDecodeExecutor(Executor decodeExecutor) {
+		this.decodeExecutor = decodeExecutor;
+	}
+
+	/**
+	 * Sets the compression threshold. The compression is announced to each new client and frames
+	 * larger than the threshold are compressed in both directions if the client supports it.
+	 * Effective threshold is the higher one of the server and the client. Must be called before
+	 * {@link #start()}.
+	 *
+	 * @param compressionThreshold
+	 *            Threshold in bytes or negative value to disable the compression.
+	 */
+	// Added by ISE
+	public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Returns the compression statistics of all connections.
+	 *
+	 * @return Returns the compression statistics of all connections.
+	 */
+	// Added by ISE
+	public CompressionStatistics getCompressionStatistics() {
+		return compressionStatistics;
+	}
+
+	// Changed by ISE: selector to register to as argument
+	private void acceptOperation(Selector selector, SocketChannel socketChannel) {
 		Connection connection = newConnection();
 		connection.initialize(serialization, writeBufferSize, objectBufferSize);
+		connection.tcp.setCompression(compressionThreshold, compressionStatistics); // Added by ISE
 		connection.endPoint = this;
 		UdpConnection udp = this.udp;
 		if (udp != null) {
@@ -491,9 +644,12 @@ public class Server implements EndPoint {
 			SelectionKey selectionKey = connection.tcp.accept(selector, socketChannel);
 			selectionKey.attach(connection);
 
-			int id = nextConnectionID++;
-			if (nextConnectionID == -1) {
-				nextConnectionID = 1;
+			int id;
+			synchronized (connectionsLock) { // Added by ISE: reactors accept in parallel
+				id = nextConnectionID++;
+				if (nextConnectionID == -1) {
+					nextConnectionID = 1;
+				}
 			}
 			connection.id = id;
 			connection.setConnected(true);
@@ -508,6 +664,7 @@ public class Server implements EndPoint {
 			RegisterTCP registerConnection = new RegisterTCP();
 			registerConnection.connectionID = id;
 			connection.sendTCP(registerConnection);
+			connection.tcp.announceCompression(); // Added by ISE
 
 			if (udp == null) {
 				connection.notifyConnected();
@@ -530,18 +687,22 @@ public class Server implements EndPoint {
 	}
 
 	private void addConnection(Connection connection) {
-		Connection[] newConnections = new Connection[connections.length + 1];
-		newConnections[0] = connection;
-		System.arraycopy(connections, 0, newConnections, 1, connections.length);
-		connections = newConnections;
+		synchronized (connectionsLock) { // Added by ISE
+			Connection[] newConnections = new Connection[connections.length + 1];
+			newConnections[0] = connection;
+			System.arraycopy(connections, 0, newConnections, 1, connections.length);
+			connections = newConnections;
+		}
 	}
 
 	void removeConnection(Connection connection) {
-		ArrayList<Connection> temp = new ArrayList(Arrays.asList(connections));
-		temp.remove(connection);
-		connections = temp.toArray(new Connection[temp.size()]);
+		synchronized (connectionsLock) { // Added by ISE
+			ArrayList<Connection> temp = new ArrayList(Arrays.asList(connections));
+			temp.remove(connection);
+			connections = temp.toArray(new Connection[temp.size()]);
 
-		pendingConnections.remove(connection.id);
+			pendingConnections.remove(connection.id);
+		}
 	}
 
 	// BOZO - Provide mechanism for sending to multiple clients without serializing multiple times.
@@ -700,4 +861,112 @@ public class Server implements EndPoint {
 	public Connection[] getConnections() {
 		return connections;
 	}
+
+	/**
+	 * Reactor handling the I/O of the assigned connections with its own selector.
+	 */
+	// Added by ISE
+	private class Reactor implements Runnable {
+
+		/**
+		 * Selector of the reactor.
+		 */
+		private final Selector reactorSelector;
+
+		/**
+		 * Name of the reactor thread.
+		 */
+		private final String name;
+
+		/**
+		 * Accepted channels waiting to be registered with the selector.
+		 */
+		private final ConcurrentLinkedQueue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<SocketChannel>();
+
+		/**
+		 * @param index
+		 *            Index of the reactor.
+		 */
+		Reactor(int index) {
+			this.name = "Server-Reactor-" + index;
+			try {
+				reactorSelector = Selector.open();
+			} catch (IOException ex) {
+				throw new RuntimeException("Error opening selector.", ex);
+			}
+		}
+
+		/**
+		 * Starts the reactor thread.
+		 */
+		void start() {
+			Thread thread = new Thread(this, name);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		/**
+		 * Passes the accepted channel to the reactor.
+		 *
+		 * @param socketChannel
+		 *            Accepted channel.
+		 */
+		void register(SocketChannel socketChannel) {
+			pendingChannels.add(socketChannel);
+			reactorSelector.wakeup();
+		}
+
+		/**
+		 * Wakes up the reactor selector.
+		 */
+		void wakeup() {
+			reactorSelector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			if (TRACE) {
+				trace("kryonet", name + " thread started.");
+			}
+			while (!shutdown) {
+				try {
+					int select = reactorSelector.select(250);
+
+					SocketChannel socketChannel = pendingChannels.poll();
+					while (socketChannel != null) {
+						acceptOperation(reactorSelector, socketChannel);
+						socketChannel = pendingChannels.poll();
+					}
+
+					if (select == 0) {
+						continue;
+					}
+
+					UdpConnection udp = Server.this.udp;
+					Set<SelectionKey> keys = reactorSelector.selectedKeys();
+					for (Iterator<SelectionKey> iter = keys.iterator(); iter.hasNext();) {
+						SelectionKey selectionKey = iter.next();
+						iter.remove();
+						Connection fromConnection = (Connection) selectionKey.attachment();
+						try {
+							processTcpOperation(fromConnection, selectionKey.readyOps(), udp);
+						} catch (CancelledKeyException ex) {
+							fromConnection.close();
+						}
+					}
+				} catch (IOException ex) {
+					if (ERROR) {
+						error("kryonet", "Error updating connections in " + name + ".", ex);
+					}
+				}
+			}
+			try {
+				reactorSelector.close();
+			} catch (IOException ignored) {
+			}
+			if (TRACE) {
+				trace("kryonet", name + " thread stopped.");
+			}
+		}
+	}
 }
@@ -8,6 +8,7 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -16,6 +17,9 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import com.esotericsoftware.kryonet.KryoNetException;
 
@@ -72,6 +76,93 @@ class TcpConnection {
 	// Added by ISE
 	private SocketExtendedByteBufferInputStream socketInputStream;
 
+	/**
+	 * If reading is suspended because the received data is decoded outside of the selector
+	 * thread.
+	 */
+	// Added by ISE
+	private boolean readSuspended;
+
+	/**
+	 * If there is data waiting to be written.
+	 */
+	// Added by ISE
+	private boolean writePending;
+
+	/**
+	 * Lock for changing the interest operations of the selection key.
+	 */
+	// Added by ISE
+	private final Object interestLock = new Object();
+
+	/**
+	 * Length value marking the compression announcement frame. The announcement carries the
+	 * compression threshold of the sender instead of the data.
+	 */
+	// Added by ISE
+	static final int COMPRESSION_ANNOUNCEMENT = Integer.MIN_VALUE;
+
+	/**
+	 * Size of the chunks used for compressing and decompressing.
+	 */
+	// Added by ISE
+	private static final int COMPRESSION_CHUNK_SIZE = 8192;
+
+	/**
+	 * Frames larger than the threshold are compressed. Negative value means compression is not
+	 * supported by this side of the connection.
+	 */
+	// Added by ISE
+	private int compressionThreshold = -1;
+
+	/**
+	 * Statistics to report the compression to.
+	 */
+	// Added by ISE
+	private CompressionStatistics compressionStatistics;
+
+	/**
+	 * If both sides announced the compression support.
+	 */
+	// Added by ISE
+	private volatile boolean compressionNegotiated;
+
+	/**
+	 * The higher threshold of both sides, used once the compression is negotiated.
+	 */
+	// Added by ISE
+	private volatile int negotiatedCompressionThreshold;
+
+	/**
+	 * If this side has already sent the compression announcement. Guarded by the write lock.
+	 */
+	// Added by ISE
+	private boolean compressionAnnounced;
+
+	/**
+	 * Deflater for the outgoing frames. Guarded by the write lock.
+	 */
+	// Added by ISE
+	private Deflater deflater;
+
+	/**
+	 * Buffer holding the uncompressed data passed to the deflater.
+	 */
+	// Added by ISE
+	private byte[] deflaterInput;
+
+	/**
+	 * Buffer holding the compressed data produced by the deflater.
+	 */
+	// Added by ISE
+	private byte[] deflaterOutput;
+
+	/**
+	 * Inflater for the incoming frames.
+	 */
+	// Added by ISE
+	private Inflater inflater;
+
 	SocketChannel socketChannel;
 	int keepAliveMillis = 8000;
 	final ByteBuffer readBuffer, writeBuffer;
@@ -107,6 +198,7 @@ class TcpConnection {
 		readBuffer.clear();
 		readBuffer.flip();
 		currentObjectLength = 0;
+		resetCompression(); // Added by ISE
 		try {
 			this.socketChannel = socketChannel;
 			socketChannel.configureBlocking(false);
@@ -137,6 +229,7 @@ class TcpConnection {
 		readBuffer.clear();
 		readBuffer.flip();
 		currentObjectLength = 0;
+		resetCompression(); // Added by ISE
 		try {
 			SocketChannel socketChannel = selector.provider().openSocketChannel();
 			Socket socket = socketChannel.socket();
@@ -174,30 +267,30 @@ class TcpConnection {
 		// Change by ISE from here to end of method
 
 		// we use the read buffer to read the size of the length
-		if (currentObjectLength == 0) {
+		while (currentObjectLength == 0) {
 			// Read the length of the next object from the socket.
-			int lengthLength = serialization.getLengthLength();
-			if (readBuffer.remaining() < lengthLength) {
-				readBuffer.compact();
-				int bytesRead = socketChannel.read(readBuffer);
-				readBuffer.flip();
-				if (bytesRead == -1) {
-					throw new SocketException("Connection is closed.");
-				}
-				lastReadTime = System.currentTimeMillis();
-
-				if (readBuffer.remaining() < lengthLength) {
-					return null;
-				}
+			if (!ensureLengthAvailable(socketChannel)) {
+				return null;
 			}
 			currentObjectLength = serialization.readLength(readBuffer);
 
-			if (currentObjectLength <= 0) {
+			if (currentObjectLength == 0) {
 				throw new KryoNetException("Invalid object length: " + currentObjectLength);
 			}
+
+			if (currentObjectLength == COMPRESSION_ANNOUNCEMENT) {
+				// announcement is followed by the threshold of the other side
+				if (!ensureLengthAvailable(socketChannel)) {
+					return null;
+				}
+				currentObjectLength = 0;
+				compressionAnnounced(serialization.readLength(readBuffer));
+			}
 		}
 
-		int length = currentObjectLength;
+		// negative length denotes compressed frame
+		boolean compressed = currentObjectLength < 0;
+		int length = compressed ? -currentObjectLength : currentObjectLength;
 		// reset stream
 		socketInputStream.reset(length);
 
@@ -206,7 +299,11 @@ class TcpConnection {
 		// read object
 		Object object;
 		try {
-			object = serialization.read(connection, socketInputStream);
+			if (compressed) {
+				object = readCompressed(connection, length);
+			} else {
+				object = serialization.read(connection, socketInputStream);
+			}
 		} catch (Exception ex) {
 			throw new KryoNetException("Error during deserialization.", ex);
 		}
@@ -215,13 +312,102 @@ class TcpConnection {
 		return object;
 	}
 
+	/**
+	 * Makes sure that the read buffer holds enough bytes to read the length value.
+	 *
+	 * @param socketChannel
+	 *            Channel to read from.
+	 * @return <code>true</code> if the length can be read from the read buffer,
+	 *         <code>false</code> if more data has to arrive first.
+	 * @throws IOException
+	 *             If connection is closed.
+	 */
+	// Added by ISE
+	private boolean ensureLengthAvailable(SocketChannel socketChannel) throws IOException {
+		int lengthLength = serialization.getLengthLength();
+		if (readBuffer.remaining() < lengthLength) {
+			readBuffer.compact();
+			int bytesRead = socketChannel.read(readBuffer);
+			readBuffer.flip();
+			if (bytesRead == -1) {
+				throw new SocketException("Connection is closed.");
+			}
+			lastReadTime = System.currentTimeMillis();
+
+			if (readBuffer.remaining() < lengthLength) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the object from the compressed frame. The frame starts with the uncompressed size
+	 * followed by the deflated data.
+	 *
+	 * @param connection
+	 *            Connection to be added to kryo context.
+	 * @param length
+	 *            Size of the frame.
+	 * @return De-serialized object.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	// Added by ISE
+	private Object readCompressed(Connection connection, int length) throws IOException {
+		long start = System.nanoTime();
+
+		byte[] rawLengthBytes = new byte[4];
+		readFully(rawLengthBytes);
+		int rawLength = ((rawLengthBytes[0] & 0xFF) << 24) | ((rawLengthBytes[1] & 0xFF) << 16) | ((rawLengthBytes[2] & 0xFF) << 8) | (rawLengthBytes[3] & 0xFF);
+
+		if (null == inflater) {
+			inflater = new Inflater();
+		} else {
+			inflater.reset();
+		}
+		Object object = serialization.read(connection, new InflaterInputStream(socketInputStream, inflater, COMPRESSION_CHUNK_SIZE));
+
+		// consume rest of the frame if de-serialization did not pull everything
+		if (socketInputStream.hasRemaining()) {
+			byte[] skip = new byte[COMPRESSION_CHUNK_SIZE];
+			while (socketInputStream.hasRemaining() && (socketInputStream.read(skip, 0, skip.length) > 0)) { // NOPMD
+			}
+		}
+
+		if (null != compressionStatistics) {
+			compressionStatistics.frameDecompressed(length, rawLength, System.nanoTime() - start);
+		}
+		return object;
+	}
+
+	/**
+	 * Reads the bytes from the socket input stream until the given array is full.
+	 *
+	 * @param bytes
+	 *            Array to fill.
+	 * @throws IOException
+	 *             If the stream ends before the array is filled.
+	 */
+	// Added by ISE
+	private void readFully(byte[] bytes) throws IOException {
+		int read = 0;
+		while (read < bytes.length) {
+			int count = socketInputStream.read(bytes, read, bytes.length - read);
+			if (count <= 0) {
+				throw new IOException("Unexpected end of the compressed frame.");
+			}
+			read += count;
+		}
+	}
+
 	// Changed completely by ISE
 	public void writeOperation() throws IOException {
 		writeReentrantLock.lock();
 		try {
 			if (writeToSocket()) {
 				// Write successful, clear OP_WRITE.
-				selectionKey.interestOps(SelectionKey.OP_READ);
+				setWritePending(false);
 			}
 			lastWriteTime = System.currentTimeMillis();
 		} finally {
@@ -312,31 +498,213 @@ class TcpConnection {
 			}
 			outputStream.flush(false);
 
-			// rewrite the size to the first buffer
 			long writeSize = outputStream.getTotalWriteSize() - lengthLength;
+			int frameLength = (int) writeSize;
+
+			// Added by ISE: compress big frames when both sides support it
+			if (compressionNegotiated && (writeSize > negotiatedCompressionThreshold)) {
+				ExtendedByteBufferOutputStream compressedStream = compress(outputStream, lengthLength, writeSize);
+				if (null != compressedStream) {
+					ExtendedByteBufferOutputStream uncompressedStream = outputStream;
+					outputStream = compressedStream;
+					uncompressedStream.prepare();
+					idleQueue.offer(uncompressedStream);
+					writeSize = outputStream.getTotalWriteSize() - lengthLength;
+					frameLength = (int) -writeSize;
+				}
+			}
+
+			// rewrite the size to the first buffer
 			ByteBuffer buffer = outputStream.getAllByteBuffers().iterator().next();
 			int position = buffer.position();
 			buffer.position(0);
-			serialization.writeLength(buffer, (int) writeSize);
+			serialization.writeLength(buffer, frameLength);
 			buffer.position(position);
 
-			// Write to socket if no data was queued.
-			boolean hasQueuedData = hasQueuedData();
-			writeQueue.add(outputStream);
-
 			// mark as added to write queue
 			streamAddedToWriteQueue = true;
+			queueForWrite(outputStream);
 
-			if (!hasQueuedData && !writeToSocket()) {
-				// A partial write, set OP_WRITE to be notified when more writing can occur.
-				selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			return (int) writeSize;
+		} finally {
+			if (!streamAddedToWriteQueue) {
+				outputStream.prepare();
+				idleQueue.offer(outputStream);
+			}
+			writeReentrantLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the output stream to the write queue and writes to the socket if no data was queued
+	 * before. Caller must hold the write lock.
+	 *
+	 * @param outputStream
+	 *            Stream holding the complete frame.
+	 * @throws IOException
+	 *             If writing to the socket fails.
+	 */
+	// Added by ISE
+	private void queueForWrite(ExtendedByteBufferOutputStream outputStream) throws IOException {
+		// Write to socket if no data was queued.
+		boolean hasQueuedData = hasQueuedData();
+		writeQueue.add(outputStream);
+
+		if (!hasQueuedData && !writeToSocket()) {
+			// A partial write, set OP_WRITE to be notified when more writing can occur.
+			// Changed by ISE: selector must be woken up as it blocks in select
+			setWritePending(true);
+			selectionKey.selector().wakeup();
+		} else {
+			// Full write, wake up selector so idle event will be fired.
+			selectionKey.selector().wakeup();
+		}
+
+		lastWriteTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Compresses the frame held in the given output stream to the new stream taken from the idle
+	 * queue. Caller must hold the write lock.
+	 *
+	 * @param outputStream
+	 *            Stream holding the uncompressed frame, starting with the space for the length.
+	 * @param lengthLength
+	 *            Size of the length field.
+	 * @param rawSize
+	 *            Size of the uncompressed frame without the length field.
+	 * @return Stream holding the compressed frame or <code>null</code> if the frame should be
+	 *         sent uncompressed, because no stream is available or compression does not reduce
+	 *         the size.
+	 * @throws IOException
+	 *             If writing to the stream fails.
+	 */
+	// Added by ISE
+	private ExtendedByteBufferOutputStream compress(ExtendedByteBufferOutputStream outputStream, int lengthLength, long rawSize) throws IOException {
+		ExtendedByteBufferOutputStream compressedStream = idleQueue.poll();
+		if (null == compressedStream) {
+			return null;
+		}
+
+		boolean compressed = false;
+		try {
+			long start = System.nanoTime();
+			if (null == deflater) {
+				deflater = new Deflater(Deflater.BEST_SPEED);
+				deflaterInput = new byte[COMPRESSION_CHUNK_SIZE];
+				deflaterOutput = new byte[COMPRESSION_CHUNK_SIZE];
 			} else {
-				// Full write, wake up selector so idle event will be fired.
-				selectionKey.selector().wakeup();
+				deflater.reset();
 			}
 
-			lastWriteTime = System.currentTimeMillis();
-			return (int) writeSize;
+			// space for length and the uncompressed size
+			compressedStream.write(new byte[lengthLength]);
+			compressedStream.write(new byte[] { (byte) (rawSize >>> 24), (byte) (rawSize >>> 16), (byte) (rawSize >>> 8), (byte) rawSize });
+
+			int skip = lengthLength;
+			for (ByteBuffer buffer : outputStream.getAllByteBuffers()) {
+				// duplicate so that the position of the original buffer is not changed
+				ByteBuffer data = buffer.duplicate();
+				data.position(data.position() + skip);
+				skip = 0;
+				while (data.hasRemaining()) {
+					int length = Math.min(data.remaining(), deflaterInput.length);
+					data.get(deflaterInput, 0, length);
+					deflater.setInput(deflaterInput, 0, length);
+					while (!deflater.needsInput()) {
+						int deflated = deflater.deflate(deflaterOutput);
+						compressedStream.write(deflaterOutput, 0, deflated);
+					}
+				}
+
+				// stop if compression is not worth it
+				if (deflater.getBytesWritten() >= rawSize) {
+					return null;
+				}
+			}
+
+			deflater.finish();
+			while (!deflater.finished()) {
+				int deflated = deflater.deflate(deflaterOutput);
+				compressedStream.write(deflaterOutput, 0, deflated);
+			}
+			compressedStream.flush(false);
+
+			long compressedSize = compressedStream.getTotalWriteSize() - lengthLength;
+			if (compressedSize >= rawSize) {
+				return null;
+			}
+
+			if (null != compressionStatistics) {
+				compressionStatistics.frameCompressed(rawSize, compressedSize, System.nanoTime() - start);
+			}
+			compressed = true;
+			return compressedStream;
+		} finally {
+			if (!compressed) {
+				compressedStream.prepare();
+				idleQueue.offer(compressedStream);
+			}
+		}
+	}
+
+	/**
+	 * Defines the compression support of this side of the connection. Must be set before the
+	 * connection is established.
+	 *
+	 * @param compressionThreshold
+	 *            Frames larger than the threshold are compressed. Negative value disables the
+	 *            compression.
+	 * @param compressionStatistics
+	 *            Statistics to report the compression to, can be <code>null</code>.
+	 */
+	// Added by ISE
+	void setCompression(int compressionThreshold, CompressionStatistics compressionStatistics) {
+		this.compressionThreshold = compressionThreshold;
+		this.compressionStatistics = compressionStatistics;
+	}
+
+	/**
+	 * Sends the compression announcement with the threshold of this side if the compression is
+	 * supported and was not announced yet. This method is thread safe.
+	 *
+	 * @throws IOException
+	 *             If sending fails.
+	 */
+	// Added by ISE
+	void announceCompression() throws IOException {
+		if (compressionThreshold < 0) {
+			return;
+		}
+
+		ExtendedByteBufferOutputStream outputStream = null;
+		try {
+			outputStream = idleQueue.poll(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Sending was interrupted.");
+		}
+
+		if (null == outputStream) {
+			throw new IOException("Sending failed. Timeout acquiring output stream for writing.");
+		}
+
+		writeReentrantLock.lock();
+		boolean streamAddedToWriteQueue = false;
+		try {
+			if (compressionAnnounced) {
+				return;
+			}
+
+			ByteBuffer announcement = ByteBuffer.allocate(serialization.getLengthLength() * 2);
+			serialization.writeLength(announcement, COMPRESSION_ANNOUNCEMENT);
+			serialization.writeLength(announcement, compressionThreshold);
+			outputStream.write(announcement.array());
+			outputStream.flush(false);
+
+			streamAddedToWriteQueue = true;
+			queueForWrite(outputStream);
+			compressionAnnounced = true;
 		} finally {
 			if (!streamAddedToWriteQueue) {
 				outputStream.prepare();
@@ -346,6 +714,122 @@ class TcpConnection {
 		}
 	}
 
+	/**
+	 * Handles the compression announcement of the other side. If this side supports compression
+	 * the announcement is answered and compression of outgoing frames is activated.
+	 *
+	 * @param peerThreshold
+	 *            Compression threshold of the other side.
+	 * @throws IOException
+	 *             If answering the announcement fails.
+	 */
+	// Added by ISE
+	private void compressionAnnounced(int peerThreshold) throws IOException {
+		if (compressionThreshold < 0) {
+			if (DEBUG) {
+				debug("kryonet", "Compression announced by the other side, but not supported.");
+			}
+			return;
+		}
+
+		negotiatedCompressionThreshold = Math.max(compressionThreshold, peerThreshold);
+		// our announcement must be queued before the first compressed frame
+		announceCompression();
+		compressionNegotiated = true;
+
+		if (DEBUG) {
+			debug("kryonet", "Compression negotiated for frames larger than " + negotiatedCompressionThreshold + " bytes.");
+		}
+	}
+
+	/**
+	 * Resets the compression negotiation state for the new connection.
+	 */
+	// Added by ISE
+	private void resetCompression() {
+		compressionNegotiated = false;
+		writeReentrantLock.lock();
+		try {
+			compressionAnnounced = false;
+		} finally {
+			writeReentrantLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns if the compression of the frames was negotiated with the other side.
+	 *
+	 * @return Returns if the compression of the frames was negotiated with the other side.
+	 */
+	// Added by ISE
+	boolean isCompressionNegotiated() {
+		return compressionNegotiated;
+	}
+
+	/**
+	 * Stops the selector from reporting the read readiness, so that received data can be decoded
+	 * outside of the selector thread. Reading must be resumed with {@link #resumeRead()} once the
+	 * decoding is done.
+	 */
+	// Added by ISE
+	void suspendRead() {
+		synchronized (interestLock) {
+			updateInterestOps(writePending, true);
+		}
+	}
+
+	/**
+	 * Resumes the read readiness reporting and wakes up the selector.
+	 */
+	// Added by ISE
+	void resumeRead() {
+		synchronized (interestLock) {
+			updateInterestOps(writePending, false);
+		}
+		SelectionKey selectionKey = this.selectionKey;
+		if (selectionKey != null) {
+			selectionKey.selector().wakeup();
+		}
+	}
+
+	/**
+	 * Sets if the selector should report the write readiness.
+	 *
+	 * @param write
+	 *            If write readiness should be reported.
+	 */
+	// Added by ISE
+	private void setWritePending(boolean write) {
+		synchronized (interestLock) {
+			updateInterestOps(write, readSuspended);
+		}
+	}
+
+	/**
+	 * Updates the interest operations of the selection key.
+	 *
+	 * @param write
+	 *            If write readiness should be reported.
+	 * @param suspendRead
+	 *            If read readiness should not be reported.
+	 */
+	// Added by ISE
+	private void updateInterestOps(boolean write, boolean suspendRead) {
+		synchronized (interestLock) {
+			writePending = write;
+			readSuspended = suspendRead;
+			int ops = (suspendRead ? 0 : SelectionKey.OP_READ) | (write ? SelectionKey.OP_WRITE : 0);
+			SelectionKey selectionKey = this.selectionKey;
+			if ((selectionKey != null) && selectionKey.isValid()) {
+				try {
+					selectionKey.interestOps(ops);
+				} catch (CancelledKeyException e) { // NOPMD
+					// connection closed in the meantime
+				}
+			}
+		}
+	}
+
 	/**
 	 * @return Returns if any data is queued for writing.
 	 */
@@ -59,6 +59,23 @@ public interface ISerializer {
 	 */
 	Object deserialize(Input input) throws SerializationException;
 
+	/**
+	 * De-serialize the bytes provided by the {@link Input}. It is responsibility of the caller to
+	 * set up the input correctly. The way bytes are read, is defined in the implementing classes.
+	 * <p>
+	 * This method allows the caller to pass the map which will be added to the kryo graph context,
+	 * so that any preference can be passed to the serializer expecting them.
+	 *
+	 * @param input
+	 *            {@link Input} that provides the bytes.
+	 * @param kryoPreferences
+	 *            Map of preferences to be put into the context before de-serialization.
+	 * @return Returns the de-serialized object.
+	 * @throws SerializationException
+	 *             If de-serialization fails.
+	 */
+	Object deserialize(Input input, Map<?, ?> kryoPreferences) throws SerializationException;
+
 	/**
 	 * Returns result of the Kryo copy operation. Effectively clones the object.
 	 *
@@ -0,0 +1,250 @@
+package rocks.inspectit.shared.all.serializer;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Bounded pool of the serializers that can be shared by all components that need to (de-)serialize
+ * objects. Creation of a serializer is expensive as it creates a new Kryo instance and registers
+ * all classes, thus the serializers should be borrowed from the pool instead of created per call.
+ * <p>
+ * The pool never blocks: if no serializer is available a new one is created and if the pool is
+ * full when a serializer is returned, the serializer is discarded. The pool itself implements the
+ * {@link ISerializer} interface, so that each operation borrows a serializer, executes the
+ * operation and returns the serializer to the pool.
+ *
+ * @param <T>
+ *            Type of the pooled serializers.
+ * @author agent
+ *
+ */
+public class SerializerPool<T extends ISerializer & IKryoProvider> implements ISerializer {
+
+	/**
+	 * Default amount of serializers to keep in the pool.
+	 */
+	public static final int DEFAULT_MAX_IDLE = 16;
+
+	/**
+	 * Default amount of serializers created when the pool is created.
+	 */
+	public static final int DEFAULT_WARM_UP = 2;
+
+	/**
+	 * Provider for creating new serializers.
+	 */
+	private final ISerializerProvider<? extends T> serializerProvider;
+
+	/**
+	 * Idle serializers.
+	 */
+	private final BlockingQueue<T> idleSerializers;
+
+	/**
+	 * Amount of borrow operations.
+	 */
+	private final AtomicLong borrowCount = new AtomicLong();
+
+	/**
+	 * Amount of created serializers.
+	 */
+	private final AtomicLong createdCount = new AtomicLong();
+
+	/**
+	 * Amount of serializers discarded because pool was full on return.
+	 */
+	private final AtomicLong discardedCount = new AtomicLong();
+
+	/**
+	 * Creates pool with the {@value #DEFAULT_MAX_IDLE} maximum idle and {@value #DEFAULT_WARM_UP}
+	 * warm-up serializers.
+	 *
+	 * @param serializerProvider
+	 *            Provider for creating new serializers.
+	 */
+	public SerializerPool(ISerializerProvider<? extends T> serializerProvider) {
+		this(serializerProvider, DEFAULT_MAX_IDLE, DEFAULT_WARM_UP);
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param serializerProvider
+	 *            Provider for creating new serializers.
+	 * @param maxIdle
+	 *            Maximum amount of serializers kept in the pool. Must be positive.
+	 * @param warmUp
+	 *            Amount of serializers to create immediately. Bounded by the max idle.
+	 */
+	public SerializerPool(ISerializerProvider<? extends T> serializerProvider, int maxIdle, int warmUp) {
+		if (null == serializerProvider) {
+			throw new IllegalArgumentException("Serializer provider can not be null.");
+		}
+		if (maxIdle <= 0) {
+			throw new IllegalArgumentException("Maximum amount of idle serializers must be positive.");
+		}
+
+		this.serializerProvider = serializerProvider;
+		this.idleSerializers = new ArrayBlockingQueue<T>(maxIdle);
+
+		int toCreate = Math.min(warmUp, maxIdle);
+		for (int i = 0; i < toCreate; i++) {
+			idleSerializers.offer(createSerializer());
+		}
+	}
+
+	/**
+	 * Borrows the serializer from the pool. If no serializer is available a new one is created.
+	 * Caller must return the serializer with {@link #returnSerializer(ISerializer)} when done.
+	 *
+	 * @return Serializer that can be exclusively used by the caller until returned.
+	 */
+	public T borrowSerializer() {
+		borrowCount.incrementAndGet();
+		T serializer = idleSerializers.poll();
+		if (null == serializer) {
+			serializer = createSerializer();
+		}
+		return serializer;
+	}
+
+	/**
+	 * Returns the serializer to the pool. If the pool is full the serializer is discarded.
+	 *
+	 * @param serializer
+	 *            Serializer previously borrowed with {@link #borrowSerializer()}.
+	 */
+	public void returnSerializer(T serializer) {
+		if (null == serializer) {
+			return;
+		}
+		if (!idleSerializers.offer(serializer)) {
+			discardedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize(Object object, Output output) throws SerializationException {
+		T serializer = borrowSerializer();
+		try {
+			serializer.serialize(object, output);
+		} finally {
+			returnSerializer(serializer);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize(Object object, Output output, Map<?, ?> kryoPreferences) throws SerializationException {
+		T serializer = borrowSerializer();
+		try {
+			serializer.serialize(object, output, kryoPreferences);
+		} finally {
+			returnSerializer(serializer);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object deserialize(Input input) throws SerializationException {
+		T serializer = borrowSerializer();
+		try {
+			return serializer.deserialize(input);
+		} finally {
+			returnSerializer(serializer);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object deserialize(Input input, Map<?, ?> kryoPreferences) throws SerializationException {
+		T serializer = borrowSerializer();
+		try {
+			return serializer.deserialize(input, kryoPreferences);
+		} finally {
+			returnSerializer(serializer);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <E> E copy(E object) {
+		T serializer = borrowSerializer();
+		try {
+			return serializer.copy(object);
+		} finally {
+			returnSerializer(serializer);
+		}
+	}
+
+	/**
+	 * Creates a new serializer.
+	 *
+	 * @return New serializer.
+	 */
+	private T createSerializer() {
+		createdCount.incrementAndGet();
+		return serializerProvider.createSerializer();
+	}
+
+	/**
+	 * Returns amount of borrow operations so far.
+	 *
+	 * @return Returns amount of borrow operations so far.
+	 */
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+
+	/**
+	 * Returns amount of serializers created so far, including the warm-up ones.
+	 *
+	 * @return Returns amount of serializers created so far.
+	 */
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+
+	/**
+	 * Returns amount of serializers discarded because pool was full when they were returned.
+	 *
+	 * @return Returns amount of discarded serializers.
+	 */
+	public long getDiscardedCount() {
+		return discardedCount.get();
+	}
+
+	/**
+	 * Returns amount of serializers currently idle in the pool.
+	 *
+	 * @return Returns amount of serializers currently idle in the pool.
+	 */
+	public int getIdleCount() {
+		return idleSerializers.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "SerializerPool [idle=" + getIdleCount() + ", borrowed=" + getBorrowCount() + ", created=" + getCreatedCount() + ", discarded=" + getDiscardedCount() + "]";
+	}
+
+}
@@ -81,9 +81,11 @@ import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.communication.data.VmArgumentData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData.AgentConnection;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
 import rocks.inspectit.shared.all.communication.data.cmr.CmrStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.communication.data.eum.AjaxRequest;
 import rocks.inspectit.shared.all.communication.data.eum.Beacon;
 import rocks.inspectit.shared.all.communication.data.eum.EUMSpan;
@@ -296,6 +298,8 @@ public class SerializationManager implements ISerializer, IKryoProvider, Initial
 		kryo.register(CmrStatusData.class, new FieldSerializer<CmrStatusData>(kryo, CmrStatusData.class));
 		kryo.register(AgentStatusData.class, new FieldSerializer<AgentStatusData>(kryo, AgentStatusData.class));
 		kryo.register(AgentConnection.class, new EnumSerializer(AgentConnection.class));
+		kryo.register(AgentTreeDelta.class, new FieldSerializer<AgentTreeDelta>(kryo, AgentTreeDelta.class));
+		kryo.register(IncrementalQueryResult.class, new FieldSerializer<IncrementalQueryResult<?>>(kryo, IncrementalQueryResult.class));
 
 		// INSPECTIT-849 - Hibernate uses Arrays.asList which does not have no-arg constructor
 		kryo.register(Arrays.asList().getClass(), new CollectionSerializer() {
@@ -464,6 +468,21 @@ public class SerializationManager implements ISerializer, IKryoProvider, Initial
 	 */
 	@Override
 	public Object deserialize(Input input) throws SerializationException {
+		return deserialize(input, Collections.emptyMap());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object deserialize(Input input, Map<?, ?> kryoPreferences) throws SerializationException {
+		if (MapUtils.isNotEmpty(kryoPreferences)) {
+			ObjectMap<Object, Object> graphContext = kryo.getGraphContext();
+			for (Entry<?, ?> entry : kryoPreferences.entrySet()) {
+				graphContext.put(entry.getKey(), entry.getValue());
+			}
+		}
 		Object object = null;
 		try {
 			object = kryo.readClassAndObject(input);
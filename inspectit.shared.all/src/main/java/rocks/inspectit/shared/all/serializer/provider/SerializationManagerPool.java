@@ -0,0 +1,39 @@
+package rocks.inspectit.shared.all.serializer.provider;
+
+import rocks.inspectit.shared.all.serializer.SerializerPool;
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+
+/**
+ * {@link SerializerPool} of the {@link SerializationManager}s created by the
+ * {@link SerializationManagerProvider}. Defined as a concrete type so that it can be wired by type.
+ *
+ * @author agent
+ *
+ */
+public class SerializationManagerPool extends SerializerPool<SerializationManager> {
+
+	/**
+	 * Creates pool with the default settings.
+	 *
+	 * @param serializationManagerProvider
+	 *            Provider for creating new serializers.
+	 */
+	public SerializationManagerPool(SerializationManagerProvider serializationManagerProvider) {
+		super(serializationManagerProvider);
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param serializationManagerProvider
+	 *            Provider for creating new serializers.
+	 * @param maxIdle
+	 *            Maximum amount of serializers kept in the pool.
+	 * @param warmUp
+	 *            Amount of serializers to create immediately.
+	 */
+	public SerializationManagerPool(SerializationManagerProvider serializationManagerProvider, int maxIdle, int warmUp) {
+		super(serializationManagerProvider, maxIdle, warmUp);
+	}
+
+}
@@ -14,6 +14,13 @@ public final class KryoSerializationPreferences {
 	 */
 	public static final String WRITE_INVOCATION_AFFILIATION_DATA = "WRITE_INVOCATION_AFFILIATION_DATA";
 
+	/**
+	 * Key that defines the {@link rocks.inspectit.shared.all.indexing.IIndexQuery} the read
+	 * objects are filtered with, so that the serializers can skip reading the parts of the objects
+	 * that can not comply the query.
+	 */
+	public static final String FILTER_QUERY = "FILTER_QUERY";
+
 	/**
 	 * Private constructor.
 	 */
@@ -3,9 +3,12 @@ package rocks.inspectit.shared.all.instrumentation.config.impl;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.util.Collections;
+
 import org.mockito.InjectMocks;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.shared.all.communication.data.ParameterContentType;
 import rocks.inspectit.shared.all.instrumentation.config.PriorityEnum;
 import rocks.inspectit.shared.all.testbase.TestBase;
 
@@ -75,4 +78,61 @@ public class SensorInstrumentationPointTest extends TestBase {
 			assertThat(sensorIds[1], is(1L));
 		}
 	}
+
+	public class Access extends SensorInstrumentationPointTest {
+
+		@Test
+		public void noAccess() {
+			registeredSensorConfig.addSensorId(1, PriorityEnum.MIN);
+
+			assertThat(registeredSensorConfig.isParametersAccess(), is(false));
+			assertThat(registeredSensorConfig.isTargetAccess(), is(false));
+			assertThat(registeredSensorConfig.isReturnValueAccess(), is(false));
+		}
+
+		@Test
+		public void fullAccess() {
+			registeredSensorConfig.addFullAccess();
+
+			assertThat(registeredSensorConfig.isParametersAccess(), is(true));
+			assertThat(registeredSensorConfig.isTargetAccess(), is(true));
+			assertThat(registeredSensorConfig.isReturnValueAccess(), is(true));
+		}
+
+		@Test
+		public void propertyAccessorParameter() {
+			PropertyPathStart propertyPathStart = new PropertyPathStart();
+			propertyPathStart.setContentType(ParameterContentType.PARAM);
+
+			registeredSensorConfig.addPropertyAccessor(propertyPathStart);
+
+			assertThat(registeredSensorConfig.isParametersAccess(), is(true));
+			assertThat(registeredSensorConfig.isTargetAccess(), is(false));
+			assertThat(registeredSensorConfig.isReturnValueAccess(), is(false));
+		}
+
+		@Test
+		public void propertyAccessorField() {
+			PropertyPathStart propertyPathStart = new PropertyPathStart();
+			propertyPathStart.setContentType(ParameterContentType.FIELD);
+
+			registeredSensorConfig.setPropertyAccessorList(Collections.singletonList(propertyPathStart));
+
+			assertThat(registeredSensorConfig.isParametersAccess(), is(false));
+			assertThat(registeredSensorConfig.isTargetAccess(), is(true));
+			assertThat(registeredSensorConfig.isReturnValueAccess(), is(false));
+		}
+
+		@Test
+		public void propertyAccessorReturn() {
+			PropertyPathStart propertyPathStart = new PropertyPathStart();
+			propertyPathStart.setContentType(ParameterContentType.RETURN);
+
+			registeredSensorConfig.addPropertyAccessor(propertyPathStart);
+
+			assertThat(registeredSensorConfig.isParametersAccess(), is(false));
+			assertThat(registeredSensorConfig.isTargetAccess(), is(false));
+			assertThat(registeredSensorConfig.isReturnValueAccess(), is(true));
+		}
+	}
 }
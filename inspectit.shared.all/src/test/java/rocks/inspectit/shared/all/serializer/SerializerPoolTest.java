@@ -0,0 +1,164 @@
+package rocks.inspectit.shared.all.serializer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link SerializerPool}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class SerializerPoolTest extends TestBase {
+
+	@Mock
+	ISerializerProvider<SerializationManager> serializerProvider;
+
+	@BeforeMethod
+	public void init() {
+		when(serializerProvider.createSerializer()).thenAnswer(new Answer<SerializationManager>() {
+			@Override
+			public SerializationManager answer(InvocationOnMock invocation) throws Throwable {
+				return mock(SerializationManager.class);
+			}
+		});
+	}
+
+	public static class Constructor extends SerializerPoolTest {
+
+		@Test
+		public void warmUp() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 4, 2);
+
+			assertThat(pool.getIdleCount(), is(2));
+			assertThat(pool.getCreatedCount(), is(2L));
+			verify(serializerProvider, times(2)).createSerializer();
+		}
+
+		@Test
+		public void warmUpBoundedByMaxIdle() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 2, 4);
+
+			assertThat(pool.getIdleCount(), is(2));
+			assertThat(pool.getCreatedCount(), is(2L));
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void noProvider() {
+			new SerializerPool<SerializationManager>(null, 2, 2);
+		}
+
+		@Test(expectedExceptions = IllegalArgumentException.class)
+		public void noMaxIdle() {
+			new SerializerPool<SerializationManager>(serializerProvider, 0, 0);
+		}
+	}
+
+	public static class BorrowSerializer extends SerializerPoolTest {
+
+		@Test
+		public void reused() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 2, 0);
+
+			SerializationManager first = pool.borrowSerializer();
+			pool.returnSerializer(first);
+			SerializationManager second = pool.borrowSerializer();
+
+			assertThat(second, is(sameInstance(first)));
+			assertThat(pool.getBorrowCount(), is(2L));
+			assertThat(pool.getCreatedCount(), is(1L));
+		}
+
+		@Test
+		public void createdOnMiss() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 2, 1);
+
+			SerializationManager first = pool.borrowSerializer();
+			SerializationManager second = pool.borrowSerializer();
+
+			assertThat(second, is(not(sameInstance(first))));
+			assertThat(pool.getIdleCount(), is(0));
+			assertThat(pool.getCreatedCount(), is(2L));
+		}
+	}
+
+	public static class ReturnSerializer extends SerializerPoolTest {
+
+		@Test
+		public void discardedWhenFull() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 1, 0);
+
+			SerializationManager first = pool.borrowSerializer();
+			SerializationManager second = pool.borrowSerializer();
+			pool.returnSerializer(first);
+			pool.returnSerializer(second);
+
+			assertThat(pool.getIdleCount(), is(1));
+			assertThat(pool.getDiscardedCount(), is(1L));
+		}
+
+		@Test
+		public void nullIgnored() {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 1, 0);
+
+			pool.returnSerializer(null);
+
+			assertThat(pool.getIdleCount(), is(0));
+			assertThat(pool.getDiscardedCount(), is(0L));
+		}
+	}
+
+	public static class Serialize extends SerializerPoolTest {
+
+		@Test
+		public void delegated() throws SerializationException {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 1, 1);
+			SerializationManager serializer = pool.borrowSerializer();
+			pool.returnSerializer(serializer);
+			Object object = new Object();
+			Output output = new Output(16);
+
+			pool.serialize(object, output);
+
+			verify(serializer).serialize(object, output);
+			assertThat(pool.getIdleCount(), is(1));
+		}
+
+		@Test
+		public void returnedOnException() throws SerializationException {
+			SerializerPool<SerializationManager> pool = new SerializerPool<SerializationManager>(serializerProvider, 1, 1);
+			SerializationManager serializer = pool.borrowSerializer();
+			pool.returnSerializer(serializer);
+			Object object = new Object();
+			Output output = new Output(16);
+			doThrow(new SerializationException()).when(serializer).serialize(object, output);
+
+			try {
+				pool.serialize(object, output);
+			} catch (SerializationException e) {
+				// expected
+			}
+
+			assertThat(pool.getIdleCount(), is(1));
+		}
+	}
+}
@@ -100,6 +100,14 @@ public class Environment extends AbstractCiData {
 	@XmlElement(name = "retransformation-strategy")
 	private RetransformationStrategy retransformationStrategy = ConfigurationDefaultsFactory.getDefaultRetransformationStrategy();
 
+	/**
+	 * Maximum allowed ratio between the agent overhead and the duration of an instrumented method.
+	 * Agent removes the instrumentation of the methods exceeding the budget. Zero or negative value
+	 * means that the automatic de-instrumentation is not active.
+	 */
+	@XmlElement(name = "method-overhead-budget")
+	private double methodOverheadBudget;
+
 	/**
 	 * Configuration for the disruptor strategy.
 	 * <p>
@@ -180,6 +188,25 @@ public class Environment extends AbstractCiData {
 		this.retransformationStrategy = retransformationStrategy;
 	}
 
+	/**
+	 * Gets {@link #methodOverheadBudget}.
+	 *
+	 * @return {@link #methodOverheadBudget}
+	 */
+	public double getMethodOverheadBudget() {
+		return this.methodOverheadBudget;
+	}
+
+	/**
+	 * Sets {@link #methodOverheadBudget}.
+	 *
+	 * @param methodOverheadBudget
+	 *            New value for {@link #methodOverheadBudget}
+	 */
+	public void setMethodOverheadBudget(double methodOverheadBudget) {
+		this.methodOverheadBudget = methodOverheadBudget;
+	}
+
 	/**
 	 * Gets {@link #profileIds}.
 	 *
@@ -268,6 +295,8 @@ public class Environment extends AbstractCiData {
 		result = (prime * result) + ((this.eumConfig == null) ? 0 : this.eumConfig.hashCode());
 		result = (prime * result) + ((this.exceptionSensorConfig == null) ? 0 : this.exceptionSensorConfig.hashCode());
 		result = (prime * result) + ((this.jmxSensorConfig == null) ? 0 : this.jmxSensorConfig.hashCode());
+		long temp = Double.doubleToLongBits(this.methodOverheadBudget);
+		result = (prime * result) + (int) (temp ^ (temp >>> 32));
 		result = (prime * result) + ((this.methodSensorConfigs == null) ? 0 : this.methodSensorConfigs.hashCode());
 		result = (prime * result) + ((this.platformSensorConfigs == null) ? 0 : this.platformSensorConfigs.hashCode());
 		result = (prime * result) + ((this.profileIds == null) ? 0 : this.profileIds.hashCode());
@@ -321,6 +350,9 @@ public class Environment extends AbstractCiData {
 		} else if (!this.jmxSensorConfig.equals(other.jmxSensorConfig)) {
 			return false;
 		}
+		if (Double.doubleToLongBits(this.methodOverheadBudget) != Double.doubleToLongBits(other.methodOverheadBudget)) {
+			return false;
+		}
 		if (this.methodSensorConfigs == null) {
 			if (other.methodSensorConfigs != null) {
 				return false;
@@ -1,5 +1,7 @@
 package rocks.inspectit.shared.cs.ci.sensor.exception.impl;
 
+import java.util.Map;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -37,6 +39,15 @@ public class ExceptionSensorConfig extends StringConstraintSensorConfig implemen
 	@XmlAttribute(name = "enhanced", required = true)
 	private boolean enhanced = false;
 
+	/**
+	 * Maximum amount of exceptions with the same stack trace captured per second. Exceptions above
+	 * the limit are only counted. Zero or negative value means no limit.
+	 * <p>
+	 * Default value is {@value #maxOccurrencesPerSecond}.
+	 */
+	@XmlAttribute(name = "max-occurrences-per-second")
+	private int maxOccurrencesPerSecond = 100;
+
 	/**
 	 * No-args constructor.
 	 */
@@ -68,6 +79,16 @@ public class ExceptionSensorConfig extends StringConstraintSensorConfig implemen
 		return enhanced;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Object> getParameters() {
+		Map<String, Object> parameters = super.getParameters();
+		parameters.put("maxOccurrencesPerSecond", String.valueOf(maxOccurrencesPerSecond));
+		return parameters;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -94,6 +115,25 @@ public class ExceptionSensorConfig extends StringConstraintSensorConfig implemen
 		this.enhanced = enhanced;
 	}
 
+	/**
+	 * Gets {@link #maxOccurrencesPerSecond}.
+	 *
+	 * @return {@link #maxOccurrencesPerSecond}
+	 */
+	public int getMaxOccurrencesPerSecond() {
+		return maxOccurrencesPerSecond;
+	}
+
+	/**
+	 * Sets {@link #maxOccurrencesPerSecond}.
+	 *
+	 * @param maxOccurrencesPerSecond
+	 *            New value for {@link #maxOccurrencesPerSecond}
+	 */
+	public void setMaxOccurrencesPerSecond(int maxOccurrencesPerSecond) {
+		this.maxOccurrencesPerSecond = maxOccurrencesPerSecond;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -102,6 +142,7 @@ public class ExceptionSensorConfig extends StringConstraintSensorConfig implemen
 		final int prime = 31;
 		int result = super.hashCode();
 		result = (prime * result) + (enhanced ? 1231 : 1237);
+		result = (prime * result) + maxOccurrencesPerSecond;
 		return result;
 	}
 
@@ -123,6 +164,9 @@ public class ExceptionSensorConfig extends StringConstraintSensorConfig implemen
 		if (enhanced != other.enhanced) {
 			return false;
 		}
+		if (maxOccurrencesPerSecond != other.maxOccurrencesPerSecond) {
+			return false;
+		}
 		return true;
 	}
 
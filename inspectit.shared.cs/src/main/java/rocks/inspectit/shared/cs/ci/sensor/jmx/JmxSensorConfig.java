@@ -1,6 +1,6 @@
 package rocks.inspectit.shared.cs.ci.sensor.jmx;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -8,6 +8,7 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
 import rocks.inspectit.shared.cs.ci.sensor.ISensorConfig;
 
 /**
@@ -46,6 +47,39 @@ public class JmxSensorConfig implements ISensorConfig {
 	@XmlAttribute(name = "forceMBeanServerCreation")
 	private boolean forceMBeanServer = false;
 
+	/**
+	 * Option to send only the attribute values that changed since the last collection. Unchanged
+	 * values are still sent once per {@link #heartbeatInterval}.
+	 * <p>
+	 * {@link JmxSensorTypeConfig#DEFAULT_ONLY_CHANGED_VALUES} by default.
+	 */
+	@XmlAttribute(name = "onlyChangedValues")
+	private Boolean onlyChangedValues = Boolean.valueOf(JmxSensorTypeConfig.DEFAULT_ONLY_CHANGED_VALUES);
+
+	/**
+	 * Interval in milliseconds the attributes are collected with.
+	 * <p>
+	 * {@link JmxSensorTypeConfig#DEFAULT_COLLECT_INTERVAL} by default.
+	 */
+	@XmlAttribute(name = "collectInterval")
+	private Long collectInterval = Long.valueOf(JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL);
+
+	/**
+	 * Interval in milliseconds after which an unchanged attribute value is sent again.
+	 * <p>
+	 * {@link JmxSensorTypeConfig#DEFAULT_HEARTBEAT_INTERVAL} by default.
+	 */
+	@XmlAttribute(name = "heartbeatInterval")
+	private Long heartbeatInterval = Long.valueOf(JmxSensorTypeConfig.DEFAULT_HEARTBEAT_INTERVAL);
+
+	/**
+	 * Maximum interval in milliseconds an attribute whose value does not change is read with.
+	 * <p>
+	 * {@link JmxSensorTypeConfig#DEFAULT_MAX_COLLECT_INTERVAL} by default.
+	 */
+	@XmlAttribute(name = "maxCollectInterval")
+	private Long maxCollectInterval = Long.valueOf(JmxSensorTypeConfig.DEFAULT_MAX_COLLECT_INTERVAL);
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -67,7 +101,13 @@ public class JmxSensorConfig implements ISensorConfig {
 	 */
 	@Override
 	public Map<String, Object> getParameters() {
-		return Collections.<String, Object> singletonMap("forceMBeanServer", forceMBeanServer);
+		Map<String, Object> parameters = new HashMap<>(8);
+		parameters.put("forceMBeanServer", forceMBeanServer);
+		parameters.put(JmxSensorTypeConfig.ONLY_CHANGED_VALUES_KEY, isOnlyChangedValues());
+		parameters.put(JmxSensorTypeConfig.COLLECT_INTERVAL_KEY, getCollectInterval());
+		parameters.put(JmxSensorTypeConfig.HEARTBEAT_INTERVAL_KEY, getHeartbeatInterval());
+		parameters.put(JmxSensorTypeConfig.MAX_COLLECT_INTERVAL_KEY, getMaxCollectInterval());
+		return parameters;
 	}
 
 	/**
@@ -108,6 +148,82 @@ public class JmxSensorConfig implements ISensorConfig {
 		this.forceMBeanServer = forceMBeanServer;
 	}
 
+	/**
+	 * Gets {@link #onlyChangedValues}.
+	 *
+	 * @return {@link #onlyChangedValues}
+	 */
+	public boolean isOnlyChangedValues() {
+		return (null == this.onlyChangedValues) ? JmxSensorTypeConfig.DEFAULT_ONLY_CHANGED_VALUES : this.onlyChangedValues.booleanValue();
+	}
+
+	/**
+	 * Sets {@link #onlyChangedValues}.
+	 *
+	 * @param onlyChangedValues
+	 *            New value for {@link #onlyChangedValues}
+	 */
+	public void setOnlyChangedValues(boolean onlyChangedValues) {
+		this.onlyChangedValues = Boolean.valueOf(onlyChangedValues);
+	}
+
+	/**
+	 * Gets {@link #collectInterval}.
+	 *
+	 * @return {@link #collectInterval}
+	 */
+	public long getCollectInterval() {
+		return (null == this.collectInterval) ? JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL : this.collectInterval.longValue();
+	}
+
+	/**
+	 * Sets {@link #collectInterval}.
+	 *
+	 * @param collectInterval
+	 *            New value for {@link #collectInterval}
+	 */
+	public void setCollectInterval(long collectInterval) {
+		this.collectInterval = Long.valueOf(collectInterval);
+	}
+
+	/**
+	 * Gets {@link #heartbeatInterval}.
+	 *
+	 * @return {@link #heartbeatInterval}
+	 */
+	public long getHeartbeatInterval() {
+		return (null == this.heartbeatInterval) ? JmxSensorTypeConfig.DEFAULT_HEARTBEAT_INTERVAL : this.heartbeatInterval.longValue();
+	}
+
+	/**
+	 * Sets {@link #heartbeatInterval}.
+	 *
+	 * @param heartbeatInterval
+	 *            New value for {@link #heartbeatInterval}
+	 */
+	public void setHeartbeatInterval(long heartbeatInterval) {
+		this.heartbeatInterval = Long.valueOf(heartbeatInterval);
+	}
+
+	/**
+	 * Gets {@link #maxCollectInterval}.
+	 *
+	 * @return {@link #maxCollectInterval}
+	 */
+	public long getMaxCollectInterval() {
+		return (null == this.maxCollectInterval) ? JmxSensorTypeConfig.DEFAULT_MAX_COLLECT_INTERVAL : this.maxCollectInterval.longValue();
+	}
+
+	/**
+	 * Sets {@link #maxCollectInterval}.
+	 *
+	 * @param maxCollectInterval
+	 *            New value for {@link #maxCollectInterval}
+	 */
+	public void setMaxCollectInterval(long maxCollectInterval) {
+		this.maxCollectInterval = Long.valueOf(maxCollectInterval);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -117,6 +233,13 @@ public class JmxSensorConfig implements ISensorConfig {
 		int result = 1;
 		result = (prime * result) + (this.active ? 1231 : 1237);
 		result = (prime * result) + (this.forceMBeanServer ? 1231 : 1237);
+		result = (prime * result) + (isOnlyChangedValues() ? 1231 : 1237);
+		long collect = getCollectInterval();
+		result = (prime * result) + (int) (collect ^ (collect >>> 32));
+		long heartbeat = getHeartbeatInterval();
+		result = (prime * result) + (int) (heartbeat ^ (heartbeat >>> 32));
+		long maxCollect = getMaxCollectInterval();
+		result = (prime * result) + (int) (maxCollect ^ (maxCollect >>> 32));
 		return result;
 	}
 
@@ -141,6 +264,18 @@ public class JmxSensorConfig implements ISensorConfig {
 		if (this.forceMBeanServer != other.forceMBeanServer) {
 			return false;
 		}
+		if (this.isOnlyChangedValues() != other.isOnlyChangedValues()) {
+			return false;
+		}
+		if (this.getCollectInterval() != other.getCollectInterval()) {
+			return false;
+		}
+		if (this.getHeartbeatInterval() != other.getHeartbeatInterval()) {
+			return false;
+		}
+		if (this.getMaxCollectInterval() != other.getMaxCollectInterval()) {
+			return false;
+		}
 		return true;
 	}
 
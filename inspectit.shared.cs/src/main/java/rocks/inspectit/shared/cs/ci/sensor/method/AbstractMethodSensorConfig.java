@@ -33,6 +33,14 @@ public abstract class AbstractMethodSensorConfig implements IMethodSensorConfig
 		return Collections.emptyMap();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
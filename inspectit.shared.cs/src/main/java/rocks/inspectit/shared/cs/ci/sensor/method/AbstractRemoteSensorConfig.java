@@ -51,6 +51,14 @@ public abstract class AbstractRemoteSensorConfig implements IMethodSensorConfig
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -35,4 +35,14 @@ public interface IMethodSensorConfig extends ISensorConfig {
 	 */
 	boolean isAdvanced();
 
+	/**
+	 * Defines if the sensor hook accesses the object the method is executed on, the parameters or
+	 * the return value of the instrumented method. If none of the sensors on a method accesses
+	 * them, the agent instrumentation does not pass them to the hooks, thus saving the creation of
+	 * the parameter array and boxing of primitives on every call.
+	 *
+	 * @return Returns <code>true</code> if sensor hook accesses the method call context.
+	 */
+	boolean isCallContextAccess();
+
 }
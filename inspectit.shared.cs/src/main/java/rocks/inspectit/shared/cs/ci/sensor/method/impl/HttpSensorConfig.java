@@ -85,6 +85,14 @@ public class HttpSensorConfig extends StringConstraintSensorConfig implements IM
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
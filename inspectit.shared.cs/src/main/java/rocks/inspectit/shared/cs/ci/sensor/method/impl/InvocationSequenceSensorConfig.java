@@ -64,4 +64,15 @@ public class InvocationSequenceSensorConfig extends StringConstraintSensorConfig
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The hook only accesses the method data when the property accessor is defined, which is
+	 * considered separately.
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return false;
+	}
+
 }
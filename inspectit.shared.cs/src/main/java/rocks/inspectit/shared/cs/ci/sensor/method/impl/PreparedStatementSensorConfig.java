@@ -64,4 +64,12 @@ public class PreparedStatementSensorConfig extends StringConstraintSensorConfig
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return true;
+	}
+
 }
@@ -64,4 +64,12 @@ public class StatementSensorConfig extends StringConstraintSensorConfig implemen
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return true;
+	}
+
 }
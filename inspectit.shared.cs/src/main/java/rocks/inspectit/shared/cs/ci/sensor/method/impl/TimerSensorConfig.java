@@ -64,4 +64,15 @@ public class TimerSensorConfig extends StringConstraintSensorConfig implements I
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The hook only accesses the method data when the property accessor is defined, which is
+	 * considered separately.
+	 */
+	@Override
+	public boolean isCallContextAccess() {
+		return false;
+	}
+
 }
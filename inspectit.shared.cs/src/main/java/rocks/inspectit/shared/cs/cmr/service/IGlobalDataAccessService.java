@@ -10,6 +10,8 @@ import rocks.inspectit.shared.all.cmr.service.ServiceExporterType;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 
 /**
@@ -48,6 +50,24 @@ public interface IGlobalDataAccessService {
 	 */
 	PlatformIdent getCompleteAgent(long id) throws BusinessException;
 
+	/**
+	 * Returns the changes of the agent sensor/method tree since the given version. Clients that
+	 * keep the tree should pass the version of the last delta they applied, so that only the
+	 * changed method idents and JMX definitions are transferred. If the changes since the given
+	 * version are not available anymore or the version is not known (like <code>0</code>), the
+	 * delta holds the complete tree.
+	 *
+	 * @param id
+	 *            Id of wanted agent.
+	 * @param sinceVersion
+	 *            Version of the tree known to the client, <code>0</code> if the tree is not
+	 *            known.
+	 * @return {@link AgentTreeDelta} to apply to the known tree.
+	 * @throws BusinessException
+	 *             If given ID of the agent is not valid.
+	 */
+	AgentTreeDelta getAgentTreeChanges(long id, long sinceVersion) throws BusinessException;
+
 	/**
 	 * Deletes the Agent completely.
 	 *
@@ -59,6 +79,16 @@ public interface IGlobalDataAccessService {
 	 */
 	void deleteAgent(long platformId) throws BusinessException;
 
+	/**
+	 * Returns the overhead statistics of the instrumented methods last reported by the Agent.
+	 *
+	 * @param platformId
+	 *            Id of the Agent.
+	 * @return Overhead statistics of the instrumented methods sorted by the overhead ratio, highest
+	 *         first. Empty list if the Agent did not report any statistics.
+	 */
+	List<MethodOverheadData> getMethodOverhead(long platformId);
+
 	/**
 	 * Returns the last saved data objects (with the given time interval). Returns a list of
 	 * {@link DefaultData} objects.
@@ -7,8 +7,11 @@ import java.util.List;
 import rocks.inspectit.shared.all.cmr.service.ServiceExporterType;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequenceNode;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequencePager;
 
 /**
  * Service interface which defines the methods to retrieve data objects based on the invocation
@@ -178,6 +181,29 @@ public interface IInvocationDataAccessService {
 	 */
 	List<InvocationSequenceData> getInvocationSequenceOverview(String alertId, int limit, ResultComparator<InvocationSequenceData> resultComparator) throws BusinessException;
 
+	/**
+	 * Returns a list of {@link InvocationSequenceData} objects which contain no associations to
+	 * other objects and that were added after the previous query. The list is sorted and limited
+	 * in the same way as the complete overview, thus the client can merge it with the result of
+	 * the previous query, unless the result is complete.
+	 *
+	 * @param platformId
+	 *            The ID of the platform.
+	 * @param methodId
+	 *            The ID of the method. If the zero value is passed, invocations of all methods are
+	 *            returned.
+	 * @param sinceId
+	 *            The {@link IncrementalQueryResult#getLastId()} of the previous result or
+	 *            <code>0</code> to get the complete result.
+	 * @param limit
+	 *            The limit/size of the list. Value <code>-1</code> means no limit.
+	 * @param resultComparator
+	 *            Comparator that will be used to sort the results. Can be <code>null</code> and in
+	 *            that case no sorting will be done.
+	 * @return {@link IncrementalQueryResult} with the invocation sequences.
+	 */
+	IncrementalQueryResult<InvocationSequenceData> getInvocationSequenceOverviewSince(long platformId, long methodId, long sinceId, int limit, ResultComparator<InvocationSequenceData> resultComparator);
+
 	/**
 	 * This service method is used to get all the details of a specific invocation sequence.
 	 *
@@ -196,4 +222,31 @@ public interface IInvocationDataAccessService {
 	 * @return The detailed invocation sequence objects.
 	 */
 	Collection<InvocationSequenceData> getInvocationSequenceDetail(long traceId);
+
+	/**
+	 * This service method is used to get one page of the details of a specific invocation
+	 * sequence. The page contains the element on the given path with the window of its children,
+	 * expanded for the given number of levels and optionally along the hot path. Every element
+	 * holds the summary of its subtree, thus the not loaded subtrees can be displayed and fetched
+	 * on demand by calling this method with the path of the element to expand.
+	 *
+	 * @param template
+	 *            The template data object.
+	 * @param path
+	 *            Positions of the page element in the parent elements starting from the root. Empty
+	 *            array or <code>null</code> denotes the root of the invocation.
+	 * @param offset
+	 *            Position of the first child of the page element to include.
+	 * @param limit
+	 *            Maximum amount of children to include per element. Zero or negative value means
+	 *            no limit.
+	 * @param levels
+	 *            Number of levels to expand below the page element.
+	 * @param expandHotPath
+	 *            If the path of the children with highest duration should be expanded until the
+	 *            leaf.
+	 * @return The page element or <code>null</code> if the invocation or the path does not exist.
+	 * @see InvocationSequencePager
+	 */
+	InvocationSequenceNode getInvocationSequenceDetailPage(InvocationSequenceData template, int[] path, int offset, int limit, int levels, boolean expandHotPath);
 }
@@ -38,4 +38,20 @@ public interface IJmxDataAccessService {
 	 * @return The list of jmx value data.
 	 */
 	List<JmxSensorValueData> getJmxDataOverview(JmxSensorValueData jmxSensorValueData, Date fromDate, Date toDate);
-}
\ No newline at end of file
+
+	/**
+	 * Returns the captured jmx data for a given template in a time frame that can be used for
+	 * charting. The JMX sensor sends only changed values, thus the gaps between the captured values
+	 * are filled with the last known value of each attribute. In the template, the platform id,
+	 * sensor type id and jmx definition data ident id are extracted.
+	 *
+	 * @param jmxSensorValueData
+	 *            The template containing the platform id.
+	 * @param fromDate
+	 *            Date to include data from.
+	 * @param toDate
+	 *            Date to include data to.
+	 * @return The list of jmx value data sorted by time stamp.
+	 */
+	List<JmxSensorValueData> getJmxDataFromToDate(JmxSensorValueData jmxSensorValueData, Date fromDate, Date toDate);
+}
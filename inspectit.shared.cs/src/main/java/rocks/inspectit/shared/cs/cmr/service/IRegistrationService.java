@@ -114,6 +114,19 @@ public interface IRegistrationService {
 	 */
 	void addSensorTypeToMethod(long platformId, long methodSensorTypeIdent, long methodIdent);
 
+	/**
+	 * Maps all given registered method sensor types to the registered methods in one call. This is
+	 * the bulk variant of the {@link #addSensorTypeToMethod(long, long, long)} that should be used
+	 * when the agent reports the complete instrumentation batch.
+	 *
+	 * @param platformId
+	 *            The unique identifier of the platform.
+	 * @param methodToSensorMap
+	 *            Map containing the unique identifiers of the methods as keys and the unique
+	 *            identifiers of the sensor types instrumented on the method as values.
+	 */
+	void addSensorTypesToMethods(long platformId, Map<Long, long[]> methodToSensorMap);
+
 	/**
 	 * Every sensor type which gathers information about the target platform/system has to be
 	 * registered by calling this method.
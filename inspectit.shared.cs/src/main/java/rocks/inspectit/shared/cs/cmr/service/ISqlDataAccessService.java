@@ -6,6 +6,7 @@ import java.util.List;
 import rocks.inspectit.shared.all.cmr.service.ServiceExporterType;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 
 /**
  * @author Patrice Bouillet
@@ -40,6 +41,21 @@ public interface ISqlDataAccessService {
 	 */
 	List<SqlStatementData> getAggregatedSqlStatements(SqlStatementData sqlStatementData, Date fromDate, Date toDate);
 
+	/**
+	 * Returns the aggregation of the SQL statements added after the previous query for a given
+	 * template. In the template, only the platform id is extracted. If the template holds the SQL
+	 * query string, only objects with this query string will be returned. The result can be
+	 * aggregated with the result of the previous query, unless it's complete.
+	 *
+	 * @param sqlStatementData
+	 *            The template containing the platform id.
+	 * @param sinceId
+	 *            The {@link IncrementalQueryResult#getLastId()} of the previous result or
+	 *            <code>0</code> to get the complete result.
+	 * @return {@link IncrementalQueryResult} with the aggregated SQL statements.
+	 */
+	IncrementalQueryResult<SqlStatementData> getAggregatedSqlStatementsSince(SqlStatementData sqlStatementData, long sinceId);
+
 	/**
 	 * Returns a list of the SQL statements for a given template aggregated by the parameters. In
 	 * the template, only the platform id is extracted. If the template holds the SQL query string,
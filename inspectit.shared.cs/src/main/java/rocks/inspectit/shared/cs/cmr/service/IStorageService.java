@@ -9,7 +9,9 @@ import rocks.inspectit.shared.all.cmr.service.ServiceExporterType;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.exception.BusinessException;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.communication.data.cmr.RecordingData;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.storage.IStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.label.AbstractStorageLabel;
@@ -216,7 +218,8 @@ public interface IStorageService {
 	/**
 	 * Returns the map of the string/long pairs that represent the path to the index files for one
 	 * storage and their size in bytes. The paths are in form "/directory/file.extension". These
-	 * paths can be used in combination to CMR's ip and port to get the files via HTTP.
+	 * paths can be used in combination to CMR's ip and port to get the files via HTTP. The index
+	 * leaf files belonging to the index files are included.
 	 * <p>
 	 * For example, if the CMR has the ip localhost and port 8080, the address for the file would
 	 * be: http://localhost:8080/directory/file.extension
@@ -565,4 +568,31 @@ public interface IStorageService {
 	 */
 	String getCachedStorageDataFileLocation(StorageData storageData, int hash) throws BusinessException;
 
+	/**
+	 * Executes the query directly against the files of the storage and returns only the data that
+	 * complies the query. If the {@link IAggregator} is not <code>null</code> then the results will
+	 * be aggregated based on the given {@link IAggregator}. Furthermore the result list can be
+	 * limited.
+	 * <p>
+	 * This avoids transferring all the data described by the storage index to the client, which
+	 * would then have to filter it.
+	 *
+	 * @param <E>
+	 *            Type of the data returned.
+	 * @param storageData
+	 *            Storage to query.
+	 * @param query
+	 *            Query to execute.
+	 * @param aggregator
+	 *            {@link IAggregator}. Pass <code>null</code> if no aggregation is needed.
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 *            The limit is ignored when the results are aggregated.
+	 * @return Data that complies the query.
+	 * @throws BusinessException
+	 *             If storage does not exist or it is not finalized. If reading the storage data
+	 *             fails.
+	 */
+	<E extends DefaultData> List<E> executeQuery(StorageData storageData, IIndexQuery query, IAggregator<E> aggregator, int limit) throws BusinessException;
+
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import rocks.inspectit.shared.all.cmr.service.ServiceExporterType;
 import rocks.inspectit.shared.all.cmr.service.ServiceInterface;
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 
 /**
  * Service for providing general timer data objects.
@@ -39,4 +40,18 @@ public interface ITimerDataAccessService {
 	 * @return The list of the timer data object.
 	 */
 	List<TimerData> getAggregatedTimerData(TimerData timerData, Date fromDate, Date toDate);
+
+	/**
+	 * Returns the aggregation of the timer data added after the previous query for a given
+	 * template. In this template, only the platform id is extracted. The result can be aggregated
+	 * with the result of the previous query, unless it's complete.
+	 *
+	 * @param timerData
+	 *            The template containing the platform id.
+	 * @param sinceId
+	 *            The {@link IncrementalQueryResult#getLastId()} of the previous result or
+	 *            <code>0</code> to get the complete result.
+	 * @return {@link IncrementalQueryResult} with the aggregated timer data objects.
+	 */
+	IncrementalQueryResult<TimerData> getAggregatedTimerDataSince(TimerData timerData, long sinceId);
 }
@@ -1,6 +1,8 @@
 package rocks.inspectit.shared.cs.cmr.service.cache;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
@@ -15,6 +17,7 @@ import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.cmr.model.SensorTypeIdent;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -79,6 +82,12 @@ public class CachedDataService implements InitializingBean, ICachedDataService {
 	 */
 	private Map<Long, JmxDefinitionDataIdent> jmxDefinitionDataMap = new ConcurrentHashMap<>();
 
+	/**
+	 * Versions of the agent trees in the {@link #platformMap}, used to load only the changes on
+	 * refresh.
+	 */
+	private Map<Long, Long> platformVersionMap = new ConcurrentHashMap<>();
+
 	/**
 	 * This map is needed to store the mapping between the ID's and the {@link ApplicationData}
 	 * objects. Some views / editors need this information because they can only access the ID.
@@ -136,6 +145,8 @@ public class CachedDataService implements InitializingBean, ICachedDataService {
 	public void refreshData(PlatformIdent platformIdent) {
 		platformMap.remove(platformIdent.getId());
 		platformMap.put(platformIdent.getId(), platformIdent);
+		// version of the given tree is not known, next refresh loads the complete tree
+		platformVersionMap.remove(platformIdent.getId());
 
 		for (MethodIdent methodIdent : platformIdent.getMethodIdents()) {
 			methodMap.remove(methodIdent.getId());
@@ -235,36 +246,67 @@ public class CachedDataService implements InitializingBean, ICachedDataService {
 	}
 
 	/**
-	 * Internal refresh of the idents. Currently everything is loaded again.
+	 * Internal refresh of the idents. For the agents already in the cache only the changes since
+	 * the cached version of the agent tree are loaded, the complete tree is loaded only for new
+	 * agents or when the CMR can not provide the changes. If any cached agent does not exist
+	 * anymore, the complete cache is cleared and loaded again.
 	 */
 	protected void refreshIdents() {
 		Map<PlatformIdent, AgentStatusData> agentMap = globalDataAccessService.getAgentsOverview();
-		platformMap.clear();
-		methodMap.clear();
-		sensorTypeMap.clear();
-		jmxDefinitionDataMap.clear();
+
+		Set<Long> agentIds = new HashSet<>();
+		for (PlatformIdent overview : agentMap.keySet()) {
+			agentIds.add(overview.getId());
+		}
+		if (!agentIds.containsAll(platformMap.keySet())) {
+			platformMap.clear();
+			methodMap.clear();
+			sensorTypeMap.clear();
+			jmxDefinitionDataMap.clear();
+			platformVersionMap.clear();
+		}
 
 		for (PlatformIdent overview : agentMap.keySet()) {
-			PlatformIdent platformIdent;
+			Long platformId = overview.getId();
+			PlatformIdent cached = platformMap.get(platformId);
+			Long cachedVersion = platformVersionMap.get(platformId);
+			long sinceVersion = ((null != cached) && (null != cachedVersion)) ? cachedVersion.longValue() : 0L;
+
+			AgentTreeDelta delta;
 			try {
-				platformIdent = globalDataAccessService.getCompleteAgent(overview.getId());
+				delta = globalDataAccessService.getAgentTreeChanges(platformId, sinceVersion);
 			} catch (BusinessException e) {
 				LOG.warn("Exception occurred trying to refresh sensor information for the agent " + overview.getAgentName() + ".", e);
 				continue;
 			}
-			platformMap.put(platformIdent.getId(), platformIdent);
 
-			for (MethodIdent methodIdent : platformIdent.getMethodIdents()) {
-				methodMap.put(methodIdent.getId(), methodIdent);
-			}
+			if (delta.isComplete()) {
+				PlatformIdent platformIdent = delta.getPlatformIdent();
+				platformMap.put(platformId, platformIdent);
 
-			for (SensorTypeIdent sensorTypeIdent : platformIdent.getSensorTypeIdents()) {
-				sensorTypeMap.put(sensorTypeIdent.getId(), sensorTypeIdent);
-			}
+				for (MethodIdent methodIdent : platformIdent.getMethodIdents()) {
+					methodMap.put(methodIdent.getId(), methodIdent);
+				}
+
+				for (SensorTypeIdent sensorTypeIdent : platformIdent.getSensorTypeIdents()) {
+					sensorTypeMap.put(sensorTypeIdent.getId(), sensorTypeIdent);
+				}
+
+				for (JmxDefinitionDataIdent jmxDefinitionDataIdent : platformIdent.getJmxDefinitionDataIdents()) {
+					jmxDefinitionDataMap.put(jmxDefinitionDataIdent.getId(), jmxDefinitionDataIdent);
+				}
+			} else if (!delta.isEmpty()) {
+				platformMap.put(platformId, delta.applyTo(cached));
+
+				for (MethodIdent methodIdent : delta.getMethodIdents()) {
+					methodMap.put(methodIdent.getId(), methodIdent);
+				}
 
-			for (JmxDefinitionDataIdent jmxDefinitionDataIdent : platformIdent.getJmxDefinitionDataIdents()) {
-				jmxDefinitionDataMap.put(jmxDefinitionDataIdent.getId(), jmxDefinitionDataIdent);
+				for (JmxDefinitionDataIdent jmxDefinitionDataIdent : delta.getJmxDefinitionDataIdents()) {
+					jmxDefinitionDataMap.put(jmxDefinitionDataIdent.getId(), jmxDefinitionDataIdent);
+				}
 			}
+			platformVersionMap.put(platformId, delta.getVersion());
 		}
 	}
 
@@ -0,0 +1,182 @@
+package rocks.inspectit.shared.cs.communication.data;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+import rocks.inspectit.shared.all.instrumentation.config.impl.JmxSensorTypeConfig;
+import rocks.inspectit.shared.cs.ci.sensor.jmx.JmxSensorConfig;
+
+/**
+ * Helper class for the {@link JmxSensorValueData} objects. The JMX sensor sends only values that
+ * changed since the last collection (plus a periodic heartbeat), thus the helper can restore the
+ * continuous series needed for charting.
+ *
+ * @author agent
+ *
+ */
+public final class JmxSensorValueDataHelper {
+
+	/**
+	 * Interval of the filled values in milliseconds when the sensor configuration is not known.
+	 * Matches the default collection interval of the JMX sensor.
+	 */
+	public static final long DEFAULT_FILL_INTERVAL = JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL;
+
+	/**
+	 * Maximum time in milliseconds a value is considered valid after it has been collected, when
+	 * the sensor configuration is not known. Matches the maximum fill gap of the default sensor
+	 * configuration.
+	 */
+	public static final long DEFAULT_MAX_FILL_GAP = JmxSensorTypeConfig.DEFAULT_HEARTBEAT_INTERVAL + JmxSensorTypeConfig.DEFAULT_MAX_COLLECT_INTERVAL
+			+ JmxSensorTypeConfig.DEFAULT_COLLECT_INTERVAL;
+
+	/**
+	 * Comparator on the time stamp.
+	 */
+	private static final Comparator<JmxSensorValueData> TIMESTAMP_COMPARATOR = new Comparator<JmxSensorValueData>() {
+		@Override
+		public int compare(JmxSensorValueData o1, JmxSensorValueData o2) {
+			return o1.getTimeStamp().compareTo(o2.getTimeStamp());
+		}
+	};
+
+	/**
+	 * Private constructor for utility class.
+	 */
+	private JmxSensorValueDataHelper() {
+	}
+
+	/**
+	 * Returns the interval of the filled values for the given sensor configuration, which is the
+	 * collection interval of the sensor.
+	 *
+	 * @param jmxSensorConfig
+	 *            Configuration of the JMX sensor, can be <code>null</code>.
+	 * @return Interval of the filled values in milliseconds or {@link #DEFAULT_FILL_INTERVAL} if
+	 *         the configuration is not known.
+	 */
+	public static long getFillInterval(JmxSensorConfig jmxSensorConfig) {
+		if (null == jmxSensorConfig) {
+			return DEFAULT_FILL_INTERVAL;
+		}
+		return Math.max(1L, jmxSensorConfig.getCollectInterval());
+	}
+
+	/**
+	 * Returns the maximum time a value is considered valid after it has been collected for the
+	 * given sensor configuration. When only changed values are sent, an unchanged value is sent
+	 * again after the heartbeat interval at the first collection of the attribute, which can
+	 * happen up to the maximum collection interval later. One additional collection interval is
+	 * added as tolerance. Larger gaps are caused by missing data, thus they are only filled up to
+	 * this time.
+	 *
+	 * @param jmxSensorConfig
+	 *            Configuration of the JMX sensor, can be <code>null</code>.
+	 * @return Maximum fill gap in milliseconds or {@link #DEFAULT_MAX_FILL_GAP} if the
+	 *         configuration is not known.
+	 */
+	public static long getMaxFillGap(JmxSensorConfig jmxSensorConfig) {
+		if (null == jmxSensorConfig) {
+			return DEFAULT_MAX_FILL_GAP;
+		}
+		long fillInterval = getFillInterval(jmxSensorConfig);
+		if (!jmxSensorConfig.isOnlyChangedValues()) {
+			return 2 * fillInterval;
+		}
+		return jmxSensorConfig.getHeartbeatInterval() + Math.max(fillInterval, jmxSensorConfig.getMaxCollectInterval()) + fillInterval;
+	}
+
+	/**
+	 * Fills the gaps in the given data with the copies of the last known value. The data can
+	 * contain values of different JMX attributes, each attribute series is filled separately. The
+	 * returned list is sorted by time stamp.
+	 *
+	 * @param data
+	 *            Data to fill, all elements must have time stamp in the given period.
+	 * @param previousValues
+	 *            Last known values before the from date (one per attribute). Can be
+	 *            <code>null</code>.
+	 * @param fromDate
+	 *            Start of the period.
+	 * @param toDate
+	 *            End of the period.
+	 * @param fillInterval
+	 *            Interval of the filled values in milliseconds.
+	 * @param maxFillGap
+	 *            Maximum time a value is considered valid after it has been collected.
+	 * @return New list containing the original and the filled values.
+	 */
+	public static List<JmxSensorValueData> fillGaps(List<JmxSensorValueData> data, List<JmxSensorValueData> previousValues, Date fromDate, Date toDate, long fillInterval, long maxFillGap) {
+		List<JmxSensorValueData> all = new ArrayList<>();
+		if (CollectionUtils.isNotEmpty(previousValues)) {
+			all.addAll(previousValues);
+		}
+		if (CollectionUtils.isNotEmpty(data)) {
+			all.addAll(data);
+		}
+		Collections.sort(all, TIMESTAMP_COMPARATOR);
+
+		List<JmxSensorValueData> result = new ArrayList<>(all.size());
+		Map<Long, JmxSensorValueData> lastByIdent = new HashMap<>();
+		long from = fromDate.getTime();
+		long to = toDate.getTime();
+
+		for (JmxSensorValueData value : all) {
+			long time = value.getTimeStamp().getTime();
+			JmxSensorValueData last = lastByIdent.put(value.getJmxSensorDefinitionDataIdentId(), value);
+			if (null != last) {
+				fill(last, time - 1, from, fillInterval, maxFillGap, result);
+			}
+			if (time >= from) {
+				result.add(value);
+			}
+		}
+
+		// fill till the end of the period
+		for (JmxSensorValueData last : lastByIdent.values()) {
+			fill(last, to, from, fillInterval, maxFillGap, result);
+		}
+
+		Collections.sort(result, TIMESTAMP_COMPARATOR);
+		return result;
+	}
+
+	/**
+	 * Adds the copies of the given value to the result for every fill interval until the given end
+	 * time, but at most for the maximum fill gap after the time of the value.
+	 *
+	 * @param last
+	 *            Value to copy.
+	 * @param until
+	 *            Time until the fill is done (inclusive).
+	 * @param from
+	 *            Start of the period, no values before this time are filled.
+	 * @param fillInterval
+	 *            Interval of the filled values in milliseconds.
+	 * @param maxFillGap
+	 *            Maximum time a value is considered valid after it has been collected.
+	 * @param result
+	 *            List to add filled values to.
+	 */
+	private static void fill(JmxSensorValueData last, long until, long from, long fillInterval, long maxFillGap, List<JmxSensorValueData> result) {
+		long lastTime = last.getTimeStamp().getTime();
+		long end = Math.min(until, lastTime + maxFillGap);
+
+		// values from before the period are filled starting with the period start
+		long time = (lastTime < from) ? from : lastTime + fillInterval;
+		for (; time <= end; time += fillInterval) {
+			JmxSensorValueData copy = new JmxSensorValueData(last);
+			copy.setTimeStamp(new Timestamp(time));
+			result.add(copy);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package rocks.inspectit.shared.cs.data.invocationtree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * One element of the invocation sequence detail page. The node holds the copy of the invocation
+ * element without the nested sequences, the summary of the element subtree and only the children
+ * that were loaded with the page. The element is identified by the path of the child positions
+ * starting from the root of the invocation, thus the subtree of not loaded children can be fetched
+ * later with the same path.
+ *
+ * @author agent
+ *
+ * @see InvocationSequencePager
+ */
+public class InvocationSequenceNode {
+
+	/**
+	 * Positions of the element in the parent elements starting from the root. Empty for the root.
+	 */
+	private int[] path;
+
+	/**
+	 * Copy of the invocation element without nested sequences. The position of the data is the
+	 * position of the element in the parent.
+	 */
+	private InvocationSequenceData data;
+
+	/**
+	 * Summary of the element subtree.
+	 */
+	private InvocationSequenceSummary summary;
+
+	/**
+	 * Loaded children sorted by the position. Can contain only part of the children.
+	 */
+	private List<InvocationSequenceNode> children = new ArrayList<>(0);
+
+	/**
+	 * No-arg constructor.
+	 */
+	public InvocationSequenceNode() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param path
+	 *            Positions of the element in the parent elements starting from the root.
+	 * @param data
+	 *            Copy of the invocation element without nested sequences.
+	 * @param summary
+	 *            Summary of the element subtree.
+	 */
+	public InvocationSequenceNode(int[] path, InvocationSequenceData data, InvocationSequenceSummary summary) {
+		this.path = path;
+		this.data = data;
+		this.summary = summary;
+	}
+
+	/**
+	 * Returns if all children of the element are loaded.
+	 *
+	 * @return Returns if all children of the element are loaded.
+	 */
+	public boolean isChildrenComplete() {
+		return children.size() == summary.getNestedCount();
+	}
+
+	/**
+	 * Links the data of this node and of all loaded children to the invocation sequence, so that
+	 * the page can be displayed in the same way as the complete invocation. The nested sequences of
+	 * every element are the loaded children only, while the child count of every element is the
+	 * total child count from the summary. Note that the data of the nodes is changed by this
+	 * method.
+	 *
+	 * @return Data of this node as the root of the loaded invocation sequence.
+	 */
+	public InvocationSequenceData toInvocationSequence() {
+		Deque<InvocationSequenceNode> stack = new ArrayDeque<>();
+		stack.push(this);
+		while (!stack.isEmpty()) {
+			InvocationSequenceNode node = stack.pop();
+			List<InvocationSequenceData> nestedSequences = new ArrayList<>(node.children.size());
+			for (InvocationSequenceNode child : node.children) {
+				child.data.setParentSequence(node.data);
+				nestedSequences.add(child.data);
+				stack.push(child);
+			}
+			node.data.setNestedSequences(nestedSequences);
+			node.data.setChildCount(node.summary.getTotalChildCount());
+		}
+		return data;
+	}
+
+	/**
+	 * Returns the data of this node and of all loaded children that do not have all of their
+	 * children loaded. After {@link #toInvocationSequence()} these are exactly the elements of the
+	 * loaded invocation sequence whose nested sequences are only a part of the real ones. The
+	 * returned set compares the elements by identity.
+	 *
+	 * @return Data of the nodes with incomplete children.
+	 */
+	public Set<InvocationSequenceData> getTruncatedSequences() {
+		Set<InvocationSequenceData> truncated = Collections.newSetFromMap(new IdentityHashMap<InvocationSequenceData, Boolean>());
+		Deque<InvocationSequenceNode> stack = new ArrayDeque<>();
+		stack.push(this);
+		while (!stack.isEmpty()) {
+			InvocationSequenceNode node = stack.pop();
+			if (!node.isChildrenComplete()) {
+				truncated.add(node.data);
+			}
+			for (InvocationSequenceNode child : node.children) {
+				stack.push(child);
+			}
+		}
+		return truncated;
+	}
+
+	/**
+	 * Returns the path of the child on the given position.
+	 *
+	 * @param position
+	 *            Position of the child.
+	 * @return Path of the child.
+	 */
+	public int[] getChildPath(int position) {
+		int[] childPath = Arrays.copyOf(path, path.length + 1);
+		childPath[path.length] = position;
+		return childPath;
+	}
+
+	/**
+	 * Gets {@link #path}.
+	 *
+	 * @return {@link #path}
+	 */
+	public int[] getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Gets {@link #data}.
+	 *
+	 * @return {@link #data}
+	 */
+	public InvocationSequenceData getData() {
+		return this.data;
+	}
+
+	/**
+	 * Gets {@link #summary}.
+	 *
+	 * @return {@link #summary}
+	 */
+	public InvocationSequenceSummary getSummary() {
+		return this.summary;
+	}
+
+	/**
+	 * Gets {@link #children}.
+	 *
+	 * @return {@link #children}
+	 */
+	public List<InvocationSequenceNode> getChildren() {
+		return this.children;
+	}
+
+	/**
+	 * Sets {@link #children}.
+	 *
+	 * @param children
+	 *            New value for {@link #children}
+	 */
+	public void setChildren(List<InvocationSequenceNode> children) {
+		this.children = children;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "InvocationSequenceNode [path=" + Arrays.toString(path) + ", summary=" + summary + ", loadedChildren=" + children.size() + "]";
+	}
+
+}
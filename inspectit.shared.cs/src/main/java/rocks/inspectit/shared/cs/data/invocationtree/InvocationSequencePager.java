@@ -0,0 +1,329 @@
+package rocks.inspectit.shared.cs.data.invocationtree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.cs.communication.data.InvocationSequenceDataHelper;
+
+/**
+ * Creates the pages of the invocation sequence details, so that the complete invocation does not
+ * have to be transfered and displayed at once. The summaries of all elements are computed once
+ * when the pager is created, thus the pager should be kept as long as the pages of the same
+ * invocation are requested.
+ * <p>
+ * A page starts at the element defined by the path of child positions and contains the window of
+ * its children defined by the offset and limit. Children are further expanded for the given number
+ * of levels, where every expanded element contains at most limit children. Optionally the hot
+ * path, the chain of children with highest total duration, is expanded until the leaf regardless
+ * of the levels and the window.
+ * <p>
+ * This class is thread safe after construction.
+ *
+ * @author agent
+ *
+ */
+public class InvocationSequencePager {
+
+	/**
+	 * Root of the invocation.
+	 */
+	private final InvocationSequenceData invocation;
+
+	/**
+	 * Summaries of all elements in the invocation.
+	 */
+	private final Map<InvocationSequenceData, InvocationSequenceSummary> summaries = new IdentityHashMap<>();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param invocation
+	 *            Root of the invocation. Must contain all nested sequences.
+	 */
+	public InvocationSequencePager(InvocationSequenceData invocation) {
+		this.invocation = invocation;
+		summarize(invocation);
+	}
+
+	/**
+	 * Returns the page of the invocation.
+	 *
+	 * @param path
+	 *            Positions of the page element in the parent elements starting from the root. Empty
+	 *            array or <code>null</code> denotes the root of the invocation.
+	 * @param offset
+	 *            Position of the first child of the page element to include.
+	 * @param limit
+	 *            Maximum amount of children to include per element. Zero or negative value means
+	 *            no limit.
+	 * @param levels
+	 *            Number of levels to expand below the page element.
+	 * @param expandHotPath
+	 *            If the hot path below the page element should be expanded.
+	 * @return Page element or <code>null</code> if the path does not exist in the invocation.
+	 */
+	public InvocationSequenceNode getPage(int[] path, int offset, int limit, int levels, boolean expandHotPath) {
+		int[] elementPath = (null != path) ? path : new int[0];
+
+		InvocationSequenceData element = invocation;
+		for (int position : elementPath) {
+			List<InvocationSequenceData> nestedSequences = getNestedSequences(element);
+			if ((position < 0) || (position >= nestedSequences.size())) {
+				return null;
+			}
+			element = nestedSequences.get(position);
+		}
+
+		InvocationSequenceNode node = createNode(elementPath, element);
+		expand(node, element, offset, limit, levels, expandHotPath);
+		return node;
+	}
+
+	/**
+	 * Returns the summary of the root of the invocation.
+	 *
+	 * @return Summary of the root of the invocation.
+	 */
+	public InvocationSequenceSummary getSummary() {
+		return summaries.get(invocation);
+	}
+
+	/**
+	 * Returns the number of elements in the invocation, including the root. Can be used to weigh
+	 * the pager when caching, as the pager holds the summary of each element.
+	 *
+	 * @return Number of elements in the invocation.
+	 */
+	public int getElementCount() {
+		return summaries.size();
+	}
+
+	/**
+	 * Adds the children to the node and expands them further. The expansion is done with the
+	 * queue of pending elements instead of the recursion, so that the deep invocations can not
+	 * overflow the stack.
+	 *
+	 * @param node
+	 *            Node to add children to.
+	 * @param element
+	 *            Invocation element of the node.
+	 * @param offset
+	 *            Position of the first child to include.
+	 * @param limit
+	 *            Maximum amount of children to include.
+	 * @param levels
+	 *            Number of levels to expand.
+	 * @param expandHotPath
+	 *            If the hot child should be expanded.
+	 */
+	private void expand(InvocationSequenceNode node, InvocationSequenceData element, int offset, int limit, int levels, boolean expandHotPath) {
+		Deque<Expansion> pending = new ArrayDeque<>();
+		pending.add(new Expansion(node, element, offset, levels, expandHotPath));
+		while (!pending.isEmpty()) {
+			Expansion expansion = pending.poll();
+			List<InvocationSequenceData> nestedSequences = getNestedSequences(expansion.element);
+			if (nestedSequences.isEmpty() || ((expansion.levels <= 0) && !expansion.expandHotPath)) {
+				continue;
+			}
+
+			int hotPosition = expansion.expandHotPath ? getHotPosition(nestedSequences) : -1;
+			int from = Math.min(Math.max(expansion.offset, 0), nestedSequences.size());
+			int to = (limit > 0) ? Math.min(from + limit, nestedSequences.size()) : nestedSequences.size();
+			if (expansion.levels <= 0) {
+				to = from;
+			}
+
+			List<InvocationSequenceNode> children = new ArrayList<>((to - from) + 1);
+			if ((hotPosition >= 0) && (hotPosition < from)) {
+				children.add(createChildNode(expansion, hotPosition, nestedSequences.get(hotPosition), true, pending));
+			}
+			for (int i = from; i < to; i++) {
+				children.add(createChildNode(expansion, i, nestedSequences.get(i), i == hotPosition, pending));
+			}
+			if (hotPosition >= to) {
+				children.add(createChildNode(expansion, hotPosition, nestedSequences.get(hotPosition), true, pending));
+			}
+
+			expansion.node.setChildren(children);
+		}
+	}
+
+	/**
+	 * Creates the node for the child element and adds it to the pending expansions.
+	 *
+	 * @param parent
+	 *            Expansion of the parent node.
+	 * @param position
+	 *            Position of the child.
+	 * @param child
+	 *            Child element.
+	 * @param expandHotPath
+	 *            If the hot path of the child should be expanded.
+	 * @param pending
+	 *            Pending expansions.
+	 * @return Child node.
+	 */
+	private InvocationSequenceNode createChildNode(Expansion parent, int position, InvocationSequenceData child, boolean expandHotPath, Deque<Expansion> pending) {
+		InvocationSequenceNode childNode = createNode(parent.node.getChildPath(position), child);
+		pending.add(new Expansion(childNode, child, 0, parent.levels - 1, expandHotPath));
+		return childNode;
+	}
+
+	/**
+	 * Creates the node without children.
+	 *
+	 * @param path
+	 *            Path of the element.
+	 * @param element
+	 *            Invocation element.
+	 * @return Node.
+	 */
+	private InvocationSequenceNode createNode(int[] path, InvocationSequenceData element) {
+		InvocationSequenceData data = element.getClonedInvocationSequence();
+		data.setParentSequence(null);
+		data.setPosition((path.length > 0) ? path[path.length - 1] : 0);
+		return new InvocationSequenceNode(path, data, summaries.get(element));
+	}
+
+	/**
+	 * Returns the position of the child with the highest total duration.
+	 *
+	 * @param nestedSequences
+	 *            Children.
+	 * @return Position of the hot child or <code>-1</code> if no child has a duration.
+	 */
+	private int getHotPosition(List<InvocationSequenceData> nestedSequences) {
+		int hotPosition = -1;
+		double hotDuration = 0d;
+		for (int i = 0; i < nestedSequences.size(); i++) {
+			double duration = summaries.get(nestedSequences.get(i)).getTotalDuration();
+			if (duration > hotDuration) {
+				hotDuration = duration;
+				hotPosition = i;
+			}
+		}
+		return hotPosition;
+	}
+
+	/**
+	 * Computes the summaries of the element and all its nested elements. The total duration of the
+	 * element without the duration information is the sum of the children durations, same as in
+	 * {@link InvocationSequenceDataHelper#computeNestedDuration(InvocationSequenceData)}.
+	 * <p>
+	 * The elements are first collected in the pre-order with the explicit stack and then
+	 * summarized in the reversed order, thus the children are always summarized before their
+	 * parent and the deep invocations can not overflow the stack.
+	 *
+	 * @param element
+	 *            Element to summarize.
+	 */
+	private void summarize(InvocationSequenceData element) {
+		List<InvocationSequenceData> elements = new ArrayList<>();
+		Deque<InvocationSequenceData> stack = new ArrayDeque<>();
+		stack.push(element);
+		while (!stack.isEmpty()) {
+			InvocationSequenceData current = stack.pop();
+			elements.add(current);
+			for (InvocationSequenceData child : getNestedSequences(current)) {
+				stack.push(child);
+			}
+		}
+
+		for (int i = elements.size() - 1; i >= 0; i--) {
+			InvocationSequenceData current = elements.get(i);
+			List<InvocationSequenceData> nestedSequences = getNestedSequences(current);
+
+			long totalChildCount = 0;
+			double nestedDuration = 0d;
+			for (InvocationSequenceData child : nestedSequences) {
+				InvocationSequenceSummary childSummary = summaries.get(child);
+				totalChildCount += childSummary.getTotalChildCount() + 1;
+				nestedDuration += childSummary.getTotalDuration();
+			}
+
+			double duration = InvocationSequenceDataHelper.calculateDuration(current);
+			double totalDuration = (duration != -1.0d) ? duration : nestedDuration;
+			double exclusiveDuration = Math.max(totalDuration - nestedDuration, 0d);
+
+			summaries.put(current, new InvocationSequenceSummary(nestedSequences.size(), totalChildCount, totalDuration, exclusiveDuration));
+		}
+	}
+
+	/**
+	 * Null safe nested sequences of the element.
+	 *
+	 * @param element
+	 *            Element.
+	 * @return Nested sequences.
+	 */
+	private static List<InvocationSequenceData> getNestedSequences(InvocationSequenceData element) {
+		List<InvocationSequenceData> nestedSequences = element.getNestedSequences();
+		if (null == nestedSequences) {
+			return Collections.emptyList();
+		}
+		return nestedSequences;
+	}
+
+	/**
+	 * Pending expansion of one node.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class Expansion {
+
+		/**
+		 * Node to add children to.
+		 */
+		private final InvocationSequenceNode node;
+
+		/**
+		 * Invocation element of the node.
+		 */
+		private final InvocationSequenceData element;
+
+		/**
+		 * Position of the first child to include.
+		 */
+		private final int offset;
+
+		/**
+		 * Number of levels to expand.
+		 */
+		private final int levels;
+
+		/**
+		 * If the hot child should be expanded.
+		 */
+		private final boolean expandHotPath;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param node
+		 *            Node to add children to.
+		 * @param element
+		 *            Invocation element of the node.
+		 * @param offset
+		 *            Position of the first child to include.
+		 * @param levels
+		 *            Number of levels to expand.
+		 * @param expandHotPath
+		 *            If the hot child should be expanded.
+		 */
+		Expansion(InvocationSequenceNode node, InvocationSequenceData element, int offset, int levels, boolean expandHotPath) {
+			this.node = node;
+			this.element = element;
+			this.offset = offset;
+			this.levels = levels;
+			this.expandHotPath = expandHotPath;
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package rocks.inspectit.shared.cs.data.invocationtree;
+
+/**
+ * Summary of the subtree of one element in the invocation sequence. The summary is computed on
+ * the server for all elements of the invocation, thus the UI can display the subtree information
+ * without loading the subtree itself.
+ *
+ * @author agent
+ *
+ */
+public class InvocationSequenceSummary {
+
+	/**
+	 * Number of direct children.
+	 */
+	private int nestedCount;
+
+	/**
+	 * Number of all elements in the subtree, excluding the element itself.
+	 */
+	private long totalChildCount;
+
+	/**
+	 * Duration of the element including the nested elements.
+	 */
+	private double totalDuration;
+
+	/**
+	 * Duration of the element excluding the nested elements.
+	 */
+	private double exclusiveDuration;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public InvocationSequenceSummary() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param nestedCount
+	 *            Number of direct children.
+	 * @param totalChildCount
+	 *            Number of all elements in the subtree, excluding the element itself.
+	 * @param totalDuration
+	 *            Duration of the element including the nested elements.
+	 * @param exclusiveDuration
+	 *            Duration of the element excluding the nested elements.
+	 */
+	public InvocationSequenceSummary(int nestedCount, long totalChildCount, double totalDuration, double exclusiveDuration) {
+		this.nestedCount = nestedCount;
+		this.totalChildCount = totalChildCount;
+		this.totalDuration = totalDuration;
+		this.exclusiveDuration = exclusiveDuration;
+	}
+
+	/**
+	 * Gets {@link #nestedCount}.
+	 *
+	 * @return {@link #nestedCount}
+	 */
+	public int getNestedCount() {
+		return this.nestedCount;
+	}
+
+	/**
+	 * Sets {@link #nestedCount}.
+	 *
+	 * @param nestedCount
+	 *            New value for {@link #nestedCount}
+	 */
+	public void setNestedCount(int nestedCount) {
+		this.nestedCount = nestedCount;
+	}
+
+	/**
+	 * Gets {@link #totalChildCount}.
+	 *
+	 * @return {@link #totalChildCount}
+	 */
+	public long getTotalChildCount() {
+		return this.totalChildCount;
+	}
+
+	/**
+	 * Sets {@link #totalChildCount}.
+	 *
+	 * @param totalChildCount
+	 *            New value for {@link #totalChildCount}
+	 */
+	public void setTotalChildCount(long totalChildCount) {
+		this.totalChildCount = totalChildCount;
+	}
+
+	/**
+	 * Gets {@link #totalDuration}.
+	 *
+	 * @return {@link #totalDuration}
+	 */
+	public double getTotalDuration() {
+		return this.totalDuration;
+	}
+
+	/**
+	 * Sets {@link #totalDuration}.
+	 *
+	 * @param totalDuration
+	 *            New value for {@link #totalDuration}
+	 */
+	public void setTotalDuration(double totalDuration) {
+		this.totalDuration = totalDuration;
+	}
+
+	/**
+	 * Gets {@link #exclusiveDuration}.
+	 *
+	 * @return {@link #exclusiveDuration}
+	 */
+	public double getExclusiveDuration() {
+		return this.exclusiveDuration;
+	}
+
+	/**
+	 * Sets {@link #exclusiveDuration}.
+	 *
+	 * @param exclusiveDuration
+	 *            New value for {@link #exclusiveDuration}
+	 */
+	public void setExclusiveDuration(double exclusiveDuration) {
+		this.exclusiveDuration = exclusiveDuration;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "InvocationSequenceSummary [nestedCount=" + nestedCount + ", totalChildCount=" + totalChildCount + ", totalDuration=" + totalDuration + ", exclusiveDuration=" + exclusiveDuration
+				+ "]";
+	}
+
+}
@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -102,6 +103,11 @@ public class InvocationTreeBuilder {
 	 */
 	private InvocationSequenceData invocationSequence;
 
+	/**
+	 * Invocation sequences of which not all nested sequences are loaded. Compared by identity.
+	 */
+	private Set<InvocationSequenceData> truncatedInvocationSequences = Collections.emptySet();
+
 	/**
 	 * Sets the span service to use.
 	 *
@@ -162,6 +168,21 @@ public class InvocationTreeBuilder {
 		return this;
 	}
 
+	/**
+	 * The invocation sequences of which not all nested sequences are loaded, for example when only
+	 * a page of the invocation was loaded. The tree elements of these sequences are marked as
+	 * truncated. The set should compare the elements by identity.
+	 *
+	 * @param truncatedInvocationSequences
+	 *            the truncated invocation sequences
+	 * @return this builder
+	 * @see InvocationSequenceNode#getTruncatedSequences()
+	 */
+	public InvocationTreeBuilder setTruncatedInvocationSequences(Set<InvocationSequenceData> truncatedInvocationSequences) {
+		this.truncatedInvocationSequences = truncatedInvocationSequences;
+		return this;
+	}
+
 	/**
 	 * Builds the tree.
 	 *
@@ -279,6 +300,8 @@ public class InvocationTreeBuilder {
 			}
 		}
 
+		parent.setTruncated(truncatedInvocationSequences.contains(currentData));
+
 		// add all nested invocations as children
 		for (InvocationSequenceData data : currentData.getNestedSequences()) {
 			InvocationTreeElement child = createTreeElement(data, parent);
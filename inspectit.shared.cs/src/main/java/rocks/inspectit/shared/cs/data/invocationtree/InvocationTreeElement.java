@@ -78,6 +78,12 @@ public class InvocationTreeElement implements Comparable<InvocationTreeElement>
 	 */
 	private boolean nestedSqls;
 
+	/**
+	 * If not all nested invocation sequences of this element are loaded, thus the element only
+	 * holds a part of its children.
+	 */
+	private boolean truncated;
+
 	/**
 	 * Constructor.
 	 *
@@ -170,6 +176,15 @@ public class InvocationTreeElement implements Comparable<InvocationTreeElement>
 		return this.nestedSqls;
 	}
 
+	/**
+	 * Gets {@link #truncated}.
+	 *
+	 * @return {@link #truncated}
+	 */
+	public boolean isTruncated() {
+		return this.truncated;
+	}
+
 	/**
 	 * Returns whether this element is the root element of the tree. (NOTE: this is not relating to
 	 * the root of a trace but only the current tree)
@@ -255,6 +270,16 @@ public class InvocationTreeElement implements Comparable<InvocationTreeElement>
 		this.nestedSqls = hasNestedSqls;
 	}
 
+	/**
+	 * Sets {@link #truncated}.
+	 *
+	 * @param truncated
+	 *            New value for {@link #truncated}
+	 */
+	void setTruncated(boolean truncated) {
+		this.truncated = truncated;
+	}
+
 	/**
 	 * Sets {@link #parent}.
 	 *
@@ -289,6 +314,7 @@ public class InvocationTreeElement implements Comparable<InvocationTreeElement>
 		result = (prime * result) + (this.nestedExceptions ? 1231 : 1237);
 		result = (prime * result) + (this.nestedSqls ? 1231 : 1237);
 		result = (prime * result) + (this.root ? 1231 : 1237);
+		result = (prime * result) + (this.truncated ? 1231 : 1237);
 		result = (prime * result) + ((this.type == null) ? 0 : this.type.hashCode());
 		return result;
 	}
@@ -331,6 +357,9 @@ public class InvocationTreeElement implements Comparable<InvocationTreeElement>
 		if (this.root != other.root) {
 			return false;
 		}
+		if (this.truncated != other.truncated) {
+			return false;
+		}
 		if (this.type != other.type) {
 			return false;
 		}
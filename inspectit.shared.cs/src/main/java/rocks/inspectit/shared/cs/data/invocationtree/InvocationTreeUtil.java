@@ -71,6 +71,22 @@ public final class InvocationTreeUtil {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns whether the given {@link InvocationTreeElement} or any of its child nodes is
+	 * truncated, thus the invocation sequences of the tree contain only a part of the data.
+	 *
+	 * @param tree
+	 *            the top element of the tree to check
+	 * @return <code>true</code> if any element of the tree is truncated
+	 * @see InvocationTreeElement#isTruncated()
+	 */
+	public static boolean isTruncated(InvocationTreeElement tree) {
+		if (tree == null) {
+			return false;
+		}
+		return tree.asStream().anyMatch(InvocationTreeElement::isTruncated);
+	}
+
 	/**
 	 * Creates a string representation of the tree starting the given {@link InvocationTreeElement}.
 	 *
@@ -0,0 +1,95 @@
+package rocks.inspectit.shared.cs.indexing.aggregation.impl;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.IAggregatedData;
+import rocks.inspectit.shared.all.communication.IIdsAwareAggregatedData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.storage.util.RollupResolution;
+
+/**
+ * {@link IAggregator} that aggregates the data in the buckets of the {@link RollupResolution}. The
+ * aggregation inside one bucket is delegated to the given aggregator, while the data is
+ * additionally separated by the method and the bucket. The timestamp of the aggregated object is
+ * the start of the bucket.
+ * <p>
+ * Ids of the aggregated objects are not kept, as the rollups can contain huge amount of data.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of the data to aggregate.
+ */
+public class RollupAggregator<E extends DefaultData> implements IAggregator<E> {
+
+	/**
+	 * Aggregator to delegate the aggregation in one bucket to.
+	 */
+	private final IAggregator<E> aggregator;
+
+	/**
+	 * Resolution of the buckets.
+	 */
+	private final RollupResolution resolution;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param aggregator
+	 *            Aggregator to delegate the aggregation in one bucket to.
+	 * @param resolution
+	 *            Resolution of the buckets.
+	 */
+	public RollupAggregator(IAggregator<E> aggregator, RollupResolution resolution) {
+		this.aggregator = aggregator;
+		this.resolution = resolution;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void aggregate(IAggregatedData<E> aggregatedObject, E objectToAdd) {
+		aggregator.aggregate(aggregatedObject, objectToAdd);
+		if (aggregatedObject instanceof IIdsAwareAggregatedData) {
+			((IIdsAwareAggregatedData<?>) aggregatedObject).clearAggregatedIds();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IAggregatedData<E> getClone(E object) {
+		IAggregatedData<E> clone = aggregator.getClone(object);
+		E data = clone.getData();
+		data.setTimeStamp(new Timestamp(resolution.getBucketStart(object.getTimeStamp().getTime())));
+		if ((data instanceof MethodSensorData) && (object instanceof MethodSensorData)) {
+			((MethodSensorData) data).setMethodIdent(((MethodSensorData) object).getMethodIdent());
+		}
+		return clone;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getAggregationKey(E object) {
+		long methodIdent = (object instanceof MethodSensorData) ? ((MethodSensorData) object).getMethodIdent() : 0;
+		long bucketStart = resolution.getBucketStart(object.getTimeStamp().getTime());
+		return Arrays.asList(aggregator.getAggregationKey(object), methodIdent, bucketStart);
+	}
+
+	/**
+	 * Gets {@link #resolution}.
+	 *
+	 * @return {@link #resolution}
+	 */
+	public RollupResolution getResolution() {
+		return resolution;
+	}
+
+}
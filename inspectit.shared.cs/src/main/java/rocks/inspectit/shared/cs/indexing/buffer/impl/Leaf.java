@@ -165,14 +165,15 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public boolean clean() {
-		List<Long> toClean = new ArrayList<>();
+		List<CustomWeakReference<E>> toClean = new ArrayList<>();
 		CustomWeakReference<E> customWeakReference = (CustomWeakReference<E>) referenceQueue.poll();
 		while (customWeakReference != null) {
-			toClean.add(customWeakReference.getReferentId());
+			toClean.add(customWeakReference);
 			customWeakReference = (CustomWeakReference<E>) referenceQueue.poll();
 		}
-		for (Object key : toClean) {
-			map.remove(key);
+		for (CustomWeakReference<E> reference : toClean) {
+			// the element could have been replaced by a new one with the same id in the meantime
+			map.remove(reference.getReferentId(), reference);
 		}
 		if (map.isEmpty()) {
 			return true;
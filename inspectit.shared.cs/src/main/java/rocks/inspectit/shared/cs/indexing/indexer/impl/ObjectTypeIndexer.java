@@ -5,6 +5,7 @@ import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.ITreeComponent;
 import rocks.inspectit.shared.cs.indexing.indexer.AbstractSharedInstanceBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
+import rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock;
 
 /**
  * {@link IBranchIndexer} that makes indexes based on a object class. Thus all same object types
@@ -18,9 +19,14 @@ public class ObjectTypeIndexer<E extends DefaultData> extends AbstractSharedInst
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * The {@link AbstractColumnBlock} is indexed with the class of its elements.
 	 */
 	@Override
 	public Object getKey(E element) {
+		if (element instanceof AbstractColumnBlock) {
+			return ((AbstractColumnBlock<?>) element).getElementClass();
+		}
 		return element.getClass();
 	}
 
@@ -6,6 +6,7 @@ import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.indexer.AbstractSharedInstanceBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+import rocks.inspectit.shared.cs.storage.columnar.SqlStatementDataColumnBlock;
 
 /**
  * Indexer that indexes SQLs based on the query string. All other objects types are indexed with
@@ -52,6 +53,12 @@ public class SqlStringIndexer<E extends DefaultData> extends AbstractSharedInsta
 			if (null != sqlStatementData.getSql()) {
 				return getInternalHash(sqlStatementData.getSql().hashCode());
 			}
+		} else if (element instanceof SqlStatementDataColumnBlock) {
+			// all elements in the block have the same SQL string
+			SqlStatementDataColumnBlock columnBlock = (SqlStatementDataColumnBlock) element;
+			if (null != columnBlock.getSql()) {
+				return getInternalHash(columnBlock.getSql().hashCode());
+			}
 		}
 		return 0;
 	}
@@ -18,17 +18,17 @@ import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
  */
 public class TimestampIndexer<E extends DefaultData> implements IBranchIndexer<E> {
 
-	/**
-	 * Constant for empty keys.
-	 */
-	private static final Object[] EMPTY_KEYS = new Object[0];
-
 	/**
 	 * Indexing period. Value is {@value #INDEXING_PERIOD} milliseconds.
 	 * <p>
 	 * ISE: Increased to 15 minutes, because it s not necessary to have such a strict limit.
 	 */
-	private static final long INDEXING_PERIOD = 15 * 60 * 1000;
+	public static final long INDEXING_PERIOD = 15 * 60 * 1000;
+
+	/**
+	 * Constant for empty keys.
+	 */
+	private static final Object[] EMPTY_KEYS = new Object[0];
 
 	/**
 	 * To make this class serializable and support concurrency we have to serialize the map, and can
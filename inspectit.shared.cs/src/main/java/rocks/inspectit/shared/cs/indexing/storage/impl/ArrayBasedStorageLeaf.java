@@ -378,6 +378,35 @@ public class ArrayBasedStorageLeaf<E extends DefaultData> implements IStorageTre
 		return id;
 	}
 
+	/**
+	 * Gets {@link #size}.
+	 *
+	 * @return {@link #size}
+	 */
+	int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets {@link #idArray}. Only the first {@link #getSize()} elements are valid. Not guarded by
+	 * the lock, thus should only be used when the leaf is not changed any more.
+	 *
+	 * @return {@link #idArray}
+	 */
+	long[] getIdArray() {
+		return idArray;
+	}
+
+	/**
+	 * Gets {@link #descriptorArray}. Only the first {@link #getSize()} elements are valid. Not
+	 * guarded by the lock, thus should only be used when the leaf is not changed any more.
+	 *
+	 * @return {@link #descriptorArray}
+	 */
+	SimpleStorageDescriptor[] getDescriptorArray() {
+		return descriptorArray;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
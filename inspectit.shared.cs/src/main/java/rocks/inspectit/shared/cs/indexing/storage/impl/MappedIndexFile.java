@@ -0,0 +1,149 @@
+package rocks.inspectit.shared.cs.indexing.storage.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+/**
+ * Index leaf file that is memory mapped on the first access. The leaves read the descriptors
+ * directly from the mapped buffer, thus only the pages of the file that are queried are loaded by
+ * the operating system and they can be evicted by it at any time.
+ * <p>
+ * The buffer must only be read while holding the {@link #readLock()}, as {@link #release()}
+ * unmaps the file and any later access to the unmapped buffer would crash the JVM.
+ *
+ * @author agent
+ *
+ */
+public class MappedIndexFile {
+
+	/**
+	 * Path to the file.
+	 */
+	private final Path path;
+
+	/**
+	 * Mapped buffer, <code>null</code> until first access or after {@link #release()}.
+	 */
+	private volatile ByteBuffer buffer;
+
+	/**
+	 * Lock guarding the reading of the mapped buffer against the unmapping.
+	 */
+	private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param path
+	 *            Path to the file.
+	 */
+	public MappedIndexFile(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Returns the lock that has to be held while the buffer returned by {@link #getBuffer()} is
+	 * read.
+	 *
+	 * @return Read lock.
+	 */
+	Lock readLock() {
+		return readWriteLock.readLock();
+	}
+
+	/**
+	 * Returns the mapped buffer of the file, mapping it if necessary. The buffer must only be read
+	 * with the absolute get methods, as it is shared between all leaves of the file, and only
+	 * while holding the {@link #readLock()}.
+	 *
+	 * @return Mapped read-only buffer.
+	 * @throws IOException
+	 *             If file can not be mapped.
+	 */
+	ByteBuffer getBuffer() throws IOException {
+		ByteBuffer mapped = buffer;
+		if (null == mapped) {
+			synchronized (this) {
+				mapped = buffer;
+				if (null == mapped) {
+					try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+						mapped = fileChannel.map(MapMode.READ_ONLY, 0, fileChannel.size());
+					}
+					buffer = mapped;
+				}
+			}
+		}
+		return mapped;
+	}
+
+	/**
+	 * Releases the mapped buffer and unmaps the file, so that it can be deleted. Waits for the
+	 * running reads to finish. The file will be mapped again on the next access.
+	 */
+	public void release() {
+		Lock writeLock = readWriteLock.writeLock();
+		writeLock.lock();
+		try {
+			ByteBuffer mapped = buffer;
+			buffer = null; // NOPMD
+			if (null != mapped) {
+				unmap(mapped);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Unmaps the buffer by invoking its cleaner. If the cleaner is not accessible on the running
+	 * JVM, the mapping is removed once the buffer is garbage collected.
+	 *
+	 * @param mapped
+	 *            Mapped buffer.
+	 */
+	private static void unmap(ByteBuffer mapped) {
+		try {
+			Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(mapped);
+			if (null != cleaner) {
+				Method cleanMethod = cleaner.getClass().getMethod("clean");
+				cleanMethod.setAccessible(true);
+				cleanMethod.invoke(cleaner);
+			}
+		} catch (Exception e) { // NOPMD NOCHK
+			// not accessible, unmapped when garbage collected
+		}
+	}
+
+	/**
+	 * Gets {@link #path}.
+	 *
+	 * @return {@link #path}
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("path", path);
+		toStringBuilder.append("mapped", null != buffer);
+		return toStringBuilder.toString();
+	}
+
+}
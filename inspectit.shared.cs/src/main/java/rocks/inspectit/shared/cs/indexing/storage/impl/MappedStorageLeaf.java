@@ -0,0 +1,435 @@
+package rocks.inspectit.shared.cs.indexing.storage.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.LeafTask;
+import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+
+/**
+ * Read-only leaf that keeps its element IDs and descriptors in an index leaf file instead of the
+ * heap. The serialized leaf only holds the location of its entries in the file, the entries are
+ * read from the {@link MappedIndexFile} on demand. This way loading the indexing tree of a storage
+ * does not require loading all the descriptors and the memory needed is proportional to the
+ * queried data.
+ * <p>
+ * The leaf has to be bound to the {@link MappedIndexFile} with {@link #bind(MappedIndexFile)}
+ * after deserialization, see {@link StorageIndexMapper#bindLeaves(IStorageTreeComponent,
+ * java.nio.file.Path)}.
+ * <P>
+ * <b>Important:</b><br>
+ * Changing this class or the file format can cause the break of the backward/forward
+ * compatibility of the storage in the way that we will not be able to read any data from the
+ * storage. Thus, please be careful with performing any changes until there is a proper mechanism
+ * to protect against this problem.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of the elements indexed.
+ */
+public class MappedStorageLeaf<E extends DefaultData> implements IStorageTreeComponent<E> {
+
+	/**
+	 * Size of one entry in the file. Each entry holds the element id (long), the position (long)
+	 * and the size (int) of the element in the data file. Entries are sorted by the element id.
+	 */
+	static final int ENTRY_SIZE = 20;
+
+	/**
+	 * Leaf id.
+	 */
+	private int id;
+
+	/**
+	 * Name of the index leaf file holding the entries.
+	 */
+	private String fileName;
+
+	/**
+	 * Position of the first entry of this leaf in the file.
+	 */
+	private long offset;
+
+	/**
+	 * Amount of entries.
+	 */
+	private int size;
+
+	/**
+	 * File the entries are read from.
+	 */
+	private transient MappedIndexFile indexFile;
+
+	/**
+	 * No-arg constructor for serialization.
+	 */
+	public MappedStorageLeaf() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param id
+	 *            Leaf id, same as the id of the channel the elements are saved in.
+	 * @param fileName
+	 *            Name of the index leaf file holding the entries.
+	 * @param offset
+	 *            Position of the first entry of this leaf in the file.
+	 * @param size
+	 *            Amount of entries.
+	 */
+	public MappedStorageLeaf(int id, String fileName, long offset, int size) {
+		this.id = id;
+		this.fileName = fileName;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	/**
+	 * Binds the leaf to the file its entries are read from.
+	 *
+	 * @param indexFile
+	 *            {@link MappedIndexFile}.
+	 */
+	public void bind(MappedIndexFile indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Not supported, the leaf is read only.
+	 */
+	@Override
+	public IStorageDescriptor put(E element) throws IndexingException {
+		throw new IndexingException("Elements can not be indexed in the mapped storage leaf.");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IStorageDescriptor get(E element) {
+		Lock readLock = getIndexFile().readLock();
+		readLock.lock();
+		try {
+			ByteBuffer buffer = getBuffer();
+			int index = binarySearch(buffer, element.getId());
+			if (index >= 0) {
+				return getDescriptor(buffer, index);
+			} else {
+				return null;
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Elements can not be removed from the read-only leaf, thus nothing is removed and
+	 * <code>null</code> is always returned.
+	 */
+	@Override
+	public IStorageDescriptor getAndRemove(E element) {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<IStorageDescriptor> query(IIndexQuery query) {
+		Lock readLock = getIndexFile().readLock();
+		readLock.lock();
+		try {
+			return query(getBuffer(), query);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Queries the entries in the mapped buffer.
+	 *
+	 * @param buffer
+	 *            Mapped buffer.
+	 * @param query
+	 *            Query.
+	 * @return Descriptors of the elements passing the query.
+	 */
+	private List<IStorageDescriptor> query(ByteBuffer buffer, IIndexQuery query) {
+		StorageIndexQuery storageIndexQuery = null;
+		if (query instanceof StorageIndexQuery) {
+			storageIndexQuery = (StorageIndexQuery) query;
+		}
+
+		List<IStorageDescriptor> returnList = new ArrayList<>();
+		int index = 0;
+
+		// if min id is given, we will start from the first id that is bigger or equal than min id
+		if (query.getMinId() != 0) {
+			index = binarySearch(buffer, query.getMinId());
+			if (index < 0) {
+				index = -index - 1;
+			}
+		}
+
+		for (; index < size; index++) {
+			long elementId = getElementId(buffer, index);
+			if (null != storageIndexQuery) {
+				if ((null != storageIndexQuery.getExcludeIds()) && storageIndexQuery.getExcludeIds().contains(elementId)) {
+					continue;
+				}
+				if ((null != storageIndexQuery.getIncludeIds()) && !storageIndexQuery.getIncludeIds().contains(elementId)) {
+					continue;
+				}
+			}
+			returnList.add(getDescriptor(buffer, index));
+		}
+		return returnList;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<IStorageDescriptor> query(IIndexQuery query, ForkJoinPool forkJoinPool) {
+		return forkJoinPool.invoke(getTaskForForkJoinQuery(query));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RecursiveTask<List<IStorageDescriptor>> getTaskForForkJoinQuery(IIndexQuery query) {
+		return new LeafTask<>(this, query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Does nothing.
+	 */
+	@Override
+	public void preWriteFinalization() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entries are not counted as they are not kept on the heap.
+	 */
+	@Override
+	public long getComponentSize(IObjectSizes objectSizes) {
+		long sizeInBytes = objectSizes.getSizeOfObjectHeader();
+		sizeInBytes += objectSizes.getPrimitiveTypesSize(2, 0, 2, 0, 1, 0);
+		sizeInBytes += objectSizes.getSizeOf(fileName);
+		return objectSizes.alignTo8Bytes(sizeInBytes);
+	}
+
+	/**
+	 * Binary search of the entries for the given element id.
+	 *
+	 * @param buffer
+	 *            Mapped buffer.
+	 * @param elementId
+	 *            Element id to search for.
+	 * @return Index of the entry if found, otherwise <code>(-(insertion point) - 1)</code> as
+	 *         defined in {@link java.util.Arrays#binarySearch(long[], long)}.
+	 */
+	private int binarySearch(ByteBuffer buffer, long elementId) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midId = getElementId(buffer, mid);
+			if (midId < elementId) {
+				low = mid + 1;
+			} else if (midId > elementId) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Reads the element id of the entry.
+	 *
+	 * @param buffer
+	 *            Mapped buffer.
+	 * @param index
+	 *            Index of the entry in this leaf.
+	 * @return Element id.
+	 */
+	private long getElementId(ByteBuffer buffer, int index) {
+		return buffer.getLong(getEntryPosition(index));
+	}
+
+	/**
+	 * Reads the descriptor of the entry.
+	 *
+	 * @param buffer
+	 *            Mapped buffer.
+	 * @param index
+	 *            Index of the entry in this leaf.
+	 * @return Descriptor.
+	 */
+	private IStorageDescriptor getDescriptor(ByteBuffer buffer, int index) {
+		int entryPosition = getEntryPosition(index);
+		long position = buffer.getLong(entryPosition + 8);
+		int elementSize = buffer.getInt(entryPosition + 16);
+		return new StorageDescriptor(id, position, elementSize);
+	}
+
+	/**
+	 * Returns the position of the entry in the file.
+	 *
+	 * @param index
+	 *            Index of the entry in this leaf.
+	 * @return Position in the file.
+	 */
+	private int getEntryPosition(int index) {
+		return (int) (offset + ((long) index * ENTRY_SIZE));
+	}
+
+	/**
+	 * Returns if the leaf is bound to its file.
+	 *
+	 * @return <code>true</code> if {@link #bind(MappedIndexFile)} was called.
+	 */
+	boolean isBound() {
+		return null != indexFile;
+	}
+
+	/**
+	 * Returns the bound file.
+	 *
+	 * @return {@link MappedIndexFile}.
+	 */
+	MappedIndexFile getIndexFile() {
+		if (null == indexFile) {
+			throw new IllegalStateException("Mapped storage leaf " + id + " is not bound to the index leaf file " + fileName + ".");
+		}
+		return indexFile;
+	}
+
+	/**
+	 * Returns the mapped buffer of the bound file. Must be called while holding the read lock of
+	 * the file.
+	 *
+	 * @return Mapped buffer.
+	 */
+	private ByteBuffer getBuffer() {
+		try {
+			return indexFile.getBuffer();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Index leaf file " + indexFile.getPath() + " can not be mapped.", e);
+		}
+	}
+
+	/**
+	 * Gets {@link #id}.
+	 *
+	 * @return {@link #id}
+	 */
+	int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets {@link #fileName}.
+	 *
+	 * @return {@link #fileName}
+	 */
+	String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Gets {@link #size}.
+	 *
+	 * @return {@link #size}
+	 */
+	int getSize() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + ((fileName == null) ? 0 : fileName.hashCode());
+		result = (prime * result) + id;
+		result = (prime * result) + (int) (offset ^ (offset >>> 32));
+		result = (prime * result) + size;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		MappedStorageLeaf<E> other = (MappedStorageLeaf<E>) obj;
+		if (fileName == null) {
+			if (other.fileName != null) {
+				return false;
+			}
+		} else if (!fileName.equals(other.fileName)) {
+			return false;
+		}
+		if (id != other.id) {
+			return false;
+		}
+		if (offset != other.offset) {
+			return false;
+		}
+		if (size != other.size) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("elements", size);
+		toStringBuilder.append("fileName", fileName);
+		toStringBuilder.append("offset", offset);
+		return toStringBuilder.toString();
+	}
+}
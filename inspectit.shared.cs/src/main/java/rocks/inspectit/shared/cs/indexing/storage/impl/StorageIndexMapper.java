@@ -0,0 +1,268 @@
+package rocks.inspectit.shared.cs.indexing.storage.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rocks.inspectit.shared.cs.indexing.ITreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+
+/**
+ * Utility for moving the leaves of the storage indexing tree to the memory mapped index leaf files
+ * and binding them again after the indexing tree has been loaded.
+ * <p>
+ * Each {@link ArrayBasedStorageLeaf} is written to the index leaf file as the sorted list of
+ * entries and replaced in the tree with the {@link MappedStorageLeaf} pointing to the entries.
+ * Thus, the serialized indexing tree only holds the branches, while the descriptors are read from
+ * the mapped file on demand.
+ *
+ * @author agent
+ *
+ */
+public final class StorageIndexMapper {
+
+	/**
+	 * Private constructor.
+	 */
+	private StorageIndexMapper() {
+	}
+
+	/**
+	 * Writes all {@link ArrayBasedStorageLeaf}s of the indexing tree to the given file and
+	 * replaces them in the tree with the {@link MappedStorageLeaf}s bound to this file. The tree
+	 * must not be changed any more when this method is called. If writing the file fails, the tree
+	 * is not changed.
+	 *
+	 * @param indexingTree
+	 *            Indexing tree.
+	 * @param leafFile
+	 *            Path of the index leaf file to create.
+	 * @return <code>true</code> if the leaves were moved to the file, <code>false</code> if the
+	 *         tree has no leaves that can be moved or they would not fit in one mapped file.
+	 * @throws IOException
+	 *             If writing of the file fails.
+	 */
+	public static boolean externalizeLeaves(IStorageTreeComponent<?> indexingTree, Path leafFile) throws IOException {
+		List<LeafLocation> leafLocations = new ArrayList<>();
+		collectLeaves(indexingTree, leafLocations);
+		if (leafLocations.isEmpty()) {
+			return false;
+		}
+
+		long totalEntries = 0;
+		for (LeafLocation leafLocation : leafLocations) {
+			totalEntries += leafLocation.leaf.getSize();
+		}
+		if ((totalEntries * MappedStorageLeaf.ENTRY_SIZE) > Integer.MAX_VALUE) {
+			return false;
+		}
+
+		String fileName = leafFile.getFileName().toString();
+		List<MappedStorageLeaf<?>> mappedLeaves = new ArrayList<>(leafLocations.size());
+		long offset = 0;
+		try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(leafFile, StandardOpenOption.CREATE_NEW)))) {
+			for (LeafLocation leafLocation : leafLocations) {
+				ArrayBasedStorageLeaf<?> leaf = leafLocation.leaf;
+				long[] ids = leaf.getIdArray();
+				SimpleStorageDescriptor[] descriptors = leaf.getDescriptorArray();
+				int entries = 0;
+				for (int i = 0; i < leaf.getSize(); i++) {
+					// same conditions as when the array based leaf is queried
+					if ((0 != ids[i]) && (null != descriptors[i])) {
+						outputStream.writeLong(ids[i]);
+						outputStream.writeLong(descriptors[i].getPosition());
+						outputStream.writeInt(descriptors[i].getSize());
+						entries++;
+					}
+				}
+				mappedLeaves.add(new MappedStorageLeaf<>(leaf.getId(), fileName, offset, entries));
+				offset += (long) entries * MappedStorageLeaf.ENTRY_SIZE;
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(leafFile);
+			throw e;
+		}
+
+		MappedIndexFile mappedIndexFile = new MappedIndexFile(leafFile);
+		for (int i = 0; i < leafLocations.size(); i++) {
+			MappedStorageLeaf<?> mappedLeaf = mappedLeaves.get(i);
+			mappedLeaf.bind(mappedIndexFile);
+			leafLocations.get(i).replace(mappedLeaf);
+		}
+		return true;
+	}
+
+	/**
+	 * Binds all {@link MappedStorageLeaf}s of the loaded indexing tree to their index leaf files
+	 * in the given directory. The files are mapped only when a leaf is queried.
+	 *
+	 * @param indexingTree
+	 *            Indexing tree.
+	 * @param directory
+	 *            Directory where the index leaf files are located, usually the storage directory.
+	 */
+	public static void bindLeaves(IStorageTreeComponent<?> indexingTree, Path directory) {
+		bindLeaves(indexingTree, directory, new HashMap<String, MappedIndexFile>());
+	}
+
+	/**
+	 * Binds all {@link MappedStorageLeaf}s in the tree component.
+	 *
+	 * @param treeComponent
+	 *            Tree component.
+	 * @param directory
+	 *            Directory where the index leaf files are located.
+	 * @param indexFiles
+	 *            Already created {@link MappedIndexFile}s, so that leaves of the same file share
+	 *            the mapping.
+	 */
+	private static void bindLeaves(ITreeComponent<IStorageDescriptor, ?> treeComponent, Path directory, Map<String, MappedIndexFile> indexFiles) {
+		if (treeComponent instanceof MappedStorageLeaf) {
+			MappedStorageLeaf<?> mappedLeaf = (MappedStorageLeaf<?>) treeComponent;
+			MappedIndexFile indexFile = indexFiles.get(mappedLeaf.getFileName());
+			if (null == indexFile) {
+				indexFile = new MappedIndexFile(directory.resolve(mappedLeaf.getFileName()));
+				indexFiles.put(mappedLeaf.getFileName(), indexFile);
+			}
+			mappedLeaf.bind(indexFile);
+		} else if (treeComponent instanceof StorageBranch) {
+			for (ITreeComponent<IStorageDescriptor, ?> child : ((StorageBranch<?>) treeComponent).getComponentMap().values()) {
+				bindLeaves(child, directory, indexFiles);
+			}
+		} else if (treeComponent instanceof CombinedStorageBranch) {
+			for (IStorageTreeComponent<?> branch : ((CombinedStorageBranch<?>) treeComponent).getBranches()) {
+				bindLeaves(branch, directory, indexFiles);
+			}
+		}
+	}
+
+	/**
+	 * Releases the index leaf files of all {@link MappedStorageLeaf}s of the indexing tree, so
+	 * that the files are unmapped and can be deleted. Leaves queried afterwards map their file
+	 * again.
+	 *
+	 * @param indexingTree
+	 *            Indexing tree.
+	 */
+	public static void releaseLeaves(IStorageTreeComponent<?> indexingTree) {
+		Set<MappedIndexFile> indexFiles = new HashSet<>();
+		collectIndexFiles(indexingTree, indexFiles);
+		for (MappedIndexFile indexFile : indexFiles) {
+			indexFile.release();
+		}
+	}
+
+	/**
+	 * Collects the bound {@link MappedIndexFile}s of all {@link MappedStorageLeaf}s in the tree
+	 * component.
+	 *
+	 * @param treeComponent
+	 *            Tree component.
+	 * @param indexFiles
+	 *            Set to add the files to.
+	 */
+	private static void collectIndexFiles(ITreeComponent<IStorageDescriptor, ?> treeComponent, Set<MappedIndexFile> indexFiles) {
+		if (treeComponent instanceof MappedStorageLeaf) {
+			MappedStorageLeaf<?> mappedLeaf = (MappedStorageLeaf<?>) treeComponent;
+			if (mappedLeaf.isBound()) {
+				indexFiles.add(mappedLeaf.getIndexFile());
+			}
+		} else if (treeComponent instanceof StorageBranch) {
+			for (ITreeComponent<IStorageDescriptor, ?> child : ((StorageBranch<?>) treeComponent).getComponentMap().values()) {
+				collectIndexFiles(child, indexFiles);
+			}
+		} else if (treeComponent instanceof CombinedStorageBranch) {
+			for (IStorageTreeComponent<?> branch : ((CombinedStorageBranch<?>) treeComponent).getBranches()) {
+				collectIndexFiles(branch, indexFiles);
+			}
+		}
+	}
+
+	/**
+	 * Collects all {@link ArrayBasedStorageLeaf}s that are children of the branches in the tree
+	 * component.
+	 *
+	 * @param treeComponent
+	 *            Tree component.
+	 * @param leafLocations
+	 *            List to add the found leaves to.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void collectLeaves(ITreeComponent<IStorageDescriptor, ?> treeComponent, List<LeafLocation> leafLocations) {
+		if (treeComponent instanceof StorageBranch) {
+			Map<Object, ITreeComponent> componentMap = (Map) ((StorageBranch<?>) treeComponent).getComponentMap();
+			for (Map.Entry<Object, ITreeComponent> entry : componentMap.entrySet()) {
+				if (entry.getValue() instanceof ArrayBasedStorageLeaf) {
+					leafLocations.add(new LeafLocation(componentMap, entry.getKey(), (ArrayBasedStorageLeaf<?>) entry.getValue()));
+				} else {
+					collectLeaves(entry.getValue(), leafLocations);
+				}
+			}
+		} else if (treeComponent instanceof CombinedStorageBranch) {
+			for (IStorageTreeComponent<?> branch : ((CombinedStorageBranch<?>) treeComponent).getBranches()) {
+				collectLeaves(branch, leafLocations);
+			}
+		}
+	}
+
+	/**
+	 * Location of the leaf in the component map of its parent branch.
+	 *
+	 * @author agent
+	 *
+	 */
+	@SuppressWarnings("rawtypes")
+	private static class LeafLocation {
+
+		/**
+		 * Component map of the parent branch.
+		 */
+		private final Map<Object, ITreeComponent> componentMap;
+
+		/**
+		 * Key of the leaf in the map.
+		 */
+		private final Object key;
+
+		/**
+		 * The leaf.
+		 */
+		private final ArrayBasedStorageLeaf<?> leaf;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param componentMap
+		 *            Component map of the parent branch.
+		 * @param key
+		 *            Key of the leaf in the map.
+		 * @param leaf
+		 *            The leaf.
+		 */
+		LeafLocation(Map<Object, ITreeComponent> componentMap, Object key, ArrayBasedStorageLeaf<?> leaf) {
+			this.componentMap = componentMap;
+			this.key = key;
+			this.leaf = leaf;
+		}
+
+		/**
+		 * Replaces the leaf in the parent branch.
+		 *
+		 * @param replacement
+		 *            Tree component to put instead of the leaf.
+		 */
+		void replace(ITreeComponent<?, ?> replacement) {
+			componentMap.put(key, replacement);
+		}
+	}
+}
@@ -40,6 +40,12 @@ public abstract class AbstractStorageData implements IStorageData, Serializable
 	 */
 	private String cmrVersion;
 
+	/**
+	 * If the rollups of the data were completely written when the storage was finalized. See
+	 * {@link rocks.inspectit.shared.cs.storage.util.RollupResolution}.
+	 */
+	private boolean rollupsAvailable;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -146,6 +152,25 @@ public abstract class AbstractStorageData implements IStorageData, Serializable
 		this.cmrVersion = cmrVersion;
 	}
 
+	/**
+	 * Gets {@link #rollupsAvailable}.
+	 *
+	 * @return {@link #rollupsAvailable}
+	 */
+	public boolean isRollupsAvailable() {
+		return rollupsAvailable;
+	}
+
+	/**
+	 * Sets {@link #rollupsAvailable}.
+	 *
+	 * @param rollupsAvailable
+	 *            New value for {@link #rollupsAvailable}
+	 */
+	public void setRollupsAvailable(boolean rollupsAvailable) {
+		this.rollupsAvailable = rollupsAvailable;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
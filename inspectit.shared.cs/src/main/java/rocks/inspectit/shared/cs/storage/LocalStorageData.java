@@ -58,6 +58,7 @@ public class LocalStorageData extends AbstractStorageData {
 		this.setDescription(storageData.getDescription());
 		this.setDiskSize(storageData.getDiskSize());
 		this.setCmrVersion(storageData.getCmrVersion());
+		this.setRollupsAvailable(storageData.isRollupsAvailable());
 		this.labelList = storageData.getLabelList();
 
 	}
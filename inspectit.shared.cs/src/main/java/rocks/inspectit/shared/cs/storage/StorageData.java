@@ -32,6 +32,12 @@ public class StorageData extends AbstractStorageData {
 	 */
 	private StorageState state;
 
+	/**
+	 * If the timer, SQL and HTTP timer data is written to the storage in the compressed column
+	 * blocks. See {@link rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock}.
+	 */
+	private boolean columnarFormat;
+
 	/**
 	 * Default constructor. Sets creation date to now.
 	 */
@@ -56,8 +62,12 @@ public class StorageData extends AbstractStorageData {
 		setDiskSize(storageData.getDiskSize());
 		setCmrVersion(storageData.getCmrVersion());
 		labelList = new ArrayList<>(storageData.getLabelList());
+		if (storageData instanceof AbstractStorageData) {
+			setRollupsAvailable(((AbstractStorageData) storageData).isRollupsAvailable());
+		}
 		if (storageData instanceof StorageData) {
 			state = ((StorageData) storageData).getState(); // NOPMD
+			columnarFormat = ((StorageData) storageData).isColumnarFormat();
 		} else {
 			state = StorageState.CLOSED;
 		}
@@ -125,6 +135,25 @@ public class StorageData extends AbstractStorageData {
 		state = StorageState.RECORDING;
 	}
 
+	/**
+	 * Gets {@link #columnarFormat}.
+	 *
+	 * @return {@link #columnarFormat}
+	 */
+	public boolean isColumnarFormat() {
+		return columnarFormat;
+	}
+
+	/**
+	 * Sets {@link #columnarFormat}.
+	 *
+	 * @param columnarFormat
+	 *            New value for {@link #columnarFormat}
+	 */
+	public void setColumnarFormat(boolean columnarFormat) {
+		this.columnarFormat = columnarFormat;
+	}
+
 	/**
 	 * Adds a label to the label list of the storage data. The labels that are one per storage will
 	 * be inserted only if the label of that type does not exists, or the overwrite flag is set to
@@ -50,7 +50,12 @@ public enum StorageFileType {
 	/**
 	 * Business context data file.
 	 */
-	BUSINESS_CONTEXT_FILE(".bctx", "business");
+	BUSINESS_CONTEXT_FILE(".bctx", "business"),
+
+	/**
+	 * Storage index leaf files that are memory mapped when the index is queried.
+	 */
+	INDEX_LEAF_FILE(".leaves");
 
 	/**
 	 * The LOOKUP map which is used to get an element of the enumeration when passing the full
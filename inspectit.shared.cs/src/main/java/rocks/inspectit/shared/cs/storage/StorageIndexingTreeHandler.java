@@ -1,5 +1,8 @@
 package rocks.inspectit.shared.cs.storage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +32,7 @@ import rocks.inspectit.shared.all.spring.logger.Log;
 import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexMapper;
 import rocks.inspectit.shared.cs.storage.StorageWriter.WriteTask;
 import rocks.inspectit.shared.cs.storage.util.StorageIndexTreeProvider;
 
@@ -270,10 +274,40 @@ public class StorageIndexingTreeHandler {
 					Thread.interrupted();
 				}
 			}
-			currentIndexingTree.preWriteFinalization();
-			boolean written = storageWriter.writeNonDefaultDataObject(currentIndexingTree, getRandomFileName() + StorageFileType.INDEX_FILE.getExtension());
-			if (!written) {
-				log.error("Indexing tree saving failed. Indexing tree might be lost.");
+			writeIndexingTree(currentIndexingTree);
+		}
+	}
+
+	/**
+	 * Writes the indexing tree. The leaves of the tree are first moved to the index leaf file that
+	 * is memory mapped when the storage is queried, so that the loading of the indexing tree does
+	 * not require loading of all descriptors. If this fails, the leaves are saved with the tree.
+	 *
+	 * @param indexingTree
+	 *            Indexing tree to write. Must not be changed any more.
+	 */
+	private void writeIndexingTree(IStorageTreeComponent<DefaultData> indexingTree) {
+		indexingTree.preWriteFinalization();
+		String fileName = getRandomFileName();
+		Path writingFolderPath = storageWriter.getWritingFolderPath();
+		Path leafFilePath = null;
+		if (null != writingFolderPath) {
+			leafFilePath = writingFolderPath.resolve(fileName + StorageFileType.INDEX_LEAF_FILE.getExtension());
+			try {
+				StorageIndexMapper.externalizeLeaves(indexingTree, leafFilePath);
+			} catch (IOException e) {
+				log.warn("Writing the index leaf file failed. Leaves will be saved with the indexing tree.", e);
+			}
+		}
+		boolean written = storageWriter.writeNonDefaultDataObject(indexingTree, fileName + StorageFileType.INDEX_FILE.getExtension());
+		if (!written) {
+			log.error("Indexing tree saving failed. Indexing tree might be lost.");
+			if (null != leafFilePath) {
+				try {
+					Files.deleteIfExists(leafFilePath);
+				} catch (IOException e) {
+					log.warn("Index leaf file of the lost indexing tree could not be deleted.", e);
+				}
 			}
 		}
 	}
@@ -334,11 +368,7 @@ public class StorageIndexingTreeHandler {
 									public void run() {
 										boolean safeToSave = Collections.disjoint(writeTasksToWait, writeTasksInProcess.keySet());
 										if (safeToSave) {
-											currentIndexingTree.preWriteFinalization();
-											boolean written = storageWriter.writeNonDefaultDataObject(currentIndexingTree, getRandomFileName() + StorageFileType.INDEX_FILE.getExtension());
-											if (!written) {
-												log.error("Indexing tree saving failed. Indexing tree might be lost.");
-											}
+											writeIndexingTree(currentIndexingTree);
 										} else {
 											executorService.schedule(this, WAITING_FOR_TREE_TO_BE_READY, TimeUnit.MILLISECONDS);
 										}
@@ -14,6 +14,7 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -41,6 +42,7 @@ import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
 import rocks.inspectit.shared.cs.storage.util.DeleteFileVisitor;
+import rocks.inspectit.shared.cs.storage.util.RollupResolution;
 import rocks.inspectit.shared.cs.storage.util.StorageDeleteFileVisitor;
 
 /**
@@ -69,6 +71,11 @@ public abstract class StorageManager {
 	 */
 	private static final String CACHED_DATA_FOLDER = "cache";
 
+	/**
+	 * Suffix of the temporary files used when replacing the cached data.
+	 */
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
 	/**
 	 * {@link SerializationManagerProvider}.
 	 */
@@ -648,6 +655,69 @@ public abstract class StorageManager {
 		}
 	}
 
+	/**
+	 * Caches the given collection of {@link DefaultData} for the storage, replacing the data that
+	 * is already cached under the same hash. The data is first written to a temporary file that is
+	 * then atomically moved over the existing file, thus the existing data is kept if the writing
+	 * fails.
+	 *
+	 * @param storageData
+	 *            Storage to hash data for.
+	 * @param data
+	 *            Data to be cached.
+	 * @param hash
+	 *            Hash to use for caching.
+	 * @throws IOException
+	 *             If {@link IOException} is thrown during operation.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} is thrown during operation.
+	 */
+	public void replaceCachedStorageData(IStorageData storageData, Collection<? extends DefaultData> data, int hash) throws IOException, SerializationException {
+		Path path = getCachedDataPath(storageData, hash);
+		Path parent = path.getParent();
+		if (Files.notExists(parent)) {
+			Files.createDirectories(parent);
+		}
+
+		Path tempPath = Files.createTempFile(parent, String.valueOf(hash), TEMP_FILE_SUFFIX);
+		try {
+			try (OutputStream outputStream = Files.newOutputStream(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				serializeDataToOutputStream(data, outputStream, true);
+			}
+			Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	/**
+	 * Returns the data cached for the storage under the given hash.
+	 *
+	 * @param <E>
+	 *            Type of the cached elements.
+	 * @param storageData
+	 *            Storage the data is cached for.
+	 * @param hash
+	 *            Hash the data was cached with.
+	 * @return Cached data or <code>null</code> if no data is cached under the hash.
+	 * @throws IOException
+	 *             If {@link IOException} is thrown during operation.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} is thrown during operation.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends DefaultData> List<E> getCachedStorageData(IStorageData storageData, int hash) throws IOException, SerializationException {
+		Path path = getCachedDataPath(storageData, hash);
+		if (Files.notExists(path)) {
+			return null;
+		}
+
+		ISerializer serializer = serializationManagerProvider.createSerializer();
+		try (Input input = new Input(Files.newInputStream(path, StandardOpenOption.READ))) {
+			return (List<E>) serializer.deserialize(input);
+		}
+	}
+
 	/**
 	 * Returns if the results of this query/aggregator combination can be used for caching.
 	 *
@@ -696,6 +766,35 @@ public abstract class StorageManager {
 		return result;
 	}
 
+	/**
+	 * Returns hash for the rollup partition of the storage. Rollups are saved as the cached data
+	 * with this hash, see {@link #cacheStorageData(IStorageData, Collection, int)}.
+	 * <p>
+	 * <B>WARNING:</b> There is small possibility that we get the hash collision. We are aware of
+	 * this, but we are taking our chances.
+	 *
+	 * @param rollupClass
+	 *            Class of the data in the rollup.
+	 * @param platformIdent
+	 *            Platform ident of the data in the rollup.
+	 * @param resolution
+	 *            Resolution of the rollup.
+	 * @param partitionStart
+	 *            Start of the partition as returned by
+	 *            {@link RollupResolution#getPartitionStart(long)}.
+	 * @return Hash
+	 */
+	public int getRollupDataHash(Class<?> rollupClass, long platformIdent, RollupResolution resolution, long partitionStart) {
+		// class and enum hash codes are not stable between JVMs, thus use names
+		final int prime = 31;
+		int result = 0;
+		result = (prime * result) + rollupClass.getName().hashCode();
+		result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
+		result = (prime * result) + resolution.name().hashCode();
+		result = (prime * result) + (int) (partitionStart ^ (partitionStart >>> 32));
+		return result;
+	}
+
 	/**
 	 * Gets {@link #serializationManagerProvider}.
 	 *
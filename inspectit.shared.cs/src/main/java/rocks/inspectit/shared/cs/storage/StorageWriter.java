@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -43,6 +44,8 @@ import rocks.inspectit.shared.all.storage.nio.stream.ExtendedByteBufferOutputStr
 import rocks.inspectit.shared.all.storage.nio.stream.StreamProvider;
 import rocks.inspectit.shared.cs.communication.data.cmr.WritingStatus;
 import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
+import rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock;
+import rocks.inspectit.shared.cs.storage.columnar.ColumnBlockCollector;
 import rocks.inspectit.shared.cs.storage.nio.WriteReadCompletionRunnable;
 import rocks.inspectit.shared.cs.storage.nio.write.WritingChannelManager;
 import rocks.inspectit.shared.cs.storage.processor.AbstractDataProcessor;
@@ -175,6 +178,12 @@ public class StorageWriter implements IWriter {
 	 */
 	private Set<FutureTask<?>> activeWritingTasks = Collections.newSetFromMap(new ConcurrentHashMap<FutureTask<?>, Boolean>(256, 0.75f, 4));
 
+	/**
+	 * Collector of the data written in the columnar format. Only set if the storage is written in
+	 * the columnar format.
+	 */
+	private volatile ColumnBlockCollector columnBlockCollector;
+
 	/**
 	 * Process the list of objects against the all the {@link AbstractDataProcessor}s that are
 	 * provided. Processor define which data will be stored, when and in which format.
@@ -268,6 +277,11 @@ public class StorageWriter implements IWriter {
 	 * {@inheritDoc}
 	 * <p>
 	 * This method is only submitting a new writing task, thus it is thread safe and very fast.
+	 * <p>
+	 * If the storage is written in the columnar format, the data that can be written in the column
+	 * blocks is collected and the writing task is only submitted when a block is closed, that is
+	 * when it is full or its period is finished. In this case the returned future is the future of
+	 * the block writing task or an already completed future if no block was closed.
 	 */
 	@Override
 	public Future<Void> write(DefaultData defaultData, Map<?, ?> kryoPreferences) {
@@ -280,16 +294,38 @@ public class StorageWriter implements IWriter {
 				}
 			}
 
-			WriteTask writeTask = new WriteTask(defaultData, kryoPreferences);
-			WriteFutureTask writeFutureTask = new WriteFutureTask(writeTask);
-			activeWritingTasks.add(writeFutureTask);
-			writingExecutorService.submit(writeFutureTask);
-			return writeFutureTask;
+			ColumnBlockCollector collector = columnBlockCollector;
+			if ((null != collector) && collector.collect(defaultData, kryoPreferences)) {
+				Future<Void> future = CompletableFuture.completedFuture(null);
+				for (AbstractColumnBlock<?> block : collector.pollClosedBlocks()) {
+					future = submitWriteTask(block, Collections.emptyMap());
+				}
+				return future;
+			}
+
+			return submitWriteTask(defaultData, kryoPreferences);
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Submits the writing task for the data.
+	 *
+	 * @param defaultData
+	 *            Data to write.
+	 * @param kryoPreferences
+	 *            Map of preferences to be passed to the serializer.
+	 * @return Future of the submitted task.
+	 */
+	private Future<Void> submitWriteTask(DefaultData defaultData, Map<?, ?> kryoPreferences) {
+		WriteTask writeTask = new WriteTask(defaultData, kryoPreferences);
+		WriteFutureTask writeFutureTask = new WriteFutureTask(writeTask);
+		activeWritingTasks.add(writeFutureTask);
+		writingExecutorService.submit(writeFutureTask);
+		return writeFutureTask;
+	}
+
 	/**
 	 * Informs the {@link StorageWriter} to prepare for writing. The writer will perform all
 	 * necessary operations so that calls to {@link #write(DefaultData)} can be executed. The
@@ -314,6 +350,10 @@ public class StorageWriter implements IWriter {
 			// prepare the indexing tree handler
 			indexingTreeHandler.prepare();
 
+			if (storageData.isColumnarFormat()) {
+				columnBlockCollector = new ColumnBlockCollector();
+			}
+
 			// activate check writing status task manually
 			checkWritingStatusFuture = scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
 				@Override
@@ -403,6 +443,14 @@ public class StorageWriter implements IWriter {
 			// cancel the check writing status task
 			checkWritingStatusFuture.cancel(false);
 
+			// write the blocks of the columnar format that are still open, so that the collected
+			// data is not lost even if the writer is not finalized
+			if (null != columnBlockCollector) {
+				for (AbstractColumnBlock<?> block : columnBlockCollector.pollAllBlocks()) {
+					submitWriteTask(block, Collections.emptyMap());
+				}
+			}
+
 			// wait for pending tasks
 			waitForPendingWritingTasks();
 
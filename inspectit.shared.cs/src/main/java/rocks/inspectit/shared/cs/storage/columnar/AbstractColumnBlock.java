@@ -0,0 +1,602 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+
+/**
+ * Block of timer data elements of the same platform, sensor type, method and class that is
+ * written to the storage as one object in the columnar format. Instead of serializing each element
+ * with its complete object graph, each field of all elements is written as one column (see
+ * {@link ColumnWriter}) and the columns are compressed together.
+ * <p>
+ * The block carries the statistics of its elements: the minimum time stamp (as the block time
+ * stamp), the maximum time stamp and the minimum and maximum element id. The id of the block is the
+ * maximum element id, so that the block is found by the storage indexing tree with the minimum id
+ * queries. With {@link #isQueryComplied(IIndexQuery)} the statistics are checked against the query,
+ * so that not matching blocks are skipped without reading the columns.
+ * <p>
+ * The block is filled with {@link #add(TimerData)} and must be sealed with {@link #seal()} before
+ * writing. The elements are restored with {@link #getElements()}.
+ * <P>
+ * <b>Important:</b><br>
+ * Changing the columns written by the block can cause the break of the backward/forward
+ * compatibility of the storage in the way that we will not be able to read any data from the
+ * storage. Thus, please be careful with performing any changes until there is a proper mechanism
+ * to protect against this problem.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of the elements in the block.
+ */
+public abstract class AbstractColumnBlock<E extends TimerData> extends MethodSensorData {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = 3211646253627413470L;
+
+	/**
+	 * If the block holds the aggregated version of the elements.
+	 */
+	private boolean aggregated;
+
+	/**
+	 * Amount of elements in the block.
+	 */
+	private int elementCount;
+
+	/**
+	 * Minimum id of the elements in the block.
+	 */
+	private long minId;
+
+	/**
+	 * Maximum time stamp of the elements in the block.
+	 */
+	private long maxTimestamp;
+
+	/**
+	 * Size of the column data before compression.
+	 */
+	private int uncompressedSize;
+
+	/**
+	 * Compressed column data. Not serialized with the other fields, the
+	 * {@link rocks.inspectit.shared.cs.storage.serializer.impl.ColumnBlockSerializer} writes it
+	 * after them, so that it can be skipped when reading.
+	 */
+	private transient byte[] columns;
+
+	/**
+	 * Elements added to the block that is not yet sealed.
+	 */
+	private transient List<E> pendingElements;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public AbstractColumnBlock() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param platformIdent
+	 *            Platform ident of all elements.
+	 * @param sensorTypeIdent
+	 *            Sensor type ident of all elements.
+	 * @param methodIdent
+	 *            Method ident of all elements.
+	 * @param aggregated
+	 *            If the block holds the aggregated version of the elements.
+	 */
+	public AbstractColumnBlock(long platformIdent, long sensorTypeIdent, long methodIdent, boolean aggregated) {
+		setPlatformIdent(platformIdent);
+		setSensorTypeIdent(sensorTypeIdent);
+		setMethodIdent(methodIdent);
+		this.aggregated = aggregated;
+		this.pendingElements = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the element to the block. The caller is responsible that the element belongs to the
+	 * block, see {@link ColumnBlockCollector}.
+	 *
+	 * @param element
+	 *            Element to add.
+	 */
+	public void add(E element) {
+		if (null == pendingElements) {
+			throw new IllegalStateException("Elements can not be added to the sealed column block.");
+		}
+		pendingElements.add(element);
+	}
+
+	/**
+	 * Returns the amount of elements in the block.
+	 *
+	 * @return Returns the amount of elements in the block.
+	 */
+	public int getElementCount() {
+		if (null != pendingElements) {
+			return pendingElements.size();
+		}
+		return elementCount;
+	}
+
+	/**
+	 * Writes all added elements to the compressed columns and calculates the block statistics.
+	 * After this no more elements can be added.
+	 */
+	public void seal() {
+		if (null == pendingElements) {
+			return;
+		}
+		List<E> elements = pendingElements;
+		pendingElements = null; // NOPMD
+		elementCount = elements.size();
+
+		int size = elements.size();
+		long[] ids = new long[size];
+		long[] timestamps = new long[size];
+		long[] counts = new long[size];
+		long[] exclusiveCounts = new long[size];
+		boolean[] charting = new boolean[size];
+		double[][] doubles = new double[TimerColumn.values().length][size];
+
+		long minElementId = Long.MAX_VALUE;
+		long maxElementId = Long.MIN_VALUE;
+		long minElementTimestamp = Long.MAX_VALUE;
+		long maxElementTimestamp = Long.MIN_VALUE;
+		for (int i = 0; i < size; i++) {
+			E element = elements.get(i);
+			ids[i] = element.getId();
+			timestamps[i] = element.getTimeStamp().getTime();
+			counts[i] = element.getCount();
+			exclusiveCounts[i] = element.getExclusiveCount();
+			charting[i] = element.isCharting();
+			for (TimerColumn column : TimerColumn.values()) {
+				doubles[column.ordinal()][i] = column.get(element);
+			}
+
+			minElementId = Math.min(minElementId, ids[i]);
+			maxElementId = Math.max(maxElementId, ids[i]);
+			minElementTimestamp = Math.min(minElementTimestamp, timestamps[i]);
+			maxElementTimestamp = Math.max(maxElementTimestamp, timestamps[i]);
+		}
+
+		ColumnWriter writer = new ColumnWriter();
+		writer.writeLongs(ids);
+		writer.writeLongs(timestamps);
+		writer.writeLongs(counts);
+		writer.writeLongs(exclusiveCounts);
+		writer.writeBooleans(charting);
+		for (double[] column : doubles) {
+			writer.writeDoubles(column);
+		}
+		writeAdditionalColumns(elements, writer);
+
+		uncompressedSize = writer.getUncompressedSize();
+		columns = writer.toCompressedBytes();
+
+		if (size > 0) {
+			setId(maxElementId);
+			minId = minElementId;
+			setTimeStamp(new Timestamp(minElementTimestamp));
+			maxTimestamp = maxElementTimestamp;
+		}
+	}
+
+	/**
+	 * Restores the elements of the block from the columns.
+	 *
+	 * @return Elements of the block in the order they were added.
+	 * @throws SerializationException
+	 *             If the column data can not be decompressed.
+	 */
+	public List<E> getElements() throws SerializationException {
+		if (null != pendingElements) {
+			return Collections.unmodifiableList(pendingElements);
+		}
+		if (0 == elementCount) {
+			return Collections.emptyList();
+		}
+		if (null == columns) {
+			throw new SerializationException("Column data of the block " + this + " was not read.");
+		}
+
+		ColumnReader reader;
+		try {
+			reader = new ColumnReader(columns, uncompressedSize);
+		} catch (DataFormatException e) {
+			throw new SerializationException("Column data of the block " + this + " can not be decompressed.", e);
+		}
+
+		int size = elementCount;
+		long[] ids = reader.readLongs(size);
+		long[] timestamps = reader.readLongs(size);
+		long[] counts = reader.readLongs(size);
+		long[] exclusiveCounts = reader.readLongs(size);
+		boolean[] charting = reader.readBooleans(size);
+		double[][] doubles = new double[TimerColumn.values().length][];
+		for (TimerColumn column : TimerColumn.values()) {
+			doubles[column.ordinal()] = reader.readDoubles(size);
+		}
+
+		List<E> elements = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			E element = createElement(aggregated);
+			element.setId(ids[i]);
+			element.setPlatformIdent(getPlatformIdent());
+			element.setSensorTypeIdent(getSensorTypeIdent());
+			element.setMethodIdent(getMethodIdent());
+			element.setTimeStamp(new Timestamp(timestamps[i]));
+			element.setCount(counts[i]);
+			element.setExclusiveCount(exclusiveCounts[i]);
+			element.setCharting(charting[i]);
+			for (TimerColumn column : TimerColumn.values()) {
+				column.set(element, doubles[column.ordinal()][i]);
+			}
+			elements.add(element);
+		}
+		readAdditionalColumns(elements, reader);
+		return elements;
+	}
+
+	/**
+	 * Returns the class of the elements in this block. The block is indexed in the storage with
+	 * this class, so that the queries for the element class find the block.
+	 *
+	 * @return Returns the class of the elements in this block.
+	 */
+	public Class<? extends E> getElementClass() {
+		return getElementClass(aggregated);
+	}
+
+	/**
+	 * Returns the class of the elements.
+	 *
+	 * @param aggregatedElements
+	 *            If the aggregated class should be returned.
+	 * @return Element class.
+	 */
+	protected abstract Class<? extends E> getElementClass(boolean aggregatedElements);
+
+	/**
+	 * Creates the new empty element.
+	 *
+	 * @param aggregatedElement
+	 *            If the aggregated version of the element should be created.
+	 * @return New element.
+	 */
+	protected abstract E createElement(boolean aggregatedElement);
+
+	/**
+	 * Writes the columns of the fields specific to the element type. Default implementation does
+	 * nothing.
+	 *
+	 * @param elements
+	 *            Elements of the block.
+	 * @param writer
+	 *            Writer to write columns to.
+	 */
+	void writeAdditionalColumns(List<E> elements, ColumnWriter writer) {
+	}
+
+	/**
+	 * Reads the columns written in {@link #writeAdditionalColumns(List, ColumnWriter)} and sets
+	 * the values to the elements. Default implementation does nothing.
+	 *
+	 * @param elements
+	 *            Elements already restored with the common timer fields.
+	 * @param reader
+	 *            Reader to read columns from.
+	 */
+	void readAdditionalColumns(List<E> elements, ColumnReader reader) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Checks the query against the block statistics. If <code>true</code> is returned some of the
+	 * elements in the block might comply the query and they have to be checked one by one. If
+	 * <code>false</code> is returned no element in the block complies the query. The query
+	 * restrictions are not checked, as they refer to the element fields.
+	 */
+	@Override
+	public boolean isQueryComplied(IIndexQuery query) {
+		if ((query.getObjectClasses() != null) && !query.getObjectClasses().contains(getElementClass())) {
+			return false;
+		}
+		if ((query.getMethodIdent() != 0) && (query.getMethodIdent() != getMethodIdent())) {
+			return false;
+		}
+		if (query.getMinId() > getId()) {
+			return false;
+		}
+		if ((query.getPlatformIdent() != 0) && (query.getPlatformIdent() != getPlatformIdent())) {
+			return false;
+		}
+		if ((query.getSensorTypeIdent() != 0) && (query.getSensorTypeIdent() != getSensorTypeIdent())) {
+			return false;
+		}
+		if (query.isIntervalSet()) {
+			if ((null != query.getFromDate()) && (query.getFromDate().getTime() > maxTimestamp)) {
+				return false;
+			}
+			if ((null != query.getToDate()) && (null != getTimeStamp()) && (query.getToDate().getTime() < getTimeStamp().getTime())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets {@link #aggregated}.
+	 *
+	 * @return {@link #aggregated}
+	 */
+	public boolean isAggregated() {
+		return aggregated;
+	}
+
+	/**
+	 * Gets {@link #minId}.
+	 *
+	 * @return {@link #minId}
+	 */
+	public long getMinId() {
+		return minId;
+	}
+
+	/**
+	 * Gets {@link #columns}.
+	 *
+	 * @return {@link #columns}
+	 */
+	public byte[] getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Sets {@link #columns}.
+	 *
+	 * @param columns
+	 *            New value for {@link #columns}
+	 */
+	public void setColumns(byte[] columns) {
+		this.columns = columns;
+	}
+
+	/**
+	 * Gets {@link #maxTimestamp}.
+	 *
+	 * @return {@link #maxTimestamp}
+	 */
+	public long getMaxTimestamp() {
+		return maxTimestamp;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
+		long size = super.getObjectSize(objectSizes, doAlign);
+		size += objectSizes.getPrimitiveTypesSize(2, 1, 2, 0, 2, 0);
+		if (null != columns) {
+			size += objectSizes.getSizeOfPrimitiveArray(columns.length, 1);
+		}
+		if (doAlign) {
+			return objectSizes.alignTo8Bytes(size);
+		} else {
+			return size;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("elementClass", getElementClass().getSimpleName());
+		toStringBuilder.append("platformIdent", getPlatformIdent());
+		toStringBuilder.append("methodIdent", getMethodIdent());
+		toStringBuilder.append("elementCount", getElementCount());
+		toStringBuilder.append("minId", minId);
+		toStringBuilder.append("maxId", getId());
+		return toStringBuilder.toString();
+	}
+
+	/**
+	 * The double columns of the {@link TimerData}. The order of the constants defines the order of
+	 * the columns, thus new columns must only be added at the end.
+	 *
+	 * @author agent
+	 *
+	 */
+	private enum TimerColumn {
+
+		/**
+		 * Duration.
+		 */
+		DURATION {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getDuration();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.setDuration(value);
+			}
+		},
+
+		/**
+		 * Minimum.
+		 */
+		MIN {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getMin();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateMin(value);
+			}
+		},
+
+		/**
+		 * Maximum.
+		 */
+		MAX {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getMax();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateMax(value);
+			}
+		},
+
+		/**
+		 * Variance.
+		 */
+		VARIANCE {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getVariance();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.setVariance(value);
+			}
+		},
+
+		/**
+		 * CPU duration.
+		 */
+		CPU_DURATION {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getCpuDuration();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.setCpuDuration(value);
+			}
+		},
+
+		/**
+		 * CPU minimum.
+		 */
+		CPU_MIN {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getCpuMin();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateCpuMin(value);
+			}
+		},
+
+		/**
+		 * CPU maximum.
+		 */
+		CPU_MAX {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getCpuMax();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateCpuMax(value);
+			}
+		},
+
+		/**
+		 * Exclusive duration.
+		 */
+		EXCLUSIVE_DURATION {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getExclusiveDuration();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.setExclusiveDuration(value);
+			}
+		},
+
+		/**
+		 * Exclusive minimum.
+		 */
+		EXCLUSIVE_MIN {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getExclusiveMin();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateExclusiveMin(value);
+			}
+		},
+
+		/**
+		 * Exclusive maximum.
+		 */
+		EXCLUSIVE_MAX {
+			@Override
+			double get(TimerData timerData) {
+				return timerData.getExclusiveMax();
+			}
+
+			@Override
+			void set(TimerData timerData, double value) {
+				timerData.calculateExclusiveMax(value);
+			}
+		};
+
+		/**
+		 * Reads the column value from the element.
+		 *
+		 * @param timerData
+		 *            Element.
+		 * @return Value.
+		 */
+		abstract double get(TimerData timerData);
+
+		/**
+		 * Sets the column value to the element.
+		 *
+		 * @param timerData
+		 *            Element.
+		 * @param value
+		 *            Value.
+		 */
+		abstract void set(TimerData timerData, double value);
+	}
+}
@@ -0,0 +1,271 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.IIdsAwareAggregatedData;
+import rocks.inspectit.shared.all.communication.data.AggregatedHttpTimerData;
+import rocks.inspectit.shared.all.communication.data.AggregatedSqlStatementData;
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.util.KryoSerializationPreferences;
+import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
+
+/**
+ * Collects the timer, SQL and HTTP timer data that is written to the storage in the columnar
+ * format into the {@link AbstractColumnBlock}s. Elements are grouped by class, platform, sensor
+ * type, method (and SQL string) and by the {@link TimestampIndexer#INDEXING_PERIOD}, so that each
+ * block is placed in the same branch of the storage indexing tree as its elements would be.
+ * <p>
+ * A block is closed when it reaches the maximum size or when its period is finished, that is when
+ * data of a period at least two periods later is collected. Thus, only the blocks of the current
+ * and the previous period are kept in memory, while the closed blocks can be written right away.
+ * <p>
+ * Elements that carry data not covered by the columns (parameter contents, invocation affiliation
+ * that should be written, SQL parameter values, HTTP parameters, attributes, headers or session
+ * attributes) are not collected and should be written as single objects.
+ * <p>
+ * The class is thread safe.
+ *
+ * @author agent
+ *
+ */
+public class ColumnBlockCollector {
+
+	/**
+	 * Default maximum amount of elements in one block.
+	 */
+	private static final int DEFAULT_MAX_BLOCK_SIZE = 1024;
+
+	/**
+	 * Index of the period in the block key.
+	 */
+	private static final int PERIOD_KEY_INDEX = 4;
+
+	/**
+	 * Maximum amount of elements in one block.
+	 */
+	private final int maxBlockSize;
+
+	/**
+	 * Blocks that are currently being filled.
+	 */
+	private final Map<List<Object>, AbstractColumnBlock<?>> openBlocks = new HashMap<>();
+
+	/**
+	 * Blocks that reached the maximum size or whose period is finished.
+	 */
+	private List<AbstractColumnBlock<?>> closedBlocks = new ArrayList<>();
+
+	/**
+	 * Newest period of the collected data.
+	 */
+	private long newestPeriod = Long.MIN_VALUE;
+
+	/**
+	 * Default constructor. Uses maximum block size of {@value #DEFAULT_MAX_BLOCK_SIZE} elements.
+	 */
+	public ColumnBlockCollector() {
+		this(DEFAULT_MAX_BLOCK_SIZE);
+	}
+
+	/**
+	 * Secondary constructor.
+	 *
+	 * @param maxBlockSize
+	 *            Maximum amount of elements in one block.
+	 */
+	public ColumnBlockCollector(int maxBlockSize) {
+		if (maxBlockSize <= 0) {
+			throw new IllegalArgumentException("Maximum block size must be a positive number greater than zero.");
+		}
+		this.maxBlockSize = maxBlockSize;
+	}
+
+	/**
+	 * Adds the data to the matching block if the data can be written in the columnar format.
+	 *
+	 * @param defaultData
+	 *            Data to be written.
+	 * @param kryoPreferences
+	 *            Preferences the data would be serialized with.
+	 * @return <code>true</code> if the data was collected, <code>false</code> if it should be
+	 *         written as single object.
+	 */
+	public boolean collect(DefaultData defaultData, Map<?, ?> kryoPreferences) {
+		if (!isCollectable(defaultData, kryoPreferences)) {
+			return false;
+		}
+
+		TimerData timerData = (TimerData) defaultData;
+		String sql = (timerData instanceof SqlStatementData) ? ((SqlStatementData) timerData).getSql() : null;
+		long period = timerData.getTimeStamp().getTime() - (timerData.getTimeStamp().getTime() % TimestampIndexer.INDEXING_PERIOD);
+		List<Object> key = Arrays.<Object> asList(timerData.getClass(), timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent(), period, sql);
+
+		synchronized (this) {
+			AbstractColumnBlock<?> block = openBlocks.get(key);
+			if (null == block) {
+				block = createBlock(timerData);
+				openBlocks.put(key, block);
+			}
+			addToBlock(block, timerData);
+			if (block.getElementCount() >= maxBlockSize) {
+				openBlocks.remove(key);
+				closedBlocks.add(block);
+			}
+			if (period > newestPeriod) {
+				newestPeriod = period;
+				closeFinishedPeriods();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Closes the open blocks of the periods that are more than one period older than the
+	 * {@link #newestPeriod}. Must be called while holding the lock of this collector.
+	 */
+	private void closeFinishedPeriods() {
+		for (Iterator<Map.Entry<List<Object>, AbstractColumnBlock<?>>> it = openBlocks.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<List<Object>, AbstractColumnBlock<?>> entry = it.next();
+			long period = ((Long) entry.getKey().get(PERIOD_KEY_INDEX)).longValue();
+			if (period < (newestPeriod - TimestampIndexer.INDEXING_PERIOD)) {
+				closedBlocks.add(entry.getValue());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the blocks that reached the maximum size or whose period is finished and removes
+	 * them from the collector. The returned blocks are sealed and ready for writing.
+	 *
+	 * @return Closed blocks or empty list if there are none.
+	 */
+	public List<AbstractColumnBlock<?>> pollClosedBlocks() {
+		List<AbstractColumnBlock<?>> blocks;
+		synchronized (this) {
+			if (closedBlocks.isEmpty()) {
+				return new ArrayList<>(0);
+			}
+			blocks = closedBlocks;
+			closedBlocks = new ArrayList<>();
+		}
+		return seal(blocks);
+	}
+
+	/**
+	 * Returns all blocks regardless of their size and removes them from the collector. The
+	 * returned blocks are sealed and ready for writing.
+	 *
+	 * @return All blocks or empty list if there are none.
+	 */
+	public List<AbstractColumnBlock<?>> pollAllBlocks() {
+		List<AbstractColumnBlock<?>> blocks;
+		synchronized (this) {
+			blocks = closedBlocks;
+			blocks.addAll(openBlocks.values());
+			closedBlocks = new ArrayList<>();
+			openBlocks.clear();
+		}
+		return seal(blocks);
+	}
+
+	/**
+	 * Returns if the data can be written in the columnar format.
+	 *
+	 * @param defaultData
+	 *            Data to be written.
+	 * @param kryoPreferences
+	 *            Preferences the data would be serialized with.
+	 * @return <code>true</code> if all information of the data is kept in the column block.
+	 */
+	static boolean isCollectable(DefaultData defaultData, Map<?, ?> kryoPreferences) {
+		if ((null == defaultData) || (0 == defaultData.getId()) || (null == defaultData.getTimeStamp())) {
+			return false;
+		}
+
+		Class<?> dataClass = defaultData.getClass();
+		if (!TimerData.class.equals(dataClass) && !AggregatedTimerData.class.equals(dataClass) && !SqlStatementData.class.equals(dataClass) && !AggregatedSqlStatementData.class.equals(dataClass)
+				&& !HttpTimerData.class.equals(dataClass) && !AggregatedHttpTimerData.class.equals(dataClass)) {
+			return false;
+		}
+
+		TimerData timerData = (TimerData) defaultData;
+		if (CollectionUtils.isNotEmpty(timerData.getParameterContentData())) {
+			return false;
+		}
+		boolean writeInvocationAffiliation = (null == kryoPreferences) || !Boolean.FALSE.equals(kryoPreferences.get(KryoSerializationPreferences.WRITE_INVOCATION_AFFILIATION_DATA));
+		if (writeInvocationAffiliation && MapUtils.isNotEmpty(timerData.getInvocationsParentsIdMap())) {
+			return false;
+		}
+		if ((timerData instanceof IIdsAwareAggregatedData) && CollectionUtils.isNotEmpty(((IIdsAwareAggregatedData<?>) timerData).getAggregatedIds())) {
+			return false;
+		}
+
+		if (timerData instanceof SqlStatementData) {
+			return null == ((SqlStatementData) timerData).getParameterValues();
+		} else if (timerData instanceof HttpTimerData) {
+			HttpTimerData httpTimerData = (HttpTimerData) timerData;
+			return (null != httpTimerData.getHttpInfo()) && (null == httpTimerData.getParameters()) && (null == httpTimerData.getAttributes()) && (null == httpTimerData.getHeaders())
+					&& (null == httpTimerData.getSessionAttributes());
+		}
+		return true;
+	}
+
+	/**
+	 * Creates the block for the data.
+	 *
+	 * @param timerData
+	 *            First element of the block.
+	 * @return New block.
+	 */
+	private AbstractColumnBlock<?> createBlock(TimerData timerData) {
+		boolean aggregated = timerData instanceof IIdsAwareAggregatedData;
+		if (timerData instanceof SqlStatementData) {
+			return new SqlStatementDataColumnBlock(timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent(), aggregated, ((SqlStatementData) timerData).getSql());
+		} else if (timerData instanceof HttpTimerData) {
+			return new HttpTimerDataColumnBlock(timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent(), aggregated);
+		} else {
+			return new TimerDataColumnBlock(timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent(), aggregated);
+		}
+	}
+
+	/**
+	 * Adds the data to the block created with {@link #createBlock(TimerData)} for the same data
+	 * class.
+	 *
+	 * @param block
+	 *            Block.
+	 * @param timerData
+	 *            Data.
+	 */
+	@SuppressWarnings("unchecked")
+	private void addToBlock(AbstractColumnBlock<?> block, TimerData timerData) {
+		((AbstractColumnBlock<TimerData>) block).add(timerData);
+	}
+
+	/**
+	 * Seals all given blocks.
+	 *
+	 * @param blocks
+	 *            Blocks.
+	 * @return Same list.
+	 */
+	private List<AbstractColumnBlock<?>> seal(List<AbstractColumnBlock<?>> blocks) {
+		for (AbstractColumnBlock<?> block : blocks) {
+			block.seal();
+		}
+		return blocks;
+	}
+}
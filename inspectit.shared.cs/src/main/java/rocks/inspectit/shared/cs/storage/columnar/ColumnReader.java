@@ -0,0 +1,172 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the columns written by the {@link ColumnWriter}. Columns must be read in the same order
+ * and with the same amount of values as they were written.
+ *
+ * @author agent
+ *
+ * @see ColumnWriter
+ */
+class ColumnReader {
+
+	/**
+	 * Uncompressed column data.
+	 */
+	private final byte[] data;
+
+	/**
+	 * Current reading position.
+	 */
+	private int position;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param compressed
+	 *            Compressed column data.
+	 * @param uncompressedSize
+	 *            Size of the column data before the compression.
+	 * @throws DataFormatException
+	 *             If the data can not be decompressed.
+	 */
+	ColumnReader(byte[] compressed, int uncompressedSize) throws DataFormatException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			data = new byte[uncompressedSize];
+			int read = 0;
+			while (read < uncompressedSize) {
+				int count = inflater.inflate(data, read, uncompressedSize - read);
+				if ((0 == count) && (inflater.finished() || inflater.needsInput())) {
+					throw new DataFormatException("Column data is shorter than expected " + uncompressedSize + " bytes.");
+				}
+				read += count;
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Reads the long column.
+	 *
+	 * @param count
+	 *            Amount of values.
+	 * @return Values.
+	 */
+	long[] readLongs(int count) {
+		long[] values = new long[count];
+		long previous = 0;
+		for (int i = 0; i < count; i++) {
+			previous += unZigZag(readVarLong());
+			values[i] = previous;
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the double column.
+	 *
+	 * @param count
+	 *            Amount of values.
+	 * @return Values.
+	 */
+	double[] readDoubles(int count) {
+		double[] values = new double[count];
+		long previous = 0;
+		for (int i = 0; i < count; i++) {
+			previous ^= readFixedLong();
+			values[i] = Double.longBitsToDouble(previous);
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the boolean column.
+	 *
+	 * @param count
+	 *            Amount of values.
+	 * @return Values.
+	 */
+	boolean[] readBooleans(int count) {
+		boolean[] values = new boolean[count];
+		int current = 0;
+		for (int i = 0; i < count; i++) {
+			if ((i % 8) == 0) {
+				current = data[position++];
+			}
+			values[i] = (current & (1 << (i % 8))) != 0;
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the string column.
+	 *
+	 * @param count
+	 *            Amount of values.
+	 * @return Values.
+	 */
+	String[] readStrings(int count) {
+		String[] dictionary = new String[(int) readVarLong()];
+		for (int i = 0; i < dictionary.length; i++) {
+			int length = (int) readVarLong();
+			dictionary[i] = new String(data, position, length, StandardCharsets.UTF_8);
+			position += length;
+		}
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			int index = (int) readVarLong();
+			if (ColumnWriter.NULL_STRING_INDEX != index) {
+				values[i] = dictionary[index - 1];
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Reads the variable length integer.
+	 *
+	 * @return Value.
+	 */
+	private long readVarLong() {
+		long value = 0;
+		int shift = 0;
+		int current;
+		do {
+			current = data[position++];
+			value |= (long) (current & 0x7F) << shift;
+			shift += 7;
+		} while ((current & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Reads the fixed 8 bytes long.
+	 *
+	 * @return Value.
+	 */
+	private long readFixedLong() {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (data[position++] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Decodes the zig-zag encoded value.
+	 *
+	 * @param value
+	 *            Encoded value.
+	 * @return Signed value.
+	 */
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,195 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the columns of one {@link AbstractColumnBlock}. Each column holds one field of all
+ * elements in the block, so that the similar values are written next to each other:
+ * <ul>
+ * <li>long columns are delta encoded and written as zig-zag variable length integers,
+ * <li>double columns are XOR-ed with the previous value so that the equal leading bytes become
+ * zeros,
+ * <li>boolean columns are written as bit sets,
+ * <li>string columns are dictionary encoded, each distinct string is written only once.
+ * </ul>
+ * The complete column data is compressed with the {@link Deflater} at the end.
+ *
+ * @author agent
+ *
+ * @see ColumnReader
+ */
+class ColumnWriter {
+
+	/**
+	 * Dictionary index denoting the <code>null</code> string.
+	 */
+	static final int NULL_STRING_INDEX = 0;
+
+	/**
+	 * Uncompressed column data.
+	 */
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+
+	/**
+	 * Writes the long column.
+	 *
+	 * @param values
+	 *            Values of all elements.
+	 */
+	void writeLongs(long[] values) {
+		long previous = 0;
+		for (long value : values) {
+			writeVarLong(zigZag(value - previous));
+			previous = value;
+		}
+	}
+
+	/**
+	 * Writes the double column.
+	 *
+	 * @param values
+	 *            Values of all elements.
+	 */
+	void writeDoubles(double[] values) {
+		long previous = 0;
+		for (double value : values) {
+			long bits = Double.doubleToRawLongBits(value);
+			writeFixedLong(bits ^ previous);
+			previous = bits;
+		}
+	}
+
+	/**
+	 * Writes the boolean column.
+	 *
+	 * @param values
+	 *            Values of all elements.
+	 */
+	void writeBooleans(boolean[] values) {
+		int current = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i]) {
+				current |= 1 << (i % 8);
+			}
+			if ((i % 8) == 7) {
+				output.write(current);
+				current = 0;
+			}
+		}
+		if ((values.length % 8) != 0) {
+			output.write(current);
+		}
+	}
+
+	/**
+	 * Writes the string column. The dictionary with all distinct strings is written first,
+	 * followed by the dictionary index of each value.
+	 *
+	 * @param values
+	 *            Values of all elements, can contain <code>null</code>s.
+	 */
+	void writeStrings(String[] values) {
+		Map<String, Integer> dictionary = new HashMap<>();
+		int[] indexes = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (null == values[i]) {
+				indexes[i] = NULL_STRING_INDEX;
+				continue;
+			}
+			Integer index = dictionary.get(values[i]);
+			if (null == index) {
+				index = Integer.valueOf(dictionary.size() + 1);
+				dictionary.put(values[i], index);
+			}
+			indexes[i] = index.intValue();
+		}
+
+		String[] entries = new String[dictionary.size()];
+		for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+			entries[entry.getValue().intValue() - 1] = entry.getKey();
+		}
+		writeVarLong(entries.length);
+		for (String entry : entries) {
+			byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(bytes.length);
+			output.write(bytes, 0, bytes.length);
+		}
+		for (int index : indexes) {
+			writeVarLong(index);
+		}
+	}
+
+	/**
+	 * Returns the size of the written column data before compression.
+	 *
+	 * @return Size in bytes.
+	 */
+	int getUncompressedSize() {
+		return output.size();
+	}
+
+	/**
+	 * Compresses the written column data.
+	 *
+	 * @return Compressed bytes.
+	 */
+	byte[] toCompressedBytes() {
+		Deflater deflater = new Deflater();
+		try {
+			deflater.setInput(output.toByteArray());
+			deflater.finish();
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, output.size() / 4));
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				compressed.write(buffer, 0, count);
+			}
+			return compressed.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Writes the value as the variable length integer, 7 bits per byte.
+	 *
+	 * @param value
+	 *            Value, treated as unsigned.
+	 */
+	private void writeVarLong(long value) {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			output.write((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		output.write((int) remaining);
+	}
+
+	/**
+	 * Writes the value with 8 bytes, most significant first.
+	 *
+	 * @param value
+	 *            Value.
+	 */
+	private void writeFixedLong(long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			output.write((int) (value >>> shift));
+		}
+	}
+
+	/**
+	 * Zig-zag encoding of the signed value, so that the small negative numbers are also written
+	 * with few bytes.
+	 *
+	 * @param value
+	 *            Signed value.
+	 * @return Encoded value.
+	 */
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+}
@@ -0,0 +1,137 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.data.AggregatedHttpTimerData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+
+/**
+ * Column block of the {@link HttpTimerData} and {@link AggregatedHttpTimerData} elements. The
+ * {@link HttpInfo} strings are dictionary encoded. Only elements without captured parameters,
+ * attributes, headers and session attributes can be added to the block.
+ *
+ * @author agent
+ *
+ */
+public class HttpTimerDataColumnBlock extends AbstractColumnBlock<HttpTimerData> {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = 4436924003419066915L;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public HttpTimerDataColumnBlock() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param platformIdent
+	 *            Platform ident of all elements.
+	 * @param sensorTypeIdent
+	 *            Sensor type ident of all elements.
+	 * @param methodIdent
+	 *            Method ident of all elements.
+	 * @param aggregated
+	 *            If the block holds the {@link AggregatedHttpTimerData} elements.
+	 */
+	public HttpTimerDataColumnBlock(long platformIdent, long sensorTypeIdent, long methodIdent, boolean aggregated) {
+		super(platformIdent, sensorTypeIdent, methodIdent, aggregated);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Class<? extends HttpTimerData> getElementClass(boolean aggregatedElements) {
+		return aggregatedElements ? AggregatedHttpTimerData.class : HttpTimerData.class;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected HttpTimerData createElement(boolean aggregatedElement) {
+		return aggregatedElement ? new AggregatedHttpTimerData() : new HttpTimerData();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void writeAdditionalColumns(List<HttpTimerData> elements, ColumnWriter writer) {
+		int size = elements.size();
+		long[] httpInfoIds = new long[size];
+		String[] uris = new String[size];
+		String[] requestMethods = new String[size];
+		String[] taggingHeaderValues = new String[size];
+		String[] schemes = new String[size];
+		String[] serverNames = new String[size];
+		String[] queryStrings = new String[size];
+		boolean[] serverPortsSet = new boolean[size];
+		long[] serverPorts = new long[size];
+		long[] responseStatuses = new long[size];
+		for (int i = 0; i < size; i++) {
+			HttpTimerData element = elements.get(i);
+			HttpInfo httpInfo = element.getHttpInfo();
+			httpInfoIds[i] = httpInfo.getId();
+			uris[i] = httpInfo.getUri();
+			requestMethods[i] = httpInfo.getRequestMethod();
+			taggingHeaderValues[i] = httpInfo.getInspectItTaggingHeaderValue();
+			schemes[i] = httpInfo.getScheme();
+			serverNames[i] = httpInfo.getServerName();
+			queryStrings[i] = httpInfo.getQueryString();
+			if (null != httpInfo.getServerPort()) {
+				serverPortsSet[i] = true;
+				serverPorts[i] = httpInfo.getServerPort().intValue();
+			}
+			responseStatuses[i] = element.getHttpResponseStatus();
+		}
+		writer.writeLongs(httpInfoIds);
+		writer.writeStrings(uris);
+		writer.writeStrings(requestMethods);
+		writer.writeStrings(taggingHeaderValues);
+		writer.writeStrings(schemes);
+		writer.writeStrings(serverNames);
+		writer.writeStrings(queryStrings);
+		writer.writeBooleans(serverPortsSet);
+		writer.writeLongs(serverPorts);
+		writer.writeLongs(responseStatuses);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void readAdditionalColumns(List<HttpTimerData> elements, ColumnReader reader) {
+		int size = elements.size();
+		long[] httpInfoIds = reader.readLongs(size);
+		String[] uris = reader.readStrings(size);
+		String[] requestMethods = reader.readStrings(size);
+		String[] taggingHeaderValues = reader.readStrings(size);
+		String[] schemes = reader.readStrings(size);
+		String[] serverNames = reader.readStrings(size);
+		String[] queryStrings = reader.readStrings(size);
+		boolean[] serverPortsSet = reader.readBooleans(size);
+		long[] serverPorts = reader.readLongs(size);
+		long[] responseStatuses = reader.readLongs(size);
+		for (int i = 0; i < size; i++) {
+			HttpInfo httpInfo = new HttpInfo(uris[i], requestMethods[i], taggingHeaderValues[i]);
+			httpInfo.setId(httpInfoIds[i]);
+			httpInfo.setScheme(schemes[i]);
+			httpInfo.setServerName(serverNames[i]);
+			httpInfo.setQueryString(queryStrings[i]);
+			if (serverPortsSet[i]) {
+				httpInfo.setServerPort(Integer.valueOf((int) serverPorts[i]));
+			}
+			HttpTimerData element = elements.get(i);
+			element.setHttpInfo(httpInfo);
+			element.setHttpResponseStatus((int) responseStatuses[i]);
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import java.util.List;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.communication.data.AggregatedSqlStatementData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+
+/**
+ * Column block of the {@link SqlStatementData} and {@link AggregatedSqlStatementData} elements.
+ * All elements in the block have the same SQL string, so that the block can be indexed by the
+ * {@link rocks.inspectit.shared.cs.indexing.indexer.impl.SqlStringIndexer}. The connection meta
+ * information is dictionary encoded.
+ *
+ * @author agent
+ *
+ */
+public class SqlStatementDataColumnBlock extends AbstractColumnBlock<SqlStatementData> {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = 1726384405416325734L;
+
+	/**
+	 * SQL string of all elements.
+	 */
+	private String sql;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public SqlStatementDataColumnBlock() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param platformIdent
+	 *            Platform ident of all elements.
+	 * @param sensorTypeIdent
+	 *            Sensor type ident of all elements.
+	 * @param methodIdent
+	 *            Method ident of all elements.
+	 * @param aggregated
+	 *            If the block holds the {@link AggregatedSqlStatementData} elements.
+	 * @param sql
+	 *            SQL string of all elements.
+	 */
+	public SqlStatementDataColumnBlock(long platformIdent, long sensorTypeIdent, long methodIdent, boolean aggregated, String sql) {
+		super(platformIdent, sensorTypeIdent, methodIdent, aggregated);
+		this.sql = sql;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Class<? extends SqlStatementData> getElementClass(boolean aggregatedElements) {
+		return aggregatedElements ? AggregatedSqlStatementData.class : SqlStatementData.class;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected SqlStatementData createElement(boolean aggregatedElement) {
+		SqlStatementData sqlStatementData = aggregatedElement ? new AggregatedSqlStatementData() : new SqlStatementData();
+		sqlStatementData.setSql(sql);
+		return sqlStatementData;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void writeAdditionalColumns(List<SqlStatementData> elements, ColumnWriter writer) {
+		int size = elements.size();
+		String[] databaseUrls = new String[size];
+		String[] databaseProductNames = new String[size];
+		String[] databaseProductVersions = new String[size];
+		boolean[] preparedStatements = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			SqlStatementData element = elements.get(i);
+			databaseUrls[i] = element.getDatabaseUrl();
+			databaseProductNames[i] = element.getDatabaseProductName();
+			databaseProductVersions[i] = element.getDatabaseProductVersion();
+			preparedStatements[i] = element.isPreparedStatement();
+		}
+		writer.writeStrings(databaseUrls);
+		writer.writeStrings(databaseProductNames);
+		writer.writeStrings(databaseProductVersions);
+		writer.writeBooleans(preparedStatements);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void readAdditionalColumns(List<SqlStatementData> elements, ColumnReader reader) {
+		int size = elements.size();
+		String[] databaseUrls = reader.readStrings(size);
+		String[] databaseProductNames = reader.readStrings(size);
+		String[] databaseProductVersions = reader.readStrings(size);
+		boolean[] preparedStatements = reader.readBooleans(size);
+		for (int i = 0; i < size; i++) {
+			SqlStatementData element = elements.get(i);
+			element.setDatabaseUrl(databaseUrls[i]);
+			element.setDatabaseProductName(databaseProductNames[i]);
+			element.setDatabaseProductVersion(databaseProductVersions[i]);
+			element.setPreparedStatement(preparedStatements[i]);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Additionally checks the SQL string of the {@link StorageIndexQuery}.
+	 */
+	@Override
+	public boolean isQueryComplied(IIndexQuery query) {
+		if ((query instanceof StorageIndexQuery) && (null != ((StorageIndexQuery) query).getSql()) && !((StorageIndexQuery) query).getSql().equals(sql)) {
+			return false;
+		}
+		return super.isQueryComplied(query);
+	}
+
+	/**
+	 * Gets {@link #sql}.
+	 *
+	 * @return {@link #sql}
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getObjectSize(IObjectSizes objectSizes, boolean doAlign) {
+		long size = super.getObjectSize(objectSizes, doAlign);
+		size += objectSizes.getPrimitiveTypesSize(1, 0, 0, 0, 0, 0);
+		size += objectSizes.getSizeOf(sql);
+		if (doAlign) {
+			return objectSizes.alignTo8Bytes(size);
+		} else {
+			return size;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this).appendSuper(super.toString()).append("sql", sql).toString();
+	}
+
+}
@@ -0,0 +1,57 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Column block of the {@link TimerData} and {@link AggregatedTimerData} elements.
+ *
+ * @author agent
+ *
+ */
+public class TimerDataColumnBlock extends AbstractColumnBlock<TimerData> {
+
+	/**
+	 * Generated UID.
+	 */
+	private static final long serialVersionUID = -5722167404378466407L;
+
+	/**
+	 * No-arg constructor.
+	 */
+	public TimerDataColumnBlock() {
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param platformIdent
+	 *            Platform ident of all elements.
+	 * @param sensorTypeIdent
+	 *            Sensor type ident of all elements.
+	 * @param methodIdent
+	 *            Method ident of all elements.
+	 * @param aggregated
+	 *            If the block holds the {@link AggregatedTimerData} elements.
+	 */
+	public TimerDataColumnBlock(long platformIdent, long sensorTypeIdent, long methodIdent, boolean aggregated) {
+		super(platformIdent, sensorTypeIdent, methodIdent, aggregated);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Class<? extends TimerData> getElementClass(boolean aggregatedElements) {
+		return aggregatedElements ? AggregatedTimerData.class : TimerData.class;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected TimerData createElement(boolean aggregatedElement) {
+		return aggregatedElement ? new AggregatedTimerData() : new TimerData();
+	}
+
+}
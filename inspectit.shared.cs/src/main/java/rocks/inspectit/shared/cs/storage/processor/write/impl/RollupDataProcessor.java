@@ -0,0 +1,352 @@
+package rocks.inspectit.shared.cs.storage.processor.write.impl;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationAwareData;
+import rocks.inspectit.shared.all.communication.data.InvocationAwareData.MutableInt;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.SerializationException;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.RollupAggregator;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.shared.cs.storage.StorageWriter;
+import rocks.inspectit.shared.cs.storage.processor.write.AbstractWriteDataProcessor;
+import rocks.inspectit.shared.cs.storage.util.RollupResolution;
+
+/**
+ * Processor that creates the rollups of the written data in all {@link RollupResolution}s. The
+ * data is aggregated per platform, resolution and partition while being written. Each rollup
+ * partition is saved as the cached data of the storage, one file per platform, resolution and
+ * partition. The hash of each file is defined by
+ * {@link StorageManager#getRollupDataHash(Class, long, RollupResolution, long)}.
+ * <p>
+ * To keep the memory bounded during long recordings, the partitions that ended more than
+ * {@link #CLOSE_DELAY} before the newest processed data are written as soon as they are closed
+ * and removed from memory. If data for an already written partition arrives later, the partition
+ * is read and written again with the new data. All remaining partitions are written on
+ * finalization, after which the storage is marked as having the rollups available.
+ *
+ * @author agent
+ *
+ * @param <E>
+ *            Type of elements processed.
+ */
+public class RollupDataProcessor<E extends DefaultData> extends AbstractWriteDataProcessor {
+
+	/**
+	 * Logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger(RollupDataProcessor.class);
+
+	/**
+	 * Time the newest processed data must be after the end of a partition, so that the partition
+	 * is considered closed and written.
+	 */
+	static final long CLOSE_DELAY = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * Amount of processed elements after which the closed partitions are written.
+	 */
+	static final int CLOSE_CHECK_INTERVAL = 10000;
+
+	/**
+	 * Class that identifies the rollup.
+	 */
+	private Class<E> rollupClass;
+
+	/**
+	 * {@link IIndexQuery} to take into consideration.
+	 */
+	private IIndexQuery query;
+
+	/**
+	 * {@link IAggregator} for aggregation in one bucket.
+	 */
+	private IAggregator<E> aggregator;
+
+	/**
+	 * {@link AggregationPerformer}s of the partitions that are not written yet. Guarded by this
+	 * processor, as the performers are not thread safe.
+	 */
+	private final Map<RollupPartition, AggregationPerformer<E>> openPartitions = new HashMap<>();
+
+	/**
+	 * Newest time stamp of the processed data.
+	 */
+	private long newestTime;
+
+	/**
+	 * Amount of elements processed since the last check for the closed partitions.
+	 */
+	private int processedSinceCheck;
+
+	/**
+	 * Storage manager, available after {@link #onPrepare(StorageManager, StorageWriter, StorageData)}.
+	 */
+	private StorageManager storageManager;
+
+	/**
+	 * Storage being written, available after
+	 * {@link #onPrepare(StorageManager, StorageWriter, StorageData)}.
+	 */
+	private StorageData storageData;
+
+	/**
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @param query
+	 *            {@link IIndexQuery} to take into consideration.
+	 * @param aggregator
+	 *            {@link IAggregator} for aggregation in one bucket.
+	 */
+	public RollupDataProcessor(Class<E> rollupClass, IIndexQuery query, IAggregator<E> aggregator) {
+		this.rollupClass = rollupClass;
+		this.query = query;
+		this.aggregator = aggregator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onPrepare(StorageManager storageManager, StorageWriter storageWriter, StorageData storageData) throws Exception {
+		synchronized (this) {
+			this.storageManager = storageManager;
+			this.storageData = storageData;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void processData(DefaultData defaultData, Map<?, ?> kryoPreferences) {
+		long time = defaultData.getTimeStamp().getTime();
+
+		synchronized (this) {
+			// rollups never keep the invocation affiliation
+			if (defaultData instanceof InvocationAwareData) {
+				InvocationAwareData invocationAwareData = (InvocationAwareData) defaultData;
+				Map<Long, MutableInt> temp = invocationAwareData.getInvocationsParentsIdMap();
+				invocationAwareData.setInvocationsParentsIdMap(Collections.<Long, MutableInt> emptyMap());
+				try {
+					aggregate((E) defaultData, time);
+				} finally {
+					invocationAwareData.setInvocationsParentsIdMap(temp);
+				}
+			} else {
+				aggregate((E) defaultData, time);
+			}
+
+			newestTime = Math.max(newestTime, time);
+			processedSinceCheck++;
+			if (processedSinceCheck >= CLOSE_CHECK_INTERVAL) {
+				processedSinceCheck = 0;
+				writeClosedPartitions();
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the element into the partitions of all resolutions. Must be called while holding
+	 * the lock of this processor.
+	 *
+	 * @param element
+	 *            Element to aggregate.
+	 * @param time
+	 *            Time stamp of the element.
+	 */
+	private void aggregate(E element, long time) {
+		for (RollupResolution resolution : RollupResolution.values()) {
+			RollupPartition partition = new RollupPartition(element.getPlatformIdent(), resolution, resolution.getPartitionStart(time));
+			AggregationPerformer<E> aggregationPerformer = openPartitions.get(partition);
+			if (null == aggregationPerformer) {
+				aggregationPerformer = createPerformer(resolution);
+				openPartitions.put(partition, aggregationPerformer);
+			}
+			aggregationPerformer.processElement(element);
+		}
+	}
+
+	/**
+	 * Writes and removes from memory the partitions that ended more than {@link #CLOSE_DELAY}
+	 * before the newest processed data. Partitions that can not be written stay in memory and are
+	 * written again on finalization. Must be called while holding the lock of this processor.
+	 */
+	private void writeClosedPartitions() {
+		if (null == storageManager) {
+			return;
+		}
+
+		for (Iterator<Map.Entry<RollupPartition, AggregationPerformer<E>>> it = openPartitions.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<RollupPartition, AggregationPerformer<E>> entry = it.next();
+			RollupPartition partition = entry.getKey();
+			long partitionMillis = partition.resolution.getPartitionMillis();
+			if ((0 == partitionMillis) || ((partition.partitionStart + partitionMillis + CLOSE_DELAY) > newestTime)) {
+				continue;
+			}
+
+			try {
+				writePartition(storageManager, storageData, partition, entry.getValue());
+				it.remove();
+			} catch (IOException | SerializationException e) {
+				LOG.warn("Rollup partition of the " + partition.resolution + " resolution starting at " + partition.partitionStart + " could not be written, it will be written on finalization.", e);
+			}
+		}
+	}
+
+	/**
+	 * Writes the partition as the cached data of the storage. If the partition was already written
+	 * before, the written data is aggregated with the new data and the partition is replaced
+	 * atomically, thus the already written data is kept if the writing fails.
+	 *
+	 * @param storageManager
+	 *            {@link StorageManager}
+	 * @param storageData
+	 *            Storage being written.
+	 * @param partition
+	 *            Partition to write.
+	 * @param aggregationPerformer
+	 *            Performer holding the data of the partition.
+	 * @throws IOException
+	 *             If writing or reading of the partition fails.
+	 * @throws SerializationException
+	 *             If serialization of the partition fails.
+	 */
+	private void writePartition(StorageManager storageManager, StorageData storageData, RollupPartition partition, AggregationPerformer<E> aggregationPerformer)
+			throws IOException, SerializationException {
+		int hash = storageManager.getRollupDataHash(rollupClass, partition.platformIdent, partition.resolution, partition.partitionStart);
+		List<E> written = storageManager.getCachedStorageData(storageData, hash);
+		if (null == written) {
+			storageManager.cacheStorageData(storageData, aggregationPerformer.getResultList(), hash);
+			return;
+		}
+
+		// late data for the partition that was already closed
+		AggregationPerformer<E> merged = createPerformer(partition.resolution);
+		merged.processCollection(written);
+		merged.processCollection(aggregationPerformer.getResultList());
+		storageManager.replaceCachedStorageData(storageData, merged.getResultList(), hash);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean canBeProcessed(DefaultData defaultData) {
+		return (null != defaultData.getTimeStamp()) && defaultData.isQueryComplied(query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Writes all partitions still in memory and marks the storage as having the rollups available.
+	 */
+	@Override
+	public void onFinalization(StorageManager storageManager, StorageWriter storageWriter, StorageData storageData) throws Exception {
+		synchronized (this) {
+			for (Iterator<Map.Entry<RollupPartition, AggregationPerformer<E>>> it = openPartitions.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<RollupPartition, AggregationPerformer<E>> entry = it.next();
+				writePartition(storageManager, storageData, entry.getKey(), entry.getValue());
+				it.remove();
+			}
+		}
+		storageData.setRollupsAvailable(true);
+	}
+
+	/**
+	 * Creates the performer for the partition of the given resolution.
+	 *
+	 * @param resolution
+	 *            Resolution.
+	 * @return New performer.
+	 */
+	private AggregationPerformer<E> createPerformer(RollupResolution resolution) {
+		return new AggregationPerformer<>(new RollupAggregator<>(aggregator, resolution));
+	}
+
+	/**
+	 * Identifies one rollup partition.
+	 *
+	 * @author agent
+	 *
+	 */
+	private static final class RollupPartition {
+
+		/**
+		 * Platform ident of the data in the partition.
+		 */
+		private final long platformIdent;
+
+		/**
+		 * Resolution of the partition.
+		 */
+		private final RollupResolution resolution;
+
+		/**
+		 * Start of the partition.
+		 */
+		private final long partitionStart;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param platformIdent
+		 *            Platform ident of the data in the partition.
+		 * @param resolution
+		 *            Resolution of the partition.
+		 * @param partitionStart
+		 *            Start of the partition.
+		 */
+		RollupPartition(long platformIdent, RollupResolution resolution, long partitionStart) {
+			this.platformIdent = platformIdent;
+			this.resolution = resolution;
+			this.partitionStart = partitionStart;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + (int) (platformIdent ^ (platformIdent >>> 32));
+			result = (prime * result) + resolution.hashCode();
+			result = (prime * result) + (int) (partitionStart ^ (partitionStart >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			RollupPartition other = (RollupPartition) obj;
+			return (platformIdent == other.platformIdent) && (resolution == other.resolution) && (partitionStart == other.partitionStart);
+		}
+	}
+
+}
@@ -143,12 +143,16 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.SqlStringIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
 import rocks.inspectit.shared.cs.indexing.storage.impl.ArrayBasedStorageLeaf;
 import rocks.inspectit.shared.cs.indexing.storage.impl.LeafWithNoDescriptors;
+import rocks.inspectit.shared.cs.indexing.storage.impl.MappedStorageLeaf;
 import rocks.inspectit.shared.cs.indexing.storage.impl.SimpleStorageDescriptor;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageBranch;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageBranchIndexer;
 import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageData.StorageState;
+import rocks.inspectit.shared.cs.storage.columnar.HttpTimerDataColumnBlock;
+import rocks.inspectit.shared.cs.storage.columnar.SqlStatementDataColumnBlock;
+import rocks.inspectit.shared.cs.storage.columnar.TimerDataColumnBlock;
 import rocks.inspectit.shared.cs.storage.label.BooleanStorageLabel;
 import rocks.inspectit.shared.cs.storage.label.DateStorageLabel;
 import rocks.inspectit.shared.cs.storage.label.NumberStorageLabel;
@@ -175,6 +179,7 @@ import rocks.inspectit.shared.cs.storage.processor.impl.InvocationExtractorDataP
 import rocks.inspectit.shared.cs.storage.processor.impl.TimeFrameDataProcessor;
 import rocks.inspectit.shared.cs.storage.recording.RecordingProperties;
 import rocks.inspectit.shared.cs.storage.recording.RecordingState;
+import rocks.inspectit.shared.cs.storage.serializer.impl.ColumnBlockSerializer;
 import rocks.inspectit.shared.cs.storage.serializer.impl.ServerStatusSerializer;
 import rocks.inspectit.shared.cs.tracing.comparator.SpanComparator;
 
@@ -460,6 +465,14 @@ public class SerializationManagerPostProcessor implements BeanPostProcessor {
 		// INSPECTIT-2458
 		kryo.register(RemoteAsyncApacheHttpClientSensorConfig.class, new FieldSerializer<>(kryo, RemoteAsyncApacheHttpClientSensorConfig.class), nextRegistrationId++);
 		kryo.register(ApacheClientExchangeHandlerSensorConfig.class, new FieldSerializer<>(kryo, ApacheClientExchangeHandlerSensorConfig.class), nextRegistrationId++);
+
+		// memory mapped storage index leaves
+		kryo.register(MappedStorageLeaf.class, new CustomCompatibleFieldSerializer<MappedStorageLeaf<?>>(kryo, MappedStorageLeaf.class, schemaManager), nextRegistrationId++);
+
+		// column blocks of the columnar storage format
+		kryo.register(TimerDataColumnBlock.class, new ColumnBlockSerializer<TimerDataColumnBlock>(kryo, TimerDataColumnBlock.class, schemaManager), nextRegistrationId++);
+		kryo.register(SqlStatementDataColumnBlock.class, new ColumnBlockSerializer<SqlStatementDataColumnBlock>(kryo, SqlStatementDataColumnBlock.class, schemaManager), nextRegistrationId++);
+		kryo.register(HttpTimerDataColumnBlock.class, new ColumnBlockSerializer<HttpTimerDataColumnBlock>(kryo, HttpTimerDataColumnBlock.class, schemaManager), nextRegistrationId++);
 	}
 
 }
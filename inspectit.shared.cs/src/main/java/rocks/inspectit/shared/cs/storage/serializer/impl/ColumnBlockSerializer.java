@@ -0,0 +1,76 @@
+package rocks.inspectit.shared.cs.storage.serializer.impl;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.all.serializer.impl.CustomCompatibleFieldSerializer;
+import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.serializer.util.KryoSerializationPreferences;
+import rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock;
+
+/**
+ * {@link CustomCompatibleFieldSerializer} for the {@link AbstractColumnBlock}s. The fields of the
+ * block holding the block statistics are written as the header and the compressed columns are
+ * written after the header with their length. When reading, the header is read first and if the
+ * block does not comply the query passed with the
+ * {@link KryoSerializationPreferences#FILTER_QUERY} preference, the columns are skipped without
+ * being read.
+ *
+ * @author agent
+ *
+ * @param <T>
+ *            Type of the block.
+ */
+public class ColumnBlockSerializer<T extends AbstractColumnBlock<?>> extends CustomCompatibleFieldSerializer<T> {
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param kryo
+	 *            Kryo object.
+	 * @param type
+	 *            Type of class.
+	 * @param schemaManager
+	 *            Schema manager holding the schema for the given type.
+	 *
+	 * @see CustomCompatibleFieldSerializer#CustomCompatibleFieldSerializer(Kryo, Class,
+	 *      ClassSchemaManager)
+	 */
+	public ColumnBlockSerializer(Kryo kryo, Class<?> type, ClassSchemaManager schemaManager) {
+		super(kryo, type, schemaManager);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(Kryo kryo, Output output, T block) {
+		super.write(kryo, output, block);
+		byte[] columns = block.getColumns();
+		if (null == columns) {
+			output.writeInt(0, true);
+		} else {
+			output.writeInt(columns.length, true);
+			output.writeBytes(columns);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T read(Kryo kryo, Input input, Class<T> type) {
+		T block = super.read(kryo, input, type);
+		int length = input.readInt(true);
+		Object query = kryo.getGraphContext().get(KryoSerializationPreferences.FILTER_QUERY);
+		if ((query instanceof IIndexQuery) && !block.isQueryComplied((IIndexQuery) query)) {
+			input.skip(length);
+		} else {
+			block.setColumns(input.readBytes(length));
+		}
+		return block;
+	}
+
+}
@@ -0,0 +1,101 @@
+package rocks.inspectit.shared.cs.storage.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolutions of the rollups that are created when the storage is written. Each rollup holds the
+ * data aggregated in the buckets of the resolution length. To keep the single rollup file small,
+ * the rollups of the finer resolutions are split into partitions, so that only the partitions
+ * that overlap the queried interval need to be loaded.
+ * <p>
+ * Resolutions are ordered from the finest to the coarsest.
+ *
+ * @author agent
+ *
+ */
+public enum RollupResolution {
+
+	/**
+	 * One minute buckets partitioned by day.
+	 */
+	MINUTE(TimeUnit.MINUTES.toMillis(1), TimeUnit.DAYS.toMillis(1)),
+
+	/**
+	 * One hour buckets partitioned by 30 days.
+	 */
+	HOUR(TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(30)),
+
+	/**
+	 * One day buckets in a single partition.
+	 */
+	DAY(TimeUnit.DAYS.toMillis(1), 0);
+
+	/**
+	 * Length of one bucket in milliseconds.
+	 */
+	private final long millis;
+
+	/**
+	 * Length of one partition in milliseconds or <code>0</code> if there is only one partition.
+	 */
+	private final long partitionMillis;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param millis
+	 *            Length of one bucket in milliseconds.
+	 * @param partitionMillis
+	 *            Length of one partition in milliseconds or <code>0</code> if there is only one
+	 *            partition.
+	 */
+	RollupResolution(long millis, long partitionMillis) {
+		this.millis = millis;
+		this.partitionMillis = partitionMillis;
+	}
+
+	/**
+	 * Returns the start of the bucket the given time belongs to.
+	 *
+	 * @param time
+	 *            Time in milliseconds.
+	 * @return Start of the bucket in milliseconds.
+	 */
+	public long getBucketStart(long time) {
+		return time - (time % millis);
+	}
+
+	/**
+	 * Returns the start of the partition the given time belongs to.
+	 *
+	 * @param time
+	 *            Time in milliseconds.
+	 * @return Start of the partition in milliseconds or <code>0</code> if there is only one
+	 *         partition.
+	 */
+	public long getPartitionStart(long time) {
+		if (0 == partitionMillis) {
+			return 0;
+		}
+		return time - (time % partitionMillis);
+	}
+
+	/**
+	 * Gets {@link #millis}.
+	 *
+	 * @return {@link #millis}
+	 */
+	public long getMillis() {
+		return millis;
+	}
+
+	/**
+	 * Gets {@link #partitionMillis}.
+	 *
+	 * @return {@link #partitionMillis}
+	 */
+	public long getPartitionMillis() {
+		return partitionMillis;
+	}
+
+}
@@ -1,6 +1,7 @@
 package rocks.inspectit.shared.cs.cmr.service.cache;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
@@ -19,10 +20,12 @@ import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.cmr.model.SensorTypeIdent;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -61,6 +64,7 @@ public class CachedDataServiceTest extends TestBase {
 		private MethodIdent methodIdent;
 		private static final long SENSOR_ID = 20L;
 		private SensorTypeIdent sensorType;
+		private static final long VERSION = 5L;
 
 		@BeforeMethod
 		public void initialize() throws BusinessException {
@@ -68,7 +72,8 @@ public class CachedDataServiceTest extends TestBase {
 			when(platformIdent.getId()).thenReturn(PLATFORM_ID);
 
 			when(globalDataAccessService.getAgentsOverview()).thenReturn(Collections.<PlatformIdent, AgentStatusData> singletonMap(platformIdent, null));
-			when(globalDataAccessService.getCompleteAgent(PLATFORM_ID)).thenReturn(platformIdent);
+			when(globalDataAccessService.getAgentTreeChanges(PLATFORM_ID, 0L)).thenReturn(new AgentTreeDelta(PLATFORM_ID, VERSION, platformIdent));
+			when(globalDataAccessService.getAgentTreeChanges(PLATFORM_ID, VERSION)).thenReturn(new AgentTreeDelta(PLATFORM_ID, VERSION, Collections.<MethodIdent> emptyList(), Collections.<JmxDefinitionDataIdent> emptyList()));
 
 			methodIdent = mock(MethodIdent.class);
 			when(methodIdent.getId()).thenReturn(METHOD_SENSOR_ID);
@@ -86,7 +91,7 @@ public class CachedDataServiceTest extends TestBase {
 			assertThat(cachedDataService.getSensorTypeIdentForId(SENSOR_ID), is(equalTo(sensorType)));
 
 			verify(globalDataAccessService, times(1)).getAgentsOverview();
-			verify(globalDataAccessService, times(1)).getCompleteAgent(PLATFORM_ID);
+			verify(globalDataAccessService, times(1)).getAgentTreeChanges(PLATFORM_ID, 0L);
 			verifyNoMoreInteractions(globalDataAccessService);
 
 			assertThat(cachedDataService.getPlatformIdentForId(100L), is(nullValue()));
@@ -94,11 +99,39 @@ public class CachedDataServiceTest extends TestBase {
 			assertThat(cachedDataService.getSensorTypeIdentForId(100L), is(nullValue()));
 
 			verify(globalDataAccessService, times(4)).getAgentsOverview();
-			verify(globalDataAccessService, times(4)).getCompleteAgent(PLATFORM_ID);
+			verify(globalDataAccessService, times(1)).getAgentTreeChanges(PLATFORM_ID, 0L);
+			verify(globalDataAccessService, times(3)).getAgentTreeChanges(PLATFORM_ID, VERSION);
 			verifyNoMoreInteractions(globalDataAccessService);
 
 			verifyNoMoreInteractions(businessContextService);
 		}
+
+		@Test
+		public void changesMerged() throws BusinessException {
+			assertThat(cachedDataService.getPlatformIdentForId(PLATFORM_ID), is(equalTo(platformIdent)));
+			MethodIdent newMethodIdent = new MethodIdent();
+			newMethodIdent.setId(100L);
+			when(globalDataAccessService.getAgentTreeChanges(PLATFORM_ID, VERSION))
+					.thenReturn(new AgentTreeDelta(PLATFORM_ID, VERSION + 1, Collections.singletonList(newMethodIdent), Collections.<JmxDefinitionDataIdent> emptyList()));
+
+			assertThat(cachedDataService.getMethodIdentForId(100L), is(newMethodIdent));
+
+			assertThat(cachedDataService.getMethodIdentForId(METHOD_SENSOR_ID), is(equalTo(methodIdent)));
+			PlatformIdent merged = cachedDataService.getPlatformIdentForId(PLATFORM_ID);
+			assertThat(merged.getMethodIdents(), containsInAnyOrder(methodIdent, newMethodIdent));
+			verify(globalDataAccessService, times(1)).getAgentTreeChanges(PLATFORM_ID, 0L);
+			verify(globalDataAccessService, times(1)).getAgentTreeChanges(PLATFORM_ID, VERSION);
+		}
+
+		@Test
+		public void agentRemoved() throws BusinessException {
+			assertThat(cachedDataService.getPlatformIdentForId(PLATFORM_ID), is(equalTo(platformIdent)));
+			when(globalDataAccessService.getAgentsOverview()).thenReturn(Collections.<PlatformIdent, AgentStatusData> emptyMap());
+
+			assertThat(cachedDataService.getMethodIdentForId(100L), is(nullValue()));
+
+			assertThat(cachedDataService.getMethodIdentForId(METHOD_SENSOR_ID), is(nullValue()));
+		}
 	}
 
 	/**
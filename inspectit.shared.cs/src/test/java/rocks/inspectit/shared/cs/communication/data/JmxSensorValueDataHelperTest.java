@@ -0,0 +1,124 @@
+package rocks.inspectit.shared.cs.communication.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.ci.sensor.jmx.JmxSensorConfig;
+
+/**
+ * Test the {@link JmxSensorValueDataHelper}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class JmxSensorValueDataHelperTest extends TestBase {
+
+	public static class FillGaps extends JmxSensorValueDataHelperTest {
+
+		@Test
+		public void noData() {
+			List<JmxSensorValueData> result = JmxSensorValueDataHelper.fillGaps(Collections.<JmxSensorValueData> emptyList(), null, new Date(0), new Date(100), 10, 100);
+
+			assertThat(result, is(Collections.<JmxSensorValueData> emptyList()));
+		}
+
+		@Test
+		public void gapFilled() {
+			JmxSensorValueData first = new JmxSensorValueData(1L, "1", new Timestamp(0), 1L, 1L);
+			JmxSensorValueData second = new JmxSensorValueData(1L, "2", new Timestamp(30), 1L, 1L);
+
+			List<JmxSensorValueData> result = JmxSensorValueDataHelper.fillGaps(Arrays.asList(second, first), null, new Date(0), new Date(30), 10, 100);
+
+			assertThat(result, hasSize(4));
+			assertThat(result.get(0).getTimeStamp().getTime(), is(0L));
+			assertThat(result.get(1).getTimeStamp().getTime(), is(10L));
+			assertThat(result.get(1).getValue(), is("1"));
+			assertThat(result.get(2).getTimeStamp().getTime(), is(20L));
+			assertThat(result.get(2).getValue(), is("1"));
+			assertThat(result.get(3).getValue(), is("2"));
+		}
+
+		@Test
+		public void previousValueFillsPeriodStart() {
+			JmxSensorValueData previous = new JmxSensorValueData(1L, "1", new Timestamp(95), 1L, 1L);
+
+			List<JmxSensorValueData> result = JmxSensorValueDataHelper.fillGaps(Collections.<JmxSensorValueData> emptyList(), Collections.singletonList(previous), new Date(100), new Date(120), 10, 100);
+
+			assertThat(result, hasSize(3));
+			assertThat(result.get(0).getTimeStamp().getTime(), is(100L));
+			assertThat(result.get(2).getTimeStamp().getTime(), is(120L));
+			assertThat(result.get(2).getValue(), is("1"));
+		}
+
+		@Test
+		public void fillLimitedToMaxGap() {
+			JmxSensorValueData first = new JmxSensorValueData(1L, "1", new Timestamp(0), 1L, 1L);
+
+			List<JmxSensorValueData> result = JmxSensorValueDataHelper.fillGaps(Collections.singletonList(first), null, new Date(0), new Date(1000), 10, 20);
+
+			assertThat(result, hasSize(3));
+			assertThat(result.get(2).getTimeStamp().getTime(), is(20L));
+		}
+
+		@Test
+		public void attributesFilledSeparately() {
+			JmxSensorValueData first = new JmxSensorValueData(1L, "1", new Timestamp(0), 1L, 1L);
+			JmxSensorValueData second = new JmxSensorValueData(2L, "2", new Timestamp(5), 1L, 1L);
+
+			List<JmxSensorValueData> result = JmxSensorValueDataHelper.fillGaps(Arrays.asList(first, second), null, new Date(0), new Date(10), 10, 100);
+
+			assertThat(result, hasSize(3));
+			assertThat(result.get(2).getTimeStamp().getTime(), is(10L));
+			assertThat(result.get(2).getJmxSensorDefinitionDataIdentId(), is(1L));
+		}
+	}
+
+	public static class GetMaxFillGap extends JmxSensorValueDataHelperTest {
+
+		@Test
+		public void noConfiguration() {
+			assertThat(JmxSensorValueDataHelper.getFillInterval(null), is(JmxSensorValueDataHelper.DEFAULT_FILL_INTERVAL));
+			assertThat(JmxSensorValueDataHelper.getMaxFillGap(null), is(JmxSensorValueDataHelper.DEFAULT_MAX_FILL_GAP));
+		}
+
+		@Test
+		public void defaultConfiguration() {
+			JmxSensorConfig config = new JmxSensorConfig();
+
+			assertThat(JmxSensorValueDataHelper.getFillInterval(config), is(JmxSensorValueDataHelper.DEFAULT_FILL_INTERVAL));
+			assertThat(JmxSensorValueDataHelper.getMaxFillGap(config), is(JmxSensorValueDataHelper.DEFAULT_MAX_FILL_GAP));
+		}
+
+		@Test
+		public void longHeartbeat() {
+			JmxSensorConfig config = new JmxSensorConfig();
+			config.setCollectInterval(10000L);
+			config.setHeartbeatInterval(300000L);
+			config.setMaxCollectInterval(60000L);
+
+			assertThat(JmxSensorValueDataHelper.getFillInterval(config), is(10000L));
+			assertThat(JmxSensorValueDataHelper.getMaxFillGap(config), is(370000L));
+		}
+
+		@Test
+		public void allValuesSent() {
+			JmxSensorConfig config = new JmxSensorConfig();
+			config.setCollectInterval(10000L);
+			config.setOnlyChangedValues(false);
+
+			assertThat(JmxSensorValueDataHelper.getMaxFillGap(config), is(20000L));
+		}
+	}
+}
@@ -0,0 +1,355 @@
+package rocks.inspectit.shared.cs.data.invocationtree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.testbase.TestBase;
+
+/**
+ * Tests the {@link InvocationSequencePager} class.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class InvocationSequencePagerTest extends TestBase {
+
+	/**
+	 * Root of the test invocation. The structure is:
+	 *
+	 * <pre>
+	 * root (100)
+	 * |- c0 (10)
+	 * |- c1 (60)
+	 * |  |- c1g0 (20)
+	 * |  |- c1g1 (30)
+	 * |- c2 (no duration)
+	 *    |- c2g0 (5)
+	 * </pre>
+	 */
+	InvocationSequenceData root;
+
+	/**
+	 * Creates the test invocation.
+	 */
+	@BeforeMethod
+	public void init() {
+		root = createElement(null, -1d);
+		root.setId(1L);
+		root.setDuration(100d);
+		createElement(root, 10d);
+		InvocationSequenceData c1 = createElement(root, 60d);
+		createElement(c1, 20d);
+		createElement(c1, 30d);
+		InvocationSequenceData c2 = createElement(root, -1d);
+		createElement(c2, 5d);
+	}
+
+	/**
+	 * Creates the invocation element.
+	 *
+	 * @param parent
+	 *            Parent to add the element to or <code>null</code> for the root.
+	 * @param duration
+	 *            Duration of the timer data or negative value for no timer data.
+	 * @return Created element.
+	 */
+	private static InvocationSequenceData createElement(InvocationSequenceData parent, double duration) {
+		InvocationSequenceData element = new InvocationSequenceData(new Timestamp(0L), 1L, 1L, 1L);
+		if (duration >= 0) {
+			TimerData timerData = new TimerData(new Timestamp(0L), 1L, 1L, 1L);
+			timerData.setDuration(duration);
+			element.setTimerData(timerData);
+		}
+		if (null != parent) {
+			element.setParentSequence(parent);
+			parent.getNestedSequences().add(element);
+		}
+		return element;
+	}
+
+	/**
+	 * Creates the invocation where every element has exactly one child.
+	 *
+	 * @param depth
+	 *            Number of elements below the root.
+	 * @return Root of the invocation.
+	 */
+	private static InvocationSequenceData createDeepInvocation(int depth) {
+		InvocationSequenceData deepRoot = createElement(null, 1d);
+		InvocationSequenceData parent = deepRoot;
+		for (int i = 0; i < depth; i++) {
+			parent = createElement(parent, 1d);
+		}
+		return deepRoot;
+	}
+
+	/**
+	 * Returns the positions of the children of the node.
+	 *
+	 * @param node
+	 *            Node.
+	 * @return Positions of the children.
+	 */
+	private static List<Long> getChildPositions(InvocationSequenceNode node) {
+		List<Long> positions = new ArrayList<>();
+		for (InvocationSequenceNode child : node.getChildren()) {
+			positions.add(child.getData().getPosition());
+		}
+		return positions;
+	}
+
+	/**
+	 * Tests the summaries of the {@link InvocationSequencePager}.
+	 */
+	public static class Summary extends InvocationSequencePagerTest {
+
+		@Test
+		public void root() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceSummary summary = pager.getSummary();
+
+			assertThat(summary.getNestedCount(), is(3));
+			assertThat(summary.getTotalChildCount(), is(6L));
+			assertThat(summary.getTotalDuration(), is(100d));
+			assertThat(summary.getExclusiveDuration(), is(25d));
+		}
+
+		@Test
+		public void nested() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceSummary summary = pager.getPage(new int[] { 1 }, 0, 0, 0, false).getSummary();
+
+			assertThat(summary.getNestedCount(), is(2));
+			assertThat(summary.getTotalChildCount(), is(2L));
+			assertThat(summary.getTotalDuration(), is(60d));
+			assertThat(summary.getExclusiveDuration(), is(10d));
+		}
+
+		@Test
+		public void noDuration() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceSummary summary = pager.getPage(new int[] { 2 }, 0, 0, 0, false).getSummary();
+
+			assertThat(summary.getNestedCount(), is(1));
+			assertThat(summary.getTotalDuration(), is(5d));
+			assertThat(summary.getExclusiveDuration(), is(0d));
+		}
+
+		@Test
+		public void elementCount() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			assertThat(pager.getElementCount(), is(7));
+		}
+
+		@Test
+		public void deepInvocation() {
+			InvocationSequenceData deepRoot = createDeepInvocation(100000);
+
+			InvocationSequencePager pager = new InvocationSequencePager(deepRoot);
+
+			assertThat(pager.getSummary().getTotalChildCount(), is(100000L));
+			assertThat(pager.getSummary().getTotalDuration(), is(1d));
+		}
+	}
+
+	/**
+	 * Tests the {@link InvocationSequencePager#getPage(int[], int, int, int, boolean)} method.
+	 */
+	public static class GetPage extends InvocationSequencePagerTest {
+
+		@Test
+		public void rootOnly() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 0, 0, 0, false);
+
+			assertThat(node.getPath().length, is(0));
+			assertThat(node.getData().getId(), is(1L));
+			assertThat(node.getData().getNestedSequences(), is(empty()));
+			assertThat(node.getData().getParentSequence(), is(nullValue()));
+			assertThat(node.getChildren(), is(empty()));
+			assertThat(node.isChildrenComplete(), is(false));
+		}
+
+		@Test
+		public void oneLevel() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(new int[0], 0, 0, 1, false);
+
+			assertThat(getChildPositions(node), contains(0L, 1L, 2L));
+			assertThat(node.isChildrenComplete(), is(true));
+			for (InvocationSequenceNode child : node.getChildren()) {
+				assertThat(child.getChildren(), is(empty()));
+				assertThat(child.getPath().length, is(1));
+			}
+		}
+
+		@Test
+		public void allLevels() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 0, 0, Integer.MAX_VALUE, false);
+
+			assertThat(node.getChildren().get(1).getChildren(), hasSize(2));
+			assertThat(node.getChildren().get(1).getChildren().get(1).getPath(), is(new int[] { 1, 1 }));
+			assertThat(node.getChildren().get(2).getChildren(), hasSize(1));
+		}
+
+		@Test
+		public void window() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 1, 1, 1, false);
+
+			assertThat(getChildPositions(node), contains(1L));
+			assertThat(node.isChildrenComplete(), is(false));
+		}
+
+		@Test
+		public void windowOutOfRange() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 10, 5, 1, false);
+
+			assertThat(node.getChildren(), is(empty()));
+		}
+
+		@Test
+		public void subtree() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(new int[] { 1 }, 0, 0, 1, false);
+
+			assertThat(node.getData().getPosition(), is(1L));
+			assertThat(getChildPositions(node), contains(0L, 1L));
+			assertThat(node.getChildren().get(0).getPath(), is(new int[] { 1, 0 }));
+		}
+
+		@Test
+		public void pathNotExisting() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			assertThat(pager.getPage(new int[] { 3 }, 0, 0, 1, false), is(nullValue()));
+			assertThat(pager.getPage(new int[] { 0, 0 }, 0, 0, 1, false), is(nullValue()));
+			assertThat(pager.getPage(new int[] { -1 }, 0, 0, 1, false), is(nullValue()));
+		}
+
+		@Test
+		public void hotPath() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 0, 0, 0, true);
+
+			assertThat(getChildPositions(node), contains(1L));
+			InvocationSequenceNode hot = node.getChildren().get(0);
+			assertThat(getChildPositions(hot), contains(1L));
+			assertThat(hot.getChildren().get(0).getChildren(), is(empty()));
+		}
+
+		@Test
+		public void hotPathOutsideWindow() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceNode node = pager.getPage(null, 2, 1, 1, true);
+
+			assertThat(getChildPositions(node), contains(1L, 2L));
+			assertThat(getChildPositions(node.getChildren().get(0)), contains(1L));
+			assertThat(node.getChildren().get(1).getChildren(), is(empty()));
+		}
+
+		@Test
+		public void originalNotChanged() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			pager.getPage(null, 0, 0, Integer.MAX_VALUE, true);
+
+			assertThat(root.getNestedSequences(), hasSize(3));
+			assertThat(root.getNestedSequences().get(1).getPosition(), is(0L));
+			assertThat(root.getNestedSequences().get(1).getParentSequence(), is(root));
+		}
+
+		@Test
+		public void deepHotPath() {
+			InvocationSequencePager pager = new InvocationSequencePager(createDeepInvocation(100000));
+
+			InvocationSequenceNode node = pager.getPage(null, 0, 1, 0, true);
+
+			int depth = 0;
+			while (!node.getChildren().isEmpty()) {
+				node = node.getChildren().get(0);
+				depth++;
+			}
+			assertThat(depth, is(100000));
+		}
+	}
+
+	/**
+	 * Tests the {@link InvocationSequenceNode#toInvocationSequence()} method.
+	 */
+	public static class ToInvocationSequence extends InvocationSequencePagerTest {
+
+		@Test
+		public void loadedChildrenLinked() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+
+			InvocationSequenceData data = pager.getPage(null, 0, 2, 1, false).toInvocationSequence();
+
+			assertThat(data.getChildCount(), is(6L));
+			assertThat(data.getNestedSequences(), hasSize(2));
+			InvocationSequenceData child = data.getNestedSequences().get(1);
+			assertThat(child.getParentSequence(), is(data));
+			assertThat(child.getPosition(), is(1L));
+			assertThat(child.getChildCount(), is(2L));
+			assertThat(child.getNestedSequences(), is(empty()));
+		}
+	}
+
+	/**
+	 * Tests the {@link InvocationSequenceNode#getTruncatedSequences()} method.
+	 */
+	public static class GetTruncatedSequences extends InvocationSequencePagerTest {
+
+		@Test
+		public void partialPage() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+			InvocationSequenceNode page = pager.getPage(null, 0, 2, 1, false);
+
+			InvocationSequenceData data = page.toInvocationSequence();
+			Set<InvocationSequenceData> truncated = page.getTruncatedSequences();
+
+			assertThat(truncated, containsInAnyOrder(data, data.getNestedSequences().get(1)));
+		}
+
+		@Test
+		public void completePage() {
+			InvocationSequencePager pager = new InvocationSequencePager(root);
+			InvocationSequenceNode page = pager.getPage(null, 0, 10, 5, false);
+
+			page.toInvocationSequence();
+
+			assertThat(page.getTruncatedSequences(), is(empty()));
+		}
+	}
+
+}
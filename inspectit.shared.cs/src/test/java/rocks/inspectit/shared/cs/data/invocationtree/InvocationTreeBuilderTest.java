@@ -113,6 +113,25 @@ public class InvocationTreeBuilderTest extends InvocationTreeTestBase {
 			verifyZeroInteractions(spanService, invocationService);
 		}
 
+		@Test
+		public void buildTruncatedInvocationSequence() {
+			InvocationSequenceData invoc01 = createSequence(null);
+			InvocationSequenceData _invoc02 = createSequence(null);
+			InvocationSequenceData _invoc03 = createSequence(null);
+			invoc01.getNestedSequences().add(_invoc02);
+			invoc01.getNestedSequences().add(_invoc03);
+
+			builder.setMode(Mode.SINGLE).setInvocationSequence(invoc01).setTruncatedInvocationSequences(Collections.singleton(_invoc02));
+
+			InvocationTreeElement tree = builder.build();
+
+			assertThat(tree.isTruncated(), is(false));
+			assertThat(tree.getChildren().get(0).isTruncated(), is(true));
+			assertThat(tree.getChildren().get(1).isTruncated(), is(false));
+			assertThat(InvocationTreeUtil.isTruncated(tree), is(true));
+			assertThat(InvocationTreeUtil.isTruncated(tree.getChildren().get(1)), is(false));
+		}
+
 		@Test
 		public void buildOneInvocationSequenceWithSpan() {
 			Span span01 = createServerSpan(null);
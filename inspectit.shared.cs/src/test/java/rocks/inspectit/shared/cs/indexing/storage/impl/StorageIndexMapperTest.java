@@ -0,0 +1,264 @@
+package rocks.inspectit.shared.cs.indexing.storage.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
+import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.storage.util.DeleteFileVisitor;
+
+/**
+ * Test for the {@link StorageIndexMapper} and {@link MappedStorageLeaf}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class StorageIndexMapperTest {
+
+	/**
+	 * ID to be assigned to the leaf.
+	 */
+	private static final int LEAF_ID = 1;
+
+	/**
+	 * Branch holding the leaf.
+	 */
+	private StorageBranch<DefaultData> storageBranch;
+
+	/**
+	 * Leaf to map.
+	 */
+	private ArrayBasedStorageLeaf<DefaultData> arrayBasedStorageLeaf;
+
+	/**
+	 * Directory for the index leaf files.
+	 */
+	private Path directory;
+
+	/**
+	 * Init.
+	 */
+	@BeforeMethod
+	public void init() throws IOException {
+		storageBranch = new StorageBranch<>();
+		arrayBasedStorageLeaf = new ArrayBasedStorageLeaf<>(LEAF_ID);
+		storageBranch.getComponentMap().put("key", arrayBasedStorageLeaf);
+		directory = Files.createTempDirectory("mappedIndex");
+	}
+
+	/**
+	 * Deletes the created files.
+	 */
+	@AfterMethod
+	public void deleteFiles() throws IOException {
+		Files.walkFileTree(directory, new DeleteFileVisitor());
+	}
+
+	public static class ExternalizeLeaves extends StorageIndexMapperTest {
+
+		@Test
+		public void leafReplaced() throws Exception {
+			addElements(arrayBasedStorageLeaf, 100);
+			Path leafFile = directory.resolve("test.leaves");
+
+			boolean externalized = StorageIndexMapper.externalizeLeaves(storageBranch, leafFile);
+
+			assertThat(externalized, is(true));
+			assertThat(storageBranch.getComponentMap().get("key"), is(instanceOf(MappedStorageLeaf.class)));
+			assertThat(Files.size(leafFile), is(100L * MappedStorageLeaf.ENTRY_SIZE));
+		}
+
+		@Test
+		public void sameDescriptors() throws Exception {
+			addElements(arrayBasedStorageLeaf, 100);
+			IndexQuery indexQuery = mock(IndexQuery.class);
+			List<IStorageDescriptor> expected = arrayBasedStorageLeaf.query(indexQuery);
+
+			StorageIndexMapper.externalizeLeaves(storageBranch, directory.resolve("test.leaves"));
+			List<IStorageDescriptor> result = storageBranch.getComponentMap().get("key").query(indexQuery);
+
+			assertThat(result, is(equalTo(expected)));
+		}
+
+		@Test
+		public void nothingToExternalize() throws Exception {
+			Path leafFile = directory.resolve("test.leaves");
+			storageBranch.getComponentMap().clear();
+
+			boolean externalized = StorageIndexMapper.externalizeLeaves(storageBranch, leafFile);
+
+			assertThat(externalized, is(false));
+			assertThat(Files.exists(leafFile), is(false));
+		}
+
+		@Test(expectedExceptions = IOException.class)
+		public void fileExists() throws Exception {
+			addElements(arrayBasedStorageLeaf, 10);
+			Path leafFile = directory.resolve("test.leaves");
+			Files.createFile(leafFile);
+
+			try {
+				StorageIndexMapper.externalizeLeaves(storageBranch, leafFile);
+			} finally {
+				assertThat(storageBranch.getComponentMap().get("key"), is(instanceOf(ArrayBasedStorageLeaf.class)));
+			}
+		}
+	}
+
+	public static class MappedLeaf extends StorageIndexMapperTest {
+
+		@Test
+		public void get() throws Exception {
+			addElements(arrayBasedStorageLeaf, 100);
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+			DefaultData element = mock(DefaultData.class);
+
+			when(element.getId()).thenReturn(50L);
+			IStorageDescriptor descriptor = mappedLeaf.get(element);
+			assertThat(descriptor.getChannelId(), is(LEAF_ID));
+			assertThat(descriptor.getPosition(), is(5000L));
+			assertThat(descriptor.getSize(), is(50L));
+
+			when(element.getId()).thenReturn(101L);
+			assertThat(mappedLeaf.get(element), is(nullValue()));
+		}
+
+		@Test
+		public void minIdQuery() throws Exception {
+			addElements(arrayBasedStorageLeaf, 100);
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+			IndexQuery indexQuery = mock(IndexQuery.class);
+			when(indexQuery.getMinId()).thenReturn(51L);
+
+			List<IStorageDescriptor> result = mappedLeaf.query(indexQuery);
+
+			assertThat(result, hasSize(50));
+			for (IStorageDescriptor descriptor : result) {
+				assertThat(descriptor.getChannelId(), is(LEAF_ID));
+			}
+		}
+
+		@Test
+		public void includeExcludeIdQuery() throws Exception {
+			addElements(arrayBasedStorageLeaf, 100);
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+			StorageIndexQuery indexQuery = mock(StorageIndexQuery.class);
+			List<Long> includeIds = new ArrayList<>();
+			List<Long> excludeIds = new ArrayList<>();
+			when(indexQuery.getIncludeIds()).thenReturn(includeIds);
+			when(indexQuery.getExcludeIds()).thenReturn(excludeIds);
+
+			includeIds.add(50L);
+			List<IStorageDescriptor> result = mappedLeaf.query(indexQuery);
+			assertThat(result, hasSize(1));
+
+			excludeIds.add(50L);
+			result = mappedLeaf.query(indexQuery);
+			assertThat(result, is(empty()));
+
+			when(indexQuery.getIncludeIds()).thenReturn(null);
+			result = mappedLeaf.query(indexQuery);
+			assertThat(result, hasSize(99));
+
+			when(indexQuery.getMinId()).thenReturn(100L);
+			result = mappedLeaf.query(indexQuery);
+			assertThat(result, hasSize(1));
+		}
+
+		@Test(expectedExceptions = IndexingException.class)
+		public void readOnly() throws Exception {
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+
+			mappedLeaf.put(mock(DefaultData.class));
+		}
+
+		@Test
+		public void nothingRemoved() throws Exception {
+			addElements(arrayBasedStorageLeaf, 10);
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+			DefaultData element = mock(DefaultData.class);
+			when(element.getId()).thenReturn(5L);
+
+			assertThat(mappedLeaf.getAndRemove(element), is(nullValue()));
+			assertThat(mappedLeaf.get(element), is(notNullValue()));
+		}
+
+		@Test
+		public void releasedAndMappedAgain() throws Exception {
+			addElements(arrayBasedStorageLeaf, 10);
+			MappedStorageLeaf<DefaultData> mappedLeaf = createBoundMappedLeaf();
+			StorageBranch<DefaultData> branch = new StorageBranch<>();
+			branch.getComponentMap().put("key", mappedLeaf);
+			assertThat(mappedLeaf.query(mock(IndexQuery.class)), hasSize(10));
+
+			StorageIndexMapper.releaseLeaves(branch);
+
+			assertThat(mappedLeaf.getIndexFile().toString(), containsString("mapped=false"));
+			assertThat(mappedLeaf.query(mock(IndexQuery.class)), hasSize(10));
+		}
+
+		@Test(expectedExceptions = IllegalStateException.class)
+		public void notBound() throws Exception {
+			MappedStorageLeaf<DefaultData> mappedLeaf = new MappedStorageLeaf<>(LEAF_ID, "test.leaves", 0, 0);
+
+			mappedLeaf.query(mock(IndexQuery.class));
+		}
+
+		/**
+		 * Externalizes the leaf, and creates the new mapped leaf bound as it would be after the
+		 * deserialization of the indexing tree.
+		 */
+		@SuppressWarnings("unchecked")
+		private MappedStorageLeaf<DefaultData> createBoundMappedLeaf() throws IOException {
+			StorageIndexMapper.externalizeLeaves(storageBranch, directory.resolve("test.leaves"));
+			MappedStorageLeaf<DefaultData> written = (MappedStorageLeaf<DefaultData>) storageBranch.getComponentMap().get("key");
+
+			StorageBranch<DefaultData> loadedBranch = new StorageBranch<>();
+			MappedStorageLeaf<DefaultData> loadedLeaf = new MappedStorageLeaf<>(written.getId(), written.getFileName(), 0, written.getSize());
+			loadedBranch.getComponentMap().put("key", loadedLeaf);
+			StorageIndexMapper.bindLeaves(loadedBranch, directory);
+			return loadedLeaf;
+		}
+	}
+
+	/**
+	 * Adds wanted amount of elements to the leaf. Each element gets the position of 100 times its
+	 * id and the size equal to its id.
+	 *
+	 * @param leaf
+	 *            Leaf.
+	 * @param amount
+	 *            Amount of elements to add.
+	 * @throws IndexingException
+	 */
+	void addElements(ArrayBasedStorageLeaf<DefaultData> leaf, int amount) throws IndexingException {
+		DefaultData element = mock(DefaultData.class);
+		for (int i = 1; i <= amount; i++) {
+			when(element.getId()).thenReturn((long) i);
+			StorageDescriptor descriptor = (StorageDescriptor) leaf.put(element);
+			descriptor.setPositionAndSize(i * 100L, i);
+		}
+	}
+}
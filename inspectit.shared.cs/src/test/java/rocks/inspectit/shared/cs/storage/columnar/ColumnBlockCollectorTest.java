@@ -0,0 +1,429 @@
+package rocks.inspectit.shared.cs.storage.columnar;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.HttpInfo;
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.serializer.util.KryoSerializationPreferences;
+import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
+
+/**
+ * Tests the {@link ColumnBlockCollector} and the column blocks it creates.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class ColumnBlockCollectorTest {
+
+	/**
+	 * Start of the indexing period all test data is created in.
+	 */
+	private static final long PERIOD_START = 100 * TimestampIndexer.INDEXING_PERIOD;
+
+	/**
+	 * Class under test.
+	 */
+	ColumnBlockCollector collector;
+
+	/**
+	 * Init.
+	 */
+	@BeforeMethod
+	public void init() {
+		collector = new ColumnBlockCollector(4);
+	}
+
+	/**
+	 * Creates the timer data with the given id and values.
+	 *
+	 * @param id
+	 *            Id.
+	 * @param timeOffset
+	 *            Offset to the {@link #PERIOD_START}.
+	 * @param duration
+	 *            Duration.
+	 * @return {@link TimerData}
+	 */
+	private static TimerData createTimerData(long id, long timeOffset, double duration) {
+		TimerData timerData = new TimerData(new Timestamp(PERIOD_START + timeOffset), 1L, 2L, 3L);
+		fill(timerData, id, duration);
+		return timerData;
+	}
+
+	/**
+	 * Fills the timer values.
+	 *
+	 * @param timerData
+	 *            Data to fill.
+	 * @param id
+	 *            Id.
+	 * @param duration
+	 *            Duration.
+	 */
+	private static void fill(TimerData timerData, long id, double duration) {
+		timerData.setId(id);
+		timerData.setCount(1L);
+		timerData.setDuration(duration);
+		timerData.calculateMin(duration);
+		timerData.calculateMax(duration);
+		timerData.setCpuDuration(duration / 2);
+		timerData.calculateCpuMin(duration / 2);
+		timerData.calculateCpuMax(duration / 2);
+		timerData.setExclusiveCount(1L);
+		timerData.setExclusiveDuration(duration / 4);
+		timerData.calculateExclusiveMin(duration / 4);
+		timerData.calculateExclusiveMax(duration / 4);
+		timerData.setCharting((id % 2) == 0);
+	}
+
+	/**
+	 * Asserts that all timer values are equal.
+	 *
+	 * @param actual
+	 *            Actual.
+	 * @param expected
+	 *            Expected.
+	 */
+	private static void assertTimerValues(TimerData actual, TimerData expected) {
+		assertThat(actual.getClass(), is(equalTo((Object) expected.getClass())));
+		assertThat(actual.getId(), is(expected.getId()));
+		assertThat(actual.getPlatformIdent(), is(expected.getPlatformIdent()));
+		assertThat(actual.getSensorTypeIdent(), is(expected.getSensorTypeIdent()));
+		assertThat(actual.getMethodIdent(), is(expected.getMethodIdent()));
+		assertThat(actual.getTimeStamp(), is(expected.getTimeStamp()));
+		assertThat(actual.getCount(), is(expected.getCount()));
+		assertThat(actual.getDuration(), is(expected.getDuration()));
+		assertThat(actual.getMin(), is(expected.getMin()));
+		assertThat(actual.getMax(), is(expected.getMax()));
+		assertThat(actual.getCpuDuration(), is(expected.getCpuDuration()));
+		assertThat(actual.getCpuMin(), is(expected.getCpuMin()));
+		assertThat(actual.getCpuMax(), is(expected.getCpuMax()));
+		assertThat(actual.getExclusiveCount(), is(expected.getExclusiveCount()));
+		assertThat(actual.getExclusiveDuration(), is(expected.getExclusiveDuration()));
+		assertThat(actual.getExclusiveMin(), is(expected.getExclusiveMin()));
+		assertThat(actual.getExclusiveMax(), is(expected.getExclusiveMax()));
+		assertThat(actual.isCharting(), is(expected.isCharting()));
+	}
+
+	/**
+	 * Tests the decision which data can be collected.
+	 */
+	public static class Collectable extends ColumnBlockCollectorTest {
+
+		@Test
+		public void timerData() {
+			boolean collectable = ColumnBlockCollector.isCollectable(createTimerData(1L, 0L, 1d), null);
+
+			assertThat(collectable, is(true));
+		}
+
+		@Test
+		public void noId() {
+			boolean collectable = ColumnBlockCollector.isCollectable(createTimerData(0L, 0L, 1d), null);
+
+			assertThat(collectable, is(false));
+		}
+
+		@Test
+		public void subclassNotSupported() {
+			TimerData timerData = new TimerData() {
+				private static final long serialVersionUID = 1L;
+			};
+			timerData.setId(1L);
+			timerData.setTimeStamp(new Timestamp(PERIOD_START));
+
+			boolean collectable = ColumnBlockCollector.isCollectable(timerData, null);
+
+			assertThat(collectable, is(false));
+		}
+
+		@Test
+		public void invocationAffiliation() {
+			TimerData timerData = createTimerData(1L, 0L, 1d);
+			timerData.addInvocationParentId(10L);
+
+			boolean collectable = ColumnBlockCollector.isCollectable(timerData, null);
+
+			assertThat(collectable, is(false));
+		}
+
+		@Test
+		public void invocationAffiliationNotWritten() {
+			TimerData timerData = createTimerData(1L, 0L, 1d);
+			timerData.addInvocationParentId(10L);
+			Map<String, Object> kryoPreferences = new HashMap<>();
+			kryoPreferences.put(KryoSerializationPreferences.WRITE_INVOCATION_AFFILIATION_DATA, Boolean.FALSE);
+
+			boolean collectable = ColumnBlockCollector.isCollectable(timerData, kryoPreferences);
+
+			assertThat(collectable, is(true));
+		}
+
+		@Test
+		public void sqlParameters() {
+			SqlStatementData sqlData = new SqlStatementData(new Timestamp(PERIOD_START), 1L, 2L, 3L, "SELECT 1 FROM dual WHERE ?");
+			sqlData.setId(1L);
+			sqlData.setParameterValues(Collections.singletonList("1"));
+
+			boolean collectable = ColumnBlockCollector.isCollectable(sqlData, null);
+
+			assertThat(collectable, is(false));
+		}
+
+		@Test
+		public void httpHeaders() {
+			HttpTimerData httpData = new HttpTimerData(new Timestamp(PERIOD_START), 1L, 2L, 3L);
+			httpData.setId(1L);
+			httpData.setHttpInfo(new HttpInfo("/uri", "GET", null));
+			httpData.setHeaders(Collections.singletonMap("header", "value"));
+
+			boolean collectable = ColumnBlockCollector.isCollectable(httpData, null);
+
+			assertThat(collectable, is(false));
+		}
+	}
+
+	/**
+	 * Tests the grouping of the elements into blocks.
+	 */
+	public static class Collect extends ColumnBlockCollectorTest {
+
+		@Test
+		public void fullBlock() {
+			for (int i = 1; i <= 5; i++) {
+				assertThat(collector.collect(createTimerData(i, i, i), null), is(true));
+			}
+
+			List<AbstractColumnBlock<?>> fullBlocks = collector.pollClosedBlocks();
+			List<AbstractColumnBlock<?>> allBlocks = collector.pollAllBlocks();
+
+			assertThat(fullBlocks, hasSize(1));
+			assertThat(fullBlocks.get(0).getElementCount(), is(4));
+			assertThat(allBlocks, hasSize(1));
+			assertThat(allBlocks.get(0).getElementCount(), is(1));
+			assertThat(collector.pollAllBlocks(), is(empty()));
+		}
+
+		@Test
+		public void separatePeriods() {
+			collector.collect(createTimerData(1L, 0L, 1d), null);
+			collector.collect(createTimerData(2L, TimestampIndexer.INDEXING_PERIOD, 1d), null);
+
+			List<AbstractColumnBlock<?>> blocks = collector.pollAllBlocks();
+
+			assertThat(collector.pollClosedBlocks(), is(empty()));
+			assertThat(blocks, hasSize(2));
+		}
+
+		@Test
+		public void finishedPeriodClosed() {
+			collector.collect(createTimerData(1L, 0L, 1d), null);
+			collector.collect(createTimerData(2L, TimestampIndexer.INDEXING_PERIOD, 1d), null);
+			assertThat(collector.pollClosedBlocks(), is(empty()));
+
+			collector.collect(createTimerData(3L, 2 * TimestampIndexer.INDEXING_PERIOD, 1d), null);
+			List<AbstractColumnBlock<?>> closedBlocks = collector.pollClosedBlocks();
+
+			assertThat(closedBlocks, hasSize(1));
+			assertThat(closedBlocks.get(0).getMinId(), is(1L));
+			assertThat(collector.pollAllBlocks(), hasSize(2));
+		}
+
+		@Test
+		public void separateClasses() {
+			AggregatedTimerData aggregatedTimerData = new AggregatedTimerData();
+			aggregatedTimerData.setTimeStamp(new Timestamp(PERIOD_START));
+			aggregatedTimerData.setPlatformIdent(1L);
+			aggregatedTimerData.setSensorTypeIdent(2L);
+			aggregatedTimerData.setMethodIdent(3L);
+			fill(aggregatedTimerData, 2L, 1d);
+			collector.collect(createTimerData(1L, 0L, 1d), null);
+			collector.collect(aggregatedTimerData, null);
+
+			List<AbstractColumnBlock<?>> blocks = collector.pollAllBlocks();
+
+			assertThat(blocks, hasSize(2));
+		}
+	}
+
+	/**
+	 * Tests that the elements are correctly restored from the blocks.
+	 */
+	public static class GetElements extends ColumnBlockCollectorTest {
+
+		@Test
+		public void timerData() throws Exception {
+			TimerData first = createTimerData(10L, 1000L, 12.5d);
+			TimerData second = createTimerData(7L, 10L, 3.25d);
+			TimerData third = createTimerData(11L, 5000L, 1000d);
+			collector.collect(first, null);
+			collector.collect(second, null);
+			collector.collect(third, null);
+
+			List<AbstractColumnBlock<?>> blocks = collector.pollAllBlocks();
+
+			assertThat(blocks, hasSize(1));
+			AbstractColumnBlock<?> block = blocks.get(0);
+			assertThat(block, is(instanceOf(TimerDataColumnBlock.class)));
+			assertThat(block.getId(), is(11L));
+			assertThat(block.getMinId(), is(7L));
+			assertThat(block.getTimeStamp().getTime(), is(PERIOD_START + 10L));
+			assertThat(block.getMaxTimestamp(), is(PERIOD_START + 5000L));
+			List<? extends TimerData> elements = block.getElements();
+			assertThat(elements, hasSize(3));
+			assertTimerValues(elements.get(0), first);
+			assertTimerValues(elements.get(1), second);
+			assertTimerValues(elements.get(2), third);
+		}
+
+		@Test
+		public void sqlData() throws Exception {
+			SqlStatementData first = new SqlStatementData(new Timestamp(PERIOD_START), 1L, 2L, 3L, "SELECT * FROM table", "jdbc:db", "1.0", "db");
+			first.setPreparedStatement(true);
+			fill(first, 1L, 2d);
+			SqlStatementData second = new SqlStatementData(new Timestamp(PERIOD_START + 1), 1L, 2L, 3L, "SELECT * FROM table");
+			fill(second, 2L, 3d);
+			collector.collect(first, null);
+			collector.collect(second, null);
+
+			List<AbstractColumnBlock<?>> blocks = collector.pollAllBlocks();
+
+			assertThat(blocks, hasSize(1));
+			assertThat(blocks.get(0), is(instanceOf(SqlStatementDataColumnBlock.class)));
+			List<SqlStatementData> elements = ((SqlStatementDataColumnBlock) blocks.get(0)).getElements();
+			assertThat(elements, hasSize(2));
+			assertTimerValues(elements.get(0), first);
+			assertThat(elements.get(0).getSql(), is(first.getSql()));
+			assertThat(elements.get(0).getDatabaseUrl(), is(first.getDatabaseUrl()));
+			assertThat(elements.get(0).getDatabaseProductName(), is(first.getDatabaseProductName()));
+			assertThat(elements.get(0).getDatabaseProductVersion(), is(first.getDatabaseProductVersion()));
+			assertThat(elements.get(0).isPreparedStatement(), is(true));
+			assertTimerValues(elements.get(1), second);
+			assertThat(elements.get(1).getSql(), is(second.getSql()));
+			assertThat(elements.get(1).getDatabaseUrl(), is(nullValue()));
+			assertThat(elements.get(1).isPreparedStatement(), is(false));
+		}
+
+		@Test
+		public void httpData() throws Exception {
+			HttpTimerData first = new HttpTimerData(new Timestamp(PERIOD_START), 1L, 2L, 3L);
+			fill(first, 1L, 2d);
+			HttpInfo httpInfo = new HttpInfo("/uri", "POST", "tag");
+			httpInfo.setId(5L);
+			httpInfo.setScheme("https");
+			httpInfo.setServerName("localhost");
+			httpInfo.setServerPort(Integer.valueOf(8443));
+			httpInfo.setQueryString("a=b");
+			first.setHttpInfo(httpInfo);
+			first.setHttpResponseStatus(200);
+			HttpTimerData second = new HttpTimerData(new Timestamp(PERIOD_START + 1), 1L, 2L, 3L);
+			fill(second, 2L, 3d);
+			second.setHttpInfo(new HttpInfo("/other", "GET", null));
+			second.setHttpResponseStatus(404);
+			collector.collect(first, null);
+			collector.collect(second, null);
+
+			List<AbstractColumnBlock<?>> blocks = collector.pollAllBlocks();
+
+			assertThat(blocks, hasSize(1));
+			assertThat(blocks.get(0), is(instanceOf(HttpTimerDataColumnBlock.class)));
+			List<HttpTimerData> elements = ((HttpTimerDataColumnBlock) blocks.get(0)).getElements();
+			assertThat(elements, hasSize(2));
+			assertTimerValues(elements.get(0), first);
+			assertThat(elements.get(0).getHttpResponseStatus(), is(200));
+			HttpInfo restoredInfo = elements.get(0).getHttpInfo();
+			assertThat(restoredInfo.getId(), is(5L));
+			assertThat(restoredInfo.getUri(), is("/uri"));
+			assertThat(restoredInfo.getRequestMethod(), is("POST"));
+			assertThat(restoredInfo.getInspectItTaggingHeaderValue(), is("tag"));
+			assertThat(restoredInfo.getScheme(), is("https"));
+			assertThat(restoredInfo.getServerName(), is("localhost"));
+			assertThat(restoredInfo.getServerPort(), is(Integer.valueOf(8443)));
+			assertThat(restoredInfo.getQueryString(), is("a=b"));
+			assertTimerValues(elements.get(1), second);
+			assertThat(elements.get(1).getHttpResponseStatus(), is(404));
+			assertThat(elements.get(1).getHttpInfo().getUri(), is("/other"));
+			assertThat(elements.get(1).getHttpInfo().getServerPort(), is(nullValue()));
+		}
+	}
+
+	/**
+	 * Tests the query check against the block statistics.
+	 */
+	public static class IsQueryComplied extends ColumnBlockCollectorTest {
+
+		AbstractColumnBlock<?> block;
+
+		@BeforeMethod
+		public void createBlock() {
+			collector.collect(createTimerData(5L, 1000L, 1d), null);
+			collector.collect(createTimerData(8L, 2000L, 1d), null);
+			block = collector.pollAllBlocks().get(0);
+		}
+
+		@Test
+		public void complied() {
+			StorageIndexQuery query = new StorageIndexQuery();
+			query.setObjectClasses(Collections.singletonList(TimerData.class));
+			query.setMethodIdent(3L);
+			query.setFromDate(new Timestamp(PERIOD_START + 1500L));
+			query.setToDate(new Timestamp(PERIOD_START + 1700L));
+
+			assertThat(block.isQueryComplied(query), is(true));
+		}
+
+		@Test
+		public void otherClass() {
+			StorageIndexQuery query = new StorageIndexQuery();
+			query.setObjectClasses(Collections.singletonList(SqlStatementData.class));
+
+			assertThat(block.isQueryComplied(query), is(false));
+		}
+
+		@Test
+		public void minIdAfterBlock() {
+			StorageIndexQuery query = new StorageIndexQuery();
+			query.setMinId(9L);
+
+			assertThat(block.isQueryComplied(query), is(false));
+		}
+
+		@Test
+		public void intervalAfterBlock() {
+			StorageIndexQuery query = new StorageIndexQuery();
+			query.setFromDate(new Timestamp(PERIOD_START + 2001L));
+			query.setToDate(new Timestamp(PERIOD_START + 3000L));
+
+			assertThat(block.isQueryComplied(query), is(false));
+		}
+
+		@Test
+		public void intervalBeforeBlock() {
+			StorageIndexQuery query = new StorageIndexQuery();
+			query.setFromDate(new Timestamp(PERIOD_START));
+			query.setToDate(new Timestamp(PERIOD_START + 999L));
+
+			assertThat(block.isQueryComplied(query), is(false));
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package rocks.inspectit.shared.cs.storage.processor.write.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
+import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.CachingIndexQueryRestrictionProcessor;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.shared.cs.storage.StorageWriter;
+import rocks.inspectit.shared.cs.storage.util.RollupResolution;
+
+/**
+ * Tests the {@link RollupDataProcessor}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class RollupDataProcessorTest {
+
+	/**
+	 * Platform ident of the test data.
+	 */
+	private static final long PLATFORM_IDENT = 10L;
+
+	/**
+	 * Start of the day all test data is created in.
+	 */
+	private static final long DAY_START = TimeUnit.DAYS.toMillis(1000);
+
+	/**
+	 * Class under test.
+	 */
+	RollupDataProcessor<TimerData> processor;
+
+	@Mock
+	StorageManager storageManager;
+
+	@Mock
+	StorageWriter storageWriter;
+
+	@Mock
+	StorageData storageData;
+
+	/**
+	 * Init.
+	 */
+	@BeforeMethod
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		IndexQuery query = new IndexQuery();
+		query.setRestrictionProcessor(new CachingIndexQueryRestrictionProcessor());
+		query.setObjectClasses(Collections.singletonList(TimerData.class));
+		processor = new RollupDataProcessor<>(TimerData.class, query, Aggregators.TIMER_DATA_AGGREGATOR);
+		when(storageManager.getRollupDataHash(any(Class.class), anyLong(), any(RollupResolution.class), anyLong())).thenCallRealMethod();
+	}
+
+	/**
+	 * Creates the timer data.
+	 *
+	 * @param id
+	 *            Id.
+	 * @param time
+	 *            Time.
+	 * @param methodIdent
+	 *            Method ident.
+	 * @return {@link TimerData}
+	 */
+	private static TimerData createTimerData(long id, long time, long methodIdent) {
+		TimerData timerData = new TimerData(new Timestamp(time), PLATFORM_IDENT, 1L, methodIdent);
+		timerData.setId(id);
+		timerData.setCount(1L);
+		timerData.setDuration(10d);
+		timerData.calculateMin(10d);
+		timerData.calculateMax(10d);
+		return timerData;
+	}
+
+	/**
+	 * Returns the data cached with the hash of the given rollup partition.
+	 *
+	 * @param resolution
+	 *            Resolution.
+	 * @param partitionStart
+	 *            Partition start.
+	 * @return Cached data.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<TimerData> getCachedRollup(RollupResolution resolution, long partitionStart) throws Exception {
+		int hash = storageManager.getRollupDataHash(TimerData.class, PLATFORM_IDENT, resolution, partitionStart);
+		ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(storageManager).cacheStorageData(eq(storageData), captor.capture(), eq(hash));
+		return (List<TimerData>) captor.getValue();
+	}
+
+	@Test
+	public void notProcessed() throws Exception {
+		processor.process(new SqlStatementData(new Timestamp(DAY_START), PLATFORM_IDENT, 1L, 1L), Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		verify(storageManager, never()).cacheStorageData(any(StorageData.class), any(Collection.class), anyInt());
+	}
+
+	@Test
+	public void minuteBuckets() throws Exception {
+		processor.process(createTimerData(1L, DAY_START + 1000L, 1L), Collections.emptyMap());
+		processor.process(createTimerData(2L, DAY_START + 2000L, 1L), Collections.emptyMap());
+		processor.process(createTimerData(3L, DAY_START + TimeUnit.MINUTES.toMillis(1), 1L), Collections.emptyMap());
+		processor.process(createTimerData(4L, DAY_START + 3000L, 2L), Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		List<TimerData> rollup = getCachedRollup(RollupResolution.MINUTE, DAY_START);
+		assertThat(rollup, hasSize(3));
+		for (TimerData timerData : rollup) {
+			assertThat(timerData, is(instanceOf(AggregatedTimerData.class)));
+			assertThat(((AggregatedTimerData) timerData).getAggregatedIds(), is(empty()));
+			assertThat(timerData.getTimeStamp().getTime() % TimeUnit.MINUTES.toMillis(1), is(0L));
+			if ((timerData.getMethodIdent() == 1L) && (timerData.getTimeStamp().getTime() == DAY_START)) {
+				assertThat(timerData.getCount(), is(2L));
+				assertThat(timerData.getDuration(), is(20d));
+			} else {
+				assertThat(timerData.getCount(), is(1L));
+			}
+		}
+	}
+
+	@Test
+	public void partitions() throws Exception {
+		long nextDay = DAY_START + TimeUnit.DAYS.toMillis(1);
+		processor.process(createTimerData(1L, DAY_START + 1000L, 1L), Collections.emptyMap());
+		processor.process(createTimerData(2L, nextDay + 1000L, 1L), Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		assertThat(getCachedRollup(RollupResolution.MINUTE, DAY_START), hasSize(1));
+		assertThat(getCachedRollup(RollupResolution.MINUTE, nextDay), hasSize(1));
+		assertThat(getCachedRollup(RollupResolution.HOUR, RollupResolution.HOUR.getPartitionStart(DAY_START)), hasSize(2));
+		List<TimerData> dayRollup = getCachedRollup(RollupResolution.DAY, 0L);
+		assertThat(dayRollup, hasSize(2));
+	}
+
+	@Test
+	public void invocationAffiliationNotKept() throws Exception {
+		TimerData timerData = createTimerData(1L, DAY_START, 1L);
+		timerData.addInvocationParentId(5L);
+
+		processor.process(timerData, Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		assertThat(timerData.getInvocationParentsIdSet(), hasSize(1));
+		List<TimerData> rollup = getCachedRollup(RollupResolution.DAY, 0L);
+		assertThat(rollup, hasSize(1));
+		assertThat(rollup.get(0).getInvocationParentsIdSet(), is(empty()));
+	}
+
+	@Test
+	public void noTimestamp() throws Exception {
+		TimerData timerData = createTimerData(1L, DAY_START, 1L);
+		timerData.setTimeStamp(null);
+
+		processor.process(timerData, Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		verify(storageManager, never()).cacheStorageData(any(StorageData.class), any(Collection.class), anyInt());
+	}
+
+	@Test
+	public void rollupsAvailable() throws Exception {
+		processor.process(createTimerData(1L, DAY_START, 1L), Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		verify(storageData).setRollupsAvailable(true);
+	}
+
+	@Test
+	public void closedPartitionWritten() throws Exception {
+		long laterDay = DAY_START + TimeUnit.DAYS.toMillis(2);
+		processor.onPrepare(storageManager, storageWriter, storageData);
+		processor.process(createTimerData(1L, DAY_START + 1000L, 1L), Collections.emptyMap());
+		for (int i = 0; i < RollupDataProcessor.CLOSE_CHECK_INTERVAL; i++) {
+			processor.process(createTimerData(i + 2L, laterDay, 1L), Collections.emptyMap());
+		}
+
+		assertThat(getCachedRollup(RollupResolution.MINUTE, DAY_START), hasSize(1));
+		int openMinuteHash = storageManager.getRollupDataHash(TimerData.class, PLATFORM_IDENT, RollupResolution.MINUTE, laterDay);
+		int dayHash = storageManager.getRollupDataHash(TimerData.class, PLATFORM_IDENT, RollupResolution.DAY, 0L);
+		verify(storageManager, never()).cacheStorageData(eq(storageData), any(Collection.class), eq(openMinuteHash));
+		verify(storageManager, never()).cacheStorageData(eq(storageData), any(Collection.class), eq(dayHash));
+		verify(storageData, never()).setRollupsAvailable(true);
+	}
+
+	@Test
+	public void failedPartitionWrittenOnFinalization() throws Exception {
+		long laterDay = DAY_START + TimeUnit.DAYS.toMillis(2);
+		int hash = storageManager.getRollupDataHash(TimerData.class, PLATFORM_IDENT, RollupResolution.MINUTE, DAY_START);
+		doThrow(new IOException()).doNothing().when(storageManager).cacheStorageData(eq(storageData), any(Collection.class), eq(hash));
+		processor.onPrepare(storageManager, storageWriter, storageData);
+		processor.process(createTimerData(1L, DAY_START + 1000L, 1L), Collections.emptyMap());
+		for (int i = 0; i < RollupDataProcessor.CLOSE_CHECK_INTERVAL; i++) {
+			processor.process(createTimerData(i + 2L, laterDay, 1L), Collections.emptyMap());
+		}
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		verify(storageManager, times(2)).cacheStorageData(eq(storageData), any(Collection.class), eq(hash));
+		verify(storageData).setRollupsAvailable(true);
+	}
+
+	@Test
+	public void writtenPartitionMerged() throws Exception {
+		int hash = storageManager.getRollupDataHash(TimerData.class, PLATFORM_IDENT, RollupResolution.DAY, 0L);
+		AggregatedTimerData written = new AggregatedTimerData();
+		written.setTimeStamp(new Timestamp(DAY_START));
+		written.setPlatformIdent(PLATFORM_IDENT);
+		written.setSensorTypeIdent(1L);
+		written.setMethodIdent(1L);
+		written.setCount(2L);
+		written.setDuration(20d);
+		List<TimerData> writtenList = new ArrayList<>();
+		writtenList.add(written);
+		when(storageManager.getCachedStorageData(storageData, hash)).thenReturn(writtenList);
+
+		processor.process(createTimerData(1L, DAY_START + 1000L, 1L), Collections.emptyMap());
+		processor.onFinalization(storageManager, storageWriter, storageData);
+
+		ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(storageManager).replaceCachedStorageData(eq(storageData), captor.capture(), eq(hash));
+		verify(storageManager, never()).cacheStorageData(eq(storageData), any(Collection.class), eq(hash));
+		List<TimerData> rollup = (List<TimerData>) captor.getValue();
+		assertThat(rollup, hasSize(1));
+		assertThat(rollup.get(0).getCount(), is(3L));
+		assertThat(rollup.get(0).getDuration(), is(30d));
+	}
+}
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -67,9 +68,11 @@ import rocks.inspectit.shared.all.serializer.ISerializer;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.all.serializer.impl.SerializationManager;
 import rocks.inspectit.shared.all.serializer.schema.ClassSchemaManager;
+import rocks.inspectit.shared.all.serializer.util.KryoSerializationPreferences;
 import rocks.inspectit.shared.all.testbase.TestBase;
 import rocks.inspectit.shared.all.util.KryoNetNetwork;
 import rocks.inspectit.shared.cs.communication.data.cmr.RecordingData;
+import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.InvocationChildrenIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.MethodIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.ObjectTypeIndexer;
@@ -83,6 +86,7 @@ import rocks.inspectit.shared.cs.indexing.storage.impl.StorageBranch;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageBranchIndexer;
 import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.columnar.TimerDataColumnBlock;
 import rocks.inspectit.shared.cs.storage.label.BooleanStorageLabel;
 import rocks.inspectit.shared.cs.storage.label.DateStorageLabel;
 import rocks.inspectit.shared.cs.storage.label.NumberStorageLabel;
@@ -404,6 +408,55 @@ public class SerializerTest extends TestBase {
 		}
 	}
 
+	/**
+	 * Tests that the column block is restored with its columns.
+	 */
+	@Test
+	public void columnBlock() throws SerializationException {
+		TimerDataColumnBlock block = createColumnBlock();
+
+		TimerDataColumnBlock deserialized = serializeBackAndForth(block);
+
+		assertThat(deserialized.getElementCount(), is(1));
+		assertThat(deserialized.getElements().get(0).getId(), is(1L));
+		assertThat(deserialized.getElements().get(0).getDuration(), is(10d));
+	}
+
+	/**
+	 * Tests that the columns of the block not complying the filter query are not read.
+	 */
+	@Test
+	public void columnBlockSkipped() throws SerializationException {
+		IndexQuery query = new IndexQuery();
+		query.setMethodIdent(4L);
+		Map<String, IndexQuery> kryoPreferences = Collections.singletonMap(KryoSerializationPreferences.FILTER_QUERY, query);
+		List<Object> list = new ArrayList<>();
+		list.add(createColumnBlock());
+		list.add("next");
+
+		List<Object> deserialized = serializeBackAndForth(list, kryoPreferences);
+
+		assertThat(((TimerDataColumnBlock) deserialized.get(0)).getElementCount(), is(1));
+		assertThat(((TimerDataColumnBlock) deserialized.get(0)).getColumns(), is(nullValue()));
+		assertThat(deserialized.get(1), is((Object) "next"));
+	}
+
+	/**
+	 * Creates sealed column block with one timer data.
+	 *
+	 * @return {@link TimerDataColumnBlock}
+	 */
+	private TimerDataColumnBlock createColumnBlock() {
+		TimerData timerData = new TimerData(new Timestamp(System.currentTimeMillis()), 1L, 2L, 3L);
+		timerData.setId(1L);
+		timerData.setCount(1L);
+		timerData.setDuration(10d);
+		TimerDataColumnBlock block = new TimerDataColumnBlock(1L, 2L, 3L, false);
+		block.add(timerData);
+		block.seal();
+		return block;
+	}
+
 	private void throwIOException() throws IOException {
 		throw new IOException("Just for testing");
 	}
@@ -430,4 +483,27 @@ public class SerializerTest extends TestBase {
 
 	}
 
+	/**
+	 * Performs the serialization of the given object to bytes and then performs de-serialization
+	 * from those bytes with the given preferences and returns the de-serialized object back.
+	 *
+	 * @param original
+	 *            Original object.
+	 * @param kryoPreferences
+	 *            Preferences to de-serialize with.
+	 * @return De-serialized objects from bytes gotten from the serialization of original.
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T serializeBackAndForth(Object original, Map<?, ?> kryoPreferences) throws SerializationException {
+		ByteBufferOutputStream byteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
+		Output output = new Output(byteBufferOutputStream);
+		serializer.serialize(original, output);
+		byteBuffer.flip();
+		ByteBufferInputStream byteBufferInputStream = new ByteBufferInputStream(byteBuffer);
+		Input input = new Input(byteBufferInputStream);
+		return (T) serializer.deserialize(input, kryoPreferences);
+	}
+
 }
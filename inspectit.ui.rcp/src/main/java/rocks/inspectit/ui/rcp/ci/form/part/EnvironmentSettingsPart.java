@@ -56,6 +56,16 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 	 */
 	private Text bufferSizeValue;
 
+	/**
+	 * {@link ControlDecoration} for displaying validation errors for method overhead budget.
+	 */
+	private ValidationControlDecoration<Text> overheadBudgetValueDecoration;
+
+	/**
+	 * {@link Text} for method overhead budget value.
+	 */
+	private Text overheadBudgetValue;
+
 	/**
 	 * Combo for choosing retransformation strategy.
 	 */
@@ -135,7 +145,17 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 		createInfoLabel(mainComposite, toolkit,
 				"If activated all sub-classes of java.lang.ClassLoader will be instrumented so that loading of the inspectIT classes is delegated to the inspectIT class loader. Should only be changed to false in rare cases and is expert user level option.");
 
+		// method overhead budget
+		toolkit.createLabel(mainComposite, "Method overhead budget:").setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+		overheadBudgetValue = toolkit.createText(mainComposite, "", SWT.BORDER | SWT.RIGHT);
+		gd = new GridData(SWT.FILL, SWT.FILL, false, false);
+		gd.widthHint = 50;
+		overheadBudgetValue.setLayoutData(gd);
+		createInfoLabel(mainComposite, toolkit,
+				"The maximum allowed ratio between the agent overhead and the duration of an instrumented method (for example 0.5 for 50%). The agent samples its own overhead and removes the instrumentation of methods exceeding the budget, which requires the retransformation to be active. Set to 0 to deactivate the automatic de-instrumentation.");
+
 		// fill the boxes and values
+		overheadBudgetValue.setText(String.valueOf(environment.getMethodOverheadBudget()));
 		IStrategyConfig disruptorStrategyConfig = environment.getDisruptorStrategyConfig();
 		if (disruptorStrategyConfig instanceof DisruptorStrategyConfig) {
 			bufferSizeValue.setText(String.valueOf(((DisruptorStrategyConfig) disruptorStrategyConfig).getBufferSize()));
@@ -154,6 +174,13 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 			}
 		};
 		bufferSizeValueDecoration.registerListener(SWT.Modify);
+		overheadBudgetValueDecoration = new ValidationControlDecoration<Text>(overheadBudgetValue, formPage.getManagedForm().getMessageManager()) {
+			@Override
+			protected boolean validate(Text control) {
+				return validateUpdateOverheadBudget(false);
+			}
+		};
+		overheadBudgetValueDecoration.registerListener(SWT.Modify);
 
 		// dirty listener
 		Listener dirtyListener = new Listener() {
@@ -166,6 +193,7 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 		};
 		retransformationCombo.addListener(SWT.Selection, dirtyListener);
 		bufferSizeValue.addListener(SWT.Modify, dirtyListener);
+		overheadBudgetValue.addListener(SWT.Modify, dirtyListener);
 		classDelegationButton.addListener(SWT.Selection, dirtyListener);
 	}
 
@@ -178,6 +206,7 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 			super.commit(onSave);
 
 			validateUpdateBufferSize(true);
+			validateUpdateOverheadBudget(true);
 			environment.setRetransformationStrategy((RetransformationStrategy) retransformationCombo.getData(retransformationCombo.getItem(retransformationCombo.getSelectionIndex())));
 			environment.setClassLoadingDelegation(classDelegationButton.getSelection());
 			getManagedForm().dirtyStateChanged();
@@ -221,6 +250,40 @@ public class EnvironmentSettingsPart extends SectionPart implements IPropertyLis
 		bufferSizeValueDecoration.setDescriptionText("Data size buffer must define a number that is greater than zero and power of 2.");
 	}
 
+	/**
+	 * Validates the method overhead budget.
+	 *
+	 * @param update
+	 *            If beside validation an update on the model object should be done.
+	 * @return if control has valid value
+	 */
+	private boolean validateUpdateOverheadBudget(boolean update) {
+		boolean valid = true;
+		try {
+			double budget = Double.parseDouble(overheadBudgetValue.getText());
+			if ((budget < 0) || Double.isNaN(budget) || Double.isInfinite(budget)) {
+				showOverheadBudgetValidationMessage();
+				valid = false;
+			} else {
+				if (update) {
+					environment.setMethodOverheadBudget(budget);
+				}
+			}
+		} catch (NumberFormatException exception) {
+			showOverheadBudgetValidationMessage();
+			valid = false;
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Shows validation error message for method overhead budget.
+	 */
+	private void showOverheadBudgetValidationMessage() {
+		overheadBudgetValueDecoration.setDescriptionText("Method overhead budget must define a number that is zero or greater than zero.");
+	}
+
 	/**
 	 * Creates info icon with given text as tool-tip.
 	 *
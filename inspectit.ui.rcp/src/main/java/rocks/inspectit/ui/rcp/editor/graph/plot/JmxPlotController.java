@@ -27,7 +27,7 @@ import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
-import rocks.inspectit.shared.cs.cmr.service.IGlobalDataAccessService;
+import rocks.inspectit.shared.cs.cmr.service.IJmxDataAccessService;
 import rocks.inspectit.shared.cs.cmr.service.cache.CachedDataService;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.indexing.aggregation.impl.JmxSensorValueDataAggregator;
@@ -106,9 +106,9 @@ public class JmxPlotController extends AbstractPlotController {
 	private JmxDefinitionDataIdent currentJmxIdent;
 
 	/**
-	 * The global data access service.
+	 * The JMX data access service.
 	 */
-	private IGlobalDataAccessService globalDataAccessService;
+	private IJmxDataAccessService jmxDataAccessService;
 
 	/**
 	 * Used aggregator.
@@ -128,7 +128,7 @@ public class JmxPlotController extends AbstractPlotController {
 		template.setJmxSensorDefinitionDataIdentId(inputDefinition.getIdDefinition().getJmxDefinitionId());
 
 		cachedDataService = inputDefinition.getRepositoryDefinition().getCachedDataService();
-		globalDataAccessService = inputDefinition.getRepositoryDefinition().getGlobalDataAccessService();
+		jmxDataAccessService = inputDefinition.getRepositoryDefinition().getJmxDataAccessService();
 
 		currentJmxIdent = cachedDataService.getJmxDefinitionDataIdentForId(inputDefinition.getIdDefinition().getJmxDefinitionId());
 
@@ -199,7 +199,8 @@ public class JmxPlotController extends AbstractPlotController {
 
 	/**
 	 * Loads the {@link JmxSensorValueData} objects which were created between the given
-	 * {@link Date} objects.
+	 * {@link Date} objects. As the agent sends only changed values, the returned data has the gaps
+	 * filled with the last known value.
 	 *
 	 * @param from
 	 *            the start date
@@ -207,9 +208,8 @@ public class JmxPlotController extends AbstractPlotController {
 	 *            the end date
 	 * @return list of {@link JmxSensorValueData} objects
 	 */
-	@SuppressWarnings("unchecked")
 	private List<JmxSensorValueData> loadJmxData(Date from, Date to) {
-		return (List<JmxSensorValueData>) globalDataAccessService.getDataObjectsFromToDate(template, from, to);
+		return new ArrayList<>(jmxDataAccessService.getJmxDataFromToDate(template, from, to));
 	}
 
 	/**
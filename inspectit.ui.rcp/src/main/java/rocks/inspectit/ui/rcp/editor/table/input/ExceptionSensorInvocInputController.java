@@ -74,6 +74,11 @@ public class ExceptionSensorInvocInputController extends AbstractTableInputContr
 	 */
 	private LocalResourceManager resourceManager = new LocalResourceManager(JFaceResources.getResources());
 
+	/**
+	 * Note added to the column header when only a part of the invocation is loaded.
+	 */
+	private static final String PARTIAL_INVOCATION = "(only the loaded part of the invocation)";
+
 	/**
 	 * The private inner enumeration used to define the used IDs which are mapped into the columns.
 	 * The order in this enumeration represents the order of the columns. If it is reordered,
@@ -271,6 +276,24 @@ public class ExceptionSensorInvocInputController extends AbstractTableInputContr
 		}
 	}
 
+	/**
+	 * Marks the header of the {@link Column#FQN} column when the exceptions are collected only from
+	 * the loaded part of a truncated invocation.
+	 *
+	 * @param truncated
+	 *            If the displayed invocation is truncated.
+	 */
+	private void markTruncated(boolean truncated) {
+		TableViewerColumn viewerColumn = getMappedTableViewerColumn(Column.FQN);
+		if (null != viewerColumn) {
+			if (truncated) {
+				viewerColumn.getColumn().setText(Column.FQN.name + " " + PARTIAL_INVOCATION);
+			} else {
+				viewerColumn.getColumn().setText(Column.FQN.name);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -369,8 +392,10 @@ public class ExceptionSensorInvocInputController extends AbstractTableInputContr
 			List<InvocationSequenceData> invocationSequenceDataList;
 			if (input.get(0) instanceof InvocationTreeElement) {
 				InvocationTreeElement tree = (InvocationTreeElement) input.get(0);
+				markTruncated(InvocationTreeUtil.isTruncated(tree));
 				invocationSequenceDataList = InvocationTreeUtil.getInvocationSequences(tree);
 			} else {
+				markTruncated(false);
 				invocationSequenceDataList = (List<InvocationSequenceData>) inputElement;
 			}
 			exceptionSensorDataList = getRawExceptionSensorDataList(invocationSequenceDataList, new ArrayList<ExceptionSensorData>());
@@ -38,6 +38,7 @@ import rocks.inspectit.shared.all.communication.data.HttpTimerDataHelper;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.communication.data.cmr.ApplicationData;
 import rocks.inspectit.shared.all.communication.data.cmr.BusinessTransactionData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.IInvocationDataAccessService;
 import rocks.inspectit.shared.cs.cmr.service.ISpanService;
 import rocks.inspectit.shared.cs.communication.comparator.DefaultDataComparatorEnum;
@@ -46,6 +47,7 @@ import rocks.inspectit.shared.cs.communication.comparator.InvocationSequenceData
 import rocks.inspectit.shared.cs.communication.comparator.MethodSensorDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
 import rocks.inspectit.shared.cs.communication.data.InvocationSequenceDataHelper;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequenceNode;
 import rocks.inspectit.shared.cs.data.invocationtree.InvocationTreeBuilder;
 import rocks.inspectit.shared.cs.data.invocationtree.InvocationTreeBuilder.Mode;
 import rocks.inspectit.shared.cs.data.invocationtree.InvocationTreeElement;
@@ -66,6 +68,7 @@ import rocks.inspectit.ui.rcp.formatter.TextFormatter;
 import rocks.inspectit.ui.rcp.preferences.PreferencesConstants;
 import rocks.inspectit.ui.rcp.preferences.PreferencesUtils;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
+import rocks.inspectit.ui.rcp.util.data.IncrementalDataCursor;
 
 /**
  * This input controller displays an overview of {@link InvocationSequenceData} objects.
@@ -80,6 +83,23 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 	 */
 	public static final String ID = "inspectit.subview.table.invocoverview";
 
+	/**
+	 * Child count above which only the page of the invocation is loaded for the details instead of
+	 * the complete invocation.
+	 */
+	private static final long PAGED_DETAIL_CHILD_COUNT = 10000;
+
+	/**
+	 * Maximum amount of children loaded per element of the paged invocation details.
+	 */
+	private static final int DETAIL_PAGE_LIMIT = 100;
+
+	/**
+	 * Number of levels loaded below the root of the paged invocation details. The hot path is
+	 * always loaded until the leaf.
+	 */
+	private static final int DETAIL_PAGE_LEVELS = 5;
+
 	/**
 	 * The private inner enumeration used to define the used IDs which are mapped into the columns.
 	 * The order in this enumeration represents the order of the columns. If it is reordered,
@@ -219,6 +239,12 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 	 */
 	private ISpanService spanService;
 
+	/**
+	 * Cursor of the data loaded in the live mode, so that only the new invocations are loaded on
+	 * refresh.
+	 */
+	private final IncrementalDataCursor incrementalDataCursor = new IncrementalDataCursor();
+
 	/**
 	 *
 	 * @return Returns list of invocation sequence data that represents a table input.
@@ -327,6 +353,7 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 				} else {
 					InvocOverviewInputController.this.resultComparator = defaultComparator;
 				}
+				incrementalDataCursor.reset();
 				loadDataFromService();
 			}
 		};
@@ -372,8 +399,12 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 		case LIVEMODE:
 			if (preferenceEvent.getPreferenceMap().containsKey(PreferenceId.LiveMode.BUTTON_LIVE_ID)) {
 				autoUpdate = (Boolean) preferenceEvent.getPreferenceMap().get(PreferenceId.LiveMode.BUTTON_LIVE_ID);
+				incrementalDataCursor.reset();
 			}
 			break;
+		case CLEAR_BUFFER:
+			incrementalDataCursor.reset();
+			break;
 		default:
 			break;
 		}
@@ -396,6 +427,7 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 	@Override
 	public void setLimit(int limit) {
 		this.limit = limit;
+		incrementalDataCursor.reset();
 	}
 
 	/**
@@ -412,23 +444,19 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 	}
 
 	/**
-	 * Reloads the data from the service.
+	 * Reloads the data from the service. In the live mode only the new data is loaded.
 	 */
 	private void loadDataFromService() {
-		List<InvocationSequenceData> invocData;
+		if (autoUpdate) {
+			loadNewDataFromService();
+			return;
+		}
 
-		if (!autoUpdate) {
-			if (template.getMethodIdent() != IdDefinition.ID_NOT_USED) {
-				invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), template.getMethodIdent(), limit, fromDate, toDate, resultComparator);
-			} else {
-				invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), limit, fromDate, toDate, resultComparator);
-			}
+		List<InvocationSequenceData> invocData;
+		if (template.getMethodIdent() != IdDefinition.ID_NOT_USED) {
+			invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), template.getMethodIdent(), limit, fromDate, toDate, resultComparator);
 		} else {
-			if (template.getMethodIdent() != IdDefinition.ID_NOT_USED) {
-				invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), template.getMethodIdent(), limit, resultComparator);
-			} else {
-				invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), limit, resultComparator);
-			}
+			invocData = dataAccessService.getInvocationSequenceOverview(template.getPlatformIdent(), limit, fromDate, toDate, resultComparator);
 		}
 
 		// why this? so only update with new data if returned collection is not empty, i would say
@@ -442,6 +470,27 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 		}
 	}
 
+	/**
+	 * Loads only the invocations added since the last refresh and merges them with the displayed
+	 * ones. Used in the live mode, where the displayed invocations are not restricted by the time
+	 * frame.
+	 */
+	private void loadNewDataFromService() {
+		IncrementalQueryResult<InvocationSequenceData> result = dataAccessService.getInvocationSequenceOverviewSince(template.getPlatformIdent(), template.getMethodIdent(),
+				incrementalDataCursor.getSinceId(), limit, resultComparator);
+
+		List<InvocationSequenceData> invocData;
+		if (incrementalDataCursor.update(result)) {
+			invocData = result.getData();
+		} else {
+			ResultComparator<InvocationSequenceData> localComparator = new ResultComparator<>(resultComparator.getComparator(), cachedDataService, resultComparator.isAscending());
+			invocData = IncrementalDataCursor.merge(invocationSequenceData, result.getData(), localComparator, limit);
+		}
+
+		invocationSequenceData.clear();
+		invocationSequenceData.addAll(invocData);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -456,9 +505,7 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 						monitor.beginTask("Retrieving Invocation detail data", IProgressMonitor.UNKNOWN);
 
 						InvocationSequenceData invocationSequenceData = (InvocationSequenceData) selection.getFirstElement();
-						InvocationSequenceData data = dataAccessService.getInvocationSequenceDetail(invocationSequenceData);
-
-						final InvocationTreeElement tree = new InvocationTreeBuilder().setSpanService(spanService).setInvocationSequence(data).setMode(Mode.SINGLE).build();
+						final InvocationTreeElement tree = loadInvocationTree(invocationSequenceData);
 
 						Display.getDefault().asyncExec(new Runnable() {
 							@Override
@@ -480,6 +527,30 @@ public class InvocOverviewInputController extends AbstractTableInputController {
 		}
 	}
 
+	/**
+	 * Loads the details of the invocation and builds the tree for displaying. Small invocations are
+	 * loaded completely, while for the invocations with more than {@link #PAGED_DETAIL_CHILD_COUNT}
+	 * children only the page with the first {@link #DETAIL_PAGE_LEVELS} levels and the hot path is
+	 * loaded, so that the huge invocations do not have to be transfered and displayed at once. The
+	 * elements of the page that miss some of their children are marked as truncated in the tree,
+	 * so that the views can show that they display only a part of the invocation.
+	 *
+	 * @param template
+	 *            Invocation from the overview.
+	 * @return Tree of the invocation to display.
+	 */
+	private InvocationTreeElement loadInvocationTree(InvocationSequenceData template) {
+		InvocationTreeBuilder builder = new InvocationTreeBuilder().setSpanService(spanService).setMode(Mode.SINGLE);
+		if (template.getChildCount() > PAGED_DETAIL_CHILD_COUNT) {
+			InvocationSequenceNode page = dataAccessService.getInvocationSequenceDetailPage(template, null, 0, DETAIL_PAGE_LIMIT, DETAIL_PAGE_LEVELS, true);
+			if (null != page) {
+				InvocationSequenceData data = page.toInvocationSequence();
+				return builder.setInvocationSequence(data).setTruncatedInvocationSequences(page.getTruncatedSequences()).build();
+			}
+		}
+		return builder.setInvocationSequence(dataAccessService.getInvocationSequenceDetail(template)).build();
+	}
+
 	/**
 	 * The label provider for this view.
 	 *
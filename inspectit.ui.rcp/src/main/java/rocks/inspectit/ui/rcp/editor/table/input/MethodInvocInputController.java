@@ -55,6 +55,11 @@ import rocks.inspectit.ui.rcp.handlers.ShowHideColumnsHandler;
  */
 public class MethodInvocInputController extends AbstractTableInputController {
 
+	/**
+	 * Note added to the column header when only a part of the invocation is loaded.
+	 */
+	private static final String PARTIAL_INVOCATION = "(only the loaded part of the invocation)";
+
 	/**
 	 * The private inner enumeration used to define the used IDs which are mapped into the columns.
 	 * The order in this enumeration represents the order of the columns. If it is reordered,
@@ -271,6 +276,24 @@ public class MethodInvocInputController extends AbstractTableInputController {
 		}
 	}
 
+	/**
+	 * Marks the header of the {@link Column#METHOD} column when the methods are collected only from
+	 * the loaded part of a truncated invocation.
+	 *
+	 * @param truncated
+	 *            If the displayed invocation is truncated.
+	 */
+	private void markTruncated(boolean truncated) {
+		TableViewerColumn viewerColumn = getMappedTableViewerColumn(Column.METHOD);
+		if (null != viewerColumn) {
+			if (truncated) {
+				viewerColumn.getColumn().setText(Column.METHOD.name + " " + PARTIAL_INVOCATION);
+			} else {
+				viewerColumn.getColumn().setText(Column.METHOD.name);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -356,8 +379,10 @@ public class MethodInvocInputController extends AbstractTableInputController {
 			List<InvocationSequenceData> invocationSequenceDataList;
 			if (input.get(0) instanceof InvocationTreeElement) {
 				InvocationTreeElement tree = (InvocationTreeElement) input.get(0);
+				markTruncated(InvocationTreeUtil.isTruncated(tree));
 				invocationSequenceDataList = InvocationTreeUtil.getInvocationSequences(tree);
 			} else {
+				markTruncated(false);
 				invocationSequenceDataList = (List<InvocationSequenceData>) inputElement;
 			}
 
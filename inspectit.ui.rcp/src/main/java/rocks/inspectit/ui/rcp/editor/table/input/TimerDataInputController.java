@@ -22,12 +22,14 @@ import org.eclipse.swt.graphics.Image;
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.ITimerDataAccessService;
 import rocks.inspectit.shared.cs.communication.comparator.IDataComparator;
 import rocks.inspectit.shared.cs.communication.comparator.InvocationAwareDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.MethodSensorDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
 import rocks.inspectit.shared.cs.communication.comparator.TimerDataComparatorEnum;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
 import rocks.inspectit.ui.rcp.InspectIT;
 import rocks.inspectit.ui.rcp.InspectITImages;
 import rocks.inspectit.ui.rcp.editor.inputdefinition.InputDefinition;
@@ -42,6 +44,7 @@ import rocks.inspectit.ui.rcp.formatter.TextFormatter;
 import rocks.inspectit.ui.rcp.preferences.PreferencesConstants;
 import rocks.inspectit.ui.rcp.preferences.PreferencesUtils;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
+import rocks.inspectit.ui.rcp.util.data.IncrementalDataCursor;
 
 /**
  * Table input controller for the aggregated Timer data view.
@@ -192,6 +195,12 @@ public class TimerDataInputController extends AbstractTableInputController {
 	 */
 	private int timeDecimalPlaces = PreferencesUtils.getIntValue(PreferencesConstants.DECIMAL_PLACES);
 
+	/**
+	 * Cursor of the data loaded in the live mode, so that only the new timer data is loaded and
+	 * aggregated on refresh.
+	 */
+	private final IncrementalDataCursor incrementalDataCursor = new IncrementalDataCursor();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -267,8 +276,12 @@ public class TimerDataInputController extends AbstractTableInputController {
 		case LIVEMODE:
 			if (preferenceEvent.getPreferenceMap().containsKey(PreferenceId.LiveMode.BUTTON_LIVE_ID)) {
 				autoUpdate = (Boolean) preferenceEvent.getPreferenceMap().get(PreferenceId.LiveMode.BUTTON_LIVE_ID);
+				incrementalDataCursor.reset();
 			}
 			break;
+		case CLEAR_BUFFER:
+			incrementalDataCursor.reset();
+			break;
 		case TIME_RESOLUTION:
 			if (preferenceEvent.getPreferenceMap().containsKey(PreferenceId.TimeResolution.TIME_DECIMAL_PLACES_ID)) {
 				timeDecimalPlaces = (Integer) preferenceEvent.getPreferenceMap().get(PreferenceId.TimeResolution.TIME_DECIMAL_PLACES_ID);
@@ -306,7 +319,12 @@ public class TimerDataInputController extends AbstractTableInputController {
 		monitor.beginTask("Getting timer data information", IProgressMonitor.UNKNOWN);
 		List<TimerData> aggregatedTimerData;
 		if (autoUpdate) {
-			aggregatedTimerData = timerDataAccessService.getAggregatedTimerData(template);
+			IncrementalQueryResult<TimerData> result = timerDataAccessService.getAggregatedTimerDataSince(template, incrementalDataCursor.getSinceId());
+			if (incrementalDataCursor.update(result)) {
+				aggregatedTimerData = result.getData();
+			} else {
+				aggregatedTimerData = IncrementalDataCursor.aggregate(timerDataList, result.getData(), Aggregators.TIMER_DATA_AGGREGATOR);
+			}
 		} else {
 			aggregatedTimerData = timerDataAccessService.getAggregatedTimerData(template, fromDate, toDate);
 		}
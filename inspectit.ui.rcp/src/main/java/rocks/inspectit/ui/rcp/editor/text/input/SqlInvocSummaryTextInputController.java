@@ -83,6 +83,11 @@ public class SqlInvocSummaryTextInputController extends AbstractTextInputControl
 	 */
 	private static final String TOTAL_SQLS = "Total SQLs:";
 
+	/**
+	 * Note displayed when only a part of the invocation is loaded.
+	 */
+	private static final String PARTIAL_INVOCATION = "(only the loaded part of the invocation)";
+
 	/**
 	 * Reset link to be added to the slowest 80/20 count when selection is active.
 	 */
@@ -163,6 +168,12 @@ public class SqlInvocSummaryTextInputController extends AbstractTextInputControl
 	 */
 	private boolean resetDisplayed;
 
+	/**
+	 * If the displayed invocations are truncated, thus the SQLs are collected only from the loaded
+	 * part of the invocation.
+	 */
+	private boolean truncated;
+
 	static {
 		Display display = Display.getDefault();
 		GREEN_RGB = display.getSystemColor(SWT.COLOR_DARK_GREEN).getRGB();
@@ -228,8 +239,11 @@ public class SqlInvocSummaryTextInputController extends AbstractTextInputControl
 		if (CollectionUtils.isNotEmpty(data)) {
 			Object object = data.get(0);
 			if (object instanceof InvocationSequenceData) {
+				// resetting the 80/20 selection displays the same invocations again
+				truncated = truncated && data.equals(sourceInvocations);
 				updateRepresentation((List<InvocationSequenceData>) data);
 			} else if (object instanceof InvocationTreeElement) {
+				truncated = InvocationTreeUtil.isTruncated((InvocationTreeElement) object);
 				updateRepresentation(InvocationTreeUtil.getInvocationSequences((InvocationTreeElement) object));
 			}
 		} else {
@@ -262,7 +276,11 @@ public class SqlInvocSummaryTextInputController extends AbstractTextInputControl
 		int slowest20 = sqlList.size() - slowest80;
 		slowest20List = CollectionUtils.subtract(sqlList, slowest80List);
 
-		totalSql.setText("<form><p><b>" + TOTAL_SQLS + "</b> " + sqlList.size() + "</p></form>", true, false);
+		if (truncated) {
+			totalSql.setText("<form><p><b>" + TOTAL_SQLS + "</b> " + sqlList.size() + " " + PARTIAL_INVOCATION + "</p></form>", true, false);
+		} else {
+			totalSql.setText("<form><p><b>" + TOTAL_SQLS + "</b> " + sqlList.size() + "</p></form>", true, false);
+		}
 		totalDuration.setText("<form><p><b>" + TOTAL_DURATION + "</b> " + NumberFormatter.formatDouble(duration.doubleValue()) + " ms</p></form>", true, false);
 
 		String formatedPercentage = NumberFormatter.formatDouble(percentage, 1);
@@ -359,6 +377,7 @@ public class SqlInvocSummaryTextInputController extends AbstractTextInputControl
 	 */
 	private void setDefaultText() {
 		resetDisplayed = false;
+		truncated = false;
 		totalSql.setText("<form><p><b>" + TOTAL_SQLS + "</b></p></form>", true, false);
 		totalDuration.setText("<form><p><b>" + TOTAL_DURATION + "</b></p></form>", true, false);
 		percentageOfDuration.setText("<form><p><b>" + SQLS_DURATION_IN_INVOCATION + "</b></p></form>", true, false);
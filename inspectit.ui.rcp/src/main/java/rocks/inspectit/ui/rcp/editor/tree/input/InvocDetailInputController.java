@@ -291,7 +291,14 @@ public class InvocDetailInputController extends AbstractTreeInputController {
 				InvocationSequenceData data = (InvocationSequenceData) element;
 				MethodIdent methodIdent = cachedDataService.getMethodIdentForId(data.getMethodIdent());
 
-				return getStyledTextForColumn(data, methodIdent, enumId);
+				StyledString styledString = getStyledTextForColumn(data, methodIdent, enumId);
+				if (enumId == Column.ELEMENT) {
+					InvocationTreeElement treeElement = InvocationTreeUtil.lookupTreeElement(contentProvider.getLookupMap(), data);
+					if ((null != treeElement) && treeElement.isTruncated()) {
+						styledString.append(" [not all nested calls loaded]", StyledString.DECORATIONS_STYLER);
+					}
+				}
+				return styledString;
 			} else if (element instanceof Span) {
 				return getStyledTextForColumn((Span) element, enumId);
 			} else if (element instanceof SpanIdent) {
@@ -35,12 +35,14 @@ import org.eclipse.ui.PlatformUI;
 import rocks.inspectit.shared.all.cmr.service.ICachedDataService;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.ISqlDataAccessService;
 import rocks.inspectit.shared.cs.communication.comparator.IDataComparator;
 import rocks.inspectit.shared.cs.communication.comparator.InvocationAwareDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
 import rocks.inspectit.shared.cs.communication.comparator.SqlStatementDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.TimerDataComparatorEnum;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
 import rocks.inspectit.ui.rcp.InspectIT;
 import rocks.inspectit.ui.rcp.InspectITImages;
 import rocks.inspectit.ui.rcp.editor.inputdefinition.InputDefinition;
@@ -60,6 +62,7 @@ import rocks.inspectit.ui.rcp.preferences.PreferencesConstants;
 import rocks.inspectit.ui.rcp.preferences.PreferencesUtils;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
 import rocks.inspectit.ui.rcp.util.data.DatabaseInfoHelper;
+import rocks.inspectit.ui.rcp.util.data.IncrementalDataCursor;
 
 /**
  * This input controller displays the contents of {@link SqlStatementData} objects.
@@ -192,6 +195,12 @@ public class SqlInputController extends AbstractTreeInputController {
 	 */
 	private int timeDecimalPlaces = PreferencesUtils.getIntValue(PreferencesConstants.DECIMAL_PLACES);
 
+	/**
+	 * Cursor of the data loaded in the live mode, so that only the new SQL statements are loaded
+	 * and aggregated on refresh.
+	 */
+	private final IncrementalDataCursor incrementalDataCursor = new IncrementalDataCursor();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -303,8 +312,12 @@ public class SqlInputController extends AbstractTreeInputController {
 		case LIVEMODE:
 			if (preferenceEvent.getPreferenceMap().containsKey(PreferenceId.LiveMode.BUTTON_LIVE_ID)) {
 				autoUpdate = (Boolean) preferenceEvent.getPreferenceMap().get(PreferenceId.LiveMode.BUTTON_LIVE_ID);
+				incrementalDataCursor.reset();
 			}
 			break;
+		case CLEAR_BUFFER:
+			incrementalDataCursor.reset();
+			break;
 		case TIME_RESOLUTION:
 			if (preferenceEvent.getPreferenceMap().containsKey(PreferenceId.TimeResolution.TIME_DECIMAL_PLACES_ID)) {
 				timeDecimalPlaces = (Integer) preferenceEvent.getPreferenceMap().get(PreferenceId.TimeResolution.TIME_DECIMAL_PLACES_ID);
@@ -338,7 +351,16 @@ public class SqlInputController extends AbstractTreeInputController {
 		monitor.beginTask("Getting SQL information", IProgressMonitor.UNKNOWN);
 		List<SqlStatementData> sqlStatementList;
 		if (autoUpdate) {
-			sqlStatementList = dataAccessService.getAggregatedSqlStatements(template);
+			IncrementalQueryResult<SqlStatementData> result = dataAccessService.getAggregatedSqlStatementsSince(template, incrementalDataCursor.getSinceId());
+			if (incrementalDataCursor.update(result)) {
+				sqlStatementList = result.getData();
+			} else {
+				List<SqlStatementData> displayed = new ArrayList<>();
+				for (List<SqlStatementData> datas : inputMap.values()) {
+					displayed.addAll(datas);
+				}
+				sqlStatementList = IncrementalDataCursor.aggregate(displayed, result.getData(), Aggregators.SQL_STATEMENT_DATA_AGGREGATOR);
+			}
 		} else {
 			sqlStatementList = dataAccessService.getAggregatedSqlStatements(template, fromDate, toDate);
 		}
@@ -66,6 +66,11 @@ public class SqlInvocInputController extends AbstractTreeInputController {
 	 */
 	public static final String ID = "inspectit.subview.tree.sqlinvoc";
 
+	/**
+	 * Note added to the column header when only a part of the invocation is loaded.
+	 */
+	private static final String PARTIAL_INVOCATION = "(only the loaded part of the invocation)";
+
 	/**
 	 * The private inner enumeration used to define the used IDs which are mapped into the columns.
 	 * The order in this enumeration represents the order of the columns. If it is reordered,
@@ -271,6 +276,24 @@ public class SqlInvocInputController extends AbstractTreeInputController {
 		}
 	}
 
+	/**
+	 * Marks the header of the {@link Column#STATEMENT} column when the SQL statements are collected
+	 * only from the loaded part of a truncated invocation.
+	 *
+	 * @param truncated
+	 *            If the displayed invocation is truncated.
+	 */
+	private void markTruncated(boolean truncated) {
+		TreeViewerColumn viewerColumn = getMappedTreeViewerColumn(Column.STATEMENT);
+		if (null != viewerColumn) {
+			if (truncated) {
+				viewerColumn.getColumn().setText(Column.STATEMENT.name + " " + PARTIAL_INVOCATION);
+			} else {
+				viewerColumn.getColumn().setText(Column.STATEMENT.name);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -365,9 +388,11 @@ public class SqlInvocInputController extends AbstractTreeInputController {
 			}
 
 			if (input.get(0) instanceof InvocationSequenceData) {
+				markTruncated(false);
 				sqlStatementDataList = getRawInputList((List<InvocationSequenceData>) input, new ArrayList<SqlStatementData>());
 			} else if (input.get(0) instanceof InvocationTreeElement) {
 				InvocationTreeElement tree = (InvocationTreeElement) input.get(0);
+				markTruncated(InvocationTreeUtil.isTruncated(tree));
 				sqlStatementDataList = getRawInputList(InvocationTreeUtil.getInvocationSequences(tree), new ArrayList<SqlStatementData>());
 			} else {
 				sqlStatementDataList = (List<SqlStatementData>) input;
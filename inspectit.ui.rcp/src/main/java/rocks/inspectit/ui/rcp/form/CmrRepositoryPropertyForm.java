@@ -102,6 +102,7 @@ public class CmrRepositoryPropertyForm extends AbstractPropertyForm {
 	private ProgressBar spaceLeftBar; // NOCHK
 	private Label uptimeLabel; // NOCHK
 	private Label databaseSizeLabel; // NOCHK
+	private Label networkCompressionLabel; // NOCHK
 
 	/**
 	 * Map containing the labels of the external services.
@@ -180,6 +181,10 @@ public class CmrRepositoryPropertyForm extends AbstractPropertyForm {
 		databaseSizeLabel = toolkit.createLabel(generalComposite, null, SWT.WRAP);
 		databaseSizeLabel.setToolTipText("Current size of the database on the CMR");
 
+		toolkit.createLabel(generalComposite, "Network compression:");
+		networkCompressionLabel = toolkit.createLabel(generalComposite, null, SWT.WRAP);
+		networkCompressionLabel.setToolTipText("Compression of the data exchanged with the agents: compressed size compared to the original size and the time spent in compression");
+
 		generalSection.setClient(generalComposite);
 		generalSection.setLayout(new TableWrapLayout());
 		generalSection.setLayoutData(new TableWrapData(TableWrapData.FILL_GRAB));
@@ -472,6 +477,17 @@ public class CmrRepositoryPropertyForm extends AbstractPropertyForm {
 				databaseSizeLabel.setText("n/a");
 			}
 
+			// network compression info
+			if (cmrStatusData.getNetworkCompressedFrames() > 0) {
+				StringBuilder compressionText = new StringBuilder(NumberFormatter.formatDoubleToPercent(cmrStatusData.getNetworkCompressionRatio()));
+				compressionText.append(" of original size (");
+				compressionText.append(NumberFormatter.humanReadableMillisCount(cmrStatusData.getNetworkCompressionTime(), true));
+				compressionText.append(" spent)");
+				networkCompressionLabel.setText(compressionText.toString());
+			} else {
+				networkCompressionLabel.setText("n/a");
+			}
+
 			// external services
 			for (Entry<ExternalServiceType, Pair<Label, Label>> serviceEntry : externalServiceLabelMap.entrySet()) {
 				ExternalServiceStatus serviceStatus = cmrStatusData.getExternalServiceStatusMap().get(serviceEntry.getKey());
@@ -506,6 +522,7 @@ public class CmrRepositoryPropertyForm extends AbstractPropertyForm {
 			spaceLeftLabel.setText("");
 			uptimeLabel.setText("");
 			databaseSizeLabel.setText("");
+			networkCompressionLabel.setText("");
 
 			form.setImage(InspectIT.getDefault().getImage(InspectITImages.IMG_SERVER_OFFLINE_SMALL));
 
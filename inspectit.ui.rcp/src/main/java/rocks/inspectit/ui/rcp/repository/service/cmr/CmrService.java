@@ -2,7 +2,7 @@ package rocks.inspectit.ui.rcp.repository.service.cmr;
 
 import org.springframework.remoting.httpinvoker.HttpInvokerProxyFactoryBean;
 
-import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
 
 /**
@@ -44,9 +44,9 @@ public class CmrService implements ICmrService {
 	private String serviceName;
 
 	/**
-	 * The serialization manager for kryo.
+	 * The shared pool of the serialization managers for kryo.
 	 */
-	private SerializationManagerProvider serializationManagerProvider;
+	private SerializationManagerPool serializationManagerPool;
 
 	/**
 	 * Defines if the default value should be returned when communication errors occurs in the
@@ -70,7 +70,7 @@ public class CmrService implements ICmrService {
 		// using kryo (de-)serialization for the requests and responses
 		KryoSimpleHttpInvokerRequestExecutor kryoSimpleHttpInvokerRequestExecutor = new KryoSimpleHttpInvokerRequestExecutor();
 		kryoSimpleHttpInvokerRequestExecutor.setBeanClassLoader(getClass().getClassLoader());
-		kryoSimpleHttpInvokerRequestExecutor.setSerializationManagerProvider(serializationManagerProvider);
+		kryoSimpleHttpInvokerRequestExecutor.setSerializationManagerPool(serializationManagerPool);
 		httpInvokerProxyFactoryBean.setHttpInvokerRequestExecutor(kryoSimpleHttpInvokerRequestExecutor);
 
 		httpInvokerProxyFactoryBean.setServiceInterface(serviceInterface);
@@ -126,13 +126,13 @@ public class CmrService implements ICmrService {
 	}
 
 	/**
-	 * Sets {@link #serializationManagerProvider}.
+	 * Sets {@link #serializationManagerPool}.
 	 *
-	 * @param serializationManagerProvider
-	 *            New value for {@link #serializationManagerProvider}
+	 * @param serializationManagerPool
+	 *            New value for {@link #serializationManagerPool}
 	 */
-	public void setSerializationManagerProvider(SerializationManagerProvider serializationManagerProvider) {
-		this.serializationManagerProvider = serializationManagerProvider;
+	public void setSerializationManagerPool(SerializationManagerPool serializationManagerPool) {
+		this.serializationManagerPool = serializationManagerPool;
 	}
 
 	/**
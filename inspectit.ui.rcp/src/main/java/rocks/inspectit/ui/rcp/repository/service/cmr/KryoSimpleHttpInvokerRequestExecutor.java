@@ -11,9 +11,8 @@ import org.springframework.remoting.support.RemoteInvocationResult;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
-import rocks.inspectit.shared.all.serializer.ISerializer;
 import rocks.inspectit.shared.all.serializer.SerializationException;
-import rocks.inspectit.shared.all.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.serializer.provider.SerializationManagerPool;
 import rocks.inspectit.ui.rcp.InspectIT;
 
 /**
@@ -25,9 +24,9 @@ import rocks.inspectit.ui.rcp.InspectIT;
 public class KryoSimpleHttpInvokerRequestExecutor extends SimpleHttpInvokerRequestExecutor {
 
 	/**
-	 * The serialization manager provider.
+	 * The shared pool of the serialization managers.
 	 */
-	private SerializationManagerProvider serializationManagerProvider;
+	private SerializationManagerPool serializationManagerPool;
 
 	/**
 	 * {@inheritDoc}
@@ -35,8 +34,7 @@ public class KryoSimpleHttpInvokerRequestExecutor extends SimpleHttpInvokerReque
 	@Override
 	protected void writeRemoteInvocation(RemoteInvocation invocation, OutputStream os) throws IOException {
 		try (Output output = new Output(os)) {
-			ISerializer serializer = serializationManagerProvider.createSerializer();
-			serializer.serialize(invocation, output);
+			serializationManagerPool.serialize(invocation, output);
 		} catch (SerializationException e) {
 			InspectIT.getDefault().createErrorDialog(e.getMessage(), e, -1);
 			throw new IOException(e);
@@ -49,8 +47,7 @@ public class KryoSimpleHttpInvokerRequestExecutor extends SimpleHttpInvokerReque
 	@Override
 	protected RemoteInvocationResult readRemoteInvocationResult(InputStream is, String codebaseUrl) throws IOException, ClassNotFoundException {
 		try (Input input = new Input(is)) {
-			ISerializer serializer = serializationManagerProvider.createSerializer();
-			return (RemoteInvocationResult) serializer.deserialize(input);
+			return (RemoteInvocationResult) serializationManagerPool.deserialize(input);
 		} catch (SerializationException e) {
 			InspectIT.getDefault().createErrorDialog(e.getMessage(), e, -1);
 			throw new IOException(e);
@@ -58,22 +55,22 @@ public class KryoSimpleHttpInvokerRequestExecutor extends SimpleHttpInvokerReque
 	}
 
 	/**
-	 * Gets {@link #serializationManagerProvider}.
+	 * Gets {@link #serializationManagerPool}.
 	 *
-	 * @return {@link #serializationManagerProvider}
+	 * @return {@link #serializationManagerPool}
 	 */
-	public SerializationManagerProvider getSerializationManagerProvider() {
-		return serializationManagerProvider;
+	public SerializationManagerPool getSerializationManagerPool() {
+		return serializationManagerPool;
 	}
 
 	/**
-	 * Sets {@link #serializationManagerProvider}.
+	 * Sets {@link #serializationManagerPool}.
 	 *
-	 * @param serializationManagerProvider
-	 *            New value for {@link #serializationManagerProvider}
+	 * @param serializationManagerPool
+	 *            New value for {@link #serializationManagerPool}
 	 */
-	public void setSerializationManagerProvider(SerializationManagerProvider serializationManagerProvider) {
-		this.serializationManagerProvider = serializationManagerProvider;
+	public void setSerializationManagerPool(SerializationManagerPool serializationManagerPool) {
+		this.serializationManagerPool = serializationManagerPool;
 	}
 
 }
@@ -1,14 +1,21 @@
 package rocks.inspectit.ui.rcp.repository.service.storage;
 
 import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.eclipse.core.runtime.IStatus;
 
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.serializer.SerializationException;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
@@ -19,8 +26,10 @@ import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
 import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.shared.cs.storage.util.RollupResolution;
 import rocks.inspectit.ui.rcp.InspectIT;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
+import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition.OnlineStatus;
 import rocks.inspectit.ui.rcp.repository.StorageRepositoryDefinition;
 import rocks.inspectit.ui.rcp.storage.util.DataRetriever;
 
@@ -39,6 +48,25 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 */
 	private static final int MAX_QUERY_SIZE = 1024 * 1024 * 10;
 
+	/**
+	 * Minimum amount of rollup buckets the interval must contain so that the chart data is loaded
+	 * from the rollup of this resolution.
+	 */
+	private static final int MIN_CHART_ROLLUP_BUCKETS = 120;
+
+	/**
+	 * Last ID reported to the incremental queries. The storage data never changes, thus the
+	 * complete result is only returned to the queries not passing this ID and the other queries
+	 * get no new data.
+	 */
+	protected static final long STORAGE_LAST_ID = 1L;
+
+	/**
+	 * Hashes of the rollup files that do not exist for the storage, so that we don't try to load
+	 * them again.
+	 */
+	private final Set<Integer> missingRollups = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>(16, 0.75f, 1));
+
 	/**
 	 * Storage repository definition.
 	 */
@@ -205,7 +233,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 
 				if (null == returnList) {
 					// if not we load data regular way
-					returnList = loadData(storageIndexQuery, aggregator);
+					returnList = loadData(storageIndexQuery, aggregator, -1);
 
 					// and cache it on the CMR if we get something
 					if (CollectionUtils.isNotEmpty(returnList)) {
@@ -221,7 +249,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 
 				if (null == returnList) {
 					// if not we load data regular way
-					returnList = loadData(storageIndexQuery, aggregator);
+					returnList = loadData(storageIndexQuery, aggregator, -1);
 
 					// and cache it locally if we get something
 					if (CollectionUtils.isNotEmpty(returnList)) {
@@ -230,7 +258,9 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 				}
 			}
 		} else {
-			returnList = loadData(storageIndexQuery, aggregator);
+			// limit can be pushed to the loading only if the results are not sorted afterwards
+			int loadLimit = (null == comparator) ? limit : -1;
+			returnList = loadData(storageIndexQuery, aggregator, loadLimit);
 		}
 
 		// sort if needed
@@ -246,6 +276,258 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 		return returnList;
 	}
 
+	/**
+	 * Executes the aggregation query with the time interval using the rollups created when the
+	 * storage was written. The interval is covered with the buckets of the coarsest possible
+	 * rollups, while the parts of the interval not aligned with the rollup buckets are loaded the
+	 * regular way. Thus, the result is the same as the result of
+	 * {@link #executeQuery(StorageIndexQuery, IAggregator)}, but only the edges of the interval
+	 * are loaded from the raw data.
+	 * <p>
+	 * The caller must ensure that the rollup data created with the rollup aggregator can be
+	 * aggregated with the given aggregator and that all restrictions of the query refer to the
+	 * fields kept in the rollup data. If the query has no interval set, no platform ident or the
+	 * storage has no rollups, the query is executed the regular way.
+	 *
+	 * @param storageIndexQuery
+	 *            Query.
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @param aggregator
+	 *            {@link IAggregator}, must not be <code>null</code>.
+	 * @return Return results of a query.
+	 */
+	protected List<E> executeRollupQuery(StorageIndexQuery storageIndexQuery, Class<?> rollupClass, IAggregator<E> aggregator) {
+		if (!isRollupQuery(storageIndexQuery)) {
+			return executeQuery(storageIndexQuery, aggregator);
+		}
+
+		Timestamp fromDate = storageIndexQuery.getFromDate();
+		Timestamp toDate = storageIndexQuery.getToDate();
+		AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<>(aggregator);
+		Map<Integer, List<E>> loadedPartitions = new HashMap<>();
+		try {
+			aggregateInterval(storageIndexQuery, rollupClass, aggregator, fromDate.getTime(), toDate.getTime(), RollupResolution.values().length - 1, aggregationPerformer, loadedPartitions);
+		} finally {
+			storageIndexQuery.setFromDate(fromDate);
+			storageIndexQuery.setToDate(toDate);
+		}
+		return aggregationPerformer.getResultList();
+	}
+
+	/**
+	 * Returns the data for the charts from the rollup of the coarsest resolution that still has at
+	 * least {@value #MIN_CHART_ROLLUP_BUCKETS} buckets in the query interval. Each returned element
+	 * holds the aggregated data of one bucket and has the bucket start as timestamp.
+	 *
+	 * @param storageIndexQuery
+	 *            Query.
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @return Rollup data sorted by timestamp or <code>null</code> if the data can not be provided
+	 *         from the rollups and has to be loaded the regular way.
+	 */
+	protected List<E> getChartRollupData(StorageIndexQuery storageIndexQuery, Class<?> rollupClass) {
+		if (!isRollupQuery(storageIndexQuery)) {
+			return null;
+		}
+
+		long from = storageIndexQuery.getFromDate().getTime();
+		long to = storageIndexQuery.getToDate().getTime();
+		RollupResolution[] resolutions = RollupResolution.values();
+		for (int i = resolutions.length - 1; i >= 0; i--) {
+			RollupResolution resolution = resolutions[i];
+			if (((to - from) / resolution.getMillis()) < MIN_CHART_ROLLUP_BUCKETS) {
+				continue;
+			}
+
+			List<E> returnList = new ArrayList<>();
+			for (E element : loadRollup(rollupClass, storageIndexQuery.getPlatformIdent(), resolution, from, to + 1, new HashMap<Integer, List<E>>())) {
+				if (isRollupElementComplied(element, storageIndexQuery, from, to)) {
+					returnList.add(element);
+				}
+			}
+			Collections.sort(returnList, new Comparator<E>() {
+				@Override
+				public int compare(E o1, E o2) {
+					return o1.getTimeStamp().compareTo(o2.getTimeStamp());
+				}
+			});
+			return returnList;
+		}
+		return null;
+	}
+
+	/**
+	 * Aggregates the data of the interval with the rollups of the given and finer resolutions.
+	 * The parts of the interval that can not be covered by the finest rollup are loaded the
+	 * regular way.
+	 *
+	 * @param storageIndexQuery
+	 *            Query. Note that the interval of the query is changed.
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @param aggregator
+	 *            {@link IAggregator}
+	 * @param from
+	 *            Interval start, inclusive.
+	 * @param to
+	 *            Interval end, inclusive.
+	 * @param resolutionIndex
+	 *            Index of the coarsest resolution to use in {@link RollupResolution#values()}.
+	 * @param aggregationPerformer
+	 *            Performer to aggregate the data with.
+	 * @param loadedPartitions
+	 *            Already loaded rollup partitions mapped by the hash.
+	 */
+	private void aggregateInterval(StorageIndexQuery storageIndexQuery, Class<?> rollupClass, IAggregator<E> aggregator, long from, long to, int resolutionIndex,
+			AggregationPerformer<E> aggregationPerformer, Map<Integer, List<E>> loadedPartitions) {
+		if (from > to) {
+			return;
+		}
+
+		if (resolutionIndex < 0) {
+			storageIndexQuery.setFromDate(new Timestamp(from));
+			storageIndexQuery.setToDate(new Timestamp(to));
+			aggregationPerformer.processCollection(loadData(storageIndexQuery, aggregator, -1));
+			return;
+		}
+
+		RollupResolution resolution = RollupResolution.values()[resolutionIndex];
+		// first and last bucket completely in the interval
+		long start = resolution.getBucketStart((from + resolution.getMillis()) - 1);
+		long end = resolution.getBucketStart(to + 1);
+		if (start >= end) {
+			aggregateInterval(storageIndexQuery, rollupClass, aggregator, from, to, resolutionIndex - 1, aggregationPerformer, loadedPartitions);
+			return;
+		}
+
+		for (E element : loadRollup(rollupClass, storageIndexQuery.getPlatformIdent(), resolution, start, end, loadedPartitions)) {
+			if (isRollupElementComplied(element, storageIndexQuery, start, end - 1)) {
+				aggregationPerformer.processElement(element);
+			}
+		}
+		aggregateInterval(storageIndexQuery, rollupClass, aggregator, from, start - 1, resolutionIndex - 1, aggregationPerformer, loadedPartitions);
+		aggregateInterval(storageIndexQuery, rollupClass, aggregator, end, to, resolutionIndex - 1, aggregationPerformer, loadedPartitions);
+	}
+
+	/**
+	 * Returns if the query can be answered with the rollups.
+	 *
+	 * @param storageIndexQuery
+	 *            Query.
+	 * @return <code>true</code> if the storage has the rollups available and the query has both
+	 *         dates and platform ident set.
+	 */
+	private boolean isRollupQuery(StorageIndexQuery storageIndexQuery) {
+		return localStorageData.isRollupsAvailable() && (0 != storageIndexQuery.getPlatformIdent()) && (null != storageIndexQuery.getFromDate())
+				&& (null != storageIndexQuery.getToDate()) && !storageIndexQuery.getFromDate().after(storageIndexQuery.getToDate());
+	}
+
+	/**
+	 * Checks if the rollup element complies the query in the given interval. The object classes of
+	 * the query are not checked as the rollup elements are always aggregated objects.
+	 *
+	 * @param element
+	 *            Rollup element.
+	 * @param storageIndexQuery
+	 *            Query.
+	 * @param from
+	 *            Interval start, inclusive.
+	 * @param to
+	 *            Interval end, inclusive.
+	 * @return <code>true</code> if element complies the query.
+	 */
+	private boolean isRollupElementComplied(E element, StorageIndexQuery storageIndexQuery, long from, long to) {
+		long time = element.getTimeStamp().getTime();
+		if ((time < from) || (time > to)) {
+			return false;
+		}
+		if ((0 != storageIndexQuery.getSensorTypeIdent()) && (storageIndexQuery.getSensorTypeIdent() != element.getSensorTypeIdent())) {
+			return false;
+		}
+		if ((0 != storageIndexQuery.getMethodIdent()) && (!(element instanceof MethodSensorData) || (storageIndexQuery.getMethodIdent() != ((MethodSensorData) element).getMethodIdent()))) {
+			return false;
+		}
+		return storageIndexQuery.areAllRestrictionsFulfilled(element);
+	}
+
+	/**
+	 * Loads all rollup partitions of the resolution that overlap the given interval.
+	 *
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @param platformIdent
+	 *            Platform ident.
+	 * @param resolution
+	 *            Resolution.
+	 * @param from
+	 *            Interval start, inclusive.
+	 * @param to
+	 *            Interval end, exclusive.
+	 * @param loadedPartitions
+	 *            Already loaded partitions mapped by the hash.
+	 * @return Data of all partitions. Partitions that do not exist contain no data.
+	 */
+	private List<E> loadRollup(Class<?> rollupClass, long platformIdent, RollupResolution resolution, long from, long to, Map<Integer, List<E>> loadedPartitions) {
+		List<E> rollup = new ArrayList<>();
+		long partitionStart = resolution.getPartitionStart(from);
+		while (partitionStart < to) {
+			Integer hash = Integer.valueOf(storageManager.getRollupDataHash(rollupClass, platformIdent, resolution, partitionStart));
+			List<E> partition;
+			if (loadedPartitions.containsKey(hash)) {
+				partition = loadedPartitions.get(hash);
+			} else {
+				partition = loadRollupPartition(rollupClass, platformIdent, resolution, partitionStart);
+				loadedPartitions.put(hash, partition);
+			}
+			if (null != partition) {
+				rollup.addAll(partition);
+			}
+			if (0 == resolution.getPartitionMillis()) {
+				break;
+			}
+			partitionStart += resolution.getPartitionMillis();
+		}
+		return rollup;
+	}
+
+	/**
+	 * Loads one rollup partition from the cached data of the storage.
+	 *
+	 * @param rollupClass
+	 *            Class that identifies the rollup.
+	 * @param platformIdent
+	 *            Platform ident.
+	 * @param resolution
+	 *            Resolution.
+	 * @param partitionStart
+	 *            Start of the partition.
+	 * @return Partition data or <code>null</code> if the partition does not exist.
+	 */
+	private List<E> loadRollupPartition(Class<?> rollupClass, long platformIdent, RollupResolution resolution, long partitionStart) {
+		int hash = storageManager.getRollupDataHash(rollupClass, platformIdent, resolution, partitionStart);
+		if (missingRollups.contains(hash)) {
+			return null;
+		}
+
+		List<E> partition = null;
+		try {
+			if (!localStorageData.isFullyDownloaded()) {
+				partition = dataRetriever.getCachedDataViaHttp(getCmrRepositoryDefinition(), new StorageData(localStorageData), hash);
+			} else {
+				partition = dataRetriever.getCachedDataLocally(localStorageData, hash);
+			}
+		} catch (BusinessException | IOException | SerializationException e) { // NOPMD NOCHK
+			// ignore, treated as not existing
+		}
+
+		if (null == partition) {
+			missingRollups.add(hash);
+		}
+		return partition;
+	}
+
 	/**
 	 * Caches result set on the CMR for the given storage under given hash.
 	 *
@@ -290,6 +572,10 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 * {@link IAggregator} is provided. If the {@link IAggregator} is not provided, the data will be
 	 * returned not aggregated.
 	 * <P>
+	 * If the storage is not downloaded, the query is first executed on the CMR, so that only the
+	 * results are transferred. Only if this is not possible the data described by the storage index
+	 * is loaded via HTTP and filtered here.
+	 * <P>
 	 * This method should be used by all subclasses, because it guards against massive data loading
 	 * that can make out of memory exceptions on the UI.
 	 *
@@ -297,9 +583,20 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 *            Query.
 	 * @param aggregator
 	 *            {@link IAggregator}
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 *            The limit is only passed to the CMR, the caller is responsible for limiting the
+	 *            returned list.
 	 * @return Return results of a query.
 	 */
-	private List<E> loadData(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator) {
+	private List<E> loadData(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator, int limit) {
+		if (!localStorageData.isFullyDownloaded()) {
+			List<E> cmrResults = loadDataOnCmr(storageIndexQuery, aggregator, limit);
+			if (null != cmrResults) {
+				return cmrResults;
+			}
+		}
+
 		List<IStorageDescriptor> descriptors = getIndexingTree().query(storageIndexQuery);
 		// sort the descriptors to optimize the number of read operations
 		Collections.sort(descriptors, new Comparator<IStorageDescriptor>() {
@@ -381,6 +678,32 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 		return returnList;
 	}
 
+	/**
+	 * Executes the query on the CMR where the storage is located.
+	 *
+	 * @param storageIndexQuery
+	 *            Query.
+	 * @param aggregator
+	 *            {@link IAggregator}
+	 * @param limit
+	 *            Limit the number of results by given number. Value <code>-1</code> means no limit.
+	 * @return Results of the query or <code>null</code> if the query can not be executed on the
+	 *         CMR.
+	 */
+	private List<E> loadDataOnCmr(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator, int limit) {
+		CmrRepositoryDefinition cmrRepositoryDefinition = getCmrRepositoryDefinition();
+		if ((null == cmrRepositoryDefinition) || (cmrRepositoryDefinition.getOnlineStatus() == OnlineStatus.OFFLINE)) {
+			return null;
+		}
+		try {
+			return cmrRepositoryDefinition.getStorageService().executeQuery(new StorageData(localStorageData), storageIndexQuery, aggregator, limit);
+		} catch (Exception e) { // NOPMD NOCHK
+			// CMR might not support the query execution, we can still load data via HTTP
+			InspectIT.getDefault().log(IStatus.WARNING, "Query execution on the CMR failed for the storage '" + localStorageData.getName() + "', data will be loaded via HTTP.", e);
+			return null;
+		}
+	}
+
 	/**
 	 * This utility method is used to create a list of elements that pass all the restrictions in
 	 * the {@link StorageIndexQuery}.
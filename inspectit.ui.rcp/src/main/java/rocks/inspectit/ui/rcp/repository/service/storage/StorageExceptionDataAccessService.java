@@ -98,7 +98,7 @@ public class StorageExceptionDataAccessService extends AbstractStorageService<Ex
 	@Override
 	public List<AggregatedExceptionSensorData> getDataForGroupedExceptionOverview(ExceptionSensorData template, Date fromDate, Date toDate) {
 		StorageIndexQuery query = exceptionSensorDataQueryFactory.getDataForGroupedExceptionOverviewQuery(template, fromDate, toDate);
-		List<ExceptionSensorData> resultList = super.executeQuery(query, Aggregators.GROUP_EXCEPTION_OVERVIEW_AGGREGATOR);
+		List<ExceptionSensorData> resultList = super.executeRollupQuery(query, ExceptionSensorData.class, Aggregators.GROUP_EXCEPTION_OVERVIEW_AGGREGATOR);
 		List<AggregatedExceptionSensorData> filterList = new ArrayList<>(resultList.size());
 		for (ExceptionSensorData data : resultList) {
 			if (data instanceof AggregatedExceptionSensorData) {
@@ -13,12 +13,17 @@ import java.util.Map;
 
 import org.apache.commons.collections.CollectionUtils;
 
+import rocks.inspectit.shared.all.cmr.model.JmxDefinitionDataIdent;
+import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
 import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.communication.data.cmr.AgentStatusData;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
+import rocks.inspectit.shared.all.communication.data.cmr.MethodOverheadData;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.exception.enumeration.AgentManagementErrorCodeEnum;
 import rocks.inspectit.shared.cs.cmr.service.IGlobalDataAccessService;
@@ -36,6 +41,11 @@ import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
  */
 public class StorageGlobalDataAccessService extends AbstractStorageService<DefaultData> implements IGlobalDataAccessService {
 
+	/**
+	 * Version of the agent trees in the Storage.
+	 */
+	private static final long AGENT_TREE_VERSION = 1L;
+
 	/**
 	 * List of agents.
 	 */
@@ -76,6 +86,19 @@ public class StorageGlobalDataAccessService extends AbstractStorageService<Defau
 		throw new BusinessException("Load the agent with the ID=" + id + ".", AgentManagementErrorCodeEnum.AGENT_DOES_NOT_EXIST);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Agents in the Storage never change, thus the tree has always the same version.
+	 */
+	@Override
+	public AgentTreeDelta getAgentTreeChanges(long id, long sinceVersion) throws BusinessException {
+		if (AGENT_TREE_VERSION == sinceVersion) {
+			return new AgentTreeDelta(id, AGENT_TREE_VERSION, Collections.<MethodIdent> emptyList(), Collections.<JmxDefinitionDataIdent> emptyList());
+		}
+		return new AgentTreeDelta(id, AGENT_TREE_VERSION, getCompleteAgent(id));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -85,6 +108,16 @@ public class StorageGlobalDataAccessService extends AbstractStorageService<Defau
 	public void deleteAgent(long platformId) throws BusinessException {
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Method overhead is not saved to the Storage.
+	 */
+	@Override
+	public List<MethodOverheadData> getMethodOverhead(long platformId) {
+		return Collections.emptyList();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -219,6 +252,14 @@ public class StorageGlobalDataAccessService extends AbstractStorageService<Defau
 			query.addIndexingRestriction(IndexQueryRestrictionFactory.equal("jmxSensorDefinitionDataIdentId", ((JmxSensorValueData) template).getJmxSensorDefinitionDataIdentId()));
 		}
 
+		// charts over long intervals can be served from the rollups of the storage
+		if (template instanceof TimerData) {
+			List<DefaultData> rollupData = super.getChartRollupData(query, template.getClass());
+			if (null != rollupData) {
+				return rollupData;
+			}
+		}
+
 		List<DefaultData> returnList = super.executeQuery(query);
 		Collections.sort(returnList, new Comparator<DefaultData>() {
 
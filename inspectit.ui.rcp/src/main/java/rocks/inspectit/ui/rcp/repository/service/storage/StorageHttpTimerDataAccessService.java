@@ -65,7 +65,7 @@ public class StorageHttpTimerDataAccessService extends AbstractStorageService<Ht
 	@Override
 	public List<HttpTimerData> getAggregatedTimerData(HttpTimerData httpData, boolean includeRequestMethod, Date fromDate, Date toDate) {
 		StorageIndexQuery query = httpDataQueryFactory.getFindAllHttpTimersQuery(httpData, fromDate, toDate);
-		return super.executeQuery(query, new HttpTimerDataAggregator(true, includeRequestMethod));
+		return super.executeRollupQuery(query, HttpTimerData.class, new HttpTimerDataAggregator(true, includeRequestMethod));
 	}
 
 	/**
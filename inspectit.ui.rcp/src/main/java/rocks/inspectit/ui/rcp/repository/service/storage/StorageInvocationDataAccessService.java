@@ -2,14 +2,21 @@ package rocks.inspectit.ui.rcp.repository.service.storage;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.cs.cmr.service.IInvocationDataAccessService;
 import rocks.inspectit.shared.cs.communication.comparator.DefaultDataComparatorEnum;
 import rocks.inspectit.shared.cs.communication.comparator.ResultComparator;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequenceNode;
+import rocks.inspectit.shared.cs.data.invocationtree.InvocationSequencePager;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.InvocationSequenceDataQueryFactory;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
 import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
@@ -22,6 +29,11 @@ import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexQuery;
  */
 public class StorageInvocationDataAccessService extends AbstractStorageService<InvocationSequenceData> implements IInvocationDataAccessService {
 
+	/**
+	 * Maximum amount of invocation elements summarized by all cached pagers.
+	 */
+	private static final long MAX_CACHED_ELEMENTS = 250000;
+
 	/**
 	 * Indexing tree.
 	 */
@@ -32,6 +44,13 @@ public class StorageInvocationDataAccessService extends AbstractStorageService<I
 	 */
 	private InvocationSequenceDataQueryFactory<StorageIndexQuery> invocationDataQueryFactory;
 
+	/**
+	 * Pagers of the recently paged invocations, so that expanding the elements of the same
+	 * invocation does not load the invocation from the storage again.
+	 */
+	private final Cache<Long, InvocationSequencePager> pagerCache = CacheBuilder.newBuilder().maximumWeight(MAX_CACHED_ELEMENTS)
+			.weigher((Long key, InvocationSequencePager pager) -> pager.getElementCount()).softValues().build();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -40,6 +59,18 @@ public class StorageInvocationDataAccessService extends AbstractStorageService<I
 		return this.getInvocationSequenceOverview(platformId, methodId, limit, null, null, resultComparator);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<InvocationSequenceData> getInvocationSequenceOverviewSince(long platformId, long methodId, long sinceId, int limit,
+			ResultComparator<InvocationSequenceData> resultComparator) {
+		if (STORAGE_LAST_ID == sinceId) {
+			return new IncrementalQueryResult<>(Collections.<InvocationSequenceData> emptyList(), sinceId, false);
+		}
+		return new IncrementalQueryResult<>(this.getInvocationSequenceOverview(platformId, methodId, limit, resultComparator), STORAGE_LAST_ID, true);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -139,6 +170,24 @@ public class StorageInvocationDataAccessService extends AbstractStorageService<I
 		return super.executeQuery(query);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InvocationSequenceNode getInvocationSequenceDetailPage(InvocationSequenceData template, int[] path, int offset, int limit, int levels, boolean expandHotPath) {
+		Long key = Long.valueOf(template.getId());
+		InvocationSequencePager pager = pagerCache.getIfPresent(key);
+		if (null == pager) {
+			InvocationSequenceData invocation = getInvocationSequenceDetail(template);
+			if (null == invocation) {
+				return null;
+			}
+			pager = new InvocationSequencePager(invocation);
+			pagerCache.put(key, pager);
+		}
+		return pager.getPage(path, offset, limit, levels, expandHotPath);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -11,6 +11,7 @@ import java.util.List;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.JmxSensorValueData;
 import rocks.inspectit.shared.cs.cmr.service.IJmxDataAccessService;
+import rocks.inspectit.shared.cs.communication.data.JmxSensorValueDataHelper;
 import rocks.inspectit.shared.cs.indexing.query.provider.impl.StorageIndexQueryProvider;
 import rocks.inspectit.shared.cs.indexing.restriction.impl.IndexQueryRestrictionFactory;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
@@ -121,6 +122,21 @@ public class StorageJmxDataAccessService extends AbstractStorageService<JmxSenso
 		return queryJmxData(template, fromDate, toDate, true);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<JmxSensorValueData> getJmxDataFromToDate(JmxSensorValueData template, Date fromDate, Date toDate) {
+		if (fromDate.after(toDate)) {
+			return Collections.emptyList();
+		}
+
+		// sensor configuration of the agent is not part of the storage, thus defaults are used
+		List<JmxSensorValueData> data = queryJmxData(template, fromDate, toDate, false);
+		List<JmxSensorValueData> previous = queryJmxData(template, new Date(fromDate.getTime() - JmxSensorValueDataHelper.DEFAULT_MAX_FILL_GAP), new Date(fromDate.getTime() - 1), true);
+		return JmxSensorValueDataHelper.fillGaps(data, previous, fromDate, toDate, JmxSensorValueDataHelper.DEFAULT_FILL_INTERVAL, JmxSensorValueDataHelper.DEFAULT_MAX_FILL_GAP);
+	}
+
 	/**
 	 * @param indexingTree
 	 *            the indexingTree to set
@@ -1,9 +1,11 @@
 package rocks.inspectit.ui.rcp.repository.service.storage;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.ISqlDataAccessService;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.SqlStatementDataQueryFactory;
@@ -42,7 +44,18 @@ public class StorageSqlDataAccessService extends AbstractStorageService<SqlState
 	@Override
 	public List<SqlStatementData> getAggregatedSqlStatements(SqlStatementData sqlStatementData, Date fromDate, Date toDate) {
 		StorageIndexQuery query = sqlDataQueryFactory.getAggregatedSqlStatementsQuery(sqlStatementData, fromDate, toDate);
-		return super.executeQuery(query, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR);
+		return super.executeRollupQuery(query, SqlStatementData.class, Aggregators.SQL_STATEMENT_DATA_AGGREGATOR);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<SqlStatementData> getAggregatedSqlStatementsSince(SqlStatementData sqlStatementData, long sinceId) {
+		if (STORAGE_LAST_ID == sinceId) {
+			return new IncrementalQueryResult<>(Collections.<SqlStatementData> emptyList(), sinceId, false);
+		}
+		return new IncrementalQueryResult<>(this.getAggregatedSqlStatements(sqlStatementData), STORAGE_LAST_ID, true);
 	}
 
 	/**
@@ -1,9 +1,11 @@
 package rocks.inspectit.ui.rcp.repository.service.storage;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
 import rocks.inspectit.shared.cs.cmr.service.ITimerDataAccessService;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.TimerDataQueryFactory;
@@ -42,7 +44,18 @@ public class StorageTimerDataAccessService extends AbstractStorageService<TimerD
 	@Override
 	public List<TimerData> getAggregatedTimerData(TimerData timerData, Date fromDate, Date toDate) {
 		StorageIndexQuery query = timerDataQueryFactory.getAggregatedTimerDataQuery(timerData, fromDate, toDate);
-		return super.executeQuery(query, Aggregators.TIMER_DATA_AGGREGATOR);
+		return super.executeRollupQuery(query, TimerData.class, Aggregators.TIMER_DATA_AGGREGATOR);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IncrementalQueryResult<TimerData> getAggregatedTimerDataSince(TimerData timerData, long sinceId) {
+		if (STORAGE_LAST_ID == sinceId) {
+			return new IncrementalQueryResult<>(Collections.<TimerData> emptyList(), sinceId, false);
+		}
+		return new IncrementalQueryResult<>(this.getAggregatedTimerData(timerData), STORAGE_LAST_ID, true);
 	}
 
 	/**
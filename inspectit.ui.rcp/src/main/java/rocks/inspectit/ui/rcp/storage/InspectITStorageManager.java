@@ -41,6 +41,7 @@ import rocks.inspectit.shared.all.util.ObjectUtils;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
 import rocks.inspectit.shared.cs.indexing.storage.impl.ArrayBasedStorageLeaf;
 import rocks.inspectit.shared.cs.indexing.storage.impl.CombinedStorageBranch;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageIndexMapper;
 import rocks.inspectit.shared.cs.storage.IStorageData;
 import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
@@ -86,6 +87,13 @@ public class InspectITStorageManager extends StorageManager implements CmrReposi
 	 */
 	private ConcurrentHashMap<CmrRepositoryDefinition, OnlineStatus> cachedRepositoriesStatus = new ConcurrentHashMap<>(16, 0.75f, 2);
 
+	/**
+	 * Indexing trees loaded for the local storages, mapped by the storage id. The leaves of the
+	 * trees are bound to the mapped index leaf files, thus the trees have to be released when the
+	 * storage is closed, deleted or unmounted.
+	 */
+	private final Map<String, List<IStorageTreeComponent<DefaultData>>> boundIndexingTrees = new ConcurrentHashMap<>(16, 0.75f, 2);
+
 	/**
 	 * List of {@link StorageChangeListener}s.
 	 */
@@ -290,6 +298,7 @@ public class InspectITStorageManager extends StorageManager implements CmrReposi
 	 *             If serialization fails.
 	 */
 	private void deleteLocalStorageData(LocalStorageData localStorageData, boolean informListeners) throws IOException, SerializationException {
+		releaseIndexingTrees(localStorageData);
 		localStorageData.setFullyDownloaded(false);
 		downloadedStorages.remove(localStorageData);
 		if (mountedAvailableStorages.containsKey(localStorageData) || mountedNotAvailableStorages.contains(localStorageData)) {
@@ -884,6 +893,9 @@ public class InspectITStorageManager extends StorageManager implements CmrReposi
 		if (!removeList.isEmpty()) {
 			mountedAvailableStorages.keySet().removeAll(removeList);
 			mountedNotAvailableStorages.addAll(removeList);
+			for (LocalStorageData localStorageData : removeList) {
+				releaseIndexingTrees(localStorageData);
+			}
 		}
 	}
 
@@ -945,6 +957,15 @@ public class InspectITStorageManager extends StorageManager implements CmrReposi
 	private IStorageTreeComponent<DefaultData> getIndexingTree(final IStorageData storageData) throws IOException, SerializationException {
 		Path storagePath = getStoragePath(storageData);
 		List<IStorageTreeComponent<DefaultData>> indexingTrees = this.getObjectsByFileTreeWalk(storagePath, StorageFileType.INDEX_FILE.getExtension());
+		for (IStorageTreeComponent<DefaultData> indexingTree : indexingTrees) {
+			StorageIndexMapper.bindLeaves(indexingTree, storagePath);
+		}
+
+		// the trees loaded before are replaced, the storage is closed in the repository using them
+		releaseIndexingTrees(storageData);
+		if (!indexingTrees.isEmpty()) {
+			boundIndexingTrees.put(storageData.getId(), indexingTrees);
+		}
 		if (!indexingTrees.isEmpty()) {
 			if (indexingTrees.size() == 1) {
 				return indexingTrees.get(0);
@@ -957,6 +978,23 @@ public class InspectITStorageManager extends StorageManager implements CmrReposi
 		}
 	}
 
+	/**
+	 * Releases the index leaf files of the indexing trees loaded for the storage, so that the files
+	 * are unmapped and can be deleted. Leaves of the released trees that are queried afterwards map
+	 * their files again.
+	 *
+	 * @param storageData
+	 *            {@link IStorageData}
+	 */
+	private void releaseIndexingTrees(IStorageData storageData) {
+		List<IStorageTreeComponent<DefaultData>> indexingTrees = boundIndexingTrees.remove(storageData.getId());
+		if (null != indexingTrees) {
+			for (IStorageTreeComponent<DefaultData> indexingTree : indexingTrees) {
+				StorageIndexMapper.releaseLeaves(indexingTree);
+			}
+		}
+	}
+
 	/**
 	 * Returns all storages that have been mounted locally.
 	 *
@@ -56,6 +56,7 @@ import rocks.inspectit.shared.cs.storage.LocalStorageData;
 import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageFileType;
 import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.shared.cs.storage.columnar.AbstractColumnBlock;
 import rocks.inspectit.shared.cs.storage.nio.stream.InputStreamProvider;
 import rocks.inspectit.shared.cs.storage.util.RangeDescriptor;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
@@ -134,7 +135,6 @@ public class DataRetriever {
 	 * @throws IOException
 	 *             If {@link IOException} occurs.
 	 */
-	@SuppressWarnings("unchecked")
 	public <E extends DefaultData> List<E> getDataViaHttp(CmrRepositoryDefinition cmrRepositoryDefinition, IStorageData storageData, List<IStorageDescriptor> descriptors)
 			throws IOException, SerializationException {
 		Map<Integer, List<IStorageDescriptor>> separateFilesGroup = createFilesGroup(descriptors);
@@ -187,8 +187,7 @@ public class DataRetriever {
 						input = new Input(byteArrayOutputStream.toByteArray());
 						while (KryoUtil.hasMoreBytes(input)) {
 							Object object = serializer.deserialize(input);
-							E element = (E) object;
-							receivedData.add(element);
+							addReceivedData(receivedData, object);
 						}
 						nextPart = multipartStream.readBoundary();
 					}
@@ -197,8 +196,7 @@ public class DataRetriever {
 					input = new Input(EntityUtils.toByteArray(entity));
 					while (KryoUtil.hasMoreBytes(input)) {
 						Object object = serializer.deserialize(input);
-						E element = (E) object;
-						receivedData.add(element);
+						addReceivedData(receivedData, object);
 					}
 				}
 			} finally {
@@ -237,7 +235,6 @@ public class DataRetriever {
 	 * @throws IOException
 	 *             If {@link IOException} occurs.
 	 */
-	@SuppressWarnings("unchecked")
 	public <E extends DefaultData> List<E> getDataLocally(LocalStorageData localStorageData, List<IStorageDescriptor> descriptors) throws IOException, SerializationException {
 		Map<Integer, List<IStorageDescriptor>> separateFilesGroup = createFilesGroup(descriptors);
 		List<IStorageDescriptor> optimizedDescriptors = new ArrayList<>();
@@ -273,8 +270,7 @@ public class DataRetriever {
 			input = new Input(inputStream);
 			while (KryoUtil.hasMoreBytes(input)) {
 				Object object = serializer.deserialize(input);
-				E element = (E) object;
-				receivedData.add(element);
+				addReceivedData(receivedData, object);
 			}
 		} finally {
 			if (null != input) {
@@ -286,6 +282,28 @@ public class DataRetriever {
 		return receivedData;
 	}
 
+	/**
+	 * Adds the deserialized object to the list of the received data. The column blocks of the
+	 * storages written in the columnar format are expanded to their elements.
+	 *
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param receivedData
+	 *            List of the received data.
+	 * @param object
+	 *            Deserialized object.
+	 * @throws SerializationException
+	 *             If the column block can not be decoded.
+	 */
+	@SuppressWarnings("unchecked")
+	private <E extends DefaultData> void addReceivedData(List<E> receivedData, Object object) throws SerializationException {
+		if (object instanceof AbstractColumnBlock) {
+			receivedData.addAll((List<E>) ((AbstractColumnBlock<?>) object).getElements());
+		} else {
+			receivedData.add((E) object);
+		}
+	}
+
 	/**
 	 * Returns cached data for the storage from the CMR if the cached data exists for given hash. If
 	 * data does not exist <code>null</code> is returned.
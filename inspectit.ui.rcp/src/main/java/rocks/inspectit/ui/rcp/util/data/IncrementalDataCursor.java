@@ -0,0 +1,131 @@
+package rocks.inspectit.ui.rcp.util.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+
+/**
+ * Remembers the position of the data a view loaded with the incremental queries and merges the
+ * newly loaded data with the displayed one.
+ * <p>
+ * Every {@link #FULL_REFRESH_INTERVAL} refreshes the complete data is loaded again, so that the
+ * view drops the data evicted from the buffer.
+ *
+ * @author agent
+ *
+ */
+public class IncrementalDataCursor {
+
+	/**
+	 * Amount of incremental refreshes after which the complete data is loaded again.
+	 */
+	static final int FULL_REFRESH_INTERVAL = 30;
+
+	/**
+	 * Last ID of the loaded data, <code>0</code> if the complete data should be loaded.
+	 */
+	private long lastId;
+
+	/**
+	 * Amount of incremental refreshes since the complete data was loaded.
+	 */
+	private int incrementalRefreshes;
+
+	/**
+	 * Returns the ID to pass to the incremental query.
+	 *
+	 * @return Returns the ID to pass to the incremental query, <code>0</code> if the complete data
+	 *         should be loaded.
+	 */
+	public long getSinceId() {
+		if (incrementalRefreshes >= FULL_REFRESH_INTERVAL) {
+			return 0L;
+		}
+		return lastId;
+	}
+
+	/**
+	 * Resets the cursor, so that the next query loads the complete data. Should be called when the
+	 * query parameters change.
+	 */
+	public void reset() {
+		lastId = 0L;
+		incrementalRefreshes = 0;
+	}
+
+	/**
+	 * Updates the cursor with the loaded result.
+	 *
+	 * @param result
+	 *            Result of the incremental query.
+	 * @return Returns <code>true</code> if the result is complete and must replace the displayed
+	 *         data, <code>false</code> if the result must be merged with the displayed data.
+	 */
+	public boolean update(IncrementalQueryResult<?> result) {
+		lastId = result.getLastId();
+		if (result.isComplete()) {
+			incrementalRefreshes = 0;
+			return true;
+		}
+		incrementalRefreshes++;
+		return false;
+	}
+
+	/**
+	 * Merges the displayed aggregated data with the aggregation of the new data.
+	 *
+	 * @param <E>
+	 *            Type of data.
+	 * @param displayed
+	 *            Displayed aggregated data, not changed by this method.
+	 * @param newData
+	 *            Aggregation of the new data.
+	 * @param aggregator
+	 *            Aggregator both lists were aggregated with.
+	 * @return New list of aggregated data.
+	 */
+	public static <E extends DefaultData> List<E> aggregate(List<E> displayed, List<E> newData, IAggregator<E> aggregator) {
+		if (newData.isEmpty()) {
+			return new ArrayList<>(displayed);
+		}
+		AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<>(aggregator);
+		aggregationPerformer.processCollection(displayed);
+		aggregationPerformer.processCollection(newData);
+		return aggregationPerformer.getResultList();
+	}
+
+	/**
+	 * Merges the displayed data with the new data, keeping the given order and limit.
+	 *
+	 * @param <E>
+	 *            Type of data.
+	 * @param displayed
+	 *            Displayed data, not changed by this method.
+	 * @param newData
+	 *            New data.
+	 * @param comparator
+	 *            Comparator defining the order of the data.
+	 * @param limit
+	 *            Maximum amount of elements. Value <code>-1</code> means no limit.
+	 * @return New list of data.
+	 */
+	public static <E extends DefaultData> List<E> merge(List<E> displayed, List<E> newData, Comparator<? super E> comparator, int limit) {
+		List<E> result = new ArrayList<>(displayed.size() + newData.size());
+		result.addAll(displayed);
+		if (newData.isEmpty()) {
+			return result;
+		}
+		result.addAll(newData);
+		Collections.sort(result, comparator);
+		if ((limit > -1) && (result.size() > limit)) {
+			result = new ArrayList<>(result.subList(0, limit));
+		}
+		return result;
+	}
+}
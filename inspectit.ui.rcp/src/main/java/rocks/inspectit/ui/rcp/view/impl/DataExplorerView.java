@@ -45,6 +45,7 @@ import org.eclipse.ui.part.ViewPart;
 import com.google.common.base.Objects;
 
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
+import rocks.inspectit.shared.all.communication.data.cmr.AgentTreeDelta;
 import rocks.inspectit.shared.all.exception.BusinessException;
 import rocks.inspectit.shared.all.util.ObjectUtils;
 import rocks.inspectit.shared.cs.storage.IStorageData;
@@ -107,6 +108,17 @@ public class DataExplorerView extends ViewPart implements CmrRepositoryChangeLis
 	 */
 	private PlatformIdent displayedAgent;
 
+	/**
+	 * Version of the {@link #displayedAgent} tree, used to load only the changes when the same
+	 * agent is displayed again.
+	 */
+	private long displayedAgentTreeVersion;
+
+	/**
+	 * Repository the {@link #displayedAgent} tree was loaded from.
+	 */
+	private RepositoryDefinition displayedAgentTreeRepositoryDefinition;
+
 	/**
 	 * Available agents for displaying.
 	 */
@@ -300,11 +312,11 @@ public class DataExplorerView extends ViewPart implements CmrRepositoryChangeLis
 				PlatformIdent usedAgent = agent;
 				try {
 					if ((null != usedAgent) && CollectionUtils.isNotEmpty(availableAgents) && availableAgents.contains(usedAgent)) {
-						displayedAgent = displayedRepositoryDefinition.getGlobalDataAccessService().getCompleteAgent(usedAgent.getId());
+						displayedAgent = loadAgentTree(usedAgent);
 						PreferencesUtils.saveLongValue(PreferencesConstants.LAST_SELECTED_AGENT, usedAgent.getId().longValue(), false);
 					} else if (CollectionUtils.isNotEmpty(availableAgents)) {
 						usedAgent = availableAgents.iterator().next();
-						displayedAgent = displayedRepositoryDefinition.getGlobalDataAccessService().getCompleteAgent(usedAgent.getId());
+						displayedAgent = loadAgentTree(usedAgent);
 					} else {
 						displayedAgent = null; // NOPMD
 					}
@@ -327,6 +339,32 @@ public class DataExplorerView extends ViewPart implements CmrRepositoryChangeLis
 		});
 	}
 
+	/**
+	 * Loads the tree of the given agent from the displayed repository. If the same agent from the
+	 * same repository is already displayed, only the changes since the displayed version are
+	 * loaded and merged.
+	 *
+	 * @param agent
+	 *            Agent to load the tree for.
+	 * @return Complete agent tree.
+	 * @throws BusinessException
+	 *             If agent does not exist.
+	 */
+	private PlatformIdent loadAgentTree(PlatformIdent agent) throws BusinessException {
+		PlatformIdent base = null;
+		long sinceVersion = 0L;
+		if ((null != displayedAgent) && Objects.equal(displayedAgent.getId(), agent.getId()) && Objects.equal(displayedAgentTreeRepositoryDefinition, displayedRepositoryDefinition)) {
+			base = displayedAgent;
+			sinceVersion = displayedAgentTreeVersion;
+		}
+
+		AgentTreeDelta delta = displayedRepositoryDefinition.getGlobalDataAccessService().getAgentTreeChanges(agent.getId(), sinceVersion);
+		PlatformIdent tree = delta.applyTo(base);
+		displayedAgentTreeVersion = delta.getVersion();
+		displayedAgentTreeRepositoryDefinition = displayedRepositoryDefinition;
+		return tree;
+	}
+
 	/**
 	 * Caches the current expanded objects in the tree viewer with the given platform
 	 * ident/repository combination. Note that this method will filter out the elements given by
@@ -59,6 +59,11 @@ public class DefineNewStorageWizzardPage extends WizardPage {
 	 */
 	private Button autoFinalize;
 
+	/**
+	 * Button for choosing if storage should be written in the columnar format.
+	 */
+	private Button columnarFormat;
+
 	/**
 	 * {@link CmrRepositoryDefinition} that should be initially selected.
 	 */
@@ -153,6 +158,12 @@ public class DefineNewStorageWizzardPage extends WizardPage {
 		autoFinalize.setToolTipText("If selected the storage will be automatically finalized after the action completes");
 		autoFinalize.setSelection(autoFinalizeSelected);
 
+		new Label(main, SWT.LEFT);
+		columnarFormat = new Button(main, SWT.CHECK);
+		columnarFormat.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
+		columnarFormat.setText("Compressed columnar format");
+		columnarFormat.setToolTipText("If selected the timer, SQL and HTTP timer data is written to the storage in the compressed column blocks, which needs less disk space");
+
 		Listener listener = new Listener() {
 			@Override
 			public void handleEvent(Event event) {
@@ -208,6 +219,7 @@ public class DefineNewStorageWizzardPage extends WizardPage {
 		StorageData storageData = new StorageData();
 		storageData.setName(nameBox.getText().trim());
 		storageData.setDescription(descriptionBox.getText().trim());
+		storageData.setColumnarFormat(columnarFormat.getSelection());
 		return storageData;
 	}
 
@@ -0,0 +1,176 @@
+package rocks.inspectit.ui.rcp.util.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.communication.data.cmr.IncrementalQueryResult;
+import rocks.inspectit.shared.all.testbase.TestBase;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
+
+/**
+ * Tests the {@link IncrementalDataCursor}.
+ *
+ * @author agent
+ *
+ */
+@SuppressWarnings("PMD")
+public class IncrementalDataCursorTest extends TestBase {
+
+	/**
+	 * Orders by the ID descending.
+	 */
+	static final Comparator<TimerData> ID_DESCENDING = new Comparator<TimerData>() {
+		@Override
+		public int compare(TimerData o1, TimerData o2) {
+			return Long.compare(o2.getId(), o1.getId());
+		}
+	};
+
+	IncrementalDataCursor cursor;
+
+	@BeforeMethod
+	public void init() {
+		cursor = new IncrementalDataCursor();
+	}
+
+	private static TimerData timerData(long id, long methodIdent, double duration) {
+		TimerData timerData = new TimerData();
+		timerData.setId(id);
+		timerData.setPlatformIdent(1L);
+		timerData.setMethodIdent(methodIdent);
+		timerData.setCount(1L);
+		timerData.setDuration(duration);
+		timerData.setMin(duration);
+		timerData.setMax(duration);
+		return timerData;
+	}
+
+	/**
+	 * Tests the {@link IncrementalDataCursor#update(IncrementalQueryResult)} method.
+	 */
+	public static class Update extends IncrementalDataCursorTest {
+
+		@Test
+		public void incremental() {
+			boolean replace = cursor.update(new IncrementalQueryResult<>(Collections.<TimerData> emptyList(), 10L, false));
+
+			assertThat(replace, is(false));
+			assertThat(cursor.getSinceId(), is(10L));
+		}
+
+		@Test
+		public void complete() {
+			boolean replace = cursor.update(new IncrementalQueryResult<>(Collections.<TimerData> emptyList(), 10L, true));
+
+			assertThat(replace, is(true));
+			assertThat(cursor.getSinceId(), is(10L));
+		}
+
+		@Test
+		public void fullRefresh() {
+			for (int i = 0; i < IncrementalDataCursor.FULL_REFRESH_INTERVAL; i++) {
+				cursor.update(new IncrementalQueryResult<>(Collections.<TimerData> emptyList(), 10L, false));
+			}
+
+			assertThat(cursor.getSinceId(), is(0L));
+		}
+
+		@Test
+		public void reset() {
+			cursor.update(new IncrementalQueryResult<>(Collections.<TimerData> emptyList(), 10L, false));
+
+			cursor.reset();
+
+			assertThat(cursor.getSinceId(), is(0L));
+		}
+	}
+
+	/**
+	 * Tests the {@link IncrementalDataCursor#merge(List, List, Comparator, int)} method.
+	 */
+	public static class Merge extends IncrementalDataCursorTest {
+
+		@Test
+		public void ordered() {
+			TimerData one = timerData(1L, 1L, 1d);
+			TimerData two = timerData(2L, 1L, 1d);
+			TimerData three = timerData(3L, 1L, 1d);
+
+			List<TimerData> result = IncrementalDataCursor.merge(Arrays.asList(one, two), Collections.singletonList(three), ID_DESCENDING, -1);
+
+			assertThat(result, contains(three, two, one));
+		}
+
+		@Test
+		public void limited() {
+			TimerData one = timerData(1L, 1L, 1d);
+			TimerData two = timerData(2L, 1L, 1d);
+			TimerData three = timerData(3L, 1L, 1d);
+
+			List<TimerData> result = IncrementalDataCursor.merge(Arrays.asList(one, two), Collections.singletonList(three), ID_DESCENDING, 2);
+
+			assertThat(result, contains(three, two));
+		}
+
+		@Test
+		public void nothingNew() {
+			List<TimerData> displayed = Arrays.asList(timerData(1L, 1L, 1d));
+
+			List<TimerData> result = IncrementalDataCursor.merge(displayed, Collections.<TimerData> emptyList(), ID_DESCENDING, -1);
+
+			assertThat(result, is(displayed));
+		}
+	}
+
+	/**
+	 * Tests the
+	 * {@link IncrementalDataCursor#aggregate(List, List, rocks.inspectit.shared.cs.indexing.aggregation.IAggregator)}
+	 * method.
+	 */
+	public static class Aggregate extends IncrementalDataCursorTest {
+
+		@Test
+		public void sameKey() {
+			List<TimerData> displayed = Collections.singletonList(timerData(1L, 1L, 10d));
+			List<TimerData> newData = Collections.singletonList(timerData(2L, 1L, 20d));
+
+			List<TimerData> result = IncrementalDataCursor.aggregate(displayed, newData, Aggregators.TIMER_DATA_AGGREGATOR);
+
+			assertThat(result, hasSize(1));
+			assertThat(result.get(0).getCount(), is(2L));
+			assertThat(result.get(0).getDuration(), is(30d));
+		}
+
+		@Test
+		public void differentKey() {
+			List<TimerData> displayed = Collections.singletonList(timerData(1L, 1L, 10d));
+			List<TimerData> newData = Collections.singletonList(timerData(2L, 2L, 20d));
+
+			List<TimerData> result = IncrementalDataCursor.aggregate(displayed, newData, Aggregators.TIMER_DATA_AGGREGATOR);
+
+			assertThat(result, hasSize(2));
+		}
+
+		@Test
+		public void displayedNotChanged() {
+			TimerData displayedData = timerData(1L, 1L, 10d);
+
+			IncrementalDataCursor.aggregate(Collections.singletonList(displayedData), Collections.singletonList(timerData(2L, 1L, 20d)), Aggregators.TIMER_DATA_AGGREGATOR);
+
+			assertThat(displayedData.getCount(), is(1L));
+			assertThat(displayedData.getDuration(), is(10d));
+		}
+	}
+
+}